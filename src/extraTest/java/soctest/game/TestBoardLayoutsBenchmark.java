@@ -0,0 +1,149 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.game;
+
+import java.util.Map;
+import java.util.Random;
+
+import soc.game.SOCBoard;
+import soc.game.SOCGame;
+import soc.game.SOCGameOptionSet;
+import soc.game.SOCScenario;
+import soc.server.SOCGameHandler;
+import soc.server.SOCGameListAtServer;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Benchmark board layout time for classic games and every {@link SOCScenario},
+ * for 2, 3, 4 and 6 players, with and without game option {@code "BC=t3"} (break up clumps of 3 or more).
+ * Calls {@link SOCBoard#makeNewBoard(SOCGameOptionSet)} {@link #rounds} times per layout
+ * and prints a table of average and maximum microseconds to {@link System#out}.
+ *<P>
+ * Run as part of {@code extraTest}, or standalone with optional round count:
+ * {@code java soctest.game.TestBoardLayoutsBenchmark 2000}
+ *
+ * @see TestBoardLayouts
+ * @since 2.7.00
+ */
+public class TestBoardLayoutsBenchmark
+{
+    /** Rounds per layout; default 200 */
+    public static int rounds = 200;
+
+    private static SOCGameListAtServer gl;
+
+    private static SOCGameHandler sgh;
+
+    @BeforeClass
+    public static void setup()
+    {
+        sgh = new SOCGameHandler(null);
+        gl = new SOCGameListAtServer(new Random(), SOCGameOptionSet.getAllKnownOptions());
+    }
+
+    /**
+     * Time each layout and print results; asserts only that layouts can be made.
+     */
+    @Test
+    public void benchLayouts()
+    {
+        final int[] PL = {2, 3, 4, 6};
+        final Map<String, SOCScenario> allScens = SOCScenario.getAllKnownScenarios();
+
+        // warm up the JIT on a few layouts before timing
+        for (int i = 0; i < 3; ++i)
+            for (final SOCScenario sc : allScens.values())
+                benchOne(sc, 4, "BC=t3", rounds / 10 + 1);
+
+        System.out.println("Board layout benchmark: " + rounds + " rounds each; times in microseconds");
+        System.out.println(String.format("%-12s %3s %5s %9s %9s", "layout", "pl", "BC", "avg", "max"));
+        long totalNanos = 0;
+        for (int pl : PL)
+            totalNanos += benchOneAndPrint(null, pl);
+        for (final SOCScenario sc : allScens.values())
+            for (int pl : PL)
+                totalNanos += benchOneAndPrint(sc, pl);
+
+        System.out.println("Total: " + (totalNanos / 1000000L) + " ms");
+    }
+
+    /** Bench a scenario and player count without and with {@code "BC=t3"}, printing a line for each. */
+    private static long benchOneAndPrint(final SOCScenario sc, final int pl)
+    {
+        long total = 0;
+        for (final String bc : new String[]{ null, "BC=t3" })
+        {
+            final long[] nanos = benchOne(sc, pl, bc, rounds);
+            System.out.println(String.format
+                ("%-12s %3d %5s %9d %9d", (sc != null) ? sc.key : "classic", pl, (bc != null) ? "t3" : "-",
+                 nanos[0] / rounds / 1000, nanos[1] / 1000));
+            total += nanos[0];
+        }
+
+        return total;
+    }
+
+    /**
+     * Make a layout {@code n} times.
+     * @return total and maximum nanoseconds
+     */
+    private static long[] benchOne(final SOCScenario sc, final int pl, final String otherOpts, final int n)
+    {
+        final SOCGame ga = GameTestUtils.createGame
+            (pl, ((sc != null) ? sc.key : null), otherOpts, "benchLayout", gl, sgh);
+        final SOCGameOptionSet opts = ga.getGameOptions();
+        long total = 0, max = 0;
+        try
+        {
+            for (int i = 0; i < n; ++i)
+            {
+                final long t0 = System.nanoTime();
+                final SOCBoard b = SOCGame.boardFactory.createBoard(opts, ga.hasSeaBoard, ga.maxPlayers);
+                b.makeNewBoard(opts);
+                final long dt = System.nanoTime() - t0;
+                total += dt;
+                if (dt > max)
+                    max = dt;
+                assertNotNull(b.getLandHexCoords());
+            }
+        } finally {
+            gl.deleteGame(ga.getName());
+        }
+
+        return new long[]{ total, max };
+    }
+
+    /**
+     * Run the benchmark. 1 optional arg: {@link #rounds}.
+     * @param args Arguments: empty or 1 argument: round count as integer string.
+     */
+    public static void main(String[] args)
+    {
+        if (args.length == 1)
+            rounds = Integer.parseInt(args[0]);
+
+        org.junit.runner.JUnitCore.main("soctest.game.TestBoardLayoutsBenchmark");
+    }
+
+}
@@ -0,0 +1,155 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.i18n;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Locale;
+
+import soc.game.SOCDevCardConstants;
+import soc.game.SOCResourceConstants;
+import soc.game.SOCResourceSet;
+import soc.util.SOCStringManager;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Microbenchmark of {@link SOCStringManager} formatting of typical server strings sent to clients,
+ * with cached {@link SOCStringManager.ParsedFormat}s versus parsing each pattern every time as before v2.7.00.
+ * Prints a table of average nanoseconds per call to {@link System#out}.
+ *<P>
+ * Run as part of {@code extraTest}, or standalone with optional round count:
+ * {@code java soctest.i18n.TestStringFormatBenchmark 500000}
+ *
+ * @see TestI18N
+ * @since 2.7.00
+ */
+public class TestStringFormatBenchmark
+{
+    /** Calls per string and locale; default 100000 */
+    public static int rounds = 100000;
+
+    /**
+     * Server strings to format: Key, then arguments.
+     * Keys whose text has special parameters like <tt>{1,rsrcs}</tt> are formatted with
+     * {@link SOCStringManager#getSpecial(soc.game.SOCGame, String, Object...)}.
+     */
+    private static final Object[][] STRINGS =
+    {
+        { "action.built.city", "Player1" },
+        { "action.rolled.sc_piri.player.lost.rsrcs.to.fleet", "Player1", 3, 5 },
+        { "game.playername.gets.resources.common", "Player1", new SOCResourceSet(1, 0, 2, 0, 1, 0) },
+        { "robber.common.stole.resource.from.you", "Player1", 1, SOCResourceConstants.WHEAT },
+        { "action.rolled.sc_clvi.received.cloth.n", Arrays.asList("Player1", "Player2", "Player3") },
+        { "reply.playdevcard.cannot.now", SOCDevCardConstants.ROADS },
+    };
+
+    /**
+     * Time each string in a few locales, cached and uncached, and print results;
+     * asserts that both ways give the same text.
+     */
+    @Test
+    public void benchFormat()
+    {
+        final String[] LOCALES = { "en_US", "de", "es" };
+
+        System.out.println("String format benchmark: " + rounds + " rounds each; times in nanoseconds per call");
+        System.out.println(String.format("%-50s %-6s %9s %9s", "key", "locale", "uncached", "cached"));
+        long totalUncached = 0, totalCached = 0;
+        for (final String loc : LOCALES)
+        {
+            final SOCStringManager sm = SOCStringManager.getServerManagerForClient(SOCStringManager.parseLocale(loc));
+            for (final Object[] str : STRINGS)
+            {
+                final String key = (String) str[0];
+                final Object[] args = Arrays.copyOfRange(str, 1, str.length);
+                assertEquals(key + " " + loc, formatUncached(sm, key, args), formatCached(sm, key, args));
+
+                // warm up the JIT before timing
+                benchOne(sm, key, args, false, rounds / 10 + 1);
+                benchOne(sm, key, args, true, rounds / 10 + 1);
+
+                final long unc = benchOne(sm, key, args, false, rounds), cac = benchOne(sm, key, args, true, rounds);
+                System.out.println(String.format
+                    ("%-50s %-6s %9d %9d", key, loc, unc / rounds, cac / rounds));
+                totalUncached += unc;
+                totalCached += cac;
+            }
+        }
+
+        System.out.println("Total: uncached " + (totalUncached / 1000000L) + " ms, cached "
+            + (totalCached / 1000000L) + " ms");
+    }
+
+    /**
+     * Format a string {@code n} times.
+     * @return total nanoseconds
+     */
+    private static long benchOne
+        (final SOCStringManager sm, final String key, final Object[] args, final boolean cached, final int n)
+    {
+        int len = 0;
+        final long t0 = System.nanoTime();
+        for (int i = 0; i < n; ++i)
+            len += (cached) ? formatCached(sm, key, args).length() : formatUncached(sm, key, args).length();
+        final long dt = System.nanoTime() - t0;
+        assertTrue(len > 0);  // use the results, so the JIT can't skip formatting
+
+        return dt;
+    }
+
+    private static boolean isSpecial(final String txtfmt)
+    {
+        return txtfmt.contains(",rsrcs}") || txtfmt.contains(",dcards}") || txtfmt.contains(",list}");
+    }
+
+    /** Format using {@link SOCStringManager}'s cached parsed formats. */
+    private static String formatCached(final SOCStringManager sm, final String key, final Object[] args)
+    {
+        return isSpecial(sm.get(key)) ? sm.getSpecial(null, key, args) : sm.get(key, args);
+    }
+
+    /**
+     * Format by parsing the pattern each time, as before v2.7.00.
+     * Special parameters' resource names, etc are still formatted with the cache.
+     */
+    private static String formatUncached(final SOCStringManager sm, final String key, final Object[] args)
+    {
+        final String txtfmt = sm.get(key);
+        return isSpecial(txtfmt)
+            ? SOCStringManager.ParsedFormat.parse(txtfmt).format(sm, null, args)
+            : MessageFormat.format(txtfmt, args);
+    }
+
+    /**
+     * Run the benchmark. 1 optional arg: {@link #rounds}.
+     * @param args Arguments: empty or 1 argument: round count as integer string.
+     */
+    public static void main(String[] args)
+    {
+        if (args.length == 1)
+            rounds = Integer.parseInt(args[0]);
+
+        org.junit.runner.JUnitCore.main("soctest.i18n.TestStringFormatBenchmark");
+    }
+
+}
@@ -32,6 +32,7 @@ import soc.game.SOCGameOption;
 import soc.game.SOCGameOptionSet;
 import soc.message.SOCChangeGameOptions;
 import soc.robot.SOCRobotBrain;
+import soc.server.GameListCache;
 import soc.server.SOCGameHandler;
 import soc.server.genericServer.Connection;
 import soc.util.Version;
@@ -203,6 +204,11 @@ public class TestClientVersion
 
         // TODO at other new cli, see if UB changed yet
 
+        // game list cached for newly connecting clients has UB before start
+        final GameListCache listCache = srv.getGameList().getListCache();
+        String listCmd = listCache.getGameListCmd(Version.versionNumber(), srv.getGameList().getGamesData());
+        assertTrue(listCmd, listCmd.contains("UB=t"));
+
         // start game
         tcli.startGame(gaAtCli);
         try { Thread.sleep(120); }
@@ -216,6 +222,8 @@ public class TestClientVersion
         opts = tcli.getServerGameOptions(gaName);
         assertNotNull(opts);
         assertFalse("gameopt UB removed at server for compat with old client", opts.containsKey("UB"));
+        listCmd = listCache.getGameListCmd(Version.versionNumber(), srv.getGameList().getGamesData());
+        assertFalse("cached game list updated when UB removed: " + listCmd, listCmd.contains("UB=t"));
 
         // at all cli, see if UB changed now
         opts = tcli.getServerGameOptions(gaName);
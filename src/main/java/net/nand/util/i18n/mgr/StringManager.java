@@ -1,6 +1,6 @@
 /**
  * nand.net i18n utilities for Java: String Manager.
- * This file Copyright (C) 2013,2018-2020 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2013,2018-2020,2026 Jeremy D Monin <jeremy@nand.net>
  * Some parts of this file Copyright (C) 2013 Luis A. Ramirez <lartkma@gmail.com>
  *
  * This program is free software; you can redistribute it and/or
@@ -74,6 +74,17 @@ public class StringManager
         bundle = ResourceBundle.getBundle(bundlePath, loc);
     }
 
+    /**
+     * Get the locale of the bundle actually found for this manager, which may be a parent or fallback
+     * of the locale asked for: For example {@code de} when asked for {@code de_AT}.
+     * Managers with the same bundle locale and path return the same strings.
+     * @return  The bundle's {@link ResourceBundle#getLocale()}; the root bundle's locale is empty, not {@code null}
+     */
+    public Locale getBundleLocale()
+    {
+        return bundle.getLocale();
+    }
+
     /**
      * Parse and construct a Locale for this locale string.
      *<P>
@@ -122,6 +133,21 @@ public class StringManager
      */
     public final String get(final String key, final Object ... arguments)
         throws MissingResourceException
+    {
+        return format(key, arguments);
+    }
+
+    /**
+     * Look up and format a localized string for {@link #get(String, Object...)}.
+     * This default implementation parses the string each time with {@link MessageFormat#format(String, Object...)};
+     * subclasses can override to cache the parsed format.
+     * @param key  Key to use for string retrieval
+     * @param arguments  Objects to use with <tt>{0}</tt>, <tt>{1}</tt>, etc in the localized string
+     * @return the localized formatted string
+     * @throws MissingResourceException if no string can be found for {@code key}
+     */
+    protected String format(final String key, final Object[] arguments)
+        throws MissingResourceException
     {
         return MessageFormat.format(bundle.getString(key), arguments);
     }
@@ -1,6 +1,6 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
- * This file Copyright (C) 2020-2025 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2020-2026 Jeremy D Monin <jeremy@nand.net>
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -232,6 +232,16 @@ public class RecordingSOCServer
         log.add(entry);
     }
 
+    /** Returns the game's log from {@link #records}, for memory estimates. */
+    @Override
+    protected Object getGameEventLog(final String gaName)
+    {
+        synchronized(records)
+        {
+            return records.get(gaName);
+        }
+    }
+
     @Override
     public void recordGameEvent(final String gameName, SOCMessage event)
     {
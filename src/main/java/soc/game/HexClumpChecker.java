@@ -0,0 +1,300 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.game;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks and repairs "clumps" of adjacent same-type land hexes while a board is being laid out,
+ * for game option {@code "BC"} (Break up clumps of # or more same-type hexes).
+ * Works on an array of hex types in the same order as a fixed set of hex coordinates,
+ * before those types are placed on the board.
+ *<P>
+ * {@link #findClump(int[])} is a union-find pass over same-type neighbors which stops
+ * as soon as any clump reaches the limit. {@link #repair(int[], Random)} breaks up clumps by
+ * swapping one of their hexes with a hex elsewhere, checking only the two clumps touched by the swap,
+ * instead of reshuffling and re-checking the whole layout.
+ *<P>
+ * Only hexes within the set are considered: Adjacent hexes placed earlier, such as another land area,
+ * don't count toward a clump. Water hexes are never part of a clump.
+ * Not thread-safe: Each layout should use its own instance.
+ *
+ * @see SOCBoard#makeNewBoard(SOCGameOptionSet)
+ * @since 2.7.00
+ */
+public final class HexClumpChecker
+{
+    /** For each hex index, the indexes of its adjacent hexes within the set */
+    private final int[][] adjacent;
+
+    /** Clumps of this size or more are too large */
+    private final int clumpSize;
+
+    /** Union-find parent and component size, used by {@link #findClump(int[])} */
+    private final int[] parent, compSize;
+
+    /** For {@link #clumpSizeAt(int[], int, int)}: Visit marks and search queue */
+    private final int[] mark, queue;
+
+    /** Current visit mark value; incremented by each search */
+    private int stamp;
+
+    /** Total number of swaps made by {@link #repair(int[], Random)} */
+    private int swapCount;
+
+    /**
+     * Create a checker for a set of hexes on a board.
+     * Adjacency is found with {@link SOCBoard#getAdjacentHexesToHex(int, boolean)}, which for this purpose
+     * depends only on board geometry, not on the hex types placed so far.
+     *
+     * @param board  Board being laid out; not null
+     * @param hexCoords  Coordinates of the hexes whose types will be checked; not null.
+     *     Types arrays given to other methods must be in the same order.
+     * @param clumpSize  Clumps of this size or more are too large.
+     *     Minimum value is 3, smaller values will never find clumps.
+     * @return  New checker for these hexes
+     */
+    public static HexClumpChecker forHexes(final SOCBoard board, final int[] hexCoords, final int clumpSize)
+    {
+        final int n = hexCoords.length;
+        final HashMap<Integer, Integer> idx = new HashMap<>();
+        for (int i = 0; i < n; ++i)
+            idx.put(Integer.valueOf(hexCoords[i]), Integer.valueOf(i));
+
+        final int[][] adj = new int[n][];
+        final int[] buf = new int[6];
+        for (int i = 0; i < n; ++i)
+        {
+            int nAdj = 0;
+            final List<Integer> hexes = board.getAdjacentHexesToHex(hexCoords[i], true);
+            if (hexes != null)
+                for (final Integer h : hexes)
+                {
+                    final Integer j = idx.get(h);
+                    if (j != null)
+                        buf[nAdj++] = j.intValue();
+                }
+
+            adj[i] = new int[nAdj];
+            System.arraycopy(buf, 0, adj[i], 0, nAdj);
+        }
+
+        return new HexClumpChecker(adj, clumpSize);
+    }
+
+    /**
+     * Create a checker from adjacency lists.
+     * @param adjacent  For each hex index, the indexes of its adjacent hexes in the set; not null.
+     *     Adjacency should be symmetric. Not copied; contents shouldn't be changed afterwards.
+     * @param clumpSize  Clumps of this size or more are too large.
+     *     Minimum value is 3, smaller values will never find clumps.
+     */
+    public HexClumpChecker(final int[][] adjacent, final int clumpSize)
+    {
+        final int n = adjacent.length;
+        this.adjacent = adjacent;
+        this.clumpSize = clumpSize;
+        parent = new int[n];
+        compSize = new int[n];
+        mark = new int[n];
+        queue = new int[n];
+    }
+
+    /**
+     * Find a clump which is too large.
+     * @param types  Hex type at each index, like {@link SOCBoard#CLAY_HEX}; not changed
+     * @return  Index of a hex in a clump of {@code clumpSize} or more hexes, or -1 if none
+     * @throws IllegalArgumentException if a hex type is -1 (uninitialized or not a valid hex coordinate)
+     */
+    public int findClump(final int[] types)
+        throws IllegalArgumentException
+    {
+        if (clumpSize < 3)
+            return -1;
+
+        final int n = adjacent.length;
+        for (int i = 0; i < n; ++i)
+        {
+            parent[i] = i;
+            compSize[i] = 1;
+        }
+
+        for (int i = 0; i < n; ++i)
+        {
+            final int t = types[i];
+            if (t == -1)
+                throw new IllegalArgumentException("hex type -1 at index " + i);
+            if (t == SOCBoard.WATER_HEX)
+                continue;
+
+            for (final int j : adjacent[i])
+            {
+                if ((j < i) || (types[j] != t))
+                    continue;  // each pair is seen twice; union only from the lower index
+
+                int ri = find(i), rj = find(j);
+                if (ri == rj)
+                    continue;
+                if (compSize[ri] < compSize[rj])
+                {
+                    final int tmp = ri;  ri = rj;  rj = tmp;
+                }
+                parent[rj] = ri;
+                compSize[ri] += compSize[rj];
+                if (compSize[ri] >= clumpSize)
+                    return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /** Union-find root of {@code i}, with path halving. */
+    private int find(int i)
+    {
+        while (parent[i] != i)
+        {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+
+        return i;
+    }
+
+    /**
+     * Does this layout have a clump which is too large?
+     * @param types  Hex type at each index; not changed
+     * @return  true if large clumps found, false if okay
+     * @throws IllegalArgumentException if a hex type is -1
+     * @see #findClump(int[])
+     */
+    public boolean hasClumps(final int[] types)
+        throws IllegalArgumentException
+    {
+        return (findClump(types) != -1);
+    }
+
+    /**
+     * Try to break up all large clumps by swapping hex types, without reshuffling.
+     * For each large clump, picks one of its hexes at random and swaps it with the first hex
+     * (from a random starting index) of a different type where neither hex ends up in a large clump.
+     * Since every hex keeps its type and only positions change, the layout is still a shuffle of the same types.
+     *
+     * @param types  Hex type at each index; contents will be swapped
+     * @param rand  Random source for choosing hexes
+     * @return  true if no large clumps remain; false if repair gave up, and caller should reshuffle
+     * @throws IllegalArgumentException if a hex type is -1
+     */
+    public boolean repair(final int[] types, final Random rand)
+        throws IllegalArgumentException
+    {
+        final int n = adjacent.length;
+        for (int steps = 4 * n; steps > 0; --steps)
+        {
+            final int inClump = findClump(types);
+            if (inClump == -1)
+                return true;
+
+            // pick a random member of that clump
+            final int nMembers = clumpSizeAt(types, inClump, n);
+            final int m = queue[rand.nextInt(nMembers)];
+            final int t = types[m];
+
+            boolean swapped = false;
+            final int start = rand.nextInt(n);
+            for (int k = 0; k < n; ++k)
+            {
+                final int j = (start + k) % n;
+                final int tj = types[j];
+                if (tj == t)
+                    continue;
+
+                types[m] = tj;
+                types[j] = t;
+                if ((clumpSizeAt(types, m, clumpSize) < clumpSize) && (clumpSizeAt(types, j, clumpSize) < clumpSize))
+                {
+                    swapped = true;
+                    ++swapCount;
+                    break;
+                }
+                types[m] = t;
+                types[j] = tj;
+            }
+
+            if (! swapped)
+                return false;
+        }
+
+        return ! hasClumps(types);
+    }
+
+    /**
+     * Breadth-first search for the size of the same-type clump containing a hex, stopping at {@code limit}.
+     * The members found are left in {@link #queue}[0 .. returned size - 1].
+     * @param types  Hex type at each index
+     * @param i  Index of hex to start from
+     * @param limit  Stop searching once the clump has this many hexes
+     * @return  Size of the clump, up to {@code limit}; 0 if hex {@code i} is water
+     */
+    private int clumpSizeAt(final int[] types, final int i, final int limit)
+    {
+        final int t = types[i];
+        if (t == SOCBoard.WATER_HEX)
+            return 0;
+
+        if (++stamp == 0)
+        {
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+        mark[i] = stamp;
+        queue[0] = i;
+        int head = 0, tail = 1;
+        while ((head < tail) && (tail < limit))
+        {
+            final int h = queue[head++];
+            for (final int j : adjacent[h])
+            {
+                if ((mark[j] != stamp) && (types[j] == t))
+                {
+                    mark[j] = stamp;
+                    queue[tail++] = j;
+                    if (tail >= limit)
+                        break;
+                }
+            }
+        }
+
+        return tail;
+    }
+
+    /**
+     * Get the number of swaps made so far by {@link #repair(int[], Random)}, for testing and benchmarks.
+     * @return  Total swaps made by this checker
+     */
+    public int getSwapCount()
+    {
+        return swapCount;
+    }
+
+}
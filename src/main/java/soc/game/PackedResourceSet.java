@@ -0,0 +1,335 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.game;
+
+/**
+ * Static helpers for a resource set packed into a single {@code long}, for code which creates
+ * and discards many short-lived resource sets, such as robot trade and building-speed estimates.
+ * A packed set is a plain value: Copying is assignment, and it can be used directly as a hash key.
+ *<P>
+ * Holds the same 6 amounts as {@link SOCResourceSet}: {@link SOCResourceConstants#CLAY} through
+ * {@link SOCResourceConstants#WOOD}, and {@link SOCResourceConstants#UNKNOWN}. Each is stored in its own
+ * 10-bit field; amounts must be between 0 and {@link #MAX_AMOUNT}. Unlike {@code SOCResourceSet}, amounts
+ * can't be negative: {@link #subtract(long, long)} and {@link #subtract(long, int, int)} clip at 0,
+ * and the {@code add} methods clip at {@code MAX_AMOUNT}.
+ * The top 4 bits are always 0, so a packed set is never negative.
+ *<P>
+ * To convert, use {@link #pack(ResourceSet)} and {@link #toResourceSet(long)}.
+ * A player's {@link SOCResourceSet} can have a negative {@link SOCResourceConstants#UNKNOWN} amount
+ * (see {@link SOCResourceSet#subtract(int, int, boolean)}); to check for that use {@link #canPack(ResourceSet)},
+ * or to pack those anyway use {@link #packClamped(ResourceSet)}.
+ * Empty set is {@link #EMPTY}.
+ *
+ * @see SOCResourceSet
+ * @since 2.7.00
+ */
+public final class PackedResourceSet
+{
+    /** The empty set, with 0 of each resource type */
+    public static final long EMPTY = 0L;
+
+    /** Largest amount of each resource type that can be held in a packed set: 511 */
+    public static final int MAX_AMOUNT = 511;
+
+    /** Width of each resource type's field */
+    private static final int BITS = 10;
+
+    /** Mask for 1 field's bits, when shifted into place */
+    private static final long FIELD_MASK = (1L << BITS) - 1;
+
+    /**
+     * Guard bit (high bit) of each of the 6 fields, used by {@link #contains(long, long)} and
+     * {@link #subtract(long, long)} to compare or subtract all fields at once without borrowing across fields.
+     */
+    private static final long GUARDS;
+
+    static
+    {
+        long g = 0;
+        for (int i = 0; i < 6; ++i)
+            g |= 1L << (i * BITS + BITS - 1);
+        GUARDS = g;
+    }
+
+    private PackedResourceSet() {}
+
+    /**
+     * Pack 6 resource amounts into a set.
+     *
+     * @param cl  number of clay resources
+     * @param or  number of ore resources
+     * @param sh  number of sheep resources
+     * @param wh  number of wheat resources
+     * @param wo  number of wood resources
+     * @param uk  number of unknown resources
+     * @return the packed set
+     * @throws IllegalArgumentException if any amount is &lt; 0 or &gt; {@link #MAX_AMOUNT}
+     */
+    public static long pack(int cl, int or, int sh, int wh, int wo, int uk)
+        throws IllegalArgumentException
+    {
+        return field(cl, SOCResourceConstants.CLAY) | field(or, SOCResourceConstants.ORE)
+            | field(sh, SOCResourceConstants.SHEEP) | field(wh, SOCResourceConstants.WHEAT)
+            | field(wo, SOCResourceConstants.WOOD) | field(uk, SOCResourceConstants.UNKNOWN);
+    }
+
+    /**
+     * Pack a resource set, including its {@link SOCResourceConstants#UNKNOWN} amount.
+     * @param rs  Set to pack, or {@code null} for an empty set
+     * @return the packed set
+     * @throws IllegalArgumentException if any amount in {@code rs} is &lt; 0 or &gt; {@link #MAX_AMOUNT}
+     * @see #packClamped(ResourceSet)
+     */
+    public static long pack(final ResourceSet rs)
+        throws IllegalArgumentException
+    {
+        if (rs == null)
+            return EMPTY;
+
+        long p = 0;
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.UNKNOWN; ++rtype)
+            p |= field(rs.getAmount(rtype), rtype);
+
+        return p;
+    }
+
+    /**
+     * Can this resource set be packed without losing any amounts?
+     * @param rs  Set to check, or {@code null}
+     * @return true if {@code rs} is null or each amount is between 0 and {@link #MAX_AMOUNT},
+     *     so {@link #pack(ResourceSet)} won't throw an exception
+     */
+    public static boolean canPack(final ResourceSet rs)
+    {
+        if (rs == null)
+            return true;
+
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.UNKNOWN; ++rtype)
+        {
+            final int amt = rs.getAmount(rtype);
+            if ((amt < 0) || (amt > MAX_AMOUNT))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Pack a resource set, including its {@link SOCResourceConstants#UNKNOWN} amount,
+     * clipping any amount &lt; 0 to 0 and &gt; {@link #MAX_AMOUNT} to {@code MAX_AMOUNT}.
+     * Useful for a player's resources, whose {@code UNKNOWN} amount can be negative.
+     * @param rs  Set to pack, or {@code null} for an empty set
+     * @return the packed set
+     * @see #pack(ResourceSet)
+     */
+    public static long packClamped(final ResourceSet rs)
+    {
+        if (rs == null)
+            return EMPTY;
+
+        long p = 0;
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.UNKNOWN; ++rtype)
+        {
+            final int amt = rs.getAmount(rtype);
+            p |= (long) ((amt <= 0) ? 0 : ((amt < MAX_AMOUNT) ? amt : MAX_AMOUNT)) << ((rtype - 1) * BITS);
+        }
+
+        return p;
+    }
+
+    /**
+     * Unpack a set into a new mutable {@link SOCResourceSet}.
+     * @param p  Packed set
+     * @return a new {@link SOCResourceSet} with the same amounts
+     */
+    public static SOCResourceSet toResourceSet(final long p)
+    {
+        return new SOCResourceSet
+            (getAmount(p, SOCResourceConstants.CLAY), getAmount(p, SOCResourceConstants.ORE),
+             getAmount(p, SOCResourceConstants.SHEEP), getAmount(p, SOCResourceConstants.WHEAT),
+             getAmount(p, SOCResourceConstants.WOOD), getAmount(p, SOCResourceConstants.UNKNOWN));
+    }
+
+    /**
+     * Get the amount of one resource type.
+     * @param p  Packed set
+     * @param rtype  Resource type, {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#UNKNOWN}
+     * @return amount of that type in {@code p}
+     */
+    public static int getAmount(final long p, final int rtype)
+    {
+        return (int) ((p >>> ((rtype - 1) * BITS)) & FIELD_MASK);
+    }
+
+    /**
+     * Does the set contain any of this resource type?
+     * @param p  Packed set
+     * @param rtype  Resource type, {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#UNKNOWN}
+     * @return true if amount of {@code rtype} &gt; 0
+     */
+    public static boolean contains(final long p, final int rtype)
+    {
+        return (p & (FIELD_MASK << ((rtype - 1) * BITS))) != 0;
+    }
+
+    /**
+     * Does set A contain all resources of set B? Like {@link SOCResourceSet#gte(ResourceSet, ResourceSet)},
+     * compares each known type and {@link SOCResourceConstants#UNKNOWN}. Checks all types at once.
+     * @param a  Packed set A
+     * @param b  Packed set B
+     * @return true if each amount in {@code a} is &gt;= that amount in {@code b}
+     */
+    public static boolean contains(final long a, final long b)
+    {
+        // Setting each field's guard bit lets the subtraction borrow only within a field;
+        // a guard bit still set afterwards means that field's a >= b.
+        return (((a | GUARDS) - b) & GUARDS) == GUARDS;
+    }
+
+    /**
+     * Is this set empty, including unknowns?
+     * @param p  Packed set
+     * @return true if {@code p} == {@link #EMPTY}
+     */
+    public static boolean isEmpty(final long p)
+    {
+        return (p == EMPTY);
+    }
+
+    /**
+     * Get the total number of resources in the set, including {@link SOCResourceConstants#UNKNOWN}.
+     * @param p  Packed set
+     * @return total amount
+     * @see #getKnownTotal(long)
+     */
+    public static int getTotal(final long p)
+    {
+        return getKnownTotal(p) + getAmount(p, SOCResourceConstants.UNKNOWN);
+    }
+
+    /**
+     * Get the total number of known resources in the set, excluding {@link SOCResourceConstants#UNKNOWN}.
+     * @param p  Packed set
+     * @return total amount of {@link SOCResourceConstants#CLAY} through {@link SOCResourceConstants#WOOD}
+     */
+    public static int getKnownTotal(final long p)
+    {
+        int total = 0;
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+            total += getAmount(p, rtype);
+
+        return total;
+    }
+
+    /**
+     * Add an amount of one resource type, clipping the result at {@link #MAX_AMOUNT}.
+     * @param p  Packed set
+     * @param amt  Amount to add; should be &gt;= 0. If negative, result is clipped at 0.
+     * @param rtype  Resource type, {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#UNKNOWN}
+     * @return the new packed set
+     */
+    public static long add(final long p, final int amt, final int rtype)
+    {
+        final int shift = (rtype - 1) * BITS;
+        int newAmt = (int) ((p >>> shift) & FIELD_MASK) + amt;
+        if (newAmt > MAX_AMOUNT)
+            newAmt = MAX_AMOUNT;
+        else if (newAmt < 0)
+            newAmt = 0;
+
+        return (p & ~(FIELD_MASK << shift)) | ((long) newAmt << shift);
+    }
+
+    /**
+     * Add all amounts of set B to set A, clipping each type at {@link #MAX_AMOUNT}. Adds all types at once.
+     * @param a  Packed set A
+     * @param b  Packed set B
+     * @return the new packed set
+     */
+    public static long add(final long a, final long b)
+    {
+        // Each field is at most MAX_AMOUNT, so the sum fits in its field without carrying into the next;
+        // a field whose guard bit is now set has overflowed MAX_AMOUNT: clip it
+        final long sum = a + b;
+        final long over = (sum & GUARDS) >>> (BITS - 1);
+
+        return (sum & ~(over * FIELD_MASK)) | (over * MAX_AMOUNT);
+    }
+
+    /**
+     * Subtract an amount of one resource type, clipping at 0.
+     * @param p  Packed set
+     * @param amt  Amount to subtract
+     * @param rtype  Resource type, {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#UNKNOWN}
+     * @return the new packed set
+     */
+    public static long subtract(final long p, final int amt, final int rtype)
+    {
+        final int have = getAmount(p, rtype);
+
+        return p - ((long) ((amt < have) ? amt : have) << ((rtype - 1) * BITS));
+    }
+
+    /**
+     * Subtract all amounts of set B from set A, clipping each type at 0
+     * like {@link SOCResourceSet#subtract(ResourceSet)}. Subtracts all types at once.
+     * @param a  Packed set A
+     * @param b  Packed set B
+     * @return the new packed set
+     */
+    public static long subtract(final long a, final long b)
+    {
+        final long diff = (a | GUARDS) - b;
+        // Each field whose guard bit is still set had a >= b: keep its difference; clip others to 0
+        final long keep = ((diff & GUARDS) >>> (BITS - 1)) * FIELD_MASK;
+
+        return diff & ~GUARDS & keep;
+    }
+
+    /**
+     * Human-readable form of the set, in the same format as {@link SOCResourceSet#toString()}:
+     * "clay=5|ore=1|sheep=0|wheat=0|wood=3|unknown=0"
+     * @param p  Packed set
+     * @return a human readable longer form of the set
+     */
+    public static String toString(final long p)
+    {
+        return "clay=" + getAmount(p, SOCResourceConstants.CLAY)
+            + "|ore=" + getAmount(p, SOCResourceConstants.ORE)
+            + "|sheep=" + getAmount(p, SOCResourceConstants.SHEEP)
+            + "|wheat=" + getAmount(p, SOCResourceConstants.WHEAT)
+            + "|wood=" + getAmount(p, SOCResourceConstants.WOOD)
+            + "|unknown=" + getAmount(p, SOCResourceConstants.UNKNOWN);
+    }
+
+    /**
+     * Shift an amount into its field.
+     * @throws IllegalArgumentException if {@code amt} &lt; 0 or &gt; {@link #MAX_AMOUNT}
+     */
+    private static long field(final int amt, final int rtype)
+        throws IllegalArgumentException
+    {
+        if ((amt < 0) || (amt > MAX_AMOUNT))
+            throw new IllegalArgumentException("amount out of range for rtype " + rtype + ": " + amt);
+
+        return (long) amt << ((rtype - 1) * BITS);
+    }
+
+}
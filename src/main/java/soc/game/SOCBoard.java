@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas <thomas@infolab.northwestern.edu>
- * Portions of this file Copyright (C) 2007-2025 Jeremy D Monin <jeremy@nand.net>
+ * Portions of this file Copyright (C) 2007-2026 Jeremy D Monin <jeremy@nand.net>
  * Portions of this file Copyright (C) 2012 Paul Bilnoski <paul@bilnoski.net>
  * Portions of this file Copyright (C) 2017 Ruud Poutsma <rtimon@gmail.com>
  * Portions of this file Copyright (C) 2017-2018 Strategic Conversation (STAC Project) https://www.irit.fr/STAC/
@@ -688,6 +688,21 @@ public abstract class SOCBoard implements Serializable, Cloneable
      */
     protected List<SOCCity> cities = new ArrayList<SOCCity>(16);
 
+    /**
+     * Index of {@link #settlements} and {@link #cities} by node coordinate,
+     * for quick lookups by {@link #settlementAtNode(int)} while updating players' potential pieces.
+     * Kept in sync by {@link #putPiece(SOCPlayingPiece)} and {@link #removePiece(SOCPlayingPiece)}.
+     * @since 2.7.00
+     */
+    private final HashMap<Integer, SOCPlayingPiece> settlementsAndCitiesByNode = new HashMap<>();
+
+    /**
+     * Index of {@link #roadsAndShips} by edge coordinate, for {@link #roadOrShipAtEdge(int)}.
+     * Kept in sync by {@link #putPiece(SOCPlayingPiece)} and {@link #removePiece(SOCPlayingPiece)}.
+     * @since 2.7.00
+     */
+    private final HashMap<Integer, SOCRoutePiece> roadsAndShipsByEdge = new HashMap<>();
+
     /**
      * random number generator
      */
@@ -932,23 +947,34 @@ public abstract class SOCBoard implements Serializable, Cloneable
      * before it starts placement.  Since hexLayout's land hex coordinates are hardcoded within
      * {@link #numToHexID}, it can only be called once per board layout.
      *
-     * @param landHex  Resource type to place into {@link #hexLayout} for each land hex; will be shuffled.
+     * @param landHex  Resource type to place into {@link #hexLayout} for each land hex;
+     *                    a copy will be shuffled, since the caller's array is shared static data.
      *                    Values are {@link #CLAY_HEX}, {@link #DESERT_HEX}, etc.
      * @param numPath  Indexes within {@link #hexLayout} (also within {@link #numberLayout}) for each land hex;
      *                    same array length as <tt>landHex[]</tt>
      * @param number   Numbers to place into {@link #numberLayout} for each land hex;
      *                    array length is <tt>landHex[].length</tt> minus 1 for each desert in <tt>landHex[]</tt>
      * @param optBC    Game option "BC" from the options for this board, or <tt>null</tt>.
-     * @throws IllegalArgumentException if {@link #makeNewBoard_checkLandHexResourceClumps(List, int)}
-     *                 finds an invalid or uninitialized hex coordinate (hex type -1)
+     * @throws IllegalArgumentException if {@link HexClumpChecker} finds an invalid or uninitialized hex type -1
      */
     private void makeNewBoard_placeHexes
         (int[] landHex, final int[] numPath, final int[] number, SOCGameOption optBC)
         throws IllegalArgumentException
     {
+        landHex = landHex.clone();  // don't shuffle the shared array, boards may be laid out on more than 1 thread
         final boolean checkClumps = (optBC != null) && optBC.getBoolValue();
         final int clumpSize = checkClumps ? optBC.getIntValue() : 0;
         boolean clumpsNotOK = checkClumps;
+        final HexClumpChecker clumpChecker;
+        if (checkClumps)
+        {
+            final int[] landCoords = new int[numPath.length];  // reminder: landHex and numPath should be the same length
+            for (int i = 0; i < numPath.length; ++i)
+                landCoords[i] = numToHexID[numPath[i]];
+            clumpChecker = HexClumpChecker.forHexes(this, landCoords, clumpSize);
+        } else {
+            clumpChecker = null;
+        }
 
         do   // will re-do placement until clumpsNotOK is false
         {
@@ -968,6 +994,9 @@ public abstract class SOCBoard implements Serializable, Cloneable
                 }
             }
 
+            if (clumpChecker != null)
+                clumpChecker.repair(landHex, rand);  // swap hexes to break up clumps; if that fails, will reshuffle
+
             int cnt = 0;
             for (int i = 0; i < landHex.length; i++)
             {
@@ -988,14 +1017,8 @@ public abstract class SOCBoard implements Serializable, Cloneable
                 }
             }  // for(i in landHex)
 
-            if (checkClumps)
-            {
-                List<Integer> unvisited = new ArrayList<Integer>();  // contains each land hex's coordinate
-                for (int i = 0; i < landHex.length; ++i)  // reminder: landHex and numPath should be the same length
-                    unvisited.add(Integer.valueOf(numToHexID[numPath[i]]));
-
-                clumpsNotOK = makeNewBoard_checkLandHexResourceClumps(unvisited, clumpSize);
-            }
+            if (clumpChecker != null)
+                clumpsNotOK = clumpChecker.hasClumps(landHex);
 
         } while (clumpsNotOK);
 
@@ -1017,8 +1040,8 @@ public abstract class SOCBoard implements Serializable, Cloneable
      * a few water hexes.  For performance, in general you should omit water
      * hex locations from <tt>unvisited</tt>.
      *<P>
-     * Called from {@link #makeNewBoard_placeHexes(int[], int[], int[], SOCGameOption)}.
      * Before v2.0.00, this was part of makeNewBoard_placeHexes.
+     * Since v2.7.00, board layout uses the faster {@link HexClumpChecker} instead of this method.
      *
      * @param unvisited  Contains each land hex's coordinate as an Integer;
      *          <b>Note:</b> This list will be modified by the method. <br>
@@ -1726,6 +1749,19 @@ public abstract class SOCBoard implements Serializable, Cloneable
         robberHex = rh;
     }
 
+    /**
+     * Restore the robber hex and previous robber hex, without validation,
+     * when rolling back a {@link SOCGameJournal}.
+     * @param rh  Robber hex coordinate, or -1
+     * @param prevRh  Previous robber hex coordinate, or -1
+     * @since 2.7.00
+     */
+    /*package*/ void restoreRobberHex(final int rh, final int prevRh)
+    {
+        robberHex = rh;
+        prevRobberHex = prevRh;
+    }
+
     /**
      * Get the number of ports on this board.  The original and 6-player
      * board layouts each have a constant number of ports.  The v3 layout
@@ -1961,14 +1997,17 @@ public abstract class SOCBoard implements Serializable, Cloneable
         case SOCPlayingPiece.SHIP:  // fall through to ROAD
         case SOCPlayingPiece.ROAD:
             roadsAndShips.add((SOCRoutePiece) pp);
+            roadsAndShipsByEdge.put(pp.getCoordinates(), (SOCRoutePiece) pp);
             break;
 
         case SOCPlayingPiece.SETTLEMENT:
             settlements.add((SOCSettlement) pp);
+            settlementsAndCitiesByNode.put(pp.getCoordinates(), pp);
             break;
 
         case SOCPlayingPiece.CITY:
             cities.add((SOCCity) pp);
+            settlementsAndCitiesByNode.put(pp.getCoordinates(), pp);  // replaces settlement, if any
             break;
 
         }
@@ -1995,15 +2034,15 @@ public abstract class SOCBoard implements Serializable, Cloneable
         {
         case SOCPlayingPiece.SHIP:  // fall through to ROAD
         case SOCPlayingPiece.ROAD:
-            roadsAndShips.remove(piece);
-            break;
-
-        case SOCPlayingPiece.SETTLEMENT:
-            settlements.remove(piece);
+            if (roadsAndShips.remove(piece))
+                roadsAndShipsByEdge.remove(piece.getCoordinates(), piece);
             break;
 
+        case SOCPlayingPiece.SETTLEMENT:  // fall through
         case SOCPlayingPiece.CITY:
-            cities.remove(piece);
+            if ((piece.getType() == SOCPlayingPiece.SETTLEMENT) ? settlements.remove(piece) : cities.remove(piece))
+                settlementsAndCitiesByNode.remove(piece.getCoordinates(), piece);
+                    // when upgrading, city is put before settlement is removed; piece type check keeps the city
             break;
         }
     }
@@ -3182,23 +3221,7 @@ public abstract class SOCBoard implements Serializable, Cloneable
      */
     public SOCPlayingPiece settlementAtNode(final int nodeCoord)
     {
-        for (SOCSettlement p : settlements)
-        {
-            if (nodeCoord == p.getCoordinates())
-            {
-                return p;  // <-- Early return: Found it ---
-            }
-        }
-
-        for (SOCCity p : cities)
-        {
-            if (nodeCoord == p.getCoordinates())
-            {
-                return p;  // <-- Early return: Found it ---
-            }
-        }
-
-        return null;
+        return settlementsAndCitiesByNode.get(nodeCoord);
     }
 
     /**
@@ -3215,13 +3238,7 @@ public abstract class SOCBoard implements Serializable, Cloneable
      */
     public SOCRoutePiece roadOrShipAtEdge(int edgeCoord)
     {
-        for (SOCRoutePiece p : roadsAndShips)
-        {
-            if (edgeCoord == p.getCoordinates())
-                return p;  // <-- Early return: Found it ---
-        }
-
-        return null;
+        return roadsAndShipsByEdge.get(edgeCoord);
     }
 
     /**
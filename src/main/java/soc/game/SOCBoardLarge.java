@@ -1507,6 +1507,19 @@ public class SOCBoardLarge extends SOCBoard
         pirateHex = ph;
     }
 
+    /**
+     * Restore the pirate hex and previous pirate hex, without validation,
+     * when rolling back a {@link SOCGameJournal}.
+     * @param ph  Pirate hex coordinate, or 0
+     * @param prevPh  Previous pirate hex coordinate, or 0
+     * @since 2.7.00
+     */
+    /*package*/ void restorePirateHex(final int ph, final int prevPh)
+    {
+        pirateHex = ph;
+        prevPirateHex = prevPh;
+    }
+
     /**
      * @return coordinate where the pirate is, or 0 if not on the board
      * @see #getPreviousPirateHex()
@@ -30,6 +30,7 @@ import soc.game.GameAction.EffectType;
 import soc.message.SOCMessage;  // For static calls only; SOCGame does not interact with network messages
 import soc.server.SOCBoardAtServer;  // For calling server-only methods like distributeClothFromRoll
 import soc.util.DataUtils;
+import soc.util.FlightRecorderEvents;
 import soc.util.IntPair;
 import soc.util.SOCFeatureSet;
 import soc.util.SOCGameBoardReset;
@@ -1034,6 +1035,14 @@ public class SOCGame implements Serializable, Cloneable
      */
     private SOCBoard board;
 
+    /**
+     * At server, a board already laid out for this game's options, to be used by {@link #startGame(Map)}
+     * instead of calling {@link SOCBoard#makeNewBoard(SOCGameOptionSet)} then; usually {@code null}.
+     * Set by {@link #setPregeneratedBoard(SOCBoard)}, cleared when game starts.
+     * @since 2.7.00
+     */
+    private transient SOCBoard pregeneratedBoard;
+
     /**
      * the game options ({@link SOCGameOption}), or null
      * @see #knownOpts
@@ -1286,6 +1295,15 @@ public class SOCGame implements Serializable, Cloneable
      */
     Stack<SOCOldLRStats> oldPlayerWithLongestRoad;
 
+    /**
+     * This game's change journal if started with {@link #startJournal()}, otherwise {@code null}.
+     * Not serialized, since marks are only meaningful for this game object: A copy of this game
+     * made by serializing it has no journal.
+     * @see #getJournal()
+     * @since 2.7.00
+     */
+    private transient SOCGameJournal journal;
+
     /**
      * the player declared winner, if gamestate == OVER; otherwise -1
      * @since 1.1.00
@@ -2635,6 +2653,33 @@ public class SOCGame implements Serializable, Cloneable
         return board;
     }
 
+    /**
+     * At server, give this game a board which has already been laid out, to use when the game starts
+     * instead of making a new layout during {@link #startGame(Map)}.
+     * The board must have been created by {@link #boardFactory} with options equivalent to this game's,
+     * then had {@link SOCBoard#makeNewBoard(SOCGameOptionSet)} called, and not been used by any other game.
+     * Used by the server's pool of pre-generated boards.
+     *
+     * @param b  Board already laid out, or {@code null} to make a new layout at game start as usual
+     * @throws IllegalArgumentException if {@code b}'s class, encoding format, or size don't match
+     *     this game's current {@link #getBoard()}
+     * @throws IllegalStateException if game has already started: state isn't {@link #NEW} or {@link #READY}
+     * @since 2.7.00
+     */
+    public void setPregeneratedBoard(final SOCBoard b)
+        throws IllegalArgumentException, IllegalStateException
+    {
+        if (gameState > READY)
+            throw new IllegalStateException("already started");
+        if ((b != null)
+            && ((b.getClass() != board.getClass())
+                || (b.getBoardEncodingFormat() != board.getBoardEncodingFormat())
+                || (b.getBoardHeight() != board.getBoardHeight()) || (b.getBoardWidth() != board.getBoardWidth())))
+            throw new IllegalArgumentException("board doesn't match");
+
+        pregeneratedBoard = b;
+    }
+
     /**
      * @return the list of players
      * @see #getPlayer(int)
@@ -4015,8 +4060,11 @@ public class SOCGame implements Serializable, Cloneable
      *            or update {@link #lastAction}.
      * @since 1.1.14
      */
-    private void putPieceCommon(SOCPlayingPiece pp, final boolean isTempPiece)
+    /*package*/ void putPieceCommon(SOCPlayingPiece pp, final boolean isTempPiece)
     {
+        if (journal != null)
+            journal.recordPutPiece(pp, isTempPiece);
+
         final int coord = pp.getCoordinates();
         lastAction = null;
             // clear previous, in case a side effect like putPieceCommon_checkFogHexes will call setLastActionCannotUndo
@@ -5106,6 +5154,9 @@ public class SOCGame implements Serializable, Cloneable
         (SOCPlayingPiece pp, final boolean isTempPiece, final boolean isMoveOrReplacement)
     {
         //D.ebugPrintln("@@@ undoPutTempPiece "+pp);
+        if (journal != null)
+            journal.recordRemovePiece(pp);
+
         board.removePiece(pp);
 
         //
@@ -5150,9 +5201,24 @@ public class SOCGame implements Serializable, Cloneable
         // update which player has longest road
         //
         SOCOldLRStats oldLRStats = oldPlayerWithLongestRoad.pop();
+        if (journal != null)
+            journal.recordPopOldLRStats(oldLRStats);
         oldLRStats.restoreOldStats(this);
     }
 
+    /**
+     * Get the number of temporary pieces placed by {@link #putTempPiece(SOCPlayingPiece)}
+     * and not yet removed by {@link #undoPutTempPiece(SOCPlayingPiece)}, which is the depth
+     * of the stack used to restore the Longest Road player when they're removed.
+     * Useful for testing and debugging.
+     * @return  Number of temporary pieces currently placed
+     * @since 2.7.00
+     */
+    public int getTempPieceCount()
+    {
+        return oldPlayerWithLongestRoad.size();
+    }
+
     /**
      * undo the putting of an initial settlement.
      * If state is START2B or START3B and resources were given, they will be returned.
@@ -5462,7 +5528,8 @@ public class SOCGame implements Serializable, Cloneable
      * Do the things involved in starting a game at server:
      * Call {@link #initAtServer()},
      * shuffle the tiles and cards,
-     * make a board by calling {@link SOCBoard#makeNewBoard(SOCGameOptionSet)},
+     * make a board by calling {@link SOCBoard#makeNewBoard(SOCGameOptionSet)}
+     * (or use the one from {@link #setPregeneratedBoard(SOCBoard)} if any),
      * set players' legal and potential piece locations,
      * choose first player.
      * gameState becomes {@link #START1A}.
@@ -5501,7 +5568,16 @@ public class SOCGame implements Serializable, Cloneable
     {
         initAtServer();
 
-        board.makeNewBoard(opts);
+        if (pregeneratedBoard != null)
+        {
+            board = pregeneratedBoard;
+            pregeneratedBoard = null;
+        } else {
+            final Object jfr = FlightRecorderEvents.beginMakeBoard();
+            board.makeNewBoard(opts);
+            if (jfr != null)
+                FlightRecorderEvents.endMakeBoard(jfr, name, board.getClass().getSimpleName());
+        }
         if (hasSeaBoard)
         {
             /**
@@ -6724,7 +6800,7 @@ public class SOCGame implements Serializable, Cloneable
                 if (! isSeatVacant(i))
                 {
                     SOCPlayer pl = players[i];
-                    pl.addRolledResources(getResourcesGainedFromRoll(pl, currentDice));
+                    pl.addRolledResources(getResourcesGainedFromRollPacked(pl, currentDice));
                     if (hasSeaBoard && pl.getNeedToPickGoldHexResources() > 0)
                         anyGoldHex = true;
                 }
@@ -6839,21 +6915,39 @@ public class SOCGame implements Serializable, Cloneable
      * @param roll     the total number rolled on the dice
      *
      * @return the resource set
+     * @see #getResourcesGainedFromRollPacked(SOCPlayer, int)
      */
     public SOCResourceSet getResourcesGainedFromRoll(SOCPlayer player, final int roll)
     {
-        SOCResourceSet resources = new SOCResourceSet();
+        return PackedResourceSet.toResourceSet(getResourcesGainedFromRollPacked(player, roll));
+    }
+
+    /**
+     * Figure out what resources a player gets on a given roll, packed into a {@code long}.
+     * Same as {@link #getResourcesGainedFromRoll(SOCPlayer, int)}, without creating a resource set;
+     * {@link #rollDice()} calls this form for each player.
+     * Any gold-hex resources are returned as {@link SOCResourceConstants#GOLD_LOCAL}.
+     *
+     * @param player   the player
+     * @param roll     the total number rolled on the dice
+     * @return the resources, as a {@link PackedResourceSet}
+     * @see SOCPlayer#addRolledResources(long)
+     * @since 2.7.00
+     */
+    public long getResourcesGainedFromRollPacked(SOCPlayer player, final int roll)
+    {
         final int robberHex = board.getRobberHex();
 
         /**
          * check the hexes touching settlements
          */
-        getResourcesGainedFromRollPieces(roll, resources, robberHex, player.getSettlements(), 1);
+        long resources = getResourcesGainedFromRollPieces
+            (roll, PackedResourceSet.EMPTY, robberHex, player.getSettlements(), 1);
 
         /**
          * check the hexes touching cities
          */
-        getResourcesGainedFromRollPieces(roll, resources, robberHex, player.getCities(), 2);
+        resources = getResourcesGainedFromRollPieces(roll, resources, robberHex, player.getCities(), 2);
 
         return resources;
     }
@@ -6861,22 +6955,24 @@ public class SOCGame implements Serializable, Cloneable
     /**
      * Figure out what resources these piece positions would get on a given roll,
      * based on the hexes adjacent to the pieces' node coordinates.
-     * Used in {@link #getResourcesGainedFromRoll(SOCPlayer, int)}.
+     * Used in {@link #getResourcesGainedFromRollPacked(SOCPlayer, int)}.
      *<P>
      * If {@link #hasSeaBoard}, and the player's adjacent to a
      * {@link SOCBoardLarge#GOLD_HEX}, the gold-hex resources they must pick
      * are returned as {@link SOCResourceConstants#GOLD_LOCAL}.
      *
      * @param roll     the total number rolled on the dice
-     * @param resources  Add new resources to this set
+     * @param resources  Packed set to add new resources to
      * @param robberHex  Robber's position, from {@link SOCBoard#getRobberHex()}
      * @param pieces  Collection of a type of the player's {@link SOCPlayingPiece}s at nodes on the board;
      *             should be either {@link SOCSettlement}s or {@link SOCCity}s
      * @param incr   Add this many resources (1 or 2) per playing piece
+     * @return {@code resources} with the new resources added; before v2.7.00 this method added to a
+     *     {@link SOCResourceSet} parameter instead
      * @since 1.1.17
      */
-    private final void getResourcesGainedFromRollPieces
-        (final int roll, SOCResourceSet resources,
+    private final long getResourcesGainedFromRollPieces
+        (final int roll, long resources,
          final int robberHex, Collection<? extends SOCPlayingPiece> pieces, final int incr)
     {
         for (final SOCPlayingPiece p : pieces)
@@ -6889,33 +6985,35 @@ public class SOCGame implements Serializable, Cloneable
                 switch (board.getHexTypeFromCoord(hexCoord))
                 {
                 case SOCBoard.CLAY_HEX:
-                    resources.add(incr, SOCResourceConstants.CLAY);
+                    resources = PackedResourceSet.add(resources, incr, SOCResourceConstants.CLAY);
                     break;
 
                 case SOCBoard.ORE_HEX:
-                    resources.add(incr, SOCResourceConstants.ORE);
+                    resources = PackedResourceSet.add(resources, incr, SOCResourceConstants.ORE);
                     break;
 
                 case SOCBoard.SHEEP_HEX:
-                    resources.add(incr, SOCResourceConstants.SHEEP);
+                    resources = PackedResourceSet.add(resources, incr, SOCResourceConstants.SHEEP);
                     break;
 
                 case SOCBoard.WHEAT_HEX:
-                    resources.add(incr, SOCResourceConstants.WHEAT);
+                    resources = PackedResourceSet.add(resources, incr, SOCResourceConstants.WHEAT);
                     break;
 
                 case SOCBoard.WOOD_HEX:
-                    resources.add(incr, SOCResourceConstants.WOOD);
+                    resources = PackedResourceSet.add(resources, incr, SOCResourceConstants.WOOD);
                     break;
 
                 case SOCBoardLarge.GOLD_HEX:
                     if (hasSeaBoard)
-                        resources.add(incr, SOCResourceConstants.GOLD_LOCAL);
+                        resources = PackedResourceSet.add(resources, incr, SOCResourceConstants.GOLD_LOCAL);
                         // if not hasSeaBoard, GOLD_HEX == SOCBoard.MISC_PORT_HEX
                     break;
                 }
             }
         }
+
+        return resources;
     }
 
     /**
@@ -9838,6 +9936,66 @@ public class SOCGame implements Serializable, Cloneable
             playerWithLargestArmy = oldPlayerWithLargestArmy;
     }
 
+    /**
+     * Start this game's change journal if not already started, for cheap rollback of game changes
+     * by robots or other callers. See {@link SOCGameJournal} for details.
+     * @return  This game's journal, newly created or already started
+     * @see #getJournal()
+     * @see #stopJournal()
+     * @since 2.7.00
+     */
+    public SOCGameJournal startJournal()
+    {
+        if (journal == null)
+            journal = new SOCGameJournal(this);
+
+        return journal;
+    }
+
+    /**
+     * Get this game's change journal, if started.
+     * @return  Journal from {@link #startJournal()}, or {@code null} if not started
+     * @since 2.7.00
+     */
+    public SOCGameJournal getJournal()
+    {
+        return journal;
+    }
+
+    /**
+     * Stop and discard this game's change journal, if started. Does not roll back any changes.
+     * @see #startJournal()
+     * @since 2.7.00
+     */
+    public void stopJournal()
+    {
+        journal = null;
+    }
+
+    /**
+     * Restore game fields when rolling back a {@link SOCGameJournal}.
+     * Sets fields directly, without side effects like {@link #setGameState(int)}'s {@link #checkForWinner()}.
+     * Each parameter is the value from the journal's mark; see their getters for details.
+     * @since 2.7.00
+     */
+    /*package*/ void restoreFromJournal
+        (final int gs, final int oldGs, final int cpn, final int lrPN, final int laPN,
+         final int numDC, final int dice, final int rounds, final int turns,
+         final boolean placingRobberForKnight, final GameAction lastAct)
+    {
+        gameState = gs;
+        oldGameState = oldGs;
+        currentPlayerNumber = cpn;
+        playerWithLongestRoad = lrPN;
+        playerWithLargestArmy = laPN;
+        numDevCards = numDC;
+        currentDice = dice;
+        roundCount = rounds;
+        turnCount = turns;
+        placingRobberForKnightCard = placingRobberForKnight;
+        lastAction = lastAct;
+    }
+
     /**
      * update which player has longest road longer
      * than 4.
@@ -0,0 +1,505 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.game;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only change journal for a {@link SOCGame} and its players and board,
+ * for cheap rollback to an earlier point without copying the game.
+ * Started with {@link SOCGame#startJournal()}.
+ *<P>
+ * Call {@link #mark()} to remember the current point, make changes to the game
+ * through its usual methods, then {@link #rollback(int)} to return to the marked point.
+ * Marks can be nested: Rolling back to an outer mark also rolls back everything after any inner marks.
+ * To keep the changes instead, call {@link #release(int)}.
+ *<P>
+ * Each mark appends a small fixed-size frame of packed primitive fields:
+ *<UL>
+ * <LI> Game state and old state, current player, dice, round and turn counts, remaining dev card count,
+ *      {@link SOCGame#isPlacingRobberForKnightCard()}, {@link SOCGame#getLastAction()}
+ * <LI> Players with Longest Route and Largest Army
+ * <LI> Robber and pirate hexes, and their previous hexes
+ * <LI> Each player's resources (as a {@link PackedResourceSet}, or a copy if any amount
+ *      can't be packed), longest road length, number of knights,
+ *      {@link SOCPlayer#hasPlayedDevCard()}, and the number of each type of dev card in their
+ *      {@link SOCInventory} per state
+ *</UL>
+ * Pieces placed or removed after the mark, through {@code SOCGame} methods like
+ * {@link SOCGame#putPiece(SOCPlayingPiece)}, {@link SOCGame#putTempPiece(SOCPlayingPiece)},
+ * {@link SOCGame#moveShip(SOCShip, int)} and {@link SOCGame#undoPutPiece(SOCPlayingPiece)},
+ * are appended as they happen and undone in reverse order by {@link #rollback(int)}.
+ * Rolling back a temporary piece also undoes its change to the stack which
+ * {@link SOCGame#undoPutTempPiece(SOCPlayingPiece)} uses to restore the Longest Route player.
+ * So rollback takes time proportional to the number of piece changes, plus the fixed-size frame.
+ *<P>
+ * Not journaled: Scenario-specific changes such as fog hexes revealed, special items, villages,
+ * fortresses and cloth, players' trade offers and stats like {@link SOCPlayer#getResourceRollStats()},
+ * and {@link SOCInventoryItem}s which aren't {@link SOCDevCard}s.
+ *<P>
+ * Not thread-safe; like the game itself, should be used by one thread at a time.
+ *
+ * @author Jeremy D Monin &lt;jeremy@nand.net&gt;
+ * @since 2.7.00
+ */
+public class SOCGameJournal
+{
+    /** Entry kind: Start of a mark's frame; ref is {@link SOCGame#getLastAction()} */
+    private static final int K_MARK = 1;
+
+    /** Entry kind: Game state, old state, current player, LR player, LA player */
+    private static final int K_GAME = 2;
+
+    /** Entry kind: Remaining dev cards, dice, round count, turn count, placing robber for knight card */
+    private static final int K_GAME_MORE = 3;
+
+    /** Entry kind: Robber hex, previous robber hex, pirate hex, previous pirate hex */
+    private static final int K_BOARD = 4;
+
+    /**
+     * Entry kind, player number in bits 8 and higher: Player's resources as a {@link PackedResourceSet}.
+     * If any amount is outside the packed range, such as a negative {@link SOCResourceConstants#UNKNOWN},
+     * value is -1 and ref is a copy of the player's {@link SOCResourceSet}.
+     */
+    private static final int K_PLAYER_RESOURCES = 5;
+
+    /** Entry kind, player number in bits 8 and higher: Longest road length, number of knights, played dev card */
+    private static final int K_PLAYER = 6;
+
+    /**
+     * Entry kind, player number in bits 8 and higher, inventory state in bits 4-7:
+     * Player's count of each dev card type in {@link SOCInventory} state {@link SOCInventory#NEW},
+     * {@link SOCInventory#PLAYABLE} or {@link SOCInventory#KEPT}, {@link #DEVCARD_COUNT_BITS} bits per type.
+     */
+    private static final int K_PLAYER_DEVCARDS = 7;
+
+    /**
+     * Entry kind: Piece placed; ref is the piece.
+     * Value is 1 if placed by {@link SOCGame#putTempPiece(SOCPlayingPiece)}, which also pushed
+     * an entry onto {@link SOCGame#oldPlayerWithLongestRoad}; otherwise 0.
+     */
+    private static final int K_PUT_PIECE = 8;
+
+    /** Entry kind: Piece removed; ref is the piece */
+    private static final int K_REMOVE_PIECE = 9;
+
+    /**
+     * Entry kind: {@link SOCGame#undoPutTempPiece(SOCPlayingPiece)} popped an entry
+     * from {@link SOCGame#oldPlayerWithLongestRoad}; ref is that {@link SOCOldLRStats}
+     */
+    private static final int K_POP_OLD_LR = 10;
+
+    /**
+     * Bits per dev card type in a {@link #K_PLAYER_DEVCARDS} entry;
+     * {@link SOCDevCardConstants#MAXPLUSONE} types fit into a {@code long}.
+     */
+    private static final int DEVCARD_COUNT_BITS = 6;
+
+    /** Mask for {@link #DEVCARD_COUNT_BITS}. */
+    private static final long DEVCARD_COUNT_MASK = (1L << DEVCARD_COUNT_BITS) - 1;
+
+    /** Inventory states in {@link #K_PLAYER_DEVCARDS} entries. */
+    private static final int[] INV_STATES = { SOCInventory.NEW, SOCInventory.PLAYABLE, SOCInventory.KEPT };
+
+    /** The game being journaled. */
+    private final SOCGame game;
+
+    /** Each entry's kind, like {@link #K_PUT_PIECE}, with player number etc in higher bits. */
+    private int[] kinds;
+
+    /** Each entry's packed value, or 0 if unused by its kind. */
+    private long[] values;
+
+    /** Each entry's object reference, or {@code null} if unused by its kind. */
+    private Object[] refs;
+
+    /** Number of entries in use. */
+    private int size;
+
+    /**
+     * True during {@link #rollback(int)}, so that piece changes made to undo entries aren't journaled.
+     */
+    private boolean isRollingBack;
+
+    /**
+     * Create a journal for this game. Called from {@link SOCGame#startJournal()}.
+     * @param ga  Game to journal; not null
+     */
+    /*package*/ SOCGameJournal(final SOCGame ga)
+    {
+        game = ga;
+        final int cap = 16 + 8 * ga.maxPlayers;
+        kinds = new int[cap];
+        values = new long[cap];
+        refs = new Object[cap];
+    }
+
+    /**
+     * Get the number of entries in the journal, including mark frames and piece changes.
+     * @return  Number of entries; 0 if no marks are currently held
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Remember the game's current state, so it can be rolled back later.
+     * A player's resources are journaled as a {@link PackedResourceSet} if possible; if any amount is
+     * out of that range, such as a negative {@link SOCResourceConstants#UNKNOWN}, as a copy of the set instead.
+     * @return  Mark to use with {@link #rollback(int)} or {@link #release(int)}
+     * @throws IllegalStateException if a player's dev card inventory has more than 63 cards of one type and state
+     */
+    public int mark()
+        throws IllegalStateException
+    {
+        final int mk = size;
+        final SOCBoard board = game.getBoard();
+
+        append(K_MARK, 0, game.getLastAction());
+        append(K_GAME,
+            (game.getGameState() & 0xFFFFL) | ((game.getOldGameState() & 0xFFFFL) << 16)
+            | ((long) (game.getCurrentPlayerNumber() + 1) << 32)
+            | ((long) (playerNumberOrNone(game.getPlayerWithLongestRoad()) + 1) << 40)
+            | ((long) (playerNumberOrNone(game.getPlayerWithLargestArmy()) + 1) << 48),
+            null);
+        append(K_GAME_MORE,
+            (game.getNumDevCards() & 0xFFFFL) | ((long) (game.getCurrentDice() + 1) << 16)
+            | ((game.getRoundCount() & 0xFFFFL) << 24) | ((game.getTurnCount() & 0xFFFFL) << 40)
+            | (game.isPlacingRobberForKnightCard() ? (1L << 56) : 0),
+            null);
+        final int ph, prevPh;
+        if (board instanceof SOCBoardLarge)
+        {
+            ph = ((SOCBoardLarge) board).getPirateHex();
+            prevPh = ((SOCBoardLarge) board).getPreviousPirateHex();
+        } else {
+            ph = 0;
+            prevPh = 0;
+        }
+        append(K_BOARD,
+            ((board.getRobberHex() + 1) & 0xFFFFL) | (((board.getPreviousRobberHex() + 1) & 0xFFFFL) << 16)
+            | ((ph & 0xFFFFL) << 32) | ((prevPh & 0xFFFFL) << 48),
+            null);
+
+        for (int pn = 0; pn < game.maxPlayers; ++pn)
+        {
+            final SOCPlayer pl = game.getPlayer(pn);
+            final int pnBits = pn << 8;
+            final SOCResourceSet rs = pl.getResources();
+            if (PackedResourceSet.canPack(rs))
+                append(K_PLAYER_RESOURCES | pnBits, PackedResourceSet.pack(rs), null);
+            else
+                append(K_PLAYER_RESOURCES | pnBits, -1L, rs.copy());
+            append(K_PLAYER | pnBits,
+                (pl.getLongestRoadLength() & 0xFFFFL) | ((pl.getNumKnights() & 0xFFFFL) << 16)
+                | (pl.hasPlayedDevCard() ? (1L << 32) : 0),
+                null);
+            final SOCInventory inv = pl.getInventory();
+            for (final int state : INV_STATES)
+                append(K_PLAYER_DEVCARDS | pnBits | (state << 4), packDevCardCounts(inv.getByState(state)), null);
+        }
+
+        return mk;
+    }
+
+    /**
+     * Roll back the game to the state it had when {@link #mark()} returned {@code mark}:
+     * Undo the journaled piece changes in reverse order, then restore the mark's frame fields.
+     * Removes the mark and all later entries from the journal.
+     * @param mark  Mark from {@link #mark()}, not yet rolled back or released
+     * @throws IllegalArgumentException if {@code mark} isn't a current mark
+     */
+    public void rollback(final int mark)
+        throws IllegalArgumentException
+    {
+        checkMark(mark);
+
+        isRollingBack = true;
+        try
+        {
+            for (int i = size - 1; i > mark; --i)
+            {
+                switch (kinds[i])
+                {
+                case K_PUT_PIECE:
+                    game.undoPutPieceCommon((SOCPlayingPiece) refs[i], true, false);
+                    if (values[i] != 0)
+                        game.oldPlayerWithLongestRoad.pop();
+                    break;
+
+                case K_REMOVE_PIECE:
+                    game.putPieceCommon((SOCPlayingPiece) refs[i], true);
+                    break;
+
+                case K_POP_OLD_LR:
+                    game.oldPlayerWithLongestRoad.push((SOCOldLRStats) refs[i]);
+                    break;
+
+                default:
+                    // inner mark's frame: the outer frame restores those fields
+                }
+            }
+
+            restoreFrame(mark);
+        } finally {
+            isRollingBack = false;
+        }
+
+        truncate(mark);
+    }
+
+    /**
+     * Keep the changes made since {@link #mark()} returned {@code mark}, and forget that mark.
+     * If it's the oldest mark, also forgets all later entries; otherwise the entries are kept
+     * so that an outer mark can still roll them back.
+     * @param mark  Mark from {@link #mark()}, not yet rolled back or released
+     * @throws IllegalArgumentException if {@code mark} isn't a current mark
+     */
+    public void release(final int mark)
+        throws IllegalArgumentException
+    {
+        checkMark(mark);
+
+        if (mark == 0)
+            truncate(0);
+        else
+            kinds[mark] = 0;  // frame remains as skipped entries, for simplicity
+    }
+
+    /**
+     * Forget all marks and entries without rolling back.
+     */
+    public void clear()
+    {
+        truncate(0);
+    }
+
+    /**
+     * Record that a piece was placed, if any mark is held and not currently rolling back.
+     * Called from {@link SOCGame#putPieceCommon(SOCPlayingPiece, boolean)}.
+     * @param pp  Piece being placed
+     * @param isTempPiece  True if placed by {@link SOCGame#putTempPiece(SOCPlayingPiece)},
+     *     so rollback must also pop its entry from {@link SOCGame#oldPlayerWithLongestRoad}
+     */
+    /*package*/ void recordPutPiece(final SOCPlayingPiece pp, final boolean isTempPiece)
+    {
+        if ((size > 0) && ! isRollingBack)
+            append(K_PUT_PIECE, (isTempPiece) ? 1 : 0, pp);
+    }
+
+    /**
+     * Record that a piece was removed, if any mark is held and not currently rolling back.
+     * Called from {@link SOCGame#undoPutPieceCommon(SOCPlayingPiece, boolean, boolean)}.
+     * @param pp  Piece being removed
+     */
+    /*package*/ void recordRemovePiece(final SOCPlayingPiece pp)
+    {
+        if ((size > 0) && ! isRollingBack)
+            append(K_REMOVE_PIECE, 0, pp);
+    }
+
+    /**
+     * Record that an entry was popped from {@link SOCGame#oldPlayerWithLongestRoad},
+     * if any mark is held and not currently rolling back.
+     * Called from {@link SOCGame#undoPutTempPiece(SOCPlayingPiece)}.
+     * @param stats  Entry popped from the stack
+     */
+    /*package*/ void recordPopOldLRStats(final SOCOldLRStats stats)
+    {
+        if ((size > 0) && ! isRollingBack)
+            append(K_POP_OLD_LR, 0, stats);
+    }
+
+    /**
+     * Restore the game fields from the frame which starts at {@code mark}.
+     * @param mark  Index of a {@link #K_MARK} entry
+     */
+    private void restoreFrame(final int mark)
+    {
+        final SOCBoard board = game.getBoard();
+        int gs = 0, oldGs = 0, cpn = -1, lrPN = -1, laPN = -1, numDC = 0, dice = 0, rounds = 0, turns = 0;
+        boolean placingRobberForKnight = false;
+
+        for (int i = mark + 1; i < size; ++i)
+        {
+            final int kind = kinds[i];
+            final long v = values[i];
+            final SOCPlayer pl = game.getPlayer(kind >> 8);
+
+            switch (kind & 0x0F)
+            {
+            case K_GAME:
+                gs = (int) (v & 0xFFFF);
+                oldGs = (int) ((v >> 16) & 0xFFFF);
+                cpn = (int) ((v >> 32) & 0xFF) - 1;
+                lrPN = (int) ((v >> 40) & 0xFF) - 1;
+                laPN = (int) ((v >> 48) & 0xFF) - 1;
+                break;
+
+            case K_GAME_MORE:
+                numDC = (int) (v & 0xFFFF);
+                dice = (int) ((v >> 16) & 0xFF) - 1;
+                rounds = (int) ((v >> 24) & 0xFFFF);
+                turns = (int) ((v >> 40) & 0xFFFF);
+                placingRobberForKnight = (0 != (v & (1L << 56)));
+                break;
+
+            case K_BOARD:
+                board.restoreRobberHex((int) (v & 0xFFFF) - 1, (int) ((v >> 16) & 0xFFFF) - 1);
+                if (board instanceof SOCBoardLarge)
+                    ((SOCBoardLarge) board).restorePirateHex((int) ((v >> 32) & 0xFFFF), (int) ((v >> 48) & 0xFFFF));
+                break;
+
+            case K_PLAYER_RESOURCES:
+                {
+                    final SOCResourceSet rs = pl.getResources();
+                    if (v < 0)
+                        rs.setAmounts((SOCResourceSet) refs[i]);
+                    else if ((! PackedResourceSet.canPack(rs)) || (PackedResourceSet.pack(rs) != v))
+                        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.UNKNOWN; ++rtype)
+                            rs.setAmount(PackedResourceSet.getAmount(v, rtype), rtype);
+                }
+                break;
+
+            case K_PLAYER:
+                pl.setLongestRoadLength((int) (v & 0xFFFF));
+                pl.setNumKnights((int) ((v >> 16) & 0xFFFF));
+                pl.setPlayedDevCard(0 != (v & (1L << 32)));
+                break;
+
+            case K_PLAYER_DEVCARDS:
+                restoreDevCardCounts(pl.getInventory(), (kind >> 4) & 0x0F, v);
+                break;
+
+            default:
+                // K_MARK or a later entry
+                if (i > mark + 1)
+                    i = size;  // end of frame
+            }
+        }
+
+        game.restoreFromJournal
+            (gs, oldGs, cpn, lrPN, laPN, numDC, dice, rounds, turns, placingRobberForKnight, (GameAction) refs[mark]);
+    }
+
+    /**
+     * Pack the count of each dev card type in this inventory list into a {@code long}.
+     * Ignores {@link SOCInventoryItem}s which aren't {@link SOCDevCard}s.
+     * @param items  Inventory items in one state, from {@link SOCInventory#getByState(int)}
+     * @return  Packed counts, {@link #DEVCARD_COUNT_BITS} bits per type
+     * @throws IllegalStateException if there are more than 63 cards of one type
+     */
+    private static long packDevCardCounts(final List<SOCInventoryItem> items)
+        throws IllegalStateException
+    {
+        long p = 0;
+        for (final SOCInventoryItem item : items)
+        {
+            if (! (item instanceof SOCDevCard))
+                continue;
+
+            final int shift = item.itype * DEVCARD_COUNT_BITS;
+            if (((p >> shift) & DEVCARD_COUNT_MASK) == DEVCARD_COUNT_MASK)
+                throw new IllegalStateException("too many dev cards of type " + item.itype);
+            p += (1L << shift);
+        }
+
+        return p;
+    }
+
+    /**
+     * Add or remove dev cards in one state of this inventory to match packed counts from {@link #mark()}.
+     * Does nothing if the counts already match.
+     * @param inv  Player's inventory
+     * @param state  Inventory state: {@link SOCInventory#NEW}, {@link SOCInventory#PLAYABLE} or {@link SOCInventory#KEPT}
+     * @param counts  Counts from {@link #packDevCardCounts(List)}
+     */
+    private static void restoreDevCardCounts(final SOCInventory inv, final int state, final long counts)
+    {
+        final List<SOCInventoryItem> items = inv.getByState(state);  // live list, not a copy
+        final long current = packDevCardCounts(items);
+        if (current == counts)
+            return;
+
+        for (int ctype = 0; ctype < SOCDevCardConstants.MAXPLUSONE; ++ctype)
+        {
+            final int shift = ctype * DEVCARD_COUNT_BITS;
+            int diff = (int) ((counts >> shift) & DEVCARD_COUNT_MASK) - (int) ((current >> shift) & DEVCARD_COUNT_MASK);
+
+            // remove the newest extra cards first
+            for (int i = items.size() - 1; (diff < 0) && (i >= 0); --i)
+            {
+                final SOCInventoryItem item = items.get(i);
+                if ((item instanceof SOCDevCard) && (item.itype == ctype))
+                {
+                    items.remove(i);
+                    ++diff;
+                }
+            }
+
+            for (; diff > 0; --diff)
+                items.add(new SOCDevCard(ctype, (state == SOCInventory.NEW)));
+        }
+    }
+
+    /**
+     * Throw an exception unless {@code mark} is the index of a current mark's entry.
+     * @throws IllegalArgumentException if not a current mark
+     */
+    private void checkMark(final int mark)
+        throws IllegalArgumentException
+    {
+        if ((mark < 0) || (mark >= size) || (kinds[mark] != K_MARK))
+            throw new IllegalArgumentException("mark: " + mark);
+    }
+
+    /** Append an entry, growing the arrays if needed. */
+    private void append(final int kind, final long value, final Object ref)
+    {
+        if (size == kinds.length)
+        {
+            final int cap = 2 * size;
+            kinds = Arrays.copyOf(kinds, cap);
+            values = Arrays.copyOf(values, cap);
+            refs = Arrays.copyOf(refs, cap);
+        }
+
+        kinds[size] = kind;
+        values[size] = value;
+        refs[size] = ref;
+        ++size;
+    }
+
+    /** Remove entries at and after {@code newSize}, clearing their object references. */
+    private void truncate(final int newSize)
+    {
+        for (int i = newSize; i < size; ++i)
+            refs[i] = null;
+        size = newSize;
+    }
+
+    private static int playerNumberOrNone(final SOCPlayer pl)
+    {
+        return (pl != null) ? pl.getPlayerNumber() : -1;
+    }
+
+}
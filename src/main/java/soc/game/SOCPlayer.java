@@ -2419,6 +2419,36 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
             resourceStats[rtype] += rolled.getAmount(rtype);
     }
 
+    /**
+     * Add the resources gained from a dice roll, packed into a {@code long}.
+     * Same as {@link #addRolledResources(SOCResourceSet)}, without needing a temporary resource set;
+     * {@link SOCGame#rollDice()} calls this form.
+     *
+     * @param rolled The resources gained by this roll, from {@link SOCGame#getResourcesGainedFromRollPacked(SOCPlayer, int)}
+     * @see PackedResourceSet
+     * @since 2.7.00
+     */
+    public void addRolledResources(long rolled)
+    {
+        if (game.hasSeaBoard)
+        {
+            final int gold = PackedResourceSet.getAmount(rolled, SOCResourceConstants.GOLD_LOCAL);
+            if (gold > 0)
+            {
+                needToPickGoldHexResources += gold;
+                resourceStats[SOCResourceConstants.GOLD_LOCAL] += gold;
+                rolled = PackedResourceSet.subtract(rolled, gold, SOCResourceConstants.GOLD_LOCAL);
+            }
+        }
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.UNKNOWN; ++rtype)
+        {
+            final int amt = PackedResourceSet.getAmount(rolled, rtype);
+            rolledResources.setAmount(amt, rtype);
+            resources.add(amt, rtype);
+            resourceStats[rtype] += amt;
+        }
+    }
+
     /**
      * Resources gained from dice roll of the current turn.
      * Valid at server only; known at client only if server sends the proper message type
@@ -3825,17 +3855,11 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
                 // on our roads/ships that are adjacent to
                 // this edge
                 //
-                List<Integer> adjEdges = board.getAdjacentEdgesToEdge(pieceCoord);
-
-                for (SOCRoutePiece rs : roadsAndShips)
+                for (final int edge : board.getAdjacentEdgesToEdge(pieceCoord))
                 {
-                    for (Integer edgeObj : adjEdges)
-                    {
-                        final int edge = edgeObj.intValue();
-
-                        if (rs.getCoordinates() == edge)
-                            updatePotentials(rs);
-                    }
+                    final SOCRoutePiece rs = board.roadOrShipAtEdge(edge);
+                    if ((rs != null) && (rs.getPlayerNumber() == playerNumber))
+                        updatePotentials(rs);
                 }
             }
 
@@ -3849,6 +3873,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
             if (ours)
             {
                 removePiece(piece, null, isMoveOrReplacement);
+                potentialCities.remove(pieceCoordInt);
                 ourNumbers.undoUpdateNumbers(piece, board);
 
                 //
@@ -3920,109 +3945,86 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
         //
         boolean haveNeighbor = false;
         SOCBoard board = game.getBoard();
-        final List<Integer> adjNodes = board.getAdjacentNodesToNode(settlementNode);
 
-        for (SOCSettlement settlement : board.getSettlements())
+        for (final int adjNode : board.getAdjacentNodesToNode(settlementNode))
         {
-            for (final int adjNode : adjNodes)
+            if (board.settlementAtNode(adjNode) != null)
             {
-                if (adjNode == settlement.getCoordinates())
-                {
-                    haveNeighbor = true;
-
-                    //D.ebugPrintln(")))) haveNeighbor = true : node = "+Integer.toHexString(adjNode.intValue()));
-                    break;
-                }
-            }
+                haveNeighbor = true;
 
-            if (haveNeighbor)
-            {
+                //D.ebugPrintln(")))) haveNeighbor = true : node = "+Integer.toHexString(adjNode));
                 break;
             }
         }
 
         if (! haveNeighbor)
         {
-            for (SOCCity city : board.getCities())
+            //D.ebugPrintln(")))) haveNeighbor = false");
+            //
+            // check to see if this node is on the board
+            //
+            if (board.isNodeOnLand(settlementNode))
             {
-                for (final int adjNode : adjNodes)
-                {
-                    if (adjNode == city.getCoordinates())
-                    {
-                        haveNeighbor = true;
+                legalSettlements.add(settleNodeInt);
 
-                        //D.ebugPrintln(")))) haveNeighbor = true : node = "+Integer.toHexString(adjNode.intValue()));
-                        break;
-                    }
-                }
-
-                if (haveNeighbor)
-                {
-                    break;
-                }
-            }
-
-            if (! haveNeighbor)
-            {
-                //D.ebugPrintln(")))) haveNeighbor = false");
                 //
-                // check to see if this node is on the board
+                // if it's the beginning of the game, make it potential
+                //
+                //D.ebugPrintln(")))) legalSettlements["+Integer.toHexString(settlementNode)+"] = true");
                 //
-                if (board.isNodeOnLand(settlementNode))
+                if (game.getGameState() < SOCGame.ROLL_OR_CARD)
                 {
-                    legalSettlements.add(settleNodeInt);
+                    potentialSettlements.add(settleNodeInt);
 
+                    //D.ebugPrintln(")))) potentialSettlements["+Integer.toHexString(settlementNode)+"] = true");
+                }
+                else
+                {
                     //
-                    // if it's the beginning of the game, make it potential
-                    //
-                    //D.ebugPrintln(")))) legalSettlements["+Integer.toHexString(settlementNode)+"] = true");
+                    // if it's legal and we have an adjacent road, make it potential
                     //
-                    if (game.getGameState() < SOCGame.ROLL_OR_CARD)
-                    {
-                        potentialSettlements.add(settleNodeInt);
+                    //D.ebugPrintln(")))) checking for adjacent roads");
+                    boolean adjRoad = false;
 
-                        //D.ebugPrintln(")))) potentialSettlements["+Integer.toHexString(settlementNode)+"] = true");
-                    }
-                    else
+                    for (final int adjEdge : board.getAdjacentEdgesToNode_arr(settlementNode))
                     {
-                        //
-                        // if it's legal and we have an adjacent road, make it potential
-                        //
-                        //D.ebugPrintln(")))) checking for adjacent roads");
-                        boolean adjRoad = false;
-                        final List<Integer> adjEdges = board.getAdjacentEdgesToNode(settlementNode);
-
-                        for (SOCRoutePiece rs : roadsAndShips)
+                        if ((adjEdge != -9) && isOurRoadOrShipAtEdge(board, adjEdge))
                         {
-                            for (final int adjEdge : adjEdges)
-                            {
-                                if (rs.getCoordinates() == adjEdge)
-                                {
-                                    //D.ebugPrintln("))) found adj road at "+Integer.toHexString(adjEdge.intValue()));
-                                    adjRoad = true;
+                            //D.ebugPrintln("))) found adj road at "+Integer.toHexString(adjEdge));
+                            adjRoad = true;
 
-                                    break;
-                                }
-                            }
-
-                            if (adjRoad)
-                            {
-                                break;
-                            }
+                            break;
                         }
+                    }
 
-                        if (adjRoad)
-                        {
-                            potentialSettlements.add(settleNodeInt);
+                    if (adjRoad)
+                    {
+                        potentialSettlements.add(settleNodeInt);
 
-                            //D.ebugPrintln(")))) potentialSettlements["+Integer.toHexString(settlementNode)+"] = true");
-                        }
+                        //D.ebugPrintln(")))) potentialSettlements["+Integer.toHexString(settlementNode)+"] = true");
                     }
                 }
             }
         }
     }
 
+    /**
+     * Does this player have a road or ship at this edge?
+     * Uses {@link SOCBoard#roadOrShipAtEdge(int)}'s index instead of searching {@link #roadsAndShips},
+     * for the localized potentials updates in {@link #updatePotentials(SOCPlayingPiece)}
+     * and {@link #undoPutPiece(SOCPlayingPiece, boolean)}.
+     * @param board  Our game's board
+     * @param edge  Edge coordinate to check
+     * @return  True if board has a road or ship owned by this player at {@code edge}
+     * @see #hasRoadOrShipAtEdge(int)
+     * @since 2.7.00
+     */
+    private boolean isOurRoadOrShipAtEdge(final SOCBoard board, final int edge)
+    {
+        final SOCRoutePiece rs = board.roadOrShipAtEdge(edge);
+        return (rs != null) && (rs.getPlayerNumber() == playerNumber);
+    }
+
     /**
      * Remove a player's piece from the board, and put it back in the player's hand;
      * backwards-compatibility shim which calls newer form
@@ -4673,15 +4675,9 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
                 //      because we're not getting past opponent's new settlement (on this end
                 //      of the edge) to build it.
 
-                // ourRoads contains both roads and ships.
-                //  TODO may need to separate them and check twice,
-                //       or differentiate far-side roads vs ships.
-                HashSet<Integer> ourRoads = new HashSet<Integer>();  // TODO more efficient way of looking this up, with fewer temp objs
-                for (SOCPlayingPiece p : this.pieces)
-                {
-                    if (p instanceof SOCRoutePiece)   // roads and ships
-                        ourRoads.add(Integer.valueOf(p.getCoordinates()));
-                }
+                // Our roads and ships are looked up with board.roadOrShipAtEdge,
+                // so only the edges near this node are examined.
+                //  TODO may need to differentiate far-side roads vs ships.
 
                 adjac = board.getAdjacentEdgesToNode_arr(id);
                 for (int i = 0; i < 3; ++i)
@@ -4718,7 +4714,7 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
                     for (int ie = 0; ie < 3; ++ie)
                     {
                         int farEdge = farEdges[ie];
-                        if ((farEdge != tmp) && ourRoads.contains(Integer.valueOf(farEdge)))
+                        if ((farEdge != tmp) && (farEdge != -9) && isOurRoadOrShipAtEdge(board, farEdge))
                         {
                             foundOurRoad = true;
                             break;
@@ -4743,6 +4739,23 @@ public class SOCPlayer implements SOCDevCardConstants, Serializable, Cloneable
             // remove non-potentials
             potentialCities.remove(idInt);
 
+            // Usually the city replaces a settlement, whose node and neighbors are already non-legal.
+            // When loading a saved game, city is placed without a settlement there first.
+            if (game.getGameState() == SOCGame.LOADING)
+            {
+                potentialSettlements.remove(idInt);
+                legalSettlements.remove(idInt);
+                for (final int adjNode : board.getAdjacentNodesToNode_arr(id))
+                {
+                    if (adjNode != -9)
+                    {
+                        final Integer adjNodeInt = Integer.valueOf(adjNode);
+                        potentialSettlements.remove(adjNodeInt);
+                        legalSettlements.remove(adjNodeInt);
+                    }
+                }
+            }
+
             break;
 
         }
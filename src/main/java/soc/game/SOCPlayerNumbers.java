@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas <thomas@infolab.northwestern.edu>
- * Portions of this file Copyright (C) 2009,2011-2014,2017,2019-2020,2023 Jeremy D Monin <jeremy@nand.net>
+ * Portions of this file Copyright (C) 2009,2011-2014,2017,2019-2020,2023,2026 Jeremy D Monin <jeremy@nand.net>
  * Portions of this file Copyright (C) 2012 Paul Bilnoski <paul@bilnoski.net>
  *
  * This program is free software; you can redistribute it and/or
@@ -23,9 +23,8 @@ package soc.game;
 
 import soc.util.IntPair;
 
-import java.util.Enumeration;
-import java.util.Hashtable;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Vector;
 
 
@@ -35,54 +34,73 @@ import java.util.Vector;
  *<P>
  * Calls each touched hex's {@link SOCBoard#getHexTypeFromCoord(int)}, ignores all hex types besides
  * the usual {@link SOCBoard#CLAY_HEX} through {@link SOCBoard#WOOD_HEX} and {@link SOCBoardLarge#GOLD_HEX}.
+ *<P>
+ * Since v2.7.00 the data is kept in primitive count arrays, not Vectors of Integers.
+ * Robot code in loops should call the allocation-free {@link #getResourceCountsForNumber(int)},
+ * {@link #getNumberCountsForResource(int)} and their robber-hex variants; the older methods
+ * returning Vectors are still available, building a new Vector each call.
  *
  * @author Robert S. Thomas
  */
 public class SOCPlayerNumbers
 {
     /**
-     * Dice roll numbers which yield this resource.
-     * Uses indexes in range {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD}.
-     * Each element contains {@link Integer}s for the dice numbers.
+     * Dense count matrix of resources gained on each dice roll number:
+     * {@code resourceCountsForNumber[diceNum][resource]} is how many of that resource type
+     * the player gains when {@code diceNum} is rolled, ignoring the robber.
+     * First index range is 0-12 (indexes 0 and 1 unused), second is
+     * {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD} (index 0 unused).
      *<P>
-     * {@link SOCBoardLarge#GOLD_HEX} is handled by adding the dice number to
-     * all resource types in {@link #addNumberForResource(int, int, int)}.
+     * {@link SOCBoardLarge#GOLD_HEX} is handled by adding 1 of all resource types to
+     * the dice number in {@link #addNumberForResource(int, int, int)}.
+     *<P>
+     * Before v2.7.00 this was {@code Vector<Integer>[] resourcesForNumber}.
+     * @see #numberCountsForResource
+     * @since 2.7.00
      */
-    private Vector<Integer>[] numbersForResource;
+    private final int[][] resourceCountsForNumber;
 
     /**
-     * Resources on dice roll numbers; uses indexes 2-12.
-     * Each element contains {@link Integer}s for the resource(s),
-     * in range {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD}.
-     * If the number yields more than one of that resource type
-     * (a city, or multiple pieces on the hex), there will be
-     * more than one Integer here with that resource type.
+     * Same data as {@link #resourceCountsForNumber} but transposed, for quick access by resource type:
+     * {@code numberCountsForResource[resource][diceNum]}.
      *<P>
-     * {@link SOCBoardLarge#GOLD_HEX} is handled by adding all resource types to
-     * the dice number in {@link #addNumberForResource(int, int, int)}.
+     * Before v2.7.00 this was {@code Vector<Integer>[] numbersForResource}.
+     * @since 2.7.00
      */
-    private Vector<Integer>[] resourcesForNumber;
+    private final int[][] numberCountsForResource;
 
     /**
-     * Hex dice-roll resource information, by land-hex coordinate ID.
-     * Key = Integer hexCoord; value = Vector.
-     * Each hex coordinate's vector contains 0 or more {@link IntPair}(diceNum, resource).
+     * Hex dice-roll resource information, as parallel arrays of each hex coordinate ID
+     * and its dice number and resource type; used for robber calculations and
+     * {@link #getNumberResourcePairsForHex(int)}. There's 1 element for each call to
+     * {@link #addNumberForResource(int, int, int)} which hasn't been undone, so a hex
+     * touched by a city or multiple pieces will have multiple elements.
      * If {@link #hasSeaBoard}, the resource type may be {@link SOCBoardLarge#GOLD_HEX}.
+     * Element count is {@link #hexPairCount}; arrays grow as needed.
      *<P>
-     * Until {@link #addNumberForResource(int, int, int)} or
-     * {@link #updateNumbers(int, SOCBoard)} is called,
-     * any land hex's entry in this hashtable may be null.
+     * Before v2.7.00 this was {@code Hashtable<Integer, Vector<IntPair>> numberAndResourceForHex}.
+     * @since 2.7.00
+     */
+    private int[] hexPairHex, hexPairNumber, hexPairResource;
+
+    /**
+     * Number of elements used in {@link #hexPairHex}, {@link #hexPairNumber}, {@link #hexPairResource}.
+     * @since 2.7.00
      */
-    private Hashtable<Integer, Vector<IntPair>> numberAndResourceForHex;
+    private int hexPairCount;
 
     /**
-     * Reference to either {@link SOCBoard4p#HEXCOORDS_LAND_V1} or {@link SOCBoard6p#HEXCOORDS_LAND_V2}.
-     * Hex coordinates for each land hex on the board, via {@link SOCBoard#getLandHexCoords()}.
+     * Set of the hex coordinates of each land hex on the board, from {@link SOCBoard#getLandHexCoords()}:
+     * Bit {@code h} is set if hex coordinate {@code h} is land. Used by the robber-aware getters
+     * to check each hex pair in constant time. Isn't changed after it's built, so copies can share it.
      * In {@link SOCBoard#BOARD_ENCODING_LARGE}, if the game hasn't yet called
      * {@link SOCBoard#makeNewBoard(SOCGameOptionSet)}, this may be {@code null}.
+     *<P>
+     * Before v2.7.00 this was {@code int[] landHexCoords}, a reference to either
+     * {@link SOCBoard4p#HEXCOORDS_LAND_V1} or {@link SOCBoard6p#HEXCOORDS_LAND_V2}.
      * @since 1.1.08
      */
-    private int[] landHexCoords;
+    private BitSet landHexes;
 
     /**
      * Is this game played on the {@link SOCBoardLarge} large board / sea board?
@@ -101,33 +119,23 @@ public class SOCPlayerNumbers
      *
      * @param numbers   the player numbers to copy
      */
-    @SuppressWarnings("unchecked")
     public SOCPlayerNumbers(SOCPlayerNumbers numbers)
     {
         hasSeaBoard = numbers.hasSeaBoard;
-        landHexCoords = numbers.landHexCoords;
-
-        numbersForResource = new Vector[SOCResourceConstants.MAXPLUSONE - 1];
-
-        for (int i = SOCResourceConstants.CLAY; i <= SOCResourceConstants.WOOD; i++)
-        {
-            numbersForResource[i] = new Vector<Integer>(numbers.numbersForResource[i]);
-        }
-
-        resourcesForNumber = new Vector[13];  // dice roll totals 2 to 12
+        landHexes = numbers.landHexes;
 
+        resourceCountsForNumber = new int[13][];  // dice roll totals 2 to 12
         for (int i = 0; i < 13; i++)
-        {
-            resourcesForNumber[i] = new Vector<Integer>(numbers.resourcesForNumber[i]);
-        }
+            resourceCountsForNumber[i] = numbers.resourceCountsForNumber[i].clone();
 
-        // deep copy, not shallow copy:
-        numberAndResourceForHex = new Hashtable<Integer, Vector<IntPair>>((int) (numbers.numberAndResourceForHex.size() * 1.4f));
-        for (Enumeration<Integer> hexes = numbers.numberAndResourceForHex.keys(); hexes.hasMoreElements(); )
-        {
-            Integer hex = hexes.nextElement();
-            numberAndResourceForHex.put(hex, new Vector<IntPair>(numbers.numberAndResourceForHex.get(hex)));
-        }
+        numberCountsForResource = new int[SOCResourceConstants.WOOD + 1][];
+        for (int i = 0; i <= SOCResourceConstants.WOOD; i++)
+            numberCountsForResource[i] = numbers.numberCountsForResource[i].clone();
+
+        hexPairCount = numbers.hexPairCount;
+        hexPairHex = numbers.hexPairHex.clone();
+        hexPairNumber = numbers.hexPairNumber.clone();
+        hexPairResource = numbers.hexPairResource.clone();
     }
 
     /**
@@ -143,7 +151,6 @@ public class SOCPlayerNumbers
      *         and {@link SOCBoard#getLandHexCoords()}.
      * @throws IllegalArgumentException  If <tt>boardEncodingFormat</tt> value is unknown to this class
      */
-    @SuppressWarnings("unchecked")
     public SOCPlayerNumbers(SOCBoard board)
         throws IllegalArgumentException
     {
@@ -155,33 +162,17 @@ public class SOCPlayerNumbers
         }
 
         hasSeaBoard = (boardEncodingFormat == SOCBoard.BOARD_ENCODING_LARGE);
-        landHexCoords = board.getLandHexCoords();
-        //   landHexCoords might be null for BOARD_ENCODING_LARGE
+        landHexes = makeLandHexSet(board.getLandHexCoords());
+        //   landHexes might be null for BOARD_ENCODING_LARGE
         //   if the layout isn't yet created in SOCBoardLarge.makeNewBoard.
 
-        numbersForResource = new Vector[SOCResourceConstants.MAXPLUSONE - 1];
-
-        for (int i = SOCResourceConstants.CLAY; i <= SOCResourceConstants.WOOD;
-                i++)
-        {
-            numbersForResource[i] = new Vector<Integer>();
-        }
-
-        resourcesForNumber = new Vector[13];  // dice roll totals 2 to 12
-
-        for (int i = 0; i < 13; i++)
-        {
-            resourcesForNumber[i] = new Vector<Integer>();
-        }
-
-        numberAndResourceForHex = new Hashtable<Integer, Vector<IntPair>>();
+        resourceCountsForNumber = new int[13][SOCResourceConstants.WOOD + 1];  // dice roll totals 2 to 12
+        numberCountsForResource = new int[SOCResourceConstants.WOOD + 1][13];
 
         //    Initially empty, until addNumberForResource is called.
-        //    So, skip this loop:
-        // for (int i = 0; i < landHexCoords.length; i++)
-        // {
-        //    numberAndResourceForHex.put(Integer.valueOf(landHexCoords[i]), new Vector());
-        // }
+        hexPairHex = new int[8];
+        hexPairNumber = new int[8];
+        hexPairResource = new int[8];
     }
 
     /**
@@ -189,17 +180,13 @@ public class SOCPlayerNumbers
      */
     public void clear()
     {
-        for (int i = SOCResourceConstants.CLAY; i <= SOCResourceConstants.WOOD; i++)
-        {
-            numbersForResource[i].removeAllElements();
-        }
-
         for (int i = 0; i < 13; i++)
-        {
-            resourcesForNumber[i].removeAllElements();
-        }
+            Arrays.fill(resourceCountsForNumber[i], 0);
+
+        for (int i = 0; i <= SOCResourceConstants.WOOD; i++)
+            Arrays.fill(numberCountsForResource[i], 0);
 
-        numberAndResourceForHex.clear();
+        hexPairCount = 0;
     }
 
     /**
@@ -209,9 +196,25 @@ public class SOCPlayerNumbers
      */
     public void setLandHexCoordinates(final int[] landHex)
     {
-        int L = landHex.length;
-        landHexCoords = new int[L];
-        System.arraycopy(landHex, 0, landHexCoords, 0, L);
+        landHexes = makeLandHexSet(landHex);
+    }
+
+    /**
+     * Build the set of land hex coordinates for {@link #landHexes}.
+     * @param landHex  Array of hex coordinates for all land hexes, or {@code null}
+     * @return  Set of those coordinates, or {@code null} if {@code landHex} is null
+     * @since 2.7.00
+     */
+    private static BitSet makeLandHexSet(final int[] landHex)
+    {
+        if (landHex == null)
+            return null;
+
+        final BitSet set = new BitSet();
+        for (final int h : landHex)
+            set.set(h);
+
+        return set;
     }
 
     /**
@@ -302,6 +305,10 @@ public class SOCPlayerNumbers
      * to the dice number, if {@link #hasSeaBoard}.
      * So, gold hex numbers will have 5 resources in the Vector
      * (10 for cities on gold).
+     *<P>
+     * Before v2.7.00 this returned a live reference to internal data.
+     * It now builds and returns a new Vector from {@link #getResourceCountsForNumber(int)},
+     * which callers in loops should use instead.
      *
      * @param diceNum  the dice number, 2-12
      * @return the resources for a number; contains {@link Integer}s for the resource(s),
@@ -313,7 +320,7 @@ public class SOCPlayerNumbers
      */
     public Vector<Integer> getResourcesForNumber(final int diceNum)
     {
-        return resourcesForNumber[diceNum];
+        return countsToVector(resourceCountsForNumber[diceNum]);
     }
 
     /**
@@ -321,6 +328,10 @@ public class SOCPlayerNumbers
      *<P>
      * {@link SOCBoardLarge#GOLD_HEX} is handled by adding the dice number to
      * all resource types, if {@link #hasSeaBoard}.
+     *<P>
+     * Before v2.7.00 this returned a live reference to internal data.
+     * It now builds and returns a new Vector from {@link #getNumberCountsForResource(int)},
+     * which callers in loops should use instead.
      *
      * @return the numbers for a resource, as {@link Integer}s
      *
@@ -329,7 +340,44 @@ public class SOCPlayerNumbers
      */
     public Vector<Integer> getNumbersForResource(int resource)
     {
-        return numbersForResource[resource];
+        return countsToVector(numberCountsForResource[resource]);
+    }
+
+    /**
+     * Get how many of each resource type this player gains when a dice number is rolled,
+     * ignoring the robber. Allocation-free form of {@link #getResourcesForNumber(int)}.
+     *<P>
+     * {@link SOCBoardLarge#GOLD_HEX} is handled by adding 1 of each resource type
+     * for the dice number, if {@link #hasSeaBoard}.
+     *
+     * @param diceNum  the dice number, 2-12
+     * @return  Amount gained of each resource type, indexed {@link SOCResourceConstants#CLAY} to
+     *     {@link SOCResourceConstants#WOOD}; index 0 unused. This is internal data: Treat as read-only.
+     * @see #getResourceCountsForNumber(int, int, int[])
+     * @since 2.7.00
+     */
+    public int[] getResourceCountsForNumber(final int diceNum)
+    {
+        return resourceCountsForNumber[diceNum];
+    }
+
+    /**
+     * Get how many times each dice number yields a resource type, ignoring the robber.
+     * Allocation-free form of {@link #getNumbersForResource(int)}.
+     *<P>
+     * {@link SOCBoardLarge#GOLD_HEX} is handled by counting its dice number
+     * for all resource types, if {@link #hasSeaBoard}.
+     *
+     * @param resource  the resource, in range {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD}
+     * @return  Count for each dice number, indexed 2 to 12; indexes 0 and 1 unused.
+     *     For example if this resource is on two 8s, element 8 is 2.
+     *     This is internal data: Treat as read-only.
+     * @see #getNumberCountsForResource(int, int, int[])
+     * @since 2.7.00
+     */
+    public int[] getNumberCountsForResource(final int resource)
+    {
+        return numberCountsForResource[resource];
     }
 
     /**
@@ -340,13 +388,25 @@ public class SOCPlayerNumbers
      *  (a city, or multiple pieces on the hex), there will be
      *  more than one Integer here with that resource type.
      *  If {@link #hasSeaBoard}, a resource type may be {@link SOCBoardLarge#GOLD_HEX}.
+     *  Since v2.7.00 this is a new Vector each time, not internal data.
      *
      * @param hexCoord  the hex coord
      * @see #hasNoResourcesForHex(int)
      */
     public Vector<IntPair> getNumberResourcePairsForHex(final int hexCoord)
     {
-        return numberAndResourceForHex.get(Integer.valueOf(hexCoord));
+        Vector<IntPair> pairs = null;
+        for (int i = 0; i < hexPairCount; ++i)
+        {
+            if (hexPairHex[i] != hexCoord)
+                continue;
+
+            if (pairs == null)
+                pairs = new Vector<IntPair>();
+            pairs.addElement(new IntPair(hexPairNumber[i], hexPairResource[i]));
+        }
+
+        return pairs;
     }
 
     /**
@@ -358,11 +418,11 @@ public class SOCPlayerNumbers
      */
     public boolean hasNoResourcesForHex(final int hexCoord)
     {
-        Vector<IntPair> v = numberAndResourceForHex.get(Integer.valueOf(hexCoord));
-        if (v == null)
-            return true;
-        else
-            return v.isEmpty();
+        for (int i = 0; i < hexPairCount; ++i)
+            if (hexPairHex[i] == hexCoord)
+                return false;
+
+        return true;
     }
 
     /**
@@ -370,6 +430,9 @@ public class SOCPlayerNumbers
      *<P>
      * {@link SOCBoardLarge#GOLD_HEX} is handled by adding the dice number to
      * all resource types, if {@link #hasSeaBoard}.
+     *<P>
+     * Calls {@link #getNumberCountsForResource(int, int, int[])}, which callers in loops should use instead.
+     * Since v2.7.00 the returned numbers are in ascending order.
      *
      * @return the dice numbers for a resource (as {@link Integer}s), taking the robber into account;
      *     if this resource is on two 8s (for example), there will be two {@link Integer}(8) in the
@@ -381,31 +444,44 @@ public class SOCPlayerNumbers
      */
     public Vector<Integer> getNumbersForResource(int resource, int robberHex)
     {
-        Vector<Integer> numbers = new Vector<Integer>();
+        final int[] counts = new int[13];
+        getNumberCountsForResource(resource, robberHex, counts);
 
-        if (landHexCoords == null)
-            return numbers;
+        return countsToVector(counts);
+    }
 
-        for (int i = 0; i < landHexCoords.length; i++)
+    /**
+     * Get how many times each dice number yields a resource type, taking the robber into account.
+     * Allocation-free form of {@link #getNumbersForResource(int, int)}.
+     * Hexes not in the board's land hex coordinates are ignored.
+     *
+     * @param resource  the resource, in range {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD}
+     * @param robberHex the robber hex coordinate
+     * @param counts  Array of length 13 to fill with the count for each dice number 2 to 12;
+     *     indexes 0 and 1 will be 0. Contents are overwritten.
+     *     All 0 if land hex coordinates aren't known yet.
+     * @see #getNumberCountsForResource(int)
+     * @since 2.7.00
+     */
+    public void getNumberCountsForResource(final int resource, final int robberHex, final int[] counts)
+    {
+        if (landHexes == null)
         {
-            if (landHexCoords[i] == robberHex)
-                continue;
-
-            Vector<IntPair> pairs = numberAndResourceForHex.get(Integer.valueOf(landHexCoords[i]));
-            if (pairs == null)
-                continue;
+            Arrays.fill(counts, 0);
+            return;
+        }
 
-            for (IntPair pair : pairs)
+        System.arraycopy(numberCountsForResource[resource], 0, counts, 0, 13);
+        for (int i = 0; i < hexPairCount; ++i)
+        {
+            final int hex = hexPairHex[i];
+            if ((hex == robberHex) || ! landHexes.get(hex))
             {
-                final int res = pair.getB();
+                final int res = hexPairResource[i];
                 if ((res == resource) || (hasSeaBoard && (res == SOCBoardLarge.GOLD_HEX)))
-                {
-                    numbers.addElement(Integer.valueOf(pair.getA()));
-                }
+                    --counts[hexPairNumber[i]];
             }
         }
-
-        return numbers;
     }
 
     /**
@@ -415,6 +491,9 @@ public class SOCPlayerNumbers
      * to the dice number, if {@link #hasSeaBoard}.
      * So, gold hex numbers will have 5 resources in the Vector
      * (10 for cities on gold).
+     *<P>
+     * Calls {@link #getResourceCountsForNumber(int, int, int[])}, which callers in loops should use instead.
+     * Since v2.7.00 the returned resources are in ascending order.
      *
      * @return the resources for a dice number, taking the robber into account;
      *   Integers in range {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD}.
@@ -428,37 +507,71 @@ public class SOCPlayerNumbers
      */
     public Vector<Integer> getResourcesForNumber(final int diceNum, final int robberHex)
     {
-        Vector<Integer> resources = new Vector<Integer>();
+        final int[] counts = new int[SOCResourceConstants.WOOD + 1];
+        getResourceCountsForNumber(diceNum, robberHex, counts);
 
-        if (landHexCoords == null)
-            return resources;
+        return countsToVector(counts);
+    }
 
-        for (int i = 0; i < landHexCoords.length; i++)
+    /**
+     * Get how many of each resource type this player gains when a dice number is rolled,
+     * taking the robber into account. Allocation-free form of {@link #getResourcesForNumber(int, int)}.
+     * Hexes not in the board's land hex coordinates are ignored.
+     *
+     * @param diceNum  the dice roll, 2 - 12
+     * @param robberHex the robber hex coordinate
+     * @param counts  Array of length 6 to fill with the amount gained of each resource type
+     *     {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD}; index 0 will be 0.
+     *     Contents are overwritten. All 0 if land hex coordinates aren't known yet.
+     * @see #getResourceCountsForNumber(int)
+     * @since 2.7.00
+     */
+    public void getResourceCountsForNumber(final int diceNum, final int robberHex, final int[] counts)
+    {
+        if (landHexes == null)
         {
-            if (landHexCoords[i] == robberHex)
-                continue;
+            Arrays.fill(counts, 0);
+            return;
+        }
 
-            Vector<IntPair> pairs = numberAndResourceForHex.get(Integer.valueOf(landHexCoords[i]));
-            if (pairs == null)
+        System.arraycopy(resourceCountsForNumber[diceNum], 0, counts, 0, SOCResourceConstants.WOOD + 1);
+        for (int i = 0; i < hexPairCount; ++i)
+        {
+            final int hex = hexPairHex[i];
+            if ((hexPairNumber[i] != diceNum) || ((hex != robberHex) && landHexes.get(hex)))
                 continue;
 
-            for (IntPair pair : pairs)
+            final int res = hexPairResource[i];
+            if (hasSeaBoard && (res == SOCBoardLarge.GOLD_HEX))
             {
-                if (pair.getA() == diceNum)
-                {
-                    final int res = pair.getB();
-                    if (hasSeaBoard && (res == SOCBoardLarge.GOLD_HEX))
-                    {
-                        for (int r = SOCResourceConstants.CLAY; r <= SOCResourceConstants.WOOD; ++r)
-                            resources.addElement(Integer.valueOf(r));
-                    } else {
-                        resources.addElement(Integer.valueOf(res));
-                    }
-                }
+                for (int r = SOCResourceConstants.CLAY; r <= SOCResourceConstants.WOOD; ++r)
+                    --counts[r];
+            } else {
+                --counts[res];
             }
         }
+    }
 
-        return resources;
+    /**
+     * Build a Vector for the Vector-returning getters from a row of counts:
+     * Each index {@code i} of {@code counts} appears {@code counts[i]} times.
+     * @since 2.7.00
+     */
+    private static Vector<Integer> countsToVector(final int[] counts)
+    {
+        Vector<Integer> v = new Vector<Integer>();
+        for (int i = 0; i < counts.length; ++i)
+        {
+            final int n = counts[i];
+            if (n == 0)
+                continue;
+
+            final Integer iInt = Integer.valueOf(i);
+            for (int j = 0; j < n; ++j)
+                v.addElement(iInt);
+        }
+
+        return v;
     }
 
     /**
@@ -475,14 +588,8 @@ public class SOCPlayerNumbers
     {
         if ((resource >= SOCResourceConstants.CLAY) && (resource <= SOCResourceConstants.WOOD))
         {
-            numbersForResource[resource].addElement(Integer.valueOf(diceNum));
-
-            Integer resourceInt = Integer.valueOf(resource);
-
-            //if (!resourcesForNumber[number].contains(resourceInt)) {
-            resourcesForNumber[diceNum].addElement(resourceInt);
-
-            //}
+            ++resourceCountsForNumber[diceNum][resource];
+            ++numberCountsForResource[resource][diceNum];
         }
         else
         {
@@ -492,24 +599,26 @@ public class SOCPlayerNumbers
             }
 
             // GOLD_HEX: Add all 5 resource types
-            final Integer diceNumInt = Integer.valueOf(diceNum);
             for (int res = SOCResourceConstants.CLAY; res <= SOCResourceConstants.WOOD; ++res)
             {
-                numbersForResource[res].addElement(diceNumInt);
-                resourcesForNumber[diceNum].addElement(Integer.valueOf(res));
+                ++resourceCountsForNumber[diceNum][res];
+                ++numberCountsForResource[res][diceNum];
             }
 
-            // GOLD_HEX is okay in numberAndResourceForHex.
+            // GOLD_HEX is okay in hexPairResource.
         }
 
-        final Integer hexInt = Integer.valueOf(hex);
-        Vector<IntPair> pairs = numberAndResourceForHex.get(hexInt);
-        if (pairs == null)
+        if (hexPairCount == hexPairHex.length)
         {
-            pairs = new Vector<IntPair>();
-            numberAndResourceForHex.put(hexInt, pairs);
+            final int L = 2 * hexPairCount;
+            hexPairHex = Arrays.copyOf(hexPairHex, L);
+            hexPairNumber = Arrays.copyOf(hexPairNumber, L);
+            hexPairResource = Arrays.copyOf(hexPairResource, L);
         }
-        pairs.addElement(new IntPair(diceNum, resource));
+        hexPairHex[hexPairCount] = hex;
+        hexPairNumber[hexPairCount] = diceNum;
+        hexPairResource[hexPairCount] = resource;
+        ++hexPairCount;
     }
 
     /**
@@ -557,23 +666,10 @@ public class SOCPlayerNumbers
     {
         if ((resource >= SOCResourceConstants.CLAY) && (resource <= SOCResourceConstants.WOOD))
         {
-            for (Integer num : numbersForResource[resource])
-            {
-                if (num.intValue() == number)
-                {
-                    numbersForResource[resource].removeElement(num);
-                    break;
-                }
-            }
-
-            for (Integer resourceInt : resourcesForNumber[number])
-            {
-                if (resourceInt.intValue() == resource)
-                {
-                    resourcesForNumber[number].removeElement(resourceInt);
-                    break;
-                }
-            }
+            if (numberCountsForResource[resource][number] > 0)
+                --numberCountsForResource[resource][number];
+            if (resourceCountsForNumber[number][resource] > 0)
+                --resourceCountsForNumber[number][resource];
         }
         else
         {
@@ -583,47 +679,31 @@ public class SOCPlayerNumbers
             }
 
             // GOLD_HEX: Remove all 5 resource types.
-            // To simplify multiple removal, use Iterator not Enumeration.
-
             for (int res = SOCResourceConstants.CLAY; res <= SOCResourceConstants.WOOD; ++res)
             {
-                Iterator<Integer> numIter = numbersForResource[res].iterator();
-                while (numIter.hasNext())
-                {
-                    final int num = numIter.next().intValue();
-                    if (num == number)
-                    {
-                        numIter.remove();
-                        break;
-                    }
-                }
-            }
-
-            boolean[] removed = new boolean[SOCResourceConstants.UNKNOWN];  // range CLAY to WOOD
-            Iterator<Integer> resIter = resourcesForNumber[number].iterator();
-            while (resIter.hasNext())
-            {
-                final int res = resIter.next().intValue();
-                if (! removed[res])
-                {
-                    resIter.remove();
-                    removed[res] = true;
-                }
+                if (numberCountsForResource[res][number] > 0)
+                    --numberCountsForResource[res][number];
+                if (resourceCountsForNumber[number][res] > 0)
+                    --resourceCountsForNumber[number][res];
             }
 
-            // GOLD_HEX will be in numberAndResourceForHex.
+            // GOLD_HEX will be in hexPairResource.
         }
 
-        Vector<IntPair> pairs = numberAndResourceForHex.get(Integer.valueOf(hex));
-        if (pairs != null)
+        for (int i = 0; i < hexPairCount; ++i)
         {
-            for (IntPair numAndResource : pairs)
+            if ((hexPairHex[i] == hex) && (hexPairNumber[i] == number) && (hexPairResource[i] == resource))
             {
-                if ((numAndResource.getA() == number) && (numAndResource.getB() == resource))
+                // keep insertion order, like Vector.removeElement did before v2.7.00
+                final int nMove = hexPairCount - i - 1;
+                if (nMove > 0)
                 {
-                    pairs.removeElement(numAndResource);
-                    break;
+                    System.arraycopy(hexPairHex, i + 1, hexPairHex, i, nMove);
+                    System.arraycopy(hexPairNumber, i + 1, hexPairNumber, i, nMove);
+                    System.arraycopy(hexPairResource, i + 1, hexPairResource, i, nMove);
                 }
+                --hexPairCount;
+                break;
             }
         }
     }
@@ -636,7 +716,12 @@ public class SOCPlayerNumbers
      */
     public boolean hasNumber(int number)
     {
-        return ! resourcesForNumber[number].isEmpty();
+        final int[] counts = resourceCountsForNumber[number];
+        for (int res = SOCResourceConstants.CLAY; res <= SOCResourceConstants.WOOD; ++res)
+            if (counts[res] != 0)
+                return true;
+
+        return false;
     }
 
     /**
@@ -645,21 +730,21 @@ public class SOCPlayerNumbers
     @Override
     public String toString()
     {
-        String str = "SOCPN:";
+        StringBuilder str = new StringBuilder("SOCPN:");
 
         for (int i = SOCResourceConstants.CLAY; i <= SOCResourceConstants.WOOD;
                 i++)
         {
-            str += (i + ":");
+            str.append(i).append(':');
 
-            for (Integer num : numbersForResource[i])
-            {
-                str += (num + ",");
-            }
+            final int[] counts = numberCountsForResource[i];
+            for (int num = 2; num <= 12; ++num)
+                for (int n = counts[num]; n > 0; --n)
+                    str.append(num).append(',');
 
-            str += "|";
+            str.append('|');
         }
 
-        return str;
+        return str.toString();
     }
 }
@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas <thomas@infolab.northwestern.edu>
- * This file Copyright (C) 2009,2011,2013-2021,2023 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2009,2011,2013-2021,2023,2026 Jeremy D Monin <jeremy@nand.net>
  * Portions of this file Copyright (C) 2012 Paul Bilnoski <paul@bilnoski.net>
  *
  * This program is free software; you can redistribute it and/or
@@ -121,6 +121,22 @@ public class SOCGamesWithOptions extends SOCMessageTemplateMs
             // won't find any EMPTYSTR unless data was malformed when passed to toCmd() at server
     }
 
+    /**
+     * Build the command string at server from game names and options which are already packed for
+     * the client's version, in the same format as {@link #SOCGamesWithOptions(List, int)}'s {@link #toCmd()}.
+     * Used by {@link soc.server.GameListCache} to avoid re-packing every game's options for each client.
+     *
+     * @param nameOptPairs  Each game's name (marked with {@link SOCGames#MARKER_THIS_GAME_UNJOINABLE}
+     *     if needed) followed by its options packed by
+     *     {@link SOCGameOption#packOptionsToString(java.util.Map, boolean, boolean, int)}, or {@code "-"}
+     * @return    the command string
+     * @since 2.7.00
+     */
+    public static String toCmd(final List<String> nameOptPairs)
+    {
+        return toCmd(GAMESWITHOPTIONS, nameOptPairs);
+    }
+
     /**
      * Get the list of games (and option strings).
      * List contains each game's name and option strings sent from server, as packed by
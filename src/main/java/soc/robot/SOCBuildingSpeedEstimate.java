@@ -29,9 +29,7 @@ import soc.game.*;
 
 import soc.util.CutoffExceededException;
 
-import java.util.Enumeration;
-import java.util.Hashtable;
-import java.util.Vector;
+import java.util.Arrays;
 
 
 /**
@@ -72,15 +70,24 @@ public class SOCBuildingSpeedEstimate
     private int[] rollsPerResource;
 
     /**
-     * Resource sets gained for each dice roll number (2 to 12).
-     * Indexes 0 and 1 are unused.
+     * Resource sets gained for each dice roll number (2 to 12),
+     * packed as {@link PackedResourceSet}s. Indexes 0 and 1 are unused.
      *<P>
      * Does not contain {@link soc.game.SOCBoardLarge#GOLD_HEX GOLD_HEX}
      * or {@link SOCResourceConstants#GOLD_LOCAL},
      * because {@link SOCPlayerNumbers} methods translate each gold hex number
      * into 1 resource of each of the normal 5 types.
      */
-    private SOCResourceSet[] resourcesForRoll;
+    private long[] resourcesForRoll;
+
+    /**
+     * Scratch array for robber-hex counts from {@link SOCPlayerNumbers}, to avoid allocating
+     * during {@link #recalculateRollsPerResource(SOCPlayerNumbers, int)}
+     * and {@link #recalculateResourcesForRoll(SOCPlayerNumbers, int)}.
+     * Length 13, to hold dice-number or resource-type counts.
+     * @since 2.7.00
+     */
+    private final int[] countsScratch = new int[13];
 
     /**
      * Create a new SOCBuildingSpeedEstimate, calculating
@@ -95,7 +102,7 @@ public class SOCBuildingSpeedEstimate
         estimatesFromNow = new int[MAXPLUSONE];
         rollsPerResource = new int[SOCResourceConstants.WOOD + 1];
         recalculateRollsPerResource(numbers, -1);
-        resourcesForRoll = new SOCResourceSet[13];
+        resourcesForRoll = new long[13];
         recalculateResourcesForRoll(numbers, -1);
     }
 
@@ -109,7 +116,7 @@ public class SOCBuildingSpeedEstimate
         estimatesFromNothing = new int[MAXPLUSONE];
         estimatesFromNow = new int[MAXPLUSONE];
         rollsPerResource = new int[SOCResourceConstants.WOOD + 1];
-        resourcesForRoll = new SOCResourceSet[13];
+        resourcesForRoll = new long[13];
     }
 
     /**
@@ -381,16 +388,20 @@ public class SOCBuildingSpeedEstimate
 
             float totalProbability = 0.0f;
 
-            Enumeration<Integer> numbersEnum =
-                ((robberHex != -1)
-                   ? numbers.getNumbersForResource(resource, robberHex)
-                   : numbers.getNumbersForResource(resource)
-                 ).elements();
+            final int[] numberCounts;
+            if (robberHex != -1)
+            {
+                numberCounts = countsScratch;
+                numbers.getNumberCountsForResource(resource, robberHex, numberCounts);
+            } else {
+                numberCounts = numbers.getNumberCountsForResource(resource);
+            }
 
-            while (numbersEnum.hasMoreElements())
+            for (int number = 2; number <= 12; ++number)
             {
-                Integer number = numbersEnum.nextElement();
-                totalProbability += SOCNumberProbabilities.FLOAT_VALUES[number.intValue()];
+                final int n = numberCounts[number];
+                if (n != 0)
+                    totalProbability += n * SOCNumberProbabilities.FLOAT_VALUES[number];
             }
 
             //D.ebugPrintln("totalProbability: " + totalProbability);
@@ -425,34 +436,23 @@ public class SOCBuildingSpeedEstimate
 
         for (int diceResult = 2; diceResult <= 12; diceResult++)
         {
-            Vector<Integer> resources = (robberHex != -1)
-                ? numbers.getResourcesForNumber(diceResult, robberHex)
-                : numbers.getResourcesForNumber(diceResult);
-
-            if (resources != null)
+            final int[] resourceCounts;
+            if (robberHex != -1)
             {
-                SOCResourceSet resourceSet = resourcesForRoll[diceResult];
-
-                if (resourceSet == null)
-                {
-                    resourceSet = new SOCResourceSet();
-                    resourcesForRoll[diceResult] = resourceSet;
-                }
-                else
-                {
-                    resourceSet.clear();
-                }
+                resourceCounts = countsScratch;
+                numbers.getResourceCountsForNumber(diceResult, robberHex, resourceCounts);
+            } else {
+                resourceCounts = numbers.getResourceCountsForNumber(diceResult);
+            }
 
-                Enumeration<Integer> resourcesEnum = resources.elements();
+            long resourceSet = PackedResourceSet.EMPTY;
+            for (int resource = SOCResourceConstants.CLAY; resource <= SOCResourceConstants.WOOD; ++resource)
+                if (resourceCounts[resource] != 0)
+                    resourceSet = PackedResourceSet.add(resourceSet, resourceCounts[resource], resource);
 
-                while (resourcesEnum.hasMoreElements())
-                {
-                    Integer resourceInt = resourcesEnum.nextElement();
-                    resourceSet.add(1, resourceInt.intValue());
-                }
+            //D.ebugPrintln("### resources for "+diceResult+" = "+PackedResourceSet.toString(resourceSet));
 
-                //D.ebugPrintln("### resources for "+diceResult+" = "+resourceSet);
-            }
+            resourcesForRoll[diceResult] = resourceSet;
         }
     }
 
@@ -480,6 +480,11 @@ public class SOCBuildingSpeedEstimate
      * This method does the same calculation as
      * {@link #calculateRollsAndRsrcFast(ResourceSet, SOCResourceSet, int, boolean[])}
      * with a simpler return type and no thrown exception.
+     *<P>
+     * Before v2.7.00 this called {@code calculateRollsAndRsrcFast(..)};
+     * it now calls {@link #calculateRollsFast(long, long, int, boolean[])} to avoid creating objects.
+     * Any negative amounts, such as a player's {@link soc.game.SOCResourceConstants#UNKNOWN UNKNOWN},
+     * are treated as 0: See {@link PackedResourceSet#packClamped(ResourceSet)}.
      *
      * @param startingResources   the starting resources; is treated as read-only
      * @param targetResources     the target resources; is treated as read-only
@@ -494,15 +499,32 @@ public class SOCBuildingSpeedEstimate
     protected final int calculateRollsFast
         (final ResourceSet startingResources, final SOCResourceSet targetResources, final int cutoff, final boolean[] ports)
     {
-        try
-        {
-            SOCResSetBuildTimePair pair = calculateRollsAndRsrcFast(startingResources, targetResources, cutoff, ports);
-            return pair.getRolls();
-        }
-        catch (CutoffExceededException e)
-        {
-            return cutoff;
-        }
+        return calculateRollsFast
+            (PackedResourceSet.packClamped(startingResources), PackedResourceSet.packClamped(targetResources),
+             cutoff, ports);
+    }
+
+    /**
+     * Figures out how many rolls it would take this player to get the target set of resources,
+     * given a starting set. Same calculation as
+     * {@link #calculateRollsFast(ResourceSet, SOCResourceSet, int, boolean[])}
+     * but with {@link PackedResourceSet}s, so no objects are created.
+     *
+     * @param startingResources   the starting resources, packed
+     * @param targetResources     the target resources, packed
+     * @param cutoff              maximum number of rolls
+     * @param ports               a list of port flags
+     *
+     * @return  the number of rolls, or {@code cutoff} if that maximum is reached.
+     *     If {@link PackedResourceSet#contains(long, long) startingResources contains targetResources}, returns 0.
+     * @since 2.7.00
+     */
+    protected final int calculateRollsFast
+        (final long startingResources, final long targetResources, final int cutoff, final boolean[] ports)
+    {
+        final int rolls = calculateRollsAndRsrcFastPacked(startingResources, targetResources, cutoff, ports, null);
+
+        return (rolls >= 0) ? rolls : cutoff;
     }
 
     /**
@@ -530,113 +552,39 @@ public class SOCBuildingSpeedEstimate
         //D.ebugPrintln("calculateRolls");
         //D.ebugPrintln("  start: "+startingResources);
         //D.ebugPrintln("  target: "+targetResources);
-        SOCResourceSet ourResources = new SOCResourceSet(startingResources);
-        int rolls = 0;
-
-        if (! ourResources.contains(targetResources))
-        {
-            /**
-             * do any possible trading with the bank/ports
-             */
-            for (int giveResource = SOCResourceConstants.CLAY;
-                    giveResource <= SOCResourceConstants.WOOD;
-                    giveResource++)
-            {
-                /**
-                 * find the ratio at which we can trade
-                 */
-                int tradeRatio;
-
-                if (ports[giveResource])
-                {
-                    tradeRatio = 2;
-                }
-                else if (ports[SOCBoard.MISC_PORT])
-                {
-                    tradeRatio = 3;
-                }
-                else
-                {
-                    tradeRatio = 4;
-                }
-
-                /**
-                 * get the target resources
-                 */
-                int numTrades = (ourResources.getAmount(giveResource) - targetResources.getAmount(giveResource)) / tradeRatio;
-
-                //D.ebugPrintln("))) ***");
-                //D.ebugPrintln("))) giveResource="+giveResource);
-                //D.ebugPrintln("))) tradeRatio="+tradeRatio);
-                //D.ebugPrintln("))) ourResources="+ourResources);
-                //D.ebugPrintln("))) targetResources="+targetResources);
-                //D.ebugPrintln("))) numTrades="+numTrades);
-                for (int trades = 0; trades < numTrades; trades++)
-                {
-                    /**
-                     * find the most needed resource by looking at
-                     * which of the resources we still need takes the
-                     * longest to aquire
-                     */
-                    int mostNeededResource = -1;
-
-                    for (int resource = SOCResourceConstants.CLAY;
-                            resource <= SOCResourceConstants.WOOD;
-                            resource++)
-                    {
-                        if (ourResources.getAmount(resource) < targetResources.getAmount(resource))
-                        {
-                            if (mostNeededResource < 0)
-                            {
-                                mostNeededResource = resource;
-                            }
-                            else
-                            {
-                                if (rollsPerResource[resource] > rollsPerResource[mostNeededResource])
-                                {
-                                    mostNeededResource = resource;
-                                }
-                            }
-                        }
-                    }
-
-                    /**
-                     * make the trade
-                     */
-
-                    //D.ebugPrintln("))) want to trade "+tradeRatio+" "+giveResource+" for a "+mostNeededResource);
-                    if ((mostNeededResource != -1) && (ourResources.getAmount(giveResource) >= tradeRatio))
-                    {
-                        //D.ebugPrintln("))) trading...");
-                        ourResources.add(1, mostNeededResource);
-
-                        if (ourResources.getAmount(giveResource) < tradeRatio)
-                        {
-                            System.err.println("@@@ rsrcs=" + ourResources);
-                            System.err.println("@@@ tradeRatio=" + tradeRatio);
-                            System.err.println("@@@ giveResource=" + giveResource);
-                            System.err.println("@@@ target=" + targetResources);
-                        }
-
-                        ourResources.subtract(tradeRatio, giveResource);
-
-                        //D.ebugPrintln("))) ourResources="+ourResources);
-                    }
+        final long[] ourResources = new long[1];
+        final int rolls = calculateRollsAndRsrcFastPacked
+            (PackedResourceSet.packClamped(startingResources), PackedResourceSet.packClamped(targetResources),
+             cutoff, ports, ourResources);
+        if (rolls < 0)
+            throw new CutoffExceededException();
+
+        return (new SOCResSetBuildTimePair(PackedResourceSet.toResourceSet(ourResources[0]), rolls));
+    }
 
-                    if (ourResources.contains(targetResources))
-                    {
-                        break;
-                    }
-                }
+    /**
+     * Calculation for {@link #calculateRollsAndRsrcFast(ResourceSet, SOCResourceSet, int, boolean[])}
+     * and {@link #calculateRollsFast(long, long, int, boolean[])} using {@link PackedResourceSet}s.
+     *
+     * @param ourResources   the starting resources, packed
+     * @param targetResources  the target resources, packed
+     * @param cutoff  maximum number of rolls
+     * @param ports  a list of port flags
+     * @param resultResources  If not null, {@code resultResources[0]} is set to our packed resources
+     *     when target is reached, after any trading
+     * @return  the number of rolls, or -1 if more than {@code cutoff}
+     * @since 2.7.00
+     */
+    private int calculateRollsAndRsrcFastPacked
+        (long ourResources, final long targetResources, final int cutoff, final boolean[] ports,
+         final long[] resultResources)
+    {
+        int rolls = 0;
 
-                if (ourResources.contains(targetResources))
-                {
-                    break;
-                }
-            }
-        }
+        if (! PackedResourceSet.contains(ourResources, targetResources))
+            ourResources = tradeTowardsTarget(ourResources, targetResources, ports);
 
-        while (! ourResources.contains(targetResources))
+        while (! PackedResourceSet.contains(ourResources, targetResources))
         {
             //D.ebugPrintln("roll: "+rolls);
             //D.ebugPrintln("resources: "+ourResources);
@@ -645,7 +593,7 @@ public class SOCBuildingSpeedEstimate
             if (rolls > cutoff)
             {
                 //D.ebugPrintln("startingResources="+startingResources+"\ntargetResources="+targetResources+"\ncutoff="+cutoff+"\nourResources="+ourResources);
-                throw new CutoffExceededException();
+                return -1;
             }
 
             for (int resource = SOCResourceConstants.CLAY;
@@ -657,123 +605,121 @@ public class SOCBuildingSpeedEstimate
                 /**
                  * get our resources for the roll
                  */
-                if ((rollsPerResource[resource] == 0) || ((rolls % rollsPerResource[resource]) == 0))
+                if (((rollsPerResource[resource] == 0) || ((rolls % rollsPerResource[resource]) == 0))
+                    && (PackedResourceSet.getAmount(ourResources, resource) < PackedResourceSet.MAX_AMOUNT))
                 {
-                    ourResources.add(1, resource);
+                    ourResources = PackedResourceSet.add(ourResources, 1, resource);
                 }
             }
 
-            if (! ourResources.contains(targetResources))
-            {
-                /**
-                 * do any possible trading with the bank/ports
-                 */
-                for (int giveResource = SOCResourceConstants.CLAY;
-                        giveResource <= SOCResourceConstants.WOOD;
-                        giveResource++)
-                {
-                    /**
-                     * find the ratio at which we can trade
-                     */
-                    int tradeRatio;
-
-                    if (ports[giveResource])
-                    {
-                        tradeRatio = 2;
-                    }
-                    else if (ports[SOCBoard.MISC_PORT])
-                    {
-                        tradeRatio = 3;
-                    }
-                    else
-                    {
-                        tradeRatio = 4;
-                    }
+            if (! PackedResourceSet.contains(ourResources, targetResources))
+                ourResources = tradeTowardsTarget(ourResources, targetResources, ports);
+        }
 
-                    /**
-                     * get the target resources
-                     */
-                    int numTrades = (ourResources.getAmount(giveResource) - targetResources.getAmount(giveResource)) / tradeRatio;
-
-                    //D.ebugPrintln("))) ***");
-                    //D.ebugPrintln("))) giveResource="+giveResource);
-                    //D.ebugPrintln("))) tradeRatio="+tradeRatio);
-                    //D.ebugPrintln("))) ourResources="+ourResources);
-                    //D.ebugPrintln("))) targetResources="+targetResources);
-                    //D.ebugPrintln("))) numTrades="+numTrades);
-                    for (int trades = 0; trades < numTrades; trades++)
-                    {
-                        /**
-                         * find the most needed resource by looking at
-                         * which of the resources we still need takes the
-                         * longest to aquire
-                         */
-                        int mostNeededResource = -1;
-
-                        for (int resource = SOCResourceConstants.CLAY;
-                                resource <= SOCResourceConstants.WOOD;
-                                resource++)
-                        {
-                            if (ourResources.getAmount(resource) < targetResources.getAmount(resource))
-                            {
-                                if (mostNeededResource < 0)
-                                {
-                                    mostNeededResource = resource;
-                                }
-                                else
-                                {
-                                    if (rollsPerResource[resource] > rollsPerResource[mostNeededResource])
-                                    {
-                                        mostNeededResource = resource;
-                                    }
-                                }
-                            }
-                        }
+        if (resultResources != null)
+            resultResources[0] = ourResources;
 
-                        /**
-                         * make the trade
-                         */
+        return rolls;
+    }
 
-                        //D.ebugPrintln("))) want to trade "+tradeRatio+" "+giveResource+" for a "+mostNeededResource);
-                        if ((mostNeededResource != -1) && (ourResources.getAmount(giveResource) >= tradeRatio))
-                        {
-                            //D.ebugPrintln("))) trading...");
-                            ourResources.add(1, mostNeededResource);
+    /**
+     * Do any possible trading with the bank/ports to get closer to a target set of resources.
+     * For each resource type we have more of than the target, trades it for the most needed resource:
+     * Whichever of the resources we still need takes the longest to acquire.
+     * Used by the fast and accurate roll calculations.
+     *
+     * @param ourResources  our resources, packed
+     * @param targetResources  the target resources, packed
+     * @param ports  a list of port flags
+     * @return our resources after any trades, packed
+     * @since 2.7.00
+     */
+    private long tradeTowardsTarget(long ourResources, final long targetResources, final boolean[] ports)
+    {
+        for (int giveResource = SOCResourceConstants.CLAY;
+                giveResource <= SOCResourceConstants.WOOD;
+                giveResource++)
+        {
+            /**
+             * find the ratio at which we can trade
+             */
+            int tradeRatio;
 
-                            if (ourResources.getAmount(giveResource) < tradeRatio)
-                            {
-                                System.err.println("@@@ rsrcs=" + ourResources);
-                                System.err.println("@@@ tradeRatio=" + tradeRatio);
-                                System.err.println("@@@ giveResource=" + giveResource);
-                                System.err.println("@@@ target=" + targetResources);
-                            }
+            if (ports[giveResource])
+            {
+                tradeRatio = 2;
+            }
+            else if (ports[SOCBoard.MISC_PORT])
+            {
+                tradeRatio = 3;
+            }
+            else
+            {
+                tradeRatio = 4;
+            }
 
-                            ourResources.subtract(tradeRatio, giveResource);
+            /**
+             * get the target resources
+             */
+            int numTrades = (PackedResourceSet.getAmount(ourResources, giveResource)
+                - PackedResourceSet.getAmount(targetResources, giveResource)) / tradeRatio;
 
-                            //D.ebugPrintln("))) ourResources="+ourResources);
-                        }
+            for (int trades = 0; trades < numTrades; trades++)
+            {
+                /**
+                 * find the most needed resource by looking at
+                 * which of the resources we still need takes the
+                 * longest to aquire
+                 */
+                int mostNeededResource = -1;
 
-                        if (ourResources.contains(targetResources))
+                for (int resource = SOCResourceConstants.CLAY;
+                        resource <= SOCResourceConstants.WOOD;
+                        resource++)
+                {
+                    if (PackedResourceSet.getAmount(ourResources, resource)
+                        < PackedResourceSet.getAmount(targetResources, resource))
+                    {
+                        if ((mostNeededResource < 0)
+                            || (rollsPerResource[resource] > rollsPerResource[mostNeededResource]))
                         {
-                            break;
+                            mostNeededResource = resource;
                         }
                     }
+                }
 
-                    if (ourResources.contains(targetResources))
-                    {
-                        break;
-                    }
+                /**
+                 * make the trade
+                 */
+                if ((mostNeededResource != -1)
+                    && (PackedResourceSet.getAmount(ourResources, giveResource) >= tradeRatio))
+                {
+                    ourResources = PackedResourceSet.add(ourResources, 1, mostNeededResource);
+                    ourResources = PackedResourceSet.subtract(ourResources, tradeRatio, giveResource);
                 }
+
+                if (PackedResourceSet.contains(ourResources, targetResources))
+                {
+                    break;
+                }
+            }
+
+            if (PackedResourceSet.contains(ourResources, targetResources))
+            {
+                break;
             }
         }
 
-        return (new SOCResSetBuildTimePair(ourResources, rolls));
+        return ourResources;
     }
 
     /**
      * this figures out how many rolls it would take this
      * player to get the target set of resources given
      * a starting set
+     *<P>
+     * Since v2.7.00 the possible resource outcomes of each roll are tracked as {@link PackedResourceSet}s
+     * in a primitive hash table, instead of as a {@code Hashtable<SOCResourceSet, Float>}.
      *
      * @param startingResources   the starting resources; is treated as read-only
      * @param targetResources     the target resources; is treated as read-only
@@ -793,21 +739,19 @@ public class SOCBuildingSpeedEstimate
         D.ebugPrintlnINFO("  start: " + startingResources);
         D.ebugPrintlnINFO("  target: " + targetResources);
 
-        SOCResourceSet ourResources = startingResources.copy();
+        final long ourResources = PackedResourceSet.packClamped(startingResources);
+        final long target = PackedResourceSet.packClamped(targetResources);
         int rolls = 0;
 
-        @SuppressWarnings("unchecked")
-        Hashtable<SOCResourceSet, Float>[] resourcesOnRoll = new Hashtable[2];
-        resourcesOnRoll[0] = new Hashtable<SOCResourceSet, Float>();
-        resourcesOnRoll[1] = new Hashtable<SOCResourceSet, Float>();
+        ResourceProbTable[] resourcesOnRoll = { new ResourceProbTable(), new ResourceProbTable() };
 
         int lastRoll = 0;
         int thisRoll = 1;
 
-        resourcesOnRoll[lastRoll].put(ourResources, Float.valueOf(1.0f));
+        resourcesOnRoll[lastRoll].addProb(ourResources, 1.0f);
 
-        boolean targetReached = ourResources.contains(targetResources);
-        SOCResourceSet targetReachedResources = null;
+        boolean targetReached = PackedResourceSet.contains(ourResources, target);
+        long targetReachedResources = -1;  // not yet found
         float targetReachedProb = 0.0f;
 
         while (! targetReached)
@@ -816,18 +760,7 @@ public class SOCBuildingSpeedEstimate
             {
                 D.ebugPrintlnINFO("roll: " + rolls);
                 D.ebugPrintlnINFO("resourcesOnRoll[lastRoll]:");
-
-                Enumeration<SOCResourceSet> roltEnum = resourcesOnRoll[lastRoll].keys();
-
-                while (roltEnum.hasMoreElements())
-                {
-                    SOCResourceSet rs = roltEnum.nextElement();
-                    Float prob = resourcesOnRoll[lastRoll].get(rs);
-                    D.ebugPrintlnINFO("---- prob:" + prob);
-                    D.ebugPrintlnINFO("---- rsrcs:" + rs);
-                    D.ebugPrintlnINFO();
-                }
-
+                resourcesOnRoll[lastRoll].debugPrint();
                 D.ebugPrintlnINFO("targetReachedProb: " + targetReachedProb);
                 D.ebugPrintlnINFO("===================================");
             }
@@ -836,16 +769,18 @@ public class SOCBuildingSpeedEstimate
 
             if (rolls > cutoff)
             {
-                D.ebugPrintlnINFO("startingResources=" + startingResources + "\ntargetResources=" + targetResources + "\ncutoff=" + cutoff + "\nourResources=" + ourResources);
+                D.ebugPrintlnINFO("startingResources=" + startingResources + "\ntargetResources=" + targetResources + "\ncutoff=" + cutoff + "\nourResources=" + startingResources);
                 throw new CutoffExceededException();
             }
 
+            final ResourceProbTable lastTable = resourcesOnRoll[lastRoll], thisTable = resourcesOnRoll[thisRoll];
+
             //
             //  get our resources for the roll
             //
             for (int diceResult = 2; diceResult <= 12; diceResult++)
             {
-                SOCResourceSet gainedResources = resourcesForRoll[diceResult];
+                final long gainedResources = resourcesForRoll[diceResult];
                 float diceProb = SOCNumberProbabilities.FLOAT_VALUES[diceResult];
 
                 //
@@ -853,147 +788,34 @@ public class SOCBuildingSpeedEstimate
                 //  each set of resources that we got on the last
                 //  roll and multiply the probabilities
                 //
-                Enumeration<SOCResourceSet> lastResourcesEnum = resourcesOnRoll[lastRoll].keys();
-
-                while (lastResourcesEnum.hasMoreElements())
+                for (int i = 0; i < lastTable.keys.length; ++i)
                 {
-                    SOCResourceSet lastResources = lastResourcesEnum.nextElement();
-                    Float lastProb = resourcesOnRoll[lastRoll].get(lastResources);
-                    SOCResourceSet newResources = lastResources.copy();
-                    newResources.add(gainedResources);
+                    final long lastResources = lastTable.keys[i];
+                    if (lastResources == ResourceProbTable.NO_KEY)
+                        continue;
 
-                    float newProb = lastProb.floatValue() * diceProb;
+                    long newResources = PackedResourceSet.add(lastResources, gainedResources);
+                    float newProb = lastTable.probs[i] * diceProb;
 
-                    if (! newResources.contains(targetResources))
+                    if (! PackedResourceSet.contains(newResources, target))
                     {
                         //
                         // do any possible trading with the bank/ports
                         //
-                        for (int giveResource = SOCResourceConstants.CLAY;
-                                giveResource <= SOCResourceConstants.WOOD;
-                                giveResource++)
-                        {
-                            if ((newResources.getAmount(giveResource) - targetResources.getAmount(giveResource)) > 1)
-                            {
-                                //
-                                // find the ratio at which we can trade
-                                //
-                                int tradeRatio;
-
-                                if (ports[giveResource])
-                                {
-                                    tradeRatio = 2;
-                                }
-                                else if (ports[SOCBoard.MISC_PORT])
-                                {
-                                    tradeRatio = 3;
-                                }
-                                else
-                                {
-                                    tradeRatio = 4;
-                                }
-
-                                //
-                                // get the target resources
-                                //
-                                int numTrades = (newResources.getAmount(giveResource) - targetResources.getAmount(giveResource)) / tradeRatio;
-
-                                //D.ebugPrintln("))) ***");
-                                //D.ebugPrintln("))) giveResource="+giveResource);
-                                //D.ebugPrintln("))) tradeRatio="+tradeRatio);
-                                //D.ebugPrintln("))) newResources="+newResources);
-                                //D.ebugPrintln("))) targetResources="+targetResources);
-                                //D.ebugPrintln("))) numTrades="+numTrades);
-                                for (int trades = 0; trades < numTrades;
-                                        trades++)
-                                {
-                                    //
-                                    // find the most needed resource by looking at
-                                    // which of the resources we still need takes the
-                                    // longest to aquire
-                                    //
-                                    int mostNeededResource = -1;
-
-                                    for (int resource = SOCResourceConstants.CLAY;
-                                            resource <= SOCResourceConstants.WOOD;
-                                            resource++)
-                                    {
-                                        if (newResources.getAmount(resource) < targetResources.getAmount(resource))
-                                        {
-                                            if (mostNeededResource < 0)
-                                            {
-                                                mostNeededResource = resource;
-                                            }
-                                            else
-                                            {
-                                                if (rollsPerResource[resource] > rollsPerResource[mostNeededResource])
-                                                {
-                                                    mostNeededResource = resource;
-                                                }
-                                            }
-                                        }
-                                    }
-
-                                    //
-                                    // make the trade
-                                    //
-                                    //D.ebugPrintln("))) want to trade "+tradeRatio+" "+giveResource+" for a "+mostNeededResource);
-                                    if ((mostNeededResource != -1) && (newResources.getAmount(giveResource) >= tradeRatio))
-                                    {
-                                        //D.ebugPrintln("))) trading...");
-                                        newResources.add(1, mostNeededResource);
-
-                                        if (newResources.getAmount(giveResource) < tradeRatio)
-                                        {
-                                            System.err.println("@@@ rsrcs=" + newResources);
-                                            System.err.println("@@@ tradeRatio=" + tradeRatio);
-                                            System.err.println("@@@ giveResource=" + giveResource);
-                                            System.err.println("@@@ target=" + targetResources);
-                                        }
-
-                                        newResources.subtract(tradeRatio, giveResource);
-
-                                        //D.ebugPrintln("))) newResources="+newResources);
-                                    }
-
-                                    if (newResources.contains(targetResources))
-                                    {
-                                        break;
-                                    }
-                                }
-
-                                if (newResources.contains(targetResources))
-                                {
-                                    break;
-                                }
-                            }
-                        }
-                    }
-
-                    //
-                    //  if this set of resources is already in the list
-                    //  of possible outcomes, add this probability to
-                    //  that one, else just add this to the list
-                    //
-                    Float probFloat = resourcesOnRoll[thisRoll].get(newResources);
-                    float newProb2 = newProb;
-
-                    if (probFloat != null)
-                    {
-                        newProb2 = probFloat.floatValue() + newProb;
+                        newResources = tradeTowardsTarget(newResources, target, ports);
                     }
 
                     //
                     //  check to see if we reached our target
                     //
-                    if (newResources.contains(targetResources))
+                    if (PackedResourceSet.contains(newResources, target))
                     {
                         D.ebugPrintlnINFO("-----> TARGET HIT *");
-                        D.ebugPrintlnINFO("newResources: " + newResources);
+                        D.ebugPrintlnINFO("newResources: " + PackedResourceSet.toString(newResources));
                         D.ebugPrintlnINFO("newProb: " + newProb);
                         targetReachedProb += newProb;
 
-                        if (targetReachedResources == null)
+                        if (targetReachedResources == -1)
                         {
                             targetReachedResources = newResources;
                         }
@@ -1005,14 +827,19 @@ public class SOCBuildingSpeedEstimate
                     }
                     else
                     {
-                        resourcesOnRoll[thisRoll].put(newResources, Float.valueOf(newProb2));
+                        //
+                        //  if this set of resources is already in the list
+                        //  of possible outcomes, add this probability to
+                        //  that one, else just add this to the list
+                        //
+                        thisTable.addProb(newResources, newProb);
                     }
                 }
             }
 
             //
-            //  copy the resourcesOnRoll[thisRoll] table to the
-            //  resourcesOnRoll[lastRoll] table and clear the
+            //  swap the resourcesOnRoll[thisRoll] and
+            //  resourcesOnRoll[lastRoll] tables and clear the
             //  resourcesOnRoll[thisRoll] table
             //
             int tmp = lastRoll;
@@ -1023,29 +850,112 @@ public class SOCBuildingSpeedEstimate
 
         if (D.ebugOn)
         {
-            float probSum = 0.0f;
             D.ebugPrintlnINFO("**************** TARGET REACHED ************");
-            D.ebugPrintlnINFO("targetReachedResources: " + targetReachedResources);
+            D.ebugPrintlnINFO("targetReachedResources: "
+                + ((targetReachedResources != -1) ? PackedResourceSet.toString(targetReachedResources) : "null"));
             D.ebugPrintlnINFO("targetReachedProb: " + targetReachedProb);
             D.ebugPrintlnINFO("roll: " + rolls);
             D.ebugPrintlnINFO("resourcesOnRoll[lastRoll]:");
+            resourcesOnRoll[lastRoll].debugPrint();
+            D.ebugPrintlnINFO("===================================");
+        }
+
+        return (new SOCResSetBuildTimePair
+            ((targetReachedResources != -1) ? PackedResourceSet.toResourceSet(targetReachedResources) : null,
+             rolls));
+    }
+
+    /**
+     * Open-addressing hash table of {@link PackedResourceSet} keys to probabilities,
+     * for {@link SOCBuildingSpeedEstimate#calculateRollsAccurate(SOCResourceSet, SOCResourceSet, int, boolean[])}.
+     * Avoids boxing each key and value. Iterate by checking each element of {@link #keys}
+     * for {@link #NO_KEY}; {@link #probs} has the same indexes.
+     * @since 2.7.00
+     */
+    private static final class ResourceProbTable
+    {
+        /** Marks an unused slot; packed sets are never negative. */
+        static final long NO_KEY = -1L;
+
+        long[] keys;
+        float[] probs;
+        int size;
 
-            Enumeration<SOCResourceSet> roltEnum = resourcesOnRoll[lastRoll].keys();
+        ResourceProbTable()
+        {
+            keys = new long[64];
+            probs = new float[64];
+            Arrays.fill(keys, NO_KEY);
+        }
 
-            while (roltEnum.hasMoreElements())
+        /** Add {@code prob} to {@code key}'s probability, adding the key if not already present. */
+        void addProb(final long key, final float prob)
+        {
+            if ((size + 1) * 2 > keys.length)
+                grow();
+
+            final int i = findSlot(keys, key);
+            if (keys[i] == NO_KEY)
             {
-                SOCResourceSet rs = roltEnum.nextElement();
-                Float prob = resourcesOnRoll[lastRoll].get(rs);
-                probSum += prob.floatValue();
-                D.ebugPrintlnINFO("---- prob:" + prob);
-                D.ebugPrintlnINFO("---- rsrcs:" + rs);
-                D.ebugPrintlnINFO();
+                keys[i] = key;
+                probs[i] = prob;
+                ++size;
+            } else {
+                probs[i] += prob;
             }
+        }
 
-            D.ebugPrintlnINFO("probSum = " + probSum);
-            D.ebugPrintlnINFO("===================================");
+        void clear()
+        {
+            if (size == 0)
+                return;
+
+            Arrays.fill(keys, NO_KEY);
+            size = 0;
+        }
+
+        private void grow()
+        {
+            final long[] oldKeys = keys;
+            final float[] oldProbs = probs;
+            keys = new long[oldKeys.length * 2];
+            probs = new float[oldKeys.length * 2];
+            Arrays.fill(keys, NO_KEY);
+            for (int j = 0; j < oldKeys.length; ++j)
+            {
+                if (oldKeys[j] == NO_KEY)
+                    continue;
+                final int i = findSlot(keys, oldKeys[j]);
+                keys[i] = oldKeys[j];
+                probs[i] = oldProbs[j];
+            }
         }
 
-        return (new SOCResSetBuildTimePair(targetReachedResources, rolls));
+        /** Find {@code key}'s slot, or the empty slot where it would go. Table length is a power of 2. */
+        private static int findSlot(final long[] keys, final long key)
+        {
+            final int mask = keys.length - 1;
+            long h = key * 0x9E3779B97F4A7C15L;
+            int i = (int) (h ^ (h >>> 32)) & mask;
+            while ((keys[i] != NO_KEY) && (keys[i] != key))
+                i = (i + 1) & mask;
+
+            return i;
+        }
+
+        void debugPrint()
+        {
+            float probSum = 0.0f;
+            for (int i = 0; i < keys.length; ++i)
+            {
+                if (keys[i] == NO_KEY)
+                    continue;
+                probSum += probs[i];
+                D.ebugPrintlnINFO("---- prob:" + probs[i]);
+                D.ebugPrintlnINFO("---- rsrcs:" + PackedResourceSet.toString(keys[i]));
+                D.ebugPrintlnINFO();
+            }
+            D.ebugPrintlnINFO("probSum = " + probSum);
+        }
     }
 }
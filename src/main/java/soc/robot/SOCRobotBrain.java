@@ -1134,6 +1134,7 @@ public class SOCRobotBrain extends Thread
         switch (getRobotParameters().getStrategyType())
         {
         case SOCRobotDM.SMART_STRATEGY:
+        case SOCRobotDM.ROLLOUT_STRATEGY:
             faceId = -1;  // smarter robot face
             break;
 
@@ -2111,7 +2112,7 @@ public class SOCRobotBrain extends Thread
                         break;
 
                     case SOCMessage.TIMINGPING:
-                        // Once-per-second message from the pinger thread
+                        // Once-per-second message from the pinger
                         counter++;
                         break;
 
@@ -5339,6 +5340,9 @@ public class SOCRobotBrain extends Thread
      * Does not set the field returned by {@link #getDecisionMaker()},
      * only calls a DM constructor.
      *<P>
+     * If {@link #getRobotParameters()} strategy type is {@link SOCRobotDM#ROLLOUT_STRATEGY},
+     * returns a {@link SOCRobotRolloutDM}.
+     *<P>
      * Third-party bots may override this factory method.
      *
      * @return a DecisionMaker based on this brain
@@ -5348,6 +5352,9 @@ public class SOCRobotBrain extends Thread
      */
     protected SOCRobotDM createDM()
     {
+        if (robotParameters.getStrategyType() == SOCRobotDM.ROLLOUT_STRATEGY)
+            return new SOCRobotRolloutDM(this);
+
         return new SOCRobotDM(this);
     }
 
@@ -511,6 +511,17 @@ public class SOCRobotClient extends SOCDisplaylessPlayerClient
         return new SOCRobotBrain(this, params, ga, mq);
     }
 
+    /**
+     * Get this robot's brain for a game, if it's playing there.
+     * @param gaName  Game name
+     * @return  the brain playing {@code gaName}, or {@code null}
+     * @since 2.7.00
+     */
+    public SOCRobotBrain getRobotBrain(final String gaName)
+    {
+        return robotBrains.get(gaName);
+    }
+
     /**
      * Treat the incoming messages.
      * Messages of unknown type are ignored. All {@link SOCGameServerText} are ignored.
@@ -1323,6 +1334,7 @@ public class SOCRobotClient extends SOCDisplaylessPlayerClient
             switch (brain.getRobotParameters().getStrategyType())
             {
             case SOCRobotDM.SMART_STRATEGY:
+            case SOCRobotDM.ROLLOUT_STRATEGY:
                 faceId = -1;  // smarter robot face
                 break;
 
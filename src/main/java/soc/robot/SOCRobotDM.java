@@ -54,6 +54,7 @@ import soc.game.SOCSettlement;
 import soc.game.SOCShip;
 import soc.game.SOCSpecialItem;
 import soc.util.CutoffExceededException;
+import soc.util.FlightRecorderEvents;
 import soc.util.NodeLenVis;
 import soc.util.Pair;
 import soc.util.Queue;
@@ -111,6 +112,14 @@ public class SOCRobotDM
   public static final int SMART_STRATEGY = 0;
   public static final int FAST_STRATEGY = 1;
 
+  /**
+   * Strategy which plans like {@link #SMART_STRATEGY}, then re-ranks the top candidates
+   * by simulating playouts; uses {@link SOCRobotRolloutDM}. If a plain {@code SOCRobotDM}
+   * is asked to plan with this strategy, it plans like {@code SMART_STRATEGY}.
+   * @since 2.7.00
+   */
+  public static final int ROLLOUT_STRATEGY = 2;
+
   /**
    * The brain using this DM for {@link #ourPlayerData} in {@link #game}, or {@code null}
    */
@@ -332,11 +341,12 @@ public class SOCRobotDM
    *</UL>
    *
    * @param strategy  an integer that determines which strategy is used
-   *    ({@link #SMART_STRATEGY} or {@link #FAST_STRATEGY})
+   *    ({@link #SMART_STRATEGY}, {@link #FAST_STRATEGY}, or {@link #ROLLOUT_STRATEGY})
    */
   public void planStuff(final int strategy)
   {
       //long startTime = System.currentTimeMillis();
+    final Object jfr = FlightRecorderEvents.beginRobotPlan();
     D.ebugPrintlnINFO("PLANSTUFF");
 
     SOCBuildingSpeedEstimate currentBSE = getEstimator(ourPlayerData.getNumbers());
@@ -369,7 +379,7 @@ public class SOCRobotDM
       brain.getDRecorder().startRecording(SOCRobotClient.CURRENT_PLANS);
     }
 
-    if (strategy == SMART_STRATEGY) {
+    if ((strategy == SMART_STRATEGY) || (strategy == ROLLOUT_STRATEGY)) {
       SOCPlayerTracker.updateWinGameETAs(playerTrackers);
     }
 
@@ -421,6 +431,7 @@ public class SOCRobotDM
     switch (strategy)
     {
     case SMART_STRATEGY:
+    case ROLLOUT_STRATEGY:
       smartGameStrategy(currentBuildingETAs);
       break;
 
@@ -434,7 +445,7 @@ public class SOCRobotDM
     /// if we have a road building card, make sure
     /// we build two roads first
     ///
-    if ((strategy == SMART_STRATEGY)
+    if (((strategy == SMART_STRATEGY) || (strategy == ROLLOUT_STRATEGY))
         && (! ourPlayerData.hasPlayedDevCard())
         && ourPlayerData.getNumPieces(SOCPlayingPiece.ROAD) >= 2
         && ourPlayerData.getInventory().hasPlayable(SOCDevCardConstants.ROADS))
@@ -442,6 +453,10 @@ public class SOCRobotDM
         planRoadBuildingTwoRoads();
     }
 
+    if (jfr != null)
+        FlightRecorderEvents.endRobotPlan
+            (jfr, ourPlayerData.getName(), game.getName(), strategy, buildingPlan.size());
+
     //long endTime = System.currentTimeMillis();
     //System.out.println("plan time: "+(endTime-startTime));
   }
@@ -24,6 +24,7 @@ package soc.robot;
 
 import soc.disableDebug.D;
 
+import soc.game.PackedResourceSet;
 import soc.game.SOCBoard;
 import soc.game.SOCGame;
 import soc.game.SOCPlayer;
@@ -548,10 +549,10 @@ public class SOCRobotNegotiator
 
             D.ebugPrintlnINFO("*** ourResources = " + ourResources);
 
-            SOCResourceSet leftovers = ourResources.copy();
-            leftovers.subtract(targetResources);
+            long leftovers = PackedResourceSet.subtract
+                (PackedResourceSet.packClamped(ourResources), PackedResourceSet.packClamped(targetResources));
 
-            D.ebugPrintlnINFO("*** leftovers = " + leftovers);
+            D.ebugPrintlnINFO("*** leftovers = " + PackedResourceSet.toString(leftovers));
 
             ///
             /// consider offers where we give two for one needed
@@ -599,7 +600,7 @@ public class SOCRobotNegotiator
                                 giveResourceSet.add(1, notNeededRsrc[giveRsrcIdx1]);
                                 giveResourceSet.add(1, neededRsrc[giveRsrcIdx2]);
 
-                                if (leftovers.contains(giveResourceSet))
+                                if (PackedResourceSet.contains(leftovers, PackedResourceSet.pack(giveResourceSet)))
                                 {
                                     ///
                                     /// make sure the offer is better than our BATNA
@@ -627,7 +628,7 @@ public class SOCRobotNegotiator
 
                 while ((giveRsrcIdx1 < neededRsrcCount) && (offer == null))
                 {
-                    if (leftovers.contains(neededRsrc[giveRsrcIdx1]) && (neededRsrc[giveRsrcIdx1] != neededRsrc[getRsrcIdx]))
+                    if (PackedResourceSet.contains(leftovers, neededRsrc[giveRsrcIdx1]) && (neededRsrc[giveRsrcIdx1] != neededRsrc[getRsrcIdx]))
                     {
                         while ((giveRsrcIdx2 < notNeededRsrcCount) && (offer == null))
                         {
@@ -635,7 +636,7 @@ public class SOCRobotNegotiator
                             giveResourceSet.add(1, neededRsrc[giveRsrcIdx1]);
                             giveResourceSet.add(1, notNeededRsrc[giveRsrcIdx2]);
 
-                            if (leftovers.contains(giveResourceSet))
+                            if (PackedResourceSet.contains(leftovers, PackedResourceSet.pack(giveResourceSet)))
                             {
                                 ///
                                 /// make sure the offer is better than our BATNA
@@ -663,7 +664,7 @@ public class SOCRobotNegotiator
                                 giveResourceSet.add(1, neededRsrc[giveRsrcIdx1]);
                                 giveResourceSet.add(1, neededRsrc[giveRsrcIdx2]);
 
-                                if (leftovers.contains(giveResourceSet))
+                                if (PackedResourceSet.contains(leftovers, PackedResourceSet.pack(giveResourceSet)))
                                 {
                                     ///
                                     /// make sure the offer is better than our BATNA
@@ -694,10 +695,10 @@ public class SOCRobotNegotiator
         ///
         if (offer == null)
         {
-            SOCResourceSet leftovers = ourResources.copy();
-            leftovers.subtract(targetResources);
+            long leftovers = PackedResourceSet.subtract
+                (PackedResourceSet.packClamped(ourResources), PackedResourceSet.packClamped(targetResources));
 
-            D.ebugPrintlnINFO("*** leftovers = " + leftovers);
+            D.ebugPrintlnINFO("*** leftovers = " + PackedResourceSet.toString(leftovers));
 
             int getRsrcIdx2 = notNeededRsrcCount - 1;
 
@@ -710,7 +711,7 @@ public class SOCRobotNegotiator
             {
                 getResourceSet.clear();
                 getResourceSet.add(1, notNeededRsrc[getRsrcIdx2]);
-                leftovers.add(1, notNeededRsrc[getRsrcIdx2]);
+                leftovers = PackedResourceSet.add(leftovers, 1, notNeededRsrc[getRsrcIdx2]);
 
                 ///
                 /// give one unneeded
@@ -721,9 +722,9 @@ public class SOCRobotNegotiator
 
                     while ((giveRsrcIdx1 < notNeededRsrcCount) && (offer == null))
                     {
-                        if (leftovers.contains(notNeededRsrc[giveRsrcIdx1]) && (notNeededRsrc[giveRsrcIdx1] != notNeededRsrc[getRsrcIdx2]))
+                        if (PackedResourceSet.contains(leftovers, notNeededRsrc[giveRsrcIdx1]) && (notNeededRsrc[giveRsrcIdx1] != notNeededRsrc[getRsrcIdx2]))
                         {
-                            leftovers.subtract(1, notNeededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.subtract(leftovers, 1, notNeededRsrc[giveRsrcIdx1]);
 
                             if (getOfferToBank(targetResources, leftovers) != null)
                             {
@@ -743,7 +744,7 @@ public class SOCRobotNegotiator
                                 }
                             }
 
-                            leftovers.add(1, notNeededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.add(leftovers, 1, notNeededRsrc[giveRsrcIdx1]);
                         }
 
                         giveRsrcIdx1++;
@@ -759,9 +760,9 @@ public class SOCRobotNegotiator
 
                     while ((giveRsrcIdx1 < neededRsrcCount) && (offer == null))
                     {
-                        if (leftovers.contains(neededRsrc[giveRsrcIdx1]))
+                        if (PackedResourceSet.contains(leftovers, neededRsrc[giveRsrcIdx1]))
                         {
-                            leftovers.subtract(1, neededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.subtract(leftovers, 1, neededRsrc[giveRsrcIdx1]);
 
                             if (getOfferToBank(targetResources, leftovers) != null)
                             {
@@ -781,14 +782,14 @@ public class SOCRobotNegotiator
                                 }
                             }
 
-                            leftovers.add(1, neededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.add(leftovers, 1, neededRsrc[giveRsrcIdx1]);
                         }
 
                         giveRsrcIdx1++;
                     }
                 }
 
-                leftovers.subtract(1, notNeededRsrc[getRsrcIdx2]);
+                leftovers = PackedResourceSet.subtract(leftovers, 1, notNeededRsrc[getRsrcIdx2]);
                 getRsrcIdx2--;
             }
         }
@@ -964,17 +965,21 @@ public class SOCRobotNegotiator
         (SOCPlayer player, SOCResourceSet targetResources, SOCResourceSet giveSet, SOCResourceSet getSet,
          SOCBuildingSpeedEstimate estimate)
     {
-        SOCResourceSet ourResourcesCopy = player.getResources().copy();
         D.ebugPrintlnINFO("*** giveSet = " + giveSet);
         D.ebugPrintlnINFO("*** getSet = " + getSet);
-        ourResourcesCopy.subtract(giveSet);
-        ourResourcesCopy.add(getSet);
 
-        final int offerBuildingTime =
-            estimate.calculateRollsFast(ourResourcesCopy, targetResources, 1000, player.getPortFlags());
+        // called for each possible offer; packed sets avoid copying player's resources each time.
+        // Player's UNKNOWN amount might be negative: packClamped treats that as 0
+        final long ourResourcesCopy = PackedResourceSet.add
+            (PackedResourceSet.subtract
+                (PackedResourceSet.packClamped(player.getResources()), PackedResourceSet.packClamped(giveSet)),
+             PackedResourceSet.packClamped(getSet));
+
+        final int offerBuildingTime = estimate.calculateRollsFast
+            (ourResourcesCopy, PackedResourceSet.packClamped(targetResources), 1000, player.getPortFlags());
 
         D.ebugPrintlnINFO("*** offerBuildingTime = " + offerBuildingTime);
-        D.ebugPrintlnINFO("*** ourResourcesCopy = " + ourResourcesCopy);
+        D.ebugPrintlnINFO("*** ourResourcesCopy = " + PackedResourceSet.toString(ourResourcesCopy));
 
         return (offerBuildingTime);
     }
@@ -1807,10 +1812,10 @@ public class SOCRobotNegotiator
 
             D.ebugPrintlnINFO("*** ourResources = " + ourResources);
 
-            SOCResourceSet leftovers = ourResources.copy();
-            leftovers.subtract(targetResources);
+            long leftovers = PackedResourceSet.subtract
+                (PackedResourceSet.packClamped(ourResources), PackedResourceSet.packClamped(targetResources));
 
-            D.ebugPrintlnINFO("*** leftovers = " + leftovers);
+            D.ebugPrintlnINFO("*** leftovers = " + PackedResourceSet.toString(leftovers));
 
             ///
             /// consider offers where we give two for one needed
@@ -1858,7 +1863,7 @@ public class SOCRobotNegotiator
                                 giveResourceSet.add(1, notNeededRsrc[giveRsrcIdx1]);
                                 giveResourceSet.add(1, neededRsrc[giveRsrcIdx2]);
 
-                                if (leftovers.contains(giveResourceSet))
+                                if (PackedResourceSet.contains(leftovers, PackedResourceSet.pack(giveResourceSet)))
                                 {
                                     ///
                                     /// make sure the offer is better than our BATNA
@@ -1886,7 +1891,7 @@ public class SOCRobotNegotiator
 
                 while ((giveRsrcIdx1 < neededRsrcCount) && (counterOffer == null))
                 {
-                    if (leftovers.contains(neededRsrc[giveRsrcIdx1]) && (neededRsrc[giveRsrcIdx1] != neededRsrc[getRsrcIdx]))
+                    if (PackedResourceSet.contains(leftovers, neededRsrc[giveRsrcIdx1]) && (neededRsrc[giveRsrcIdx1] != neededRsrc[getRsrcIdx]))
                     {
                         while ((giveRsrcIdx2 < notNeededRsrcCount) && (counterOffer == null))
                         {
@@ -1894,7 +1899,7 @@ public class SOCRobotNegotiator
                             giveResourceSet.add(1, neededRsrc[giveRsrcIdx1]);
                             giveResourceSet.add(1, notNeededRsrc[giveRsrcIdx2]);
 
-                            if (leftovers.contains(giveResourceSet))
+                            if (PackedResourceSet.contains(leftovers, PackedResourceSet.pack(giveResourceSet)))
                             {
                                 ///
                                 /// make sure the offer is better than our BATNA
@@ -1922,7 +1927,7 @@ public class SOCRobotNegotiator
                                 giveResourceSet.add(1, neededRsrc[giveRsrcIdx1]);
                                 giveResourceSet.add(1, neededRsrc[giveRsrcIdx2]);
 
-                                if (leftovers.contains(giveResourceSet))
+                                if (PackedResourceSet.contains(leftovers, PackedResourceSet.pack(giveResourceSet)))
                                 {
                                     ///
                                     /// make sure the offer is better than our BATNA
@@ -1953,10 +1958,10 @@ public class SOCRobotNegotiator
         ///
         if (counterOffer == null)
         {
-            SOCResourceSet leftovers = ourResources.copy();
-            leftovers.subtract(targetResources);
+            long leftovers = PackedResourceSet.subtract
+                (PackedResourceSet.packClamped(ourResources), PackedResourceSet.packClamped(targetResources));
 
-            D.ebugPrintlnINFO("*** leftovers = " + leftovers);
+            D.ebugPrintlnINFO("*** leftovers = " + PackedResourceSet.toString(leftovers));
 
             int getRsrcIdx2 = notNeededRsrcCount - 1;
 
@@ -1969,7 +1974,7 @@ public class SOCRobotNegotiator
             {
                 getResourceSet.clear();
                 getResourceSet.add(1, notNeededRsrc[getRsrcIdx2]);
-                leftovers.add(1, notNeededRsrc[getRsrcIdx2]);
+                leftovers = PackedResourceSet.add(leftovers, 1, notNeededRsrc[getRsrcIdx2]);
 
                 ///
                 /// give one unneeded
@@ -1980,9 +1985,9 @@ public class SOCRobotNegotiator
 
                     while ((giveRsrcIdx1 < notNeededRsrcCount) && (counterOffer == null))
                     {
-                        if (leftovers.contains(notNeededRsrc[giveRsrcIdx1]) && (notNeededRsrc[giveRsrcIdx1] != notNeededRsrc[getRsrcIdx2]))
+                        if (PackedResourceSet.contains(leftovers, notNeededRsrc[giveRsrcIdx1]) && (notNeededRsrc[giveRsrcIdx1] != notNeededRsrc[getRsrcIdx2]))
                         {
-                            leftovers.subtract(1, notNeededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.subtract(leftovers, 1, notNeededRsrc[giveRsrcIdx1]);
 
                             if (getOfferToBank(targetResources, leftovers) != null)
                             {
@@ -2002,7 +2007,7 @@ public class SOCRobotNegotiator
                                 }
                             }
 
-                            leftovers.add(1, notNeededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.add(leftovers, 1, notNeededRsrc[giveRsrcIdx1]);
                         }
 
                         giveRsrcIdx1++;
@@ -2018,9 +2023,9 @@ public class SOCRobotNegotiator
 
                     while ((giveRsrcIdx1 < neededRsrcCount) && (counterOffer == null))
                     {
-                        if (leftovers.contains(neededRsrc[giveRsrcIdx1]))
+                        if (PackedResourceSet.contains(leftovers, neededRsrc[giveRsrcIdx1]))
                         {
-                            leftovers.subtract(1, neededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.subtract(leftovers, 1, neededRsrc[giveRsrcIdx1]);
 
                             if (getOfferToBank(targetResources, leftovers) != null)
                             {
@@ -2039,14 +2044,14 @@ public class SOCRobotNegotiator
                                 }
                             }
 
-                            leftovers.add(1, neededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.add(leftovers, 1, neededRsrc[giveRsrcIdx1]);
                         }
 
                         giveRsrcIdx1++;
                     }
                 }
 
-                leftovers.subtract(1, notNeededRsrc[getRsrcIdx2]);
+                leftovers = PackedResourceSet.subtract(leftovers, 1, notNeededRsrc[getRsrcIdx2]);
                 getRsrcIdx2--;
             }
         }
@@ -2057,10 +2062,10 @@ public class SOCRobotNegotiator
         ///
         if (counterOffer == null)
         {
-            SOCResourceSet leftovers = ourResources.copy();
-            leftovers.subtract(targetResources);
+            long leftovers = PackedResourceSet.subtract
+                (PackedResourceSet.packClamped(ourResources), PackedResourceSet.packClamped(targetResources));
 
-            D.ebugPrintlnINFO("*** leftovers = " + leftovers);
+            D.ebugPrintlnINFO("*** leftovers = " + PackedResourceSet.toString(leftovers));
 
             int getRsrcIdx2 = notNeededRsrcCount - 1;
 
@@ -2073,7 +2078,7 @@ public class SOCRobotNegotiator
             {
                 getResourceSet.clear();
                 getResourceSet.add(2, notNeededRsrc[getRsrcIdx2]);
-                leftovers.add(2, notNeededRsrc[getRsrcIdx2]);
+                leftovers = PackedResourceSet.add(leftovers, 2, notNeededRsrc[getRsrcIdx2]);
 
                 ///
                 /// give one unneeded
@@ -2084,9 +2089,9 @@ public class SOCRobotNegotiator
 
                     while ((giveRsrcIdx1 < notNeededRsrcCount) && (counterOffer == null))
                     {
-                        if (leftovers.contains(notNeededRsrc[giveRsrcIdx1]) && (notNeededRsrc[giveRsrcIdx1] != notNeededRsrc[getRsrcIdx2]))
+                        if (PackedResourceSet.contains(leftovers, notNeededRsrc[giveRsrcIdx1]) && (notNeededRsrc[giveRsrcIdx1] != notNeededRsrc[getRsrcIdx2]))
                         {
-                            leftovers.subtract(1, notNeededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.subtract(leftovers, 1, notNeededRsrc[giveRsrcIdx1]);
 
                             if (getOfferToBank(targetResources, leftovers) != null)
                             {
@@ -2106,7 +2111,7 @@ public class SOCRobotNegotiator
                                 }
                             }
 
-                            leftovers.add(1, notNeededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.add(leftovers, 1, notNeededRsrc[giveRsrcIdx1]);
                         }
 
                         giveRsrcIdx1++;
@@ -2122,9 +2127,9 @@ public class SOCRobotNegotiator
 
                     while ((giveRsrcIdx1 < neededRsrcCount) && (counterOffer == null))
                     {
-                        if (leftovers.contains(neededRsrc[giveRsrcIdx1]))
+                        if (PackedResourceSet.contains(leftovers, neededRsrc[giveRsrcIdx1]))
                         {
-                            leftovers.subtract(1, neededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.subtract(leftovers, 1, neededRsrc[giveRsrcIdx1]);
 
                             if (getOfferToBank(targetResources, leftovers) != null)
                             {
@@ -2143,14 +2148,14 @@ public class SOCRobotNegotiator
                                 }
                             }
 
-                            leftovers.add(1, neededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.add(leftovers, 1, neededRsrc[giveRsrcIdx1]);
                         }
 
                         giveRsrcIdx1++;
                     }
                 }
 
-                leftovers.subtract(2, notNeededRsrc[getRsrcIdx2]);
+                leftovers = PackedResourceSet.subtract(leftovers, 2, notNeededRsrc[getRsrcIdx2]);
                 getRsrcIdx2--;
             }
         }
@@ -2161,10 +2166,10 @@ public class SOCRobotNegotiator
         ///
         if (counterOffer == null)
         {
-            SOCResourceSet leftovers = ourResources.copy();
-            leftovers.subtract(targetResources);
+            long leftovers = PackedResourceSet.subtract
+                (PackedResourceSet.packClamped(ourResources), PackedResourceSet.packClamped(targetResources));
 
-            D.ebugPrintlnINFO("*** leftovers = " + leftovers);
+            D.ebugPrintlnINFO("*** leftovers = " + PackedResourceSet.toString(leftovers));
 
             int getRsrcIdx2 = notNeededRsrcCount - 1;
 
@@ -2177,7 +2182,7 @@ public class SOCRobotNegotiator
             {
                 getResourceSet.clear();
                 getResourceSet.add(3, notNeededRsrc[getRsrcIdx2]);
-                leftovers.add(3, notNeededRsrc[getRsrcIdx2]);
+                leftovers = PackedResourceSet.add(leftovers, 3, notNeededRsrc[getRsrcIdx2]);
 
                 ///
                 /// give one unneeded
@@ -2188,9 +2193,9 @@ public class SOCRobotNegotiator
 
                     while ((giveRsrcIdx1 < notNeededRsrcCount) && (counterOffer == null))
                     {
-                        if (leftovers.contains(notNeededRsrc[giveRsrcIdx1]) && (notNeededRsrc[giveRsrcIdx1] != notNeededRsrc[getRsrcIdx2]))
+                        if (PackedResourceSet.contains(leftovers, notNeededRsrc[giveRsrcIdx1]) && (notNeededRsrc[giveRsrcIdx1] != notNeededRsrc[getRsrcIdx2]))
                         {
-                            leftovers.subtract(1, notNeededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.subtract(leftovers, 1, notNeededRsrc[giveRsrcIdx1]);
 
                             if (getOfferToBank(targetResources, leftovers) != null)
                             {
@@ -2210,7 +2215,7 @@ public class SOCRobotNegotiator
                                 }
                             }
 
-                            leftovers.add(1, notNeededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.add(leftovers, 1, notNeededRsrc[giveRsrcIdx1]);
                         }
 
                         giveRsrcIdx1++;
@@ -2226,9 +2231,9 @@ public class SOCRobotNegotiator
 
                     while ((giveRsrcIdx1 < neededRsrcCount) && (counterOffer == null))
                     {
-                        if (leftovers.contains(neededRsrc[giveRsrcIdx1]))
+                        if (PackedResourceSet.contains(leftovers, neededRsrc[giveRsrcIdx1]))
                         {
-                            leftovers.subtract(1, neededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.subtract(leftovers, 1, neededRsrc[giveRsrcIdx1]);
 
                             if (getOfferToBank(targetResources, leftovers) != null)
                             {
@@ -2247,14 +2252,14 @@ public class SOCRobotNegotiator
                                 }
                             }
 
-                            leftovers.add(1, neededRsrc[giveRsrcIdx1]);
+                            leftovers = PackedResourceSet.add(leftovers, 1, neededRsrc[giveRsrcIdx1]);
                         }
 
                         giveRsrcIdx1++;
                     }
                 }
 
-                leftovers.subtract(3, notNeededRsrc[getRsrcIdx2]);
+                leftovers = PackedResourceSet.subtract(leftovers, 3, notNeededRsrc[getRsrcIdx2]);
                 getRsrcIdx2--;
             }
         }
@@ -2266,9 +2271,7 @@ public class SOCRobotNegotiator
      * Decide what bank/port trade to request, if any,
      * based on which resources we want and {@code ourResources}.
      *<P>
-     * Other forms of {@code getOfferToBank(..)} call this one;
-     * this is the one to override if a third-party bot wants to
-     * customize {@code getOfferToBank} behavior.
+     * Calls {@link #getOfferToBank(SOCResourceSet, long)}.
      *
      * @return the offer that we'll make to the bank/ports,
      *     or {@code null} if {@code ourResources} already contains all needed {@code targetResources}
@@ -2278,10 +2281,32 @@ public class SOCRobotNegotiator
      * @see #getOfferToBank(SOCBuildPlan, SOCResourceSet)
      */
     public SOCTradeOffer getOfferToBank(SOCResourceSet targetResources, SOCResourceSet ourResources)
+    {
+        return getOfferToBank(targetResources, PackedResourceSet.packClamped(ourResources));
+    }
+
+    /**
+     * Decide what bank/port trade to request, if any,
+     * based on which resources we want and {@code ourResources}.
+     *<P>
+     * Other forms of {@code getOfferToBank(..)} call this one;
+     * this is the one to override if a third-party bot wants to
+     * customize {@code getOfferToBank} behavior.
+     * {@link #makeOffer(SOCBuildPlan)} and {@link #makeCounterOffer(SOCTradeOffer)} also call it
+     * to check whether resources left over after a proposed trade could then be traded to the bank.
+     *
+     * @param targetResources  what resources we want; can be null or empty
+     * @param ourResources  the resources we have, packed by {@link PackedResourceSet#packClamped(soc.game.ResourceSet)}
+     * @return the offer that we'll make to the bank/ports,
+     *     or {@code null} if {@code ourResources} already contains all needed {@code targetResources}
+     *     or {@code targetResources} is null or empty
+     * @since 2.7.00
+     */
+    public SOCTradeOffer getOfferToBank(SOCResourceSet targetResources, final long ourResources)
     {
         SOCTradeOffer bankTrade = null;
 
-        if (ourResources.contains(targetResources))
+        if (PackedResourceSet.contains(ourResources, PackedResourceSet.packClamped(targetResources)))
         {
             return bankTrade;
         }
@@ -2375,7 +2400,7 @@ public class SOCRobotNegotiator
         ///
         int getRsrcIdx = neededRsrcCount - 1;
 
-        while (ourResources.getAmount(neededRsrc[getRsrcIdx]) >= targetResources.getAmount(neededRsrc[getRsrcIdx]))
+        while (PackedResourceSet.getAmount(ourResources, neededRsrc[getRsrcIdx]) >= targetResources.getAmount(neededRsrc[getRsrcIdx]))
         {
             getRsrcIdx--;
         }
@@ -2402,7 +2427,7 @@ public class SOCRobotNegotiator
                 tradeRatio = 4;
             }
 
-            if (ourResources.getAmount(notNeededRsrc[giveRsrcIdx]) >= tradeRatio)
+            if (PackedResourceSet.getAmount(ourResources, notNeededRsrc[giveRsrcIdx]) >= tradeRatio)
             {
                 ///
                 /// make the trade
@@ -2462,7 +2487,7 @@ public class SOCRobotNegotiator
                 ///
                 /// Don't want to trade unless we have extra of this resource
                 ///
-                if ((ourResources.getAmount(neededRsrc[giveRsrcIdx]) - targetResources.getAmount(neededRsrc[giveRsrcIdx])) >= tradeRatio)
+                if ((PackedResourceSet.getAmount(ourResources, neededRsrc[giveRsrcIdx]) - targetResources.getAmount(neededRsrc[giveRsrcIdx])) >= tradeRatio)
                 {
                     ///
                     /// make the trade
@@ -2494,7 +2519,7 @@ public class SOCRobotNegotiator
                 /// We can trade this even though we need it because
                 /// we're betting that we'll get it by our next turn
                 ///
-                if (ourResources.getAmount(neededRsrc[giveRsrcIdx]) >= tradeRatio)
+                if (PackedResourceSet.getAmount(ourResources, neededRsrc[giveRsrcIdx]) >= tradeRatio)
                 {
                     ///
                     /// make the trade
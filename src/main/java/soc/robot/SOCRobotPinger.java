@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas <thomas@infolab.northwestern.edu>
- * Portions of this file Copyright (C) 2011,2017,2020 Jeremy D Monin <jeremy@nand.net>
+ * Portions of this file Copyright (C) 2011,2017,2020,2026 Jeremy D Monin <jeremy@nand.net>
  * Portions of this file Copyright (C) 2012 Paul Bilnoski <paul@bilnoski.net>
  *
  * This program is free software; you can redistribute it and/or
@@ -26,84 +26,98 @@ import soc.message.SOCTimingPing;
 
 import soc.util.CappedQueue;
 import soc.util.CutoffExceededException;
+import soc.util.TimingWheel;
 
 
 /**
  * Pings a {@link SOCRobotBrain} to give a sense of time while its game is in progress.
  * Once per second, adds a {@link SOCTimingPing} into the brain's {@link CappedQueue}.
+ *<P>
+ * Before v2.7.00 each pinger was its own thread. Now all pingers are tasks
+ * on the {@link TimingWheel#getShared()} timer thread, so a robot client
+ * in many games doesn't need a mostly-idle thread for each one.
  *
  * @author Robert S Thomas
  */
-/*package*/ class SOCRobotPinger extends Thread
+/*package*/ class SOCRobotPinger
+    implements Runnable
 {
     private CappedQueue<SOCMessage> messageQueue;
     private final SOCTimingPing ping;
-    private volatile boolean alive;
 
     /**
-     * Name of the bot being pinged, for thread naming.
+     * Our scheduled task on the timing wheel, or {@code null} if not started.
+     * @since 2.7.00
+     */
+    private TimingWheel.Timeout timeout;
+
+    /**
+     * Name of the bot being pinged, for debugging.
      * @since 1.1.00
      */
     private final String robotNickname;
 
     /**
-     * Create a robot pinger
+     * Create a robot pinger. Call {@link #start()} to begin pinging.
      *
      * @param q  the robot brain's message queue
-     * @param nickname the robot's nickname, for debug thread naming
+     * @param nickname the robot's nickname, for debugging
      */
     public SOCRobotPinger(CappedQueue<SOCMessage> q, String gameName, String nickname)
     {
-        setDaemon(true);
-
         messageQueue = q;
         ping = new SOCTimingPing(gameName);
-        alive = true;
         robotNickname = nickname;
     }
 
     /**
-     * Once per second queue a {@link SOCTimingPing}, until {@link #stopPinger()} is called.
+     * Start pinging once per second, until {@link #stopPinger()} is called.
+     * Before v2.7.00 this started the pinger's thread.
+     */
+    public synchronized void start()
+    {
+        if (timeout == null)
+            timeout = TimingWheel.getShared().schedule(this, 1000, 1000);
+    }
+
+    /**
+     * Timing wheel task: Queue a {@link SOCTimingPing}.
+     * If the brain's queue is full, stops pinging.
      */
-    @Override
     public void run()
     {
-        // Thread name for debug
+        final CappedQueue<SOCMessage> q = messageQueue;
+        if (q == null)
+            return;
+
         try
         {
-            Thread.currentThread().setName("robotPinger-" + robotNickname);
+            q.put(ping);
         }
-        catch (Throwable th) {}
-
-        while (alive)
+        catch (CutoffExceededException exc)
         {
-            try
-            {
-                messageQueue.put(ping);
-            }
-            catch (CutoffExceededException exc)
-            {
-                alive = false;
-            }
-
-            Thread.yield();
-
-            try
-            {
-                sleep(1000);
-            }
-            catch (InterruptedException exc) {}
+            stopPinger();
         }
+    }
 
+    /**
+     * Stop pinging by cancelling our timing wheel task.
+     */
+    public synchronized void stopPinger()
+    {
+        if (timeout != null)
+            timeout.cancel();
         messageQueue = null;
     }
 
     /**
-     * Stop the pinger thread's {@link #run()} loop by clearing its "alive" flag.
+     * For debugging, this pinger's bot nickname and game.
+     * @since 2.7.00
      */
-    public void stopPinger()
+    @Override
+    public String toString()
     {
-        alive = false;
+        return "SOCRobotPinger[" + robotNickname + "]";
     }
 
 }
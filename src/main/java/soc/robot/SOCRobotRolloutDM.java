@@ -0,0 +1,424 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.robot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import soc.disableDebug.D;
+import soc.game.SOCGameOptionSet;
+import soc.game.SOCPlayingPiece;
+
+/**
+ * Decision maker for {@link SOCRobotDM#ROLLOUT_STRATEGY}: Plans with the {@link SOCRobotDM#SMART_STRATEGY}
+ * heuristics, then re-ranks the top candidates (favorite city, settlement, road or ship, and dev card)
+ * by simulating many fast playouts from each, and builds whichever reaches a win in the fewest turns on average.
+ *<P>
+ * Each playout runs on its own {@link SOCRolloutState} forked from a snapshot of our player,
+ * never on the brain's live {@link soc.game.SOCGame}. Playouts for all candidates are spread across
+ * a pool of worker threads shared by every rollout bot in this JVM, sized to the number of cores,
+ * and stop when {@link #timeBudgetMS} has elapsed even if not all {@link #playoutsPerCandidate} are done:
+ * The bot waits no longer than that, and cancels any playouts still running then.
+ * Each worker publishes its totals after every playout, so those cancelled playouts don't lose earlier ones' results.
+ *<P>
+ * The heuristic plan is kept if the playouts can't run (too few candidates, too few playouts finished
+ * within the time budget) or if no other candidate is better by at least {@link #MIN_IMPROVEMENT_TURNS}.
+ * Scenario-specific plans for {@link SOCGameOptionSet#K_SC_PIRI _SC_PIRI} and
+ * {@link SOCGameOptionSet#K_SC_WOND _SC_WOND} are also kept as-is.
+ *<P>
+ * Time budget and playout count can be changed with JVM properties
+ * {@link #PROP_JSETTLERS_BOTS_ROLLOUT_MS} and {@link #PROP_JSETTLERS_BOTS_ROLLOUT_PLAYOUTS}.
+ *
+ * @since 2.7.00
+ */
+public class SOCRobotRolloutDM extends SOCRobotDM
+{
+    /**
+     * Integer property {@code jsettlers.bots.rollout.ms} to set the time budget in milliseconds
+     * for each {@link #planStuff(int)} call's playouts. Default {@link #DEFAULT_TIME_BUDGET_MS}.
+     */
+    public static final String PROP_JSETTLERS_BOTS_ROLLOUT_MS = "jsettlers.bots.rollout.ms";
+
+    /**
+     * Integer property {@code jsettlers.bots.rollout.playouts} to set the number of playouts
+     * per candidate. Default {@link #DEFAULT_PLAYOUTS_PER_CANDIDATE}.
+     */
+    public static final String PROP_JSETTLERS_BOTS_ROLLOUT_PLAYOUTS = "jsettlers.bots.rollout.playouts";
+
+    /** Default time budget for each plan's playouts, in milliseconds: 250 */
+    public static final int DEFAULT_TIME_BUDGET_MS = 250;
+
+    /** Default number of playouts per candidate: 400 */
+    public static final int DEFAULT_PLAYOUTS_PER_CANDIDATE = 400;
+
+    /**
+     * A candidate must finish at least this many playouts to be compared;
+     * otherwise the heuristic plan is kept.
+     */
+    public static final int MIN_PLAYOUTS_PER_CANDIDATE = 30;
+
+    /**
+     * Another candidate must average this many fewer turns to win than
+     * the heuristic plan's piece before it replaces that piece.
+     */
+    public static final float MIN_IMPROVEMENT_TURNS = 0.5f;
+
+    /**
+     * Worker threads shared by all rollout DMs in this JVM; created when first needed.
+     * @see #getRolloutPool()
+     */
+    private static ExecutorService rolloutPool;
+
+    /** Number of threads in {@link #rolloutPool}: 1 per available core */
+    private static final int POOL_SIZE = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /** Time budget for each plan's playouts, in milliseconds. */
+    protected int timeBudgetMS;
+
+    /** Number of playouts to try for each candidate. */
+    protected int playoutsPerCandidate;
+
+    /** For seeding each worker task's Random. */
+    private final Random seeder = new Random();
+
+    /**
+     * Constructor for setting DM fields from a robot brain.
+     * Reads {@link #PROP_JSETTLERS_BOTS_ROLLOUT_MS} and {@link #PROP_JSETTLERS_BOTS_ROLLOUT_PLAYOUTS} if set.
+     *
+     * @param br  the robot brain
+     */
+    public SOCRobotRolloutDM(SOCRobotBrain br)
+    {
+        super(br);
+
+        timeBudgetMS = intProperty(PROP_JSETTLERS_BOTS_ROLLOUT_MS, DEFAULT_TIME_BUDGET_MS);
+        playoutsPerCandidate = intProperty(PROP_JSETTLERS_BOTS_ROLLOUT_PLAYOUTS, DEFAULT_PLAYOUTS_PER_CANDIDATE);
+    }
+
+    /**
+     * Plan with the smart strategy heuristics, then if exactly one piece was pushed onto
+     * {@link #buildingPlan}, re-rank it against the other top candidates using playouts.
+     * See class javadoc for details.
+     */
+    @Override
+    protected void smartGameStrategy(final int[] buildingETAs)
+    {
+        final int depthBefore = buildingPlan.getPlanDepth();
+
+        super.smartGameStrategy(buildingETAs);
+
+        if ((buildingPlan.getPlanDepth() != depthBefore + 1)
+            || game.isGameOptionSet(SOCGameOptionSet.K_SC_PIRI)
+            || game.isGameOptionSet(SOCGameOptionSet.K_SC_WOND))
+            return;
+
+        final SOCPossiblePiece picked = buildingPlan.peek();
+        final List<SOCPossiblePiece> candidates = gatherCandidates(picked);
+        if (candidates.size() < 2)
+            return;
+
+        final SOCPossiblePiece best = pickBestByRollout(candidates);
+        if ((best != null) && (best != picked))
+        {
+            D.ebugPrintlnINFO("$ ROLLOUT REPLACING " + picked + " WITH " + best);
+            buildingPlan.pop();
+            buildingPlan.push(best);
+        }
+    }
+
+    /**
+     * Gather the candidate pieces to compare: The heuristic pick, then the favorite
+     * city, settlement, road or ship, and dev card which we have pieces for.
+     * @param picked  Piece pushed by the heuristic strategy; will be first in the list
+     * @return  Candidates, without duplicates
+     */
+    protected List<SOCPossiblePiece> gatherCandidates(final SOCPossiblePiece picked)
+    {
+        final List<SOCPossiblePiece> cands = new ArrayList<SOCPossiblePiece>(5);
+        cands.add(picked);
+
+        if ((favoriteCity != null) && (ourPlayerData.getNumPieces(SOCPlayingPiece.CITY) > 0))
+            addCandidate(cands, favoriteCity);
+        if ((favoriteSettlement != null) && (ourPlayerData.getNumPieces(SOCPlayingPiece.SETTLEMENT) > 0))
+            addCandidate(cands, favoriteSettlement);
+        if ((favoriteRoad != null) && (ourPlayerData.getNumPieces(favoriteRoad.getType()) > 0))
+            addCandidate(cands, favoriteRoad);
+        if ((possibleCard != null) && (game.getNumDevCards() > 0)
+            && ! (game.isSpecialBuilding() || (game.getCurrentPlayerNumber() != ourPlayerNumber)))
+            addCandidate(cands, possibleCard);
+
+        return cands;
+    }
+
+    private static void addCandidate(final List<SOCPossiblePiece> cands, final SOCPossiblePiece pp)
+    {
+        if (! cands.contains(pp))
+            cands.add(pp);
+    }
+
+    /**
+     * Run playouts for each candidate across the shared worker pool, within {@link #timeBudgetMS}.
+     * Calls {@link #pickBestByRollout(SOCRolloutState, List, int, int, int, Random)}.
+     * @param candidates  Candidates to compare; the first one is the heuristic pick
+     * @return  The candidate with the lowest average turns to win, or the heuristic pick
+     *     if no other is better by {@link #MIN_IMPROVEMENT_TURNS}, or {@code null}
+     *     if not enough playouts finished to compare
+     */
+    protected SOCPossiblePiece pickBestByRollout(final List<SOCPossiblePiece> candidates)
+    {
+        return pickBestByRollout
+            (new SOCRolloutState(ourPlayerData, ourPlayerTracker), candidates,
+             timeBudgetMS, playoutsPerCandidate, maxGameLength, seeder);
+    }
+
+    /**
+     * Run playouts from a snapshot for each candidate across the shared worker pool, within a time budget.
+     * Each playout uses its own copy of {@code root}, which isn't changed.
+     * If all playouts finish within the time budget, the result depends only on {@code seeder}'s seed
+     * and the number of available processors.
+     *
+     * @param root  Snapshot of our player's current position
+     * @param candidates  Candidates to compare; the first one is the heuristic pick
+     * @param timeBudgetMS  Time budget for all playouts, in milliseconds
+     * @param playoutsPerCandidate  Number of playouts to try for each candidate
+     * @param maxTurns  Turn limit for each playout
+     * @param seeder  Source of seeds for each worker task's Random; used only by the calling thread
+     * @return  The candidate with the lowest average turns to win, or the heuristic pick
+     *     if no other is better by {@link #MIN_IMPROVEMENT_TURNS}, or {@code null}
+     *     if not enough playouts finished to compare
+     */
+    public static SOCPossiblePiece pickBestByRollout
+        (final SOCRolloutState root, final List<SOCPossiblePiece> candidates,
+         final int timeBudgetMS, final int playoutsPerCandidate, final int maxTurns, final Random seeder)
+    {
+        final int nCand = candidates.size();
+        final int[] goalType = new int[nCand], goalSite = new int[nCand];
+        for (int i = 0; i < nCand; ++i)
+            setGoal(root, candidates.get(i), goalType, goalSite, i);
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMS);
+        final int chunks = Math.max(1, Math.min(POOL_SIZE, playoutsPerCandidate));
+        final int perChunk = (playoutsPerCandidate + chunks - 1) / chunks;
+
+        final ExecutorService pool = getRolloutPool();
+        final int nChunks = nCand * chunks;
+        final AtomicReferenceArray<long[]> results = new AtomicReferenceArray<long[]>(nChunks);
+        final List<Future<?>> futures = new ArrayList<Future<?>>(nChunks);
+        for (int i = 0; i < nCand; ++i)
+        {
+            final int gt = goalType[i], gs = goalSite[i];
+            for (int c = 0; c < chunks; ++c)
+            {
+                final int f = futures.size();
+                final long seed = seeder.nextLong();
+                futures.add(pool.submit(new Runnable()
+                {
+                    public void run()
+                    {
+                        final Random rnd = new Random(seed);
+                        long sum = 0;
+                        int n = 0;
+                        while ((n < perChunk) && (System.nanoTime() < deadline))
+                        {
+                            sum += new SOCRolloutState(root).playout(gt, gs, maxTurns, rnd);
+                            ++n;
+                            results.set(f, new long[]{ sum, n });  // publish in case cancelled at deadline
+                        }
+                    }
+                }));
+            }
+        }
+
+        if (! awaitUntilDeadline(futures, deadline))
+            return null;  // <--- Early return: Interrupted ---
+
+        final long[] turnSums = new long[nCand];
+        final int[] counts = new int[nCand];
+        for (int f = 0; f < nChunks; ++f)
+        {
+            final long[] result = results.get(f);
+            if (result != null)
+            {
+                turnSums[f / chunks] += result[0];
+                counts[f / chunks] += (int) result[1];
+            }
+        }
+
+        int best = -1;
+        float bestAvg = Float.MAX_VALUE, pickedAvg = 0f;
+        for (int i = 0; i < nCand; ++i)
+        {
+            if (counts[i] < MIN_PLAYOUTS_PER_CANDIDATE)
+                return null;  // <--- Early return: Not enough time to compare ---
+
+            final float avg = turnSums[i] / (float) counts[i];
+            D.ebugPrintlnINFO("$ ROLLOUT " + candidates.get(i) + ": avg " + df1.format(avg)
+                + " turns over " + counts[i] + " playouts");
+            if (i == 0)
+                pickedAvg = avg;
+            if (avg < bestAvg)
+            {
+                best = i;
+                bestAvg = avg;
+            }
+        }
+
+        if ((best <= 0) || (pickedAvg - bestAvg < MIN_IMPROVEMENT_TURNS))
+            return candidates.get(0);
+
+        return candidates.get(best);
+    }
+
+    /**
+     * Wait for these tasks to finish, but not past an overall deadline: Each wait is only
+     * as long as the time left until {@code deadline}. Any tasks not done by then are cancelled.
+     * @param futures  Tasks to wait for
+     * @param deadline  Deadline, in the same format as {@link System#nanoTime()}
+     * @return  True if done waiting, false if this thread was interrupted
+     *     (all tasks are cancelled, and thread's interrupt flag is set again)
+     */
+    public static boolean awaitUntilDeadline(final List<? extends Future<?>> futures, final long deadline)
+    {
+        for (final Future<?> fut : futures)
+        {
+            try
+            {
+                final long waitNanos = deadline - System.nanoTime();
+                if (waitNanos > 0)
+                    fut.get(waitNanos, TimeUnit.NANOSECONDS);
+                else if (! fut.isDone())
+                    fut.cancel(true);
+            } catch (TimeoutException e) {
+                fut.cancel(true);
+            } catch (ExecutionException e) {
+                D.ebugPrintlnINFO("rollout playout failed: " + e.getCause());
+            } catch (CancellationException e) {
+                // cancelled by caller or another thread; nothing to wait for
+            } catch (InterruptedException e) {
+                for (Future<?> other : futures)
+                    other.cancel(true);
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Set a candidate's playout goal type and site.
+     * Roads and ships use the first settlement site from {@link SOCPossibleRoad#getNewPossibilities()}
+     * if any, otherwise let the playout policy choose.
+     */
+    private static void setGoal
+        (final SOCRolloutState root, final SOCPossiblePiece pp, final int[] goalType, final int[] goalSite, final int i)
+    {
+        int gt = 0, gs = -1;
+
+        switch (pp.getType())
+        {
+        case SOCPossiblePiece.CITY:
+            gt = SOCRolloutState.GOAL_CITY;
+            gs = root.findCitySite(pp.getCoordinates());
+            break;
+
+        case SOCPossiblePiece.SETTLEMENT:
+            gt = SOCRolloutState.GOAL_SETTLEMENT;
+            gs = root.findSite(pp.getCoordinates());
+            break;
+
+        case SOCPossiblePiece.ROAD:
+        case SOCPossiblePiece.SHIP:
+            gt = SOCRolloutState.GOAL_ROAD;
+            for (SOCPossiblePiece np : ((SOCPossibleRoad) pp).getNewPossibilities())
+            {
+                if (np.getType() == SOCPossiblePiece.SETTLEMENT)
+                {
+                    gs = root.findSite(np.getCoordinates());
+                    if (gs != -1)
+                        break;
+                }
+            }
+            break;
+
+        case SOCPossiblePiece.CARD:
+            gt = SOCRolloutState.GOAL_CARD;
+            break;
+
+        // default: 0, use playout policy
+        }
+
+        goalType[i] = gt;
+        goalSite[i] = gs;
+    }
+
+    /**
+     * Get the worker pool shared by all rollout DMs, creating it if needed.
+     * Its threads are daemons, so they won't keep the JVM running.
+     */
+    private static synchronized ExecutorService getRolloutPool()
+    {
+        if (rolloutPool == null)
+            rolloutPool = Executors.newFixedThreadPool(POOL_SIZE, new ThreadFactory()
+            {
+                private int n = 0;
+
+                public synchronized Thread newThread(Runnable r)
+                {
+                    final Thread th = new Thread(r, "robotRollout-" + (++n));
+                    th.setDaemon(true);
+                    th.setPriority(Thread.MIN_PRIORITY);
+
+                    return th;
+                }
+            });
+
+        return rolloutPool;
+    }
+
+    /**
+     * Read an optional positive integer JVM property.
+     * @return  the property's value, or {@code dflt} if not set or not a positive integer
+     */
+    private static int intProperty(final String propName, final int dflt)
+    {
+        final String val = System.getProperty(propName);
+        if (val != null)
+            try
+            {
+                final int iv = Integer.parseInt(val.trim());
+                if (iv > 0)
+                    return iv;
+            } catch (NumberFormatException e) {}
+
+        return dflt;
+    }
+
+}
@@ -0,0 +1,710 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.robot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import soc.game.SOCBoard;
+import soc.game.SOCBoardLarge;
+import soc.game.SOCCity;
+import soc.game.SOCDevCard;
+import soc.game.SOCGame;
+import soc.game.SOCPlayer;
+import soc.game.SOCPlayingPiece;
+import soc.game.SOCResourceConstants;
+import soc.game.SOCResourceSet;
+import soc.game.SOCRoad;
+import soc.game.SOCSettlement;
+
+/**
+ * Compact, forkable snapshot of one player's economy for {@link SOCRobotRolloutDM} playouts.
+ * Built once per {@link SOCRobotDM#planStuff(int)} call from the bot's {@link SOCGame} and
+ * {@link SOCPlayerTracker}, then {@link #SOCRolloutState(SOCRolloutState) copied} for each playout
+ * so that many worker threads can play out the same position without touching the live game.
+ *<P>
+ * A playout is a fast single-player race to {@link SOCGame#vp_winner}: Roll the dice, gain resources from
+ * the dice numbers of our settlements and cities, discard on 7 if holding too many, bank or port trade surplus
+ * resources, and build using a light greedy policy. Opponents aren't simulated, except that a settlement site
+ * becomes unavailable when we build at a conflicting site. Longest Route isn't tracked; roads are built only
+ * to reach new settlement sites. Largest Army is approximated from the knight counts when the snapshot was taken.
+ *<P>
+ * All arrays are indexed by resource type minus 1 ({@link SOCResourceConstants#CLAY} is index 0).
+ * Dice-number gains use an extra index {@link #GOLD_IDX} for {@link SOCBoardLarge#GOLD_HEX} production,
+ * which becomes a free choice of resource when rolled.
+ *<P>
+ * Not thread-safe; each worker thread must use its own copy.
+ *
+ * @since 2.7.00
+ */
+public class SOCRolloutState
+{
+    /** Index within a gains array for gold-hex production; the 5 regular resources are indexes 0-4. */
+    static final int GOLD_IDX = 5;
+
+    /** Length of a per-dice gains row: 5 resources + gold */
+    private static final int GAIN_LEN = 6;
+
+    /** Flat size of a per-site production table: dice numbers 0-12, {@link #GAIN_LEN} each. */
+    private static final int PROD_LEN = 13 * GAIN_LEN;
+
+    /** Piece-type cost arrays, indexed by resource type - 1. */
+    static final int[] COST_ROAD = toCostArray(SOCRoad.COST),
+        COST_SETTLEMENT = toCostArray(SOCSettlement.COST),
+        COST_CITY = toCostArray(SOCCity.COST),
+        COST_CARD = toCostArray(SOCDevCard.COST);
+
+    /** Playout goal type: Build a road towards a settlement site */
+    public static final int GOAL_ROAD = SOCPossiblePiece.ROAD;
+
+    /** Playout goal type: Build a settlement at a site */
+    public static final int GOAL_SETTLEMENT = SOCPossiblePiece.SETTLEMENT;
+
+    /** Playout goal type: Upgrade a settlement to a city */
+    public static final int GOAL_CITY = SOCPossiblePiece.CITY;
+
+    /** Playout goal type: Buy a development card */
+    public static final int GOAL_CARD = SOCPossiblePiece.CARD;
+
+    /** Resources in hand, indexed by resource type - 1. */
+    private final int[] res;
+
+    /** Our total production from all settlements and cities, flat [dice * {@link #GAIN_LEN} + resIdx] */
+    private final int[] prod;
+
+    /** Port trade rate per resource: 2, 3, or 4 */
+    private final int[] tradeRate;
+
+    /**
+     * Settlement sites: Node coordinates, production tables, number of roads still needed to reach each,
+     * indexes of conflicting sites, and whether taken (built or blocked by a conflicting site).
+     * Site arrays are shared with the source when copying, except the mutable ones.
+     */
+    private final int[] siteNode;
+    private final int[][] siteProd;
+    private final int[][] siteConflicts;
+    private final int[] siteRoadsNeeded;
+    private final boolean[] siteTaken;
+
+    /**
+     * Production of each of our settlements which could become a city;
+     * new settlements are appended during a playout.
+     * @see #cityNodes
+     */
+    private final ArrayList<int[]> citySites;
+
+    /** Node coordinate of each settlement in {@link #citySites}, at the same index */
+    private final ArrayList<Integer> cityNodes;
+
+    private int vp;
+    private final int vpToWin;
+    private int settlementsLeft, citiesLeft, roadsLeft, devCardsLeft;
+
+    /** Knights we've played, and number needed to take Largest Army, or 0 if we already have it */
+    private int knights, knightsForLA;
+
+    /** Number of turns played so far in this playout */
+    private int turns;
+
+    /**
+     * Build a snapshot from our current player data and the possible settlements in our tracker.
+     *
+     * @param pl  Our player, from the robot brain's game
+     * @param tracker  Our player's tracker, for {@link SOCPlayerTracker#getPossibleSettlements()}; not null
+     */
+    public SOCRolloutState(final SOCPlayer pl, final SOCPlayerTracker tracker)
+    {
+        this(pl, tracker.getPossibleSettlements().values());
+    }
+
+    /**
+     * Build a snapshot from our current player data and a set of possible settlements.
+     *
+     * @param pl  Our player
+     * @param possibleSettlements  Settlement sites we could build at, with their necessary roads and conflicts;
+     *     not null, may be empty
+     */
+    public SOCRolloutState(final SOCPlayer pl, final Collection<SOCPossibleSettlement> possibleSettlements)
+    {
+        final SOCGame ga = pl.getGame();
+        final SOCBoard board = ga.getBoard();
+
+        res = new int[5];
+        final SOCResourceSet rs = pl.getResources();
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+            res[rtype - 1] = rs.getAmount(rtype);
+
+        tradeRate = new int[5];
+        final boolean[] ports = pl.getPortFlags();
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+            tradeRate[rtype - 1] = (ports[rtype]) ? 2 : ((ports[SOCBoard.MISC_PORT]) ? 3 : 4);
+
+        prod = new int[PROD_LEN];
+        citySites = new ArrayList<int[]>();
+        cityNodes = new ArrayList<Integer>();
+        for (SOCPlayingPiece pp : pl.getSettlements())
+        {
+            final int[] sp = nodeProduction(board, pp.getCoordinates());
+            addInto(prod, sp);
+            citySites.add(sp);
+            cityNodes.add(Integer.valueOf(pp.getCoordinates()));
+        }
+        for (SOCPlayingPiece pp : pl.getCities())
+        {
+            final int[] sp = nodeProduction(board, pp.getCoordinates());
+            addInto(prod, sp);
+            addInto(prod, sp);
+        }
+
+        final List<SOCPossibleSettlement> posSets = new ArrayList<SOCPossibleSettlement>(possibleSettlements);
+        final int n = posSets.size();
+        siteNode = new int[n];
+        siteProd = new int[n][];
+        siteConflicts = new int[n][];
+        siteRoadsNeeded = new int[n];
+        siteTaken = new boolean[n];
+        final Map<Integer, Integer> nodeToIdx = new HashMap<Integer, Integer>();
+        for (int i = 0; i < n; ++i)
+        {
+            final SOCPossibleSettlement ps = posSets.get(i);
+            siteNode[i] = ps.getCoordinates();
+            siteProd[i] = nodeProduction(board, siteNode[i]);
+            int nr = ps.getNumberOfNecessaryRoads();
+            if (nr < 0)
+                nr = ps.getNecessaryRoads().size();  // not yet calculated by tracker
+            siteRoadsNeeded[i] = nr;
+            nodeToIdx.put(Integer.valueOf(siteNode[i]), Integer.valueOf(i));
+        }
+        for (int i = 0; i < n; ++i)
+        {
+            final List<SOCPossibleSettlement> conf = posSets.get(i).getConflicts();
+            final int[] ci = new int[conf.size()];
+            int k = 0;
+            for (SOCPossibleSettlement ps : conf)
+            {
+                Integer idx = nodeToIdx.get(Integer.valueOf(ps.getCoordinates()));
+                if (idx != null)
+                    ci[k++] = idx.intValue();
+            }
+            siteConflicts[i] = (k == ci.length) ? ci : Arrays.copyOf(ci, k);
+        }
+
+        vp = pl.getTotalVP();
+        vpToWin = ga.vp_winner;
+        settlementsLeft = pl.getNumPieces(SOCPlayingPiece.SETTLEMENT);
+        citiesLeft = pl.getNumPieces(SOCPlayingPiece.CITY);
+        roadsLeft = pl.getNumPieces(SOCPlayingPiece.ROAD);
+        devCardsLeft = ga.getNumDevCards();
+
+        knights = pl.getNumKnights();
+        final SOCPlayer laPlayer = ga.getPlayerWithLargestArmy();
+        if (laPlayer == pl)
+            knightsForLA = 0;
+        else
+            knightsForLA = (laPlayer != null) ? Math.max(3, laPlayer.getNumKnights() + 1) : 3;
+    }
+
+    /**
+     * Fork constructor: Copy another state's mutable fields, share its immutable site tables.
+     * @param src  State to copy; not changed
+     */
+    public SOCRolloutState(final SOCRolloutState src)
+    {
+        res = src.res.clone();
+        prod = src.prod.clone();
+        tradeRate = src.tradeRate;
+        siteNode = src.siteNode;
+        siteProd = src.siteProd;
+        siteConflicts = src.siteConflicts;
+        siteRoadsNeeded = src.siteRoadsNeeded.clone();
+        siteTaken = src.siteTaken.clone();
+        citySites = new ArrayList<int[]>(src.citySites);
+        cityNodes = new ArrayList<Integer>(src.cityNodes);
+        vp = src.vp;
+        vpToWin = src.vpToWin;
+        settlementsLeft = src.settlementsLeft;
+        citiesLeft = src.citiesLeft;
+        roadsLeft = src.roadsLeft;
+        devCardsLeft = src.devCardsLeft;
+        knights = src.knights;
+        knightsForLA = src.knightsForLA;
+        turns = src.turns;
+    }
+
+    /**
+     * Find a settlement site's index in this state.
+     * @param node  Node coordinate of a {@link SOCPossibleSettlement}
+     * @return  Site index, or -1 if not found
+     */
+    public int findSite(final int node)
+    {
+        for (int i = 0; i < siteNode.length; ++i)
+            if (siteNode[i] == node)
+                return i;
+
+        return -1;
+    }
+
+    /**
+     * Find one of our settlements' index in this state, to use as a city goal site.
+     * @param node  Node coordinate of a {@link SOCPossibleCity}
+     * @return  Index, or -1 if not found
+     */
+    public int findCitySite(final int node)
+    {
+        return cityNodes.indexOf(Integer.valueOf(node));
+    }
+
+    /**
+     * Get our victory points so far in this playout, for testing and debugging.
+     * @return  Current VP total
+     */
+    public int getVP()
+    {
+        return vp;
+    }
+
+    /**
+     * Get the number of turns played so far in this playout, for testing and debugging.
+     * @return  Number of turns played
+     */
+    public int getTurns()
+    {
+        return turns;
+    }
+
+    /**
+     * Get the amount of a resource type in hand, for testing and debugging.
+     * @param rtype  Resource type, {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD}
+     * @return  Amount of {@code rtype} in hand
+     */
+    public int getResourceAmount(final int rtype)
+    {
+        return res[rtype - 1];
+    }
+
+    /**
+     * Get the bank or port trade rate for a resource type, for testing and debugging.
+     * @param rtype  Resource type, {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD}
+     * @return  Number of {@code rtype} to give for 1 resource: 2, 3, or 4
+     */
+    public int getTradeRate(final int rtype)
+    {
+        return tradeRate[rtype - 1];
+    }
+
+    /**
+     * Has this settlement site been built on, or blocked by building at a conflicting site?
+     * For testing and debugging.
+     * @param site  Site index from {@link #findSite(int)}
+     * @return  True if taken
+     */
+    public boolean isSiteTaken(final int site)
+    {
+        return siteTaken[site];
+    }
+
+    /**
+     * Play this state out until we reach {@link SOCGame#vp_winner} or {@code maxTurns}.
+     * The first thing built will be {@code goalType} (at {@code goalSite} if a settlement or road),
+     * unless that goal becomes impossible; afterwards the greedy default policy is used.
+     *
+     * @param goalType  First goal: {@link #GOAL_CITY}, {@link #GOAL_SETTLEMENT}, {@link #GOAL_ROAD},
+     *     {@link #GOAL_CARD}, or 0 to use the default policy from the start
+     * @param goalSite  Site index for {@link #GOAL_SETTLEMENT} or {@link #GOAL_ROAD} from {@link #findSite(int)},
+     *     or for {@link #GOAL_CITY} from {@link #findCitySite(int)}, or -1 to let the policy choose
+     * @param maxTurns  Turn limit for this playout
+     * @param rnd  Random number source, used only by the calling thread
+     * @return  Number of turns taken to win, or {@code maxTurns} if didn't win by then
+     */
+    public int playout(int goalType, int goalSite, final int maxTurns, final Random rnd)
+    {
+        while ((vp < vpToWin) && (turns < maxTurns))
+        {
+            ++turns;
+            rollAndGain(rnd);
+
+            // Build as much as we can this turn
+            for (int builds = 0; (vp < vpToWin) && (builds < 6); ++builds)
+            {
+                int type = goalType, site = goalSite;
+                if ((type != 0) && ! isGoalPossible(type, site))
+                    goalType = type = 0;
+                if (type == 0)
+                {
+                    type = chooseDefaultGoal();
+                    site = -1;
+                    if (type == 0)
+                        break;
+                }
+                if (site == -1)
+                    site = chooseSite(type);
+
+                // A settlement site not yet reached needs roads first
+                final int buildType =
+                    ((type == GOAL_SETTLEMENT) && (siteRoadsNeeded[site] > 0)) ? GOAL_ROAD : type;
+                if (! tradeFor(costOf(buildType)))
+                    break;  // <--- can't afford yet: end turn ---
+
+                build(buildType, site, rnd);
+                if (buildType == type)
+                {
+                    goalType = 0;
+                    goalSite = -1;
+                } else {
+                    goalSite = site;
+                }
+            }
+        }
+
+        return turns;
+    }
+
+    /** Roll 2 dice and gain resources, or discard on 7 if holding too many. */
+    private void rollAndGain(final Random rnd)
+    {
+        final int dice = rnd.nextInt(6) + rnd.nextInt(6) + 2;
+        if (dice == 7)
+        {
+            int total = totalResources();
+            if (total > 7)
+                for (int discard = total / 2; discard > 0; --discard)
+                    removeRandomResource(rnd, total--);
+
+            return;
+        }
+
+        final int base = dice * GAIN_LEN;
+        for (int i = 0; i < 5; ++i)
+            res[i] += prod[base + i];
+        for (int g = prod[base + GOLD_IDX]; g > 0; --g)
+            ++res[rnd.nextInt(5)];
+    }
+
+    private int totalResources()
+    {
+        int total = 0;
+        for (int i = 0; i < 5; ++i)
+            total += res[i];
+
+        return total;
+    }
+
+    /** Remove 1 resource chosen uniformly from our hand. @param total  Current hand total, &gt; 0 */
+    private void removeRandomResource(final Random rnd, final int total)
+    {
+        int pick = rnd.nextInt(total);
+        for (int i = 0; i < 5; ++i)
+        {
+            if (pick < res[i])
+            {
+                --res[i];
+                return;
+            }
+            pick -= res[i];
+        }
+    }
+
+    private boolean isGoalPossible(final int type, final int site)
+    {
+        switch (type)
+        {
+        case GOAL_CITY:
+            return (citiesLeft > 0) && ((site == -1) ? ! citySites.isEmpty() : (site < citySites.size()));
+
+        case GOAL_SETTLEMENT:
+            if (settlementsLeft == 0)
+                return false;
+            return (site == -1) ? (chooseSite(GOAL_SETTLEMENT) != -1)
+                : (! siteTaken[site]) && (siteRoadsNeeded[site] == 0 || roadsLeft >= siteRoadsNeeded[site]);
+
+        case GOAL_ROAD:
+            return (roadsLeft > 0) && ((site == -1) ? (chooseSite(GOAL_ROAD) != -1) : ! siteTaken[site]);
+
+        case GOAL_CARD:
+            return (devCardsLeft > 0);
+        }
+
+        return false;
+    }
+
+    /**
+     * Greedy default policy: Among the possible goal types, pick the one we're closest to affording,
+     * preferring city, then settlement, then road, then dev card.
+     * @return a goal type, or 0 if nothing can be built
+     */
+    private int chooseDefaultGoal()
+    {
+        int best = 0, bestMissing = Integer.MAX_VALUE;
+        final int[] types = { GOAL_CITY, GOAL_SETTLEMENT, GOAL_ROAD, GOAL_CARD };
+        for (final int type : types)
+        {
+            if (! isGoalPossible(type, -1))
+                continue;
+            if ((type == GOAL_SETTLEMENT) && (siteRoadsNeeded[chooseSite(GOAL_SETTLEMENT)] > 0))
+                continue;  // will get there by building roads first
+            if ((type == GOAL_ROAD) && (settlementsLeft == 0))
+                continue;
+
+            final int missing = countMissing(costOf(type));
+            if (missing < bestMissing)
+            {
+                best = type;
+                bestMissing = missing;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Choose the best untaken site for a settlement or road goal.
+     * For settlements, prefers sites needing no roads; for roads, sites needing the fewest roads.
+     * Ties are broken by total production.
+     * @return site index, or -1 if none; always -1 for other goal types
+     */
+    private int chooseSite(final int type)
+    {
+        if ((type != GOAL_SETTLEMENT) && (type != GOAL_ROAD))
+            return -1;
+
+        int best = -1, bestRoads = Integer.MAX_VALUE, bestProd = -1;
+        for (int i = 0; i < siteNode.length; ++i)
+        {
+            if (siteTaken[i])
+                continue;
+            final int roads = siteRoadsNeeded[i];
+            if ((type == GOAL_ROAD) && (roads == 0))
+                continue;
+            if (roads > roadsLeft)
+                continue;
+
+            final int p = productionTotal(siteProd[i]);
+            if ((roads < bestRoads) || ((roads == bestRoads) && (p > bestProd)))
+            {
+                best = i;
+                bestRoads = roads;
+                bestProd = p;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Count the resources we still lack for {@code cost}, including those we could get by trading.
+     * @return Number of resource cards missing, 0 if affordable now or by trading
+     */
+    private int countMissing(final int[] cost)
+    {
+        int missing = 0, tradable = 0;
+        for (int i = 0; i < 5; ++i)
+        {
+            final int diff = res[i] - cost[i];
+            if (diff < 0)
+                missing -= diff;
+            else
+                tradable += diff / tradeRate[i];
+        }
+
+        return Math.max(0, missing - tradable);
+    }
+
+    /**
+     * If possible, trade surplus resources at the bank or ports so that we can afford {@code cost}.
+     * @return true if now affordable; false (and no trades made) if not
+     */
+    private boolean tradeFor(final int[] cost)
+    {
+        if (countMissing(cost) > 0)
+            return false;
+
+        for (int need = 0; need < 5; ++need)
+        {
+            while (res[need] < cost[need])
+            {
+                // give from the resource with the best rate and enough surplus
+                int give = -1;
+                for (int i = 0; i < 5; ++i)
+                    if ((i != need) && (res[i] - cost[i] >= tradeRate[i])
+                        && ((give == -1) || (tradeRate[i] < tradeRate[give])))
+                        give = i;
+
+                res[give] -= tradeRate[give];
+                ++res[need];
+            }
+        }
+
+        return true;
+    }
+
+    private static int[] costOf(final int type)
+    {
+        switch (type)
+        {
+        case GOAL_CITY:       return COST_CITY;
+        case GOAL_SETTLEMENT: return COST_SETTLEMENT;
+        case GOAL_ROAD:       return COST_ROAD;
+        default:              return COST_CARD;
+        }
+    }
+
+    /** Pay for and build {@code type}; caller has checked {@link #tradeFor(int[])}. */
+    private void build(final int type, final int site, final Random rnd)
+    {
+        final int[] cost = costOf(type);
+        for (int i = 0; i < 5; ++i)
+            res[i] -= cost[i];
+
+        switch (type)
+        {
+        case GOAL_CITY:
+            {
+                // upgrade the goal settlement, or our most productive one
+                int best = site, bestProd = -1;
+                if (best == -1)
+                    for (int i = 0; i < citySites.size(); ++i)
+                    {
+                        final int p = productionTotal(citySites.get(i));
+                        if (p > bestProd)
+                        {
+                            best = i;
+                            bestProd = p;
+                        }
+                    }
+                addInto(prod, citySites.remove(best));
+                cityNodes.remove(best);
+                --citiesLeft;
+                ++settlementsLeft;
+                ++vp;
+            }
+            break;
+
+        case GOAL_SETTLEMENT:
+            siteTaken[site] = true;
+            for (final int c : siteConflicts[site])
+                siteTaken[c] = true;
+            addInto(prod, siteProd[site]);
+            citySites.add(siteProd[site]);
+            cityNodes.add(Integer.valueOf(siteNode[site]));
+            --settlementsLeft;
+            ++vp;
+            break;
+
+        case GOAL_ROAD:
+            buildRoadTowards(site);
+            break;
+
+        default:  // GOAL_CARD
+            --devCardsLeft;
+            {
+                // Standard deck: 5 VP, 14 knights, 6 progress cards out of 25
+                final int pick = rnd.nextInt(25);
+                if (pick < 5)
+                {
+                    ++vp;
+                }
+                else if (pick < 19)
+                {
+                    ++knights;
+                    if ((knightsForLA > 0) && (knights >= knightsForLA))
+                    {
+                        vp += 2;
+                        knightsForLA = 0;
+                    }
+                }
+                else
+                {
+                    // approximate any progress card as 2 free resources
+                    ++res[rnd.nextInt(5)];
+                    ++res[rnd.nextInt(5)];
+                }
+            }
+        }
+    }
+
+    private void buildRoadTowards(final int site)
+    {
+        --roadsLeft;
+        if (siteRoadsNeeded[site] > 0)
+            --siteRoadsNeeded[site];
+    }
+
+    /** Total of a production table's entries, weighted by dice-number probability out of 36. */
+    private static int productionTotal(final int[] p)
+    {
+        int total = 0;
+        for (int dice = 2; dice <= 12; ++dice)
+        {
+            if (dice == 7)
+                continue;
+            final int ways = 6 - Math.abs(7 - dice);
+            final int base = dice * GAIN_LEN;
+            for (int i = 0; i < GAIN_LEN; ++i)
+                total += ways * p[base + i];
+        }
+
+        return total;
+    }
+
+    private static void addInto(final int[] dest, final int[] src)
+    {
+        for (int i = 0; i < PROD_LEN; ++i)
+            dest[i] += src[i];
+    }
+
+    /**
+     * Calculate a node's production table from its adjacent hexes' dice numbers and types.
+     * @return  Table indexed by [dice * {@link #GAIN_LEN} + resource type - 1], or {@link #GOLD_IDX} for gold
+     */
+    private static int[] nodeProduction(final SOCBoard board, final int node)
+    {
+        final int[] p = new int[PROD_LEN];
+        for (final int hex : board.getAdjacentHexesToNode(node))
+        {
+            final int dice = board.getNumberOnHexFromCoord(hex);
+            if ((dice < 2) || (dice > 12))
+                continue;
+
+            final int htype = board.getHexTypeFromCoord(hex);
+            if ((htype >= SOCResourceConstants.CLAY) && (htype <= SOCResourceConstants.WOOD))
+                ++p[dice * GAIN_LEN + htype - 1];
+            else if (htype == SOCBoardLarge.GOLD_HEX)
+                ++p[dice * GAIN_LEN + GOLD_IDX];
+        }
+
+        return p;
+    }
+
+    private static int[] toCostArray(final SOCResourceSet rs)
+    {
+        final int[] c = new int[5];
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+            c[rtype - 1] = rs.getAmount(rtype);
+
+        return c;
+    }
+
+}
@@ -0,0 +1,335 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import soc.game.SOCBoard;
+import soc.game.SOCGame;
+import soc.game.SOCGameOption;
+import soc.game.SOCGameOptionSet;
+import soc.util.FlightRecorderEvents;
+import soc.util.MetricsRegistry;
+
+/**
+ * Pool of pre-generated board layouts, so starting a game doesn't wait for
+ * {@link SOCBoard#makeNewBoard(SOCGameOptionSet)}: That can be slow for large sea boards and scenarios,
+ * especially with the "BC" break-up-clumps option and its retries.
+ *<P>
+ * Boards are pooled by a key made from the game options which affect board layout
+ * (see {@link #makeKey(SOCGameOptionSet, int, boolean)}), so games with different but equivalent
+ * options share a pool. When a game starts, {@link #take(SOCGame)} hands it a ready board if any,
+ * and queues background work to refill that key's pool up to {@link #getBoardsPerKey()} boards.
+ * The first game with a new option set makes its own board as usual; later games with those options
+ * usually find one waiting. Keys not used recently are dropped when there are more than {@link #MAX_KEYS}.
+ *<P>
+ * Boards are made on a single low-priority daemon thread. Layout code is safe to run there
+ * alongside game threads, because it shuffles copies of its static layout arrays.
+ * Not used while a {@link SOCBoardAtServer.NewBoardProgressListener} is set for layout testing.
+ *
+ * @see SOCServer#PROP_JSETTLERS_GAME_BOARDPOOL_SIZE
+ * @since 2.7.00
+ */
+public class BoardPool
+    implements MetricsRegistry.Source
+{
+    /** Default number of boards to keep ready per option set: 2 */
+    public static final int DEFAULT_BOARDS_PER_KEY = 2;
+
+    /** Maximum number of option sets to keep boards for: 16. Least recently used is dropped when more. */
+    public static final int MAX_KEYS = 16;
+
+    /**
+     * Game option keys which affect board layout or size, for {@link #makeKey(SOCGameOptionSet, int, boolean)}.
+     * If {@link SOCBoardAtServer#makeNewBoard(SOCGameOptionSet)} or board constructors start
+     * looking at another option, add it here.
+     */
+    private static final String[] BOARD_OPTION_KEYS = { "BC", "PL", "SC", SOCGameOptionSet.K_SC_FOG, "_BHW" };
+
+    private final int boardsPerKey;
+
+    /** Pools by key, in access order for LRU eviction. Synchronize on this map for all access. */
+    private final LinkedHashMap<String, KeyPool> pools = new LinkedHashMap<String, KeyPool>(MAX_KEYS, 0.75f, true)
+    {
+        private static final long serialVersionUID = 2700L;
+
+        protected boolean removeEldestEntry(Map.Entry<String, KeyPool> eldest)
+        {
+            return size() > MAX_KEYS;
+        }
+    };
+
+    /** Background thread to make boards; unbounded queue, since at most {@link #boardsPerKey} per key are pending */
+    private final ThreadPoolExecutor maker;
+
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), made = new AtomicLong(),
+        failed = new AtomicLong();
+
+    /**
+     * Create a pool and its background thread.
+     * @param boardsPerKey  Number of boards to keep ready per option set; at least 1
+     * @throws IllegalArgumentException if {@code boardsPerKey} &lt; 1
+     */
+    public BoardPool(final int boardsPerKey)
+        throws IllegalArgumentException
+    {
+        if (boardsPerKey < 1)
+            throw new IllegalArgumentException("boardsPerKey");
+
+        this.boardsPerKey = boardsPerKey;
+        maker = new ThreadPoolExecutor
+            (1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+            {
+                public Thread newThread(Runnable r)
+                {
+                    final Thread th = new Thread(r, "boardPool");
+                    th.setDaemon(true);
+                    th.setPriority(Thread.NORM_PRIORITY - 1);
+                    return th;
+                }
+            });
+        maker.allowCoreThreadTimeOut(true);
+    }
+
+    /** @return  number of boards kept ready per option set, from constructor */
+    public int getBoardsPerKey()
+    {
+        return boardsPerKey;
+    }
+
+    /**
+     * Make a pool key from the game options and fields which affect board layout.
+     * Options which are present but not set (boolean false, empty string) are treated as absent,
+     * and options which don't affect the board (VP, N7, etc) are ignored.
+     * {@code "PL"} is included only for the sea board, whose scenario layouts vary for 2 or 3 players;
+     * {@code "PLB"} and {@code "SBL"} are covered by {@code maxPlayers} and {@code hasSeaBoard}.
+     *
+     * @param opts  Game options, or {@code null}
+     * @param maxPlayers  Game's {@link SOCGame#maxPlayers}
+     * @param hasSeaBoard  Game's {@link SOCGame#hasSeaBoard}
+     * @return  Key string, like {@code "sea4,BC=4,PL=3,SC=_SC_4ISL"} or {@code "classic6"}
+     */
+    public static String makeKey(final SOCGameOptionSet opts, final int maxPlayers, final boolean hasSeaBoard)
+    {
+        final StringBuilder sb = new StringBuilder((hasSeaBoard) ? "sea" : "classic").append(maxPlayers);
+        if (opts == null)
+            return sb.toString();
+
+        for (final String okey : BOARD_OPTION_KEYS)
+        {
+            final SOCGameOption opt = opts.get(okey);
+            if (opt == null)
+                continue;
+
+            switch (opt.optType)
+            {
+            case SOCGameOption.OTYPE_BOOL:
+                if (opt.getBoolValue())
+                    sb.append(',').append(okey);
+                break;
+
+            case SOCGameOption.OTYPE_INTBOOL:
+            case SOCGameOption.OTYPE_ENUMBOOL:
+                if (opt.getBoolValue())
+                    sb.append(',').append(okey).append('=').append(opt.getIntValue());
+                break;
+
+            case SOCGameOption.OTYPE_INT:
+            case SOCGameOption.OTYPE_ENUM:
+                if (hasSeaBoard || ! okey.equals("PL"))
+                    sb.append(',').append(okey).append('=').append(opt.getIntValue());
+                break;
+
+            default:
+                {
+                    final String sv = opt.getStringValue();
+                    if ((sv != null) && (sv.length() > 0))
+                        sb.append(',').append(okey).append('=').append(sv);
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Take a ready board for this game, if any, and queue a refill of its option set's pool.
+     * Caller should give the board to {@link SOCGame#setPregeneratedBoard(SOCBoard)} before starting the game.
+     * @param ga  Game about to start; not null
+     * @return  A board already laid out for {@code ga}'s options, or {@code null} if none is ready yet
+     *     or a layout-testing {@link SOCBoardAtServer.NewBoardProgressListener} is set
+     */
+    public SOCBoard take(final SOCGame ga)
+    {
+        if (SOCBoardAtServer.hasNewBoardProgressListener())
+            return null;
+
+        final SOCGameOptionSet opts = ga.getGameOptions();
+        final String key = makeKey(opts, ga.maxPlayers, ga.hasSeaBoard);
+        final SOCBoard b;
+        final KeyPool kp;
+        int nFill;
+        synchronized (pools)
+        {
+            KeyPool p = pools.get(key);
+            if (p == null)
+            {
+                p = new KeyPool((opts != null) ? new SOCGameOptionSet(opts, true) : null, ga.maxPlayers, ga.hasSeaBoard);
+                pools.put(key, p);
+            }
+            kp = p;
+
+            b = kp.boards.poll();
+            nFill = boardsPerKey - kp.boards.size() - kp.pending;
+            if (nFill > 0)
+                kp.pending += nFill;
+        }
+
+        if (b != null)
+            hits.incrementAndGet();
+        else
+            misses.incrementAndGet();
+
+        for (; nFill > 0; --nFill)
+        {
+            try
+            {
+                maker.execute(new Runnable()
+                {
+                    public void run() { fill(kp); }
+                });
+            } catch (RejectedExecutionException e) {
+                synchronized (pools)
+                {
+                    kp.pending -= nFill;
+                }
+                break;
+            }
+        }
+
+        return b;
+    }
+
+    /**
+     * On {@link #maker}'s thread, make and lay out a board for this pool.
+     * If the pool was dropped meanwhile, the board is discarded.
+     */
+    private void fill(final KeyPool kp)
+    {
+        SOCBoard b = null;
+        try
+        {
+            final Object jfr = FlightRecorderEvents.beginMakeBoard();
+            b = SOCGame.boardFactory.createBoard(kp.opts, kp.hasSeaBoard, kp.maxPlayers);
+            b.makeNewBoard(kp.opts);
+            if (jfr != null)
+                FlightRecorderEvents.endMakeBoard(jfr, "(boardPool)", b.getClass().getSimpleName());
+            made.incrementAndGet();
+        } catch (RuntimeException e) {
+            b = null;
+            failed.incrementAndGet();
+            System.err.println("BoardPool: Can't make board: " + e);
+        }
+
+        synchronized (pools)
+        {
+            --kp.pending;
+            if ((b != null) && pools.containsValue(kp))
+                kp.boards.add(b);
+        }
+    }
+
+    /**
+     * Get the number of boards ready now in all pools.
+     * @return  Total ready boards
+     */
+    public int getReadyCount()
+    {
+        int n = 0;
+        synchronized (pools)
+        {
+            for (Iterator<KeyPool> it = pools.values().iterator(); it.hasNext(); )
+                n += it.next().boards.size();
+        }
+
+        return n;
+    }
+
+    /**
+     * Stats for {@code *STATS*} command: Like
+     * {@code "ready 7 boards for 4 option sets, hits 120, misses 6, made 128, failed 0"}.
+     * @return  Formatted stats
+     */
+    public String getStatsFormatted()
+    {
+        final int nKeys;
+        synchronized (pools)
+        {
+            nKeys = pools.size();
+        }
+
+        return "ready " + getReadyCount() + " boards for " + nKeys + " option sets, hits " + hits.get()
+            + ", misses " + misses.get() + ", made " + made.get() + ", failed " + failed.get();
+    }
+
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        s.gauge("jsettlers_boardpool_ready", "Pre-generated boards ready for new games", getReadyCount());
+        s.counter("jsettlers_boardpool_hits_total", "Game starts which used a pre-generated board", hits.get());
+        s.counter("jsettlers_boardpool_misses_total", "Game starts which made their own board", misses.get());
+        s.counter("jsettlers_boardpool_made_total", "Boards made in the background", made.get());
+    }
+
+    /**
+     * One option set's pool: Its options and ready boards.
+     * Fields other than the finals are accessed only while synchronized on {@link BoardPool#pools}.
+     */
+    private static final class KeyPool
+    {
+        /** Copy of first game's options, for making boards; only read, by {@link BoardPool#maker}'s thread */
+        final SOCGameOptionSet opts;
+
+        final int maxPlayers;
+
+        final boolean hasSeaBoard;
+
+        final ArrayDeque<SOCBoard> boards = new ArrayDeque<>();
+
+        /** Number of boards queued to be made */
+        int pending;
+
+        KeyPool(final SOCGameOptionSet opts, final int maxPlayers, final boolean hasSeaBoard)
+        {
+            this.opts = opts;
+            this.maxPlayers = maxPlayers;
+            this.hasSeaBoard = hasSeaBoard;
+        }
+    }
+
+}
@@ -0,0 +1,522 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import soc.game.SOCGame;
+import soc.message.SOCMessage;
+import soc.server.genericServer.Connection;
+import soc.server.genericServer.InboundMessageQueue;
+import soc.server.savegame.GameLoaderJSON;
+import soc.server.savegame.GameSaverJSON;
+import soc.server.savegame.SavedGameModel;
+import soc.util.MetricsRegistry;
+
+/**
+ * Holds idle games in a compact saved form instead of as live {@link SOCGame} objects,
+ * so server memory scales with active games rather than open games.
+ *<P>
+ * A hibernated game is captured with the same {@link SavedGameModel} logic as {@code *SAVEGAME*},
+ * as gzipped compact JSON kept in memory or written to a directory. Its name, options, members and chat buffer
+ * stay in {@link SOCGameListAtServer}; only its {@link SOCGame} (board, players, and the robots' brains) is released.
+ * The server wakes it with {@link #wake(String, SOCServer)} when a member next acts, and re-seats robots
+ * the same way as resuming a game loaded by {@code *LOADGAME*}.
+ *<P>
+ * A few fields of {@link SOCGame} which aren't part of {@link SavedGameModel}, like the owner and
+ * expiration time, are kept in each game's {@link Entry}.
+ *<P>
+ * While a woken game waits for its robots to rejoin, members' game actions are held by
+ * {@link #holdIfWaking(SOCGame, SOCMessage, Connection)} and queued again once play resumes.
+ * If no robots are available, or they haven't all sat within {@link #WAKE_ROBOTS_TIMEOUT_SECONDS},
+ * the server resumes play with those seats vacant and releases the held messages.
+ *<P>
+ * <B>Threads:</B> Games are hibernated and woken on the server's message-treater thread.
+ * Stats and {@link #isHibernated(String)} can be called from any thread.
+ *
+ * @see SOCServer#PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES
+ * @since 2.7.00
+ */
+public class GameHibernator
+    implements MetricsRegistry.Source
+{
+    /** Filename suffix for hibernated games written to {@link #dir}: {@code ".hib.json.gz"} */
+    public static final String FILENAME_EXTENSION = ".hib.json.gz";
+
+    /**
+     * How long a woken game waits for its robots to rejoin, in seconds, before resuming play
+     * with their seats vacant: {@value}.
+     */
+    public static final int WAKE_ROBOTS_TIMEOUT_SECONDS = 30;
+
+    /** Hibernate games idle at least this many minutes, from constructor */
+    private final int idleMinutes;
+
+    /** Directory to write hibernated games into, or {@code null} to keep them in memory */
+    private final File dir;
+
+    /** Hibernated games, by game name */
+    private final Map<String, Entry> games = new ConcurrentHashMap<>();
+
+    /**
+     * Woken games waiting for robots to rejoin before play resumes, by game name,
+     * with members' messages held until then. Accessed only from the treater thread.
+     */
+    private final Map<String, List<HeldMessage>> waking = new ConcurrentHashMap<>();
+
+    /** Stats: Games hibernated, woken, and failures to hibernate or wake */
+    private final AtomicLong hibernated = new AtomicLong(), woken = new AtomicLong(), failures = new AtomicLong();
+
+    /** Stats: Total size of currently hibernated games' saved data */
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * Create a hibernator.
+     * @param idleMinutes  Hibernate games which have been idle at least this many minutes; at least 1
+     * @param dir  Existing directory to write hibernated games into, or {@code null} to keep them in memory
+     * @throws IllegalArgumentException if {@code idleMinutes} &lt; 1, or {@code dir} isn't an existing directory
+     */
+    public GameHibernator(final int idleMinutes, final File dir)
+        throws IllegalArgumentException
+    {
+        if (idleMinutes < 1)
+            throw new IllegalArgumentException("idleMinutes");
+        if ((dir != null) && ! dir.isDirectory())
+            throw new IllegalArgumentException("Not found as directory: " + dir.getPath());
+
+        this.idleMinutes = idleMinutes;
+        this.dir = dir;
+    }
+
+    /** @return  minimum idle time in minutes before hibernating a game */
+    public int getIdleMinutes()
+    {
+        return idleMinutes;
+    }
+
+    /**
+     * Is this game in a state which can be hibernated? Checks only the game object, not server state
+     * like pending robot join requests. Game must be a started non-practice game with human players,
+     * waiting for a player to roll or act ({@link SOCGame#ROLL_OR_CARD} or {@link SOCGame#PLAY1}),
+     * not being reset or loaded, and savable by {@link SavedGameModel#checkCanSave(SOCGame)}.
+     * @param ga  Game to check; not null
+     * @return  true if {@code ga} can be hibernated
+     */
+    public static boolean canHibernate(final SOCGame ga)
+    {
+        final int gs = ga.getGameState();
+        if (((gs != SOCGame.ROLL_OR_CARD) && (gs != SOCGame.PLAY1))
+            || ga.isPractice || ga.isBotsOnly || (ga.boardResetOngoingInfo != null) || (ga.savedGameModel != null))
+            return false;
+
+        try
+        {
+            SavedGameModel.checkCanSave(ga);
+        } catch (SavedGameModel.UnsupportedSGMOperationException e) {
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Save a game's state and remember it as hibernated.
+     * Caller should then release the live game from the game list.
+     * @param ga  Game to hibernate; should pass {@link #canHibernate(SOCGame)}
+     * @param srv  Server, for player info lookups; not null
+     * @return  the game's hibernation entry
+     * @throws IOException  if a problem occurs while saving
+     * @throws RuntimeException  if {@link GameSaverJSON#saveGame(SOCGame, Writer, soc.server.SOCServer)} rejects the game
+     */
+    public Entry store(final SOCGame ga, final SOCServer srv)
+        throws IOException
+    {
+        final Entry e = new Entry(ga);
+        try
+        {
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream(8192);
+            try (Writer w = new OutputStreamWriter(new GZIPOutputStream(bos), "UTF-8"))
+            {
+                GameSaverJSON.saveGame(ga, w, srv);
+            }
+            final byte[] data = bos.toByteArray();
+            e.size = data.length;
+            if (dir != null)
+            {
+                e.file = new File(dir, fileNameFor(ga.getName()));
+                Files.write(e.file.toPath(), data);
+            } else {
+                e.data = data;
+            }
+        } catch (IOException | RuntimeException ex) {
+            failures.incrementAndGet();
+            throw ex;
+        }
+
+        if (null != games.put(ga.getName(), e))
+            throw new IllegalStateException("already hibernated: " + ga.getName());
+        hibernated.incrementAndGet();
+        bytes.addAndGet(e.size);
+
+        return e;
+    }
+
+    /**
+     * Wake a hibernated game: Load its saved state and restore the fields kept in its {@link Entry}.
+     * If successful, removes it from the hibernated set. If not, it's still hibernated
+     * and the caller should destroy it, which will call {@link #remove(String)}.
+     *<P>
+     * The loaded game's state is {@link SOCGame#LOADING}; caller should add it to the game list
+     * and then resume it with {@link SOCServer#resumeReloadedGame(Connection, SOCGame)}.
+     * @param gaName  Game name
+     * @param srv  Server, to check for robot name collisions; not null
+     * @return  the loaded game, or {@code null} if {@code gaName} isn't hibernated
+     * @throws IOException  if a problem occurs while loading
+     * @throws RuntimeException  if {@link GameLoaderJSON#loadGame(java.io.Reader, SOCServer)} can't create the game
+     */
+    public SOCGame wake(final String gaName, final SOCServer srv)
+        throws IOException
+    {
+        final Entry e = games.get(gaName);
+        if (e == null)
+            return null;
+
+        final SOCGame ga;
+        try
+        {
+            final InputStream in = (e.file != null)
+                ? Files.newInputStream(e.file.toPath())
+                : new ByteArrayInputStream(e.data);
+            try (InputStreamReader r = new InputStreamReader(new GZIPInputStream(in), "UTF-8"))
+            {
+                ga = GameLoaderJSON.loadGame(r, srv).getGame();
+            }
+            e.restoreInto(ga);
+        } catch (IOException | RuntimeException ex) {
+            failures.incrementAndGet();
+            throw ex;
+        }
+
+        games.remove(gaName);
+        bytes.addAndGet(-e.size);
+        if (e.file != null)
+            e.file.delete();
+        woken.incrementAndGet();
+
+        return ga;
+    }
+
+    /**
+     * Forget a hibernated game, for example when it's destroyed, and delete its file if any.
+     * @param gaName  Game name
+     * @return  the game's entry, or {@code null} if not hibernated
+     */
+    public Entry remove(final String gaName)
+    {
+        final Entry e = games.remove(gaName);
+        if (e != null)
+        {
+            bytes.addAndGet(-e.size);
+            if (e.file != null)
+                e.file.delete();
+        }
+        waking.remove(gaName);
+
+        return e;
+    }
+
+    /**
+     * Is this game hibernated?
+     * @param gaName  Game name
+     * @return  true if {@code gaName} is hibernated
+     */
+    public boolean isHibernated(final String gaName)
+    {
+        return games.containsKey(gaName);
+    }
+
+    /**
+     * Get a hibernated game's entry.
+     * @param gaName  Game name
+     * @return  the game's entry, or {@code null} if not hibernated
+     */
+    public Entry getEntry(final String gaName)
+    {
+        return games.get(gaName);
+    }
+
+    /** @return  a copy of the names of all hibernated games */
+    public List<String> getGameNames()
+    {
+        return new ArrayList<>(games.keySet());
+    }
+
+    /**
+     * A woken game is waiting for robots to rejoin: Hold its members' game actions
+     * until {@link #releaseHeld(String, InboundMessageQueue)}.
+     * @param gaName  Game name
+     */
+    public void startHolding(final String gaName)
+    {
+        waking.put(gaName, new ArrayList<HeldMessage>());
+    }
+
+    /**
+     * Is this woken game still waiting for robots to rejoin, holding its members' game actions?
+     * @param gaName  Game name
+     * @return  true if {@link #startHolding(String)} was called and {@link #releaseHeld(String, InboundMessageQueue)}
+     *     hasn't yet been called for the game
+     */
+    public boolean isWaking(final String gaName)
+    {
+        return waking.containsKey(gaName);
+    }
+
+    /**
+     * If this game was woken and is waiting for robots to rejoin, hold a message from a human member
+     * until play resumes. Chat, leaving the game, and sitting down aren't held.
+     * @param ga  Game the message is for
+     * @param mes  Message from client
+     * @param c  Client's connection
+     * @return  true if message was held, and shouldn't be dispatched now
+     */
+    public boolean holdIfWaking(final SOCGame ga, final SOCMessage mes, final Connection c)
+    {
+        if (ga.getGameState() != SOCGame.LOADING_RESUMING)
+            return false;
+
+        final List<HeldMessage> held = waking.get(ga.getName());
+        if (held == null)
+            return false;
+
+        switch (mes.getType())
+        {
+        case SOCMessage.GAMETEXTMSG:
+            // fall through
+        case SOCMessage.LEAVEGAME:
+            // fall through
+        case SOCMessage.SITDOWN:
+            return false;
+        }
+        if (((SOCClientData) c.getAppData()).isRobot)
+            return false;
+
+        held.add(new HeldMessage(mes, c));
+        return true;
+    }
+
+    /**
+     * A woken game's play has resumed, or couldn't be resumed: Stop holding its members' messages,
+     * and queue the held ones to be dispatched again in their original order.
+     * @param gaName  Game name
+     * @param queue  Server's inbound message queue
+     */
+    public void releaseHeld(final String gaName, final InboundMessageQueue queue)
+    {
+        final List<HeldMessage> held = waking.remove(gaName);
+        if (held == null)
+            return;
+
+        for (final HeldMessage hm : held)
+            queue.push(hm.mes, hm.c);
+    }
+
+    /** @return  number of games hibernated since startup */
+    public long getHibernatedCount()
+    {
+        return hibernated.get();
+    }
+
+    /** @return  number of games woken since startup */
+    public long getWokenCount()
+    {
+        return woken.get();
+    }
+
+    /** @return  number of games currently hibernated */
+    public int getCurrentCount()
+    {
+        return games.size();
+    }
+
+    /** @return  total size in bytes of currently hibernated games' saved data */
+    public long getCurrentBytes()
+    {
+        return bytes.get();
+    }
+
+    /**
+     * Stats for {@code *STATS*} command:
+     * {@code "idle 60 minutes; now 2 games (5432 bytes); hibernated 7, woken 5, failures 0"}
+     * @return stats summary string
+     */
+    public String getStatsFormatted()
+    {
+        return "idle " + idleMinutes + " minutes; now " + games.size() + " games (" + bytes.get()
+            + " bytes" + ((dir != null) ? " on disk" : "") + "); hibernated " + hibernated.get()
+            + ", woken " + woken.get() + ", failures " + failures.get();
+    }
+
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        s.gauge("jsettlers_games_hibernated", "Games currently hibernated", games.size());
+        s.gauge("jsettlers_games_hibernated_bytes", "Size of hibernated games' saved data", bytes.get());
+        s.counter("jsettlers_games_hibernated_total", "Games hibernated since startup", hibernated.get());
+        s.counter("jsettlers_games_woken_total", "Hibernated games woken since startup", woken.get());
+        s.counter("jsettlers_games_hibernate_failures_total", "Failures to hibernate or wake a game", failures.get());
+    }
+
+    /**
+     * Get the filename to write a hibernated game into, from its name:
+     * Characters other than letters and digits are replaced with their hex code.
+     * @param gaName  Game name
+     * @return  Filename ending with {@link #FILENAME_EXTENSION}
+     */
+    static String fileNameFor(final String gaName)
+    {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < gaName.length(); ++i)
+        {
+            final char ch = gaName.charAt(i);
+            if (((ch >= 'a') && (ch <= 'z')) || ((ch >= 'A') && (ch <= 'Z')) || ((ch >= '0') && (ch <= '9')))
+                sb.append(ch);
+            else
+                sb.append('_').append(Integer.toHexString(ch)).append('_');
+        }
+
+        return sb.append(FILENAME_EXTENSION).toString();
+    }
+
+    /**
+     * One hibernated game: Its saved data, and the {@link SOCGame} fields which aren't part of
+     * {@link SavedGameModel} but should be restored when woken.
+     */
+    public static final class Entry
+    {
+        /** Game's gzipped JSON saved data if kept in memory, otherwise {@code null} */
+        byte[] data;
+
+        /** File holding saved data if written to disk, otherwise {@code null} */
+        File file;
+
+        /** Size of saved data, in bytes */
+        int size;
+
+        /** Time when hibernated, from {@link System#currentTimeMillis()} */
+        public final long hibernatedAt;
+
+        /** Game's expiration time, from {@link SOCGame#getExpiration()} */
+        public final long expiration;
+
+        /** Has game's members been warned of its expiration? From {@link SOCGame#hasWarnedExpiration()} */
+        public final boolean warnedExpiration;
+
+        /** Game's owner and owner's locale, or {@code null} */
+        final String owner, ownerLocale;
+
+        /** Game's member client versions, from {@link SOCGame#clientVersionLowest} etc */
+        final int clientVersionLowest, clientVersionHighest;
+
+        /** Game's {@link SOCGame#hasOldClients} and {@link SOCGame#hasMultiLocales} flags */
+        final boolean hasOldClients, hasMultiLocales;
+
+        /** Copy of game's chat allow list, or {@code null} */
+        final Set<String> chatAllowList;
+
+        Entry(final SOCGame ga)
+        {
+            hibernatedAt = System.currentTimeMillis();
+            expiration = ga.getExpiration();
+            warnedExpiration = ga.hasWarnedExpiration();
+            owner = ga.getOwner();
+            ownerLocale = ga.getOwnerLocale();
+            clientVersionLowest = ga.clientVersionLowest;
+            clientVersionHighest = ga.clientVersionHighest;
+            hasOldClients = ga.hasOldClients;
+            hasMultiLocales = ga.hasMultiLocales;
+            final Set<String> chat = ga.getMemberChatAllowList();
+            chatAllowList = (chat != null) ? new HashSet<>(chat) : null;
+        }
+
+        /** @return  size in bytes of this game's saved data */
+        public int getSize()
+        {
+            return size;
+        }
+
+        /**
+         * Restore this entry's fields into a game loaded from its saved data.
+         * @param ga  Game just loaded
+         */
+        void restoreInto(final SOCGame ga)
+        {
+            ga.setExpiration(expiration);
+            if (warnedExpiration)
+                ga.setWarnedExpiration();
+            ga.setOwner(null, null);
+            ga.setOwner(owner, ownerLocale);
+            ga.clientVersionLowest = clientVersionLowest;
+            ga.clientVersionHighest = clientVersionHighest;
+            ga.hasOldClients = hasOldClients;
+            ga.hasMultiLocales = hasMultiLocales;
+
+            final Set<String> chat = ga.getMemberChatAllowList();
+            if ((chatAllowList != null) && (chat != null))
+            {
+                for (final String name : new ArrayList<>(chat))
+                    if (! chatAllowList.contains(name))
+                        ga.setMemberChatAllowed(name, false);
+                for (final String name : chatAllowList)
+                    ga.setMemberChatAllowed(name, true);
+            }
+        }
+    }
+
+    /** A member's message held while its woken game waits for robots; see {@link #holdIfWaking(SOCGame, SOCMessage, Connection)} */
+    private static final class HeldMessage
+    {
+        final SOCMessage mes;
+        final Connection c;
+
+        HeldMessage(final SOCMessage mes, final Connection c)
+        {
+            this.mes = mes;
+            this.c = c;
+        }
+    }
+
+}
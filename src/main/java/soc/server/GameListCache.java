@@ -0,0 +1,279 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import soc.game.SOCGame;
+import soc.game.SOCGameOption;
+import soc.game.SOCGameOptionSet;
+import soc.message.SOCGames;
+import soc.message.SOCGamesWithOptions;
+import soc.message.SOCNewGameWithOptions;
+import soc.util.LatencyHistogram;
+import soc.util.MetricsRegistry;
+
+/**
+ * Cache of the full game list message sent to each newly connected client, by client version.
+ * Building {@link SOCGamesWithOptions} walks every game and packs its options for the client's version;
+ * when many clients connect at once (such as after a server restart), most of them would repeat that work.
+ *<P>
+ * Each client version seen gets a bucket with each listed game's packed name and options,
+ * and the message's command string built from those. When a game is added, removed, or its options change,
+ * {@link SOCGameListAtServer} calls {@link #gameAdded(SOCGame)} or {@link #gameRemoved(String)}
+ * to update just that game's entry in each bucket; the bucket's command string is rebuilt from its
+ * entries the next time it's needed. Versions not used recently are dropped when there are
+ * more than {@link #MAX_BUCKETS}.
+ *<P>
+ * Used only for clients without limited features ({@link SOCClientData#hasLimitedFeats}),
+ * since their list doesn't depend on anything but version. For others, and for the list "deltas" sent
+ * when a client's version is learned late, {@link SOCGameListAtServer#sendGameList(soc.server.genericServer.Connection, int, boolean)}
+ * builds the list as before.
+ *
+ * @since 2.7.00
+ */
+public class GameListCache
+    implements MetricsRegistry.Source
+{
+    /** Maximum number of client versions to cache lists for: 16. Least recently used is dropped when more. */
+    public static final int MAX_BUCKETS = 16;
+
+    /** Buckets by client version, in access order for LRU eviction. Synchronize on this map for all access. */
+    private final LinkedHashMap<Integer, Bucket> buckets = new LinkedHashMap<Integer, Bucket>(MAX_BUCKETS, 0.75f, true)
+    {
+        private static final long serialVersionUID = 2700L;
+
+        protected boolean removeEldestEntry(Map.Entry<Integer, Bucket> eldest)
+        {
+            return size() > MAX_BUCKETS;
+        }
+    };
+
+    /** Stats: Requests which found the command string ready; buckets created; command strings rebuilt */
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), rebuilds = new AtomicLong();
+
+    /** Time taken to create buckets and rebuild command strings */
+    private final LatencyHistogram buildTime = new LatencyHistogram();
+
+    /**
+     * Get the game list message to send to a client of this version, building or rebuilding it if needed.
+     * Same contents as {@link SOCGames} or {@link SOCGamesWithOptions} built by
+     * {@link SOCGameListAtServer#sendGameList(soc.server.genericServer.Connection, int, boolean)}
+     * for a client which hasn't been sent the list yet, although games may be in a different order.
+     *
+     * @param cliVers  Client version
+     * @param games  All games in the list, from {@link SOCGameListAtServer#getGamesData()};
+     *     read only if this version doesn't have a bucket yet
+     * @return  the message's command string, from {@link soc.message.SOCMessage#toCmd()}
+     */
+    public String getGameListCmd(final int cliVers, final Collection<SOCGame> games)
+    {
+        synchronized (buckets)
+        {
+            Bucket b = buckets.get(cliVers);
+            if ((b != null) && (b.cmd != null))
+            {
+                hits.incrementAndGet();
+                return b.cmd;
+            }
+
+            final long startTime = System.nanoTime();
+            if (b == null)
+            {
+                b = new Bucket(cliVers);
+                for (final SOCGame ga : games.toArray(new SOCGame[0]))
+                    b.put(ga);
+                buckets.put(cliVers, b);
+                misses.incrementAndGet();
+            } else {
+                rebuilds.incrementAndGet();
+            }
+            b.buildCmd();
+            buildTime.record(System.nanoTime() - startTime);
+
+            return b.cmd;
+        }
+    }
+
+    /**
+     * A game was added to the list, or its options or required client features changed:
+     * Update its entry in each cached version's list.
+     * @param ga  Game added or changed; not null
+     */
+    public void gameAdded(final SOCGame ga)
+    {
+        synchronized (buckets)
+        {
+            for (final Bucket b : buckets.values())
+                b.put(ga);
+        }
+    }
+
+    /**
+     * A game was removed from the list: Remove its entry from each cached version's list.
+     * @param gaName  Game name; not null
+     */
+    public void gameRemoved(final String gaName)
+    {
+        synchronized (buckets)
+        {
+            for (final Bucket b : buckets.values())
+                if (null != b.entries.remove(gaName))
+                    b.cmd = null;
+        }
+    }
+
+    /** Drop all cached lists, for example after many games are added at once. */
+    public void clear()
+    {
+        synchronized (buckets)
+        {
+            buckets.clear();
+        }
+    }
+
+    /** @return number of client versions with a cached list */
+    public int getBucketCount()
+    {
+        synchronized (buckets)
+        {
+            return buckets.size();
+        }
+    }
+
+    /** @return number of requests which found the list ready to send */
+    public long getHits()
+    {
+        return hits.get();
+    }
+
+    /** @return number of requests which had to build a new version's list from all games */
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    /** @return number of requests which rebuilt a version's list from its entries after a game was added or removed */
+    public long getRebuilds()
+    {
+        return rebuilds.get();
+    }
+
+    /**
+     * Get stats for *STATS* and the server stats file: Number of versions cached, hits, misses, rebuilds,
+     * and build time.
+     * @return  Formatted stats, like {@code "2 versions, hits 40, misses 2, rebuilds 3, build n=5, avg 0.2 ms, ..."}
+     */
+    public String getStatsFormatted()
+    {
+        return getBucketCount() + " versions, hits " + hits.get() + ", misses " + misses.get()
+            + ", rebuilds " + rebuilds.get() + ", build " + buildTime.toStringMillis();
+    }
+
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        s.counter("jsettlers_gamelist_cache_hits_total", "Game lists sent from cache", hits.get());
+        s.counter("jsettlers_gamelist_cache_misses_total", "Game lists built for a new client version", misses.get());
+        s.counter("jsettlers_gamelist_cache_rebuilds_total", "Cached game lists rebuilt after a change", rebuilds.get());
+        s.latency("jsettlers_gamelist_cache_build_seconds", "Time to build or rebuild a cached game list",
+            null, null, buildTime);
+    }
+
+    /**
+     * One client version's cached list.
+     * Fields are accessed only while synchronized on {@link GameListCache#buckets}.
+     */
+    private static final class Bucket
+    {
+        final int cliVers;
+
+        /** If true, list is sent as {@link SOCGamesWithOptions}, otherwise {@link SOCGames} */
+        final boolean withOpts;
+
+        /**
+         * Each listed game's entry, by game name, in order added:
+         * Name (with {@link SOCGames#MARKER_THIS_GAME_UNJOINABLE} if needed), and if {@link #withOpts}
+         * its packed options. Games which this version can't be told about have no entry.
+         */
+        final LinkedHashMap<String, String[]> entries = new LinkedHashMap<>();
+
+        /** Command string built from {@link #entries}, or {@code null} if changed since last built */
+        String cmd;
+
+        Bucket(final int cliVers)
+        {
+            this.cliVers = cliVers;
+            withOpts = (cliVers >= SOCNewGameWithOptions.VERSION_FOR_NEWGAMEWITHOPTIONS);
+        }
+
+        /**
+         * Add or replace a game's entry, using the same rules as
+         * {@link SOCGameListAtServer#sendGameList(soc.server.genericServer.Connection, int, boolean)}
+         * and the {@link SOCGamesWithOptions#SOCGamesWithOptions(List, int)} constructor.
+         */
+        void put(final SOCGame ga)
+        {
+            final String gaName = ga.getName();
+            final boolean canJoin = (cliVers >= ga.getClientVersionMinRequired());
+            cmd = null;
+
+            if (! withOpts)
+            {
+                if (canJoin)
+                    entries.put(gaName, new String[]{ gaName });
+                else if (cliVers >= SOCGames.VERSION_FOR_UNJOINABLE)
+                    entries.put(gaName, new String[]{ SOCGames.MARKER_THIS_GAME_UNJOINABLE + gaName });
+                else
+                    entries.remove(gaName);
+
+                return;
+            }
+
+            final String optsStr;
+            if (canJoin || (cliVers >= SOCGameOption.VERSION_FOR_UNKNOWN_WITH_DESCRIPTION))
+            {
+                final SOCGameOptionSet opts = ga.getGameOptions();
+                optsStr = SOCGameOption.packOptionsToString
+                    ((opts != null) ? opts.getAll() : null, false, false, cliVers);
+            } else {
+                optsStr = "-";
+            }
+            entries.put(gaName, new String[]
+                { (canJoin) ? gaName : (SOCGames.MARKER_THIS_GAME_UNJOINABLE + gaName), optsStr });
+        }
+
+        /** Build {@link #cmd} from {@link #entries}. */
+        void buildCmd()
+        {
+            final List<String> li = new ArrayList<>(entries.size() * 2);
+            for (final String[] e : entries.values())
+                for (final String s : e)
+                    li.add(s);
+
+            cmd = (withOpts) ? SOCGamesWithOptions.toCmd(li) : new SOCGames(li).toCmd();
+        }
+    }
+
+}
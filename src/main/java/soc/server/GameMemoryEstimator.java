@@ -0,0 +1,588 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import soc.baseclient.SOCDisplaylessPlayerClient;
+import soc.game.SOCBoard;
+import soc.game.SOCGame;
+import soc.game.SOCScenario;
+import soc.robot.SOCRobotBrain;
+import soc.robot.SOCRobotClient;
+import soc.server.genericServer.Connection;
+import soc.server.genericServer.Server;
+import soc.util.SOCStringManager;
+
+/**
+ * Approximate memory used by games and connections, for capacity planning and for
+ * deciding which games are worth hibernating: See the {@code *MEMSTATS*} admin command
+ * and the server's daily stats file.
+ *<P>
+ * Walks the object graph reachable from each root object, adding up shallow sizes estimated for
+ * a 64-bit JVM with compressed references: 12-byte object headers, 4-byte references, 8-byte alignment.
+ * Fields of {@code soc.*} classes are followed by reflection, and the contents of arrays
+ * and java collections and maps through their public methods. Other JDK objects are counted
+ * with a small fixed size, not walked. Server-wide objects like the {@link Server}, {@link Connection}s,
+ * robot clients, {@link SOCStringManager}s, {@link SOCScenario}s, enums, and threads aren't counted
+ * unless they're a root.
+ *<P>
+ * Each object is counted once per estimator, so objects shared between roots are counted with
+ * the first root walked. {@link #estimateGame(SOCGame, SOCChatRecentBuffer, Collection, Object)}
+ * uses that to split a game's total into parts: {@link #PART_BOARD}, {@link #PART_PLAYERS}, etc.
+ *<P>
+ * <B>Threads:</B> An estimator instance isn't thread-safe. Games can be walked from any thread
+ * while being changed; collections changed during the walk are skipped, so results are approximate.
+ *
+ * @since 2.7.00
+ */
+public class GameMemoryEstimator
+{
+    /** Game estimate part: {@link SOCGame} fields not in another part, including game options and journal */
+    public static final int PART_GAME = 0;
+
+    /** Game estimate part: {@link SOCBoard} or {@code SOCBoardLarge} and its layout arrays */
+    public static final int PART_BOARD = 1;
+
+    /** Game estimate part: Each {@link soc.game.SOCPlayer} and its collections */
+    public static final int PART_PLAYERS = 2;
+
+    /** Game estimate part: Recent chat buffer */
+    public static final int PART_CHAT = 3;
+
+    /** Game estimate part: Brains of robots running in the server's JVM, with their game copy and trackers */
+    public static final int PART_ROBOTS = 4;
+
+    /** Game estimate part: {@code GameEventLog}, if the server records one */
+    public static final int PART_EVENTLOG = 5;
+
+    /** Part names for stats, indexed by part number: {@code "game", "board", "players", ...} */
+    public static final String[] PART_NAMES = {"game", "board", "players", "chat", "robots", "eventlog"};
+
+    /** Scenario name used in stats for games without a scenario: {@code "(none)"} */
+    public static final String NO_SCENARIO = "(none)";
+
+    /** Object header size in bytes */
+    private static final int OBJ_HEADER = 12;
+
+    /** Array header size in bytes, including length */
+    private static final int ARRAY_HEADER = 16;
+
+    /** Reference size in bytes */
+    private static final int REF = 4;
+
+    /** Size of JDK objects which aren't walked, such as boxed numbers */
+    private static final int OTHER_OBJ = 16;
+
+    /** Classes whose instances aren't counted unless they're a root */
+    private static final Class<?>[] SHARED_CLASSES =
+        {
+            Server.class, Connection.class, SOCDisplaylessPlayerClient.class, GameHandler.class,
+            SOCGameListAtServer.class, SOCStringManager.class, SOCScenario.class,
+            Thread.class, ClassLoader.class, Class.class, Enum.class
+        };
+
+    /** Each class's shallow size and reference fields to walk, created as needed */
+    private static final Map<Class<?>, ClassInfo> classInfos = new ConcurrentHashMap<>();
+
+    /** Objects already counted by this estimator */
+    private final IdentityHashMap<Object, Boolean> visited = new IdentityHashMap<>();
+
+    /** Objects counted but not yet walked, during {@link #estimate(Object)} */
+    private final ArrayDeque<Object> pending = new ArrayDeque<>();
+
+    /**
+     * Estimate the memory used by an object and everything reachable from it
+     * which this estimator hasn't already counted.
+     * @param root  Object to estimate; can be one of the otherwise-uncounted shared types like {@link Connection}.
+     *     If {@code null}, returns 0.
+     * @return  Approximate size in bytes; 0 if {@code root} was already counted
+     */
+    public long estimate(final Object root)
+    {
+        if ((root == null) || visited.containsKey(root))
+            return 0;
+
+        visited.put(root, Boolean.TRUE);
+        pending.push(root);
+        long total = 0;
+        while (! pending.isEmpty())
+            total += sizeOf(pending.pop());
+
+        return total;
+    }
+
+    /**
+     * Count an object as already seen without adding its size, so it won't be walked
+     * when reached from later roots.
+     * @param obj  Object to skip; not null
+     */
+    public void exclude(final Object obj)
+    {
+        visited.put(obj, Boolean.TRUE);
+    }
+
+    /** Forget all objects counted so far, to start a new independent estimate. */
+    public void reset()
+    {
+        visited.clear();
+    }
+
+    /**
+     * Estimate one game's memory use, split into parts.
+     * @param ga  Game to estimate; not null
+     * @param chat  Game's recent chat buffer, or {@code null}
+     * @param brains  Robot brains playing this game in the server's JVM, or {@code null}
+     * @param eventLog  Game's event log if any, or {@code null}
+     * @return  Estimate for {@code ga}
+     */
+    public static GameEstimate estimateGame
+        (final SOCGame ga, final SOCChatRecentBuffer chat, final Collection<SOCRobotBrain> brains, final Object eventLog)
+    {
+        final GameMemoryEstimator est = new GameMemoryEstimator();
+        final long[] parts = new long[PART_NAMES.length];
+
+        // Walk the players, then the board, before the rest of the game, so back-references
+        // from players' pieces to the board and game don't put those into the players' part
+        final SOCBoard board = ga.getBoard();
+        est.exclude(ga);
+        est.exclude(board);
+        for (int pn = 0; pn < ga.maxPlayers; ++pn)
+            parts[PART_PLAYERS] += est.estimate(ga.getPlayer(pn));
+        est.visited.remove(board);
+        parts[PART_BOARD] = est.estimate(board);
+        est.visited.remove(ga);
+        parts[PART_GAME] = est.estimate(ga);
+        parts[PART_CHAT] = est.estimate(chat);
+        if (brains != null)
+            for (final SOCRobotBrain rb : brains)
+                parts[PART_ROBOTS] += est.estimate(rb);
+        parts[PART_EVENTLOG] = est.estimate(eventLog);
+
+        final String sc = ga.getGameOptionStringValue("SC");
+        return new GameEstimate(ga.getName(), ((sc != null) && ! sc.isEmpty()) ? sc : NO_SCENARIO, parts);
+    }
+
+    /**
+     * Estimate memory use of the server's games and connections, for the {@code *MEMSTATS*} admin command
+     * and the daily stats file: Totals, each game largest first, each scenario, connections, and hibernated games.
+     *<P>
+     * Robot brains are counted only for robots running in the server's JVM.
+     * Walks every game, so it may take a little while on a busy server.
+     *
+     * @param srv  Server to estimate; not null
+     * @param maxGames  Maximum number of games to list, or 0 for all
+     * @return  Stats lines; not null or empty
+     */
+    static List<String> getStatsFormatted(final SOCServer srv, final int maxGames)
+    {
+        final List<GameEstimate> games = new ArrayList<>();
+        final List<SOCGame> gaList = new ArrayList<>(srv.gameList.getGamesData());  // Hashtable copy is synchronized
+        final List<SOCRobotClient> bots = new ArrayList<>(SOCLocalRobotClient.robotClients.values());
+        for (final SOCGame ga : gaList)
+        {
+            final String gaName = ga.getName();
+            final List<SOCRobotBrain> brains = new ArrayList<>();
+            for (final SOCRobotClient rc : bots)
+            {
+                final SOCRobotBrain rb = rc.getRobotBrain(gaName);
+                if (rb != null)
+                    brains.add(rb);
+            }
+
+            try
+            {
+                games.add(estimateGame(ga, srv.gameList.getChatBuffer(gaName), brains, srv.getGameEventLog(gaName)));
+            } catch (RuntimeException e) {
+                // game was destroyed or changed during walk; skip it
+            }
+        }
+        Collections.sort(games, new Comparator<GameEstimate>()
+        {
+            public int compare(final GameEstimate a, final GameEstimate b)
+            {
+                return Long.compare(b.getTotal(), a.getTotal());
+            }
+        });
+
+        final List<String> ret = new ArrayList<>();
+
+        long gamesTotal = 0;
+        final long[] partsTotal = new long[PART_NAMES.length];
+        final Map<String, long[]> scenarios = new TreeMap<>();  // value: {count, total}
+        for (final GameEstimate ge : games)
+        {
+            gamesTotal += ge.getTotal();
+            for (int i = 0; i < partsTotal.length; ++i)
+                partsTotal[i] += ge.parts[i];
+            long[] sc = scenarios.get(ge.scenario);
+            if (sc == null)
+            {
+                sc = new long[2];
+                scenarios.put(ge.scenario, sc);
+            }
+            ++sc[0];
+            sc[1] += ge.getTotal();
+        }
+
+        final int nGames = games.size();
+        final StringBuilder sb = new StringBuilder("Games: ").append(nGames).append(", total ").append(gamesTotal);
+        if (nGames > 0)
+            sb.append(", average ").append(gamesTotal / nGames);
+        appendParts(sb.append(" ("), partsTotal).append(')');
+        ret.add(sb.toString());
+
+        final int nShow = ((maxGames > 0) && (maxGames < nGames)) ? maxGames : nGames;
+        for (int i = 0; i < nShow; ++i)
+            ret.add(games.get(i).toString());
+        if (nShow < nGames)
+            ret.add("... and " + (nGames - nShow) + " smaller games");
+
+        for (final Map.Entry<String, long[]> ent : scenarios.entrySet())
+        {
+            final long[] sc = ent.getValue();
+            ret.add("Scenario " + ent.getKey() + ": " + sc[0] + " games, total " + sc[1]
+                + ", average " + (sc[1] / sc[0]));
+        }
+
+        final List<Connection> conns = srv.getAllConnections();
+        long connTotal = 0, connMax = 0;
+        String connMaxName = null;
+        for (final Connection c : conns)
+        {
+            final long sz;
+            try
+            {
+                sz = new GameMemoryEstimator().estimate(c);
+            } catch (RuntimeException e) {
+                continue;
+            }
+            connTotal += sz;
+            if (sz > connMax)
+            {
+                connMax = sz;
+                connMaxName = c.getData();
+            }
+        }
+        sb.setLength(0);
+        sb.append("Connections: ").append(conns.size()).append(", total ").append(connTotal);
+        if (! conns.isEmpty())
+            sb.append(", average ").append(connTotal / conns.size())
+              .append(", largest ").append((connMaxName != null) ? connMaxName : "(unnamed)").append(' ').append(connMax);
+        ret.add(sb.toString());
+
+        final GameHibernator gh = srv.gameHibernator;
+        if (gh != null)
+            ret.add("Hibernated games: " + gh.getCurrentCount() + ", total " + gh.getCurrentBytes() + " saved");
+
+        return ret;
+    }
+
+    /**
+     * Append each part's name and size to a string builder: {@code "game 1200, board 5400, ..."}
+     * @param sb  Builder to append to
+     * @param parts  Size of each part, indexed by part number like {@link #PART_BOARD}
+     * @return  {@code sb}
+     */
+    private static StringBuilder appendParts(final StringBuilder sb, final long[] parts)
+    {
+        for (int i = 0; i < parts.length; ++i)
+        {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(PART_NAMES[i]).append(' ').append(parts[i]);
+        }
+
+        return sb;
+    }
+
+    /**
+     * Get an object's shallow size, and add its unvisited referents to {@link #pending}.
+     * @param obj  Object to size; not null
+     * @return  Approximate shallow size in bytes
+     */
+    private long sizeOf(final Object obj)
+    {
+        final Class<?> cl = obj.getClass();
+
+        if (cl.isArray())
+        {
+            final Class<?> ct = cl.getComponentType();
+            if (ct.isPrimitive())
+            {
+                final int len = java.lang.reflect.Array.getLength(obj);
+                return align(ARRAY_HEADER + (long) len * primitiveSize(ct));
+            }
+
+            final Object[] arr = (Object[]) obj;
+            for (final Object o : arr)
+                add(o);
+            return align(ARRAY_HEADER + (long) arr.length * REF);
+        }
+
+        if (obj instanceof String)
+            return 24 + align(ARRAY_HEADER + ((String) obj).length());  // compact latin-1 strings
+
+        long sz = 0;
+        final boolean isSOC = cl.getName().startsWith("soc.");
+        if (isSOC)
+        {
+            final ClassInfo ci = getClassInfo(cl);
+            sz = ci.shallowSize;
+            for (final Field f : ci.refFields)
+            {
+                try
+                {
+                    add(f.get(obj));
+                } catch (IllegalAccessException e) {}
+            }
+        }
+
+        if (obj instanceof Map)
+        {
+            final Map<?, ?> m = (Map<?, ?>) obj;
+            int n = 0;
+            try
+            {
+                for (final Map.Entry<?, ?> ent : m.entrySet())
+                {
+                    add(ent.getKey());
+                    add(ent.getValue());
+                    ++n;
+                }
+            } catch (RuntimeException e) {
+                // ConcurrentModificationException, etc
+            }
+            return sz + (isSOC ? 0 : 48) + hashTableSize(n);
+        }
+        else if (obj instanceof Collection)
+        {
+            final Collection<?> co = (Collection<?>) obj;
+            int n = 0;
+            try
+            {
+                for (final Object o : co)
+                {
+                    add(o);
+                    ++n;
+                }
+            } catch (RuntimeException e) {}
+
+            if (obj instanceof Set)
+                return sz + (isSOC ? 0 : 64) + hashTableSize(n);
+            else if (obj instanceof RandomAccess)
+                return sz + (isSOC ? 0 : 24) + align(ARRAY_HEADER + (long) n * REF);
+            else
+                return sz + (isSOC ? 0 : 24) + 24L * n;
+        }
+
+        return (isSOC) ? sz : OTHER_OBJ;
+    }
+
+    /**
+     * If this object should be walked, mark it visited and add it to {@link #pending}.
+     * @param obj  Object reached from one being walked, or {@code null}
+     */
+    private void add(final Object obj)
+    {
+        if ((obj == null) || visited.containsKey(obj))
+            return;
+
+        for (final Class<?> sh : SHARED_CLASSES)
+            if (sh.isInstance(obj))
+                return;
+
+        visited.put(obj, Boolean.TRUE);
+        pending.push(obj);
+    }
+
+    /**
+     * Get or calculate a {@code soc.*} class's info, including fields declared in its superclasses.
+     * @param cl  Class to look up
+     * @return  Class info; not null
+     */
+    private static ClassInfo getClassInfo(final Class<?> cl)
+    {
+        ClassInfo ci = classInfos.get(cl);
+        if (ci != null)
+            return ci;
+
+        long sz = OBJ_HEADER;
+        final List<Field> refs = new ArrayList<>();
+        for (Class<?> c = cl; c != null; c = c.getSuperclass())
+        {
+            final boolean walk = c.getName().startsWith("soc.");
+            for (final Field f : c.getDeclaredFields())
+            {
+                if (Modifier.isStatic(f.getModifiers()))
+                    continue;
+
+                final Class<?> ft = f.getType();
+                if (ft.isPrimitive())
+                {
+                    sz += primitiveSize(ft);
+                    continue;
+                }
+
+                sz += REF;
+                if (walk)
+                {
+                    try
+                    {
+                        f.setAccessible(true);
+                        refs.add(f);
+                    } catch (RuntimeException e) {
+                        // SecurityException, etc: won't walk this field
+                    }
+                }
+            }
+        }
+
+        ci = new ClassInfo(align(sz), refs.toArray(new Field[refs.size()]));
+        classInfos.put(cl, ci);
+        return ci;
+    }
+
+    /**
+     * Size of a hash table with {@code n} entries, like {@link java.util.HashMap}'s table and entry nodes.
+     * @param n  Number of entries
+     * @return  Approximate size in bytes, not including the map object itself
+     */
+    private static long hashTableSize(final int n)
+    {
+        int cap = 16;
+        while (cap * 3 < n * 4)
+            cap <<= 1;
+
+        return align(ARRAY_HEADER + (long) cap * REF) + 32L * n;
+    }
+
+    /**
+     * Get the size of a primitive type.
+     * @param t  A primitive type, like {@code int.class}
+     * @return  Size in bytes
+     */
+    private static int primitiveSize(final Class<?> t)
+    {
+        if ((t == long.class) || (t == double.class))
+            return 8;
+        else if ((t == int.class) || (t == float.class))
+            return 4;
+        else if ((t == short.class) || (t == char.class))
+            return 2;
+        else
+            return 1;
+    }
+
+    /** Round up to the JVM's 8-byte object alignment. */
+    private static long align(final long sz)
+    {
+        return (sz + 7) & ~7L;
+    }
+
+    /**
+     * Shallow size and walkable reference fields of a {@code soc.*} class.
+     */
+    private static final class ClassInfo
+    {
+        /** Shallow size of an instance, in bytes */
+        final long shallowSize;
+
+        /** Accessible reference fields declared in {@code soc.*} classes */
+        final Field[] refFields;
+
+        ClassInfo(final long shallowSize, final Field[] refFields)
+        {
+            this.shallowSize = shallowSize;
+            this.refFields = refFields;
+        }
+    }
+
+    /**
+     * One game's estimated memory use, split into parts. See
+     * {@link GameMemoryEstimator#estimateGame(SOCGame, SOCChatRecentBuffer, Collection, Object)}.
+     */
+    public static final class GameEstimate
+    {
+        /** Game name */
+        public final String gameName;
+
+        /** Game's scenario name, or {@link GameMemoryEstimator#NO_SCENARIO} */
+        public final String scenario;
+
+        /** Size of each part, indexed by part number like {@link GameMemoryEstimator#PART_BOARD} */
+        private final long[] parts;
+
+        GameEstimate(final String gameName, final String scenario, final long[] parts)
+        {
+            this.gameName = gameName;
+            this.scenario = scenario;
+            this.parts = parts;
+        }
+
+        /**
+         * Get one part's estimated size.
+         * @param part  Part number, like {@link GameMemoryEstimator#PART_BOARD}
+         * @return  Size in bytes
+         */
+        public long getPart(final int part)
+        {
+            return parts[part];
+        }
+
+        /** @return  total estimated size in bytes of all parts */
+        public long getTotal()
+        {
+            long sum = 0;
+            for (final long p : parts)
+                sum += p;
+
+            return sum;
+        }
+
+        /**
+         * For stats: {@code "Game mygame: 51200 (game 1200, board 5400, ...); scenario SC_FOG"}
+         */
+        @Override
+        public String toString()
+        {
+            final StringBuilder sb = new StringBuilder("Game ").append(gameName).append(": ").append(getTotal());
+            appendParts(sb.append(" ("), parts).append(')');
+            if (! NO_SCENARIO.equals(scenario))
+                sb.append("; scenario ").append(scenario);
+
+            return sb.toString();
+        }
+    }
+
+}
@@ -0,0 +1,326 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import soc.message.SOCMessage;
+import soc.util.MetricsRegistry;
+
+/**
+ * Per-connection token-bucket limits on inbound messages from clients, so one client flooding
+ * chat, trade offers, or info requests can't slow down the single-threaded dispatcher for every game.
+ *<P>
+ * Each message is counted in a category ({@link #CAT_CHAT}, {@link #CAT_TRADE}, {@link #CAT_INFO},
+ * or {@link #CAT_OTHER}) with its own budget: a refill rate per second and a burst size.
+ * A message arriving when its category's bucket is empty is dropped without being queued for dispatch.
+ * After too many messages dropped in one category ({@link #getDisconnectAfter()}) without its bucket
+ * refilling in between, the client should be disconnected.
+ *<P>
+ * Robot clients aren't limited. Budgets are set from server properties; see
+ * {@link SOCServer#PROP_JSETTLERS_CLI_RATELIMIT_PREFIX}.
+ *<P>
+ * <B>Threads:</B> {@link #check(SOCMessage, SOCClientData)} is called from each connection's
+ * own reader thread; per-connection state is used only by that thread. Stats are atomic.
+ *
+ * @since 2.7.00
+ */
+public class InboundRateLimiter
+    implements MetricsRegistry.Source
+{
+    /** Category for chat text: {@link soc.message.SOCGameTextMsg}, {@link soc.message.SOCChannelTextMsg} */
+    public static final int CAT_CHAT = 0;
+
+    /**
+     * Category for making and clearing trade offers: {@link soc.message.SOCMakeOffer}, {@code SOCClearOffer},
+     * {@code SOCClearTradeMsg}. Accepting or rejecting an offer is in {@link #CAT_OTHER}.
+     */
+    public static final int CAT_TRADE = 1;
+
+    /** Category for info requests: {@link soc.message.SOCGameOptionGetInfos}, {@code SOCScenarioInfo}, etc */
+    public static final int CAT_INFO = 2;
+
+    /**
+     * Category for all other messages, including game actions like building, rolling, and ending a turn,
+     * and accepting or rejecting a trade offer. Not limited by default ({@link #DEFAULT_RATES} is 0), since a dropped game action gets no reply
+     * and could leave the client's game out of sync with the server.
+     */
+    public static final int CAT_OTHER = 3;
+
+    /**
+     * Category names, indexed by category number, used in property names and stats:
+     * {@code "chat", "trade", "info", "other"}
+     */
+    public static final String[] CATEGORY_NAMES = {"chat", "trade", "info", "other"};
+
+    /** Default refill rate per second for each category, indexed by category number; 0 for unlimited */
+    public static final int[] DEFAULT_RATES = {2, 5, 5, 0};
+
+    /** Default burst size for each category, indexed by category number; unused if that rate is 0 */
+    public static final int[] DEFAULT_BURSTS = {10, 20, 50, 0};
+
+    /** Default number of dropped messages after which to disconnect a client: 100 */
+    public static final int DEFAULT_DISCONNECT_AFTER = 100;
+
+    /** Result of {@link #check(SOCMessage, SOCClientData)}: Message is within budget */
+    public static final int ALLOW = 0;
+
+    /** Result of {@link #check(SOCMessage, SOCClientData)}: Message is over budget; drop it */
+    public static final int DROP = 1;
+
+    /** Result of {@link #check(SOCMessage, SOCClientData)}: Drop message, and disconnect the client */
+    public static final int DISCONNECT = 2;
+
+    /** Refill rate per second for each category; 0 if unlimited */
+    private final int[] rates;
+
+    /** Burst size (bucket capacity) for each category */
+    private final int[] bursts;
+
+    /** Disconnect after this many dropped messages, or 0 to never disconnect */
+    private final int disconnectAfter;
+
+    /** Stats: Messages dropped, per category */
+    private final AtomicLongArray dropped = new AtomicLongArray(CATEGORY_NAMES.length);
+
+    /** Stats: Clients throttled at least once; clients disconnected */
+    private final AtomicLong throttledClients = new AtomicLong(), disconnectedClients = new AtomicLong();
+
+    /**
+     * Create a limiter with these budgets.
+     * @param rates  Refill rate per second for each category, indexed by category number; 0 for unlimited.
+     *     Length must be {@link #CATEGORY_NAMES}.length. Not copied; don't change after calling.
+     * @param bursts  Burst size for each category; ignored if that category's rate is 0, otherwise at least 1.
+     *     Length must be {@link #CATEGORY_NAMES}.length. Not copied; don't change after calling.
+     * @param disconnectAfter  Disconnect a client after this many dropped messages in one category
+     *     since that category's bucket was last full, or 0 to never disconnect
+     * @throws IllegalArgumentException if any parameter is out of range
+     */
+    public InboundRateLimiter(final int[] rates, final int[] bursts, final int disconnectAfter)
+        throws IllegalArgumentException
+    {
+        if ((rates.length != CATEGORY_NAMES.length) || (bursts.length != CATEGORY_NAMES.length))
+            throw new IllegalArgumentException("length");
+        for (int i = 0; i < rates.length; ++i)
+            if ((rates[i] < 0) || ((rates[i] > 0) && (bursts[i] < 1)))
+                throw new IllegalArgumentException(CATEGORY_NAMES[i]);
+        if (disconnectAfter < 0)
+            throw new IllegalArgumentException("disconnectAfter");
+
+        this.rates = rates;
+        this.bursts = bursts;
+        this.disconnectAfter = disconnectAfter;
+    }
+
+    /**
+     * Get a message type's category.
+     * @param mes  Message from client; not null
+     * @return  {@link #CAT_CHAT}, {@link #CAT_TRADE}, {@link #CAT_INFO}, or {@link #CAT_OTHER}
+     */
+    public static int getCategory(final SOCMessage mes)
+    {
+        switch (mes.getType())
+        {
+        case SOCMessage.GAMETEXTMSG:
+            // fall through
+        case SOCMessage.CHANNELTEXTMSG:
+            return CAT_CHAT;
+
+        case SOCMessage.MAKEOFFER:
+            // fall through
+        case SOCMessage.CLEAROFFER:
+            // fall through
+        case SOCMessage.CLEARTRADEMSG:
+            return CAT_TRADE;
+
+        case SOCMessage.GAMEOPTIONGETINFOS:
+            // fall through
+        case SOCMessage.GAMEOPTIONGETDEFAULTS:
+            // fall through
+        case SOCMessage.SCENARIOINFO:
+            // fall through
+        case SOCMessage.LOCALIZEDSTRINGS:
+            return CAT_INFO;
+
+        default:
+            return CAT_OTHER;
+        }
+    }
+
+    /**
+     * Check whether a client's message is within its category's budget, and use a token if so.
+     * @param mes  Message from client; not null
+     * @param scd  Client's data, which holds its token buckets; not null
+     * @return  {@link #ALLOW}, {@link #DROP}, or {@link #DISCONNECT}
+     */
+    public int check(final SOCMessage mes, final SOCClientData scd)
+    {
+        return check(getCategory(mes), scd, System.nanoTime());
+    }
+
+    /**
+     * Check whether a client's message is within a category's budget, and use a token if so.
+     * @param cat  Message category, such as {@link #CAT_CHAT}
+     * @param scd  Client's data, which holds its token buckets; not null
+     * @param nowNanos  Current time from {@link System#nanoTime()}
+     * @return  {@link #ALLOW}, {@link #DROP}, or {@link #DISCONNECT}
+     */
+    public int check(final int cat, final SOCClientData scd, final long nowNanos)
+    {
+        if (scd.isRobot || (rates[cat] == 0))
+            return ALLOW;
+
+        Buckets b = scd.rateBuckets;
+        if (b == null)
+        {
+            b = new Buckets(bursts, nowNanos);
+            scd.rateBuckets = b;
+        }
+
+        double tokens = b.tokens[cat] + (nowNanos - b.lastNanos[cat]) * rates[cat] / 1e9;
+        if (tokens >= bursts[cat])
+        {
+            tokens = bursts[cat];
+            b.dropCounts[cat] = 0;  // client has stayed within budget long enough to refill
+        }
+        b.lastNanos[cat] = nowNanos;
+
+        if (tokens >= 1.0)
+        {
+            b.tokens[cat] = tokens - 1.0;
+            return ALLOW;
+        }
+
+        b.tokens[cat] = tokens;
+        dropped.incrementAndGet(cat);
+        if (! b.wasThrottled)
+        {
+            b.wasThrottled = true;
+            throttledClients.incrementAndGet();
+        }
+        ++b.dropCounts[cat];
+        if ((disconnectAfter > 0) && (b.dropCounts[cat] == disconnectAfter))
+        {
+            disconnectedClients.incrementAndGet();
+            return DISCONNECT;
+        }
+
+        return DROP;
+    }
+
+    /**
+     * Get the number of dropped messages after which to disconnect a client.
+     * Counted per category, and reset when that category's bucket refills to its burst size.
+     * @return number of dropped messages, or 0 if never
+     */
+    public int getDisconnectAfter()
+    {
+        return disconnectAfter;
+    }
+
+    /**
+     * Get the number of messages dropped in a category.
+     * @param cat  Category, such as {@link #CAT_CHAT}
+     * @return  Number of messages dropped in {@code cat}
+     */
+    public long getDropped(final int cat)
+    {
+        return dropped.get(cat);
+    }
+
+    /** @return number of clients who had any message dropped */
+    public long getThrottledClients()
+    {
+        return throttledClients.get();
+    }
+
+    /** @return number of clients disconnected for sending too many messages */
+    public long getDisconnectedClients()
+    {
+        return disconnectedClients.get();
+    }
+
+    /**
+     * Stats for {@code *STATS*} command:
+     * {@code "dropped chat 12, trade 0, info 0, other 0; clients throttled 1, disconnected 0"}
+     * @return stats summary string
+     */
+    public String getStatsFormatted()
+    {
+        final StringBuilder sb = new StringBuilder("dropped");
+        for (int cat = 0; cat < CATEGORY_NAMES.length; ++cat)
+        {
+            sb.append((cat == 0) ? " " : ", ").append(CATEGORY_NAMES[cat]).append(' ').append(dropped.get(cat));
+        }
+        sb.append("; clients throttled ").append(throttledClients.get())
+          .append(", disconnected ").append(disconnectedClients.get());
+
+        return sb.toString();
+    }
+
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        for (int cat = 0; cat < CATEGORY_NAMES.length; ++cat)
+            s.counter("jsettlers_ratelimit_dropped_" + CATEGORY_NAMES[cat] + "_total",
+                "Inbound " + CATEGORY_NAMES[cat] + " messages dropped by rate limit", dropped.get(cat));
+        s.counter("jsettlers_ratelimit_throttled_clients_total", "Clients who had any message dropped",
+            throttledClients.get());
+        s.counter("jsettlers_ratelimit_disconnected_clients_total", "Clients disconnected by rate limit",
+            disconnectedClients.get());
+    }
+
+    /**
+     * One client's token buckets, one per category. Held in {@link SOCClientData#rateBuckets};
+     * used only by that client's reader thread.
+     */
+    static final class Buckets
+    {
+        /** Tokens available per category, as of {@link #lastNanos} */
+        final double[] tokens;
+
+        /** Time of last refill per category, from {@link System#nanoTime()} */
+        final long[] lastNanos;
+
+        /**
+         * Messages dropped from this client per category since that bucket was last full.
+         * Reset when it refills, so a client who's throttled now and then isn't eventually disconnected.
+         */
+        final int[] dropCounts;
+
+        /** True if any message has been dropped from this client, for {@link InboundRateLimiter#getThrottledClients()} */
+        boolean wasThrottled;
+
+        /** Create full buckets. */
+        Buckets(final int[] bursts, final long nowNanos)
+        {
+            final int n = bursts.length;
+            tokens = new double[n];
+            lastNanos = new long[n];
+            dropCounts = new int[n];
+            for (int i = 0; i < n; ++i)
+            {
+                tokens[i] = bursts[i];
+                lastNanos[i] = nowNanos;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import soc.util.LatencyHistogram;
+import soc.util.MetricsRegistry;
+
+/**
+ * Cache of ready-to-send replies to clients' game option and scenario info requests
+ * ({@link soc.message.SOCGameOptionGetInfos}, {@link soc.message.SOCScenarioInfo}).
+ * Building those replies looks through all Known Options or scenarios and localizes their descriptions,
+ * but the result depends only on a few things: Client version, the locale of the strings it's sent,
+ * its client features, and the request itself. {@link SOCServerMessageHandler} makes a key from those
+ * and caches each reply as a list of message command strings.
+ *<P>
+ * Entries are immutable. {@link #clear()} drops them all when Known Options change, such as by
+ * {@link SOCServer#activateKnownOption(String)}; a reply being built during that call won't be cached,
+ * see {@link #getGeneration()}. Keys not used recently are dropped when there are more than {@link #MAX_ENTRIES}.
+ *
+ * @since 2.7.00
+ */
+public class InfoResponseCache
+    implements MetricsRegistry.Source
+{
+    /** Maximum number of replies to cache: 128. Least recently used is dropped when more. */
+    public static final int MAX_ENTRIES = 128;
+
+    /** Replies by key, in access order for LRU eviction. Synchronize on this map for all access. */
+    private final LinkedHashMap<String, Response> entries = new LinkedHashMap<String, Response>(MAX_ENTRIES, 0.75f, true)
+    {
+        private static final long serialVersionUID = 2700L;
+
+        protected boolean removeEldestEntry(Map.Entry<String, Response> eldest)
+        {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /** Incremented by {@link #clear()}. Synchronize on {@link #entries}. */
+    private long generation;
+
+    /** Stats: Requests answered from cache; requests which built a reply; calls to {@link #clear()} */
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), clears = new AtomicLong();
+
+    /** Time taken to build replies which weren't cached */
+    private final LatencyHistogram buildTime = new LatencyHistogram();
+
+    /**
+     * Look up a cached reply. Counts a hit or miss for stats.
+     * @param key  Key for the request
+     * @return  Cached reply, or {@code null} if none; call {@link #put(String, long, long, Response)} after building it
+     */
+    public Response get(final String key)
+    {
+        final Response r;
+        synchronized (entries)
+        {
+            r = entries.get(key);
+        }
+        if (r != null)
+            hits.incrementAndGet();
+        else
+            misses.incrementAndGet();
+
+        return r;
+    }
+
+    /**
+     * Get the current generation, to pass to {@link #put(String, long, long, Response)} after building a reply.
+     * @return  Current generation number, incremented by each {@link #clear()}
+     */
+    public long getGeneration()
+    {
+        synchronized (entries)
+        {
+            return generation;
+        }
+    }
+
+    /**
+     * Cache a newly built reply, unless {@link #clear()} was called while it was being built.
+     * @param key  Key for the request
+     * @param gen  {@link #getGeneration()} from before building the reply
+     * @param startNanos  {@link System#nanoTime()} from before building the reply, for stats
+     * @param r  Reply to cache; not null
+     */
+    public void put(final String key, final long gen, final long startNanos, final Response r)
+    {
+        buildTime.record(System.nanoTime() - startNanos);
+        synchronized (entries)
+        {
+            if (gen == generation)
+                entries.put(key, r);
+        }
+    }
+
+    /** Drop all cached replies because Known Options or other inputs have changed. */
+    public void clear()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+            ++generation;
+        }
+        clears.incrementAndGet();
+    }
+
+    /** @return number of cached replies */
+    public int size()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    /** @return number of requests answered from cache */
+    public long getHits()
+    {
+        return hits.get();
+    }
+
+    /** @return number of requests which had to build a reply */
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Get stats for *STATS* and the server stats file.
+     * @return  Formatted stats, like {@code "12 replies, hits 40, misses 12, cleared 0, build n=12, avg 0.3 ms, ..."}
+     */
+    public String getStatsFormatted()
+    {
+        return size() + " replies, hits " + hits.get() + ", misses " + misses.get()
+            + ", cleared " + clears.get() + ", build " + buildTime.toStringMillis();
+    }
+
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        s.gauge("jsettlers_inforeply_cache_entries", "Cached game option and scenario info replies", size());
+        s.counter("jsettlers_inforeply_cache_hits_total", "Info requests answered from cache", hits.get());
+        s.counter("jsettlers_inforeply_cache_misses_total", "Info requests which built a reply", misses.get());
+        s.latency("jsettlers_inforeply_cache_build_seconds", "Time to build an info reply", null, null, buildTime);
+    }
+
+    /**
+     * A cached reply: Messages to send, and for scenario info, the client data tracking fields to set.
+     * Immutable.
+     */
+    public static final class Response
+    {
+        /** Message command strings to send, from {@link soc.message.SOCMessage#toCmd()}; unmodifiable */
+        public final List<String> messages;
+
+        /**
+         * For scenario info replies, the contents to copy into {@link SOCClientData#scenariosInfoSent}
+         * afterwards; otherwise {@code null}. Unmodifiable.
+         */
+        public final Map<String, String> scenariosInfoSent;
+
+        /**
+         * For scenario info replies, the value to set in {@link SOCClientData#localeHasScenStrings}
+         * afterwards, or {@code null} if the reply didn't check that.
+         */
+        public final Boolean localeHasScenStrings;
+
+        /**
+         * Create a reply.
+         * @param messages  Message command strings; will be copied
+         * @param scenariosInfoSent  Scenario info tracking map, or {@code null}; will be copied
+         * @param localeHasScenStrings  Scenario strings flag, or {@code null}
+         */
+        public Response
+            (final List<String> messages, final Map<String, String> scenariosInfoSent,
+             final Boolean localeHasScenStrings)
+        {
+            this.messages = Collections.unmodifiableList(new ArrayList<String>(messages));
+            this.scenariosInfoSent = (scenariosInfoSent != null)
+                ? Collections.unmodifiableMap(new HashMap<String, String>(scenariosInfoSent))
+                : null;
+            this.localeHasScenStrings = localeHasScenStrings;
+        }
+    }
+
+}
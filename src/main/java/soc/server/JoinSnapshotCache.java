@@ -0,0 +1,305 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import soc.game.SOCGame;
+import soc.message.SOCMessage;
+import soc.util.LatencyHistogram;
+import soc.util.MetricsRegistry;
+
+/**
+ * Per-game cache of the public part of the message sequence sent to a client joining a game:
+ * Seats and seat locks, board layout, pieces, player elements, dev card counts, longest road/largest army, etc.
+ * {@link SOCGameHandler#joinGame(SOCGame, soc.server.genericServer.Connection, boolean, boolean, boolean)} sends the same sequence
+ * to every observer and to every player rejoining after a network problem, so it caches each sequence
+ * as a list of message command strings to send again while the game hasn't changed.
+ *<P>
+ * A game's snapshots are keyed by what else the sequence depends on: The client's version and locale,
+ * and which seat (if any) the client is taking over. Each game keeps up to {@link #MAX_SNAPSHOTS_PER_GAME}.
+ *<P>
+ * Any change to a game that clients can see is announced to its members, so the server calls
+ * {@link #invalidate(String, SOCMessage)} whenever it sends a data message to a game. A snapshot being built during
+ * that call won't be cached, see {@link #getGeneration(SOCGame)}. If a game is reset, its new
+ * {@link SOCGame} object doesn't use the old game's snapshots.
+ *<P>
+ * Thread-safe. Snapshots are immutable.
+ *
+ * @since 2.7.00
+ */
+public class JoinSnapshotCache
+    implements MetricsRegistry.Source
+{
+    /** Maximum number of snapshots to keep per game: 8. Least recently used is dropped when more. */
+    public static final int MAX_SNAPSHOTS_PER_GAME = 8;
+
+    /** Each game's snapshots, by game name. Removed by {@link #gameRemoved(String)}. */
+    private final ConcurrentHashMap<String, GameSnapshots> games = new ConcurrentHashMap<>();
+
+    /** Stats: Joins sent from cache; joins which built a snapshot; invalidations which dropped any snapshots */
+    private final AtomicLong hits = new AtomicLong(), misses = new AtomicLong(), invalidations = new AtomicLong();
+
+    /** Time taken to build and send snapshots which weren't cached */
+    private final LatencyHistogram buildTime = new LatencyHistogram();
+
+    /**
+     * Look up a cached snapshot. Counts a hit or miss for stats.
+     * @param ga  Game being joined
+     * @param key  Key for the client's version, locale, etc
+     * @return  Cached snapshot, or {@code null} if none: Call {@link #getGeneration(SOCGame)} and build it,
+     *     then {@link #put(SOCGame, String, long, long, Snapshot)}
+     */
+    public Snapshot get(final SOCGame ga, final String key)
+    {
+        Snapshot snap = null;
+        final GameSnapshots gs = games.get(ga.getName());
+        if ((gs != null) && (gs.game == ga))
+            synchronized (gs)
+            {
+                snap = gs.byKey.get(key);
+            }
+
+        if (snap != null)
+            hits.incrementAndGet();
+        else
+            misses.incrementAndGet();
+
+        return snap;
+    }
+
+    /**
+     * Get a game's current generation, to pass to {@link #put(SOCGame, String, long, long, Snapshot)}
+     * after building a snapshot.
+     * @param ga  Game being joined
+     * @return  Game's current generation number, incremented by each {@link #invalidate(String)}
+     */
+    public long getGeneration(final SOCGame ga)
+    {
+        final String gaName = ga.getName();
+        GameSnapshots gs = games.get(gaName);
+        if ((gs == null) || (gs.game != ga))
+        {
+            synchronized (games)
+            {
+                gs = games.get(gaName);
+                if ((gs == null) || (gs.game != ga))
+                {
+                    gs = new GameSnapshots(ga);  // first join, or game was reset
+                    games.put(gaName, gs);
+                }
+            }
+        }
+
+        synchronized (gs)
+        {
+            return gs.generation;
+        }
+    }
+
+    /**
+     * Cache a newly built snapshot, unless the game was changed or reset while it was being built.
+     * @param ga  Game being joined
+     * @param key  Key for the client's version, locale, etc
+     * @param gen  {@link #getGeneration(SOCGame)} from before building the snapshot
+     * @param startNanos  {@link System#nanoTime()} from before building the snapshot, for stats
+     * @param snap  Snapshot to cache; not null
+     */
+    public void put(final SOCGame ga, final String key, final long gen, final long startNanos, final Snapshot snap)
+    {
+        buildTime.record(System.nanoTime() - startNanos);
+        final GameSnapshots gs = games.get(ga.getName());
+        if ((gs == null) || (gs.game != ga))
+            return;
+
+        synchronized (gs)
+        {
+            if (gen == gs.generation)
+                gs.byKey.put(key, snap);
+        }
+    }
+
+    /**
+     * A game has changed: Drop its snapshots. Cheap if the game has none.
+     * Call whenever sending a data message to a game's members.
+     * @param gaName  Game name; not null
+     */
+    public void invalidate(final String gaName)
+    {
+        final GameSnapshots gs = games.get(gaName);
+        if (gs == null)
+            return;
+
+        final boolean hadAny;
+        synchronized (gs)
+        {
+            ++gs.generation;
+            hadAny = ! gs.byKey.isEmpty();
+            if (hadAny)
+                gs.byKey.clear();
+        }
+        if (hadAny)
+            invalidations.incrementAndGet();
+    }
+
+    /**
+     * A message is being sent to a game's members: Unless it's a type which doesn't change the game's
+     * public state (text, or another member joining), call {@link #invalidate(String)}.
+     * @param gaName  Game name; not null
+     * @param mes  Message being sent; not null
+     */
+    public void invalidate(final String gaName, final SOCMessage mes)
+    {
+        switch (mes.getType())
+        {
+        case SOCMessage.JOINGAME:
+            // fall through
+        case SOCMessage.GAMETEXTMSG:
+            // fall through
+        case SOCMessage.GAMESERVERTEXT:
+            return;  // members list and chat aren't part of snapshot
+        }
+
+        invalidate(gaName);
+    }
+
+    /**
+     * A game has been destroyed: Drop its snapshots and tracking.
+     * @param gaName  Game name; not null
+     */
+    public void gameRemoved(final String gaName)
+    {
+        final GameSnapshots gs = games.remove(gaName);
+        if (gs != null)
+            synchronized (gs)
+            {
+                ++gs.generation;
+                gs.byKey.clear();
+            }
+    }
+
+    /** @return number of games being tracked, which have had a join since their last reset */
+    public int getGameCount()
+    {
+        return games.size();
+    }
+
+    /** @return total number of snapshots cached for all games */
+    public int size()
+    {
+        int n = 0;
+        for (final GameSnapshots gs : games.values())
+            synchronized (gs)
+            {
+                n += gs.byKey.size();
+            }
+
+        return n;
+    }
+
+    /** @return number of joins sent from cache */
+    public long getHits()
+    {
+        return hits.get();
+    }
+
+    /** @return number of joins which had to build a snapshot */
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    /**
+     * Get stats for *STATS* and the server stats file.
+     * @return  Formatted stats, like {@code "3 snapshots in 2 games, hits 40, misses 12, invalidated 9, build n=12, ..."}
+     */
+    public String getStatsFormatted()
+    {
+        return size() + " snapshots in " + games.size() + " games, hits " + hits.get() + ", misses " + misses.get()
+            + ", invalidated " + invalidations.get() + ", build " + buildTime.toStringMillis();
+    }
+
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        s.gauge("jsettlers_join_snapshot_cache_entries", "Cached game-join snapshots", size());
+        s.counter("jsettlers_join_snapshot_cache_hits_total", "Game joins sent from cache", hits.get());
+        s.counter("jsettlers_join_snapshot_cache_misses_total", "Game joins which built a snapshot", misses.get());
+        s.counter("jsettlers_join_snapshot_cache_invalidations_total",
+            "Game changes which dropped cached snapshots", invalidations.get());
+        s.latency("jsettlers_join_snapshot_cache_build_seconds", "Time to build and send a join snapshot",
+            null, null, buildTime);
+    }
+
+    /** One game's snapshots and generation. Synchronize on this object to use its fields. */
+    private static final class GameSnapshots
+    {
+        /** The game object, to detect a board reset which replaces it */
+        final SOCGame game;
+
+        /** Incremented by each {@link JoinSnapshotCache#invalidate(String)} */
+        long generation;
+
+        /** Snapshots by key, in access order for LRU eviction */
+        final LinkedHashMap<String, Snapshot> byKey = new LinkedHashMap<String, Snapshot>(8, 0.75f, true)
+        {
+            private static final long serialVersionUID = 2700L;
+
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest)
+            {
+                return size() > MAX_SNAPSHOTS_PER_GAME;
+            }
+        };
+
+        GameSnapshots(final SOCGame game)
+        {
+            this.game = game;
+        }
+    }
+
+    /**
+     * A cached sequence of join messages, and info about the game found while building it. Immutable.
+     */
+    public static final class Snapshot
+    {
+        /** Message command strings to send, from {@link soc.message.SOCMessage#toCmd()}; unmodifiable */
+        public final List<String> messages;
+
+        /** True if any seat had a robot player when this was built */
+        public final boolean hasRobot;
+
+        /**
+         * Create a snapshot.
+         * @param messages  Message command strings; will be copied
+         * @param hasRobot  True if any seat had a robot player
+         */
+        public Snapshot(final List<String> messages, final boolean hasRobot)
+        {
+            this.messages = Collections.unmodifiableList(new ArrayList<String>(messages));
+            this.hasRobot = hasRobot;
+        }
+    }
+
+}
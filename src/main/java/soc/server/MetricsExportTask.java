@@ -0,0 +1,310 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import soc.game.SOCGame;
+import soc.game.SOCPlayer;
+import soc.util.MetricsRegistry;
+import soc.util.TimingWheel;
+
+/**
+ * Periodically collects server metrics into a {@link MetricsRegistry.Snapshot} for dashboards and alerting,
+ * and writes it to {@link SOCServer#PROP_JSETTLERS_STATS_METRICS_FILE} and/or serves it on
+ * {@link SOCServer#PROP_JSETTLERS_STATS_METRICS_PORT}, in the format from
+ * {@link SOCServer#PROP_JSETTLERS_STATS_METRICS_FORMAT}:
+ *<UL>
+ * <LI> {@code prometheus}: Text exposition format. The file is replaced each interval
+ *      (written to a temp file, then renamed), for node_exporter's textfile collector or similar.
+ * <LI> {@code json}: One JSON object per line, appended to the file each interval.
+ *</UL>
+ * The HTTP listener binds only to the loopback address, and answers any request
+ * with the most recent snapshot; it doesn't collect on demand.
+ *<P>
+ * Sources are this task (connections, games, robots, queues), the server's {@link SOCMessageDispatcher},
+ * its {@link soc.server.database.SOCDBHelper SOCDBHelper}, and its {@link BoardPool} if any. Collection runs on the server's
+ * {@link SOCServer#miscTaskTimer} thread and doesn't take the game list's monitor or any game's lock,
+ * so values from busy games may be slightly out of date.
+ *
+ * @since 2.7.00
+ */
+/*package*/ class MetricsExportTask
+    extends TimerTask implements MetricsRegistry.Source
+{
+    /** Default collection interval in seconds, if {@link SOCServer#PROP_JSETTLERS_STATS_METRICS_INTERVAL} not set: 60 */
+    public static final int DEFAULT_INTERVAL_SECONDS = 60;
+
+    /** Prometheus text format's HTTP Content-Type */
+    private static final String CONTENT_TYPE_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final SOCServer srv;
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    /** If true, format as JSON lines instead of Prometheus text */
+    private final boolean isJSON;
+
+    /** File to write, already absolute, or {@code null} */
+    private final File metricsFile;
+
+    /** Listener for {@link SOCServer#PROP_JSETTLERS_STATS_METRICS_PORT}, or {@code null} */
+    private final ServerSocket listener;
+
+    /** Most recently formatted snapshot, served by {@link #listener}; "" before first collection */
+    private volatile String latest = "";
+
+    /** Has a file write failure been printed? Avoids printing the same warning every interval. */
+    private boolean warnedWriteFailure;
+
+    /**
+     * Create the task, open its listener if any, and schedule it on {@code timer}:
+     * First collection is 1 second from now, then every {@code intervalSeconds}.
+     *
+     * @param srv  Server to collect from; not null
+     * @param metricsFile  Absolute file to write, or {@code null} for none
+     * @param port  Loopback TCP port to serve on, or 0 for none
+     * @param isJSON  True for JSON lines format, false for Prometheus text
+     * @param intervalSeconds  Collection interval; at least 1
+     * @param timer  Timer on which to schedule
+     * @throws IOException if can't listen on {@code port}
+     */
+    public MetricsExportTask
+        (final SOCServer srv, final File metricsFile, final int port, final boolean isJSON,
+         final int intervalSeconds, final Timer timer)
+        throws IOException
+    {
+        this.srv = srv;
+        this.metricsFile = metricsFile;
+        this.isJSON = isJSON;
+
+        registry.register(this);
+        registry.register(srv.getMessageDispatcher());
+        if ((srv.db != null) && srv.db.isInitialized())
+            registry.register(srv.db);
+        if (srv.boardPool != null)
+            registry.register(srv.boardPool);
+        registry.register(srv.gameList.getListCache());
+        registry.register(srv.infoResponseCache);
+        registry.register(srv.gameList.getJoinSnapshots());
+        if (srv.getOutputBatcher() != null)
+            registry.register(srv.getOutputBatcher());
+        if (srv.inboundRateLimiter != null)
+            registry.register(srv.inboundRateLimiter);
+        if (srv.gameHibernator != null)
+            registry.register(srv.gameHibernator);
+
+        if (port > 0)
+        {
+            listener = new ServerSocket(port, 8, InetAddress.getLoopbackAddress());
+            final Thread th = new Thread("metricsExport-http")
+            {
+                public void run() { serveRequests(); }
+            };
+            th.setDaemon(true);
+            th.start();
+        } else {
+            listener = null;
+        }
+
+        timer.scheduleAtFixedRate(this, 1000, intervalSeconds * 1000L);
+    }
+
+    /**
+     * Stop collecting, and close {@link #listener} if any so its port is freed.
+     * Called from {@link SOCServer#stopServer(String)}.
+     */
+    public void stop()
+    {
+        cancel();
+        if (listener != null)
+        {
+            try
+            {
+                listener.close();  // ends serveRequests loop
+            } catch (IOException e) {}
+        }
+    }
+
+    /** Collect a snapshot; write it to {@link #metricsFile} if set, and keep it for {@link #listener}. */
+    public void run()
+    {
+        final MetricsRegistry.Snapshot s = registry.collect();
+        final String text = (isJSON) ? (s.toJSONLine() + '\n') : s.toPrometheusText();
+        latest = text;
+
+        if (metricsFile == null)
+            return;
+
+        try
+        {
+            if (isJSON)
+            {
+                try (OutputStreamWriter writer = new OutputStreamWriter
+                    (new FileOutputStream(metricsFile, true), StandardCharsets.UTF_8))
+                {
+                    writer.append(text);
+                }
+            } else {
+                // write whole file then rename, so a reader never sees partial contents
+                final File tmp = new File(metricsFile.getPath() + ".tmp");
+                Files.write(tmp.toPath(), text.getBytes(StandardCharsets.UTF_8));
+                Files.move(tmp.toPath(), metricsFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            warnedWriteFailure = false;
+        } catch (IOException | SecurityException e) {
+            if (! warnedWriteFailure)
+            {
+                System.err.println("* Can't write to stats.metrics.file " + metricsFile.getPath() + ": " + e);
+                warnedWriteFailure = true;
+            }
+        }
+    }
+
+    /**
+     * Server-wide metrics: Connections, robots, games by type and state, game counts,
+     * inbound queue depth, timing wheel, and memory.
+     * Reads a copy of the game list without taking its monitor.
+     */
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        s.gauge("jsettlers_uptime_seconds", "Seconds since server startup",
+            (System.currentTimeMillis() - srv.startTime) / 1000);
+        s.counter("jsettlers_connections_total", "Client connections since startup", srv.getRunConnectionCount());
+        final String connHelp = "Current client connections";
+        s.gauge("jsettlers_connections", connHelp, "kind", "named", srv.getNamedConnectionCount());
+        s.gauge("jsettlers_connections", connHelp, "kind", "all", srv.getCurrentConnectionCount());
+        s.gauge("jsettlers_robots_connected", "Robot clients connected", srv.robots.size());
+
+        final SOCGame[] games = srv.gameList.getGamesData().toArray(new SOCGame[0]);
+        int nClassic = 0, nClassic6 = 0, nSea = 0, nSea6 = 0, nForming = 0, nPlaying = 0, nOver = 0;
+        final HashSet<String> busyBots = new HashSet<>();
+        for (final SOCGame ga : games)
+        {
+            final boolean is6 = (ga.maxPlayers > 4);
+            if (ga.hasSeaBoard)
+            {
+                if (is6) ++nSea6; else ++nSea;
+            } else {
+                if (is6) ++nClassic6; else ++nClassic;
+            }
+
+            final int gstate = ga.getGameState();
+            if (gstate >= SOCGame.OVER)
+                ++nOver;
+            else if (gstate >= SOCGame.START1A)
+                ++nPlaying;
+            else
+                ++nForming;
+
+            if (gstate >= SOCGame.OVER)
+                continue;
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
+            {
+                if (ga.isSeatVacant(pn))
+                    continue;
+                final SOCPlayer pl = ga.getPlayer(pn);
+                if (pl.isRobot() && (pl.getName() != null))
+                    busyBots.add(pl.getName());
+            }
+        }
+        s.gauge("jsettlers_robots_busy", "Robots seated in games not yet over", busyBots.size());
+
+        final String gamesHelp = "Current games, by board type";
+        s.gauge("jsettlers_games", gamesHelp, "type", "classic", nClassic);
+        s.gauge("jsettlers_games", gamesHelp, "type", "classic_6p", nClassic6);
+        s.gauge("jsettlers_games", gamesHelp, "type", "sea", nSea);
+        s.gauge("jsettlers_games", gamesHelp, "type", "sea_6p", nSea6);
+        final String stateHelp = "Current games, by state";
+        s.gauge("jsettlers_games_by_state", stateHelp, "state", "forming", nForming);
+        s.gauge("jsettlers_games_by_state", stateHelp, "state", "playing", nPlaying);
+        s.gauge("jsettlers_games_by_state", stateHelp, "state", "over", nOver);
+        s.counter("jsettlers_games_started_total", "Games started since startup", srv.numberOfGamesStarted);
+        s.counter("jsettlers_games_finished_total", "Games finished since startup", srv.numberOfGamesFinished);
+
+        s.gauge("jsettlers_inbound_queue_depth", "Inbound messages waiting for the treater thread",
+            srv.inQueue.size());
+
+        final TimingWheel tw = TimingWheel.getShared();
+        s.gauge("jsettlers_timing_wheel_tasks", "Tasks scheduled on the shared timing wheel", tw.getTaskCount());
+        s.gauge("jsettlers_timing_wheel_tick_max_seconds", "Longest timing wheel tick", tw.getMaxTickNanos() / 1e9);
+
+        final Runtime rt = Runtime.getRuntime();
+        final String memHelp = "JVM heap memory";
+        s.gauge("jsettlers_memory_bytes", memHelp, "kind", "total", rt.totalMemory());
+        s.gauge("jsettlers_memory_bytes", memHelp, "kind", "free", rt.freeMemory());
+        s.gauge("jsettlers_memory_bytes", memHelp, "kind", "max", rt.maxMemory());
+    }
+
+    /**
+     * Accept loop for {@link #listener}'s daemon thread: Answer each request with {@link #latest},
+     * after reading and ignoring its request line and headers.
+     */
+    private void serveRequests()
+    {
+        final byte[] header4 = new byte[4];
+        while (! listener.isClosed())
+        {
+            try (Socket sock = listener.accept())
+            {
+                sock.setSoTimeout(2000);
+
+                // read until end of headers (blank line) or EOF
+                final InputStream in = sock.getInputStream();
+                int c, n = 0;
+                while ((n < 8192) && (-1 != (c = in.read())))
+                {
+                    header4[n & 3] = (byte) c;
+                    ++n;
+                    if ((c == '\n') && (n >= 2)
+                        && ((header4[(n - 2) & 3] == '\n')
+                            || ((n >= 4) && (header4[(n - 2) & 3] == '\r') && (header4[(n - 3) & 3] == '\n'))))
+                        break;
+                }
+
+                final byte[] body = latest.getBytes(StandardCharsets.UTF_8);
+                final String hdr = "HTTP/1.0 200 OK\r\nContent-Type: "
+                    + ((isJSON) ? "application/json; charset=utf-8" : CONTENT_TYPE_PROMETHEUS)
+                    + "\r\nContent-Length: " + body.length + "\r\nConnection: close\r\n\r\n";
+                final OutputStream out = sock.getOutputStream();
+                out.write(hdr.getBytes(StandardCharsets.US_ASCII));
+                out.write(body);
+                out.flush();
+            } catch (IOException e) {
+                // client went away or timed out; keep listening
+            }
+        }
+    }
+
+}
@@ -30,6 +30,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Stack;
 
+import soc.game.HexClumpChecker;
 import soc.game.SOCBoard;
 import soc.game.SOCBoard4p;
 import soc.game.SOCBoard6p;
@@ -245,6 +246,17 @@ public class SOCBoardAtServer extends SOCBoardLarge
         newBoardProgressListener = li;
     }
 
+    /**
+     * Is a {@link NewBoardProgressListener} set? If so, {@link BoardPool} won't hand out pre-generated boards,
+     * so the listener sees each new game's layout being made.
+     * @return  true if {@link #setNewBoardProgressListener(NewBoardProgressListener)} was called with a listener
+     * @since 2.7.00
+     */
+    /*package*/ static boolean hasNewBoardProgressListener()
+    {
+        return (newBoardProgressListener != null);
+    }
+
     /**
      * Land area number excluded from "build settlement outside of starting area" bonus scoring, or 0 if none:
      * {@link SOCGameOptionSet#K_SC_SANY}, {@link SOCGameOptionSet#K_SC_SEAC}.
@@ -1005,7 +1017,8 @@ public class SOCBoardAtServer extends SOCBoardLarge
      *<P>
      * This method clears {@link #cachedGetLandHexCoords} to <tt>null</tt>.
      *
-     * @param landHexType  Resource type to place into {@link #hexLayoutLg} for each land hex; will be shuffled.
+     * @param landHexType  Resource type to place into {@link #hexLayoutLg} for each land hex;
+     *                    a copy will be shuffled.
      *                    Values are {@link #CLAY_HEX}, {@link #DESERT_HEX}, etc.
      *                    There should be no {@link #FOG_HEX} in here; land hexes are hidden by fog later.
      * @param landPath  Coordinates within {@link #hexLayoutLg} (also within {@link #numberLayoutLg}) for each land hex;
@@ -1096,7 +1109,8 @@ public class SOCBoardAtServer extends SOCBoardLarge
      *<P>
      * This method clears {@link #cachedGetLandHexCoords} to <tt>null</tt>.
      *
-     * @param landHexType  Resource type to place into {@link #hexLayoutLg} for each land hex; will be shuffled.
+     * @param landHexType  Resource type to place into {@link #hexLayoutLg} for each land hex;
+     *                    a copy will be shuffled.
      *                    Values are {@link #CLAY_HEX}, {@link #DESERT_HEX}, etc.
      *                    There should be no {@link #FOG_HEX} in here; land hexes are hidden by fog later.
      *                    For the Fog Island (scenario option {@link SOCGameOptionSet#K_SC_FOG _SC_FOG}),
@@ -1148,12 +1162,12 @@ public class SOCBoardAtServer extends SOCBoardLarge
      *             or if <tt>landHexType.length != landPath.length</tt>, <BR>
      *             or if <tt>landHexType</tt> contains {@link #FOG_HEX}, <BR>
      *             or if <tt>number</tt> contains a negative value, <BR>
-     *             or if {@link SOCBoard#makeNewBoard_checkLandHexResourceClumps(List, int)}
+     *             or if {@link HexClumpChecker}
      *                 finds an invalid or uninitialized hex coordinate (hex type -1)
      * @see #makeNewBoard_placeHexes(int[], int[], boolean, int[], boolean, boolean, int, boolean, boolean, int, SOCGameOption, String, SOCGameOptionSet)
      */
     private final void makeNewBoard_placeHexes
-        (final int[] landHexType, final int[] landPath, final boolean placeRobberDesert,
+        (int[] landHexType, final int[] landPath, final boolean placeRobberDesert,
          int[] number, final boolean shuffleDiceNumbers,
          final boolean shuffleLandHexes, final int[] landAreaPathRanges,
          final boolean addToExistingLA, final boolean nodesAreInfill,
@@ -1198,6 +1212,16 @@ public class SOCBoardAtServer extends SOCBoardLarge
                       + ": total range length " + L + " should be " + landPath.length);
         }
 
+        // Shuffle copies, not the caller's arrays: Those are usually static layout data shared by all boards,
+        // and boards may be laid out on more than one thread (see BoardPool)
+        if (shuffleLandHexes)
+            landHexType = landHexType.clone();
+        if (shuffleDiceNumbers && (number != null))
+            number = number.clone();
+        final HexClumpChecker clumpChecker = (shuffleLandHexes && checkClumps)
+            ? HexClumpChecker.forHexes(this, landPath, clumpSize)
+            : null;
+
         // Shuffle, place, then check layout for clumps:
         int iterRemain = 20;
         do   // will re-do placement until clumpsNotOK is false or iterRemain == 0
@@ -1221,6 +1245,9 @@ public class SOCBoardAtServer extends SOCBoardLarge
                 }
             }
 
+            if (clumpChecker != null)
+                clumpChecker.repair(landHexType, rand);  // swap hexes to break up clumps; if that fails, will reshuffle
+
             if (shuffleDiceNumbers)
             {
                 // shuffle the dice #s 10x
@@ -1297,15 +1324,11 @@ public class SOCBoardAtServer extends SOCBoardLarge
                 newBoardProgressListener.hexesProgress
                     (this, opts, NewBoardProgressListener.HEXES_PLACE, landPath);
 
-            if (shuffleLandHexes && checkClumps)
+            if (clumpChecker != null)
             {
                 // Check the newly placed land area(s) for clumps;
                 // ones placed in previous method calls are ignored
-                List<Integer> unvisited = new ArrayList<Integer>();  // contains each hex's coordinate
-                for (int i = 0; i < landPath.length; ++i)
-                    unvisited.add(Integer.valueOf(landPath[i]));
-
-                clumpsNotOK = makeNewBoard_checkLandHexResourceClumps(unvisited, clumpSize);
+                clumpsNotOK = clumpChecker.hasClumps(landHexType);
             } else {
                 clumpsNotOK = false;
             }
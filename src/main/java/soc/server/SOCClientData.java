@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas
- * This file copyright (C) 2008-2010,2013,2015,2017-2020,2022 Jeremy D Monin <jeremy@nand.net>
+ * This file copyright (C) 2008-2010,2013,2015,2017-2020,2022,2026 Jeremy D Monin <jeremy@nand.net>
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -295,6 +295,13 @@ public class SOCClientData
      */
     private SOCCDCliVersionTask cliVersionTask;
 
+    /**
+     * This client's inbound message token buckets, or {@code null} if not yet created by
+     * {@link InboundRateLimiter#check(SOCMessage, SOCClientData)}. Used only by the client's reader thread.
+     * @since 2.7.00
+     */
+    InboundRateLimiter.Buckets rateBuckets;
+
     public SOCClientData()
     {
         isRobot = false;
@@ -28,6 +28,7 @@ import java.util.Vector;
 import soc.disableDebug.D;
 import soc.message.SOCServerPing;
 import soc.server.genericServer.Connection;
+import soc.util.TimingWheel;
 
 
 /**
@@ -36,11 +37,13 @@ import soc.server.genericServer.Connection;
  * Sends a {@link SOCServerPing} to each bot every 2 minutes or so, or to humans at an interval from server config.
  * When pinging only humans, checks each connection's {@link SOCClientData#isRobot}.
  *<P>
- * Before v2.7.00 this class was {@code SOCServerRobotPinger}.
+ * Before v2.7.00 this class was {@code SOCServerRobotPinger}, and each pinger was its own thread.
+ * Now pingers are tasks on the shared {@link TimingWheel#getShared()} timer thread.
  *
  * @author Robert S Thomas
  */
-/*package*/ class SOCClientPinger extends Thread
+/*package*/ class SOCClientPinger
+    implements Runnable
 {
     /**
      * True if pinging all robot connections, false if pinging only human clients.
@@ -65,7 +68,7 @@ import soc.server.genericServer.Connection;
 
     /**
      * Sleep time (milliseconds) between pings to all robots: 150 seconds.
-     * {@link #run()} method sleeps for 60 seconds less than this.
+     * Pings are sent 60 seconds more often than this.
      * @see #sleepTime
      * @since 2.7.00
      */
@@ -73,18 +76,19 @@ import soc.server.genericServer.Connection;
 
     /**
      * Sleep time (milliseconds) between pings to all robots or human clients.
-     * {@link #run()} method sleeps for 60 seconds less than this.
+     * Pings are sent 60 seconds more often than this.
      */
     private final int sleepTime;
 
-    /** Ping message (with {@link #sleepTime} param) to send to each bot */
-    private final SOCServerPing ping;
-
     /**
-     * Alive flag; loop while true.
-     * @see #stopPinger()
+     * Our periodic task on the timing wheel, or {@code null} if not started.
+     * @see #start()
+     * @since 2.7.00
      */
-    private volatile boolean alive;
+    private volatile TimingWheel.Timeout timeout;
+
+    /** Ping message (with {@link #sleepTime} param) to send to each bot */
+    private final SOCServerPing ping;
 
     /**
      * Our server.
@@ -132,7 +136,6 @@ import soc.server.genericServer.Connection;
         if ((clis == null) && (namedClis == null))
             throw new IllegalArgumentException("clients");
 
-        setDaemon(true);
         isRobotsMode = (intervalSeconds == 0);
 
         srv = s;
@@ -140,50 +143,41 @@ import soc.server.genericServer.Connection;
         namedConnections = namedClis;
         sleepTime = (intervalSeconds == 0) ? SLEEP_TIME_MILLIS_BOTS : (intervalSeconds + 60) * 1000;
         ping = new SOCServerPing((intervalSeconds == 0) ? sleepTime : intervalSeconds);
-        alive = true;
-        setName (isRobotsMode ? "robotPinger-srv" : "clientPinger-srv");  // Thread name for debug
     }
 
     /**
-     * Client ping loop thread:
-     * Send a {@link SOCServerPing} to each bot or human player passed to us,
-     * then sleep for {@link #sleepTime} minus 60 seconds.
-     * Exits loop when {@link #stopPinger()} is called.
+     * Start pinging, every {@link #sleepTime} minus 60 seconds, until {@link #stopPinger()} is called.
+     * Before v2.7.00 this started the pinger's thread.
+     * @since 2.7.00
+     */
+    public synchronized void start()
+    {
+        if (timeout == null)
+            timeout = TimingWheel.getShared().schedule(this, 0, sleepTime - 60000);
+    }
+
+    /**
+     * Client ping task, run by the timing wheel:
+     * Send a {@link SOCServerPing} to each bot or human player passed to us.
+     * If the connection list is modified while iterating, retries in 250 milliseconds.
      */
-    @Override
     public void run()
     {
-        while (alive)
+        final TimingWheel.Timeout t = timeout;
+        if ((t != null) && t.isCancelled())
+            return;  // stopped before a retry ran
+
+        try
         {
-            boolean retry = false;
-
-            try
-            {
-                if (cliConnections != null)
-                    for (Connection conn : cliConnections)
-                        pingOne(conn);
-                else
-                    for (Connection conn : namedConnections.values())
-                        pingOne(conn);
-            } catch (ConcurrentModificationException e) {
-                retry = true;
-            }
-
-            Thread.yield();
-
-            final int msec = (retry) ? 250 : (sleepTime - 60000);
-            try
-            {
-                sleep(msec);
-            }
-            catch (InterruptedException exc) {}
+            if (cliConnections != null)
+                for (Connection conn : cliConnections)
+                    pingOne(conn);
+            else
+                for (Connection conn : namedConnections.values())
+                    pingOne(conn);
+        } catch (ConcurrentModificationException e) {
+            TimingWheel.getShared().schedule(this, 250, 0);
         }
-
-        //
-        //  cleanup
-        //
-        cliConnections = null;
-        namedConnections = null;
     }
 
     /**
@@ -210,11 +204,12 @@ import soc.server.genericServer.Connection;
     }
 
     /**
-     * Cleanly exit the thread's run loop.
+     * Stop pinging by cancelling our timing wheel task.
      */
-    public void stopPinger()
+    public synchronized void stopPinger()
     {
-        alive = false;
+        if (timeout != null)
+            timeout.cancel();
     }
 
 }
@@ -140,7 +140,7 @@ public class SOCGameHandler extends GameHandler
      *<P>
      * This field was originally in SOCServer, moved in v2.0.00.
      * @see SOCServer#ROBOT_FORCE_ENDTURN_SECONDS
-     * @see SOCServer#checkForExpiredTurns(long)
+     * @see SOCServer#checkForExpiredTurn(SOCGame, long)
      * @since 1.1.11
      */
     public static int ROBOT_FORCE_ENDTURN_TRADEOFFER_SECONDS = 60;
@@ -1115,7 +1115,6 @@ public class SOCGameHandler extends GameHandler
      * @see SOCServer#createOrJoinGameIfUserOK(Connection, String, String, String, SOCGameOptionSet)
      * @since 1.1.00
      */
-    @SuppressWarnings("unchecked")  // for new ArrayList<SOCSpecialItem>[]
     public void joinGame
         (final SOCGame gameData, final Connection c,
          final boolean isReset, final boolean isLoading, final boolean isRejoinOrLoadgame)
@@ -1123,7 +1122,6 @@ public class SOCGameHandler extends GameHandler
         // note: this method's indentation style for srv.messageToPlayer calls
         // is to more easily see the actual message being sent.
 
-        boolean hasRobot = false;  // If game's already started, true if any bot is seated (can be taken over)
         final String gameName = gameData.getName(), cliName = c.getData();
         final int gameState = gameData.getGameState(), cliVers = c.getVersion();
         final boolean isFullyObservable = gameData.isGameOptionSet(SOCGameOptionSet.K_PLAY_FO);
@@ -1161,6 +1159,190 @@ public class SOCGameHandler extends GameHandler
             }
         }
 
+        /**
+         * Send the public game state: Seats, board layout, pieces, per-player info, etc.
+         * Unless the game is being reset or loaded, this part is the same for each client
+         * with the same version and locale: Send it from the game's join snapshot if cached,
+         * otherwise build that snapshot while sending.
+         */
+        final JoinSnapshotCache snapCache = srv.gameList.getJoinSnapshots();
+        String snapKey = null;
+        JoinSnapshotCache.Snapshot cachedSnap = null;
+        if ((! (isReset || isLoading)) && (gameState != SOCGame.LOADING)
+            && (cliVers >= SOCStringManager.VERSION_FOR_I18N) && ! srv.isRecordGameEventsActive())
+        {
+            int takeoverSeats = 0;  // if rejoining, bitmask of seats being taken over by this client
+            if (isRejoinOrLoadgame)
+                for (int pn = 0; pn < gameData.maxPlayers; ++pn)
+                    if (cliName.equals(gameData.getPlayer(pn).getName()))
+                        takeoverSeats |= (1 << pn);
+
+            snapKey = cliVers + "|" + c.getI18NLocale() + "|" + takeoverSeats;
+            cachedSnap = snapCache.get(gameData, snapKey);
+        }
+
+        final boolean hasRobot;  // If game's already started, true if any bot is seated (can be taken over)
+        if (cachedSnap != null)
+        {
+            c.put(cachedSnap.messages);
+            hasRobot = cachedSnap.hasRobot;
+        }
+        else if (snapKey != null)
+        {
+            final long gen = snapCache.getGeneration(gameData), startTime = System.nanoTime();
+            final List<String> snap = new ArrayList<>();
+            hasRobot = joinGame_sendPublicState(gameData, c, isReset, isLoading, isRejoinOrLoadgame, snap);
+            snapCache.put(gameData, snapKey, gen, startTime, new JoinSnapshotCache.Snapshot(snap, hasRobot));
+        } else {
+            hasRobot = joinGame_sendPublicState(gameData, c, isReset, isLoading, isRejoinOrLoadgame, null);
+        }
+
+        /**
+         * If we're rejoining and taking over a seat after a network problem,
+         * send our resource and hand information.
+         */
+        if (isRejoinOrLoadgame && ! isLoading)
+        {
+            SOCPlayer cliPl = gameData.getPlayer(cliName);
+            if (cliPl != null)
+            {
+                int pn = cliPl.getPlayerNumber();
+                if ((pn != -1) && ! gameData.isSeatVacant(pn))
+                    sitDown_sendPrivateInfo(gameData, c, pn, true);
+            }
+        }
+
+        /**
+         * game timing info
+         */
+        if (cliVers >= SOCGameStats.VERSION_FOR_TYPE_TIMING)
+        {
+            sendGameStatsTiming(c, gameData);
+        }
+
+        if ((! gameData.isBoardReset()) || (gameData.getGameState() >= SOCGame.START1A) || (cliVers < 1118))
+        {
+            /**
+             * Send chat recap; same sequence is in SOCServerMessageHandler.handleJOINCHANNEL_postAuth with
+             * different message type.
+             * Not sent during game reset: Chat text is still in player clients' game windows in v1.1.18 and newer.
+             */
+
+            final SOCChatRecentBuffer buf = srv.gameList.getChatBuffer(gameName);
+            final List<SOCChatRecentBuffer.Entry> recents;
+            synchronized(buf)
+            {
+                recents = buf.getAll();
+            }
+
+            if (! recents.isEmpty())
+            {
+                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    new SOCGameTextMsg(gameName, SOCGameTextMsg.SERVER_FOR_CHAT,
+                        c.getLocalized("member.join.recap_begin")));  // [:: ]"Recap of recent chat ::"
+                for (SOCChatRecentBuffer.Entry e : recents)
+                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                        new SOCGameTextMsg(gameName, e.nickname, e.text));
+                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    new SOCGameTextMsg(gameName, SOCGameTextMsg.SERVER_FOR_CHAT,
+                        c.getLocalized("member.join.recap_end")));    // [:: ]"Recap ends ::"
+            }
+        }
+
+        /**
+         * Almost done; send GAMEMEMBERS as a hint to client that we're almost ready for its input.
+         * The only new data in GAMEMEMBERS is observer names, because
+         * player names have already been sent by the SITDOWN messages above.
+         */
+        List<String> memberNames = null;
+        srv.gameList.takeMonitorForGame(gameName);
+        try
+        {
+            final List<Connection> gameMembers = srv.gameList.getMembers(gameName);
+            synchronized(gameMembers)
+            {
+                final int n = gameMembers.size();
+                memberNames = new ArrayList<String>(n);
+                for (int i = 0; i < n; ++i)
+                    memberNames.add(gameMembers.get(i).getData());
+            }
+        }
+        catch (Exception e)
+        {
+            D.ebugPrintlnINFO("Exception in SGH.joinGame (gameMembers) - " + e);
+        } finally {
+            srv.gameList.releaseMonitorForGame(gameName);
+        }
+
+        if (memberNames != null)
+            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                new SOCGameMembers(gameName, memberNames));
+
+        // before v2.0.00, current player number (SETTURN) was sent here,
+        // between membersCommand and GAMESTATE.
+
+        srv.messageToPlayer
+            (c, gameName, SOCServer.PN_OBSERVER,
+             new SOCGameState(gameName, gameState));
+        if (gameState == SOCGame.OVER)
+            sendGameStateOVER(gameData, c);
+
+        if (D.ebugOn)
+            D.ebugPrintlnINFO("*** " + cliName + " joined the game " + gameName + " at " + formatTimeHHMMSS(null));
+
+        if (isRejoinOrLoadgame && (gameState != SOCGame.LOADING))
+        {
+            return;
+        }
+
+        /**
+         * Let everyone else know about the change
+         */
+        srv.messageToGame(gameName, true, new SOCJoinGame(cliName, "", SOCMessage.EMPTYSTR, gameName));
+        if (isRejoinOrLoadgame)
+        {
+            return;
+        }
+
+        if ((! isReset) && (gameState >= SOCGame.START2A) && (gameState < SOCGame.OVER))
+        {
+            srv.messageToPlayerKeyed
+                (c, gameName, SOCServer.PN_OBSERVER,
+                 (hasRobot) ? "member.join.game.started.bots"  // "This game has started. To play, take over a robot."
+                            : "member.join.game.started");     // "This game has started; no new players can sit down."
+        }
+    }
+
+    /**
+     * Send the public part of a game's state to a client joining the game:
+     * Seat locks and seated players, board layout and potential settlements, pieces, per-player info,
+     * special items, dev card count, longest road and largest army, last action, etc.
+     * Called from {@link #joinGame(SOCGame, Connection, boolean, boolean, boolean)}, which may instead
+     * send a cached copy of these messages from {@link JoinSnapshotCache}.
+     * See that method for parameter details.
+     *<P>
+     * Before v2.7.00 this code was part of {@code joinGame}.
+     *
+     * @param gameData  Game to join
+     * @param c  The connection of joining client
+     * @param isReset  Game is a board-reset of an existing game
+     * @param isLoading  Game is being reloaded from snapshot by {@code c}'s request
+     * @param isRejoinOrLoadgame  If true, client is re-joining or taking over a seat
+     * @param snap  If not {@code null}, this method adds the {@link SOCMessage#toCmd()} of each message sent
+     *     for caching as a {@link JoinSnapshotCache.Snapshot}. Events aren't recorded when {@code snap != null},
+     *     so caller must not use snapshots while {@link SOCServer#isRecordGameEventsActive()}.
+     * @return  True if any seat has a robot player (can be taken over)
+     * @since 2.7.00
+     */
+    @SuppressWarnings("unchecked")  // for new ArrayList<SOCSpecialItem>[]
+    private boolean joinGame_sendPublicState
+        (final SOCGame gameData, final Connection c, final boolean isReset, final boolean isLoading,
+         final boolean isRejoinOrLoadgame, final List<String> snap)
+    {
+        final String gameName = gameData.getName(), cliName = c.getData();
+        final int gameState = gameData.getGameState(), cliVers = c.getVersion();
+        final boolean isFullyObservable = gameData.isGameOptionSet(SOCGameOptionSet.K_PLAY_FO);
+
         /**
          * When sending seated player info and this client is loading a saved game:
          * if client isn't a player in the game, give them option to sit at any player's seat.
@@ -1182,8 +1364,10 @@ public class SOCGameHandler extends GameHandler
             allSeatsBots = false;
         }
 
+        boolean hasRobot = false;  // If game's already started, true if any bot is seated (can be taken over)
+
         if (cliVers >= SOCSetSeatLock.VERSION_FOR_ALL_SEATS)
-            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+            joinGame_send(c, gameName, snap,
                 new SOCSetSeatLock(gameName, gameData.getSeatLocks()));
 
         for (int i = 0; i < gameData.maxPlayers; i++)
@@ -1195,7 +1379,7 @@ public class SOCGameHandler extends GameHandler
             {
                 final SOCGame.SeatLockState sl = gameData.getSeatLock(i);
                 // old client doesn't have CLEAR_ON_RESET
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCSetSeatLock
                         (gameName, i,
                          (sl != SOCGame.SeatLockState.CLEAR_ON_RESET) ? sl : SOCGame.SeatLockState.UNLOCKED));
@@ -1220,7 +1404,7 @@ public class SOCGameHandler extends GameHandler
                         // left by human players when game was saved, show them as bots
                         isRobot = true;
                     }
-                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    joinGame_send(c, gameName, snap,
                         new SOCSitDown(gameName, plName, i, isRobot || allSeatsBots));
 
                     if (isRobot)
@@ -1236,7 +1420,7 @@ public class SOCGameHandler extends GameHandler
         if ((gameState != SOCGame.NEW)
             || (cliVers < SOCBoardLayout.VERSION_FOR_OMIT_IF_EMPTY_NEW_GAME))
         {
-            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+            joinGame_send(c, gameName, snap,
                 getBoardLayoutMessage(gameData));
             //    No need to catch IllegalArgumentException:
             //    Since game is already started, getBoardLayoutMessage has previously
@@ -1244,7 +1428,7 @@ public class SOCGameHandler extends GameHandler
         }
 
         for (final SOCPotentialSettlements psMsg : gatherBoardPotentials(gameData, cliVers))
-            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+            joinGame_send(c, gameName, snap,
                 psMsg);
 
         /**
@@ -1254,7 +1438,7 @@ public class SOCGameHandler extends GameHandler
         {
             if (gameData.isGameOptionSet(SOCGameOptionSet.K_SC_CLVI))
                 // Board's general supply of cloth:
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, -1, SOCPlayerElement.SET,
                          PEType.SCENARIO_CLOTH_COUNT, ((SOCBoardLarge) (gameData.getBoard())).getCloth()));
@@ -1278,7 +1462,7 @@ public class SOCGameHandler extends GameHandler
                 {
                     final int cl = vi.getCloth();
                     if (cl != SOCVillage.STARTING_CLOTH)
-                        srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                        joinGame_send(c, gameName, snap,
                             new SOCPieceValue
                                 (gameName, SOCPlayingPiece.VILLAGE, vi.getCoordinates(), cl, 0));
                 }
@@ -1299,7 +1483,7 @@ public class SOCGameHandler extends GameHandler
                 }
             }
             if (sendEdgeChanges)
-                joinGame_sendBoardSpecialEdgeChanges(gameData, bl, c);
+                joinGame_sendBoardSpecialEdgeChanges(gameData, bl, c, snap);
         }
 
         /**
@@ -1308,7 +1492,7 @@ public class SOCGameHandler extends GameHandler
          * just before SOCGameState and the "joined the game" text.
          * This earlier send has been tested against 1.1.07 (released 2009-10-31).
          */
-        srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+        joinGame_send(c, gameName, snap,
             ((cliVers >= SOCGameElements.MIN_VERSION)
              ? new SOCGameElements(gameName, GEType.CURRENT_PLAYER, gameData.getCurrentPlayerNumber())
              : new SOCSetTurn(gameName, gameData.getCurrentPlayerNumber())));
@@ -1352,7 +1536,7 @@ public class SOCGameHandler extends GameHandler
                     final SOCSpecialItem si = gsi.get(gi);
                     if (si == null)
                     {
-                        srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                        joinGame_send(c, gameName, snap,
                              new SOCSetSpecialItem(gameName, SOCSetSpecialItem.OP_CLEAR, tkey, gi, -1, -1));
                         continue;
                     }
@@ -1375,7 +1559,7 @@ public class SOCGameHandler extends GameHandler
                         }
                     }
 
-                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    joinGame_send(c, gameName, snap,
                         new SOCSetSpecialItem(gameData, SOCSetSpecialItem.OP_SET, tkey, gi, pi, si));
 
                     if (pi != -1)
@@ -1427,39 +1611,39 @@ public class SOCGameHandler extends GameHandler
             int itm = pl.getSpecialVP();
             if (itm != 0)
             {
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, i, SOCPlayerElement.SET, PEType.SCENARIO_SVP, itm));
 
                 ArrayList<SOCPlayer.SpecialVPInfo> svpis = pl.getSpecialVPInfo();
                 if (svpis != null)
                     for (SOCPlayer.SpecialVPInfo svpi : svpis)
-                        srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                        joinGame_send(c, gameName, snap,
                             new SOCSVPTextMessage
                                 (gameName, i, svpi.svp, c.getLocalized(svpi.desc), true));
             }
 
             itm = pl.getPlayerEvents();
             if (itm != 0)
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, i, SOCPlayerElement.SET, PEType.PLAYEREVENTS_BITMASK, itm));
 
             itm = pl.getScenarioSVPLandAreas();
             if (itm != 0)
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, i, SOCPlayerElement.SET, PEType.SCENARIO_SVP_LANDAREAS_BITMASK, itm));
 
             itm = pl.getStartingLandAreasEncoded();
             if (itm != 0)
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, i, SOCPlayerElement.SET, PEType.STARTING_LANDAREAS, itm));
 
             itm = pl.getCloth();
             if (itm != 0)
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, i, SOCPlayerElement.SET, PEType.SCENARIO_CLOTH_COUNT, itm));
 
@@ -1472,10 +1656,10 @@ public class SOCGameHandler extends GameHandler
                 SOCPlayingPiece piece = piecesEnum.nextElement();
 
                 if (piece.getType() == SOCPlayingPiece.CITY)
-                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    joinGame_send(c, gameName, snap,
                         new SOCPutPiece(gameName, i, SOCPlayingPiece.SETTLEMENT, piece.getCoordinates()));
 
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPutPiece(gameName, i, piece.getType(), piece.getCoordinates()));
             }
 
@@ -1487,11 +1671,11 @@ public class SOCGameHandler extends GameHandler
                     final int coord = piece.getCoordinates(),
                               str   = piece.getStrength();
 
-                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    joinGame_send(c, gameName, snap,
                         new SOCPutPiece(gameName, i, piece.getType(), coord));
 
                     if (str != SOCFortress.STARTING_STRENGTH)
-                        srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                        joinGame_send(c, gameName, snap,
                             new SOCPieceValue(gameName, SOCPlayingPiece.FORTRESS, coord, str, 0));
                 }
             }
@@ -1499,12 +1683,12 @@ public class SOCGameHandler extends GameHandler
             // _SC_PIRI: for display, send count of warships only after SOCShip pieces are sent
             itm = pl.getNumWarships();
             if (itm != 0)
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, i, SOCPlayerElement.SET, PEType.SCENARIO_WARSHIP_COUNT, itm));
 
             if (doSendUBL && (pl.getPublicVP() > 0))
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, i, SOCPlayerElement.SET, PEType.NUM_UNDOS_REMAINING, pl.getUndosRemaining()));
 
@@ -1523,28 +1707,28 @@ public class SOCGameHandler extends GameHandler
                 counts[6] = pl.getNumPieces(SOCPlayingPiece.SHIP);
             if (cliVers >= SOCPlayerElements.MIN_VERSION)
             {
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElements
                         (gameName, i, SOCPlayerElement.SET,
                          (gameData.hasSeaBoard) ? ELEM_JOINGAME_WITH_PIECETYPES_SEA : ELEM_JOINGAME_WITH_PIECETYPES_CLASSIC,
                          counts));
                 if (isFullyObservable)
-                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    joinGame_send(c, gameName, snap,
                         new SOCPlayerElements
                             (gameName, i, SOCPlayerElement.SET, ELEM_RESOURCES,
                              pl.getResources().getAmounts(false)));
             } else {
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCLastSettlement(gameName, i, counts[0]));
                     // client too old for SOCPlayerElement.PEType.LAST_SETTLEMENT_NODE
                 for (int j = 1; j < counts.length; ++j)
-                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    joinGame_send(c, gameName, snap,
                         new SOCPlayerElement
                             (gameName, i, SOCPlayerElement.SET, ELEM_JOINGAME_WITH_PIECETYPES_CLASSIC[j], counts[j]));
             }
 
             if (pl.hasAskedSpecialBuild())
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, i, SOCPlayerElement.SET, SOCPlayerElement.PEType.ASK_SPECIAL_BUILD, 1));
 
@@ -1563,13 +1747,13 @@ public class SOCGameHandler extends GameHandler
                     final SOCMessage cardUnknownMsg =
                         new SOCDevCardAction(gameName, i, SOCDevCardAction.ADD_OLD, unknownType);
                     for (int j = 0; j < numDevCards; j++)
-                        srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER, cardUnknownMsg);
+                        joinGame_send(c, gameName, snap, cardUnknownMsg);
                 } else {
                     // Observable: Send same way we'd send to a player client sitting down here. Can skip back-compat
                     // itemtype check because Observable gameopts' minVersion is same as cliVersionRecent
 
                     for (SOCMessage msg : sitDown_gatherInventoryContents(gameName, pl, cliVers))
-                        srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER, msg);
+                        joinGame_send(c, gameName, snap, msg);
                 }
             }
 
@@ -1594,7 +1778,7 @@ public class SOCGameHandler extends GameHandler
                         final SOCSpecialItem si = plsi.get(pi);
                         if (si == null)
                         {
-                            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                            joinGame_send(c, gameName, snap,
                                 new SOCSetSpecialItem
                                     (gameName, SOCSetSpecialItem.OP_CLEAR, tkey, -1, pi, i));
                             continue;
@@ -1603,7 +1787,7 @@ public class SOCGameHandler extends GameHandler
                         if ((iList != null) && (iList.size() > pi) && (iList.get(pi) == si))
                             continue;  // already sent (shared with game)
 
-                        srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                        joinGame_send(c, gameName, snap,
                             new SOCSetSpecialItem(gameData, SOCSetSpecialItem.OP_SET, tkey, -1, pi, si));
                     }
                 }
@@ -1615,21 +1799,21 @@ public class SOCGameHandler extends GameHandler
                 // too old to send together with other game elements,
                 // otherwise send soon with longest road / largest army
 
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCFirstPlayer(gameName, gameData.getFirstPlayer()));
 
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCDevCardCount(gameName, gameData.getNumDevCards()));
             }
 
-            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+            joinGame_send(c, gameName, snap,
                 new SOCChangeFace(gameName, i, pl.getFaceId()));
 
             if (i == 0)
             {
                 // per-game data, send once
 
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCDiceResult(gameName, gameData.getCurrentDice()));
             }
 
@@ -1637,11 +1821,15 @@ public class SOCGameHandler extends GameHandler
 
             itm = pl.getNeedToPickGoldHexResources();
             if ((itm > 0) && ! gameData.isSeatVacant(i))
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, i, SOCPlayerElement.SET, PEType.NUM_PICK_GOLD_HEX_RESOURCES, itm));
 
-            sendTradeOffer(pl, c);
+            if (snap == null)
+                sendTradeOffer(pl, c);
+            else if (pl.getCurrentOffer() != null)
+                joinGame_send(c, gameName, snap, new SOCMakeOffer(gameName, pl.getCurrentOffer()));
+                    // same as sendTradeOffer for client versions which can use snapshots
         }
 
         ///
@@ -1653,12 +1841,12 @@ public class SOCGameHandler extends GameHandler
                   laPlayerNum = (laPlayer != null) ? laPlayer.getPlayerNumber() : -1;
         if (cliVers < SOCGameElements.MIN_VERSION)
         {
-            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+            joinGame_send(c, gameName, snap,
                 new SOCLongestRoad(gameName, lrPlayerNum));
-            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+            joinGame_send(c, gameName, snap,
                 new SOCLargestArmy(gameName, laPlayerNum));
         } else {
-            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+            joinGame_send(c, gameName, snap,
                 new SOCGameElements
                     (gameName, ELEM_JOINGAME_DEVCARDS_ROUNDS_PLNUMS_FIRST_LONGEST_LARGEST,
                      new int[]{ gameData.getNumDevCards(), gameData.getRoundCount(),
@@ -1685,20 +1873,20 @@ public class SOCGameHandler extends GameHandler
                         edg[i] = shipEdges.get(i);
                     }
 
-                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    joinGame_send(c, gameName, snap,
                         new SOCGameElements(gameName, ge, edg));
                 }
             }
 
             if (gameData.isGameOptionSet(SOCGameOptionSet.K_SC_CLVI))
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCPlayerElement
                         (gameName, -1, SOCPlayerElement.SET,
                          PEType.SCENARIO_CLOTH_COUNT, ((SOCBoardLarge) (gameData.getBoard())).getCloth()));
 
             if ((cliVers >= SOCGame.VERSION_FOR_CANCEL_PLAY_CURRENT_DEV_CARD)
                 && gameData.isPlacingRobberForKnightCard())
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                joinGame_send(c, gameName, snap,
                     new SOCGameElements(gameName, GEType.IS_PLACING_ROBBER_FOR_KNIGHT_CARD_FLAG, 1));
 
             // Send lastAction in case client wants to sit down and then undo it;
@@ -1708,7 +1896,7 @@ public class SOCGameHandler extends GameHandler
                 final GameAction act = gameData.getLastAction();
                 if (act != null)
                 {
-                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                    joinGame_send(c, gameName, snap,
                         new SOCSetLastAction
                             (gameName, act.actType.value, act.param1, act.param2, act.param3, act.rset1, act.rset2));
 
@@ -1722,126 +1910,36 @@ public class SOCGameHandler extends GameHandler
                             }
                             catch (MissingResourceException e) {}
 
-                        srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
+                        joinGame_send(c, gameName, snap,
                             new SOCUndoNotAllowedReasonText(gameName, true, reasonText, true));
                     }
                 }
             }
         }
 
-        /**
-         * If we're rejoining and taking over a seat after a network problem,
-         * send our resource and hand information.
-         */
-        if (isRejoinOrLoadgame && ! isLoading)
-        {
-            SOCPlayer cliPl = gameData.getPlayer(cliName);
-            if (cliPl != null)
-            {
-                int pn = cliPl.getPlayerNumber();
-                if ((pn != -1) && ! gameData.isSeatVacant(pn))
-                    sitDown_sendPrivateInfo(gameData, c, pn, true);
-            }
-        }
-
-        /**
-         * game timing info
-         */
-        if (cliVers >= SOCGameStats.VERSION_FOR_TYPE_TIMING)
-        {
-            sendGameStatsTiming(c, gameData);
-        }
-
-        if ((! gameData.isBoardReset()) || (gameData.getGameState() >= SOCGame.START1A) || (cliVers < 1118))
-        {
-            /**
-             * Send chat recap; same sequence is in SOCServerMessageHandler.handleJOINCHANNEL_postAuth with
-             * different message type.
-             * Not sent during game reset: Chat text is still in player clients' game windows in v1.1.18 and newer.
-             */
-
-            final SOCChatRecentBuffer buf = srv.gameList.getChatBuffer(gameName);
-            final List<SOCChatRecentBuffer.Entry> recents;
-            synchronized(buf)
-            {
-                recents = buf.getAll();
-            }
-
-            if (! recents.isEmpty())
-            {
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
-                    new SOCGameTextMsg(gameName, SOCGameTextMsg.SERVER_FOR_CHAT,
-                        c.getLocalized("member.join.recap_begin")));  // [:: ]"Recap of recent chat ::"
-                for (SOCChatRecentBuffer.Entry e : recents)
-                    srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
-                        new SOCGameTextMsg(gameName, e.nickname, e.text));
-                srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
-                    new SOCGameTextMsg(gameName, SOCGameTextMsg.SERVER_FOR_CHAT,
-                        c.getLocalized("member.join.recap_end")));    // [:: ]"Recap ends ::"
-            }
-        }
-
-        /**
-         * Almost done; send GAMEMEMBERS as a hint to client that we're almost ready for its input.
-         * The only new data in GAMEMEMBERS is observer names, because
-         * player names have already been sent by the SITDOWN messages above.
-         */
-        List<String> memberNames = null;
-        srv.gameList.takeMonitorForGame(gameName);
-        try
-        {
-            final List<Connection> gameMembers = srv.gameList.getMembers(gameName);
-            synchronized(gameMembers)
-            {
-                final int n = gameMembers.size();
-                memberNames = new ArrayList<String>(n);
-                for (int i = 0; i < n; ++i)
-                    memberNames.add(gameMembers.get(i).getData());
-            }
-        }
-        catch (Exception e)
-        {
-            D.ebugPrintlnINFO("Exception in SGH.joinGame (gameMembers) - " + e);
-        } finally {
-            srv.gameList.releaseMonitorForGame(gameName);
-        }
-
-        if (memberNames != null)
-            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER,
-                new SOCGameMembers(gameName, memberNames));
-
-        // before v2.0.00, current player number (SETTURN) was sent here,
-        // between membersCommand and GAMESTATE.
-
-        srv.messageToPlayer
-            (c, gameName, SOCServer.PN_OBSERVER,
-             new SOCGameState(gameName, gameState));
-        if (gameState == SOCGame.OVER)
-            sendGameStateOVER(gameData, c);
-
-        if (D.ebugOn)
-            D.ebugPrintlnINFO("*** " + cliName + " joined the game " + gameName + " at " + formatTimeHHMMSS(null));
-
-        if (isRejoinOrLoadgame && (gameState != SOCGame.LOADING))
-        {
-            return;
-        }
-
-        /**
-         * Let everyone else know about the change
-         */
-        srv.messageToGame(gameName, true, new SOCJoinGame(cliName, "", SOCMessage.EMPTYSTR, gameName));
-        if (isRejoinOrLoadgame)
-        {
-            return;
-        }
+        return hasRobot;
+    }
 
-        if ((! isReset) && (gameState >= SOCGame.START2A) && (gameState < SOCGame.OVER))
+    /**
+     * Send a message to a client joining a game, as part of
+     * {@link #joinGame_sendPublicState(SOCGame, Connection, boolean, boolean, boolean, List)}.
+     * @param c  Client joining
+     * @param gameName  Game being joined
+     * @param snap  If not {@code null}, a snapshot being built: Adds message's {@link SOCMessage#toCmd()} to it
+     *     and sends without recording as an event
+     * @param msg  Message to send
+     * @since 2.7.00
+     */
+    private void joinGame_send
+        (final Connection c, final String gameName, final List<String> snap, final SOCMessage msg)
+    {
+        if (snap != null)
         {
-            srv.messageToPlayerKeyed
-                (c, gameName, SOCServer.PN_OBSERVER,
-                 (hasRobot) ? "member.join.game.started.bots"  // "This game has started. To play, take over a robot."
-                            : "member.join.game.started");     // "This game has started; no new players can sit down."
+            final String cmd = msg.toCmd();
+            snap.add(cmd);
+            c.put(cmd);
+        } else {
+            srv.messageToPlayer(c, gameName, SOCServer.PN_OBSERVER, msg);
         }
     }
 
@@ -1957,9 +2055,11 @@ public class SOCGameHandler extends GameHandler
      * @param game   Game being joined
      * @param board  Game's board layout
      * @param c      Client joining
+     * @param snap  Join snapshot being built, or {@code null}; see
+     *     {@link #joinGame_sendPublicState(SOCGame, Connection, boolean, boolean, boolean, List)}
      */
     private final void joinGame_sendBoardSpecialEdgeChanges
-        (final SOCGame game, final SOCBoardLarge board, final Connection c)
+        (final SOCGame game, final SOCBoardLarge board, final Connection c, final List<String> snap)
     {
         final String gaName = game.getName();
 
@@ -1985,8 +2085,8 @@ public class SOCGameHandler extends GameHandler
 
                 if (seType != edgeSEType)
                     // removed (type 0) or changed type
-                    srv.messageToPlayer
-                        (c, gaName, SOCServer.PN_OBSERVER,
+                    joinGame_send
+                        (c, gaName, snap,
                          new SOCSimpleAction(gaName, -1, SOCSimpleAction.BOARD_EDGE_SET_SPECIAL, edge, seType));
             }
         }
@@ -2025,8 +2125,8 @@ public class SOCGameHandler extends GameHandler
 
             if (! found)
                 // added since start of game
-                srv.messageToPlayer
-                    (c, gaName, SOCServer.PN_OBSERVER,
+                joinGame_send
+                    (c, gaName, snap,
                      new SOCSimpleAction(gaName, -1, SOCSimpleAction.BOARD_EDGE_SET_SPECIAL, edge, seType));
         }
     }
@@ -2679,6 +2779,8 @@ public class SOCGameHandler extends GameHandler
         if (ga == null)
             return false;
 
+        srv.scheduleTurnTimeoutCheck(ga, false);  // in case game just started or resumed
+
         final int gaState = ga.getGameState();
         final int cpn = ga.getCurrentPlayerNumber();
         final String gname = ga.getName();
@@ -4047,6 +4149,8 @@ public class SOCGameHandler extends GameHandler
          */
 
         ga.setGameEventListener(this);  // for playerEvent, gameEvent callbacks (since 2.0.00)
+        if (srv.boardPool != null)
+            ga.setPregeneratedBoard(srv.boardPool.take(ga));  // if none ready yet, startGame makes one
 
         final SOCGameOptionSet.RemoveOpportunisticResults removedOpts
             = ga.startGame(playersCliVers);
@@ -4194,6 +4298,7 @@ public class SOCGameHandler extends GameHandler
                 srv.broadcastToVers
                     (optsRemovedMsg, SOCChangeGameOptions.VERSION_FOR_REMOVE, Integer.MAX_VALUE);
                 srv.recordGameEvent(gaName, optsRemovedMsg);
+                srv.gameList.getListCache().gameAdded(ga);  // update cached game lists' options for new clients
 
                 // Now announce as status text:
 
@@ -1,6 +1,6 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
- * This file Copyright (C) 2009-2014,2016-2025 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2009-2014,2016-2026 Jeremy D Monin <jeremy@nand.net>
  * Portions of this file Copyright (C) 2003 Robert S. Thomas <thomas@infolab.northwestern.edu>
  * Portions of this file Copyright (C) 2012 Paul Bilnoski <paul@bilnoski.net>
  *
@@ -73,7 +73,7 @@ public class SOCGameListAtServer extends SOCGameList
      *
      * @see #createGame(String, String, String, SOCGameOptionSet, GameHandler)
      * @see SOCGame#setExpiration(long)
-     * @see SOCServer#checkForExpiredGames(long)
+     * @see SOCServer#checkForExpiredGames(List, long, long[])
      * @since 1.1.00
      */
     public static int GAME_TIME_EXPIRE_MINUTES = 120;
@@ -104,6 +104,20 @@ public class SOCGameListAtServer extends SOCGameList
      */
     private final Random rand;
 
+    /**
+     * Cached game list messages by client version, for {@link #sendGameList(Connection, int, boolean)}.
+     * Kept up to date as games are added and removed.
+     * @since 2.7.00
+     */
+    private final GameListCache listCache = new GameListCache();
+
+    /**
+     * Cached public part of each game's join message sequence, for {@link SOCGameHandler}.
+     * Games are removed from it by {@link #deleteGame(String)}.
+     * @since 2.7.00
+     */
+    private final JoinSnapshotCache joinSnapshots = new JoinSnapshotCache();
+
     /**
      * constructor
      * @param rand  Server's random number generator, for occasional misc use here
@@ -184,6 +198,26 @@ public class SOCGameListAtServer extends SOCGameList
         return gameData.values();
     }
 
+    /**
+     * Get the cache of game list messages sent to newly connected clients, for stats.
+     * @return the game list cache; not null
+     * @since 2.7.00
+     */
+    public GameListCache getListCache()
+    {
+        return listCache;
+    }
+
+    /**
+     * Get the cache of game join snapshots, to use or invalidate when sending game data to clients.
+     * @return the join snapshot cache; not null
+     * @since 2.7.00
+     */
+    public JoinSnapshotCache getJoinSnapshots()
+    {
+        return joinSnapshots;
+    }
+
     /**
      * Get this game's type handler from its {@link GameInfoAtServer}.
      * @param gaName  Game name
@@ -389,6 +423,9 @@ public class SOCGameListAtServer extends SOCGameList
                 }
 
                 SOCGame ga = getGameData(gaName);
+                if (ga == null)
+                    return;  // hibernated; its saved versions are replaced by members' when woken
+
                 ga.clientVersionLowest  = lowVers;
                 ga.clientVersionHighest = highVers;
                 ga.hasOldClients = (lowVers < Version.versionNumber());
@@ -541,10 +578,81 @@ public class SOCGameListAtServer extends SOCGameList
         handler.calcGameClientFeaturesRequired(game);
         gameInfo.put(gaName, new GameInfoAtServer(game.getGameOptions(), handler));  // also creates MutexFlag
         gameData.put(gaName, game);
+        listCache.gameAdded(game);
 
         return game;
     }
 
+    /**
+     * Release an idle game's {@link SOCGame} object from the list, which
+     * {@link GameHibernator} has saved. Game's name, options, members, and chat buffer are kept,
+     * and {@link #getGameData(String)} returns {@code null} until {@link #wakeGame(SOCGame)}.
+     * @param ga  Game to release
+     * @return  true if released, false if {@code ga} isn't the game in the list under its name
+     * @since 2.7.00
+     */
+    public synchronized boolean hibernateGame(final SOCGame ga)
+    {
+        final String gaName = ga.getName();
+        if (gameData.get(gaName) != ga)
+            return false;
+
+        gameData.remove(gaName);
+        joinSnapshots.gameRemoved(gaName);
+
+        return true;
+    }
+
+    /**
+     * Put a hibernated game's newly loaded {@link SOCGame} object back into the list.
+     * @param ga  Game loaded by {@link GameHibernator#wake(String, SOCServer)}
+     * @throws IllegalStateException  if game name isn't in the list, or already has a game object
+     * @see #hibernateGame(SOCGame)
+     * @since 2.7.00
+     */
+    public synchronized void wakeGame(final SOCGame ga)
+        throws IllegalStateException
+    {
+        final String gaName = ga.getName();
+        if ((! isGame(gaName)) || gameData.containsKey(gaName))
+            throw new IllegalStateException("not hibernated: " + gaName);
+
+        final GameHandler hand = getGameTypeHandler(gaName);
+        if (hand != null)
+            hand.calcGameClientFeaturesRequired(ga);
+        gameData.put(gaName, ga);
+    }
+
+    /**
+     * Get all games for a game list sent to clients, including any hibernated by {@link #hibernateGame(SOCGame)}.
+     * Those are represented by new game objects having only the name, options, and client features required;
+     * they aren't kept, so this is a little slower than {@link #getGamesData()}.
+     * @return  All games in the list
+     * @since 2.7.00
+     */
+    public synchronized Collection<SOCGame> getGamesDataForListing()
+    {
+        if (gameData.size() == size())
+            return getGamesData();
+
+        final List<SOCGame> ret = new ArrayList<SOCGame>(gameData.values());
+        for (final String gaName : getGameNames())
+        {
+            if (gameData.containsKey(gaName))
+                continue;
+
+            final SOCGameOptionSet opts = getGameOptions(gaName);
+            final SOCGame stub = new SOCGame
+                (gaName, (opts != null) ? new SOCGameOptionSet(opts, true) : null, knownOpts);
+            final GameHandler hand = getGameTypeHandler(gaName);
+            if (hand != null)
+                hand.calcGameClientFeaturesRequired(stub);
+            ret.add(stub);
+        }
+
+        return ret;
+    }
+
     /**
      * Try to generate a game name that isn't already in use;
      * try base name plus a suffix, then random names.
@@ -694,6 +802,7 @@ public class SOCGameListAtServer extends SOCGameList
             // Adjust game-list
             gameData.remove(gaName);
             gameData.put(gaName, rgame);
+            listCache.gameAdded(rgame);
 
             // Done.
             oldGame.destroyGame();
@@ -724,6 +833,7 @@ public class SOCGameListAtServer extends SOCGameList
         }
 
         super.addGames(gl, ourVersion);
+        listCache.clear();
     }
 
     /**
@@ -737,6 +847,8 @@ public class SOCGameListAtServer extends SOCGameList
         SOCGame game = gameData.remove(gaName);
         if (game != null)
             game.destroyGame();
+        listCache.gameRemoved(gaName);
+        joinSnapshots.gameRemoved(gaName);
 
         // delete from super to destroy GameInfo and set its gameDestroyed flag
         // (Removes game from list before dealing with members, in case of locks)
@@ -866,6 +978,9 @@ public class SOCGameListAtServer extends SOCGameList
      * 1.1.06 ({@link SOCGames#VERSION_FOR_UNJOINABLE}).  Older clients won't be sent
      * the game names they can't join.
      *<P>
+     * In v2.7.00 and newer, the full list for a client without limited features
+     * comes from a {@link GameListCache} by client version, instead of being built for each client.
+     *<P>
      * <b>Locks:</b> Calls {@link #takeMonitor()} / {@link #releaseMonitor()}
      *<P>
      * Before v2.0.00 this method was <tt>{@link SOCServer}.sendGameList(..)</tt>.
@@ -932,7 +1047,7 @@ public class SOCGameListAtServer extends SOCGameList
          * If the game is deleted, and then they see it in the list, trying to join that game
          * will create a new empty game with that name.
          */
-        Collection<SOCGame> gaEnum = getGamesData();
+        Collection<SOCGame> gaEnum = getGamesDataForListing();
         releaseMonitor();
 
         if (cliVersionChange && cliCouldKnow)
@@ -944,6 +1059,14 @@ public class SOCGameListAtServer extends SOCGameList
 
         try
         {
+            if ((! alreadySent) && cliNotLimitedFeats)
+            {
+                // Usual case: Same list as other new clients of this version
+                c.put(listCache.getGameListCmd(cliVers, gaEnum));
+
+                return;  // <---- Early return: Sent from cache ----
+            }
+
             // Build the list of game names.  This loop is used for the
             // initial list, or for sending just the delta after the version fix.
 
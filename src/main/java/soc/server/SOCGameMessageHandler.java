@@ -2790,6 +2790,7 @@ public class SOCGameMessageHandler
                     {
                         // Set the "force end turn soon" field
                         ga.lastActionTime = 0L;
+                        srv.scheduleTurnTimeoutCheck(ga, true);
                     }
                 }
             } else {
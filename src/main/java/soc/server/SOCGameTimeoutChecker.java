@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas
- * Portions of this file Copyright (C) 2010,2015-2017,2019-2020 Jeremy D Monin <jeremy@nand.net>
+ * Portions of this file Copyright (C) 2010,2015-2017,2019-2020,2026 Jeremy D Monin <jeremy@nand.net>
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -18,25 +18,67 @@
  **/
 package soc.server;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import soc.game.SOCGame;
 
 /**
- * Wakes up every few seconds* to check for turns that have expired
- * by calling {@link SOCServer#checkForExpiredTurns(long)},
- * and every 5 minutes to check for games that have expired
- * with {@link SOCServer#checkForExpiredGames(long)}.
+ * Checks for turns that have expired by calling {@link SOCServer#checkForExpiredTurn(SOCGame, long)},
+ * and for games that have expired with {@link SOCServer#checkForExpiredGames(List, long, long[])}.
  *<P>
  * Keeps the game moving if a robot is stuck or indecisive because of a bug.
  *<P>
- * * "Every few seconds" is roughly {@link SOCServer#ROBOT_FORCE_ENDTURN_STUBBORN_SECONDS}.
+ * Instead of waking every few seconds to scan all games, keeps a queue of deadlines:
+ * Each game has a game-expiry deadline, and a turn-check deadline while the game is waiting for a robot.
+ * The thread sleeps until the earliest deadline, checks only the games whose deadlines have passed,
+ * and schedules their next deadlines from those checks' return values.
+ * So its work is proportional to the number of games reaching a deadline,
+ * and a stuck robot's turn is ended within a few milliseconds of its deadline.
+ *<P>
+ * A turn-check deadline is the time from {@link SOCServer#getTurnTimeoutDeadline(SOCGame)}.
+ * Human players' turns have no deadline, so their games aren't checked until the turn changes:
+ * {@link #ensureTurnCheck(SOCGame)} is called then, and when a player sits down,
+ * to schedule the new turn's deadline.
+ * A robot's actions update {@link SOCGame#lastActionTime}, which moves its turn deadline later.
+ * That isn't tracked here when it happens; when the earlier deadline is reached,
+ * the check sees the newer action time and schedules the new deadline.
+ * {@link #checkTurnSoon(SOCGame)} moves the deadline to now, for example when a robot's turn is ended early.
+ *<P>
+ * Before v2.7.00 this thread woke every few seconds (about {@link SOCServer#ROBOT_FORCE_ENDTURN_STUBBORN_SECONDS})
+ * to check all games for expired turns, and every 5 minutes to check all games for expiry.
  *
  * @author Robert S Thomas
  * @see SOCServer#ROBOT_FORCE_ENDTURN_SECONDS
  * @see SOCServer#GAME_TIME_EXPIRE_CHECK_MINUTES
  */
-/*package*/ class SOCGameTimeoutChecker extends Thread
+public class SOCGameTimeoutChecker extends Thread
 {
     private SOCServer server;
-    private boolean alive;
+    private volatile boolean alive;
+
+    /**
+     * All scheduled deadlines, including stale ones replaced in {@link #turnDeadlines}
+     * or {@link #expiryDeadlines}, which are skipped when they're reached.
+     * @since 2.7.00
+     */
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+
+    /**
+     * Each game's current turn-check deadline.
+     * @since 2.7.00
+     */
+    private final ConcurrentHashMap<SOCGame, Deadline> turnDeadlines = new ConcurrentHashMap<>();
+
+    /**
+     * Each game's current game-expiry check deadline.
+     * @since 2.7.00
+     */
+    private final ConcurrentHashMap<SOCGame, Deadline> expiryDeadlines = new ConcurrentHashMap<>();
 
     /**
      * Create a game timeout checker
@@ -52,52 +94,220 @@ package soc.server;
     }
 
     /**
-     * Wakes up every few seconds to check for turns that have expired,
-     * and every 5 minutes to check for games that have expired.
+     * Start checking a newly created, loaded, or reset game for expired turns and game expiry.
+     * @param ga  Game just added to server's game list
+     * @since 2.7.00
+     */
+    public void addGame(final SOCGame ga)
+    {
+        schedule(expiryDeadlines, ga, System.currentTimeMillis());
+        ensureTurnCheck(ga);
+    }
+
+    /**
+     * Check this game's turn for expiry now, for example because a robot's
+     * {@link SOCGame#lastActionTime} was set to 0 to end its turn soon.
+     * @param ga  Game to check
+     * @since 2.7.00
+     */
+    public void checkTurnSoon(final SOCGame ga)
+    {
+        schedule(turnDeadlines, ga, System.currentTimeMillis());
+    }
+
+    /**
+     * Make sure this game's turn will be checked at its deadline from
+     * {@link SOCServer#getTurnTimeoutDeadline(SOCGame)}, if it's waiting for a robot.
+     * Called when game state or current player changes, since the game might not have a check scheduled:
+     * Human players' turns and idle games (not started, loading, etc) aren't checked.
+     * Does nothing if game has no deadline, or a check is already scheduled by then.
+     * @param ga  Game to check
+     * @since 2.7.00
+     */
+    public void ensureTurnCheck(final SOCGame ga)
+    {
+        final long when = server.getTurnTimeoutDeadline(ga);
+        if (when == 0)
+            return;
+
+        final Deadline d = turnDeadlines.get(ga);
+        if ((d == null) || (d.when > when))
+            schedule(turnDeadlines, ga, when);
+    }
+
+    /**
+     * Get the time when this game's turn is next scheduled to be checked, if any.
+     * @param ga  Game to look for
+     * @return  Time of the game's turn-check deadline, same format as {@link System#currentTimeMillis()},
+     *     or 0 if none is scheduled
+     * @since 2.7.00
+     */
+    public long getTurnCheckTime(final SOCGame ga)
+    {
+        final Deadline d = turnDeadlines.get(ga);
+        return (d != null) ? d.when : 0;
+    }
+
+    /**
+     * Number of deadlines currently queued, including stale ones which will be skipped.
+     * @return  Deadline queue size
+     * @since 2.7.00
+     */
+    public int getQueueSize()
+    {
+        return queue.size();
+    }
+
+    /**
+     * Schedule a new deadline for this game, replacing its current one in {@code deadlines}.
+     * @param deadlines  {@link #turnDeadlines} or {@link #expiryDeadlines}
+     * @param ga  Game to schedule
+     * @param when  Deadline time, same format as {@link System#currentTimeMillis()}
+     */
+    private void schedule(final ConcurrentHashMap<SOCGame, Deadline> deadlines, final SOCGame ga, final long when)
+    {
+        final Deadline d = new Deadline(ga, (deadlines == turnDeadlines), when);
+        deadlines.put(ga, d);
+        queue.add(d);
+    }
+
+    /**
+     * Schedule this game's next deadline after reaching {@code prev}, unless another thread
+     * has already replaced {@code prev} in {@code deadlines} with a newer deadline.
+     * @param deadlines  {@link #turnDeadlines} or {@link #expiryDeadlines}
+     * @param prev  Deadline just reached
+     * @param when  Next deadline time, or 0 to stop checking the game
+     */
+    private void scheduleNext(final ConcurrentHashMap<SOCGame, Deadline> deadlines, final Deadline prev, final long when)
+    {
+        if (when <= 0)
+        {
+            deadlines.remove(prev.game, prev);
+            return;
+        }
+
+        final Deadline d = new Deadline(prev.game, prev.isTurn, when);
+        if (deadlines.replace(prev.game, prev, d))
+            queue.add(d);
+    }
+
+    /**
+     * Wait for each deadline, then check the games whose deadlines have passed
+     * and schedule their next deadlines.
      * See {@link SOCGameTimeoutChecker class javadoc}.
      */
     public void run()
     {
-        // check every few seconds; should be about ROBOT_FORCE_ENDTURN_STUBBORN_SECONDS
-        // (about half as long as ROBOT_FORCE_ENDTURN_SECONDS)
-        final int sleepMillis = SOCServer.ROBOT_FORCE_ENDTURN_STUBBORN_SECONDS * 1100;
-
-        // Holds time of next check for game expiry, not just turn expiry
-        long gameExpireCheckTime = 0L;
+        final List<Deadline> due = new ArrayList<>();
 
         while (alive)
         {
-            long now = System.currentTimeMillis();
-            if (gameExpireCheckTime == 0L)
-                gameExpireCheckTime = now;
-
-            if (now >= gameExpireCheckTime)
+            try
             {
-                server.checkForExpiredGames(now);
-
-                // check every 5 minutes
-                gameExpireCheckTime = now + (SOCServer.GAME_TIME_EXPIRE_CHECK_MINUTES * 60 * 1000);
-                Thread.yield();
+                due.add(queue.take());
+            }
+            catch (InterruptedException exc) {
+                continue;
             }
+            queue.drainTo(due);  // any others which are also due
 
-            server.checkForExpiredTurns(now);
+            checkDue(due);
+            due.clear();
             Thread.yield();
+        }
 
-            try
+        server = null;
+    }
+
+    /**
+     * Check the games whose deadlines have passed, and schedule their next deadlines.
+     * {@link #run()} does this when each deadline is reached;
+     * tests can call this to check without starting the thread.
+     * @since 2.7.00
+     */
+    public void checkDeadlinesNow()
+    {
+        final List<Deadline> due = new ArrayList<>();
+        queue.drainTo(due);  // only those whose deadlines have passed
+        if (! due.isEmpty())
+            checkDue(due);
+    }
+
+    /**
+     * Check these games whose deadlines have passed, and schedule their next deadlines.
+     * Skips stale deadlines which have been replaced by newer ones.
+     * @param due  Deadlines taken from {@link #queue}
+     * @since 2.7.00
+     */
+    private void checkDue(final List<Deadline> due)
+    {
+        final List<SOCGame> expiryGames = new ArrayList<>();
+        final List<Deadline> expiryDue = new ArrayList<>();
+        final long now = System.currentTimeMillis();
+        for (final Deadline d : due)
+        {
+            if (d.isTurn)
             {
-                sleep(sleepMillis);
+                if (turnDeadlines.get(d.game) != d)
+                    continue;  // stale
+
+                scheduleNext(turnDeadlines, d, server.checkForExpiredTurn(d.game, now));
+            }
+            else if (expiryDeadlines.get(d.game) == d)
+            {
+                expiryGames.add(d.game);
+                expiryDue.add(d);
             }
-            catch (InterruptedException exc) {}
         }
 
-        server = null;
+        if (! expiryGames.isEmpty())
+        {
+            final long[] nextTimes = new long[expiryGames.size()];
+            server.checkForExpiredGames(expiryGames, now, nextTimes);
+            for (int i = 0; i < nextTimes.length; ++i)
+                scheduleNext(expiryDeadlines, expiryDue.get(i), nextTimes[i]);
+        }
     }
 
     /**
-     * DOCUMENT ME!
+     * Stop checking, and end this thread soon.
      */
     public void stopChecking()
     {
         alive = false;
+        interrupt();
     }
+
+    /**
+     * A game's turn-check or expiry-check deadline in {@link SOCGameTimeoutChecker#queue}.
+     * @since 2.7.00
+     */
+    private static final class Deadline implements Delayed
+    {
+        public final SOCGame game;
+
+        /** True for a turn-check deadline, false for game expiry */
+        public final boolean isTurn;
+
+        /** Deadline time, same format as {@link System#currentTimeMillis()} */
+        public final long when;
+
+        public Deadline(final SOCGame ga, final boolean isTurn, final long when)
+        {
+            game = ga;
+            this.isTurn = isTurn;
+            this.when = when;
+        }
+
+        public long getDelay(final TimeUnit unit)
+        {
+            return unit.convert(when - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        public int compareTo(final Delayed o)
+        {
+            return Long.compare(when, ((Deadline) o).when);
+        }
+    }
+
 }
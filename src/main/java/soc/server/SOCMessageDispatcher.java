@@ -1,6 +1,6 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
- * This file Copyright (C) 2016-2025 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2016-2026 Jeremy D Monin <jeremy@nand.net>
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -19,16 +19,29 @@
  **/
 package soc.server;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import soc.debug.D;
 import soc.game.SOCGame;
 import soc.game.SOCPlayer;
+import soc.message.SOCLeaveGame;
 import soc.message.SOCMessage;
 import soc.message.SOCMessageForGame;
 import soc.message.SOCMessageFromUnauthClient;
 import soc.message.SOCSitDown;
 import soc.message.SOCStatusMessage;
 import soc.server.genericServer.Connection;
+import soc.server.genericServer.OutputBatcher;
 import soc.server.genericServer.Server;
+import soc.util.FlightRecorderEvents;
+import soc.util.LatencyHistogram;
+import soc.util.MetricsRegistry;
 
 /**
  * Server class to dispatch all inbound messages within a {@link SOCServer}.
@@ -41,12 +54,16 @@ import soc.server.genericServer.Server;
  * before calling {@link #dispatch(SOCMessage, Connection)}.
  *<P>
  * Before v2.0.00 this class was part of {@code SOCServer.processCommand(..)} and related methods.
+ *<P>
+ * Since v2.7.00 the dispatcher keeps call count, error count, and a latency histogram for each message type,
+ * and for each handler type (server, or the game type's {@link GameMessageHandler}).
+ * See {@link #getStatsFormatted(int)}.
  *
  * @author Jeremy D Monin &lt;jeremy@nand.net&gt;
  * @since 2.0.00
  */
 /*package*/ class SOCMessageDispatcher
-    implements Server.InboundMessageDispatcher
+    implements Server.InboundMessageDispatcher, MetricsRegistry.Source
 {
     /**
      * Our SOCServer. {@code srv}, {@link #srvHandler}, and {@link #gameList} are all
@@ -68,6 +85,22 @@ import soc.server.genericServer.Server;
      */
     private SOCGameListAtServer gameList;
 
+    /**
+     * Dispatch stats for each message type, keyed by message class.
+     * Keyed by class instead of {@link SOCMessage#getType()} to avoid boxing on each dispatch.
+     * @see #handlerStats
+     * @since 2.7.00
+     */
+    private final Map<Class<?>, TypeStats> typeStats = new ConcurrentHashMap<>();
+
+    /**
+     * Dispatch stats for each handler type which processed messages:
+     * {@link SOCServerMessageHandler} or a game type's {@link GameMessageHandler}, keyed by handler class.
+     * @see #typeStats
+     * @since 2.7.00
+     */
+    private final Map<Class<?>, TypeStats> handlerStats = new ConcurrentHashMap<>();
+
     /**
      * Create a new SOCMessageDispatcher. Takes no parameters because the
      * server and dispatcher constructors can't both call each other.
@@ -116,6 +149,11 @@ import soc.server.genericServer.Server;
      * {@link SOCServerMessageHandler#dispatch(SOCMessage, Connection)}.
      *<P>
      * Does nothing if game unknown, gives no reply.
+     *<P>
+     * If the server has an {@link OutputBatcher}, batches the output sent while handling the message.
+     *<P>
+     * Updates stats for the message type and the handler which processed it; see {@link #getStatsFormatted(int)}.
+     * If {@link FlightRecorderEvents} are enabled, records a dispatch event.
      *
      *<H3>General notes:</H3>
      * {@inheritDoc}
@@ -131,6 +169,14 @@ import soc.server.genericServer.Server;
         if (mes == null)
             return;
 
+        final Object jfr = FlightRecorderEvents.beginDispatch();
+        final long startNanos = System.nanoTime();
+        final OutputBatcher batcher = srv.getOutputBatcher();
+        if (batcher != null)
+            batcher.begin();
+        Object handledBy = null;  // for stats
+        boolean hadError = false;
+
         try
         {
             // D.ebugPrintln(c.getData()+" - "+mes);
@@ -159,12 +205,21 @@ import soc.server.genericServer.Server;
                 if (! gaName.equals(SOCMessage.GAME_NONE))
                 {
                     SOCGame ga = gameList.getGameData(gaName);
+                    final GameHibernator gh = srv.gameHibernator;
+                    final boolean isHibernated = (ga == null) && (gh != null) && gh.isHibernated(gaName);
+                    if (isHibernated && (con != null) && ! (mes instanceof SOCLeaveGame)
+                        && gameList.isMember(con, gaName))
+                        ga = srv.wakeHibernatedGame(gaName, con);  // idle game wakes at member's next action
+
                     if ((ga == null) || (con == null))
                     {
-                        if (! (mes instanceof SOCSitDown))
+                        if (! ((mes instanceof SOCSitDown) || (isHibernated && (mes instanceof SOCLeaveGame))))
                             return;  // <--- Early return: ignore unknown games or unlikely missing con ---
 
-                        // For SOCSitDown, SOCServerMessageHandler will reply to con
+                        // For SOCSitDown, SOCServerMessageHandler will reply to con;
+                        // member leaving a hibernated game is handled there too
+                    } else if ((gh != null) && gh.holdIfWaking(ga, mes, con)) {
+                        return;  // <--- Early return: Held until woken game's robots have sat down ---
                     } else {
                         final GameMessageHandler hand = gameList.getGameTypeMessageHandler(gaName);
                         if (hand != null)  // all consistent games will have a handler
@@ -177,20 +232,167 @@ import soc.server.genericServer.Server;
                                      (SOCMessageForGame) mes);
                             }
 
+                            handledBy = hand;  // set before calling, so stats count it if dispatch throws
                             if (hand.dispatch(ga, (SOCMessageForGame) mes, con))
                                 return;  // <--- Was handled by GameMessageHandler ---
 
-                            // else: Message type unknown or ignored by handler. Server handles it below.
+                            // else: Message type unknown or ignored by handler. Server handles it below,
+                            // replacing handledBy.
                         }
                     }
                 }
             }
 
+            handledBy = srvHandler;
             srvHandler.dispatch(mes, con);
         }
         catch (Throwable e)
         {
+            hadError = true;
             D.ebugPrintStackTrace(e, "ERROR -> dispatch");
         }
+        finally
+        {
+            if (batcher != null)
+                batcher.end();  // send batched output, if any
+
+            final long nanos = System.nanoTime() - startNanos;
+            getStats(typeStats, mes.getClass(), mes.getType()).record(nanos, hadError);
+            if (handledBy != null)
+                getStats(handlerStats, handledBy.getClass(), 0).record(nanos, hadError);
+            if (jfr != null)
+                FlightRecorderEvents.endDispatch
+                    (jfr, mes.getType(), mes.getClass().getSimpleName(),
+                     (mes instanceof SOCMessageForGame) ? ((SOCMessageForGame) mes).getGame() : null,
+                     (handledBy != null) ? handledBy.getClass().getSimpleName() : null);
+        }
+    }
+
+    /**
+     * Get or create the stats entry for a message or handler class.
+     * @param map  {@link #typeStats} or {@link #handlerStats}
+     * @param cl  Class to look up
+     * @param typeID  Message type from {@link SOCMessage#getType()}, or 0 for handlers
+     * @return  {@code cl}'s stats entry, never null
+     * @since 2.7.00
+     */
+    private static TypeStats getStats(final Map<Class<?>, TypeStats> map, final Class<?> cl, final int typeID)
+    {
+        TypeStats ts = map.get(cl);
+        if (ts == null)
+        {
+            ts = new TypeStats(cl.getSimpleName(), typeID);
+            final TypeStats prev = map.putIfAbsent(cl, ts);
+            if (prev != null)
+                ts = prev;
+        }
+
+        return ts;
+    }
+
+    /**
+     * Get formatted dispatch stats for the {@code *MSGSTATS*} admin command and the server's daily stats file:
+     * One line per handler type, then one per message type, each sorted by total time spent, longest first.
+     * Each line has a name, error count, and latency summary from {@link LatencyHistogram#toStringMillis()}
+     * whose {@code n=} is the call count.
+     *<P>
+     * Errors count only exceptions thrown to this dispatcher; most handler methods catch and print their own.
+     *
+     * @param maxTypes  Maximum number of message types to include, or 0 for all
+     * @return  Formatted stat lines; empty if nothing dispatched yet
+     * @since 2.7.00
+     */
+    public List<String> getStatsFormatted(final int maxTypes)
+    {
+        final List<String> ret = new ArrayList<>();
+
+        for (TypeStats ts : sortedByTotalTime(handlerStats))
+            ret.add("Handler " + ts.toString());
+
+        final List<TypeStats> types = sortedByTotalTime(typeStats);
+        final int n = ((maxTypes > 0) && (maxTypes < types.size())) ? maxTypes : types.size();
+        for (int i = 0; i < n; ++i)
+            ret.add(types.get(i).toString());
+        if (n < types.size())
+            ret.add("(" + (types.size() - n) + " more message types)");
+
+        return ret;
     }
+
+    /**
+     * Add dispatch metrics to a snapshot for dashboards: Latency summary and error count for each handler type,
+     * and message count for each message type. Reads only thread-safe stats, takes no locks.
+     * @param s  Snapshot to add to
+     * @since 2.7.00
+     */
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        for (final TypeStats ts : handlerStats.values())
+        {
+            s.latency("jsettlers_dispatch_seconds", "Inbound message dispatch time by handler",
+                "handler", ts.name, ts.times);
+            s.counter("jsettlers_dispatch_errors_total", "Inbound message dispatch exceptions by handler",
+                "handler", ts.name, ts.errors.get());
+        }
+        for (final TypeStats ts : typeStats.values())
+            s.counter("jsettlers_dispatch_messages_total", "Inbound messages dispatched by type",
+                "type", ts.name, ts.times.getCount());
+    }
+
+    /** Copy a stats map's values, sorted by total time, longest first. */
+    private static List<TypeStats> sortedByTotalTime(final Map<Class<?>, TypeStats> map)
+    {
+        final List<TypeStats> li = new ArrayList<>(map.values());
+        Collections.sort(li, new Comparator<TypeStats>()
+        {
+            public int compare(final TypeStats a, final TypeStats b)
+            {
+                return Long.compare(b.times.getTotalNanos(), a.times.getTotalNanos());
+            }
+        });
+
+        return li;
+    }
+
+    /**
+     * Dispatch stats for one message type or handler type.
+     * Thread-safe, since inbound messages may be dispatched from more than one thread.
+     * @since 2.7.00
+     */
+    private static final class TypeStats
+    {
+        /** Class name of message or handler */
+        final String name;
+
+        /** Message type ID from {@link SOCMessage#getType()}, or 0 for a handler */
+        final int typeID;
+
+        final AtomicLong errors = new AtomicLong();
+
+        /** Time to dispatch each message, including any errors; {@link LatencyHistogram#getCount()} is call count */
+        final LatencyHistogram times = new LatencyHistogram();
+
+        TypeStats(final String name, final int typeID)
+        {
+            this.name = name;
+            this.typeID = typeID;
+        }
+
+        void record(final long nanos, final boolean isError)
+        {
+            times.record(nanos);
+            if (isError)
+                errors.incrementAndGet();
+        }
+
+        /**
+         * Format for stats display: {@code "SOCPutPiece (1009): errors 0, n=52, avg 0.3 ms, p50 <= 1, ..."}
+         */
+        public String toString()
+        {
+            return name + ((typeID != 0) ? (" (" + typeID + ")") : "") + ": errors " + errors.get()
+                + ", " + times.toStringMillis();
+        }
+    }
+
 }
@@ -38,10 +38,12 @@ import soc.server.database.SOCDBHelper;
 
 import soc.server.genericServer.Connection;
 import soc.server.genericServer.InboundMessageQueue;
+import soc.server.genericServer.OutputBatcher;
 import soc.server.genericServer.Server;
 import soc.server.genericServer.StringConnection;
 import soc.server.savegame.SavedGameModel;
 import soc.util.DataUtils;
+import soc.util.FlightRecorderEvents;
 import soc.util.SOCFeatureSet;
 import soc.util.SOCGameBoardReset;
 import soc.util.SOCGameList;  // used in javadoc
@@ -62,6 +64,7 @@ import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
 import java.net.SocketException;
 import java.sql.SQLException;
+import java.sql.SQLTransientException;
 import java.text.DateFormat;
 import java.text.MessageFormat;  // used in javadocs
 import java.util.ArrayList;
@@ -537,6 +540,38 @@ public class SOCServer extends Server
      */
     public static final String PROP_JSETTLERS_CLI_MAXCREATEGAMES = "jsettlers.client.maxcreategames";
 
+    /**
+     * Boolean property {@code jsettlers.client.output_batch} to batch the messages sent to each client
+     * while handling an inbound message, merging some into fewer messages; see {@link OutputBatcher}.
+     * Applies only to clients with version {@link #CLI_VERSION_OUTPUT_BATCH} or newer.
+     * Default is true; set to N to send each message immediately.
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_CLI_OUTPUT__BATCH = "jsettlers.client.output_batch";
+
+    /**
+     * Property prefix {@code jsettlers.client.ratelimit.} to set the budget for each client's inbound messages
+     * in an {@link InboundRateLimiter} category: {@code chat}, {@code trade}, {@code info}, or {@code other}.
+     * Value is the refill rate per second and the burst size, or 0 for no limit in that category. For example:
+     *<pre> jsettlers.client.ratelimit.chat=2,10
+     * jsettlers.client.ratelimit.other=50,200</pre>
+     * Defaults are {@link InboundRateLimiter#DEFAULT_RATES} and {@link InboundRateLimiter#DEFAULT_BURSTS};
+     * {@code other} includes game actions and isn't limited by default.
+     * Messages over budget are dropped. Robot clients aren't limited.
+     * @see #PROP_JSETTLERS_CLI_RATELIMIT_DISCONNECT
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_CLI_RATELIMIT_PREFIX = "jsettlers.client.ratelimit.";
+
+    /**
+     * Int property {@code jsettlers.client.ratelimit.disconnect} to disconnect a client after this many
+     * of its messages in one category have been dropped for being over budget, without that category's budget
+     * refilling in between; see {@link #PROP_JSETTLERS_CLI_RATELIMIT_PREFIX}.
+     * Default is {@link InboundRateLimiter#DEFAULT_DISCONNECT_AFTER}; 0 never disconnects.
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_CLI_RATELIMIT_DISCONNECT = "jsettlers.client.ratelimit.disconnect";
+
     /**
      * Property <tt>jsettlers.client.maxcreatechannels</tt> to limit the amount of
      * chat channels that a client can create at once. (The default is 2.)
@@ -592,6 +627,35 @@ public class SOCServer extends Server
      */
     public static final String PROP_JSETTLERS_GAME_DISALLOW_SEA__BOARD = "jsettlers.game.disallow.sea_board";
 
+    /**
+     * Int property {@code jsettlers.game.boardpool.size} is the number of pre-generated board layouts
+     * to keep ready for each set of board-affecting game options, so games start without waiting for
+     * board layout. Default is {@link BoardPool#DEFAULT_BOARDS_PER_KEY}; 0 disables the pool.
+     * @see #boardPool
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_GAME_BOARDPOOL_SIZE = "jsettlers.game.boardpool.size";
+
+    /**
+     * Int property {@code jsettlers.game.hibernate.idle_minutes}: Hibernate a started game with human players
+     * once it's been idle this many minutes: Save its state in a compact form with {@link GameHibernator},
+     * release its game objects, and dismiss its robots. The game wakes and its robots rejoin
+     * when a member next acts. Default is 0, never hibernate; if used, must be at least
+     * {@link #GAME_TIME_EXPIRE_CHECK_MINUTES}. Requires the Gson jar used by {@code *SAVEGAME*}.
+     * @see #PROP_JSETTLERS_GAME_HIBERNATE_DIR
+     * @see #gameHibernator
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES = "jsettlers.game.hibernate.idle_minutes";
+
+    /**
+     * Property {@code jsettlers.game.hibernate.dir} is an existing directory into which to write
+     * hibernated games, instead of keeping them in memory.
+     * Ignored unless {@link #PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES} is set.
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_GAME_HIBERNATE_DIR = "jsettlers.game.hibernate.dir";
+
     /**
      * Property {@code jsettlers.savegame.dir} to enable SAVEGAME/LOADGAME debug commands
      * and set the directory in which to store savegame files.
@@ -612,6 +676,43 @@ public class SOCServer extends Server
      */
     public static final String PROP_JSETTLERS_STATS_FILE_NAME = "jsettlers.stats.file.name";
 
+    /**
+     * Property {@code jsettlers.stats.metrics.file} is the filename to write machine-readable server metrics into
+     * every {@link #PROP_JSETTLERS_STATS_METRICS_INTERVAL} seconds, using {@link MetricsExportTask}.
+     * In {@code prometheus} format (see {@link #PROP_JSETTLERS_STATS_METRICS_FORMAT}) the file is replaced
+     * each time; in {@code json} format a line is appended.
+     *<P>
+     * Can be a full path, or relative to the JSettlers startup directory which contains {@code jsserver.properties}.
+     * @see #PROP_JSETTLERS_STATS_METRICS_PORT
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_STATS_METRICS_FILE = "jsettlers.stats.metrics.file";
+
+    /**
+     * Int property {@code jsettlers.stats.metrics.port}, if set and &gt; 0, is a TCP port on the loopback address
+     * where {@link MetricsExportTask} answers HTTP requests with the most recent metrics,
+     * for a local Prometheus scraper or agent.
+     * @see #PROP_JSETTLERS_STATS_METRICS_FILE
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_STATS_METRICS_PORT = "jsettlers.stats.metrics.port";
+
+    /**
+     * Property {@code jsettlers.stats.metrics.format} is the format for {@link #PROP_JSETTLERS_STATS_METRICS_FILE}
+     * and {@link #PROP_JSETTLERS_STATS_METRICS_PORT}: {@code prometheus} (default) for Prometheus text format,
+     * or {@code json} for one JSON object per line.
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_STATS_METRICS_FORMAT = "jsettlers.stats.metrics.format";
+
+    /**
+     * Int property {@code jsettlers.stats.metrics.interval} is how often to collect metrics, in seconds,
+     * for {@link #PROP_JSETTLERS_STATS_METRICS_FILE} and {@link #PROP_JSETTLERS_STATS_METRICS_PORT}.
+     * Default is {@link MetricsExportTask#DEFAULT_INTERVAL_SECONDS}.
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_STATS_METRICS_INTERVAL = "jsettlers.stats.metrics.interval";
+
     /**
      * Boolean property {@code jsettlers.test.db} to test database methods,
      * then exit with code 0 if OK or 1 if any required tests failed.
@@ -659,10 +760,18 @@ public class SOCServer extends Server
         PROP_JSETTLERS_CLI_IDLE_PING_SECONDS,   "Interval to send a ping message to idle clients (0 to disable)",
         PROP_JSETTLERS_CLI_MAXCREATECHANNELS,   "Maximum simultaneous channels that a client can create",
         PROP_JSETTLERS_CLI_MAXCREATEGAMES,      "Maximum simultaneous games that a client can create",
+        PROP_JSETTLERS_CLI_OUTPUT__BATCH,       "Flag to batch and merge each client's output per inbound message (default Y)",
+        PROP_JSETTLERS_CLI_RATELIMIT_PREFIX + "*", "Client message budget per category (chat, trade, info, other): rate/sec,burst or 0",
+        PROP_JSETTLERS_CLI_RATELIMIT_DISCONNECT, "Disconnect client after this many over-budget messages (default "
+            + InboundRateLimiter.DEFAULT_DISCONNECT_AFTER + ", 0 never)",
         PROP_JSETTLERS_GAMEOPT_PREFIX + "*",    "Game option defaults, case-insensitive: jsettlers.gameopt.RD=y",
         PROP_JSETTLERS_GAMEOPTS_ACTIVATE,       "If set, activate these inactive game options (comma-separated list)",
         PROP_JSETTLERS_GAME_DISALLOW_6PLAYER,   "Flag to disallow 6-player games",
         PROP_JSETTLERS_GAME_DISALLOW_SEA__BOARD, "Flag to disallow sea board and scenarios",
+        PROP_JSETTLERS_GAME_BOARDPOOL_SIZE,     "Number of pre-generated boards to keep ready per game option set (default "
+            + BoardPool.DEFAULT_BOARDS_PER_KEY + ", 0 disables)",
+        PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES, "Hibernate games idle this many minutes, dismissing their robots (default 0, never)",
+        PROP_JSETTLERS_GAME_HIBERNATE_DIR,      "If set, dir in which to write hibernated games instead of keeping them in memory",
         // I18n.PROP_JSETTLERS_LOCALE,             "Locale override from the default, such as es or en_US, for console output",
             // -- not used yet at server
         PROP_JSETTLERS_BOTS_BOTGAMES_TOTAL,     "Run this many robot-only games, a few at a time (default 0); allow bot-only games",
@@ -678,13 +787,23 @@ public class SOCServer extends Server
         PROP_JSETTLERS_BOTS_START3P,            "Third-party bot client classes to start up with server",
         PROP_JSETTLERS_BOTS_TIMEOUT_TURN,       "Robot turn timeout (seconds) for third-party bots",
         PROP_JSETTLERS_DEBUG_BOTS_DATACHECK_RSRC, "Debug flag to check bots' count of player resources",
+        FlightRecorderEvents.PROP_JSETTLERS_DEBUG_JFR, "Flag to emit Java Flight Recorder (JFR) events for profiling (if 1 or Y)",
         PROP_JSETTLERS_SAVEGAME_DIR,            "Dir in which to store savegame files",
         PROP_JSETTLERS_STATS_FILE_NAME,         "If set, filename to append daily *STATS* into",
+        PROP_JSETTLERS_STATS_METRICS_FILE,      "If set, filename to write server metrics into (see format)",
+        PROP_JSETTLERS_STATS_METRICS_PORT,      "If set, localhost TCP port to serve server metrics on",
+        PROP_JSETTLERS_STATS_METRICS_FORMAT,    "Server metrics format: prometheus (default) or json",
+        PROP_JSETTLERS_STATS_METRICS_INTERVAL,  "Seconds between server metrics updates (default "
+            + MetricsExportTask.DEFAULT_INTERVAL_SECONDS + ')',
         PROP_JSETTLERS_TEST_VALIDATE__CONFIG,   "Flag to validate server and DB config, then exit (same as -t command-line option)",
         PROP_JSETTLERS_TEST_DB,                 "Flag to test database methods, then exit",
         SOCDBHelper.PROP_JSETTLERS_DB_BCRYPT_WORK__FACTOR, "For user accounts in DB, password encryption Work Factor (see README) (9 to "
             + soc.server.database.BCrypt.GENSALT_MAX_LOG2_ROUNDS + ')',
+        SOCDBHelper.PROP_JSETTLERS_DB_BCRYPT_THREADS, "For user accounts in DB, number of threads to check passwords (default: CPU count)",
+        SOCDBHelper.PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX, "For user accounts in DB, max logins waiting for password check (default 50)",
         SOCDBHelper.PROP_JSETTLERS_DB_SAVE_GAMES,  "Flag to save all games in DB (if 1 or Y)",
+        SOCDBHelper.PROP_JSETTLERS_DB_CACHE_TTL, "Seconds to cache user and robot-params lookups from DB (default 60, 0 to disable)",
+        SOCDBHelper.PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE, "Queue size for saving game results in DB in background (default 500, 0 to save immediately)",
         SOCDBHelper.PROP_JSETTLERS_DB_USER,     "DB username",
         SOCDBHelper.PROP_JSETTLERS_DB_PASS,     "DB password",
         SOCDBHelper.PROP_JSETTLERS_DB_URL,      "DB connection URL",
@@ -763,9 +882,16 @@ public class SOCServer extends Server
      */
     public static final int CLI_VERSION_MAX_REPORT = 6000 + 999;
 
+    /**
+     * Minimum client version (v2.7.00) for output batching; older clients are sent each message immediately.
+     * @see #PROP_JSETTLERS_CLI_OUTPUT__BATCH
+     * @since 2.7.00
+     */
+    public static final int CLI_VERSION_OUTPUT_BATCH = 2700;
+
     /**
      * If game will expire in this or fewer minutes, warn the players. Default is 15.
-     * Must be at least twice the sleep-time in {@link SOCGameTimeoutChecker#run()}.
+     * Must be at least twice {@link #GAME_TIME_EXPIRE_CHECK_MINUTES}.
      * The game expiry time is set at game creation in
      * {@link SOCGameListAtServer#createGame(String, String, String, Map, GameHandler)}.
      *<P>
@@ -774,7 +900,7 @@ public class SOCServer extends Server
      * Before v2.0.00 this field was named {@code GAME_EXPIRE_WARN_MINUTES}. <BR>
      * Before v1.2.01 the default was 10.
      *
-     * @see #checkForExpiredGames(long)
+     * @see #checkForExpiredGames(List, long, long[])
      * @see SOCGameTimeoutChecker#run()
      * @see SOCGameListAtServer#GAME_TIME_EXPIRE_MINUTES
      * @see #GAME_TIME_EXPIRE_ADDTIME_MINUTES
@@ -783,7 +909,8 @@ public class SOCServer extends Server
     public static int GAME_TIME_EXPIRE_WARN_MINUTES = 15;
 
     /**
-     * Sleep time (minutes) between checks for expired games in {@link SOCGameTimeoutChecker#run()}.
+     * Time (minutes) between a game's repeated expiry warnings, and between keepalive pings to an idle game,
+     * in {@link #checkForExpiredGames(List, long, long[])}.
      * Default is 5 minutes. Must be at most half of {@link #GAME_TIME_EXPIRE_WARN_MINUTES}
      * so the user has time to react after seeing the warning.
      * @see SOCGameListAtServer#GAME_TIME_EXPIRE_MINUTES
@@ -812,7 +939,7 @@ public class SOCServer extends Server
      * given a shorter timeout ({@link #ROBOT_FORCE_ENDTURN_STUBBORN_SECONDS})
      * so human players won't always have to wait so long.
      *
-     * @see #checkForExpiredTurns(long)
+     * @see #checkForExpiredTurn(SOCGame, long)
      * @since 1.1.11
      */
     public static int ROBOT_FORCE_ENDTURN_SECONDS = 8;
@@ -821,8 +948,8 @@ public class SOCServer extends Server
 
     /**
      * Force a particularly slow or buggy ("stubborn") robot to end their turn after this many seconds of inactivity.
-     * Must be shorter than {@link #ROBOT_FORCE_ENDTURN_SECONDS}. Default is 4. Sets frequency of
-     * {@link SOCGameTimeoutChecker}'s checks for expired turns.
+     * Must be shorter than {@link #ROBOT_FORCE_ENDTURN_SECONDS}. Default is 4. Also sets frequency of
+     * {@link SOCGameTimeoutChecker}'s repeated checks of a turn which has expired but hasn't ended yet.
      *
      * @see SOCPlayer#isStubbornRobot()
      * @see SOCPlayer#STUBBORN_ROBOT_FORCE_END_TURN_THRESHOLD
@@ -1431,6 +1558,45 @@ public class SOCServer extends Server
      */
     private Timer replyAuthTimer = new Timer(true);  // use daemon thread
 
+    /**
+     * Pool of pre-generated board layouts for {@link GameHandler#startGame(SOCGame)}, or {@code null} if
+     * {@link #PROP_JSETTLERS_GAME_BOARDPOOL_SIZE} is 0. Set up in {@link #initSocServer(String, String)}.
+     * @since 2.7.00
+     */
+    BoardPool boardPool;
+
+    /**
+     * Limits on the rate of each network client's inbound messages, or {@code null} if not set up yet.
+     * Set up in {@link #initSocServer(String, String)}; see {@link #PROP_JSETTLERS_CLI_RATELIMIT_PREFIX}.
+     * @see #checkInboundMessage(SOCMessage, Connection)
+     * @since 2.7.00
+     */
+    InboundRateLimiter inboundRateLimiter;
+
+    /**
+     * Hibernates idle games and wakes them again, or {@code null} if
+     * {@link #PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES} is 0. Set up in {@link #initSocServer(String, String)}.
+     * @see #hibernateGame(SOCGame)
+     * @see #wakeHibernatedGame(String, Connection)
+     * @since 2.7.00
+     */
+    GameHibernator gameHibernator;
+
+    /**
+     * Collects and exports metrics, or {@code null} if {@link #PROP_JSETTLERS_STATS_METRICS_FILE}
+     * and {@link #PROP_JSETTLERS_STATS_METRICS_PORT} aren't set. Set up in {@link #initSocServer(String, String)},
+     * stopped by {@link #stopServer(String)}.
+     * @since 2.7.00
+     */
+    private MetricsExportTask metricsExportTask;
+
+    /**
+     * Cached replies to clients' game option and scenario info requests.
+     * Cleared when Known Options change, such as by {@link #activateKnownOption(String)}.
+     * @since 2.7.00
+     */
+    final InfoResponseCache infoResponseCache = new InfoResponseCache();
+
     /**
      * Timer to queue and soon run miscellaneous short-duration {@link Runnable} tasks
      * without tying up any single-threaded part of the server.
@@ -1862,6 +2028,10 @@ public class SOCServer extends Server
         if (allowDebugUser)
             System.err.println("Warning: Remote debug commands are allowed.");
 
+        if (getConfigBoolProperty(FlightRecorderEvents.PROP_JSETTLERS_DEBUG_JFR, false)
+            && FlightRecorderEvents.setEnabled(true))
+            System.err.println("Java Flight Recorder (JFR) events are enabled.");
+
         if (props.containsKey(PROP_JSETTLERS_SAVEGAME_DIR))
         {
             if (allowDebugUser || props.containsKey(PROP_JSETTLERS_ACCOUNTS_ADMINS))
@@ -2116,6 +2286,60 @@ public class SOCServer extends Server
                 new StatsFileWriterTask(srvMsgHandler, statsFile, statsFilePath, miscTaskTimer);
                 System.err.println("Stats file: Will append to " + statsFile.getPath());
             }
+
+            final int boardPoolSize = getConfigIntProperty
+                (PROP_JSETTLERS_GAME_BOARDPOOL_SIZE, BoardPool.DEFAULT_BOARDS_PER_KEY);
+            if (boardPoolSize > 0)
+                boardPool = new BoardPool(boardPoolSize);
+
+            if (getConfigBoolProperty(PROP_JSETTLERS_CLI_OUTPUT__BATCH, true))
+                setOutputBatcher(new OutputBatcher(CLI_VERSION_OUTPUT_BATCH));
+
+            inboundRateLimiter = makeInboundRateLimiter();
+
+            gameHibernator = makeGameHibernator();
+            if (gameHibernator != null)
+            {
+                final long check_ms = GAME_TIME_EXPIRE_CHECK_MINUTES * 60L * 1000L;
+                miscTaskTimer.scheduleAtFixedRate(new TimerTask()
+                {
+                    public void run() { checkHibernatedGames(System.currentTimeMillis()); }
+                }, check_ms, check_ms);
+            }
+
+            miscTaskTimer.schedule(new TimerTask()
+            {
+                public void run() { srvMsgHandler.warmInfoResponseCache(); }
+            }, 0);
+
+            final String metricsFilePath = props.getProperty(PROP_JSETTLERS_STATS_METRICS_FILE);
+            final int metricsPort = getConfigIntProperty(PROP_JSETTLERS_STATS_METRICS_PORT, 0);
+            if (((metricsFilePath != null) && (metricsFilePath.trim().length() > 0)) || (metricsPort > 0))
+            {
+                final File metricsFile = ((metricsFilePath != null) && (metricsFilePath.trim().length() > 0))
+                    ? new File(metricsFilePath.trim()).getAbsoluteFile()
+                    : null;
+                final String fmt = props.getProperty(PROP_JSETTLERS_STATS_METRICS_FORMAT, "prometheus").trim();
+                final boolean isJSON = fmt.equalsIgnoreCase("json");
+                if (! (isJSON || fmt.equalsIgnoreCase("prometheus")))
+                    throw new IllegalArgumentException
+                        ("Unknown " + PROP_JSETTLERS_STATS_METRICS_FORMAT + ": " + fmt);
+                int interval = getConfigIntProperty
+                    (PROP_JSETTLERS_STATS_METRICS_INTERVAL, MetricsExportTask.DEFAULT_INTERVAL_SECONDS);
+                if (interval < 1)
+                    interval = MetricsExportTask.DEFAULT_INTERVAL_SECONDS;
+
+                try
+                {
+                    metricsExportTask = new MetricsExportTask
+                        (this, metricsFile, metricsPort, isJSON, interval, miscTaskTimer);
+                    System.err.println("Metrics: Every " + interval + " seconds"
+                        + ((metricsFile != null) ? ", will write to " + metricsFile.getPath() : "")
+                        + ((metricsPort > 0) ? ", serving on localhost port " + metricsPort : ""));
+                } catch (IOException e) {
+                    System.err.println("* Can't listen for metrics on port " + metricsPort + ": " + e);
+                }
+            }
         }
 
         this.databaseUserName = dbUserName;
@@ -3197,6 +3421,8 @@ public class SOCServer extends Server
             else
                 newGame = gameList.createGame(gaName, owner, localeStr, gaOpts, handler);
             gaName = newGame.getName();  // in case was renamed
+            if (gameTimeoutChecker != null)
+                gameTimeoutChecker.addGame(newGame);
 
             if (isBotsOnly)
                 newGame.isBotsOnly = true;
@@ -3542,12 +3768,18 @@ public class SOCServer extends Server
         {
             ga = gameList.getGameData(gm);
 
-            if (ga == null)
+            if ((ga == null) && ! ((gameHibernator != null) && gameHibernator.isHibernated(gm)))
                 return false;  // <---- Early return: no game ----
         }
 
         GameHandler hand = gameList.getGameTypeHandler(gm);
-        if (hand != null)
+        if (ga == null)
+        {
+            // Hibernated: Player's seat is kept in the saved game; a robot will be invited to sit there when it wakes
+            messageToGame(gm, true, new SOCLeaveGame(c.getData(), "-", gm));
+            gameDestroyed = gameList.isGameEmpty(gm);
+        }
+        else if (hand != null)
         {
             gameDestroyed = hand.leaveGame(ga, c, hasReplacement, hasHumanReplacement) || gameList.isGameEmpty(gm);
         } else {
@@ -3854,7 +4086,19 @@ public class SOCServer extends Server
 
         cg = gameList.getGameData(gm);
         if (cg == null)
+        {
+            if ((gameHibernator != null) && gameHibernator.isHibernated(gm))
+            {
+                final GameHibernator.Entry e = gameHibernator.remove(gm);
+                gameList.deleteGame(gm);
+
+                final Connection oConn = (e.owner != null) ? conns.get(e.owner) : null;
+                if (oConn != null)
+                    ((SOCClientData) oConn.getAppData()).deletedGame();
+            }
+
             return;
+        }
 
         final boolean wasBotsOnly = cg.isBotsOnly;
 
@@ -4044,6 +4288,7 @@ public class SOCServer extends Server
 
         knownOpts.activate(optKey);
         opt = knownOpts.get(optKey);
+        infoResponseCache.clear();
 
         final int minVers = opt.minVersion;
         final String optFeat = opt.getClientFeature(), optDesc = opt.getDesc();
@@ -4724,10 +4969,13 @@ public class SOCServer extends Server
      */
     public void messageToGame(final String gameName, final boolean isEvent, final SOCMessage mes)
     {
+        gameList.getJoinSnapshots().invalidate(gameName, mes);
         if (isEvent)
             recordGameEvent(gameName, mes);
 
+        final Object jfr = FlightRecorderEvents.beginBroadcast();
         final String mesCmd = mes.toCmd();
+        int nSent = 0;
 
         gameList.takeMonitorForGame(gameName);
 
@@ -4748,6 +4996,7 @@ public class SOCServer extends Server
                     {
                         //currentGameEventRecord.addMessageOut(new SOCMessageRecord(mes, "SERVER", c.getData()));
                         c.put(mesCmd);
+                        ++nSent;
                     }
                 }
             }
@@ -4758,6 +5007,9 @@ public class SOCServer extends Server
         }
 
         gameList.releaseMonitorForGame(gameName);
+
+        if (jfr != null)
+            FlightRecorderEvents.endBroadcast(jfr, gameName, mes.getType(), nSent, nSent * (long) mesCmd.length());
     }
 
     /**
@@ -4894,6 +5146,7 @@ public class SOCServer extends Server
         boolean rsrcMissing = false;
         SOCMessage msgForRecord = null;  // needed only if isEvent && isRecordGameEventsActive()
 
+        gameList.getJoinSnapshots().invalidate(gaName);
         if (takeMon)
             gameList.takeMonitorForGame(gaName);
 
@@ -4910,6 +5163,7 @@ public class SOCServer extends Server
                 // for reuse as rendered for previous client during loop:
                 String localText = null, gameTxtLocale = null;
                 SOCMessage gameLocalMsg = null;
+                Map<String, SOCMessage> localeMsgs = null;  // if hasMultiLocales, each locale's message; key can be null
 
                 while (menum.hasMoreElements())
                 {
@@ -4924,16 +5178,26 @@ public class SOCServer extends Server
                                    ? (gameTxtLocale != null)
                                    : ! cliLocale.equals(gameTxtLocale)  )))
                     {
-                        if (msgKey != null)
-                            try
+                        gameLocalMsg = (localeMsgs != null) ? localeMsgs.get(cliLocale) : null;
+                        if (gameLocalMsg == null)
+                        {
+                            if (msgKey != null)
+                                try
+                                {
+                                    localText = c.getLocalized(msgKey);
+                                } catch (MissingResourceException e) {
+                                    localText = msgKey;  // fallback so data fields will still be sent
+                                    rsrcMissing = true;
+                                }
+
+                            gameLocalMsg = msg.localize(localText);
+                            if (hasMultiLocales)
                             {
-                                localText = c.getLocalized(msgKey);
-                            } catch (MissingResourceException e) {
-                                localText = msgKey;  // fallback so data fields will still be sent
-                                rsrcMissing = true;
+                                if (localeMsgs == null)
+                                    localeMsgs = new HashMap<>();
+                                localeMsgs.put(cliLocale, gameLocalMsg);
                             }
-
-                        gameLocalMsg = msg.localize(localText);
+                        }
                         gameTxtLocale = cliLocale;
 
                         if (isEvent && (msgForRecord == null) && isRecordGameEventsActive()
@@ -5343,7 +5607,8 @@ public class SOCServer extends Server
 
                 // for reuse as rendered for previous client during loop:
                 String gameText = null, gameTxtLocale = null;
-                SOCMessage gameTextMsg = null;
+                SOCGameServerText gameTextMsg = null;
+                Map<String, SOCGameServerText> localeTextMsgs = null;  // if hasMultiLocales, each locale's rendered text
 
                 while (miter.hasNext())
                 {
@@ -5358,10 +5623,22 @@ public class SOCServer extends Server
                     if ((gameTextMsg == null)
                         || (hasMultiLocales && ! cliLocale.equals(gameTxtLocale)))
                     {
-                        gameText = (fmtSpecial)
-                            ? c.getLocalizedSpecial(ga, key, params)
-                            : ((params != null) ? c.getLocalized(key, params) : c.getLocalized(key));
-                        gameTextMsg = new SOCGameServerText(gaName, gameText);
+                        gameTextMsg = (localeTextMsgs != null) ? localeTextMsgs.get(cliLocale) : null;
+                        if (gameTextMsg != null)
+                        {
+                            gameText = gameTextMsg.getText();
+                        } else {
+                            gameText = (fmtSpecial)
+                                ? c.getLocalizedSpecial(ga, key, params)
+                                : ((params != null) ? c.getLocalized(key, params) : c.getLocalized(key));
+                            gameTextMsg = new SOCGameServerText(gaName, gameText);
+                            if (hasMultiLocales)
+                            {
+                                if (localeTextMsgs == null)
+                                    localeTextMsgs = new HashMap<>();
+                                localeTextMsgs.put(cliLocale, gameTextMsg);
+                            }
+                        }
                         gameTxtLocale = cliLocale;
 
                         if (isEvent && (msgForRecord == null) && isRecordGameEventsActive()
@@ -5452,6 +5729,7 @@ public class SOCServer extends Server
      */
     public void messageToGameWithMon(final String gameName, final boolean isEvent, final SOCMessage mes)
     {
+        gameList.getJoinSnapshots().invalidate(gameName, mes);
         if (isEvent)
             recordGameEvent(gameName, mes);
 
@@ -5459,6 +5737,9 @@ public class SOCServer extends Server
         if (v == null)
             return;
 
+        final Object jfr = FlightRecorderEvents.beginBroadcast();
+        int nSent = 0;
+
         //D.ebugPrintln("M2G - "+mes);
         final String mesCmd = mes.toCmd();
         Enumeration<Connection> menum = v.elements();
@@ -5471,8 +5752,12 @@ public class SOCServer extends Server
             {
                 //currentGameEventRecord.addMessageOut(new SOCMessageRecord(mes, "SERVER", c.getData()));
                 c.put(mesCmd);
+                ++nSent;
             }
         }
+
+        if (jfr != null)
+            FlightRecorderEvents.endBroadcast(jfr, gameName, mes.getType(), nSent, nSent * (long) mesCmd.length());
     }
 
     /**
@@ -5525,6 +5810,7 @@ public class SOCServer extends Server
     public void messageToGameExcept
         (final String gn, final List<Connection> ex, final int[] eventExclPNs, final SOCMessage mes, final boolean takeMon)
     {
+        gameList.getJoinSnapshots().invalidate(gn, mes);
         if (eventExclPNs != null)
             recordGameEventNotTo(gn, eventExclPNs, mes);
 
@@ -5582,6 +5868,7 @@ public class SOCServer extends Server
      */
     public void messageToGameExcept(String gn, Connection ex, final int eventExclPN, SOCMessage mes, boolean takeMon)
     {
+        gameList.getJoinSnapshots().invalidate(gn, mes);
         if (eventExclPN != PN_NON_EVENT)
             recordGameEventNotTo(gn, eventExclPN, mes);
 
@@ -5712,6 +5999,7 @@ public class SOCServer extends Server
         (final SOCGame ga, final int vmin, final int vmax, final List<Connection> ex,
          final SOCMessage mes, final boolean takeMon)
     {
+        gameList.getJoinSnapshots().invalidate(ga.getName(), mes);  // even if no current members get this message
         if ((ga.clientVersionLowest > vmax) || (ga.clientVersionHighest < vmin))
             return;  // <--- All clients too old or too new ---
 
@@ -5882,7 +6170,8 @@ public class SOCServer extends Server
 
             // for reuse as rendered for previous client during loop:
             String gameText = null, gameTxtLocale = null;
-            SOCMessage gameTextMsg = null;
+            SOCGameServerText gameTextMsg = null;
+            Map<String, SOCGameServerText> localeTextMsgs = null;  // if hasMultiLocales, each locale's rendered text
 
             final Enumeration<Connection> menum = v.elements();
             while (menum.hasMoreElements())
@@ -5902,10 +6191,22 @@ public class SOCServer extends Server
                 if ((gameTextMsg == null)
                     || (hasMultiLocales && ! cliLocale.equals(gameTxtLocale)))
                 {
-                    gameText = (formatSpecial)
-                        ? c.getLocalizedSpecial(ga, key, params)
-                        : ((params != null) ? c.getLocalized(key, params) : c.getLocalized(key));
-                    gameTextMsg = new SOCGameServerText(gaName, gameText);
+                    gameTextMsg = (localeTextMsgs != null) ? localeTextMsgs.get(cliLocale) : null;
+                    if (gameTextMsg != null)
+                    {
+                        gameText = gameTextMsg.getText();
+                    } else {
+                        gameText = (formatSpecial)
+                            ? c.getLocalizedSpecial(ga, key, params)
+                            : ((params != null) ? c.getLocalized(key, params) : c.getLocalized(key));
+                        gameTextMsg = new SOCGameServerText(gaName, gameText);
+                        if (hasMultiLocales)
+                        {
+                            if (localeTextMsgs == null)
+                                localeTextMsgs = new HashMap<>();
+                            localeTextMsgs.put(cliLocale, gameTextMsg);
+                        }
+                    }
                     gameTxtLocale = cliLocale;
                 }
 
@@ -6709,6 +7010,144 @@ public class SOCServer extends Server
         return false;
     }
 
+    /**
+     * Check a network client's inbound message against its {@link #inboundRateLimiter} budget
+     * before queueing it for dispatch. If the client has sent too many over-budget messages,
+     * sends {@link SOCRejectConnection} and disconnects it.
+     *<P>
+     * Called from the connection's reader thread, not the dispatcher thread.
+     *
+     * @param mes  Message from client; not null
+     * @param c  Client sending this message
+     * @return  true to queue {@code mes} for dispatch, false to drop it
+     * @since 2.7.00
+     */
+    @Override
+    public boolean checkInboundMessage(final SOCMessage mes, final Connection c)
+    {
+        final InboundRateLimiter irl = inboundRateLimiter;
+        final SOCClientData scd = (SOCClientData) c.getAppData();
+        if ((irl == null) || (scd == null))
+            return true;
+
+        switch (irl.check(mes, scd))
+        {
+        case InboundRateLimiter.ALLOW:
+            return true;
+
+        case InboundRateLimiter.DROP:
+            return false;
+
+        default:  // DISCONNECT
+            {
+                System.out.println("Rate limit: Disconnecting client " + c.host()
+                    + ((c.getData() != null) ? (" (" + c.getData() + ")") : "")
+                    + " after " + irl.getDisconnectAfter() + " dropped messages");
+                c.put(new SOCRejectConnection(c.getLocalized("connect.reject.too_many_messages")));
+                    // "Disconnected: Too many messages sent too quickly."
+                c.disconnectSoft();
+
+                // make an effort to send reject message before closing socket
+                final Connection rc = c;
+                miscTaskTimer.schedule(new TimerTask()
+                {
+                    public void run()
+                    {
+                        removeConnection(rc, true);
+                    }
+                }, 300);
+
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Create the {@link #inboundRateLimiter} from server properties
+     * {@link #PROP_JSETTLERS_CLI_RATELIMIT_PREFIX}{@code *} and {@link #PROP_JSETTLERS_CLI_RATELIMIT_DISCONNECT},
+     * with defaults from {@link InboundRateLimiter}.
+     * @return  A new rate limiter
+     * @throws IllegalArgumentException if a property value can't be parsed or is out of range
+     * @since 2.7.00
+     */
+    private InboundRateLimiter makeInboundRateLimiter()
+        throws IllegalArgumentException
+    {
+        final int n = InboundRateLimiter.CATEGORY_NAMES.length;
+        final int[] rates = new int[n], bursts = new int[n];
+        for (int cat = 0; cat < n; ++cat)
+        {
+            final String pName = PROP_JSETTLERS_CLI_RATELIMIT_PREFIX + InboundRateLimiter.CATEGORY_NAMES[cat];
+            final String val = props.getProperty(pName);
+            if ((val == null) || (val.trim().length() == 0))
+            {
+                rates[cat] = InboundRateLimiter.DEFAULT_RATES[cat];
+                bursts[cat] = InboundRateLimiter.DEFAULT_BURSTS[cat];
+                continue;
+            }
+
+            try
+            {
+                final String[] vals = val.split(",");
+                rates[cat] = Integer.parseInt(vals[0].trim());
+                if (vals.length == 2)
+                    bursts[cat] = Integer.parseInt(vals[1].trim());
+                else if ((vals.length != 1) || (rates[cat] != 0))
+                    throw new IllegalArgumentException
+                        ("Config: " + pName + " must be 0 or rate,burst");
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Config: " + pName + ": could not be parsed");
+            }
+            if ((rates[cat] < 0) || ((rates[cat] > 0) && (bursts[cat] < 1)))
+                throw new IllegalArgumentException
+                    ("Config: " + pName + ": rate must be 0 or more, burst at least 1");
+        }
+
+        final int disconnectAfter = getConfigIntProperty
+            (PROP_JSETTLERS_CLI_RATELIMIT_DISCONNECT, InboundRateLimiter.DEFAULT_DISCONNECT_AFTER);
+        if (disconnectAfter < 0)
+            throw new IllegalArgumentException
+                ("Config: " + PROP_JSETTLERS_CLI_RATELIMIT_DISCONNECT + " must be 0 or more");
+
+        return new InboundRateLimiter(rates, bursts, disconnectAfter);
+    }
+
+    /**
+     * Create the {@link #gameHibernator} from server properties
+     * {@link #PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES} and {@link #PROP_JSETTLERS_GAME_HIBERNATE_DIR}.
+     * @return  A new hibernator, or {@code null} if idle minutes is 0
+     * @throws IllegalArgumentException if a property value is out of range, the dir isn't found,
+     *     or the Gson jar isn't on the classpath
+     * @since 2.7.00
+     */
+    private GameHibernator makeGameHibernator()
+        throws IllegalArgumentException
+    {
+        final int idleMinutes = getConfigIntProperty(PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES, 0);
+        if (idleMinutes == 0)
+            return null;
+        if (idleMinutes < GAME_TIME_EXPIRE_CHECK_MINUTES)
+            throw new IllegalArgumentException
+                ("Config: " + PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES + " must be 0 or at least "
+                 + GAME_TIME_EXPIRE_CHECK_MINUTES);
+
+        try
+        {
+            Class.forName("com.google.gson.Gson");
+        } catch (Throwable th) {
+            throw new IllegalArgumentException
+                ("Config: " + PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES + " requires Gson jar on classpath");
+        }
+
+        final String dirPath = props.getProperty(PROP_JSETTLERS_GAME_HIBERNATE_DIR);
+        final File dir = ((dirPath != null) && (dirPath.trim().length() > 0)) ? new File(dirPath.trim()) : null;
+        if ((dir != null) && ! dir.isDirectory())
+            throw new IllegalArgumentException
+                ("Config: " + PROP_JSETTLERS_GAME_HIBERNATE_DIR + " not found as directory: " + dirPath);
+
+        return new GameHibernator(idleMinutes, dir);
+    }
+
     /**
      * List and description of general commands that any game member can run.
      * Used by {@link #processDebugCommand(Connection, SOCGame, String, String)}
@@ -6776,6 +7215,8 @@ public class SOCServer extends Server
         "*WHO* *  show all connected clients",
         "*BCAST*  Broadcast msg to all games/channels",
         "*DBSETTINGS*  Show current database settings, if any",
+        "*MSGSTATS* [all]  Show inbound message dispatch counts and times by type",
+        "*MEMSTATS* [all]  Show approximate memory use by game, scenario, and connection",
         "*GC*  Trigger the java garbage-collect",
         "*KILLBOT*  botname  End a bot's connection",
         "*RESETBOT* botname  End a bot's connection",
@@ -6971,6 +7412,14 @@ public class SOCServer extends Server
                 broadcastToVers(new SOCBCastTextMsg(stopMsg), 0, SOCStatusMessage.VERSION_FOR_SV_SERVER_SHUTDOWN - 1);
         }
 
+        final OutputBatcher ob = getOutputBatcher();
+        if (ob != null)
+        {
+            // if called while dispatching, send batched output now, not after connections are closed
+            setOutputBatcher(null);
+            ob.end();
+        }
+
         /// give time for messages to drain (such as urgent text messages
         /// about stopping the server)
         try
@@ -6983,6 +7432,12 @@ public class SOCServer extends Server
         }
 
         /// now continue with shutdown
+        if (metricsExportTask != null)
+        {
+            metricsExportTask.stop();
+            metricsExportTask = null;
+        }
+
         db.cleanup(true);
 
         super.stopServer();
@@ -7172,7 +7627,9 @@ public class SOCServer extends Server
                 {
                     public void authResult(final String dbUserName, final boolean hadDelay)
                     {
-                        // If no DB: If msgPass is "" then dbUserName is msgUser, else is null
+                        // If no DB: If msgPass is "" then dbUserName is msgUser, else is null.
+                        // May be called concurrently from several BCrypt threads:
+                        // Only posts to inQueue, which is thread-safe.
 
                         if (inQueue.isCurrentThreadTreater())
                             authOrRejectClientUser_postDBAuth
@@ -7195,7 +7652,9 @@ public class SOCServer extends Server
         {
             c.put(SOCStatusMessage.buildForVersion
                     (SOCStatusMessage.SV_PROBLEM_WITH_DB, c.getVersion(),
-                     "Problem connecting to database, please try again later."));
+                     (sqle instanceof SQLTransientException)
+                     ? "Server is busy, please try again in a few seconds."  // BCrypt queue full, or shutting down
+                     : "Problem connecting to database, please try again later."));
         }
     }
 
@@ -7350,6 +7809,50 @@ public class SOCServer extends Server
         return cliFeats;
     }
 
+    /**
+     * Get a snapshot of all connected clients, named and unnamed, for stats like
+     * {@link GameMemoryEstimator#getStatsFormatted(SOCServer, int)}.
+     * @return  new list of connections; not null
+     * @since 2.7.00
+     */
+    /*package*/ List<Connection> getAllConnections()
+    {
+        final List<Connection> ret = new ArrayList<>();
+        synchronized (unnamedConns)  // sync on that not on conns, per javadoc
+        {
+            ret.addAll(unnamedConns);
+            Enumeration<Connection> ec = getConnections();  // the named ones
+            while (ec.hasMoreElements())
+                ret.add(ec.nextElement());
+        }
+
+        return ret;
+    }
+
+    /**
+     * Get a game's event log, if this server records one, to include in memory estimates.
+     * This server doesn't; subclasses which record game events can override.
+     * @param gaName  Game name
+     * @return  the game's event log object, or {@code null} if none
+     * @see GameMemoryEstimator#estimateGame(SOCGame, SOCChatRecentBuffer, java.util.Collection, Object)
+     * @since 2.7.00
+     */
+    protected Object getGameEventLog(final String gaName)
+    {
+        return null;
+    }
+
+    /**
+     * Get this server's inbound message dispatcher, for its per-message-type stats.
+     * @return  the dispatcher given to our {@code genericServer.Server} constructor
+     * @see SOCMessageDispatcher#getStatsFormatted(int)
+     * @since 2.7.00
+     */
+    /*package*/ SOCMessageDispatcher getMessageDispatcher()
+    {
+        return (SOCMessageDispatcher) inboundMsgDispatcher;
+    }
+
     /**
      * Localize the standard "Welcome to Java Settlers of Catan!" text,
      * or return the custom welcome text from {@link #PROP_JSETTLERS_ADMIN_WELCOME}
@@ -8162,6 +8665,17 @@ public class SOCServer extends Server
                      c.getData() + SOCMessage.sep2_char +
                      getClientWelcomeMessage(c)));  // "Welcome to Java Settlers of Catan!"
 
+            if ((gameHibernator != null) && (gameHibernator.getCurrentCount() > 0))
+            {
+                // Wake any hibernated games this client is joining or rejoining
+                if ((gameName != null) && gameHibernator.isHibernated(gameName))
+                    wakeHibernatedGame(gameName, c);
+                if (isTakingOver)
+                    for (final String gn : gameHibernator.getGameNames())
+                        if (gameList.isMember(c, gn))
+                            wakeHibernatedGame(gn, c);
+            }
+
             if (isTakingOver)
             {
                 /**
@@ -8534,6 +9048,258 @@ public class SOCServer extends Server
         }
     }
 
+    /**
+     * Hibernate an idle game with {@link #gameHibernator}: Save its state, tell its members,
+     * dismiss its robots, and release its {@link SOCGame} from the game list.
+     * The game will wake when a member next acts; see {@link #wakeHibernatedGame(String, Connection)}.
+     *<P>
+     * Does nothing if the game is no longer in the list, has had activity since being found idle,
+     * is waiting for robots to join or leave, has no seated human players who are members, or fails
+     * {@link GameHibernator#canHibernate(SOCGame)}.
+     *<P>
+     * Called on the treater thread, from a task posted by {@link #checkForExpiredGames(List, long, long[])}.
+     *
+     * @param ga  Game to hibernate
+     * @return  true if hibernated
+     * @since 2.7.00
+     */
+    public boolean hibernateGame(final SOCGame ga)
+    {
+        final GameHibernator gh = gameHibernator;
+        final String gaName = ga.getName();
+        if ((gh == null) || (gameList.getGameData(gaName) != ga)
+            || ((System.currentTimeMillis() - ga.lastActionTime) < gh.getIdleMinutes() * 60L * 1000L)
+            || robotJoinRequests.containsKey(gaName) || robotDismissRequests.containsKey(gaName)
+            || ! GameHibernator.canHibernate(ga))
+            return false;
+
+        final List<Connection> bots = new ArrayList<>();
+        gameList.takeMonitor();
+        try
+        {
+            boolean hasSeatedHuman = false;
+            final Vector<Connection> members = gameList.getMembers(gaName);
+            if (members != null)
+                for (final Connection mc : members)
+                {
+                    if (((SOCClientData) mc.getAppData()).isRobot)
+                        bots.add(mc);
+                    else if (ga.getPlayer(mc.getData()) != null)
+                        hasSeatedHuman = true;
+                }
+            if (! hasSeatedHuman)
+                return false;  // if robots can't rejoin at wake, game would have no players left
+
+            gh.store(ga, this);
+            messageToGameKeyed(ga, true, true, "game.hibernate.idle");
+                // ">>> This game has been idle a while, so its robots have left. They will return when play continues."
+            gameList.hibernateGame(ga);
+
+            // Bots' seats are kept in the saved data; when game wakes, bots are invited to sit there
+            for (final Connection bc : bots)
+            {
+                gameList.removeMember(bc, gaName);
+                messageToGame(gaName, true, new SOCLeaveGame(bc.getData(), "-", gaName));
+                messageToPlayer(bc, gaName, PN_NON_EVENT, new SOCRobotDismiss(gaName));
+            }
+        } catch (Exception e) {
+            D.ebugPrintStackTrace(e, "Exception in hibernateGame(" + gaName + ")");
+            return false;
+        } finally {
+            gameList.releaseMonitor();
+        }
+
+        return true;
+    }
+
+    /**
+     * Wake a game hibernated by {@link #hibernateGame(SOCGame)}: Load its saved state into a new {@link SOCGame},
+     * put that into the game list, and resume play like {@link #resumeReloadedGame(Connection, SOCGame)}
+     * by inviting robots to sit at the seats they left. Until those robots have all sat down,
+     * members' game actions are held by {@link GameHibernator#holdIfWaking(SOCGame, SOCMessage, Connection)}.
+     * If no robots are available, or they haven't all sat down within {@link GameHibernator#WAKE_ROBOTS_TIMEOUT_SECONDS},
+     * resumes play with their seats vacant: See {@link #resumeWokenGameWithoutRobots(SOCGame, Connection)}.
+     * If the game can't be loaded, destroys it and announces its deletion.
+     *<P>
+     * Called on the treater thread when a member sends a message to the game or a client joins it,
+     * or by {@link #checkHibernatedGames(long)} when the game is about to expire.
+     *
+     * @param gaName  Game name
+     * @param c  Client whose action is waking the game, or {@code null}; will be sent any problems resuming
+     * @return  the woken game, or if not hibernated the game currently in the list under that name;
+     *     {@code null} if not found or couldn't be loaded
+     * @since 2.7.00
+     */
+    public SOCGame wakeHibernatedGame(final String gaName, final Connection c)
+    {
+        final GameHibernator gh = gameHibernator;
+        if (gh == null)
+            return gameList.getGameData(gaName);
+
+        SOCGame ga;
+        boolean woke = false, failed = false;
+        gameList.takeMonitor();
+        try
+        {
+            ga = gameList.getGameData(gaName);
+            if (ga == null)
+            {
+                ga = gh.wake(gaName, this);
+                if (ga != null)
+                {
+                    gameList.wakeGame(ga);
+                    woke = true;
+                }
+            }
+        } catch (Exception e) {
+            D.ebugPrintStackTrace(e, "Exception waking hibernated game " + gaName);
+            ga = null;
+            failed = true;
+        } finally {
+            gameList.releaseMonitor();
+        }
+
+        if (failed)
+        {
+            destroyGameAndBroadcast(gaName, "wakeHibernatedGame");
+            return null;
+        }
+        if (! woke)
+            return ga;
+
+        gameTimeoutChecker.addGame(ga);
+        final String resumeRet = resumeReloadedGame(c, ga);
+        if (RESUME_RELOADED_FETCHING_ROBOTS.equals(resumeRet))
+        {
+            gh.startHolding(gaName);
+
+            final SOCGame wokenGa = ga;
+            miscTaskTimer.schedule(new TimerTask()
+            {
+                public void run()
+                {
+                    inQueue.post(new Runnable()
+                    {
+                        public void run()
+                        {
+                            if ((gameList.getGameData(gaName) == wokenGa) && gh.isWaking(gaName)
+                                && (wokenGa.getGameState() == SOCGame.LOADING_RESUMING))
+                                resumeWokenGameWithoutRobots(wokenGa, null);
+                        }
+                    });
+                }
+            }, GameHibernator.WAKE_ROBOTS_TIMEOUT_SECONDS * 1000L);
+        }
+        else if (resumeRet != null)
+        {
+            // No robots available to rejoin
+            ga = resumeWokenGameWithoutRobots(ga, c);
+        }
+
+        return ga;
+    }
+
+    /**
+     * A game woken by {@link #wakeHibernatedGame(String, Connection)} can't get robots to rejoin,
+     * because none are available or they haven't all sat down within
+     * {@link GameHibernator#WAKE_ROBOTS_TIMEOUT_SECONDS}: Stop waiting for them,
+     * resume play with their seats vacant, tell the members, and release the members' held messages.
+     * If it's a vacated seat's turn, ends or forces that turn like when a player leaves with no replacement.
+     * If play still can't resume, destroys the game and announces its deletion.
+     *<P>
+     * Called on the treater thread.
+     *
+     * @param ga  Woken game, in state {@link SOCGame#LOADING} or {@link SOCGame#LOADING_RESUMING}
+     * @param c  Client whose action woke the game, or {@code null}; will be sent any problems resuming
+     * @return  {@code ga}, or {@code null} if it was destroyed
+     * @since 2.7.00
+     */
+    private SOCGame resumeWokenGameWithoutRobots(final SOCGame ga, final Connection c)
+    {
+        final String gaName = ga.getName();
+        final SavedGameModel sgm = (SavedGameModel) ga.savedGameModel;
+
+        robotJoinRequests.remove(gaName);  // any bots arriving later will be dismissed when they try to sit
+
+        final String[] vacatedNames = new String[ga.maxPlayers];
+        final boolean[] seatsNeeded = (sgm != null) ? sgm.findSeatsNeedingBots() : null;
+        if (seatsNeeded != null)
+        {
+            ga.takeMonitor();
+            try
+            {
+                for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                {
+                    if (! seatsNeeded[pn])
+                        continue;
+
+                    final String plName = ga.getPlayer(pn).getName();
+                    if (plName != null)
+                    {
+                        ga.removePlayer(plName, false);
+                        vacatedNames[pn] = plName;
+                    }
+                    sgm.playerSeats[pn].isSeatVacant = true;
+                }
+            } finally {
+                ga.releaseMonitor();
+            }
+
+            messageToGameKeyed(ga, true, true, "game.hibernate.wake.nobots");
+                // ">>> No robots are available to rejoin this game, so their seats will be left empty."
+        }
+
+        final String resumeRet = (sgm != null) ? resumeReloadedGame(c, ga) : "savedGameModel";
+        gameHibernator.releaseHeld(gaName, inQueue);
+        if (resumeRet != null)
+        {
+            D.ebugPrintlnINFO("Can't resume woken game " + gaName + ": " + resumeRet);
+            destroyGameAndBroadcast(gaName, "resumeWokenGameWithoutRobots");
+            return null;
+        }
+
+        final GameHandler hand = gameList.getGameTypeHandler(gaName);
+        if (hand != null)
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                if ((vacatedNames[pn] != null) && (ga.getGameState() < SOCGame.OVER))
+                    hand.endGameTurnOrForce(ga, pn, vacatedNames[pn], null, false);
+                        // not current player: returns without changes unless game was waiting for that player
+
+        return ga;
+    }
+
+    /**
+     * Check games hibernated by {@link #gameHibernator}, like {@link #checkForExpiredGames(List, long, long[])}
+     * does for other games: Send a keepalive ping to each game's members, or if the game
+     * will soon expire, wake it so members are warned and can extend it with {@code *ADDTIME*}.
+     * Called every {@link #GAME_TIME_EXPIRE_CHECK_MINUTES} from {@link #miscTaskTimer}.
+     *
+     * @param currentTimeMillis  The time when called, from {@link System#currentTimeMillis()}
+     * @since 2.7.00
+     */
+    void checkHibernatedGames(final long currentTimeMillis)
+    {
+        final GameHibernator gh = gameHibernator;
+        if ((gh == null) || (gh.getCurrentCount() == 0))
+            return;
+
+        final long warn_ms = GAME_TIME_EXPIRE_WARN_MINUTES * 60L * 1000L;
+        for (final String gaName : gh.getGameNames())
+        {
+            final GameHibernator.Entry e = gh.getEntry(gaName);
+            if (e == null)
+                continue;  // woken since getGameNames
+
+            if ((e.expiration - warn_ms) <= currentTimeMillis)
+                inQueue.post(new Runnable()
+                {
+                    public void run() { wakeHibernatedGame(gaName, null); }
+                });
+            else
+                messageToGame(gaName, false, new SOCServerPing(GAME_TIME_EXPIRE_CHECK_MINUTES * 60));
+        }
+    }
+
     /**
      * Start a few robot-only games if {@link #numRobotOnlyGamesRemaining} &gt; 0.
      * Later as these games end, the server will start new games as long as
@@ -9198,6 +9964,21 @@ public class SOCServer extends Server
     void sendGameScenarioInfo
         (String scKey, final SOCScenario scData, final Connection c,
          final boolean alwaysSend, final boolean stringsOnly)
+    {
+        sendGameScenarioInfo(scKey, scData, c, alwaysSend, stringsOnly, null);
+    }
+
+    /**
+     * If needed, send this scenario's updated info and i18n localized short/long description strings to the client,
+     * or add them to a list to send later. See {@link #sendGameScenarioInfo(String, SOCScenario, Connection, boolean, boolean)}
+     * for details; the client's tracking fields are updated either way.
+     *
+     * @param out  If not null, add any messages' command strings to this list instead of sending them to {@code c}
+     * @since 2.7.00
+     */
+    void sendGameScenarioInfo
+        (String scKey, final SOCScenario scData, final Connection c,
+         final boolean alwaysSend, final boolean stringsOnly, final List<String> out)
     {
         if (scKey == null)
         {
@@ -9339,7 +10120,7 @@ public class SOCServer extends Server
 
         if (scSend != null)
         {
-            c.put(new SOCScenarioInfo(scSend, nm, desc));
+            putOrCollect(c, out, new SOCScenarioInfo(scSend, nm, desc));
         } else {
             List<String> scenStrs = new ArrayList<String>();
             scenStrs.add(scKey);
@@ -9351,10 +10132,25 @@ public class SOCServer extends Server
                 scenStrs.add(SOCLocalizedStrings.MARKER_KEY_UNKNOWN);
             }
 
-            c.put(new SOCLocalizedStrings(SOCLocalizedStrings.TYPE_SCENARIO, 0, scenStrs));
+            putOrCollect(c, out, new SOCLocalizedStrings(SOCLocalizedStrings.TYPE_SCENARIO, 0, scenStrs));
         }
     }
 
+    /**
+     * Send a message to a client, or add it to a list to send later, such as a reply to be cached.
+     * @param c  Client connection
+     * @param out  If not null, add {@code msg}'s {@link SOCMessage#toCmd()} to this list instead of sending to {@code c}
+     * @param msg  Message to send
+     * @since 2.7.00
+     */
+    static void putOrCollect(final Connection c, final List<String> out, final SOCMessage msg)
+    {
+        if (out != null)
+            out.add(msg.toCmd());
+        else
+            c.put(msg);
+    }
+
     /**
      * Handle "create account" request from a client, either creating the account
      * or rejecting the request. If called when ! {@link SOCDBHelper#isInitialized()},
@@ -9730,6 +10526,7 @@ public class SOCServer extends Server
             GameHandler hand = gameList.getGameTypeHandler(gaName);
             if (hand != null)
                 hand.sitDown_sendPrivateInfo(ga, c, pn, sendLikeRejoin);
+            scheduleTurnTimeoutCheck(ga, false);  // in case a robot took over the current player
 
             /**
              * if the request list is now empty and the game hasn't started/resumed yet,
@@ -9742,6 +10539,8 @@ public class SOCServer extends Server
                 final String owner = ga.getOwner();
                 final Connection ownC = ((owner != null) ? getConnection(owner) : null);
                 srvMsgHandler.processDebugCommand_resumeGame(ownC, ga, "");  // <--- Resume the game ---
+                if (gameHibernator != null)
+                    gameHibernator.releaseHeld(gaName, inQueue);  // if woken from hibernation
             }
         }
         catch (Throwable e)
@@ -9812,6 +10611,8 @@ public class SOCServer extends Server
             return;  // <---- Early return: reset failed ----
         }
         SOCGame reGame = reBoard.newGame;
+        if (gameTimeoutChecker != null)
+            gameTimeoutChecker.addGame(reGame);
 
         // Announce who asked for this reset
         {
@@ -10321,31 +11122,57 @@ public class SOCServer extends Server
     }
 
     /**
-     * check for games that have expired and destroy them.
+     * Check all games for expiry and destroy the expired ones.
+     * If games are about to expire, send a warning.
+     *
+     * @param currentTimeMillis  The time when called, from {@link System#currentTimeMillis()}
+     * @deprecated Since v2.7.00, {@link SOCGameTimeoutChecker} checks each game only when it's near expiry
+     *     or needs a keepalive ping, by calling {@link #checkForExpiredGames(List, long, long[])}.
+     *     For compatibility, this method calls that for every game now.
+     */
+    @Deprecated
+    public void checkForExpiredGames(final long currentTimeMillis)
+    {
+        final List<SOCGame> games = new ArrayList<SOCGame>(gameList.getGamesData());
+        checkForExpiredGames(games, currentTimeMillis, new long[games.size()]);
+    }
+
+    /**
+     * Check these games for expiry and destroy the expired ones.
      * If games are about to expire, send a warning.
+     * If a game is idle, send a keepalive ping to its members.
      * As of version 1.1.09, practice games ({@link SOCGame#isPractice} flag set) don't expire.
-     * Is callback method every few minutes from {@link SOCGameTimeoutChecker#run()}.
+     * Is callback method from {@link SOCGameTimeoutChecker#run()} when games' expiry-check deadlines are reached.
+     *<P>
+     * Before v2.7.00 this method was {@code checkForExpiredGames(long)}, which checked all games every 5 minutes.
      *
+     * @param games  Games to check; not null
      * @param currentTimeMillis  The time when called, from {@link System#currentTimeMillis()}
+     * @param nextCheckTimes  Array of same length as {@code games}, into which this method puts
+     *     the time when each game should next be checked, or 0 if it shouldn't be checked again
+     *     (expired, destroyed, or a practice game)
      * @see #GAME_TIME_EXPIRE_WARN_MINUTES
      * @see SOCGameListAtServer#GAME_TIME_EXPIRE_MINUTES
-     * @see #checkForExpiredTurns(long)
+     * @see #checkForExpiredTurn(SOCGame, long)
+     * @since 2.7.00
      */
-    public void checkForExpiredGames(final long currentTimeMillis)
+    /*package*/ void checkForExpiredGames
+        (final List<SOCGame> games, final long currentTimeMillis, final long[] nextCheckTimes)
     {
         List<String> expired = new ArrayList<String>();
 
         gameList.takeMonitor();
 
-        // Warn 3 minutes earlier, because of coarse 5-minute granularity in SOCGameTimeoutChecker.run()
-        long warn_ms = (3 + GAME_TIME_EXPIRE_WARN_MINUTES) * 60L * 1000L;
+        final long warn_ms = GAME_TIME_EXPIRE_WARN_MINUTES * 60L * 1000L,
+            check_ms = GAME_TIME_EXPIRE_CHECK_MINUTES * 60L * 1000L;
 
         try
         {
-            for (SOCGame gameData : gameList.getGamesData())
+            for (int i = 0; i < nextCheckTimes.length; ++i)
             {
-                if (gameData.isPractice)
-                    continue;  // <--- Skip practice games, they don't expire ---
+                final SOCGame gameData = games.get(i);
+                if ((gameData.isPractice) || (gameList.getGameData(gameData.getName()) != gameData))
+                    continue;  // <--- Skip practice games, they don't expire; skip destroyed games ---
 
                 long gameExpir = gameData.getExpiration();
                 final boolean hasWarned = gameData.hasWarnedExpiration();
@@ -10358,6 +11185,8 @@ public class SOCServer extends Server
                     expired.add(gameName);
                     messageToGameKeyed(gameData, true, true, "game.time.expire.deleted");
                         // ">>> The time limit on this game has expired, it will now be deleted."
+
+                    continue;
                 }
                 else if ((gameExpir - warn_ms) <= currentTimeMillis)
                 {
@@ -10373,7 +11202,8 @@ public class SOCServer extends Server
                         } else {
                             // minutes might be negative; can happen if server was on a sleeping laptop
                             minutes = GAME_TIME_EXPIRE_CHECK_MINUTES + 1;
-                            gameData.setExpiration(currentTimeMillis + (minutes * 60 * 1000));
+                            gameExpir = currentTimeMillis + (minutes * 60 * 1000);
+                            gameData.setExpiration(gameExpir);
                         }
                     }
 
@@ -10382,14 +11212,34 @@ public class SOCServer extends Server
 
                     if (! hasWarned)
                         gameData.setWarnedExpiration();
+
+                    // check again at expiry, or sooner to warn again
+                    nextCheckTimes[i] = Math.min(gameExpir, currentTimeMillis + check_ms);
+                    continue;
                 }
-                else if ((currentTimeMillis - gameData.lastActionTime) > (GAME_TIME_EXPIRE_CHECK_MINUTES * 60 * 1000))
+                else if ((currentTimeMillis - gameData.lastActionTime) > check_ms)
                 {
-                    // If game is idle since previous check, send keepalive ping to its clients
-                    // so the network doesn't disconnect while all players are taking a break
+                    if ((gameHibernator != null)
+                        && ((currentTimeMillis - gameData.lastActionTime) >= gameHibernator.getIdleMinutes() * 60L * 1000L)
+                        && GameHibernator.canHibernate(gameData))
+                    {
+                        // Idle long enough to hibernate; once that's done, won't be checked here again
+                        final SOCGame ga = gameData;
+                        inQueue.post(new Runnable()
+                        {
+                            public void run() { hibernateGame(ga); }
+                        });
+                    } else {
+                        // If game is idle since previous check, send keepalive ping to its clients
+                        // so the network doesn't disconnect while all players are taking a break
 
-                    messageToGame(gameData.getName(), false, new SOCServerPing(GAME_TIME_EXPIRE_CHECK_MINUTES * 60));
+                        messageToGame(gameData.getName(), false, new SOCServerPing(GAME_TIME_EXPIRE_CHECK_MINUTES * 60));
+                    }
                 }
+
+                // check again when it's time to warn, or to ping if idle
+                nextCheckTimes[i] = Math.min
+                    (gameExpir - warn_ms, Math.max(gameData.lastActionTime, currentTimeMillis) + check_ms);
             }
         }
         catch (Exception e)
@@ -10408,78 +11258,168 @@ public class SOCServer extends Server
     }
 
     /**
-     * Check all games for robot turns that have expired, and end that turn,
+     * Check all games for robot turns that have expired, and end those turns.
+     *
+     * @param currentTimeMillis  The time when called, from {@link System#currentTimeMillis()}
+     * @deprecated Since v2.7.00, {@link SOCGameTimeoutChecker} checks each game only at its turn's deadline
+     *     by calling {@link #checkForExpiredTurn(SOCGame, long)}. For compatibility,
+     *     this method calls that for every game now.
+     * @since 1.1.11
+     */
+    @Deprecated
+    public void checkForExpiredTurns(final long currentTimeMillis)
+    {
+        for (SOCGame ga : gameList.getGamesData())
+            checkForExpiredTurn(ga, currentTimeMillis);
+    }
+
+    /**
+     * Check a game for a robot turn that has expired, and end that turn,
      * or stop waiting for non-current-player robot actions (discard picks, etc).
      * Robot turns may end from inactivity or from an illegal placement.
-     * Checks each game's {@link SOCGame#lastActionTime} field, and calls
-     * {@link GameHandler#endTurnIfInactive(SOCGame, long)} if the
-     * last action is older than {@link #ROBOT_FORCE_ENDTURN_SECONDS}
-     * (or for third-party bots, {@link #PROP_JSETTLERS_BOTS_TIMEOUT_TURN}).
+     * Gets the turn's deadline from {@link #getTurnTimeoutDeadline(SOCGame)}, and calls
+     * {@link GameHandler#endTurnIfInactive(SOCGame, long)} if that has passed.
      *<P>
-     * Is callback method every few seconds from {@link SOCGameTimeoutChecker#run()}.
+     * Is callback method from {@link SOCGameTimeoutChecker#run()} when the game's turn-check deadline is reached.
+     * Before v2.7.00 this method was {@code checkForExpiredTurns(long)}, which checked all games every few seconds.
      *
+     * @param ga  Game to check
      * @param currentTimeMillis  The time when called, from {@link System#currentTimeMillis()}
+     * @return  Time when the game's turn should next be checked, or 0 if game has been destroyed
+     *     or isn't waiting for a robot. In that case {@link SOCGameHandler#sendGameState(SOCGame)}
+     *     and {@link #sitDown(SOCGame, Connection, int, boolean, boolean)} schedule a new check
+     *     when the turn or game state changes.
      * @see #ROBOT_FORCE_ENDTURN_SECONDS
-     * @see #checkForExpiredGames(long)
-     * @since 1.1.11
+     * @see #checkForExpiredGames(List, long, long[])
+     * @since 2.7.00
      */
-    public void checkForExpiredTurns(final long currentTimeMillis)
+    /*package*/ long checkForExpiredTurn(final SOCGame ga, final long currentTimeMillis)
     {
         // Because nothing's currently happening in such a turn,
         // and we force the end in another thread,
         // we shouldn't need to worry about locking.
         // So, we don't need gameList.takeMonitor().
 
-        final long inactiveTime = currentTimeMillis - (ROBOT_FORCE_ENDTURN_SECONDS * 1000L),
-                   inactiveTimeStubborn = currentTimeMillis - (ROBOT_FORCE_ENDTURN_STUBBORN_SECONDS * 1000L);
-        final long inactiveTime3p;  // if set, longer time for 3rd-party bot players
+        if (gameList.getGameData(ga.getName()) != ga)
+            return 0;  // destroyed or reset
+
+        try
+        {
+            if (ga.getGameState() >= SOCGame.LOADING)  // includes >= SOCGame.OVER
+            {
+                // nothing to do.
+                // bump out that time, so the game doesn't look active to other checks
+                ga.lastActionTime = currentTimeMillis + (SOCGameListAtServer.GAME_TIME_EXPIRE_MINUTES * 60 * 1000);
+                return 0;
+            }
+
+            final long deadline = getTurnTimeoutDeadline(ga);
+            if ((deadline == 0) || (deadline > currentTimeMillis))
+                return deadline;
+
+            GameHandler hand = gameList.getGameTypeHandler(ga.getName());
+            if (hand != null)
+                hand.endTurnIfInactive(ga, currentTimeMillis);
+
+            // TODO consider keeping stats on forced end turns (return false or true from endTurnIfInactive, etc)
+        }
+        catch (Exception e)
         {
-            final int timeout3p = getConfigIntProperty(PROP_JSETTLERS_BOTS_TIMEOUT_TURN, 0);
-            inactiveTime3p = (timeout3p <= ROBOT_FORCE_ENDTURN_SECONDS)
-                ? 0
-                : currentTimeMillis - (timeout3p * 1000L);
+            D.ebugPrintlnINFO("Exception in checkForExpiredTurn - " + e);
         }
 
-        try
+        // Turn is being force-ended in another thread, which will schedule the next turn's check
+        // when it sends the new game state; in case the turn still hasn't ended, check again after a while
+        return currentTimeMillis + ROBOT_FORCE_ENDTURN_STUBBORN_SECONDS * 1000L;
+    }
+
+    /**
+     * Get the time when a game's current turn should be force-ended if its robot player hasn't acted,
+     * or the game should stop waiting for robots to discard or pick resources.
+     * Based on the game's {@link SOCGame#lastActionTime} and {@link #ROBOT_FORCE_ENDTURN_SECONDS},
+     * or {@link #ROBOT_FORCE_ENDTURN_STUBBORN_SECONDS} for a stubborn robot,
+     * or {@link #PROP_JSETTLERS_BOTS_TIMEOUT_TURN} for a third-party robot,
+     * or {@link SOCGameHandler#ROBOT_FORCE_ENDTURN_TRADEOFFER_SECONDS} if the robot's
+     * trade offer is waiting for a human player's reply.
+     *<P>
+     * Human players' turns have no deadline. Like {@link SOCGameHandler#endTurnIfInactive(SOCGame, long)},
+     * if the game is waiting for humans and robots to discard or pick resources, it waits for the humans.
+     *
+     * @param ga  Game to check
+     * @return  Deadline time, same format as {@link System#currentTimeMillis()},
+     *     or 0 if game isn't waiting for a robot or hasn't started
+     * @see SOCGameTimeoutChecker#ensureTurnCheck(SOCGame)
+     * @since 2.7.00
+     */
+    /*package*/ long getTurnTimeoutDeadline(final SOCGame ga)
+    {
+        final int gs = ga.getGameState(), cpn = ga.getCurrentPlayerNumber();
+        if ((gs >= SOCGame.LOADING) || (gs < SOCGame.START1A) || (cpn == -1))
+            return 0;
+
+        SOCPlayer pl = null;  // robot the game is waiting on
+        if ((gs == SOCGame.WAITING_FOR_DISCARDS) || (gs == SOCGame.WAITING_FOR_PICK_GOLD_RESOURCE)
+            || (gs == SOCGame.STARTS_WAITING_FOR_PICK_GOLD_RESOURCE))
         {
-            for (SOCGame ga : gameList.getGamesData())
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
             {
-                // lastActionTime is a recent time, or might be 0 to force end
-                long lastActionTime = ga.lastActionTime;
-                if (lastActionTime > (ga.isCurrentPlayerStubbornRobot() ? inactiveTimeStubborn : inactiveTime))
+                final SOCPlayer pli = ga.getPlayer(pn);
+                if ((! pli.getNeedToDiscard()) && (pli.getNeedToPickGoldHexResources() == 0))
                     continue;
 
-                final int gs = ga.getGameState();
-                if (gs >= SOCGame.LOADING)  // includes >= SOCGame.OVER
-                {
-                    // nothing to do.
-                    // bump out that time, so we don't see it again every few seconds
-                    ga.lastActionTime = currentTimeMillis + (SOCGameListAtServer.GAME_TIME_EXPIRE_MINUTES * 60 * 1000);
-                    continue;
-                }
+                if (! pli.isRobot())
+                    return 0;  // waiting on humans
+                if (pl == null)
+                    pl = pli;
+            }
+            if (pl == null)
+                return 0;
+        } else {
+            pl = ga.getPlayer(cpn);
+            if (! pl.isRobot())
+                return 0;
+        }
+
+        int timeoutSec = (ga.isCurrentPlayerStubbornRobot())
+            ? ROBOT_FORCE_ENDTURN_STUBBORN_SECONDS
+            : ROBOT_FORCE_ENDTURN_SECONDS;
 
-                final int cpn = ga.getCurrentPlayerNumber();
-                if (cpn == -1)
-                    continue;  // not started yet
+        final int timeout3p = getConfigIntProperty(PROP_JSETTLERS_BOTS_TIMEOUT_TURN, 0);
+        if ((timeout3p > timeoutSec) && ! ga.getPlayer(cpn).isBuiltInRobot() && ga.getPlayer(cpn).isRobot())
+            timeoutSec = timeout3p;  // third-party robot player has more time
 
-                if ((inactiveTime3p != 0) && (lastActionTime > inactiveTime3p))
+        final SOCTradeOffer offer = pl.getCurrentOffer();
+        if ((offer != null) && (SOCGameHandler.ROBOT_FORCE_ENDTURN_TRADEOFFER_SECONDS > timeoutSec))
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                if (offer.isWaitingReplyFrom(pn) && ! ga.getPlayer(pn).isRobot())
                 {
-                    final SOCPlayer pl = ga.getPlayer(cpn);
-                    if (pl.isRobot() && ! pl.isBuiltInRobot())
-                        continue;  // third-party robot player has more time
+                    timeoutSec = SOCGameHandler.ROBOT_FORCE_ENDTURN_TRADEOFFER_SECONDS;  // wait longer for humans
+                    break;
                 }
 
-                GameHandler hand = gameList.getGameTypeHandler(ga.getName());
-                if (hand != null)
-                    hand.endTurnIfInactive(ga, currentTimeMillis);
+        // lastActionTime is a recent time, or might be 0 to force end
+        return ga.lastActionTime + timeoutSec * 1000L;
+    }
 
-                // TODO consider keeping stats on forced end turns (return false or true from endTurnIfInactive, etc)
-            }
-        }
-        catch (Exception e)
-        {
-            D.ebugPrintlnINFO("Exception in checkForExpiredTurns - " + e);
-        }
+    /**
+     * If {@link #gameTimeoutChecker} is running, schedule a check of this game's turn:
+     * Soon, or if {@code soon} is false, at the turn's deadline from {@link #getTurnTimeoutDeadline(SOCGame)}.
+     * See {@link SOCGameTimeoutChecker#checkTurnSoon(SOCGame)} and
+     * {@link SOCGameTimeoutChecker#ensureTurnCheck(SOCGame)}.
+     * @param ga  Game to check
+     * @param soon  True to check now, for example because {@link SOCGame#lastActionTime} was set to 0
+     * @since 2.7.00
+     */
+    /*package*/ void scheduleTurnTimeoutCheck(final SOCGame ga, final boolean soon)
+    {
+        final SOCGameTimeoutChecker tc = gameTimeoutChecker;
+        if (tc == null)
+            return;
+
+        if (soon)
+            tc.checkTurnSoon(ga);
+        else
+            tc.ensureTurnCheck(ga);
     }
 
     /**
@@ -63,8 +63,11 @@ import soc.util.SOCFeatureSet;
 import soc.util.SOCGameBoardReset;
 import soc.util.SOCGameList;
 import soc.util.SOCStringManager;
+import soc.util.TimingWheel;
 import soc.util.Version;
 
+import net.nand.util.i18n.mgr.StringManager;
+
 /**
  * Server class to dispatch clients' actions and messages received from the
  * {@link soc.server.genericServer.InboundMessageQueue} not related to game play
@@ -91,6 +94,18 @@ public class SOCServerMessageHandler
     protected static final Pattern DEBUG_COMMAND_SAVEGAME_FILENAME_REGEX
         = Pattern.compile("^[\\p{IsLetter}\\p{IsDigit}_-]+$");
 
+    /**
+     * Number of message types shown by {@code *MSGSTATS*} unless {@code all} is given: 15.
+     * @since 2.7.00
+     */
+    protected static final int MSGSTATS_DEFAULT_TYPES = 15;
+
+    /**
+     * Number of games listed by {@code *MEMSTATS*} unless {@code all} is given: 15.
+     * @since 2.7.00
+     */
+    protected static final int MEMSTATS_DEFAULT_GAMES = 15;
+
     protected final SOCServer srv;
 
     /**
@@ -642,6 +657,9 @@ public class SOCServerMessageHandler
      *<P>
      * If any third-party options are active ({@link SOCGameOption#FLAG_3RD_PARTY}), always checks client features
      * for compatibility with those 3P options.
+     *<P>
+     * In v2.7.00 and newer, replies are cached in {@link SOCServer#infoResponseCache}
+     * by client version, locale, features, and request; see {@link #gameOptionInfosCacheKey(Connection, SOCGameOptionGetInfos)}.
      *
      * @param c  the connection
      * @param mes  the message
@@ -652,6 +670,124 @@ public class SOCServerMessageHandler
         if (c == null)
             return;
 
+        final SOCClientData scd = (SOCClientData) c.getAppData();
+
+        // check for request for i18n localized descriptions (client v2.0.00 or newer);
+        // if we don't have game opt localization for client's locale, ignore that request flag.
+        if (mes.hasTokenGetI18nDescs && (c.getI18NLocale() != null))
+            scd.wantsI18N = true;
+
+        for (final String cmd : gameOptionInfosReply(c, mes).messages)
+            c.put(cmd);
+    }
+
+    /**
+     * Get the reply to a client's game option info request from {@link SOCServer#infoResponseCache},
+     * building and caching it if needed.
+     * Call after setting {@link SOCClientData#wantsI18N} from the request.
+     *
+     * @param c  Client connection, with {@link SOCClientData} and string manager; nothing is sent to {@code c}
+     * @param mes  Client's request
+     * @return  Reply to send; not null
+     * @since 2.7.00
+     */
+    private InfoResponseCache.Response gameOptionInfosReply(final Connection c, final SOCGameOptionGetInfos mes)
+    {
+        final InfoResponseCache cache = srv.infoResponseCache;
+        final String key = gameOptionInfosCacheKey(c, mes);
+        InfoResponseCache.Response resp = cache.get(key);
+        if (resp == null)
+        {
+            final long gen = cache.getGeneration(), startTime = System.nanoTime();
+            final List<String> out = new ArrayList<>();
+            buildGameOptionInfos(c, mes, out);
+            resp = new InfoResponseCache.Response(out, null, null);
+            cache.put(key, gen, startTime, resp);
+        }
+
+        return resp;
+    }
+
+    /**
+     * At server startup, cache the game option info replies most likely to be asked for:
+     * From clients of the server's version using each locale bundled with the server,
+     * asking only for localized option descriptions.
+     * @since 2.7.00
+     */
+    /*package*/ void warmInfoResponseCache()
+    {
+        final SOCGameOptionGetInfos mes = (SOCGameOptionGetInfos) SOCMessage.toMsg
+            (new SOCGameOptionGetInfos(null, true, true).toCmd());  // same fields as parsed from a client
+
+        for (final String localeStr : WARM_CACHE_LOCALES)
+        {
+            final Locale loc = StringManager.parseLocale(localeStr);
+            final StringConnection c = new StringConnection();
+            c.setVersion(Version.versionNumber(), true);
+            c.setI18NStringManager(SOCStringManager.getServerManagerForClient(loc), localeStr);
+
+            // same client data and features as the built-in client
+            final SOCClientData scd = new SOCClientData();
+            scd.feats = new SOCFeatureSet(false, false);
+            scd.feats.add(SOCFeatureSet.CLIENT_6_PLAYERS);
+            scd.feats.add(SOCFeatureSet.CLIENT_SEA_BOARD);
+            scd.feats.add(SOCFeatureSet.CLIENT_SCENARIO_VERSION, Version.versionNumber());
+            scd.locale = loc;
+            scd.localeStr = localeStr;
+            scd.wantsI18N = true;
+            c.setAppData(scd);
+
+            try
+            {
+                gameOptionInfosReply(c, mes);
+            } catch (RuntimeException e) {
+                D.ebugPrintStackTrace(e, "warmInfoResponseCache");
+            }
+        }
+    }
+
+    /**
+     * Locales for {@link #warmInfoResponseCache()}:
+     * Those with bundled {@code resources/strings/server/toClient_*.properties}, other than English.
+     * @since 2.7.00
+     */
+    private static final String[] WARM_CACHE_LOCALES = { "de", "es", "fr", "pl" };
+
+    /**
+     * Make the {@link InfoResponseCache} key for a client's game option info request:
+     * Everything which {@link #buildGameOptionInfos(Connection, SOCGameOptionGetInfos, List)} looks at.
+     * Call after setting {@link SOCClientData#wantsI18N} from the request.
+     *
+     * @param c  Client connection, with {@link SOCClientData} and string manager
+     * @param mes  Client's request
+     * @return  Key for the request
+     * @since 2.7.00
+     */
+    private static String gameOptionInfosCacheKey(final Connection c, final SOCGameOptionGetInfos mes)
+    {
+        final SOCClientData scd = (SOCClientData) c.getAppData();
+        SOCStringManager sm = c.getI18NStringManager();
+        if (sm == null)
+            sm = SOCStringManager.getFallbackServerManagerForClient();
+
+        return "GAMEOPTIONGETINFOS|" + c.getVersion() + '|' + sm.getBundleLocale() + '|' + scd.wantsI18N
+            + '|' + scd.hasLimitedFeats + '|' + ((scd.feats != null) ? scd.feats.getEncodedList() : "")
+            + '|' + mes.optionKeys + '|' + mes.hasTokenGetAnyChanges + '|' + mes.hasOnlyTokenI18n;
+    }
+
+    /**
+     * Build the reply to a client's game option info request, for
+     * {@link #handleGAMEOPTIONGETINFOS(Connection, SOCGameOptionGetInfos)}.
+     * Before v2.7.00 this was part of that method.
+     *
+     * @param c  Client connection, for its version, {@link SOCClientData} and localized strings.
+     *     Nothing is sent to {@code c}.
+     * @param mes  Client's request
+     * @param out  Adds the reply's message command strings to this list
+     * @since 2.7.00
+     */
+    private void buildGameOptionInfos(final Connection c, final SOCGameOptionGetInfos mes, final List<String> out)
+    {
         final int cliVers = c.getVersion();
         final SOCClientData scd = (SOCClientData) c.getAppData();
         final boolean hasLimitedFeats = scd.hasLimitedFeats;
@@ -660,10 +796,6 @@ public class SOCServerMessageHandler
         Map<String, SOCGameOption> opts = new HashMap<>();  // opts to send as SOCGameOptionInfo
         final Map<String, SOCGameOption> optsToLocal;  // opts to send in a SOCLocalizedStrings instead
 
-        // check for request for i18n localized descriptions (client v2.0.00 or newer);
-        // if we don't have game opt localization for client's locale, ignore that request flag.
-        if (mes.hasTokenGetI18nDescs && (c.getI18NLocale() != null))
-            scd.wantsI18N = true;
         final boolean wantsLocalDescs =
             scd.wantsI18N
             && ! SOCServer.i18n_gameopt_PL_desc.equals(c.getLocalized("gameopt.PL"));
@@ -849,7 +981,7 @@ public class SOCServerMessageHandler
                 opt = SOCGameOption.trimEnumForVersion(opt, cliVers);
             }
 
-            c.put(new SOCGameOptionInfo(opt, cliVers, localDesc));
+            out.add(new SOCGameOptionInfo(opt, cliVers, localDesc).toCmd());
         }
 
         // send any opts which are localized but otherwise unchanged between server's/client's version
@@ -871,17 +1003,21 @@ public class SOCServerMessageHandler
                 } catch (MissingResourceException e) {}
             }
 
-            c.put(new SOCLocalizedStrings
-                (SOCLocalizedStrings.TYPE_GAMEOPT, SOCLocalizedStrings.FLAG_SENT_ALL, strs));
+            out.add(new SOCLocalizedStrings
+                (SOCLocalizedStrings.TYPE_GAMEOPT, SOCLocalizedStrings.FLAG_SENT_ALL, strs).toCmd());
         }
 
         // mark end of list, even if list was empty
-        c.put(SOCGameOptionInfo.OPTINFO_NO_MORE_OPTS);  // GAMEOPTIONINFO("-")
+        out.add(SOCGameOptionInfo.OPTINFO_NO_MORE_OPTS.toCmd());  // GAMEOPTIONINFO("-")
     }
 
     /**
      * Process client request for updated {@link SOCScenario} info.
      * Added 2015-09-21 for v2.0.00.
+     *<P>
+     * In v2.7.00 and newer, the reply to a client's first request for all changes
+     * ({@link SOCScenarioInfo#MARKER_ANY_CHANGED} without scenario keys) is cached in
+     * {@link SOCServer#infoResponseCache} by scenario version, locale, and {@link SOCClientData#wantsI18N}.
      */
     private void handleSCENARIOINFO(final Connection c, final SOCScenarioInfo mes)
     {
@@ -906,8 +1042,63 @@ public class SOCServerMessageHandler
             return;
         }
 
+        final SOCClientData scd = (SOCClientData) c.getAppData();
+        if (! (hasAnyChangedMarker && (L == 0) && (scd.scenariosInfoSent == null)
+               && ! (scd.sentAllScenarioInfo || scd.sentAllScenarioStrings || scd.checkedLocaleScenStrings)))
+        {
+            buildScenarioInfo(c, params, hasAnyChangedMarker, null);
+            return;
+        }
+
+        // Client's first request for all changes: Reply depends only on its scenario version and locale
+
+        SOCStringManager sm = c.getI18NStringManager();
+        if (sm == null)
+            sm = SOCStringManager.getFallbackServerManagerForClient();
+        final InfoResponseCache cache = srv.infoResponseCache;
+        final String key = "SCENARIOINFO|" + scd.scenVersion + '|' + sm.getBundleLocale() + '|' + scd.wantsI18N;
+        InfoResponseCache.Response resp = cache.get(key);
+        if (resp == null)
+        {
+            final long gen = cache.getGeneration(), startTime = System.nanoTime();
+            final List<String> out = new ArrayList<>();
+            buildScenarioInfo(c, params, true, out);
+            resp = new InfoResponseCache.Response
+                (out, scd.scenariosInfoSent,
+                 (scd.checkedLocaleScenStrings) ? Boolean.valueOf(scd.localeHasScenStrings) : null);
+            cache.put(key, gen, startTime, resp);
+        } else {
+            if (resp.scenariosInfoSent != null)
+                scd.scenariosInfoSent = new HashMap<String, String>(resp.scenariosInfoSent);
+            if (resp.localeHasScenStrings != null)
+            {
+                scd.localeHasScenStrings = resp.localeHasScenStrings.booleanValue();
+                scd.checkedLocaleScenStrings = true;
+            }
+            setSentAllScenarioInfo(scd);
+        }
+
+        for (final String cmd : resp.messages)
+            c.put(cmd);
+    }
+
+    /**
+     * Build and send the reply to a client's request for updated {@link SOCScenario} info,
+     * for {@link #handleSCENARIOINFO(Connection, SOCScenarioInfo)}, and update the client's scenario tracking fields
+     * in its {@link SOCClientData}. Before v2.7.00 this was part of that method.
+     *
+     * @param c  Client connection
+     * @param params  Scenario keys requested, not including {@link SOCScenarioInfo#MARKER_ANY_CHANGED}; may be empty
+     * @param hasAnyChangedMarker  True if request included {@link SOCScenarioInfo#MARKER_ANY_CHANGED}
+     * @param out  If not null, add the reply's message command strings to this list instead of sending them to {@code c}
+     * @since 2.7.00
+     */
+    private void buildScenarioInfo
+        (final Connection c, final List<String> params, final boolean hasAnyChangedMarker, final List<String> out)
+    {
         // Calculate and respond; be sure to include any requested scKeys from params
 
+        final int L = params.size();
         final SOCClientData scd = (SOCClientData) c.getAppData();
         final int cliVers = scd.scenVersion;
 
@@ -932,7 +1123,7 @@ public class SOCServerMessageHandler
                 if ((sc == null) || (sc.minVersion > cliVers))
                     // unknown scenario, or too new; send too-new ones in case client encounters one as a listed game's
                     // scenario (server also sends too-new SOCGameOptions as unknowns, with the same intention)
-                    c.put(new SOCScenarioInfo(scKey, true));
+                    SOCServer.putOrCollect(c, out, new SOCScenarioInfo(scKey, true));
                 else if (! changes.contains(sc))
                     changes.add(sc);
             }
@@ -941,9 +1132,9 @@ public class SOCServerMessageHandler
         if (changes != null)
             for (final SOCScenario sc : changes)
                 if (sc.minVersion <= cliVers)
-                    srv.sendGameScenarioInfo(null, sc, c, true, false);
+                    srv.sendGameScenarioInfo(null, sc, c, true, false, out);
                 else
-                    c.put(new SOCScenarioInfo(sc.key, true));
+                    SOCServer.putOrCollect(c, out, new SOCScenarioInfo(sc.key, true));
 
         if (hasAnyChangedMarker && scd.wantsI18N && ! scd.sentAllScenarioStrings)
         {
@@ -971,20 +1162,34 @@ public class SOCServerMessageHandler
                 else
                     scenStrs = scKeys;  // re-use the empty list object
 
-                c.put(new SOCLocalizedStrings
+                SOCServer.putOrCollect(c, out, new SOCLocalizedStrings
                         (SOCLocalizedStrings.TYPE_SCENARIO, SOCLocalizedStrings.FLAG_SENT_ALL, scenStrs));
             }
 
             scd.sentAllScenarioStrings = true;
         }
 
-        c.put(new SOCScenarioInfo(null, null, null));  // send end of list
+        SOCServer.putOrCollect(c, out, new SOCScenarioInfo(null, null, null));  // send end of list
 
         if (hasAnyChangedMarker)
-        {
-            scd.sentAllScenarioInfo = true;
+            setSentAllScenarioInfo(scd);
+    }
+
+    /**
+     * Update a client's scenario tracking flags after sending its reply to a request for all changed scenario info.
+     * Used by {@link #buildScenarioInfo(Connection, List, boolean, List)} and when
+     * {@link #handleSCENARIOINFO(Connection, SOCScenarioInfo)} sends that reply from {@link InfoResponseCache},
+     * so both set the same flags: {@link SOCClientData#sentAllScenarioInfo},
+     * and {@link SOCClientData#sentAllScenarioStrings} only if client {@link SOCClientData#wantsI18N wants I18N},
+     * since localized strings are sent only then.
+     * @param scd  Client's data
+     * @since 2.7.00
+     */
+    private static void setSentAllScenarioInfo(final SOCClientData scd)
+    {
+        scd.sentAllScenarioInfo = true;
+        if (scd.wantsI18N)
             scd.sentAllScenarioStrings = true;
-        }
     }
 
 
@@ -1452,6 +1657,14 @@ public class SOCServerMessageHandler
         {
             processDebugCommand_dbSettings(c, ga);
         }
+        else if (cmdTextUC.startsWith("*MSGSTATS*"))
+        {
+            processDebugCommand_msgStats(c, ga, cmdTextUC.substring(10).trim().equals("ALL"));
+        }
+        else if (cmdTextUC.startsWith("*MEMSTATS*"))
+        {
+            processDebugCommand_memStats(c, ga, cmdTextUC.substring(10).trim().equals("ALL"));
+        }
         else
         {
             matchedHere = false;
@@ -1489,6 +1702,56 @@ public class SOCServerMessageHandler
             srv.messageToPlayer(c, gaName, SOCServer.PN_NON_EVENT, "> " + it.next() + ": " + it.next());
     }
 
+    /**
+     * Process the {@code *MSGSTATS*} privileged admin command:
+     * Sends the client the inbound message dispatch stats from
+     * {@link SOCMessageDispatcher#getStatsFormatted(int)}: Call counts, errors, and times
+     * for each handler type and message type, sorted by total time.
+     *<P>
+     * Assumes caller has verified the client is an admin; doesn't check {@link SOCServer#isUserDBUserAdmin(String)}.
+     *
+     * @param c  Client sending the admin command
+     * @param ga  Game in which to reply
+     * @param showAll  If true, show all message types, not only the top {@link #MSGSTATS_DEFAULT_TYPES}
+     * @since 2.7.00
+     */
+    private void processDebugCommand_msgStats(final Connection c, final SOCGame ga, final boolean showAll)
+    {
+        final String gaName = ga.getName();
+        final List<String> stats = srv.getMessageDispatcher().getStatsFormatted((showAll) ? 0 : MSGSTATS_DEFAULT_TYPES);
+        if (stats.isEmpty())
+        {
+            srv.messageToPlayer(c, gaName, SOCServer.PN_NON_EVENT, "No messages dispatched yet.");
+            return;
+        }
+
+        srv.messageToPlayer(c, gaName, SOCServer.PN_NON_EVENT, "Message dispatch stats, by total time:");
+        for (final String st : stats)
+            srv.messageToPlayer(c, gaName, SOCServer.PN_NON_EVENT, "> " + st);
+    }
+
+    /**
+     * Process the {@code *MEMSTATS*} privileged admin command:
+     * Sends the client the approximate memory use of games, scenarios, and connections
+     * from {@link GameMemoryEstimator#getStatsFormatted(SOCServer, int)}.
+     *<P>
+     * Assumes caller has verified the client is an admin; doesn't check {@link SOCServer#isUserDBUserAdmin(String)}.
+     *
+     * @param c  Client sending the admin command
+     * @param ga  Game in which to reply
+     * @param showAll  If true, list all games, not only the largest {@link #MEMSTATS_DEFAULT_GAMES}
+     * @since 2.7.00
+     */
+    private void processDebugCommand_memStats(final Connection c, final SOCGame ga, final boolean showAll)
+    {
+        final String gaName = ga.getName();
+        final List<String> stats = GameMemoryEstimator.getStatsFormatted(srv, (showAll) ? 0 : MEMSTATS_DEFAULT_GAMES);
+
+        srv.messageToPlayer(c, gaName, SOCServer.PN_NON_EVENT, "Approximate memory use, in bytes:");
+        for (final String st : stats)
+            srv.messageToPlayer(c, gaName, SOCServer.PN_NON_EVENT, "> " + st);
+    }
+
     /**
      * Send connection stats text to a client, appearing in the message pane of a game they're a member of.
      * Handles {@link SOCServer#processDebugCommand_connStats(Connection, SOCGame, boolean)};
@@ -1783,6 +2046,31 @@ public class SOCServerMessageHandler
             (li, "Free Memory", getSettingsFormatted_freeMemory(freeMem, totalMem));  // as MB, % total
         listAddStat
             (li, "Version", Version.versionNumber() + " (" + Version.version() + ") build " + Version.buildnum());
+        {
+            final TimingWheel tw = TimingWheel.getShared();
+            final long ticks = tw.getTickCount();
+            listAddStat
+                (li, "Timer wheel", tw.getTaskCount() + " tasks, " + ticks + " ticks, avg "
+                 + ((ticks > 0) ? (tw.getTotalTickNanos() / ticks / 1000) : 0) + " us/tick, max "
+                 + (tw.getMaxTickNanos() / 1000) + " us");
+        }
+        if (srv.db.isInitialized())
+        {
+            listAddStat(li, "DB write-behind queue", srv.db.getWriteQueueStatsFormatted());
+            listAddStat(li, "DB BCrypt pool", srv.db.getBCryptStatsFormatted());
+            listAddStat(li, "DB lookup caches", srv.db.getLookupCacheStatsFormatted());
+        }
+        if (srv.boardPool != null)
+            listAddStat(li, "Board pool", srv.boardPool.getStatsFormatted());
+        listAddStat(li, "Game list cache", srv.gameList.getListCache().getStatsFormatted());
+        listAddStat(li, "Info reply cache", srv.infoResponseCache.getStatsFormatted());
+        listAddStat(li, "Join snapshot cache", srv.gameList.getJoinSnapshots().getStatsFormatted());
+        if (srv.getOutputBatcher() != null)
+            listAddStat(li, "Output batching", srv.getOutputBatcher().getStatsFormatted());
+        if (srv.inboundRateLimiter != null)
+            listAddStat(li, "Inbound rate limit", srv.inboundRateLimiter.getStatsFormatted());
+        if (srv.gameHibernator != null)
+            listAddStat(li, "Hibernated games", srv.gameHibernator.getStatsFormatted());
 
         if (! srv.clientPastVersionStats.isEmpty())
         {
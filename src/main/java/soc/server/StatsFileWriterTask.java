@@ -1,6 +1,6 @@
 /**
  * JSettlers stats summary file writer.
- * This file Copyright (C) 2020 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2020,2026 Jeremy D Monin <jeremy@nand.net>
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -40,6 +40,10 @@ import java.util.TimerTask;
  * (from server's timezone via {@link Calendar#getInstance()}).
  *<P>
  * The actual {@link TimerTask}s here are {@link FirstRun} and {@link DailyRun}.
+ *<P>
+ * Since v2.7.00 each summary also includes per-message-type dispatch stats
+ * from {@link SOCMessageDispatcher#getStatsFormatted(int)}, and approximate memory use
+ * from {@link GameMemoryEstimator#getStatsFormatted(SOCServer, int)}.
  *
  * @since 2.3.00
  */
@@ -161,6 +165,12 @@ class StatsFileWriterTask
             Iterator<String> it = ssmh.getSettingsFormatted(null).iterator();
             while (it.hasNext())
                 sb.append(it.next() + ": " + it.next() + "\n");
+            sb.append("\nMessage dispatch stats, by total time:\n");
+            for (final String st : ssmh.srv.getMessageDispatcher().getStatsFormatted(0))
+                sb.append(st).append('\n');
+            sb.append("\nApproximate memory use, in bytes:\n");
+            for (final String st : GameMemoryEstimator.getStatsFormatted(ssmh.srv, 0))
+                sb.append(st).append('\n');
             sb.append("\n\n");
 
             try(OutputStreamWriter writer = new OutputStreamWriter
@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas <thomas@infolab.northwestern.edu>
- * Portions of this file Copyright (C) 2009-2010,2012,2014-2017,2019-2022 Jeremy D Monin <jeremy@nand.net>
+ * Portions of this file Copyright (C) 2009-2010,2012,2014-2017,2019-2022,2026 Jeremy D Monin <jeremy@nand.net>
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -26,7 +26,10 @@ import soc.game.SOCGameOptionSet;
 import soc.game.SOCPlayer;
 import soc.server.SOCServer;  // solely for javadocs, ROBOT_PARAMS_*, and getSettingsFormatted callback
 import soc.util.IntPair;
+import soc.util.LatencyHistogram;
+import soc.util.MetricsRegistry;
 import soc.util.SOCRobotParameters;
+import soc.util.TTLCache;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -46,6 +49,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
@@ -53,6 +57,7 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -61,8 +66,13 @@ import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Properties;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -131,6 +141,7 @@ import java.util.concurrent.Executors;
  * @author Robert S. Thomas
  */
 public class SOCDBHelper
+    implements MetricsRegistry.Source
 {
     // If a new property is added, please add a PROP_JSETTLERS_DB_ constant
     // and also add it to SOCServer.PROPS_LIST.
@@ -199,6 +210,32 @@ public class SOCDBHelper
      */
     public static final String PROP_JSETTLERS_DB_BCRYPT_WORK__FACTOR = "jsettlers.db.bcrypt.work_factor";
 
+    /**
+     * Integer property {@code jsettlers.db.bcrypt.threads} to set the number of threads which check
+     * users' {@link BCrypt} passwords during login, in
+     * {@link #authenticateUserPassword(String, String, AuthPasswordRunnable)}.
+     * Default is the number of CPU cores ({@link Runtime#availableProcessors()}).
+     * @see #PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_DB_BCRYPT_THREADS = "jsettlers.db.bcrypt.threads";
+
+    /**
+     * Integer property {@code jsettlers.db.bcrypt.queue_max} to set the maximum number of password checks
+     * waiting for a {@link #PROP_JSETTLERS_DB_BCRYPT_THREADS BCrypt thread}; default is
+     * {@link #BCRYPT_QUEUE_MAX_DEFAULT}. When the queue is full, such as during a login storm
+     * after a restart, further logins are quickly rejected as "try again later" instead of
+     * waiting a long time for a reply.
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX = "jsettlers.db.bcrypt.queue_max";
+
+    /**
+     * Default for {@link #PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX}: 50.
+     * @since 2.7.00
+     */
+    public static final int BCRYPT_QUEUE_MAX_DEFAULT = 50;
+
     /** Property <tt>jsettlers.db.script.setup</tt> to run a SQL setup script
      * at server startup, then exit.  Used to create tables when setting up a server.
      * To activate this mode, set this to the SQL script's full path or relative path.
@@ -232,6 +269,58 @@ public class SOCDBHelper
      */
     public static final String PROP_JSETTLERS_DB_SAVE_GAMES = "jsettlers.db.save.games";
 
+    /**
+     * Integer property {@code jsettlers.db.write_queue.size} to set the capacity of the write-behind queue
+     * used by {@link #saveGameScores(SOCGame, int, boolean)}: Completed games' scores and users' win-loss counts
+     * are saved by a background thread with its own DB connection, batched together in a transaction,
+     * so a slow database doesn't delay the game's thread. Default is {@link #WRITE_QUEUE_DEFAULT_SIZE}.
+     * If the queue is full, a game's scores aren't saved.
+     *<P>
+     * Set to 0 to save scores synchronously, as in versions before 2.7.00.
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE = "jsettlers.db.write_queue.size";
+
+    /**
+     * Default capacity of the write-behind queue: 500 games.
+     * @see #PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE
+     * @since 2.7.00
+     */
+    public static final int WRITE_QUEUE_DEFAULT_SIZE = 500;
+
+    /**
+     * Maximum number of games' scores saved in one write-behind transaction.
+     * @see #PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE
+     * @since 2.7.00
+     */
+    private static final int WRITE_BATCH_MAX = 50;
+
+    /**
+     * Integer property {@code jsettlers.db.cache.ttl} to set how many seconds the results of
+     * {@link #getUser(String)}, {@link #getUserFromHost(String)} and {@link #retrieveRobotParams(String)}
+     * are kept in an in-memory cache, to avoid a DB query each time a client logs in or a bot joins a game.
+     * Default is {@link #LOOKUP_CACHE_TTL_DEFAULT}; 0 disables caching.
+     * Each cache holds at most {@link #LOOKUP_CACHE_MAX_SIZE} entries.
+     *<P>
+     * Changes made through this class, like {@link #createAccount(String, String, String, String, long)},
+     * update the cache. Changes made directly in the database may not be seen until their entries expire.
+     * @since 2.7.00
+     */
+    public static final String PROP_JSETTLERS_DB_CACHE_TTL = "jsettlers.db.cache.ttl";
+
+    /**
+     * Default for {@link #PROP_JSETTLERS_DB_CACHE_TTL}: 60 seconds.
+     * @since 2.7.00
+     */
+    public static final int LOOKUP_CACHE_TTL_DEFAULT = 60;
+
+    /**
+     * Maximum number of entries in each lookup cache: 2000.
+     * @see #PROP_JSETTLERS_DB_CACHE_TTL
+     * @since 2.7.00
+     */
+    public static final int LOOKUP_CACHE_MAX_SIZE = 2000;
+
     /**
      * Internal property name used to hold the <tt>--pw-reset</tt> command line argument's username.
      * When present at server startup, the server will prompt and reset the password if the user exists,
@@ -547,12 +636,76 @@ public class SOCDBHelper
     private volatile UpgradeBGTasksThread schemaUpgBGTasksThread;
 
     /**
-     * Thread executor to queue and call {@link BCrypt} without tying up the main thread
+     * Thread pool to queue and call {@link BCrypt} without tying up the main thread
      * in {@link #authenticateUserPassword(String, String, AuthPasswordRunnable)}.
+     * Size and queue limit are set from {@link #PROP_JSETTLERS_DB_BCRYPT_THREADS}
+     * and {@link #PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX} in {@link #initialize(String, String, Properties)}.
+     * {@code null} if not initialized or after {@link #cleanup(boolean) cleanup(true)},
+     * so callers should read it once into a local variable and check for {@code null}.
+     *<P>
+     * Before v2.7.00 this was {@code bcryptQueueThreader}, a static single-thread executor with an unbounded queue.
+     * Now that there can be several threads, {@link AuthPasswordRunnable} callbacks may run concurrently.
      * @see AuthPasswordRunnable
+     * @see #getBCryptStatsFormatted()
      * @since 1.2.00
      */
-    private final static ExecutorService bcryptQueueThreader = Executors.newSingleThreadExecutor();
+    private volatile ThreadPoolExecutor bcryptPool;
+
+    /**
+     * Time spent by password checks waiting in {@link #bcryptPool}'s queue, and running {@link BCrypt#checkpw(String, String)}.
+     * @since 2.7.00
+     */
+    private final LatencyHistogram bcryptQueueTimes = new LatencyHistogram(), bcryptVerifyTimes = new LatencyHistogram();
+
+    /**
+     * Number of password checks rejected because {@link #bcryptPool}'s queue was full.
+     * @since 2.7.00
+     */
+    private final AtomicLong bcryptRejected = new AtomicLong();
+
+    /**
+     * Capacity of {@link #writeBehind}'s queue, or 0 to save game scores synchronously.
+     * Set from {@link #PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE} in {@link #initialize(String, String, Properties)}.
+     * @since 2.7.00
+     */
+    private int writeQueueSize = WRITE_QUEUE_DEFAULT_SIZE;
+
+    /**
+     * Lookup cache time-to-live in seconds, from {@link #PROP_JSETTLERS_DB_CACHE_TTL}; 0 if disabled.
+     * @since 2.7.00
+     */
+    private int lookupCacheTTL = LOOKUP_CACHE_TTL_DEFAULT;
+
+    /**
+     * Lookup caches for {@link #getUser(String)} keyed by name (lowercase if schema &gt;= {@link #SCHEMA_VERSION_1200}),
+     * {@link #getUserFromHost(String)} keyed by host, and {@link #retrieveRobotParams(String)} keyed by bot name.
+     * Cached values may be {@code null} when DB has no match.
+     * Created in {@link #initialize(String, String, Properties)}; {@code null} if {@link #lookupCacheTTL} is 0.
+     * @since 2.7.00
+     */
+    private TTLCache<String, String> userCache, userHostCache;
+
+    /**
+     * Lookup cache for {@link #retrieveRobotParams(String)}; see {@link #userCache}.
+     * @since 2.7.00
+     */
+    private TTLCache<String, SOCRobotParameters> robotParamsCache;
+
+    /**
+     * Number of threads and max queue size for {@link #bcryptPool}, from {@link #PROP_JSETTLERS_DB_BCRYPT_THREADS}
+     * and {@link #PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX}.
+     * @since 2.7.00
+     */
+    private int bcryptThreads = Runtime.getRuntime().availableProcessors(), bcryptQueueMax = BCRYPT_QUEUE_MAX_DEFAULT;
+
+    /**
+     * Write-behind thread for {@link #saveGameScores(SOCGame, int, boolean)}, if any.
+     * Started when first needed; stopped in {@link #cleanup(boolean)}.
+     *<P>
+     * <B>Locks:</B> Writes to this field are synchronized on {@code this}.
+     * @since 2.7.00
+     */
+    private volatile WriteBehindThread writeBehind;
 
     /**
      * Cached DB connection username, used when reconnecting on error.
@@ -922,6 +1075,14 @@ public class SOCDBHelper
                          + PROP_JSETTLERS_DB_BCRYPT_WORK__FACTOR + ")");
             }
 
+            bcryptThreads = parseIntProp(dbProps, PROP_JSETTLERS_DB_BCRYPT_THREADS, bcryptThreads, 1, "BCrypt threads");
+            bcryptQueueMax = parseIntProp
+                (dbProps, PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX, bcryptQueueMax, 1, "BCrypt queue max");
+
+            writeQueueSize = parseIntProp
+                (dbProps, PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE, writeQueueSize, 0, "Write queue size");
+            lookupCacheTTL = parseIntProp(dbProps, PROP_JSETTLERS_DB_CACHE_TTL, lookupCacheTTL, 0, "Cache TTL");
+
             String pval = dbProps.getProperty(PROP_JSETTLERS_DB_SETTINGS);
             if ((pval != null) && ! pval.equals("write"))
                 throw new IllegalArgumentException
@@ -1053,9 +1214,62 @@ public class SOCDBHelper
             throw sx;
         }
 
+        bcryptPool = new ThreadPoolExecutor
+            (bcryptThreads, bcryptThreads, 60, TimeUnit.SECONDS,
+             new ArrayBlockingQueue<Runnable>(bcryptQueueMax), new ThreadFactory()
+             {
+                private final AtomicInteger n = new AtomicInteger();
+
+                public Thread newThread(final Runnable r)
+                {
+                    final Thread t = new Thread(r, "BCryptThread-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+             });
+        bcryptPool.allowCoreThreadTimeOut(true);
+
+        if (lookupCacheTTL > 0)
+        {
+            final long ttlMillis = lookupCacheTTL * 1000L;
+            userCache = new TTLCache<>(LOOKUP_CACHE_MAX_SIZE, ttlMillis);
+            userHostCache = new TTLCache<>(LOOKUP_CACHE_MAX_SIZE, ttlMillis);
+            robotParamsCache = new TTLCache<>(LOOKUP_CACHE_MAX_SIZE, ttlMillis);
+        }
+
         initialized = true;
     }
 
+    /**
+     * Parse an optional integer property for {@link #initialize(String, String, Properties)}.
+     * @param dbProps  Properties to check; not null
+     * @param pName  Property name
+     * @param defaultVal  Value to return if property isn't set
+     * @param minVal  Minimum allowed value
+     * @param desc  Description for exception text
+     * @return  the property's value, or {@code defaultVal}
+     * @throws IllegalArgumentException if value isn't an integer, or is less than {@code minVal}
+     * @since 2.7.00
+     */
+    private static int parseIntProp
+        (final Properties dbProps, final String pName, final int defaultVal, final int minVal, final String desc)
+        throws IllegalArgumentException
+    {
+        final String pval = dbProps.getProperty(pName);
+        if (pval == null)
+            return defaultVal;
+
+        try
+        {
+            final int v = Integer.parseInt(pval.trim());
+            if (v >= minVal)
+                return v;
+        } catch (NumberFormatException e) {}
+
+        throw new IllegalArgumentException
+            ("DB: " + desc + " param: Bad format, integer " + minVal + " or higher is required (" + pName + ")");
+    }
+
     /**
      * Were we able to {@link #initialize(String, String, Properties)}
      * and connect to the database?
@@ -1200,14 +1414,7 @@ public class SOCDBHelper
     private boolean connect(final String user, final String pswd, final String setupScriptPath)
         throws SQLException, IllegalStateException, IOException
     {
-        if (driverinstance == null) {
-            connection = DriverManager.getConnection(dbURL, user, pswd);
-        } else {
-            Properties dbProps = new Properties();
-            dbProps.put("user", user);
-            dbProps.put("password", pswd);
-            connection = driverinstance.connect(dbURL, dbProps);
-        }
+        connection = openConnection(user, pswd);
 
         errorCondition = false;
         dbcUserName = user;
@@ -1222,6 +1429,31 @@ public class SOCDBHelper
         return true;
     }
 
+    /**
+     * Open a new connection to {@link #dbURL}, using {@link #driverinstance} if set.
+     * Used for {@link #connection} and for {@link WriteBehindThread}'s own connection.
+     * @param user  DB username
+     * @param pswd  DB user password, or ""
+     * @return a new connection; never null
+     * @throws SQLException if any connect error occurs
+     * @since 2.7.00
+     */
+    private Connection openConnection(final String user, final String pswd)
+        throws SQLException
+    {
+        if (driverinstance == null)
+            return DriverManager.getConnection(dbURL, user, pswd);
+
+        Properties dbProps = new Properties();
+        dbProps.put("user", user);
+        dbProps.put("password", pswd);
+        final Connection conn = driverinstance.connect(dbURL, dbProps);
+        if (conn == null)
+            throw new SQLException("JDBC driver rejected URL: " + dbURL);
+
+        return conn;
+    }
+
     /**
      * Detect connected DB's {@link #schemaVersion} and check its upgrade status.
      * @throws SQLException if any unexpected problem occurs
@@ -1312,31 +1544,53 @@ public class SOCDBHelper
         recordLoginCommand = connection.prepareStatement(RECORD_LOGIN_COMMAND);
         userExistsQuery = connection.prepareStatement
             ((schemaVersion >= SCHEMA_VERSION_1200) ? USER_EXISTS_QUERY_1200 : USER_EXISTS_QUERY_1000);
-        if (schemaVersion >= SCHEMA_VERSION_2000)
-        {
-            userIncrWonCommand = connection.prepareStatement(USER_INCREMENT_WON_COMMAND);
-            userIncrLostCommand = connection.prepareStatement(USER_INCREMENT_LOST_COMMAND);
-        }
         userPasswordQuery = connection.prepareStatement
             ((schemaVersion >= SCHEMA_VERSION_1200) ? USER_PASSWORD_QUERY_1200 : USER_PASSWORD_QUERY_1000);
         hostQuery = connection.prepareStatement(HOST_QUERY);
         lastloginUpdate = connection.prepareStatement(LASTLOGIN_UPDATE);
         passwordUpdateCommand = connection.prepareStatement
             ((schemaVersion >= SCHEMA_VERSION_1200) ? PASSWORD_UPDATE_COMMAND_1200 : PASSWORD_UPDATE_COMMAND_1000);
+        {
+            final SaveGameStatements sgs = prepareSaveGameStatements(connection);
+            saveGameCommand = sgs.saveGame;
+            saveGamePlayerCommand = sgs.saveGamePlayer;
+            userIncrWonCommand = sgs.incrWon;
+            userIncrLostCommand = sgs.incrLost;
+        }
+        robotParamsQuery = connection.prepareStatement(ROBOT_PARAMS_QUERY);
+        userCountQuery = connection.prepareStatement(USER_COUNT_QUERY);
+    }
+
+    /**
+     * Prepare the statements used to save game scores and users' win-loss counts, based on {@link #schemaVersion}.
+     * Called for {@link #connection} from {@link #prepareStatements()}, and for {@link WriteBehindThread}'s connection.
+     * @param conn  Connection to prepare on
+     * @return  Connection and its statements
+     * @throws SQLException if any unexpected problem occurs during {@link Connection#prepareStatement(String)} calls
+     * @since 2.7.00
+     */
+    private SaveGameStatements prepareSaveGameStatements(final Connection conn)
+        throws SQLException
+    {
+        final PreparedStatement saveGame;
+        PreparedStatement saveGamePlayer = null, incrWon = null, incrLost = null;
+
         if (schemaVersion < SCHEMA_VERSION_2000)
         {
-            saveGameCommand = connection.prepareStatement
+            saveGame = conn.prepareStatement
                 ((schemaVersion == SCHEMA_VERSION_1200) ? SAVE_GAME_COMMAND_1200 : SAVE_GAME_COMMAND_1000);
         } else {
             // use prepareStatement variant with primary-key field name array,
             // not Statement.RETURN_GENERATED_KEYS, because postgres prefers it
             // (per their developer comments) and other DBs are OK with it.
-            saveGameCommand = connection.prepareStatement
+            saveGame = conn.prepareStatement
                 (SAVE_GAME_COMMAND_2000, SAVE_GAME_COMMAND_2000_GEN_KEY);
-            saveGamePlayerCommand = connection.prepareStatement(SAVE_GAME_PLAYER_COMMAND);
+            saveGamePlayer = conn.prepareStatement(SAVE_GAME_PLAYER_COMMAND);
+            incrWon = conn.prepareStatement(USER_INCREMENT_WON_COMMAND);
+            incrLost = conn.prepareStatement(USER_INCREMENT_LOST_COMMAND);
         }
-        robotParamsQuery = connection.prepareStatement(ROBOT_PARAMS_QUERY);
-        userCountQuery = connection.prepareStatement(USER_COUNT_QUERY);
+
+        return new SaveGameStatements(conn, saveGame, saveGamePlayer, incrWon, incrLost);
     }
 
     /**
@@ -1471,6 +1725,8 @@ public class SOCDBHelper
      * Returns their nickname as stored in the database.
      *<P>
      * This method replaces {@code doesUserExist(..)} used in v1.1.20.
+     *<P>
+     * Since v2.7.00 results are cached for {@link #PROP_JSETTLERS_DB_CACHE_TTL} seconds.
      *
      * @param userName  User nickname to check
      * @return  Nickname if found in users table, {@code null} otherwise or if no database is currently connected
@@ -1490,16 +1746,25 @@ public class SOCDBHelper
 
         if (schemaVersion >= SCHEMA_VERSION_1200)
             userName = userName.toLowerCase(Locale.US);
+
+        final TTLCache<String, String> cache = userCache;
+        if (cache != null)
+        {
+            final TTLCache.Entry<String> ce = cache.get(userName);
+            if (ce != null)
+                return ce.value;
+        }
+
         userExistsQuery.setString(1, userName);
 
         ResultSet rs = userExistsQuery.executeQuery();
-        if (rs.next())
-            userName = rs.getString(1);
-        else
-            userName = null;
-
+        final String dbUserName = (rs.next()) ? rs.getString(1) : null;
         rs.close();
-        return userName;
+
+        if (cache != null)
+            cache.put(userName, dbUserName);
+
+        return dbUserName;
     }
 
     /**
@@ -1525,6 +1790,8 @@ public class SOCDBHelper
      *     This is useful because {@link BCrypt} password hashing is slow by design, and so is done in another
      *     thread.  If not {@code null}, {@code authCallback} is called at the end of this method,
      *     either in the caller's thread or in a thread dedicated to {@code BCrypt} calls.
+     *     Since v2.7.00 there may be several of those threads, so callbacks for different
+     *     users can run at the same time; see {@link AuthPasswordRunnable}.
      * @return user's nickname if password is correct;
      *     {@code sUserName} if password is "" but user doesn't exist in db
      *     or if database is not currently connected;
@@ -1533,6 +1800,10 @@ public class SOCDBHelper
      *     <P>
      *     Only the {@code BCrypt} call will be done in a separate thread; all DB activity happens in this method
      *     in the caller's thread, so SQLExceptions will be thrown to the caller and not lost or ignored.
+     * @throws SQLTransientException if {@code authCallback} != null and the BCrypt thread pool's queue is full
+     *     ({@link #PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX}); the server is too busy to check the password
+     *     right now. Also thrown if that pool has been shut down by {@link #cleanup(boolean) cleanup(true)}.
+     *     {@code authCallback} won't be called. Added in v2.7.00.
      * @see #updateUserPassword(String, String)
      * @see #getUser(String)
      * @since 1.2.00
@@ -1549,7 +1820,7 @@ public class SOCDBHelper
         String dbPassword = null;  // encoded value, unless user has PW_SCHEME_NONE
         int pwScheme = PW_SCHEME_NONE;
         boolean dbUserFound = false;
-        boolean ranBCryptTask = false;  // true if used a task on bcryptQueueThreader,
+        boolean ranBCryptTask = false;  // true if used a task on bcryptPool,
             // which will call authCallback when done
 
         if (checkConnection())
@@ -1613,21 +1884,37 @@ public class SOCDBHelper
                             {
                                 ok = BCrypt.checkpw(sPassword, dbPassword);  // may throw IllegalArgumentException
                             } else {
-                                ranBCryptTask = true;
-
                                 final String sPass = sPassword, dbUser = dbUserName, dbPass = dbPassword;
-                                bcryptQueueThreader.execute(new Runnable()
+                                final ThreadPoolExecutor pool = bcryptPool;
+                                if ((pool == null) || pool.isShutdown())
+                                    throw new SQLTransientException("BCrypt pool is shut down");
+
+                                final long queuedAt = System.nanoTime();
+                                try
                                 {
-                                    public void run()
+                                    pool.execute(new Runnable()
                                     {
-                                        try
+                                        public void run()
                                         {
-                                            boolean pwOK = BCrypt.checkpw(sPass, dbPass);
-                                                // may throw IllegalArgumentException
-                                            authCallback.authResult((pwOK) ? dbUser: null, true);  // <--- Callback ---
-                                        } catch (RuntimeException e) {}
-                                    }
-                                });
+                                            final long startedAt = System.nanoTime();
+                                            bcryptQueueTimes.record(startedAt - queuedAt);
+                                            try
+                                            {
+                                                boolean pwOK = BCrypt.checkpw(sPass, dbPass);
+                                                    // may throw IllegalArgumentException
+                                                bcryptVerifyTimes.record(System.nanoTime() - startedAt);
+                                                authCallback.authResult((pwOK) ? dbUser: null, true);  // <--- Callback ---
+                                            } catch (RuntimeException e) {}
+                                        }
+                                    });
+                                } catch (RejectedExecutionException e) {
+                                    if (pool.isShutdown())
+                                        throw new SQLTransientException("BCrypt pool is shut down");
+
+                                    bcryptRejected.incrementAndGet();
+                                    throw new SQLTransientException("BCrypt queue is full");
+                                }
+                                ranBCryptTask = true;
                             }
                         }
                     }
@@ -1665,6 +1952,14 @@ public class SOCDBHelper
 
         if (checkConnection())
         {
+            final TTLCache<String, String> cache = userHostCache;
+            if (cache != null)
+            {
+                final TTLCache.Entry<String> ce = cache.get(host);
+                if (ce != null)
+                    return ce.value;
+            }
+
             try
             {
                 hostQuery.setString(1, host);
@@ -1678,6 +1973,9 @@ public class SOCDBHelper
                 }
 
                 resultSet.close();
+
+                if (cache != null)
+                    cache.put(host, nickname);
             }
             catch (SQLException sqlE)
             {
@@ -1759,6 +2057,13 @@ public class SOCDBHelper
 
                 createAccountCommand.executeUpdate();
 
+                if (userCache != null)
+                {
+                    userCache.remove
+                        ((schemaVersion >= SCHEMA_VERSION_1200) ? userName.toLowerCase(Locale.US) : userName);
+                    userHostCache.remove(host);
+                }
+
                 return true;
             }
             catch (SQLException sqlE)
@@ -1899,6 +2204,8 @@ public class SOCDBHelper
                 passwordUpdateCommand.setString(3, userName);
             }
             passwordUpdateCommand.executeUpdate();
+            if (userCache != null)
+                userCache.remove(userName);
 
             return true;
         }
@@ -1967,15 +2274,21 @@ public class SOCDBHelper
      * For players whose users exist in the database, update their win-loss counts.
      *<P>
      * User win-loss records require schema version &gt;= {@link SOCDBHelper#SCHEMA_VERSION_2000}.
+     *<P>
+     * In v2.7.00 and newer, unless {@link #PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE} is 0, this method copies
+     * the game's scores and returns without waiting for the database: They're queued to be saved soon
+     * by a background thread with its own connection. If the queue is full, the scores aren't saved
+     * and a warning is printed to {@link System#err}. See {@link #getSettingsFormatted(SOCServer)}
+     * for queue stats.
      *
      * @param ga  Game that's just completed
      * @param gameLengthSeconds  Duration of game, from {@link SOCGame#getDurationSeconds()}
      * @param winLossOnly  If true don't store game details, only update users' win-loss counts.
      *     Caller should negate value of {@link #PROP_JSETTLERS_DB_SAVE_GAMES} to set this parameter.
      *
-     * @return true if the save succeeded
+     * @return true if the save succeeded or was queued
      * @throws IllegalArgumentException if {@link SOCGame#getPlayerWithWin() ga.getPlayerWithWin()} is null
-     * @throws SQLException if an error occurs
+     * @throws SQLException if an error occurs while saving synchronously
      */
     public boolean saveGameScores
         (final SOCGame ga, final int gameLengthSeconds, final boolean winLossOnly)
@@ -1991,160 +2304,189 @@ public class SOCDBHelper
             return false;  // <--- Early return: nothing to save, or conn was never initialized ---
         }
 
-        String[] names = new String[SOCGame.MAXPLAYERS];  // DB max 6; ga.maxPlayers max 4 or 6
-        short[] scores = new short[SOCGame.MAXPLAYERS];
-        for (int pn = 0; pn < ga.maxPlayers; ++pn)
-        {
-            SOCPlayer pl = ga.getPlayer(pn);
-            names[pn] = pl.getName();
-            scores[pn] = (short) pl.getTotalVP();
-        }
+        final GameScoresRecord rec = new GameScoresRecord(ga, winner, gameLengthSeconds, winLossOnly, schemaVersion);
 
-        try
+        if (writeQueueSize > 0)
         {
-            int newGameID = -1;  // PK from insertGames2Row, unless winLossOnly
-
-            if (! winLossOnly)
+            WriteBehindThread wb = writeBehind;
+            if (wb == null)
             {
-
-                final int db_max_players = (schemaVersion < SCHEMA_VERSION_1200) ? 4 : 6;
-                if ((ga.maxPlayers > db_max_players)
-                    && ! (ga.isSeatVacant(4) && ga.isSeatVacant(5)))
+                synchronized (this)
                 {
-                    // Need to try and fit player 5 and/or player 6
-                    // into the 4 db slots (backwards-compatibility)
-                    saveGameScores_fit6pInto4(ga, names, scores);
+                    wb = writeBehind;
+                    if ((wb == null) && initialized)
+                    {
+                        wb = new WriteBehindThread(writeQueueSize);
+                        writeBehind = wb;
+                        wb.start();
+                    }
                 }
+            }
 
-                final String gaName = ga.getName();
-                final long startTimeMillis = ga.getStartTime().getTime();
-                final SOCGameOptionSet opts = ga.getGameOptions();
-                final String optsStr = (opts == null)
-                    ? null
-                    : SOCGameOption.packOptionsToString(opts.getAll(), false, true);
-
-                if (schemaVersion >= SCHEMA_VERSION_2000)
-                {
-                    SOCGameOption scOpt = opts.get("SC");
-                    final String scen = (scOpt != null) ? scOpt.getStringValue() : null;
-
-                    newGameID = insertGames2Row
-                        (gaName, winner.getName(), startTimeMillis, gameLengthSeconds, optsStr, scen);
+            if ((wb != null) && ! wb.doShutdown)
+            {
+                if (wb.queue.offer(rec))
+                    return true;
 
-                    // Per-player scores will be stored below, in a transaction
+                ++wb.nDropped;
+                System.err.println
+                    ("* DB write-behind queue is full (" + writeQueueSize + "): Not saving scores of game "
+                     + rec.gaName);
 
-                } else {
-                    // schemaVersion < SCHEMA_VERSION_2000: no games2 table
-                    saveGameCommand.setString(1, gaName);
-                    int i = 2;
-
-                    for (int pn = 0; pn < db_max_players; ++i, ++pn)
-                        saveGameCommand.setString(i, names[pn]);
-                    for (int pn = 0; pn < db_max_players; ++i, ++pn)
-                        if ((scores[pn] != 0) || (names[pn] != null))
-                            saveGameCommand.setShort(i, scores[pn]);
-                        else
-                            saveGameCommand.setNull(i, Types.SMALLINT);
+                return false;
+            }
+        }
 
-                    saveGameCommand.setTimestamp(i, new Timestamp(startTimeMillis));  ++i;
+        try
+        {
+            writeGameScores
+                (new SaveGameStatements
+                    (connection, saveGameCommand, saveGamePlayerCommand, userIncrWonCommand, userIncrLostCommand),
+                 Collections.singletonList(rec));
+        }
+        catch (SQLException sqlE)
+        {
+            errorCondition = true;
+            sqlE.printStackTrace();
+            throw sqlE;
+        }
 
-                    if (schemaVersion >= SCHEMA_VERSION_1200)
-                    {
-                        saveGameCommand.setInt(i, gameLengthSeconds);  ++i;
-                        saveGameCommand.setString(i, winner.getName());  ++i;
-                        saveGameCommand.setString(i, optsStr);  ++i;
-                    }
+        return true;
+    }
 
-                    newGameID = 0;
+    /**
+     * Save some completed games' scores and users' win-loss counts in one transaction.
+     * Used by {@link #saveGameScores(SOCGame, int, boolean)} and {@link WriteBehindThread}.
+     * Uses JDBC batches for the per-player and win-loss records, and for the game records
+     * if schema &lt; {@link #SCHEMA_VERSION_2000}.
+     * @param st  Connection and its prepared statements to use
+     * @param recs  Games' scores to save; not empty
+     * @throws SQLException if an error occurs; transaction will have been rolled back
+     * @since 2.7.00
+     */
+    private void writeGameScores(final SaveGameStatements st, final List<GameScoresRecord> recs)
+        throws SQLException
+    {
+        // begin transaction
+        final boolean wasConnAutocommit = enterTransactionMode(st.conn);
 
-                    saveGameCommand.executeUpdate();
-                }
+        try
+        {
+            boolean anyGames = false, anyPlayers = false, anyWon = false, anyLost = false;
+            if (st.saveGamePlayer != null)
+                st.saveGamePlayer.clearBatch();
+            if (st.incrWon != null)
+            {
+                st.incrWon.clearBatch();
+                st.incrLost.clearBatch();
             }
+            if (schemaVersion < SCHEMA_VERSION_2000)
+                st.saveGame.clearBatch();
 
-            if (userIncrWonCommand != null)
+            for (final GameScoresRecord rec : recs)
             {
-                // In a transaction:
-                // - Save per-player scores.
-                // - Update per-user win/loss records for any players who exist in DB
-                // Applies to schemaVersion >= SCHEMA_VERSION_2000
-
-                String winnerName = winner.getName();
-                if ((winnerName == null) || winnerName.isEmpty())
-                    winnerName = "?";  // could happen if disconnected before save
-
-                // begin transaction
-                final boolean wasConnAutocommit = enterTransactionMode();
+                final String[] names = rec.names;
 
-                try
+                if (! rec.winLossOnly)
                 {
-                    if (! winLossOnly)
+                    if (schemaVersion >= SCHEMA_VERSION_2000)
                     {
-                        // Per-player scores:
+                        final int newGameID = insertGames2Row
+                            (st.saveGame, rec.gaName, rec.winnerName, rec.startTimeMillis,
+                             rec.gameLengthSeconds, rec.optsStr, rec.scen);
 
-                        boolean hadAnyPlayers = false;
-                        saveGamePlayerCommand.clearBatch();
-                        for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                        // Per-player scores:
+                        for (int pn = 0; pn < rec.maxPlayers; ++pn)
                         {
-                            if (ga.isSeatVacant(pn))
+                            if (rec.isVacant[pn])
                                 continue;
                             final String plName = names[pn];
-                            final int plScore = scores[pn];
+                            final int plScore = rec.scores[pn];
                             if ((plScore == 0) || (plName == null) || plName.isEmpty())
                                 continue;  // initial settlements give starting score of 2: no one would have 0 at game end
 
-                            hadAnyPlayers = true;
-                            saveGamePlayerCommand.setInt(1, newGameID);
-                            saveGamePlayerCommand.setString(2, plName);
-                            saveGamePlayerCommand.setInt(3, plScore);
-                            saveGamePlayerCommand.addBatch();
+                            anyPlayers = true;
+                            st.saveGamePlayer.setInt(1, newGameID);
+                            st.saveGamePlayer.setString(2, plName);
+                            st.saveGamePlayer.setInt(3, plScore);
+                            st.saveGamePlayer.addBatch();
                         }
-                        if (hadAnyPlayers)
-                            saveGamePlayerCommand.executeBatch();
+                    } else {
+                        // schemaVersion < SCHEMA_VERSION_2000: no games2 table
+                        final PreparedStatement saveGameCmd = st.saveGame;
+                        final int db_max_players = (schemaVersion < SCHEMA_VERSION_1200) ? 4 : 6;
+                        saveGameCmd.setString(1, rec.gaName);
+                        int i = 2;
+
+                        for (int pn = 0; pn < db_max_players; ++i, ++pn)
+                            saveGameCmd.setString(i, names[pn]);
+                        for (int pn = 0; pn < db_max_players; ++i, ++pn)
+                            if ((rec.scores[pn] != 0) || (names[pn] != null))
+                                saveGameCmd.setShort(i, rec.scores[pn]);
+                            else
+                                saveGameCmd.setNull(i, Types.SMALLINT);
+
+                        saveGameCmd.setTimestamp(i, new Timestamp(rec.startTimeMillis));  ++i;
+
+                        if (schemaVersion >= SCHEMA_VERSION_1200)
+                        {
+                            saveGameCmd.setInt(i, rec.gameLengthSeconds);  ++i;
+                            saveGameCmd.setString(i, rec.winnerName);  ++i;
+                            saveGameCmd.setString(i, rec.optsStr);  ++i;
+                        }
+
+                        saveGameCmd.addBatch();
+                        anyGames = true;
                     }
+                }
 
-                    // Per-user win/loss records:
+                if (st.incrWon != null)
+                {
+                    // Per-user win/loss records for any players who exist in DB;
+                    // applies to schemaVersion >= SCHEMA_VERSION_2000
 
-                    if ((winnerName != null) && (winnerName.length() > 0))
-                    {
-                        userIncrWonCommand.setString(1, winnerName);
-                        userIncrWonCommand.executeUpdate();
-                    }
+                    String winnerName = rec.winnerName;
+                    if ((winnerName == null) || winnerName.isEmpty())
+                        winnerName = "?";  // could happen if disconnected before save
 
-                    int nLost = 0;
-                    final int winnerPN = winner.getPlayerNumber();
-                    for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                    st.incrWon.setString(1, winnerName);
+                    st.incrWon.addBatch();
+                    anyWon = true;
+
+                    for (int pn = 0; pn < rec.maxPlayers; ++pn)
                     {
-                        if ((pn == winnerPN) || ga.isSeatVacant(pn))
+                        if ((pn == rec.winnerPN) || rec.isVacant[pn])
                             continue;
                         String pname = names[pn];
                         if ((pname == null) || pname.isEmpty())
                             continue;
 
-                        userIncrLostCommand.setString(1, pname);
-                        userIncrLostCommand.addBatch();
-                        ++nLost;
+                        st.incrLost.setString(1, pname);
+                        st.incrLost.addBatch();
+                        anyLost = true;
                     }
-                    if (nLost > 0)
-                        userIncrLostCommand.executeBatch();
-
-                    connection.commit();
-                } catch (SQLException e) {
-                    connection.rollback();
-                    throw e;
-                } finally {
-                    exitTransactionMode(wasConnAutocommit);
                 }
             }
 
-        }
-        catch (SQLException sqlE)
-        {
-            errorCondition = true;
-            sqlE.printStackTrace();
-            throw sqlE;
-        }
+            if (anyGames)
+                st.saveGame.executeBatch();
+            if (anyPlayers)
+                st.saveGamePlayer.executeBatch();
+            if (anyWon)
+                st.incrWon.executeBatch();
+            if (anyLost)
+                st.incrLost.executeBatch();
 
-        return true;
+            st.conn.commit();
+        } catch (SQLException e) {
+            try
+            {
+                st.conn.rollback();
+            } catch (SQLException re) {}
+            throw e;
+        } finally {
+            exitTransactionMode(st.conn, wasConnAutocommit);
+        }
     }
 
     /**
@@ -2314,6 +2656,8 @@ public class SOCDBHelper
      * Get this robot's specialized parameters from the database, if it has an entry there.
      * If you need default params if bot not found or no database,
      * call {@link SOCServer#getRobotParameters(String)} instead.
+     *<P>
+     * Since v2.7.00 results are cached for {@link #PROP_JSETTLERS_DB_CACHE_TTL} seconds.
      *
      * @param robotName Name of robot for db lookup
      * @return null if robotName not in database, or if db is empty and robotparams table doesn't exist
@@ -2329,6 +2673,14 @@ public class SOCDBHelper
             if (robotParamsQuery == null)
                 return null;  // <--- Early return: Table not found in db, is probably empty ---
 
+            final TTLCache<String, SOCRobotParameters> cache = robotParamsCache;
+            if (cache != null)
+            {
+                final TTLCache.Entry<SOCRobotParameters> ce = cache.get(robotName);
+                if (ce != null)
+                    return ce.value;  // <--- Early return: Cached ---
+            }
+
             try
             {
                 robotParamsQuery.setString(1, robotName);
@@ -2350,6 +2702,9 @@ public class SOCDBHelper
                 }
 
                 resultSet.close();
+
+                if (cache != null)
+                    cache.put(robotName, robotParams);
             }
             catch (SQLException sqlE)
             {
@@ -2466,9 +2821,128 @@ public class SOCDBHelper
         li.add(Boolean.toString
             (srv.getConfigBoolProperty(SOCDBHelper.PROP_JSETTLERS_DB_SAVE_GAMES, false)));
 
+        li.add("Write-behind queue");
+        li.add(getWriteQueueStatsFormatted());
+        li.add("BCrypt pool");
+        li.add(getBCryptStatsFormatted());
+        li.add("Lookup caches");
+        li.add(getLookupCacheStatsFormatted());
+
         return li;
     }
 
+    /**
+     * Add DB metrics to a snapshot for dashboards: BCrypt pool queue depth, rejections, queue wait and verify latency;
+     * write-behind queue depth, save counts, and batch save latency; lookup cache hits and misses.
+     * Does nothing if not {@link #isInitialized()}. Reads only volatile fields and thread-safe stats, takes no locks.
+     * @param s  Snapshot to add to
+     * @since 2.7.00
+     */
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        if (! initialized)
+            return;
+
+        final ThreadPoolExecutor pool = bcryptPool;
+        if (pool != null)
+        {
+            s.gauge("jsettlers_db_bcrypt_queue_depth", "Password checks waiting for a BCrypt thread",
+                pool.getQueue().size());
+            s.counter("jsettlers_db_bcrypt_rejected_total", "Logins rejected because BCrypt queue was full",
+                bcryptRejected.get());
+            s.latency("jsettlers_db_bcrypt_seconds", "BCrypt password check time by phase",
+                "phase", "queue", bcryptQueueTimes);
+            s.latency("jsettlers_db_bcrypt_seconds", "BCrypt password check time by phase",
+                "phase", "verify", bcryptVerifyTimes);
+        }
+
+        final WriteBehindThread wb = writeBehind;
+        if (wb != null)
+        {
+            s.gauge("jsettlers_db_write_queue_depth", "Completed games waiting to be saved", wb.queue.size());
+            s.counter("jsettlers_db_games_saved_total", "Completed games saved by write-behind thread", wb.nSaved);
+            s.counter("jsettlers_db_games_save_failed_total", "Completed games not saved because of DB errors",
+                wb.nFailed);
+            s.counter("jsettlers_db_games_save_dropped_total", "Completed games not saved because queue was full",
+                wb.nDropped);
+            s.latency("jsettlers_db_write_batch_seconds", "Time to save a batch of games", null, null, wb.flushTimes);
+        }
+
+        if (userCache != null)
+        {
+            final String[] names = { "users", "hosts", "robot_params" };
+            final TTLCache<?, ?>[] caches = { userCache, userHostCache, robotParamsCache };
+            for (int i = 0; i < names.length; ++i)
+            {
+                s.counter("jsettlers_db_cache_hits_total", "DB lookup cache hits",
+                    "cache", names[i], caches[i].getHitCount());
+                s.counter("jsettlers_db_cache_misses_total", "DB lookup cache misses",
+                    "cache", names[i], caches[i].getMissCount());
+            }
+        }
+    }
+
+    /**
+     * Get a one-line summary of the thread pool which checks {@link BCrypt} passwords during login:
+     * Its size, queue depth and limit, number rejected because the queue was full,
+     * and histograms of time spent waiting in the queue and checking passwords.
+     * Shown in {@link #getSettingsFormatted(SOCServer)} and the server's {@code *STATS*}.
+     * @return Formatted stats, or {@code "not started"} if not initialized
+     * @see #PROP_JSETTLERS_DB_BCRYPT_THREADS
+     * @since 2.7.00
+     */
+    public String getBCryptStatsFormatted()
+    {
+        final ThreadPoolExecutor pool = bcryptPool;
+        if (pool == null)
+            return "not started";
+
+        return "threads " + bcryptThreads + " (" + pool.getActiveCount() + " active), queue "
+            + pool.getQueue().size() + " of " + bcryptQueueMax + ", rejected " + bcryptRejected.get()
+            + "; queue wait: " + bcryptQueueTimes.toStringMillis() + "; verify: " + bcryptVerifyTimes.toStringMillis();
+    }
+
+    /**
+     * Get a one-line summary of the lookup caches for users, user hosts, and robot params:
+     * Their sizes and hit/miss counts. Shown in {@link #getSettingsFormatted(SOCServer)} and the server's {@code *STATS*}.
+     * @return Formatted stats, or {@code "disabled"} if {@link #PROP_JSETTLERS_DB_CACHE_TTL} is 0
+     * @since 2.7.00
+     */
+    public String getLookupCacheStatsFormatted()
+    {
+        if (userCache == null)
+            return "disabled";
+
+        return "TTL " + lookupCacheTTL + " sec; users: " + userCache.toStatsString()
+            + "; hosts: " + userHostCache.toStatsString() + "; robot params: " + robotParamsCache.toStatsString();
+    }
+
+    /**
+     * Get a one-line summary of the write-behind queue used by {@link #saveGameScores(SOCGame, int, boolean)}:
+     * Its depth and capacity, games saved, and time to save each batch.
+     * Shown in {@link #getSettingsFormatted(SOCServer)} and the server's {@code *STATS*}.
+     * @return Formatted stats, like {@code "depth 0 of 500; 12 saved in 9 batches, 0 failed, 0 dropped;
+     *     flush ms last 4, avg 6, max 21"}, or {@code "off"} if {@link #PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE} is 0,
+     *     or {@code "not started"}
+     * @since 2.7.00
+     */
+    public String getWriteQueueStatsFormatted()
+    {
+        if (writeQueueSize == 0)
+            return "off";
+
+        final WriteBehindThread wb = writeBehind;
+        if (wb == null)
+            return "not started";
+
+        final long nBatches = wb.nBatches;
+        return "depth " + wb.queue.size() + " of " + writeQueueSize
+            + "; " + wb.nSaved + " saved in " + nBatches + " batches, " + wb.nFailed + " failed, "
+            + wb.nDropped + " dropped; flush ms last " + (wb.lastFlushNanos / 1000000)
+            + ", avg " + ((nBatches > 0) ? (wb.totalFlushNanos / nBatches / 1000000) : 0)
+            + ", max " + (wb.maxFlushNanos / 1000000);
+    }
+
     /****************************************
      * Public utility methods
      ****************************************/
@@ -2548,6 +3022,11 @@ public class SOCDBHelper
      *<P>
      * Called from {@code SOCServer} startup (Utility Mode) when
      * {@link #PROP_JSETTLERS_DB_BCRYPT_WORK__FACTOR} is {@code "test"}.
+     *<P>
+     * Since v2.7.00, if {@link #PROP_JSETTLERS_DB_BCRYPT_THREADS} is more than 1, also checks the
+     * recommended work factor with that many threads hashing at once. If it's too slow under that load
+     * (more than 620 ms), steps down the work factor but not below {@link #BCRYPT_MIN_WORK_FACTOR}.
+     * Prints the resulting logins per second and worst-case queue wait for {@link #PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX}.
      * @return  The fastest acceptable work factor (270-620 milliseconds per BCrypt),
      *     or -1 if all tested WFs were too slow, or -2 if all WFs were too fast
      * @since 1.2.00
@@ -2601,9 +3080,81 @@ public class SOCDBHelper
         }
         System.err.println();
 
+        if ((recc_wf > 0) && (bcryptThreads > 1))
+        {
+            // Single-thread speed isn't the whole story: With all pool threads busy, each BCrypt may be slower
+            // because of shared CPU caches, hyperthreads, frequency scaling. Check recommendation under load.
+
+            System.err.println("Testing BCrypt speed with " + bcryptThreads + " concurrent threads ("
+                + PROP_JSETTLERS_DB_BCRYPT_THREADS + "):");
+            float loadedMSec = testBCryptSpeed_concurrent(recc_wf, bcryptThreads);
+            while ((loadedMSec > 620) && (recc_wf > BCRYPT_MIN_WORK_FACTOR))
+            {
+                --recc_wf;
+                System.err.println("  too slow under load; trying work factor " + recc_wf);
+                loadedMSec = testBCryptSpeed_concurrent(recc_wf, bcryptThreads);
+            }
+
+            final float loginsPerSec = (loadedMSec > 0) ? (1000f * bcryptThreads / loadedMSec) : 0;
+            System.err.println("WF " + recc_wf + " under load: " + loadedMSec + " ms per password, about "
+                + Math.round(loginsPerSec) + " logins/second capacity");
+            System.err.println("With " + PROP_JSETTLERS_DB_BCRYPT_QUEUE__MAX + " = " + bcryptQueueMax
+                + ", worst-case queue wait is about "
+                + Math.round(loadedMSec * Math.ceil(bcryptQueueMax / (double) bcryptThreads)) + " ms");
+            System.err.println("Recommended Work Factor: " + recc_wf);
+            System.err.println();
+        }
+
         return recc_wf;
     }
 
+    /**
+     * Time {@link BCrypt} at one work factor with several threads hashing at once,
+     * like {@link #bcryptPool} when many users log in together. Used by {@link #testBCryptSpeed()}.
+     * @param wf  Work factor to test
+     * @param nThreads  Number of threads to run at once
+     * @return  Average milliseconds per BCrypt in each thread, or -1 if interrupted
+     * @since 2.7.00
+     */
+    private static float testBCryptSpeed_concurrent(final int wf, final int nThreads)
+    {
+        final int HASHES_PER_THREAD = 4;
+        final String salt = BCrypt.gensalt(wf, new SecureRandom());
+        final Thread[] th = new Thread[nThreads];
+        final long[] threadMSec = new long[nThreads];
+        for (int t = 0; t < nThreads; ++t)
+        {
+            final int ti = t;
+            th[t] = new Thread("BCryptTest-" + t)
+            {
+                public void run()
+                {
+                    final long start_ms = System.currentTimeMillis();
+                    for (int i = 0; i < HASHES_PER_THREAD; ++i)
+                        BCrypt.hashpw("testDBHelper", salt);
+                    threadMSec[ti] = System.currentTimeMillis() - start_ms;
+                }
+            };
+            th[t].setDaemon(true);
+        }
+
+        for (final Thread t : th)
+            t.start();
+        long totalMSec = 0;
+        try
+        {
+            for (int t = 0; t < nThreads; ++t)
+            {
+                th[t].join();
+                totalMSec += threadMSec[t];
+            }
+        } catch (InterruptedException e) {
+            return -1f;
+        }
+
+        return totalMSec / (float) (nThreads * HASHES_PER_THREAD);
+    }
+
     /**
      * Test speed of a range of Work Factors for {@link #testBCryptSpeed()}.
      * Look for an acceptable speed of about 270-620 milliseconds per BCrypt.
@@ -2746,52 +3297,47 @@ public class SOCDBHelper
 
     /**
      * Insert a new game-info row into the {@code games2} table and return its generated ID.
-     * Used by {@link #saveGameScores(SOCGame, int, boolean)}.
+     * Used by {@link #writeGameScores(SaveGameStatements, List)}.
+     *<P>
+     * Before v2.7.00 this method checked the connection before inserting.
      *
+     * @param saveGameCmd  {@link #saveGameCommand}, or a {@link WriteBehindThread}'s equivalent
      * @param startTimeMillis  Game start time, from {@link SOCGame#getStartTime()}{@link java.util.Date#getTime() .getTime()}
      * @param gameLengthSeconds  Game length, from {@link SOCGame#getDurationSeconds()}
      * @param optsStr  Null or game options, from {@link SOCGame#getGameOptions()}
      *     passed to {@link SOCGameOption#packOptionsToString(Map, boolean, boolean)}
      * @param scen  Scenario name key from game option {@code "SC"}, or {@code null} if none
      * @return  Newly inserted row's primary key ID
-     * @throws IllegalStateException  If not connected and if {@link #checkConnection()} fails
      * @throws UnsupportedOperationException if schema @lt; {@link #SCHEMA_VERSION_2000}
      * @throws SQLException if any unexpected database problem
      * @since 2.0.00
      */
     private int insertGames2Row
-        (final String gaName, final String winnerName, final long startTimeMillis, final int gameLengthSeconds,
+        (final PreparedStatement saveGameCmd,
+         final String gaName, final String winnerName, final long startTimeMillis, final int gameLengthSeconds,
          final String optsStr, final String scen)
-        throws IllegalStateException, UnsupportedOperationException, SQLException
+        throws UnsupportedOperationException, SQLException
     {
-        try
-        {
-            if (! checkConnection())
-                throw new IllegalStateException();
-        } catch (SQLException e) {
-            throw new IllegalStateException(e);
-        }
-
         if (schemaVersion < SCHEMA_VERSION_2000)
             throw new UnsupportedOperationException();
 
-        // No try-catch here for SQLException: handled within caller saveGameScores
+        // No try-catch here for SQLException: handled within caller writeGameScores
 
         int i = 1;
-        saveGameCommand.setString(1, gaName);  ++i;
-        saveGameCommand.setTimestamp(i, new Timestamp(startTimeMillis));  ++i;
-        saveGameCommand.setInt(i, gameLengthSeconds);  ++i;
-        saveGameCommand.setString(i, winnerName);  ++i;
-        saveGameCommand.setString(i, optsStr);  ++i;  // null is OK
-        saveGameCommand.setString(i, scen);  ++i;  // null is OK
+        saveGameCmd.setString(1, gaName);  ++i;
+        saveGameCmd.setTimestamp(i, new Timestamp(startTimeMillis));  ++i;
+        saveGameCmd.setInt(i, gameLengthSeconds);  ++i;
+        saveGameCmd.setString(i, winnerName);  ++i;
+        saveGameCmd.setString(i, optsStr);  ++i;  // null is OK
+        saveGameCmd.setString(i, scen);  ++i;  // null is OK
 
-        saveGameCommand.executeUpdate();
+        saveGameCmd.executeUpdate();
 
         int id = 0;
         ResultSet rs = null;
         try
         {
-            rs = saveGameCommand.getGeneratedKeys();
+            rs = saveGameCmd.getGeneratedKeys();
             if (rs.next()) {
                 id = rs.getInt(1);
             }
@@ -2962,17 +3508,31 @@ public class SOCDBHelper
      */
     private boolean enterTransactionMode()
         throws SQLException
+    {
+        return enterTransactionMode(connection);
+    }
+
+    /**
+     * Puts a connection into transaction mode; see {@link #enterTransactionMode()} for details.
+     * @param conn  Connection to use: {@link #connection} or {@link WriteBehindThread}'s
+     * @return  Status value from {@link Connection#getAutoCommit()}, to pass to
+     *     {@link #exitTransactionMode(Connection, boolean)}
+     * @throws SQLException  if an unexpected DB error occurs or the connection is closed
+     * @since 2.7.00
+     */
+    private static boolean enterTransactionMode(final Connection conn)
+        throws SQLException
     {
         // Note: if this method's code changes, also update testDBHelper() to match.
 
-        final boolean wasConnAutocommit = connection.getAutoCommit();
+        final boolean wasConnAutocommit = conn.getAutoCommit();
 
         // begin transaction
         if (wasConnAutocommit)
-            connection.setAutoCommit(false);
+            conn.setAutoCommit(false);
         else
             try {
-                connection.commit();  // end previous transaction, if any
+                conn.commit();  // end previous transaction, if any
             } catch (SQLException e) {}
 
         return wasConnAutocommit;
@@ -2995,11 +3555,24 @@ public class SOCDBHelper
      */
     private void exitTransactionMode(final boolean wasConnAutocommit)
         throws SQLException
+    {
+        exitTransactionMode(connection, wasConnAutocommit);
+    }
+
+    /**
+     * Take a connection out of transaction mode; see {@link #exitTransactionMode(boolean)} for details.
+     * @param conn  Connection passed to {@link #enterTransactionMode(Connection)}
+     * @param wasConnAutocommit  The value returned from {@link #enterTransactionMode(Connection)}
+     * @throws SQLException  if an unexpected DB error occurs or the connection is closed
+     * @since 2.7.00
+     */
+    private static void exitTransactionMode(final Connection conn, final boolean wasConnAutocommit)
+        throws SQLException
     {
         // Note: if this method's code changes, also update testDBHelper() to match.
 
         if (wasConnAutocommit)
-            connection.setAutoCommit(true);
+            conn.setAutoCommit(true);
         // else,
         //   nothing to do since caller has called commit() or rollback()
     }
@@ -3621,11 +4194,23 @@ public class SOCDBHelper
     /**
      * Close out and shut down the database connection.
      * Any {@link SQLException}s while doing so are caught here.
+     * Before closing, waits for the write-behind thread (if any) to save its queued game scores.
      * @param isForShutdown  If true, set <tt>connection = null</tt>
      *          so we won't try to reconnect later.
      */
     public void cleanup(final boolean isForShutdown)
     {
+        final WriteBehindThread wb = writeBehind;
+        if (wb != null)
+        {
+            wb.shutdown();  // saves all queued game scores before returning
+            synchronized (this)
+            {
+                if (writeBehind == wb)
+                    writeBehind = null;
+            }
+        }
+
         try
         {
             if (! checkConnection())
@@ -3658,6 +4243,13 @@ public class SOCDBHelper
         if (isForShutdown && (schemaUpgBGTasksThread != null) && schemaUpgBGTasksThread.isAlive())
             schemaUpgBGTasksThread.doShutdown = true;
 
+        final ThreadPoolExecutor pool = bcryptPool;
+        if (isForShutdown && (pool != null))
+        {
+            bcryptPool = null;
+            pool.shutdown();  // already-queued checks will still finish and call back
+        }
+
         initialized = false;
         try
         {
@@ -4165,7 +4757,7 @@ public class SOCDBHelper
             // test insertGameRow a few times
             for (int i = 0; i < newIDs.length; ++i)
                 newIDs[i] = insertGames2Row
-                    ("db_testOne_ins" + i, "winner", startTimeMillis, i+1, null, null);
+                    (saveGameCommand, "db_testOne_ins" + i, "winner", startTimeMillis, i+1, null, null);
 
             // check their IDs (reasonable gameid, can SELECT expected contents)
             for (int i = 0; i < newIDs.length; ++i)
@@ -4630,6 +5222,10 @@ public class SOCDBHelper
          * Called after user and password are authenticated or rejected, which may be a slow process which runs in
          * its own Thread. So, this callback will occur in the caller's Thread or in a Thread dedicated to
          * {@link BCrypt} calls.
+         *<P>
+         * Since v2.7.00 there's a pool of those BCrypt threads ({@link SOCDBHelper#PROP_JSETTLERS_DB_BCRYPT_THREADS}),
+         * so callbacks for different users may run concurrently: Implementations must be thread-safe.
+         * The server's callback only posts a task to its inbound message queue, which is thread-safe.
          * @param dbUserName  Username if auth was successful, or {@code null}; same meaning as the String
          *     returned from {@link SOCDBHelper#authenticateUserPassword(String, String, AuthPasswordRunnable)}.
          * @param hadDelay  If true, this callback has been delayed by {@code BCrypt} calculations;
@@ -5018,4 +5614,339 @@ public class SOCDBHelper
 
     }
 
+    /**
+     * Copy of a completed game's data needed by {@link SOCDBHelper#saveGameScores(SOCGame, int, boolean)},
+     * so the game can be saved later by {@link WriteBehindThread} even if the game object
+     * has been reset or destroyed by then.
+     * @since 2.7.00
+     */
+    private static final class GameScoresRecord
+    {
+        final String gaName, winnerName;
+        final int winnerPN, maxPlayers, gameLengthSeconds;
+        final long startTimeMillis;
+
+        /** Player names and scores, indexed by player number; see {@link SOCDBHelper#saveGameScores_fit6pInto4} */
+        final String[] names;
+        final short[] scores;
+        final boolean[] isVacant;
+
+        /** Game options packed to a string, or {@code null}; scenario name key, or {@code null} */
+        final String optsStr, scen;
+
+        final boolean winLossOnly;
+
+        /**
+         * Copy this game's data.
+         * @param ga  Game that's just completed
+         * @param winner  Player with win; not null
+         * @param gameLengthSeconds  Duration of game
+         * @param winLossOnly  If true, will save only users' win-loss counts
+         * @param schemaVersion  DB's schema version, to fit 6 players into 4 slots if needed
+         */
+        GameScoresRecord
+            (final SOCGame ga, final SOCPlayer winner, final int gameLengthSeconds, final boolean winLossOnly,
+             final int schemaVersion)
+        {
+            gaName = ga.getName();
+            winnerName = winner.getName();
+            winnerPN = winner.getPlayerNumber();
+            maxPlayers = ga.maxPlayers;
+            this.gameLengthSeconds = gameLengthSeconds;
+            this.winLossOnly = winLossOnly;
+            startTimeMillis = ga.getStartTime().getTime();
+
+            names = new String[SOCGame.MAXPLAYERS];  // DB max 6; ga.maxPlayers max 4 or 6
+            scores = new short[SOCGame.MAXPLAYERS];
+            isVacant = new boolean[SOCGame.MAXPLAYERS];
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
+            {
+                SOCPlayer pl = ga.getPlayer(pn);
+                names[pn] = pl.getName();
+                scores[pn] = (short) pl.getTotalVP();
+                isVacant[pn] = ga.isSeatVacant(pn);
+            }
+
+            final SOCGameOptionSet opts = ga.getGameOptions();
+            if (winLossOnly)
+            {
+                optsStr = null;
+                scen = null;
+            } else {
+                final int db_max_players = (schemaVersion < SCHEMA_VERSION_1200) ? 4 : 6;
+                if ((ga.maxPlayers > db_max_players)
+                    && ! (ga.isSeatVacant(4) && ga.isSeatVacant(5)))
+                {
+                    // Need to try and fit player 5 and/or player 6
+                    // into the 4 db slots (backwards-compatibility)
+                    saveGameScores_fit6pInto4(ga, names, scores);
+                }
+
+                optsStr = (opts == null)
+                    ? null
+                    : SOCGameOption.packOptionsToString(opts.getAll(), false, true);
+                final SOCGameOption scOpt = (opts != null) ? opts.get("SC") : null;
+                scen = (scOpt != null) ? scOpt.getStringValue() : null;
+            }
+        }
+    }
+
+    /**
+     * A connection and its prepared statements used by {@link SOCDBHelper#writeGameScores(SaveGameStatements, List)}:
+     * {@link SOCDBHelper#connection}'s, or {@link WriteBehindThread}'s own.
+     * @since 2.7.00
+     */
+    private static final class SaveGameStatements
+    {
+        final Connection conn;
+
+        /** Insert into {@code games2}, or {@code games} if schema &lt; {@link SOCDBHelper#SCHEMA_VERSION_2000} */
+        final PreparedStatement saveGame;
+
+        /** Per-player and win-loss statements; {@code null} if schema &lt; {@link SOCDBHelper#SCHEMA_VERSION_2000} */
+        final PreparedStatement saveGamePlayer, incrWon, incrLost;
+
+        SaveGameStatements
+            (final Connection conn, final PreparedStatement saveGame, final PreparedStatement saveGamePlayer,
+             final PreparedStatement incrWon, final PreparedStatement incrLost)
+        {
+            this.conn = conn;
+            this.saveGame = saveGame;
+            this.saveGamePlayer = saveGamePlayer;
+            this.incrWon = incrWon;
+            this.incrLost = incrLost;
+        }
+
+        /** Close the statements and connection, ignoring any exceptions. */
+        void close()
+        {
+            for (final PreparedStatement ps : new PreparedStatement[]{ saveGame, saveGamePlayer, incrWon, incrLost })
+                if (ps != null)
+                    try
+                    {
+                        ps.close();
+                    } catch (SQLException e) {}
+
+            try
+            {
+                conn.close();
+            } catch (SQLException e) {}
+        }
+    }
+
+    /**
+     * Write-behind thread for {@link SOCDBHelper#saveGameScores(SOCGame, int, boolean)}:
+     * Takes games' scores from a bounded queue and saves up to {@link SOCDBHelper#WRITE_BATCH_MAX}
+     * at a time in one transaction, using its own DB connection and prepared statements.
+     * If a batch fails, reconnects and retries it once. If it fails again, saves each game
+     * in the batch separately, so that one bad record doesn't lose the others' scores.
+     *<P>
+     * Started when first needed. {@link SOCDBHelper#cleanup(boolean)} calls {@link #shutdown()},
+     * which saves all queued games before returning. While shutting down, {@link SOCDBHelper#saveGameScores}
+     * saves games synchronously instead of adding them to the queue.
+     *<P>
+     * Stats fields are written only by this thread.
+     * @see SOCDBHelper#PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE
+     * @since 2.7.00
+     */
+    private class WriteBehindThread extends Thread
+    {
+        /** Games' scores waiting to be saved */
+        final ArrayBlockingQueue<GameScoresRecord> queue;
+
+        /** Flag to shut down the thread when queue is empty, if set true */
+        volatile boolean doShutdown;
+
+        /** This thread's connection and statements, or {@code null} if not currently connected */
+        private SaveGameStatements stmts;
+
+        /** Number of batches and games saved; number of games not saved because of DB errors */
+        volatile long nBatches, nSaved, nFailed;
+
+        /** Number of games not queued because queue was full; incremented by caller threads, so not exact */
+        volatile long nDropped;
+
+        /** Most recent and longest time to save a batch, and total for all batches, in nanoseconds */
+        volatile long lastFlushNanos, maxFlushNanos, totalFlushNanos;
+
+        /** Histogram of times to save a batch, for {@link SOCDBHelper#addMetrics(MetricsRegistry.Snapshot)} */
+        final LatencyHistogram flushTimes = new LatencyHistogram();
+
+        WriteBehindThread(final int queueSize)
+        {
+            super("DBWriteBehindThread");
+            setDaemon(true);
+            queue = new ArrayBlockingQueue<>(queueSize);
+        }
+
+        public void run()
+        {
+            final ArrayList<GameScoresRecord> batch = new ArrayList<>();
+
+            while (! (doShutdown && queue.isEmpty()))
+            {
+                try
+                {
+                    final GameScoresRecord rec = queue.poll(1, TimeUnit.SECONDS);
+                    if (rec == null)
+                        continue;
+
+                    batch.add(rec);
+                }
+                catch (InterruptedException e) {
+                    continue;
+                }
+
+                queue.drainTo(batch, WRITE_BATCH_MAX - 1);
+                flush(batch);
+                batch.clear();
+            }
+
+            if (stmts != null)
+            {
+                stmts.close();
+                stmts = null;
+            }
+        }
+
+        /**
+         * Save a batch of games, connecting if needed. Retries once after an error.
+         * If the retry also fails, saves each game separately with {@link #flushEach(List)}.
+         * @param batch  Games to save; not empty
+         */
+        private void flush(final List<GameScoresRecord> batch)
+        {
+            SQLException err = null;
+
+            for (int attempt = 0; attempt < 2; ++attempt)
+            {
+                err = write(batch);
+                if (err == null)
+                    return;  // <--- Early return: Saved ---
+            }
+
+            if (batch.size() == 1)
+            {
+                nFailed += 1;
+                System.err.println
+                    ("*** DB write-behind: Could not save scores of game " + batch.get(0).gaName + ": " + err);
+                err.printStackTrace();
+            } else {
+                System.err.println
+                    ("* DB write-behind: Could not save batch of " + batch.size()
+                     + " games, will save each separately: " + err);
+                flushEach(batch);
+            }
+        }
+
+        /**
+         * Save each game in a batch which couldn't be saved all together, in its own transaction,
+         * retrying once after an error. Logs and counts each game which still can't be saved.
+         * @param batch  Games to save; not empty
+         */
+        private void flushEach(final List<GameScoresRecord> batch)
+        {
+            for (final GameScoresRecord rec : batch)
+            {
+                final List<GameScoresRecord> one = Collections.singletonList(rec);
+                SQLException err = write(one);
+                if (err != null)
+                    err = write(one);
+                if (err != null)
+                {
+                    ++nFailed;
+                    System.err.println
+                        ("*** DB write-behind: Could not save scores of game " + rec.gaName + ": " + err);
+                    err.printStackTrace();
+                }
+            }
+        }
+
+        /**
+         * Save some games in one transaction, connecting if needed, and update stats if successful.
+         * If an error occurs, closes the connection so the next call will reconnect;
+         * also closes a new connection if its statements can't be prepared.
+         * @param recs  Games to save; not empty
+         * @return  {@code null} if saved, otherwise the error
+         */
+        private SQLException write(final List<GameScoresRecord> recs)
+        {
+            final long startTime = System.nanoTime();
+            try
+            {
+                if (stmts == null)
+                {
+                    final Connection conn = openConnection(dbcUserName, dbcPassword);
+                    try
+                    {
+                        stmts = prepareSaveGameStatements(conn);
+                    } catch (SQLException e) {
+                        try
+                        {
+                            conn.close();
+                        } catch (SQLException ce) {}
+
+                        throw e;
+                    }
+                }
+                writeGameScores(stmts, recs);
+
+                final long cost = System.nanoTime() - startTime;
+                lastFlushNanos = cost;
+                totalFlushNanos += cost;
+                if (cost > maxFlushNanos)
+                    maxFlushNanos = cost;
+                flushTimes.record(cost);
+                ++nBatches;
+                nSaved += recs.size();
+
+                return null;
+            } catch (SQLException e) {
+                if (stmts != null)
+                {
+                    stmts.close();
+                    stmts = null;
+                }
+
+                return e;
+            }
+        }
+
+        /**
+         * Stop this thread after saving all queued games, and wait for that to finish.
+         * Callers should no longer add to {@link #queue} after {@link #doShutdown} is set;
+         * any game added while the thread was exiting is saved here by the calling thread.
+         */
+        void shutdown()
+        {
+            doShutdown = true;
+
+            boolean interrupted = false;
+            while (isAlive())
+            {
+                try
+                {
+                    join();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+
+            if (! queue.isEmpty())
+            {
+                final ArrayList<GameScoresRecord> late = new ArrayList<>();
+                queue.drainTo(late);
+                flush(late);
+                if (stmts != null)
+                {
+                    stmts.close();
+                    stmts = null;
+                }
+            }
+        }
+    }
+
 }
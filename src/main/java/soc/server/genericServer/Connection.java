@@ -1,6 +1,6 @@
 /**
  * JSettlers network message system.
- * This file Copyright (C) 2007-2009,2013,2015-2018,2020,2022 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2007-2009,2013,2015-2018,2020,2022,2026 Jeremy D Monin <jeremy@nand.net>
  * Portions of this file Copyright (C) 2016 Alessandro D'Ottavio
  *
  * This program is free software; you can redistribute it and/or
@@ -22,7 +22,9 @@ package soc.server.genericServer;
 
 import java.io.DataOutputStream;  // strictly for javadocs
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.MissingResourceException;
 
 import soc.game.SOCGame;  // strictly for passthrough in getLocalizedSpecial, and javadocs; not used otherwise
@@ -53,6 +55,7 @@ import soc.util.SOCStringManager;
  *  2.1.0 - 2020-01-09 - Connection +put({@link SOCMessage}). Misc server-side changes: See {@link SOCServerSocket}
  *  2.3.0 - 2020-04-27 - Connection +getI18NStringManager
  *  2.5.0 - 2021-12-30 - no change in this file
+ *  2.7.0 - 2026-10-18 - Connection +put(List), +holdForBatch, +flushBatch for {@link OutputBatcher}
  *</PRE>
  *<P>
  * Implementation note: {@code Connection} is used as a key in the server's client-management collections.
@@ -152,6 +155,26 @@ public abstract class Connection
      */
     protected Date connectTime = new Date();
 
+    /**
+     * Messages held by {@link #holdForBatch(String)} during an {@link OutputBatcher} batch,
+     * or {@code null} if not holding any. Synchronized on {@link #batchLock}.
+     * @since 2.7.00
+     */
+    private List<String> outBatch;
+
+    /**
+     * True while {@link #flushBatch()} is sending {@link #outBatch}, so those aren't held again.
+     * Synchronized on {@link #batchLock}.
+     * @since 2.7.00
+     */
+    private boolean outBatchFlushing;
+
+    /**
+     * Lock for {@link #outBatch}, held while flushing it so other threads' output stays in order.
+     * @since 2.7.00
+     */
+    private final Object batchLock = new Object();
+
     /**
      * @return Hostname of the remote end of the connection
      */
@@ -189,6 +212,95 @@ public abstract class Connection
         put(msg.toCmd());
     }
 
+    /**
+     * Send several messages' data over the connection, in order.
+     * This default implementation calls {@link #put(String)} for each one;
+     * implementations with a queue should override to add them all at once.
+     *<P>
+     * <B>Threads:</B> Safe to call from any thread.
+     *
+     * @param strs  Data to send, each from {@link SOCMessage#toCmd()}; not null
+     * @throws IllegalStateException if not yet accepted by server
+     * @since 2.7.00
+     */
+    public void put(final List<String> strs)
+        throws IllegalStateException
+    {
+        for (final String str : strs)
+            put(str);
+    }
+
+    /**
+     * If our server's {@link OutputBatcher} is batching output to this connection, or messages are
+     * already held here from the current batch, hold this data to send when the batch ends.
+     * Implementations of {@link #put(String)} and {@link #put(List)} should call this before
+     * queueing output, and return if it returns true.
+     *<P>
+     * <B>Threads:</B> Safe to call from any thread.
+     *
+     * @param str  Data to send, or {@code null} if {@code strs} is given
+     * @param strs  Several data to send in order, or {@code null} if {@code str} is given
+     * @return  True if held; false if caller should send it now
+     * @since 2.7.00
+     */
+    protected final boolean holdForBatch(final String str, final List<String> strs)
+    {
+        synchronized (batchLock)
+        {
+            if (outBatch == null)
+            {
+                final OutputBatcher ob = (ourServer != null) ? ourServer.getOutputBatcher() : null;
+                if (outBatchFlushing || (ob == null) || ! ob.isBatching(this))
+                    return false;
+
+                outBatch = new ArrayList<String>();
+                ob.addHeld(this);
+            }
+
+            if (str != null)
+                outBatch.add(str);
+            else
+                outBatch.addAll(strs);
+        }
+
+        return true;
+    }
+
+    /**
+     * If any output is being held by {@link #holdForBatch(String, List)},
+     * {@link OutputBatcher#coalesce(List) coalesce} and send it now.
+     * Called when the batch ends, or when disconnecting.
+     *<P>
+     * <B>Threads:</B> Safe to call from any thread.
+     *
+     * @throws IllegalStateException if not yet accepted by server, from {@link #put(List)}
+     * @since 2.7.00
+     */
+    public void flushBatch()
+        throws IllegalStateException
+    {
+        synchronized (batchLock)
+        {
+            if (outBatch == null)
+                return;
+
+            final List<String> held = outBatch;
+            outBatch = null;
+            final List<String> toSend = OutputBatcher.coalesce(held);
+            final OutputBatcher ob = (ourServer != null) ? ourServer.getOutputBatcher() : null;
+            if (ob != null)
+                ob.flushed(held.size(), toSend.size());
+
+            outBatchFlushing = true;
+            try
+            {
+                put(toSend);
+            } finally {
+                outBatchFlushing = false;
+            }
+        }
+    }
+
     /** For server-side thread which reads and treats incoming messages */
     public abstract void run();
 
@@ -450,8 +562,7 @@ public abstract class Connection
         remoteVersionKnown = isKnown;
         if (remoteVersionTrack && (ourServer != null) && (prevVers != version))
         {
-            ourServer.clientVersionRem(prevVers);
-            ourServer.clientVersionAdd(version);
+            ourServer.clientVersionChanged(this, prevVers);
         }
     }
 
@@ -0,0 +1,180 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.genericServer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Copy-on-write registry of a server's current connections, named and unnamed, by client version,
+ * for {@link Server#broadcast(soc.message.SOCMessage)} and
+ * {@link Server#broadcastToVers(soc.message.SOCMessage, int, int)}.
+ *<P>
+ * Broadcasting iterates a snapshot of each version's connection list without locking, so it never
+ * blocks or is blocked by connections being added, removed, named, or changing version.
+ * A version range broadcast looks only at the versions in that range.
+ *<P>
+ * <B>Locks:</B> Methods which change the registry ({@link #add(Connection)}, {@link #remove(Connection, int)},
+ * {@link #versionChanged(Connection, int)}, {@link #clear()}) must be called while synchronized on
+ * one lock: {@link Server} uses its {@link Server#unnamedConns}.
+ * {@link #putToVers(String, int, int)} and the getters don't need a lock.
+ *
+ * @since 2.7.00
+ */
+public class ConnectionsByVersion
+{
+    /**
+     * Each connected version's connections. A version's list is removed from the map when it becomes empty;
+     * a broadcast which already has the removed list will see it as it was.
+     */
+    private final ConcurrentSkipListMap<Integer, CopyOnWriteArrayList<Connection>> byVers
+        = new ConcurrentSkipListMap<>();
+
+    /**
+     * Add a connection, under its current {@link Connection#getVersion()}.
+     * See class javadoc for locking.
+     * @param c  Connection to add; not already in the registry
+     */
+    public void add(final Connection c)
+    {
+        final Integer vkey = Integer.valueOf(c.getVersion());
+        CopyOnWriteArrayList<Connection> li = byVers.get(vkey);
+        if (li == null)
+        {
+            li = new CopyOnWriteArrayList<>();
+            li.add(c);
+            byVers.put(vkey, li);
+        } else {
+            li.add(c);
+        }
+    }
+
+    /**
+     * Remove a connection, if present. See class javadoc for locking.
+     * @param c  Connection to remove
+     * @param vers  Version the connection is registered under, usually its current {@link Connection#getVersion()};
+     *     if it isn't found there, all versions are searched
+     * @return true if found and removed
+     */
+    public boolean remove(final Connection c, final int vers)
+    {
+        if (removeFromVers(c, vers))
+            return true;
+
+        for (final Integer vkey : byVers.keySet())
+            if (removeFromVers(c, vkey))
+                return true;
+
+        return false;
+    }
+
+    /** Remove {@code c} from {@code vers}'s list if there, and remove the list if that empties it. */
+    private boolean removeFromVers(final Connection c, final int vers)
+    {
+        final Integer vkey = Integer.valueOf(vers);
+        final CopyOnWriteArrayList<Connection> li = byVers.get(vkey);
+        if ((li == null) || ! li.remove(c))
+            return false;
+
+        if (li.isEmpty())
+            byVers.remove(vkey);
+
+        return true;
+    }
+
+    /**
+     * A registered connection's version has changed: Move it to its new version's list.
+     * Call after {@link Connection#getVersion()} returns the new version.
+     * See class javadoc for locking.
+     * @param c  Connection whose version changed
+     * @param prevVers  Its previous version
+     */
+    public void versionChanged(final Connection c, final int prevVers)
+    {
+        // putToVers checks each connection's current version,
+        // so c is sent to only from its new version's list
+        add(c);
+        removeFromVers(c, prevVers);
+    }
+
+    /** Remove all connections. See class javadoc for locking. */
+    public void clear()
+    {
+        byVers.clear();
+    }
+
+    /** @return number of connections registered */
+    public int size()
+    {
+        int n = 0;
+        for (final List<Connection> li : byVers.values())
+            n += li.size();
+
+        return n;
+    }
+
+    /** @return number of different client versions registered */
+    public int getVersionCount()
+    {
+        return byVers.size();
+    }
+
+    /**
+     * Send a message to each connection in a version range.
+     * Doesn't lock; connections added during the call might not be sent to,
+     * and those removed during the call are skipped if {@link Connection#put(String)} rejects the message.
+     * A connection whose version is changing is sent to at most once, under its new version.
+     *
+     * @param m  Message to send, from {@link soc.message.SOCMessage#toCmd()}; not null
+     * @param vmin  Minimum version, inclusive, or {@link Integer#MIN_VALUE}
+     * @param vmax  Maximum version, inclusive, or {@link Integer#MAX_VALUE}. If {@code vmin > vmax}, does nothing.
+     * @return  Number of connections sent to
+     */
+    public int putToVers(final String m, final int vmin, final int vmax)
+    {
+        if (vmin > vmax)
+            return 0;
+
+        int n = 0;
+        for (final Map.Entry<Integer, CopyOnWriteArrayList<Connection>> ent
+             : byVers.subMap(vmin, true, vmax, true).entrySet())
+        {
+            final int vers = ent.getKey().intValue();
+            for (final Connection c : ent.getValue())
+            {
+                if (c.getVersion() != vers)
+                    continue;  // version changing: will be in its new version's list
+
+                try
+                {
+                    c.put(m);
+                    ++n;
+                } catch (IllegalStateException e) {
+                    // c was removed and disconnected during this broadcast
+                }
+            }
+        }
+
+        return n;
+    }
+
+}
@@ -133,6 +133,17 @@ public class InboundMessageQueue
         }
     }
 
+    /**
+     * Get the number of messages and Runnables waiting in the queue, for server stats.
+     * Synchronizes briefly on the internal queue object.
+     * @return  Current queue depth
+     * @since 2.7.00
+     */
+    public int size()
+    {
+        return inQueue.size();
+    }
+
     /**
      * Post some Runnable code to be queued and then run on the Treater thread.
      *<P>
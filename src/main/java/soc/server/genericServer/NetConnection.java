@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas <thomas@infolab.northwestern.edu>
- * Portions of this file Copyright (C) 2007-2010,2013,2016-2017,2020-2021 Jeremy D Monin <jeremy@nand.net>
+ * Portions of this file Copyright (C) 2007-2010,2013,2016-2017,2020-2021,2026 Jeremy D Monin <jeremy@nand.net>
  * Portions of this file Copyright (C) 2012 Paul Bilnoski <paul@bilnoski.net>
  * Portions of this file Copyright (C) 2016 Alessandro D'Ottavio
  *
@@ -31,6 +31,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.net.Socket;
 import java.util.Date;
+import java.util.List;
 import java.util.Vector;
 
 
@@ -206,7 +207,7 @@ import java.util.Vector;
                 // readUTF max message size is 65535 chars, modified utf-8 format
                 final String msgStr = in.readUTF();  // blocks until next message is available
                 final SOCMessage msgObj = SOCMessage.toMsg(msgStr);
-                if (msgObj != null)
+                if ((msgObj != null) && ourServer.checkInboundMessage(msgObj, this))
                     inQueue.push(msgObj, this);
             }
         }
@@ -243,6 +244,9 @@ import java.util.Vector;
      */
     public final void put(String str)
     {
+        if (holdForBatch(str, null))
+            return;
+
         synchronized (outQueue)
         {
             // D.ebugPrintln("Adding " + str + " to outQueue for " + data);
@@ -251,6 +255,28 @@ import java.util.Vector;
         }
     }
 
+    /**
+     * Send several messages' data over the connection. Adds them all to the {@link #outQueue}
+     * at once, to be sent by the Putter thread.
+     *<P>
+     * <B>Threads:</B> Safe to call from any thread; synchronizes on internal {@code outQueue}.
+     *
+     * @param strs  Data to send, in order; each has the same length limits as {@link #put(String)}
+     * @since 2.7.00
+     */
+    @Override
+    public final void put(final List<String> strs)
+    {
+        if (holdForBatch(null, strs))
+            return;
+
+        synchronized (outQueue)
+        {
+            outQueue.addAll(strs);
+            outQueue.notify();
+        }
+    }
+
     /**
      * Data is added asynchronously (sitting in {@link #outQueue}).
      * This method is called when it's dequeued and sent over
@@ -382,6 +408,7 @@ import java.util.Vector;
 
         D.ebugPrintlnINFO("DISCONNECTING(SOFT) " + data);
         inputConnected = false;
+        flushBatch();  // queue any held output before Putter finishes
 
         if (out != null)
             try
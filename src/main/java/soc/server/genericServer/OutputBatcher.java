@@ -0,0 +1,274 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.server.genericServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import soc.message.SOCMessage;
+import soc.message.SOCPlayerElement;
+import soc.message.SOCPlayerElement.PEType;
+import soc.message.SOCPlayerElements;
+import soc.util.MetricsRegistry;
+
+/**
+ * Optional per-dispatch output batch: While the server's dispatcher thread is handling one inbound message,
+ * messages it sends to each client are held at that {@link Connection}, then {@link #coalesce(List) coalesced}
+ * and queued all at once when the dispatch returns.
+ *<P>
+ * One client action often makes the server send several small messages to a game, such as
+ * a {@link SOCPlayerElement} for each resource in a bank trade. Batching merges those into one
+ * {@link SOCPlayerElements} where the protocol allows, and wakes each connection's output thread once.
+ *<P>
+ * Only connections whose client version is at least the {@code minVersion} given to the constructor are batched;
+ * older clients are sent each message immediately, as before. Once a connection is holding a batch,
+ * messages sent to it from any thread are added to that batch so their order is kept.
+ *<P>
+ * <B>Threads:</B> {@link #begin()} is called by the dispatching thread only.
+ * Set up with {@link Server#setOutputBatcher(OutputBatcher)}.
+ *
+ * @since 2.7.00
+ */
+public class OutputBatcher
+    implements MetricsRegistry.Source
+{
+    /** {@link SOCMessage#toCmd()} prefix of {@link SOCPlayerElement}s, for {@link #coalesce(List)} */
+    private static final String PLAYERELEMENT_PREFIX = Integer.toString(SOCMessage.PLAYERELEMENT) + SOCMessage.sep;
+
+    /** Minimum client version to batch, from constructor */
+    private final int minVersion;
+
+    /** Thread currently batching its output, or {@code null} if not between {@link #begin()} and {@link #end()} */
+    private volatile Thread batchingThread;
+
+    /** Connections holding output during the current batch. Synchronized on itself. */
+    private final List<Connection> held = new ArrayList<>();
+
+    /** Stats: Batches which held any messages; messages held; messages sent after coalescing */
+    private final AtomicLong batches = new AtomicLong(), msgsHeld = new AtomicLong(), msgsSent = new AtomicLong();
+
+    /**
+     * Create a batcher. Not used until given to {@link Server#setOutputBatcher(OutputBatcher)}.
+     * @param minVersion  Minimum client version to batch output for, such as {@link SOCPlayerElements#MIN_VERSION}
+     */
+    public OutputBatcher(final int minVersion)
+    {
+        this.minVersion = minVersion;
+    }
+
+    /**
+     * Start holding output sent by the current thread, until {@link #end()}.
+     * Call before dispatching an inbound message.
+     */
+    public void begin()
+    {
+        batchingThread = Thread.currentThread();
+    }
+
+    /**
+     * Stop holding output, and flush each connection which held any during this batch.
+     * Call from {@code finally} after dispatching the message which called {@link #begin()}.
+     *<P>
+     * Can also be called from another thread to send all held output now, for example
+     * when shutting down the server: Call {@link Server#setOutputBatcher(OutputBatcher) setOutputBatcher(null)}
+     * first so no new batches are started.
+     */
+    public void end()
+    {
+        batchingThread = null;
+        synchronized (held)
+        {
+            if (held.isEmpty())
+                return;
+
+            batches.incrementAndGet();
+            for (final Connection c : held)
+            {
+                try
+                {
+                    c.flushBatch();
+                }
+                catch (RuntimeException e)
+                {
+                    // IllegalStateException if client disconnected during the dispatch; ignore
+                }
+            }
+            held.clear();
+        }
+    }
+
+    /**
+     * Should output to this connection be held right now? True if called from the thread between
+     * {@link #begin()} and {@link #end()}, and client's version is recent enough.
+     * @param c  Connection being sent to; not null
+     * @return  True if {@code c} should hold its output until {@link #end()}
+     */
+    boolean isBatching(final Connection c)
+    {
+        return (Thread.currentThread() == batchingThread) && (c.getVersion() >= minVersion);
+    }
+
+    /**
+     * A connection has started holding output in this batch; remember to flush it at {@link #end()}.
+     * @param c  Connection now holding output
+     */
+    void addHeld(final Connection c)
+    {
+        synchronized (held)
+        {
+            held.add(c);
+        }
+    }
+
+    /**
+     * Merge each run of consecutive {@link SOCPlayerElement}s with the same game, player number,
+     * and {@link SOCPlayerElement#GAIN GAIN} or {@link SOCPlayerElement#LOSE LOSE} action
+     * into a {@link SOCPlayerElements}, which clients handle the same way.
+     *<P>
+     * Elements flagged {@link SOCPlayerElement#isNews()} aren't merged, since {@link SOCPlayerElements}
+     * has no such flag. {@link SOCPlayerElement#SET SET} elements aren't merged either: Clients treat a
+     * {@code SET} of all 5 resource types during {@code ROLL_OR_CARD} as the full dice-roll resource report.
+     * Other message types are kept as-is, in order.
+     *
+     * @param cmds  Message command strings from {@link SOCMessage#toCmd()}; not null, not changed
+     * @return  {@code cmds} if nothing was merged, otherwise a new list
+     */
+    public static List<String> coalesce(final List<String> cmds)
+    {
+        final int n = cmds.size();
+        List<String> ret = null;  // created at first merge
+        List<SOCPlayerElement> run = null;  // current run of mergeable elements
+        int i = 0;
+        while (i < n)
+        {
+            final SOCPlayerElement pe = parseMergeable(cmds.get(i));
+            int j = i + 1;
+            if (pe != null)
+            {
+                final String ga = pe.getGame();
+                final int pn = pe.getPlayerNumber(), ac = pe.getAction();
+                SOCPlayerElement pnext;
+                while ((j < n) && (null != (pnext = parseMergeable(cmds.get(j))))
+                       && (pnext.getPlayerNumber() == pn) && (pnext.getAction() == ac) && ga.equals(pnext.getGame()))
+                {
+                    if (run == null)
+                        run = new ArrayList<>();
+                    if (run.isEmpty())
+                        run.add(pe);
+                    run.add(pnext);
+                    ++j;
+                }
+
+                if (j - i > 1)
+                {
+                    final PEType[] et = new PEType[j - i];
+                    final int[] amt = new int[j - i];
+                    for (int k = 0; k < et.length; ++k)
+                    {
+                        final SOCPlayerElement p = run.get(k);
+                        et[k] = PEType.valueOf(p.getElementType());
+                        amt[k] = p.getAmount();
+                    }
+                    run.clear();
+
+                    if (ret == null)
+                        ret = new ArrayList<>(cmds.subList(0, i));
+                    ret.add(new SOCPlayerElements(ga, pn, ac, et, amt).toCmd());
+                    i = j;
+                    continue;
+                }
+            }
+
+            if (ret != null)
+                ret.add(cmds.get(i));
+            i = j;
+        }
+
+        return (ret != null) ? ret : cmds;
+    }
+
+    /**
+     * Parse a command string if it's a {@link SOCPlayerElement} which {@link #coalesce(List)} can merge.
+     * @param cmd  Message command string
+     * @return  Parsed element with a known element type, GAIN or LOSE action, and no news flag;
+     *     otherwise {@code null}
+     */
+    private static SOCPlayerElement parseMergeable(final String cmd)
+    {
+        if (! cmd.startsWith(PLAYERELEMENT_PREFIX))
+            return null;
+
+        final SOCPlayerElement pe = SOCPlayerElement.parseDataStr(cmd.substring(PLAYERELEMENT_PREFIX.length()));
+        if ((pe == null) || pe.isNews() || (PEType.valueOf(pe.getElementType()) == null))
+            return null;
+
+        final int ac = pe.getAction();
+        return ((ac == SOCPlayerElement.GAIN) || (ac == SOCPlayerElement.LOSE)) ? pe : null;
+    }
+
+    /**
+     * Update stats after a connection flushes its batch.
+     * @param nHeld  Number of messages held
+     * @param nSent  Number sent after {@link #coalesce(List)}
+     */
+    void flushed(final int nHeld, final int nSent)
+    {
+        msgsHeld.addAndGet(nHeld);
+        msgsSent.addAndGet(nSent);
+    }
+
+    /** @return number of batches which held any messages */
+    public long getBatchCount()
+    {
+        return batches.get();
+    }
+
+    /** @return number of messages held in batches */
+    public long getMessagesHeld()
+    {
+        return msgsHeld.get();
+    }
+
+    /** @return number of messages sent from batches, after coalescing */
+    public long getMessagesSent()
+    {
+        return msgsSent.get();
+    }
+
+    /**
+     * Stats for {@code *STATS*} command: {@code "batches 12, messages 80 sent as 64"}
+     * @return stats summary string
+     */
+    public String getStatsFormatted()
+    {
+        return "batches " + batches.get() + ", messages " + msgsHeld.get() + " sent as " + msgsSent.get()
+            + " (client version " + minVersion + " and newer)";
+    }
+
+    public void addMetrics(final MetricsRegistry.Snapshot s)
+    {
+        s.counter("jsettlers_output_batches_total", "Dispatches whose output was batched", batches.get());
+        s.counter("jsettlers_output_batch_messages_held_total", "Messages held in output batches", msgsHeld.get());
+        s.counter("jsettlers_output_batch_messages_sent_total", "Messages sent from output batches after coalescing",
+            msgsSent.get());
+    }
+
+}
@@ -1,7 +1,7 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
  * Copyright (C) 2003  Robert S. Thomas <thomas@infolab.northwestern.edu>
- * Portions of this file Copyright (C) 2007-2018,2020-2025 Jeremy D Monin <jeremy@nand.net>
+ * Portions of this file Copyright (C) 2007-2018,2020-2026 Jeremy D Monin <jeremy@nand.net>
  * Portions of this file Copyright (C) 2012 Paul Bilnoski <paul@bilnoski.net> - parameterize types, removeConnection bugfix
  * Portions of this file Copyright (C) 2016 Alessandro D'Ottavio
  *
@@ -41,6 +41,7 @@ import soc.debug.D; // JM
 import soc.message.SOCMessage;
 import soc.message.SOCMessageFromUnauthClient;
 import soc.server.SOCServer;
+import soc.util.FlightRecorderEvents;
 
 
 /** a general purpose server.
@@ -188,6 +189,22 @@ public abstract class Server extends Thread implements Serializable, Cloneable
      */
     private HashMap<String, String> connNames = new HashMap<String, String>();
 
+    /**
+     * All current connections, named and unnamed, by client version,
+     * for {@link #broadcast(SOCMessage)} and {@link #broadcastToVers(SOCMessage, int, int)} without locking.
+     *<P>
+     * <B>Locks:</B> Adding/removing/versioning of connections synchronizes on {@link #unnamedConns}.
+     * @since 2.7.00
+     */
+    private final ConnectionsByVersion broadcastConns = new ConnectionsByVersion();
+
+    /**
+     * Optional per-dispatch output batcher, or {@code null} if not used.
+     * @see #setOutputBatcher(OutputBatcher)
+     * @since 2.7.00
+     */
+    private volatile OutputBatcher outputBatcher;
+
     /**
      * The queue of messages received from all clients to dispatch, and/or Runnable tasks to run, in the
      * {@code Treater} thread which calls {@link Server.InboundMessageDispatcher#dispatch(SOCMessage, Connection)}.
@@ -532,6 +549,27 @@ public abstract class Server extends Thread implements Serializable, Cloneable
         return up;
     }
 
+    /**
+     * Get this server's per-dispatch output batcher, if any.
+     * @return  the batcher from {@link #setOutputBatcher(OutputBatcher)}, or {@code null} if none
+     * @since 2.7.00
+     */
+    public final OutputBatcher getOutputBatcher()
+    {
+        return outputBatcher;
+    }
+
+    /**
+     * Set or clear this server's per-dispatch output batcher. The inbound message dispatcher
+     * should call its {@link OutputBatcher#begin()} and {@link OutputBatcher#end()} around each message.
+     * @param ob  Batcher to use, or {@code null} to send all output immediately
+     * @since 2.7.00
+     */
+    public void setOutputBatcher(final OutputBatcher ob)
+    {
+        outputBatcher = ob;
+    }
+
     /**
      * Run method for Server:
      * First, calls the {@link #serverUp()} callback.
@@ -635,6 +673,24 @@ public abstract class Server extends Thread implements Serializable, Cloneable
         return false;
     }
 
+    /**
+     * Callback to check each inbound message from a network client after its first,
+     * before it's queued for {@link Server.InboundMessageDispatcher#dispatch(SOCMessage, Connection)},
+     * for example to limit the rate of messages from each client.
+     * This default implementation always returns true; override it in your app if needed.
+     *<P>
+     * Like {@link #processFirstCommand(SOCMessage, Connection)}, runs in the connection's own thread.
+     *
+     * @param mes  Parsed message from the client; not null
+     * @param con  Connection (client) sending this message
+     * @return true to queue the message, false to drop it
+     * @since 2.7.00
+     */
+    public boolean checkInboundMessage(SOCMessage mes, Connection con)
+    {
+        return true;
+    }
+
     /**
      * Placeholder (callback) for doing things when server comes up, after the server socket
      * is bound and listening, in the main thread before handling any incoming connections.
@@ -734,6 +790,10 @@ public abstract class Server extends Thread implements Serializable, Cloneable
 
         conns.clear();
         connNames.clear();
+        synchronized (unnamedConns)
+        {
+            broadcastConns.clear();
+        }
     }
 
     /**
@@ -763,6 +823,7 @@ public abstract class Server extends Thread implements Serializable, Cloneable
                 if (null == connNameConn)
                 {
                     // Was not a member
+                    broadcastConns.remove(c, c.getVersion());  // if somehow still there
                     return;
                 }
                 if (c == connNameConn)
@@ -781,6 +842,7 @@ public abstract class Server extends Thread implements Serializable, Cloneable
 
             --numberCurrentConnections;
             clientVersionRem(c.getVersion());  // One less of the cli's version
+            broadcastConns.remove(c, c.getVersion());
             c.setVersionTracking(false);
         }
 
@@ -862,6 +924,7 @@ public abstract class Server extends Thread implements Serializable, Cloneable
                     }
 
                     clientVersionAdd(c.getVersion());  // Count one more client with that version
+                    broadcastConns.add(c);
                     numberCurrentConnections++;
                     c.setVersionTracking(true);
                 }
@@ -1033,6 +1096,25 @@ public abstract class Server extends Thread implements Serializable, Cloneable
         }
     }
 
+    /**
+     * A tracked connection's version has changed: Update {@link #cliVersionsConnected}
+     * and the broadcast registry. Called from {@link Connection#setVersion(int, boolean)}.
+     *<P>
+     * <b>Locks:</b> Caller should synchronize on {@link #unnamedConns}.
+     *
+     * @param c  Connection, whose {@link Connection#getVersion()} is now the new version
+     * @param prevVers  Its previous version
+     * @see #clientVersionAdd(int)
+     * @see #clientVersionRem(int)
+     * @since 2.7.00
+     */
+    /*package*/ void clientVersionChanged(final Connection c, final int prevVers)
+    {
+        clientVersionRem(prevVers);
+        clientVersionAdd(c.getVersion());
+        broadcastConns.versionChanged(c, prevVers);
+    }
+
     /**
      * @return the version number of the oldest-version client
      *         that is currently connected
@@ -1090,7 +1172,7 @@ public abstract class Server extends Thread implements Serializable, Cloneable
 
         TreeMap<Integer, ConnVersionCounter> cvmap = new TreeMap<Integer, ConnVersionCounter>();
 
-        // same enums as broadcast()
+        // named, then unnamed connections
 
         for (Enumeration<Connection> e = getConnections(); e.hasMoreElements();)
         {
@@ -1247,41 +1329,43 @@ public abstract class Server extends Thread implements Serializable, Cloneable
      * Nearly all callers should instead use {@link #broadcast(SOCMessage)}.
      *
      * @param m SOCMessage string, generated by {@link soc.message.SOCMessage#toCmd()}
+     * @return  Number of clients sent to
      * @see #broadcast(SOCMessage)
      * @see #broadcastToVers(String, int, int)
      * @throws IllegalArgumentException if {@code m} is {@code null}
      */
-    private synchronized void broadcast(final String m)
+    private int broadcast(final String m)
         throws IllegalArgumentException
     {
         if (m == null)
             throw new IllegalArgumentException("m null");
 
-        for (Enumeration<Connection> e = getConnections(); e.hasMoreElements();)
-        {
-            e.nextElement().put(m);
-        }
-        for (Enumeration<Connection> e = unnamedConns.elements(); e.hasMoreElements();)
-        {
-            e.nextElement().put(m);
-        }
+        return broadcastConns.putToVers(m, Integer.MIN_VALUE, Integer.MAX_VALUE);
     }
 
     /**
      * Broadcast a {@link SOCMessage} to all connected clients, named and unnamed.
+     *<P>
+     * Before v2.7.00 this method was {@code synchronized} on the server while it iterated the connections.
+     * It now iterates a copy-on-write {@link ConnectionsByVersion} without locking, so it doesn't block or wait for
+     * clients connecting or disconnecting. The message is encoded once, not once per client.
      *
      * @param m  Message to send. Calls {@link SOCMessage#toCmd() m.toCmd()}
      * @see #broadcastToVers(SOCMessage, int, int)
      * @throws IllegalArgumentException if {@code m} is {@code null}
      * @since 2.1.00
      */
-    public synchronized void broadcast(final SOCMessage m)
+    public void broadcast(final SOCMessage m)
         throws IllegalArgumentException
     {
         if (m == null)
             throw new IllegalArgumentException("m null");
 
-        broadcast(m.toCmd());
+        final Object jfr = FlightRecorderEvents.beginBroadcast();
+        final String mesCmd = m.toCmd();
+        final int n = broadcast(mesCmd);
+        if (jfr != null)
+            FlightRecorderEvents.endBroadcast(jfr, null, m.getType(), n, n * (long) mesCmd.length());
     }
 
     /**
@@ -1298,33 +1382,18 @@ public abstract class Server extends Thread implements Serializable, Cloneable
      * @param vmin Minimum version, as returned by {@link Connection#getVersion()},
      *             or {@link Integer#MIN_VALUE}
      * @param vmax Maximum version, or {@link Integer#MAX_VALUE}
+     * @return  Number of clients sent to
      * @see #broadcast(SOCMessage)
      * @throws IllegalArgumentException if {@code m} is {@code null}
      * @since 1.1.06
      */
-    private synchronized void broadcastToVers(final String m, final int vmin, final int vmax)
+    private int broadcastToVers(final String m, final int vmin, final int vmax)
         throws IllegalArgumentException
     {
         if (m == null)
             throw new IllegalArgumentException("m null");
 
-        if (vmin > vmax)
-            return;
-
-        for (Enumeration<Connection> e = getConnections(); e.hasMoreElements();)
-        {
-            Connection c = e.nextElement();
-            int cvers = c.getVersion();
-            if ((cvers >= vmin) && (cvers <= vmax))
-                c.put(m);
-        }
-        for (Enumeration<Connection> e = unnamedConns.elements(); e.hasMoreElements();)
-        {
-            Connection c = e.nextElement();
-            int cvers = c.getVersion();
-            if ((cvers >= vmin) && (cvers <= vmax))
-                c.put(m);
-        }
+        return broadcastConns.putToVers(m, vmin, vmax);
     }
 
     /**
@@ -1334,6 +1403,9 @@ public abstract class Server extends Thread implements Serializable, Cloneable
      * The range is inclusive: Clients of version <tt>vmin</tt> and newer,
      * up to and including <tt>vmax</tt>, receive the broadcast.
      * If vmin > vmax, do nothing.
+     *<P>
+     * Before v2.7.00 this method was {@code synchronized} on the server while it iterated all connections.
+     * It now looks only at connections in the version range, without locking: See {@link #broadcast(SOCMessage)}.
      *
      * @param m  Message to send. Calls {@link SOCMessage#toCmd() m.toCmd()}
      * @param vmin Minimum version, as returned by {@link Connection#getVersion()},
@@ -1344,13 +1416,17 @@ public abstract class Server extends Thread implements Serializable, Cloneable
      * @see #broadcast(SOCMessage)
      * @since 2.1.00
      */
-    public synchronized void broadcastToVers(final SOCMessage m, final int vmin, final int vmax)
+    public void broadcastToVers(final SOCMessage m, final int vmin, final int vmax)
         throws IllegalArgumentException
     {
         if (m == null)
             throw new IllegalArgumentException("m null");
 
-        broadcastToVers(m.toCmd(), vmin, vmax);
+        final Object jfr = FlightRecorderEvents.beginBroadcast();
+        final String mesCmd = m.toCmd();
+        final int n = broadcastToVers(mesCmd, vmin, vmax);
+        if (jfr != null)
+            FlightRecorderEvents.endBroadcast(jfr, null, m.getType(), n, n * (long) mesCmd.length());
     }
 
     /**
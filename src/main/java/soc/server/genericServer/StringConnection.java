@@ -1,6 +1,6 @@
 /**
  * Local (StringConnection) network system.
- * This file Copyright (C) 2007-2010,2012-2013,2016-2017,2020,2022 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2007-2010,2012-2013,2016-2017,2020,2022,2026 Jeremy D Monin <jeremy@nand.net>
  * Portions of this file Copyright (C) 2012 Paul Bilnoski <paul@bilnoski.net>
  * Portions of this file Copyright (C) 2016 Alessandro D'Ottavio
  *
@@ -228,6 +228,8 @@ public class StringConnection
         }
         if (out_setEOF)
             return;
+        if (holdForBatch(dat, null))
+            return;
 
         synchronized (out)
         {
@@ -272,6 +274,8 @@ public class StringConnection
         // disconnect(), and it's OK to do this part twice.
 
         D.ebugPrintlnINFO("DISCONNECTING(SOFT) " + data);
+        if (accepted)
+            flushBatch();  // send any held output before EOF
         synchronized (in)
         {
             in.clear();
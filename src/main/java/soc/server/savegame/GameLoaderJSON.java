@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
@@ -41,6 +42,7 @@ import soc.game.*;
 import soc.message.SOCGameElements.GEType;
 import soc.message.SOCPlayerElement.PEType;
 import soc.server.SOCServer;
+import soc.util.FlightRecorderEvents;
 
 /**
  * Load a game and board's current state from a JSON file into a {@link SavedGameModel}.
@@ -112,6 +114,7 @@ public class GameLoaderJSON
 
         initGson();
 
+        final Object jfr = FlightRecorderEvents.beginSavegameIO();
         final SavedGameModel sgm;
         try
             (final FileInputStream fis = new FileInputStream(loadFrom);
@@ -125,12 +128,59 @@ public class GameLoaderJSON
             wrap.initCause(e);
             throw wrap;
         }
+        if (jfr != null)
+            FlightRecorderEvents.endSavegameIO(jfr, true, loadFrom.getName(), loadFrom.length());
 
         sgm.createLoadedGame(srv, requestingCliVers);
 
         return sgm;
     }
 
+    /**
+     * Load a game from JSON text read from a reader, such as one saved by
+     * {@link GameSaverJSON#saveGame(SOCGame, java.io.Writer, SOCServer)}.
+     * Otherwise same as {@link #loadGame(File, SOCServer, int)} with {@code requestingCliVers} 0.
+     *
+     * @param reader  Reader to load from; not closed here
+     * @param srv  Server reference to check for bot name collisions; not {@code null}
+     * @return  loaded game model, whose game state is {@link SOCGame#LOADING}
+     * @throws NoSuchElementException if model schema version is too new; see {@link #loadGame(File, SOCServer, int)}
+     * @throws SOCGameOptionVersionException if game's min version is too new
+     * @throws SavedGameModel.UnsupportedSGMOperationException if model has an option or feature not yet supported
+     * @throws StringIndexOutOfBoundsException  if a {@link JsonSyntaxException} occurs while loading, this wraps it
+     * @throws IOException  if a problem occurs while loading, including a {@link JsonIOException}
+     * @throws IllegalArgumentException if there's a problem while creating the loaded game, or {@code srv} is null
+     * @since 2.7.00
+     */
+    public static SavedGameModel loadGame(final Reader reader, final SOCServer srv)
+        throws NoSuchElementException, SOCGameOptionVersionException,
+            SavedGameModel.UnsupportedSGMOperationException, StringIndexOutOfBoundsException,
+            IOException, IllegalArgumentException
+    {
+        if (srv == null)
+            throw new IllegalArgumentException("srv");
+
+        initGson();
+
+        final SavedGameModel sgm;
+        try
+        {
+            sgm = gsonb.create().fromJson(reader, SavedGameModel.class);
+        } catch (JsonIOException e) {
+            throw new IOException("JSON: " + e.getMessage(), e);
+        } catch (JsonSyntaxException e) {
+            StringIndexOutOfBoundsException wrap = new StringIndexOutOfBoundsException("JSON: " + e.getMessage());
+            wrap.initCause(e);
+            throw wrap;
+        }
+        if (sgm == null)
+            throw new IOException("JSON: empty");
+
+        sgm.createLoadedGame(srv, 0);
+
+        return sgm;
+    }
+
     /**
      * Initialize {@link #gsonb} once when needed, including registering some deserializers.
      * Assumes gson jar is on classpath, and caller has checked {@link soc.server.SOCServer#savegameInitFailed}.
@@ -1,6 +1,6 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
- * This file Copyright (C) 2020 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2020,2026 Jeremy D Monin <jeremy@nand.net>
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -23,12 +23,15 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 
 import soc.game.SOCGame;
 import soc.server.SOCServer;
+import soc.util.FlightRecorderEvents;
 
 /**
  * Save a game and its board's current state to a JSON file.
@@ -75,24 +78,68 @@ public class GameSaverJSON
             throw new IllegalArgumentException("Not found as directory: " + saveDir.getPath());
 
         final SavedGameModel sgm = new SavedGameModel(ga, srv);
+        final Gson gson = createGson(true);
 
-        final Gson gson;
+        final Object jfr = FlightRecorderEvents.beginSavegameIO();
+        final File saveFile = new File(saveDir, saveFilename);
+        try(OutputStreamWriter writer = new OutputStreamWriter
+               (new FileOutputStream(saveFile), "UTF-8"))
+        {
+            gson.toJson(sgm, writer);
+        }
+        if (jfr != null)
+            FlightRecorderEvents.endSavegameIO(jfr, false, saveFilename, saveFile.length());
+    }
+
+    /**
+     * Save this game as compact JSON (not pretty-printed) to a writer,
+     * for example to hold an idle game's state in memory.
+     * Same requirements as {@link #saveGame(SOCGame, File, String, SOCServer)}.
+     *
+     * @param ga  Game to save; not null
+     * @param writer  Writer to save to; not closed here
+     * @param srv  Server, for game/player info lookups; not null
+     * @throws SavedGameModel.UnsupportedSGMOperationException  if game has an option or feature not yet supported
+     *     by {@link SavedGameModel}; see {@link SavedGameModel#checkCanSave(SOCGame)} for details.
+     * @throws IllegalStateException if game state &lt; {@link SOCGame#ROLL_OR_CARD}
+     * @throws IOException  if a problem occurs while saving
+     * @see GameLoaderJSON#loadGame(java.io.Reader, SOCServer)
+     * @since 2.7.00
+     */
+    public static void saveGame(final SOCGame ga, final Writer writer, final SOCServer srv)
+        throws SavedGameModel.UnsupportedSGMOperationException, IllegalStateException, IOException
+    {
+        final SavedGameModel sgm = new SavedGameModel(ga, srv);
+        try
+        {
+            createGson(false).toJson(sgm, writer);
+        } catch (JsonIOException e) {
+            throw new IOException("JSON: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create a Gson instance for saving a {@link SavedGameModel}.
+     * @param prettyPrint  True to pretty-print for human readers
+     * @return  Gson with the model's adapters registered
+     * @throws IOException  if Gson class can't be loaded
+     * @since 2.7.00
+     */
+    private static Gson createGson(final boolean prettyPrint)
+        throws IOException
+    {
         try
         {
             final GsonBuilder gb = new GsonBuilder();
             SavedGameModel.initGsonRegisterAdapters(gb);
-            gson = gb.setPrettyPrinting().create();
+            if (prettyPrint)
+                gb.setPrettyPrinting();
+            return gb.create();
         }
         catch (Throwable th)
         {
             throw new IOException("failed to load Gson class: " + th, th);
         }
-
-        try(OutputStreamWriter writer = new OutputStreamWriter
-               (new FileOutputStream(new File(saveDir, saveFilename)), "UTF-8"))
-        {
-            gson.toJson(sgm, writer);
-        }
     }
 
 }
@@ -914,7 +914,8 @@ public class SavedGameModel
 
         /**
          * True if {@link #isRobot} and bot's {@link SOCRobotParameters#getStrategyType()}
-         * is {@link SOCRobotDM#SMART_STRATEGY}
+         * is {@link SOCRobotDM#SMART_STRATEGY} or (v2.7.00 and newer) {@link SOCRobotDM#ROLLOUT_STRATEGY},
+         * which is based on the smart strategy
          */
         public boolean isRobotWithSmartStrategy;
 
@@ -1050,8 +1051,12 @@ public class SavedGameModel
             if (isRobot)
             {
                 SOCRobotParameters params = srv.getRobotParameters(name);
-                if ((params != null) && (params.getStrategyType() == SOCRobotDM.SMART_STRATEGY))
-                    isRobotWithSmartStrategy = true;
+                if (params != null)
+                {
+                    final int strat = params.getStrategyType();
+                    if ((strat == SOCRobotDM.SMART_STRATEGY) || (strat == SOCRobotDM.ROLLOUT_STRATEGY))
+                        isRobotWithSmartStrategy = true;
+                }
 
                 if (! isBuiltInRobot)
                 {
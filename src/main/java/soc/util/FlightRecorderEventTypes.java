@@ -0,0 +1,280 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Java Flight Recorder event types for {@link FlightRecorderEvents}, and helpers to begin and end them.
+ * Must be used only through that class.
+ *<P>
+ * So that JSettlers can be built for and run on any Java 8 JRE, this class doesn't refer to
+ * any {@code jdk.jfr} types at compile time: {@link #registerAll()} looks them up by name and defines
+ * the event types at runtime with JFR's {@code jdk.jfr.EventFactory}. An event object is a
+ * {@code jdk.jfr.Event} whose fields are set by index, in the order they're declared here.
+ * @since 2.7.00
+ */
+/*package*/ final class FlightRecorderEventTypes
+{
+    /** Event type indexes into {@link #factories} */
+    private static final int DISPATCH = 0, BROADCAST = 1, ROBOT_PLAN = 2, MAKE_BOARD = 3, SAVEGAME_IO = 4;
+
+    /** Each event type's {@code jdk.jfr.EventFactory}, from {@link #registerAll()} */
+    private static Object[] factories;
+
+    /** {@code jdk.jfr.EventFactory.newEvent()} */
+    private static Method mNewEvent;
+
+    /** {@code jdk.jfr.Event} methods */
+    private static Method mIsEnabled, mBegin, mEnd, mShouldCommit, mCommit, mSet;
+
+    private FlightRecorderEventTypes() {}
+
+    /**
+     * Define and register our event types, so they can be configured in a recording before the first is committed.
+     * Does nothing if already registered.
+     * @throws ReflectiveOperationException if this JVM doesn't have JFR's {@code jdk.jfr.EventFactory}
+     */
+    static synchronized void registerAll()
+        throws ReflectiveOperationException
+    {
+        if (factories != null)
+            return;
+
+        final Class<?> evClass = Class.forName("jdk.jfr.Event"),
+            efClass = Class.forName("jdk.jfr.EventFactory");
+        final Method mCreate = efClass.getMethod("create", List.class, List.class),
+            mRegister = efClass.getMethod("register");
+        final JFRTypeBuilder b = new JFRTypeBuilder();
+
+        final Object[] facs = new Object[5];
+        facs[DISPATCH] = mCreate.invoke(null,
+            b.eventAnnotations("soc.MessageDispatch", "Message Dispatch",
+                "Server handling of one inbound message", "Server", false),
+            Arrays.asList(b.field(int.class, "msgType", "Message Type", false),
+                b.field(String.class, "msgClass", "Message Class", false),
+                b.field(String.class, "game", "Game", false),
+                b.field(String.class, "handler", "Handler", false)));
+        facs[BROADCAST] = mCreate.invoke(null,
+            b.eventAnnotations("soc.Broadcast", "Message Fan-out",
+                "Server sending one message to a game's members or all clients", "Server", false),
+            Arrays.asList(b.field(String.class, "game", "Game", false),
+                b.field(int.class, "msgType", "Message Type", false),
+                b.field(int.class, "recipients", "Recipients", false),
+                b.field(long.class, "bytes", "Bytes", true)));
+        facs[ROBOT_PLAN] = mCreate.invoke(null,
+            b.eventAnnotations("soc.RobotPlan", "Robot Building Plan",
+                "Robot decision maker planning what to build next", "Robot", false),
+            Arrays.asList(b.field(String.class, "robot", "Robot", false),
+                b.field(String.class, "game", "Game", false),
+                b.field(int.class, "strategy", "Strategy", false),
+                b.field(int.class, "planSize", "Plan Size", false)));
+        facs[MAKE_BOARD] = mCreate.invoke(null,
+            b.eventAnnotations("soc.MakeBoard", "Make New Board",
+                "Server generating a new board layout when a game starts", "Server", true),
+            Arrays.asList(b.field(String.class, "game", "Game", false),
+                b.field(String.class, "boardClass", "Board Class", false)));
+        facs[SAVEGAME_IO] = mCreate.invoke(null,
+            b.eventAnnotations("soc.SavegameIO", "Savegame I/O",
+                "Server writing or reading a savegame file", "Server", true),
+            Arrays.asList(b.field(boolean.class, "isLoad", "Is Load", false),
+                b.field(String.class, "filename", "Filename", false),
+                b.field(long.class, "bytes", "Bytes", true)));
+
+        mNewEvent = efClass.getMethod("newEvent");
+        mIsEnabled = evClass.getMethod("isEnabled");
+        mBegin = evClass.getMethod("begin");
+        mEnd = evClass.getMethod("end");
+        mShouldCommit = evClass.getMethod("shouldCommit");
+        mCommit = evClass.getMethod("commit");
+        mSet = evClass.getMethod("set", int.class, Object.class);
+
+        for (final Object fac : facs)
+            mRegister.invoke(fac);
+        factories = facs;
+    }
+
+    /**
+     * Create a new event of this type, and begin timing it if it's enabled in a recording.
+     * @param etype  Event type, like {@link #DISPATCH}
+     * @return the new event, or {@code null} if not enabled or a reflection problem occurred
+     */
+    private static Object begin(final int etype)
+    {
+        try
+        {
+            final Object ev = mNewEvent.invoke(factories[etype]);
+            if (! (Boolean) mIsEnabled.invoke(ev))
+                return null;
+
+            mBegin.invoke(ev);
+            return ev;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * End timing an event, and if it should be committed, set its field values and commit it.
+     * @param ev  Event from {@link #begin(int)}; not null
+     * @param values  Field values, in the order declared in {@link #registerAll()}
+     */
+    private static void end(final Object ev, final Object... values)
+    {
+        try
+        {
+            mEnd.invoke(ev);
+            if (! (Boolean) mShouldCommit.invoke(ev))
+                return;
+
+            for (int i = 0; i < values.length; ++i)
+                mSet.invoke(ev, i, values[i]);
+            mCommit.invoke(ev);
+        } catch (ReflectiveOperationException e) {}
+    }
+
+    static Object beginDispatch()
+    {
+        return begin(DISPATCH);
+    }
+
+    static void endDispatch
+        (final Object ev, final int msgType, final String msgClass, final String game, final String handler)
+    {
+        end(ev, msgType, msgClass, game, handler);
+    }
+
+    static Object beginBroadcast()
+    {
+        return begin(BROADCAST);
+    }
+
+    static void endBroadcast
+        (final Object ev, final String game, final int msgType, final int recipients, final long bytes)
+    {
+        end(ev, game, msgType, recipients, bytes);
+    }
+
+    static Object beginRobotPlan()
+    {
+        return begin(ROBOT_PLAN);
+    }
+
+    static void endRobotPlan
+        (final Object ev, final String robot, final String game, final int strategy, final int planSize)
+    {
+        end(ev, robot, game, strategy, planSize);
+    }
+
+    static Object beginMakeBoard()
+    {
+        return begin(MAKE_BOARD);
+    }
+
+    static void endMakeBoard(final Object ev, final String game, final String boardClass)
+    {
+        end(ev, game, boardClass);
+    }
+
+    static Object beginSavegameIO()
+    {
+        return begin(SAVEGAME_IO);
+    }
+
+    static void endSavegameIO(final Object ev, final boolean isLoad, final String filename, final long bytes)
+    {
+        end(ev, isLoad, filename, bytes);
+    }
+
+    /**
+     * Builds JFR annotation elements and field descriptors by reflection,
+     * for {@code jdk.jfr.EventFactory.create(List, List)}.
+     */
+    private static final class JFRTypeBuilder
+    {
+        /** {@code jdk.jfr.AnnotationElement(Class, Object)} */
+        private final Constructor<?> aeCons;
+
+        /** {@code jdk.jfr.ValueDescriptor(Class, String, List)} */
+        private final Constructor<?> vdCons;
+
+        /** {@code jdk.jfr} annotation classes */
+        private final Class<?> aName, aLabel, aDescription, aCategory, aStackTrace, aDataAmount;
+
+        JFRTypeBuilder()
+            throws ReflectiveOperationException
+        {
+            aeCons = Class.forName("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+            vdCons = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class, List.class);
+            aName = Class.forName("jdk.jfr.Name");
+            aLabel = Class.forName("jdk.jfr.Label");
+            aDescription = Class.forName("jdk.jfr.Description");
+            aCategory = Class.forName("jdk.jfr.Category");
+            aStackTrace = Class.forName("jdk.jfr.StackTrace");
+            aDataAmount = Class.forName("jdk.jfr.DataAmount");
+        }
+
+        /**
+         * Annotations for an event type, in category "JSettlers".
+         * @param name  Event name, like {@code "soc.MakeBoard"}
+         * @param label  Human-readable label
+         * @param desc  Description
+         * @param subcategory  Category within "JSettlers", like {@code "Server"}
+         * @param withStackTrace  True if event should record a stack trace
+         */
+        List<Object> eventAnnotations
+            (final String name, final String label, final String desc, final String subcategory,
+             final boolean withStackTrace)
+            throws ReflectiveOperationException
+        {
+            final List<Object> ret = new ArrayList<>();
+            ret.add(aeCons.newInstance(aName, name));
+            ret.add(aeCons.newInstance(aLabel, label));
+            ret.add(aeCons.newInstance(aDescription, desc));
+            ret.add(aeCons.newInstance(aCategory, new String[]{"JSettlers", subcategory}));
+            ret.add(aeCons.newInstance(aStackTrace, withStackTrace));
+
+            return ret;
+        }
+
+        /**
+         * Descriptor for one field of an event type.
+         * @param type  Field type, like {@code int.class} or {@code String.class}
+         * @param name  Field name
+         * @param label  Human-readable label
+         * @param isBytes  True if field is an amount of bytes
+         */
+        Object field(final Class<?> type, final String name, final String label, final boolean isBytes)
+            throws ReflectiveOperationException
+        {
+            final List<Object> annos = new ArrayList<>();
+            annos.add(aeCons.newInstance(aLabel, label));
+            if (isBytes)
+                annos.add(aeCons.newInstance(aDataAmount, "BYTES"));
+
+            return vdCons.newInstance(type, name, annos);
+        }
+    }
+
+}
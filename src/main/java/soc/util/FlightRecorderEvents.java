@@ -0,0 +1,219 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+/**
+ * Optional Java Flight Recorder (JFR) events for server and robot hot paths, to help correlate
+ * slow turns with GC, lock contention, and I/O in one recording:
+ *<UL>
+ * <LI> Inbound message dispatch: Message type, game, handler
+ * <LI> Message fan-out to a game's members or all clients: Recipients, bytes
+ * <LI> Robot building plans ({@code SOCRobotDM.planStuff}): Robot, game, strategy
+ * <LI> New board layout ({@code makeNewBoard}): Game, board class
+ * <LI> Savegame file writes and reads: Filename, bytes
+ *</UL>
+ * Each event also has JFR's usual start time, duration, and thread.
+ * Events are in JFR category "JSettlers", named {@code soc.*}.
+ *<P>
+ * Events are off by default. To turn them on, set {@link #PROP_JSETTLERS_DEBUG_JFR} as a java system property,
+ * or call {@link #setEnabled(boolean)}: The server does so if that property is set in its config.
+ * Then start a recording as usual, for example with {@code jcmd <pid> JFR.start}.
+ * When off, each instrumented call costs only a check of a static boolean.
+ *<P>
+ * Java 8 compatibility: Neither this class nor {@link FlightRecorderEventTypes} refers to any
+ * {@code jdk.jfr} types at compile time, so JSettlers still builds with {@code --release 8}
+ * and runs on any Java 8 JRE. The event types are defined at runtime by reflection,
+ * once {@link #setEnabled(boolean)} has found JFR in the running JVM (JDK 11+, or 8u262+).
+ *<P>
+ * Usage pattern, where {@code begin} returns {@code null} unless enabled and recording:
+ *<pre>
+ * final Object jfr = FlightRecorderEvents.beginDispatch();
+ * ... do the work ...
+ * if (jfr != null)
+ *     FlightRecorderEvents.endDispatch(jfr, mes.getType(), ...);
+ *</pre>
+ *
+ * @since 2.7.00
+ */
+public final class FlightRecorderEvents
+{
+    /**
+     * Boolean property {@code jsettlers.debug.jfr} to turn on these JFR events.
+     * Can be a java system property ({@code -Djsettlers.debug.jfr=Y}) for server or robot client,
+     * or a server config property.
+     */
+    public static final String PROP_JSETTLERS_DEBUG_JFR = "jsettlers.debug.jfr";
+
+    /** Are events enabled? Set only by {@link #setEnabled(boolean)}. */
+    private static volatile boolean enabled;
+
+    static
+    {
+        final String pval = System.getProperty(PROP_JSETTLERS_DEBUG_JFR);
+        if ((pval != null) && (pval.equalsIgnoreCase("Y") || pval.equalsIgnoreCase("true") || pval.equals("1")))
+            setEnabled(true);
+    }
+
+    private FlightRecorderEvents() {}
+
+    /**
+     * Turn JFR events on or off.
+     * @param wantEnabled  True to turn on, false to turn off
+     * @return true if now enabled; false if turned off or this JVM doesn't have JFR
+     */
+    public static synchronized boolean setEnabled(final boolean wantEnabled)
+    {
+        if (wantEnabled && ! enabled)
+        {
+            try
+            {
+                FlightRecorderEventTypes.registerAll();
+            } catch (Throwable th) {
+                System.err.println("Warning: Java Flight Recorder (JFR) not available, events not enabled: " + th);
+                return false;
+            }
+        }
+
+        enabled = wantEnabled;
+        return wantEnabled;
+    }
+
+    /** @return true if events are enabled by {@link #setEnabled(boolean)} */
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Begin timing an inbound message dispatch.
+     * @return  Event to pass to {@link #endDispatch(Object, int, String, String, String)},
+     *     or {@code null} if not enabled or not recording this event type
+     */
+    public static Object beginDispatch()
+    {
+        return (enabled) ? FlightRecorderEventTypes.beginDispatch() : null;
+    }
+
+    /**
+     * End and commit an inbound message dispatch event.
+     * @param ev  Event from {@link #beginDispatch()}; not null
+     * @param msgType  Message type from {@code SOCMessage.getType()}
+     * @param msgClass  Message class name, like {@code "SOCPutPiece"}
+     * @param game  Game name, or {@code null} if not a game message
+     * @param handler  Handler class name, or {@code null} if not handled
+     */
+    public static void endDispatch
+        (final Object ev, final int msgType, final String msgClass, final String game, final String handler)
+    {
+        FlightRecorderEventTypes.endDispatch(ev, msgType, msgClass, game, handler);
+    }
+
+    /**
+     * Begin timing a message fan-out to many clients.
+     * @return  Event to pass to {@link #endBroadcast(Object, String, int, int, long)},
+     *     or {@code null} if not enabled or not recording this event type
+     */
+    public static Object beginBroadcast()
+    {
+        return (enabled) ? FlightRecorderEventTypes.beginBroadcast() : null;
+    }
+
+    /**
+     * End and commit a message fan-out event.
+     * @param ev  Event from {@link #beginBroadcast()}; not null
+     * @param game  Game name, or {@code null} if sent to all clients
+     * @param msgType  Message type from {@code SOCMessage.getType()}
+     * @param recipients  Number of clients sent to
+     * @param bytes  Total characters queued to all recipients
+     */
+    public static void endBroadcast
+        (final Object ev, final String game, final int msgType, final int recipients, final long bytes)
+    {
+        FlightRecorderEventTypes.endBroadcast(ev, game, msgType, recipients, bytes);
+    }
+
+    /**
+     * Begin timing a robot's building plan.
+     * @return  Event to pass to {@link #endRobotPlan(Object, String, String, int, int)},
+     *     or {@code null} if not enabled or not recording this event type
+     */
+    public static Object beginRobotPlan()
+    {
+        return (enabled) ? FlightRecorderEventTypes.beginRobotPlan() : null;
+    }
+
+    /**
+     * End and commit a robot building plan event.
+     * @param ev  Event from {@link #beginRobotPlan()}; not null
+     * @param robot  Robot player name
+     * @param game  Game name
+     * @param strategy  Strategy constant, like {@code SOCRobotDM.SMART_STRATEGY}
+     * @param planSize  Number of pieces in resulting plan
+     */
+    public static void endRobotPlan
+        (final Object ev, final String robot, final String game, final int strategy, final int planSize)
+    {
+        FlightRecorderEventTypes.endRobotPlan(ev, robot, game, strategy, planSize);
+    }
+
+    /**
+     * Begin timing a new board layout.
+     * @return  Event to pass to {@link #endMakeBoard(Object, String, String)},
+     *     or {@code null} if not enabled or not recording this event type
+     */
+    public static Object beginMakeBoard()
+    {
+        return (enabled) ? FlightRecorderEventTypes.beginMakeBoard() : null;
+    }
+
+    /**
+     * End and commit a new board layout event.
+     * @param ev  Event from {@link #beginMakeBoard()}; not null
+     * @param game  Game name
+     * @param boardClass  Board class name, like {@code "SOCBoardAtServer"}
+     */
+    public static void endMakeBoard(final Object ev, final String game, final String boardClass)
+    {
+        FlightRecorderEventTypes.endMakeBoard(ev, game, boardClass);
+    }
+
+    /**
+     * Begin timing a savegame file write or read.
+     * @return  Event to pass to {@link #endSavegameIO(Object, boolean, String, long)},
+     *     or {@code null} if not enabled or not recording this event type
+     */
+    public static Object beginSavegameIO()
+    {
+        return (enabled) ? FlightRecorderEventTypes.beginSavegameIO() : null;
+    }
+
+    /**
+     * End and commit a savegame file write or read event.
+     * @param ev  Event from {@link #beginSavegameIO()}; not null
+     * @param isLoad  True if reading, false if writing
+     * @param filename  File name
+     * @param bytes  File size, or -1 if unknown or failed
+     */
+    public static void endSavegameIO(final Object ev, final boolean isLoad, final String filename, final long bytes)
+    {
+        FlightRecorderEventTypes.endSavegameIO(ev, isLoad, filename, bytes);
+    }
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe histogram of durations, for server stats.
+ * Buckets are powers of 2 in microseconds: Bucket 0 counts durations under 1 microsecond,
+ * bucket {@code i} counts those from 2<sup>i-1</sup> up to 2<sup>i</sup> microseconds.
+ * Recording is lock-free and doesn't allocate.
+ *<P>
+ * Percentiles from {@link #getPercentileMicros(double)} are the upper bound of the bucket
+ * holding that percentile, so they're within a factor of 2 of the actual value.
+ *
+ * @since 2.7.00
+ */
+public class LatencyHistogram
+{
+    /** Number of buckets: 40, enough for durations past 6 days */
+    public static final int NUM_BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+
+    private final AtomicLong count = new AtomicLong(), totalNanos = new AtomicLong(), maxNanos = new AtomicLong();
+
+    /**
+     * Record a duration.
+     * @param nanos  Duration in nanoseconds; negative values are recorded as 0
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+
+        final long micros = nanos / 1000;
+        int b = (micros == 0) ? 0 : (64 - Long.numberOfLeadingZeros(micros));
+        if (b >= NUM_BUCKETS)
+            b = NUM_BUCKETS - 1;
+        buckets.incrementAndGet(b);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+
+        long prevMax;
+        while (nanos > (prevMax = maxNanos.get()))
+            if (maxNanos.compareAndSet(prevMax, nanos))
+                break;
+    }
+
+    /** @return number of durations recorded */
+    public long getCount()
+    {
+        return count.get();
+    }
+
+    /** @return total of all durations recorded, in nanoseconds */
+    public long getTotalNanos()
+    {
+        return totalNanos.get();
+    }
+
+    /** @return longest duration recorded, in nanoseconds, or 0 if none */
+    public long getMaxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    /**
+     * Get the number of durations in a bucket.
+     * @param i  Bucket number, 0 to {@link #NUM_BUCKETS} - 1
+     * @return  Count in bucket {@code i}
+     * @throws IndexOutOfBoundsException if {@code i} is out of range
+     */
+    public long getBucketCount(final int i)
+        throws IndexOutOfBoundsException
+    {
+        return buckets.get(i);
+    }
+
+    /**
+     * Estimate a percentile, as the upper bound of the bucket holding it.
+     * @param pct  Percentile, from 0.0 to 100.0
+     * @return  Upper bound in microseconds of the bucket holding {@code pct}, or 0 if nothing recorded
+     */
+    public long getPercentileMicros(final double pct)
+    {
+        final long n = count.get();
+        if (n == 0)
+            return 0;
+
+        long target = (long) Math.ceil(n * pct / 100.0);
+        if (target < 1)
+            target = 1;
+        long sum = 0;
+        for (int i = 0; i < NUM_BUCKETS; ++i)
+        {
+            sum += buckets.get(i);
+            if (sum >= target)
+                return 1L << i;
+        }
+
+        return 1L << (NUM_BUCKETS - 1);
+    }
+
+    /**
+     * Summarize as milliseconds, for stats display:
+     * {@code "n=12, avg 3.1 ms, p50 <= 4, p90 <= 8, p99 <= 16, max 10.2 ms"}, or {@code "n=0"}.
+     * @return  summary string
+     */
+    public String toStringMillis()
+    {
+        final long n = count.get();
+        if (n == 0)
+            return "n=0";
+
+        return "n=" + n + ", avg " + formatMillis(totalNanos.get() / n)
+            + " ms, p50 <= " + ((getPercentileMicros(50) + 999) / 1000)
+            + ", p90 <= " + ((getPercentileMicros(90) + 999) / 1000)
+            + ", p99 <= " + ((getPercentileMicros(99) + 999) / 1000)
+            + ", max " + formatMillis(maxNanos.get()) + " ms";
+    }
+
+    /** Format nanoseconds as milliseconds with 1 decimal place. */
+    private static String formatMillis(final long nanos)
+    {
+        final long tenths = nanos / 100000;
+        return (tenths / 10) + "." + (tenths % 10);
+    }
+
+}
@@ -0,0 +1,306 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of metrics {@link Source}s, to collect a {@link Snapshot} of counters and gauges
+ * and format it for dashboards as Prometheus text exposition format or a JSON line.
+ *<P>
+ * Sources are called from the collecting thread, so they should read their values
+ * without taking locks held by game threads: volatile fields, atomics, or brief copies.
+ * Collection order is registration order.
+ *
+ * @since 2.7.00
+ */
+public class MetricsRegistry
+{
+    /**
+     * A component which adds its current metrics to a snapshot.
+     */
+    public interface Source
+    {
+        /**
+         * Add this source's current values to a snapshot being collected.
+         * @param s  Snapshot to add to; not null
+         */
+        void addMetrics(Snapshot s);
+    }
+
+    private final List<Source> sources = new CopyOnWriteArrayList<>();
+
+    /**
+     * Add a source, to be called by each {@link #collect()}.
+     * @param src  Source to add; not null
+     * @throws IllegalArgumentException if {@code src} is null
+     */
+    public void register(final Source src)
+        throws IllegalArgumentException
+    {
+        if (src == null)
+            throw new IllegalArgumentException("src");
+
+        sources.add(src);
+    }
+
+    /**
+     * Collect a new snapshot from all registered sources.
+     * If a source throws a {@link RuntimeException}, prints it and continues with the other sources.
+     * @return  New snapshot, timestamped now
+     */
+    public Snapshot collect()
+    {
+        final Snapshot s = new Snapshot(System.currentTimeMillis());
+        for (final Source src : sources)
+        {
+            try
+            {
+                src.addMetrics(s);
+            } catch (RuntimeException e) {
+                System.err.println("MetricsRegistry: Source " + src.getClass().getName() + " threw " + e);
+            }
+        }
+
+        return s;
+    }
+
+    /**
+     * Metric values collected at one time. Samples with the same metric name are grouped into one family,
+     * which has a single type and help text (from the first sample added);
+     * to add more samples to a family, call the same method with the same name and a different label value.
+     * Not thread-safe; used by one collecting thread.
+     */
+    public static final class Snapshot
+    {
+        /** Time of collection, same format as {@link System#currentTimeMillis()} */
+        public final long timestamp;
+
+        /** Metric families by name, in order added */
+        private final Map<String, Family> families = new LinkedHashMap<>();
+
+        private Snapshot(final long timestamp)
+        {
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * Add a counter: A value which only increases while the server runs.
+         * @param name  Metric name, like {@code "jsettlers_connections_total"}
+         * @param help  Help text
+         * @param value  Current value
+         */
+        public void counter(final String name, final String help, final long value)
+        {
+            add(name, "counter", help, null, null, value);
+        }
+
+        /**
+         * Add a counter with one label.
+         * @param name  Metric name
+         * @param help  Help text
+         * @param labelName  Label name, like {@code "cache"}
+         * @param labelValue  Label value, like {@code "users"}
+         * @param value  Current value
+         */
+        public void counter
+            (final String name, final String help, final String labelName, final String labelValue, final long value)
+        {
+            add(name, "counter", help, labelName, labelValue, value);
+        }
+
+        /**
+         * Add a gauge: A value which can go up and down.
+         * @param name  Metric name, like {@code "jsettlers_games"}
+         * @param help  Help text
+         * @param value  Current value
+         */
+        public void gauge(final String name, final String help, final double value)
+        {
+            add(name, "gauge", help, null, null, value);
+        }
+
+        /**
+         * Add a gauge with one label.
+         * @param name  Metric name
+         * @param help  Help text
+         * @param labelName  Label name, like {@code "type"}
+         * @param labelValue  Label value, like {@code "sea"}
+         * @param value  Current value
+         */
+        public void gauge
+            (final String name, final String help, final String labelName, final String labelValue, final double value)
+        {
+            add(name, "gauge", help, labelName, labelValue, value);
+        }
+
+        /**
+         * Add a latency histogram as a summary in seconds: Quantiles 0.5, 0.9, 0.99
+         * (upper bounds from {@link LatencyHistogram#getPercentileMicros(double)}),
+         * plus {@code name_count} and {@code name_sum}.
+         * @param name  Metric name, like {@code "jsettlers_dispatch_seconds"}
+         * @param help  Help text
+         * @param labelName  Label name, or {@code null} for none
+         * @param labelValue  Label value, or {@code null} for none
+         * @param h  Histogram to summarize; not null
+         */
+        public void latency
+            (final String name, final String help, final String labelName, final String labelValue,
+             final LatencyHistogram h)
+        {
+            final String lbl = (labelName != null) ? (labelName + "=\"" + escape(labelValue) + "\",") : "";
+            final Family f = family(name, "summary", help);
+            f.samples.add(new Sample(name, "{" + lbl + "quantile=\"0.5\"}", h.getPercentileMicros(50) / 1e6));
+            f.samples.add(new Sample(name, "{" + lbl + "quantile=\"0.9\"}", h.getPercentileMicros(90) / 1e6));
+            f.samples.add(new Sample(name, "{" + lbl + "quantile=\"0.99\"}", h.getPercentileMicros(99) / 1e6));
+            final String lbls = (labelName != null) ? ("{" + lbl.substring(0, lbl.length() - 1) + "}") : "";
+            f.samples.add(new Sample(name + "_count", lbls, h.getCount()));
+            f.samples.add(new Sample(name + "_sum", lbls, h.getTotalNanos() / 1e9));
+        }
+
+        private void add
+            (final String name, final String type, final String help,
+             final String labelName, final String labelValue, final double value)
+        {
+            family(name, type, help).samples.add
+                (new Sample(name, (labelName != null) ? ("{" + labelName + "=\"" + escape(labelValue) + "\"}") : "",
+                 value));
+        }
+
+        private Family family(final String name, final String type, final String help)
+        {
+            Family f = families.get(name);
+            if (f == null)
+            {
+                f = new Family(type, help);
+                families.put(name, f);
+            }
+
+            return f;
+        }
+
+        /**
+         * Format as Prometheus text exposition format (version 0.0.4), with {@code # HELP} and {@code # TYPE}
+         * lines for each metric family.
+         * @return  Formatted text, ending with a newline
+         */
+        public String toPrometheusText()
+        {
+            final StringBuilder sb = new StringBuilder();
+            for (final Map.Entry<String, Family> e : families.entrySet())
+            {
+                final Family f = e.getValue();
+                sb.append("# HELP ").append(e.getKey()).append(' ').append(f.help).append('\n');
+                sb.append("# TYPE ").append(e.getKey()).append(' ').append(f.type).append('\n');
+                for (final Sample s : f.samples)
+                    sb.append(s.name).append(s.labels).append(' ').append(formatValue(s.value)).append('\n');
+            }
+
+            return sb.toString();
+        }
+
+        /**
+         * Format as a single JSON line with the timestamp and each sample:
+         * {@code {"time":1700000000000,"metrics":{"jsettlers_games{type=\"sea\"}":3, ...}}}.
+         * Sample keys are the same as the Prometheus sample names and labels.
+         * Since JSON has no NaN or infinity, those values are written as {@code null}.
+         * @return  Formatted JSON, without a trailing newline
+         */
+        public String toJSONLine()
+        {
+            final StringBuilder sb = new StringBuilder("{\"time\":").append(timestamp).append(",\"metrics\":{");
+            boolean first = true;
+            for (final Family f : families.values())
+            {
+                for (final Sample s : f.samples)
+                {
+                    if (! first)
+                        sb.append(',');
+                    first = false;
+                    sb.append('"').append(s.name).append(s.labels.replace("\\", "\\\\").replace("\"", "\\\""))
+                      .append("\":");
+                    if (Double.isNaN(s.value) || Double.isInfinite(s.value))
+                        sb.append("null");
+                    else
+                        sb.append(formatValue(s.value));
+                }
+            }
+
+            return sb.append("}}").toString();
+        }
+
+        /**
+         * Format a value as an integer if it's whole, otherwise as a double.
+         * NaN and infinity are formatted as Prometheus text expects: {@code NaN}, {@code +Inf}, {@code -Inf}.
+         */
+        private static String formatValue(final double v)
+        {
+            if (Double.isInfinite(v))
+                return (v > 0) ? "+Inf" : "-Inf";
+            if ((v == Math.rint(v)) && (Math.abs(v) < 1e15))
+                return Long.toString((long) v);
+
+            return Double.toString(v);
+        }
+
+        /** Escape a label value for Prometheus text format. */
+        private static String escape(final String v)
+        {
+            if (v == null)
+                return "";
+
+            return v.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+
+    /** One metric family in a {@link Snapshot}: Type, help, and its samples. */
+    private static final class Family
+    {
+        final String type, help;
+
+        final List<Sample> samples = new ArrayList<>();
+
+        Family(final String type, final String help)
+        {
+            this.type = type;
+            this.help = help;
+        }
+    }
+
+    /** One sample: Name (may have a suffix like {@code _count}), formatted labels or "", and value. */
+    private static final class Sample
+    {
+        final String name, labels;
+
+        final double value;
+
+        Sample(final String name, final String labels, final double value)
+        {
+            this.name = name;
+            this.labels = labels;
+            this.value = value;
+        }
+    }
+
+}
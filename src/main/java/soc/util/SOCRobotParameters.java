@@ -50,7 +50,7 @@ public class SOCRobotParameters implements Serializable
     protected float leaderAdversarialFactor;
     protected float devCardMultiplier;
     protected float threatMultiplier;
-    protected int strategyType; // SOCRobotDM.FAST_STRATEGY or SMART_STRATEGY
+    protected int strategyType; // SOCRobotDM.FAST_STRATEGY, SMART_STRATEGY, or ROLLOUT_STRATEGY
     protected int tradeFlag;
 
     /**
@@ -63,8 +63,9 @@ public class SOCRobotParameters implements Serializable
      * @param laf  the leader adversarial factor
      * @param dcm  the dev card multiplier
      * @param tm   the threat multiplier
-     * @param st   the strategy type: {@link soc.robot.SOCRobotDM#FAST_STRATEGY FAST_STRATEGY}
-     *             or {@link soc.robot.SOCRobotDM#SMART_STRATEGY SMART_STRATEGY}
+     * @param st   the strategy type: {@link soc.robot.SOCRobotDM#FAST_STRATEGY FAST_STRATEGY},
+     *             {@link soc.robot.SOCRobotDM#SMART_STRATEGY SMART_STRATEGY},
+     *             or {@link soc.robot.SOCRobotDM#ROLLOUT_STRATEGY ROLLOUT_STRATEGY}
      * @param tf   the trade flag: Does this robot make/accept trades with players? (1 or 0)
      */
     public SOCRobotParameters(int mgl, int me, float ebf, float af, float laf, float dcm, float tm, int st, int tf)
@@ -189,8 +190,9 @@ public class SOCRobotParameters implements Serializable
     }
 
     /**
-     * @return strategyType: {@link soc.robot.SOCRobotDM#FAST_STRATEGY}
-     *         or {@link soc.robot.SOCRobotDM#SMART_STRATEGY}
+     * @return strategyType: {@link soc.robot.SOCRobotDM#FAST_STRATEGY},
+     *         {@link soc.robot.SOCRobotDM#SMART_STRATEGY},
+     *         or {@link soc.robot.SOCRobotDM#ROLLOUT_STRATEGY}
      */
     public int getStrategyType()
     {
@@ -23,8 +23,10 @@ package soc.util;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
@@ -107,6 +109,31 @@ public class SOCStringManager extends StringManager
      */
     private static SOCStringManager serverManagerForClientLocale_fallback;
 
+    /**
+     * Maximum number of parsed formats kept by each manager's cache: 512.
+     * Enough for all of the parameterized strings sent by the server to a client locale.
+     * @see #formatSpecial(SOCGame, String, Object...)
+     * @since 2.7.00
+     */
+    public static final int FORMAT_CACHE_MAX_SIZE = 512;
+
+    /**
+     * Parsed formats of this manager's localized strings, keyed by pattern text, least recently used first.
+     * Since each manager has 1 locale, these are cached per locale and key.
+     * Synchronize on this map when using it; see {@link #getParsedFormat(String)}.
+     * @since 2.7.00
+     */
+    private final LinkedHashMap<String, ParsedFormat> formatCache
+        = new LinkedHashMap<String, ParsedFormat>(64, 0.75f, true)
+        {
+            private static final long serialVersionUID = 2700L;
+
+            protected boolean removeEldestEntry(final Map.Entry<String, ParsedFormat> eldest)
+            {
+                return size() > FORMAT_CACHE_MAX_SIZE;
+            }
+        };
+
     /**
      * Create a string manager for the bundles at {@code bundlePath} with the default locale.
      * Remember that bundle files are encoded not in {@code UTF-8} but in {@code ISO-8859-1}, see class javadoc.
@@ -132,6 +159,65 @@ public class SOCStringManager extends StringManager
 
     // If you add get methods, for server convenience also add them in Connection and classes implementing that.
 
+    /**
+     * Look up and format a localized string for {@link #get(String, Object...)},
+     * using the cached {@link ParsedFormat} of its pattern if available.
+     * The server formats the same few strings for many clients, so this saves re-parsing their patterns.
+     * @since 2.7.00
+     */
+    @Override
+    protected String format(final String key, final Object[] arguments)
+        throws MissingResourceException
+    {
+        final String txtfmt = bundle.getString(key);
+        final ParsedFormat pf = getParsedFormat(txtfmt);
+        if (pf.hasSpecials())
+            return MessageFormat.format(txtfmt, arguments);  // not a getSpecial call: format as given, as before caching
+
+        return pf.format(this, null, arguments);
+    }
+
+    /**
+     * Get the parsed format of a pattern from this manager's cache, parsing and caching it if needed.
+     * @param txtfmt  Pattern text, from this manager's bundle or another source
+     * @return  The parsed pattern; not {@code null}
+     * @throws IllegalArgumentException if the pattern has a parse error;
+     *     patterns which can't be parsed aren't cached
+     * @since 2.7.00
+     */
+    private ParsedFormat getParsedFormat(final String txtfmt)
+        throws IllegalArgumentException
+    {
+        ParsedFormat pf;
+        synchronized (formatCache)
+        {
+            pf = formatCache.get(txtfmt);
+        }
+        if (pf != null)
+            return pf;
+
+        pf = ParsedFormat.parse(txtfmt);  // parse while not locked; a racing thread's parse would be the same
+        synchronized (formatCache)
+        {
+            formatCache.put(txtfmt, pf);
+        }
+
+        return pf;
+    }
+
+    /**
+     * Get the number of parsed formats in this manager's cache, for stats or testing.
+     * @return  Number of cached formats, at most {@link #FORMAT_CACHE_MAX_SIZE}
+     * @since 2.7.00
+     */
+    public int getFormatCacheSize()
+    {
+        synchronized (formatCache)
+        {
+            return formatCache.size();
+        }
+    }
+
     /**
      * Resource type-and-count text keys for {@link #getSpecial(SOCGame, String, Object...)}.
      * Each subarray's indexes are the same values as {@link SOCResourceConstants#CLAY} to {@link SOCResourceConstants#WOOD}.
@@ -188,13 +274,13 @@ public class SOCStringManager extends StringManager
             if ((rcount == 1) || (rcount == -1))
                 resText = bundle.getString(rkeyArray[rtype]);
             else
-                resText = MessageFormat.format(bundle.getString(rkeyArray[rtype]), rcountObj);
+                resText = format(rkeyArray[rtype], new Object[]{ rcountObj });
         } else {
             // out of range, unknown type
             if ((rcount == 1) || (rcount < 0))
-                resText = MessageFormat.format(bundle.getString(rkeyArray[0]), rtype);
+                resText = format(rkeyArray[0], new Object[]{ rtype });
             else
-                resText = MessageFormat.format(bundle.getString(rkeyArray[0]), rcountObj, rtype);
+                resText = format(rkeyArray[0], new Object[]{ rcountObj, rtype });
         }
 
         return resText;
@@ -241,153 +327,227 @@ public class SOCStringManager extends StringManager
      * Called by {@code getSpecial(...)} after it retrieves the string from this manager's bundle.
      *<P>
      * See {@link #getSpecial(SOCGame, String, Object...)} for most javadocs,including parameters and returns.
+     *<P>
+     * Since v2.7.00 the parsed {@code txtfmt}, including the positions of its special parameters,
+     * is cached by this manager: See {@link ParsedFormat}.
      * @param game  Game, in case its options influence the strings (such as dev card Knight -> Warship in scenario _SC_PIRI)
      * @param txtfmt  Formatting string, already looked up by {@link ResourceBundle#getString(String)}
      *     or from another source
      * @param arguments Objects to go with {@code txtfmt}; details are in {@code getSpecial(..)} javadoc
      */
-    public String formatSpecial(final SOCGame game, String txtfmt, Object ... arguments)
+    public String formatSpecial(final SOCGame game, final String txtfmt, Object ... arguments)
         throws MissingResourceException, IllegalArgumentException
     {
-        /** Clone of arguments, with specials replaced with their localized strings */
-        Object[] argsLocal = null;
-
-        // look for any "{#,rsrcs}" parameter here, and replace that arg with a String
-        int ir = txtfmt.indexOf(",rsrcs}");
-        while (ir != -1)
-        {
-            final int i0 = txtfmt.lastIndexOf('{', ir - 1);
-            if (i0 == -1)
-                throw new IllegalArgumentException("Missing '{' before ',rsrcs}' in pattern: " + txtfmt);
+        return getParsedFormat(txtfmt).format(this, game, arguments);
+    }
 
-            if (argsLocal == null)
-                argsLocal = (Object[]) (arguments.clone());
+    /**
+     * A localized string's pattern, parsed for {@link SOCStringManager#formatSpecial(SOCGame, String, Object...)}
+     * and {@link SOCStringManager#get(String, Object...)}: The {@link MessageFormat} of the pattern with any
+     * special <tt>{#,rsrcs}</tt>, <tt>{#,list}</tt>, or <tt>{#,dcards}</tt> parameters changed to plain <tt>{#}</tt>,
+     * and the parameter numbers of those specials.
+     *<P>
+     * Each {@link SOCStringManager} caches the parsed formats of the patterns it uses,
+     * up to {@link SOCStringManager#FORMAT_CACHE_MAX_SIZE}.
+     * Thread-safe: {@link #format(SOCStringManager, SOCGame, Object[])} synchronizes on its {@code MessageFormat}.
+     * @since 2.7.00
+     */
+    public static final class ParsedFormat
+    {
+        /** Parameter numbers of <tt>{#,rsrcs}</tt>, <tt>{#,list}</tt>, <tt>{#,dcards}</tt> in pattern order, or {@code null} if none */
+        private final int[] rsrcsParams, listParams, dcardsParams;
 
-            final int pnum = Integer.parseInt(txtfmt.substring(i0 + 1, ir));
-            final Object arg = argsLocal[pnum];
-            if (arg instanceof Integer)
-            {
-                // [pnum] is rcount, [pnum+1] is rtype;
-                // replace the argument obj with its localized String
-                argsLocal[pnum] = getSOCResourceCount
-                    (((Integer) arguments[pnum + 1]).intValue(), (Integer) arg);
-            }
-            else if (arg instanceof ResourceSet)
-            {
-                final ResourceSet rset = (ResourceSet) arg;
-                ArrayList<String> resList = new ArrayList<String>();
-                for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
-                {
-                    int n = rset.getAmount(rtype);
-                    if (n > 0)
-                        resList.add(getSOCResourceCount(rtype, Integer.valueOf(n)));
-                }
+        /** Pattern with specials changed to plain <tt>{#}</tt>. Isn't thread-safe: Synchronize on it while formatting. */
+        private final MessageFormat fmt;
 
-                // replace the argument obj
-                if (resList.isEmpty())
-                    argsLocal[pnum] = bundle.getString("spec.rsrcs.none");  // "nothing"
-                else
-                    argsLocal[pnum] = I18n.listItems(resList, this);
+        private ParsedFormat(final MessageFormat fmt, final int[] rsrcs, final int[] list, final int[] dcards)
+        {
+            this.fmt = fmt;
+            rsrcsParams = rsrcs;
+            listParams = list;
+            dcardsParams = dcards;
+        }
 
-            } else {
-                // keep obj as whatever it is; MessageFormat.format will call its toString()
-            }
+        /**
+         * Parse a pattern which may contain special parameters.
+         * @param txtfmt  Pattern text, such as <tt>"{0} gets {1,rsrcs}."</tt>
+         * @return the parsed pattern
+         * @throws IllegalArgumentException if the pattern has a parse error
+         *     (closing '}' brace without opening '{' brace, etc)
+         */
+        public static ParsedFormat parse(String txtfmt)
+            throws IllegalArgumentException
+        {
+            final ArrayList<Integer> pnums = new ArrayList<>();
+            final int[][] specials = new int[3][];
+            final String[] SPECIALS = { ",rsrcs}", ",list}", ",dcards}" };
+            for (int sp = 0; sp < 3; ++sp)
+            {
+                final String special = SPECIALS[sp];
+                int ir = txtfmt.indexOf(special);
+                if (ir == -1)
+                    continue;
 
-            // splice the format string: "{#,rsrcs}" -> "{#}"
-            txtfmt = txtfmt.substring(0, ir) + txtfmt.substring(ir + 6);
+                pnums.clear();
+                while (ir != -1)
+                {
+                    final int i0 = txtfmt.lastIndexOf('{', ir - 1);
+                    if (i0 == -1)
+                        throw new IllegalArgumentException
+                            ("Missing '{' before '" + special + "' in pattern: " + txtfmt);
 
-            // look for any others (at top of loop)
-            ir = txtfmt.indexOf(",rsrcs}");
-        }
+                    pnums.add(Integer.parseInt(txtfmt.substring(i0 + 1, ir)));
 
-        // look for any "{#,list}" parameter here, and replace that arg with a String
-        ir = txtfmt.indexOf(",list}");
-        while (ir != -1)
-        {
-            final int i0 = txtfmt.lastIndexOf('{', ir - 1);
-            if (i0 == -1)
-                throw new IllegalArgumentException("Missing '{' before ',list}' in pattern: " + txtfmt);
+                    // splice the format string: "{#,rsrcs}" -> "{#}"
+                    txtfmt = txtfmt.substring(0, ir) + txtfmt.substring(ir + special.length() - 1);
 
-            if (argsLocal == null)
-                argsLocal = (Object[]) (arguments.clone());
+                    // look for any others (at top of loop)
+                    ir = txtfmt.indexOf(special);
+                }
 
-            final int pnum = Integer.parseInt(txtfmt.substring(i0 + 1, ir));
-            final Object arg = argsLocal[pnum];
-            if (arg instanceof List)
-            {
-                // replace the argument obj with String of its localized items
-                argsLocal[pnum] = I18n.listItems((List<?>) arg, this);
-            } else {
-                // keep obj as whatever it is; MessageFormat.format will call its toString()
+                final int[] pn = new int[pnums.size()];
+                for (int i = 0; i < pn.length; ++i)
+                    pn[i] = pnums.get(i);
+                specials[sp] = pn;
             }
 
-            // splice the format string: "{#,list}" -> "{#}"
-            txtfmt = txtfmt.substring(0, ir) + txtfmt.substring(ir + 5);
+            return new ParsedFormat(new MessageFormat(txtfmt), specials[0], specials[1], specials[2]);
+        }
 
-            // look for any others (at top of loop)
-            ir = txtfmt.indexOf(",list}");
+        /**
+         * Does this pattern have any special <tt>{#,rsrcs}</tt>, <tt>{#,list}</tt>, or <tt>{#,dcards}</tt> parameters?
+         * @return true if the pattern has any specials
+         */
+        public boolean hasSpecials()
+        {
+            return (rsrcsParams != null) || (listParams != null) || (dcardsParams != null);
         }
 
-        // look for any "{#,dcards}" parameter here, and replace that arg with a String
-        ir = txtfmt.indexOf(",dcards}");
-        while (ir != -1)
+        /**
+         * Format this pattern with these arguments, localizing any special parameters.
+         * See {@link SOCStringManager#getSpecial(SOCGame, String, Object...)} for the expected argument types.
+         * @param mgr  String manager to localize special parameters' resource names, dev cards, lists, etc
+         * @param game  Game, in case its options influence the strings; can be {@code null} if no dcards specials
+         * @param arguments  Objects to go with the pattern; not changed here
+         * @return  the formatted string
+         * @throws MissingResourceException if a string needed for a special parameter can't be found
+         * @throws IllegalArgumentException if an argument is the wrong type for its format
+         */
+        public String format(final SOCStringManager mgr, final SOCGame game, final Object[] arguments)
+            throws MissingResourceException, IllegalArgumentException
         {
-            final int i0 = txtfmt.lastIndexOf('{', ir - 1);
-            if (i0 == -1)
-                throw new IllegalArgumentException("Missing '{' before ',dcards}' in pattern: " + txtfmt);
+            /** Clone of arguments, with specials replaced with their localized strings */
+            Object[] argsLocal = null;
 
-            if (argsLocal == null)
+            // replace any "{#,rsrcs}" parameter's arg with a String
+            if (rsrcsParams != null)
+            {
                 argsLocal = (Object[]) (arguments.clone());
+                for (final int pnum : rsrcsParams)
+                {
+                    final Object arg = argsLocal[pnum];
+                    if (arg instanceof Integer)
+                    {
+                        // [pnum] is rcount, [pnum+1] is rtype;
+                        // replace the argument obj with its localized String
+                        argsLocal[pnum] = mgr.getSOCResourceCount
+                            (((Integer) arguments[pnum + 1]).intValue(), (Integer) arg);
+                    }
+                    else if (arg instanceof ResourceSet)
+                    {
+                        final ResourceSet rset = (ResourceSet) arg;
+                        ArrayList<String> resList = new ArrayList<String>();
+                        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+                        {
+                            int n = rset.getAmount(rtype);
+                            if (n > 0)
+                                resList.add(mgr.getSOCResourceCount(rtype, Integer.valueOf(n)));
+                        }
+
+                        // replace the argument obj
+                        if (resList.isEmpty())
+                            argsLocal[pnum] = mgr.bundle.getString("spec.rsrcs.none");  // "nothing"
+                        else
+                            argsLocal[pnum] = I18n.listItems(resList, mgr);
 
-            final int pnum = Integer.parseInt(txtfmt.substring(i0 + 1, ir));
-            final Object arg = argsLocal[pnum];
-            if (arg instanceof Integer)
-            {
-                // replace the argument obj with its localized String
-                argsLocal[pnum] = SOCDevCard.getCardTypeName(((Integer) arg), game, true, this);
+                    } else {
+                        // keep obj as whatever it is; MessageFormat.format will call its toString()
+                    }
+                }
             }
-            else if (arg instanceof SOCInventoryItem)
+
+            // replace any "{#,list}" parameter's arg with a String
+            if (listParams != null)
             {
-                // replace the argument obj with its localized String
-                argsLocal[pnum] = ((SOCInventoryItem) arg).getItemName(game, true, this);
+                if (argsLocal == null)
+                    argsLocal = (Object[]) (arguments.clone());
+                for (final int pnum : listParams)
+                {
+                    final Object arg = argsLocal[pnum];
+                    if (arg instanceof List)
+                    {
+                        // replace the argument obj with String of its localized items
+                        argsLocal[pnum] = I18n.listItems((List<?>) arg, mgr);
+                    } else {
+                        // keep obj as whatever it is; MessageFormat.format will call its toString()
+                    }
+                }
             }
-            else if (arg instanceof List)
+
+            // replace any "{#,dcards}" parameter's arg with a String
+            if (dcardsParams != null)
             {
-                // replace the argument obj with String of its localized items
-                final int L = ((List<?>) arg).size();
-                if (L == 0)
+                if (argsLocal == null)
+                    argsLocal = (Object[]) (arguments.clone());
+                for (final int pnum : dcardsParams)
                 {
-                    argsLocal[pnum] = bundle.getString("base.emptylist.nothing");  // "nothing"
-                } else {
-                    ArrayList<String> resList = new ArrayList<String>(L);
-                    for (Object itm : ((List<?>) arg))
+                    final Object arg = argsLocal[pnum];
+                    if (arg instanceof Integer)
                     {
-                        if (itm instanceof Integer)
-                            resList.add(SOCDevCard.getCardTypeName(((Integer) itm).intValue(), game, true, this));
-                        else if (itm instanceof SOCInventoryItem)
-                            resList.add(((SOCInventoryItem) itm).getItemName(game, true, this));
-                        else
-                            resList.add(itm.toString());
+                        // replace the argument obj with its localized String
+                        argsLocal[pnum] = SOCDevCard.getCardTypeName(((Integer) arg), game, true, mgr);
+                    }
+                    else if (arg instanceof SOCInventoryItem)
+                    {
+                        // replace the argument obj with its localized String
+                        argsLocal[pnum] = ((SOCInventoryItem) arg).getItemName(game, true, mgr);
+                    }
+                    else if (arg instanceof List)
+                    {
+                        // replace the argument obj with String of its localized items
+                        final int L = ((List<?>) arg).size();
+                        if (L == 0)
+                        {
+                            argsLocal[pnum] = mgr.bundle.getString("base.emptylist.nothing");  // "nothing"
+                        } else {
+                            ArrayList<String> resList = new ArrayList<String>(L);
+                            for (Object itm : ((List<?>) arg))
+                            {
+                                if (itm instanceof Integer)
+                                    resList.add(SOCDevCard.getCardTypeName(((Integer) itm).intValue(), game, true, mgr));
+                                else if (itm instanceof SOCInventoryItem)
+                                    resList.add(((SOCInventoryItem) itm).getItemName(game, true, mgr));
+                                else
+                                    resList.add(itm.toString());
+                            }
+
+                            argsLocal[pnum] = I18n.listItems(resList, mgr);
+                        }
+                    } else {
+                        // keep obj as whatever it is; MessageFormat.format will call its toString()
                     }
-
-                    argsLocal[pnum] = I18n.listItems(resList, this);
                 }
-            } else {
-                // keep obj as whatever it is; MessageFormat.format will call its toString()
             }
 
-            // splice the format string: "{#,dcards}" -> "{#}"
-            txtfmt = txtfmt.substring(0, ir) + txtfmt.substring(ir + 7);
+            // now format the rest of the message:
+            if (argsLocal == null)
+                argsLocal = arguments;
 
-            // look for any others (at top of loop)
-            ir = txtfmt.indexOf(",dcards}");
+            synchronized (fmt)
+            {
+                return fmt.format(argsLocal);
+            }
         }
-
-        // now format the rest of the message:
-        if (argsLocal == null)
-            argsLocal = arguments;
-
-        return MessageFormat.format(txtfmt, argsLocal);
     }
 
     /**
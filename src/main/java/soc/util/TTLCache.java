@@ -0,0 +1,193 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small thread-safe in-memory cache whose entries expire after a fixed time-to-live,
+ * evicting the least recently used entry when full. Can cache {@code null} values,
+ * for example to remember that a database lookup found nothing.
+ * Keeps hit and miss counts for server stats.
+ *<P>
+ * Callers are responsible for {@link #remove(Object)} or {@link #clear()} when the underlying data changes;
+ * otherwise a stale value can be returned until its entry expires.
+ *
+ * @param <K>  Key type
+ * @param <V>  Value type
+ * @since 2.7.00
+ */
+public class TTLCache<K, V>
+{
+    /** Max number of entries, from constructor */
+    private final int maxSize;
+
+    /** Time-to-live in milliseconds, from constructor */
+    private final long ttlMillis;
+
+    /** Entries in access order, least recently used first. Synchronize on {@code this}. */
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    /** Stats; synchronize on {@code this}. */
+    private long hits, misses;
+
+    /**
+     * Create a new cache.
+     * @param maxSize  Maximum number of entries; at least 1
+     * @param ttlMillis  Time-to-live for each entry, in milliseconds; at least 1
+     * @throws IllegalArgumentException if {@code maxSize} or {@code ttlMillis} &lt; 1
+     */
+    public TTLCache(final int maxSize, final long ttlMillis)
+        throws IllegalArgumentException
+    {
+        if ((maxSize < 1) || (ttlMillis < 1))
+            throw new IllegalArgumentException("maxSize, ttlMillis");
+
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        map = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 2700L;
+
+            protected boolean removeEldestEntry(final Map.Entry<K, TTLCache.Entry<V>> eldest)
+            {
+                return size() > TTLCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Look up a key, counting a hit or a miss.
+     * @param key  Key to look up
+     * @return  The cached entry, whose {@link Entry#value} may be {@code null};
+     *     or {@code null} if not cached or expired
+     */
+    public synchronized Entry<V> get(final K key)
+    {
+        final Entry<V> e = map.get(key);
+        if ((e != null) && (System.currentTimeMillis() >= e.expiresAt))
+        {
+            map.remove(key);
+            ++misses;
+            return null;
+        }
+
+        if (e != null)
+            ++hits;
+        else
+            ++misses;
+
+        return e;
+    }
+
+    /**
+     * Add or replace an entry, expiring {@code ttlMillis} from now.
+     * If cache is full, removes the least recently used entry.
+     * @param key  Key to add
+     * @param value  Value to cache; may be {@code null}
+     */
+    public synchronized void put(final K key, final V value)
+    {
+        map.put(key, new Entry<V>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Remove an entry if present, because its underlying data has changed.
+     * @param key  Key to remove
+     */
+    public synchronized void remove(final K key)
+    {
+        map.remove(key);
+    }
+
+    /** Remove all entries. Doesn't reset the hit and miss counts. */
+    public synchronized void clear()
+    {
+        map.clear();
+    }
+
+    /**
+     * Get the current number of entries, after removing any expired ones.
+     * @return  Number of unexpired entries
+     */
+    public synchronized int size()
+    {
+        final long now = System.currentTimeMillis();
+        for (Iterator<Entry<V>> iter = map.values().iterator(); iter.hasNext(); )
+            if (now >= iter.next().expiresAt)
+                iter.remove();
+
+        return map.size();
+    }
+
+    /** @return number of {@link #get(Object)} calls which found an unexpired entry */
+    public synchronized long getHitCount()
+    {
+        return hits;
+    }
+
+    /** @return number of {@link #get(Object)} calls which found no entry or an expired one */
+    public synchronized long getMissCount()
+    {
+        return misses;
+    }
+
+    /**
+     * Summarize for stats display: {@code "12 entries, 340 hits, 25 misses (93% hits)"}.
+     * @return  summary string
+     */
+    public String toStatsString()
+    {
+        final int n = size();
+        final long h, m;
+        synchronized (this)
+        {
+            h = hits;
+            m = misses;
+        }
+        final long total = h + m;
+
+        return n + " entries, " + h + " hits, " + m + " misses"
+            + ((total > 0) ? (" (" + (100 * h / total) + "% hits)") : "");
+    }
+
+    /**
+     * A cached value and its expiration time.
+     * @param <V>  Value type
+     */
+    public static final class Entry<V>
+    {
+        /** The cached value; may be {@code null} */
+        public final V value;
+
+        /** Expiration time, same format as {@link System#currentTimeMillis()} */
+        private final long expiresAt;
+
+        private Entry(final V value, final long expiresAt)
+        {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
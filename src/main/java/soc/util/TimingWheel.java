@@ -0,0 +1,349 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+package soc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel: A single daemon thread which runs many short periodic or one-shot tasks,
+ * such as idle pings, at a coarse resolution ({@link #getTickMillis()}).
+ * Replaces a sleeping thread per pinged object; scheduling and cancelling are O(1),
+ * and each tick looks only at the tasks hashed into that tick's slot.
+ *<P>
+ * Tasks run on the wheel's thread and must be quick and non-blocking, for example putting a
+ * message into a queue. A task which throws an exception is cancelled, and the exception is printed.
+ *<P>
+ * The wheel keeps stats about its per-tick cost: See {@link #getTickCount()}, {@link #getTotalTickNanos()},
+ * {@link #getMaxTickNanos()}. Most code should use the {@link #getShared()} instance.
+ *
+ * @since 2.7.00
+ */
+public class TimingWheel
+{
+    /** Tick length in milliseconds for {@link #getShared()}: 100 */
+    public static final int SHARED_TICK_MILLIS = 100;
+
+    /** Number of slots in {@link #getShared()}'s wheel: 512 (about 51 seconds per rotation) */
+    public static final int SHARED_WHEEL_SIZE = 512;
+
+    /** Shared instance, created by {@link #getShared()} when first needed. */
+    private static TimingWheel shared;
+
+    /** Tick length in milliseconds, from constructor */
+    private final int tickMillis;
+
+    /**
+     * Wheel slots, each holding the tasks whose deadline tick hashes to it.
+     * Used only by {@link #worker}'s thread. Length is a power of 2.
+     */
+    private final List<Timeout>[] wheel;
+
+    /** Mask for slot index: {@link #wheel}.length - 1 */
+    private final int mask;
+
+    /** Newly scheduled tasks, to be placed into {@link #wheel} by {@link #worker} at its next tick. */
+    private final ConcurrentLinkedQueue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+    /** Number of tasks scheduled and not yet finished or removed after cancel. */
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    /** Wheel thread, started by first call to {@link #schedule(Runnable, long, long)}; {@code null} before then. */
+    private Thread worker;
+
+    /** Thread name, from constructor */
+    private final String threadName;
+
+    /** Alive flag for {@link #worker}'s loop; see {@link #stop()}. */
+    private volatile boolean alive = true;
+
+    /** Current tick number; used only by {@link #worker}. */
+    private long tick;
+
+    /** Stats, written only by {@link #worker} */
+    private volatile long tickCount, totalTickNanos, maxTickNanos, tasksRun;
+
+    /**
+     * Get the shared timing wheel, creating it if needed.
+     * Its thread starts when the first task is scheduled.
+     * @return the shared instance, with tick length {@link #SHARED_TICK_MILLIS}
+     */
+    public static synchronized TimingWheel getShared()
+    {
+        if (shared == null)
+            shared = new TimingWheel("timingWheel-shared", SHARED_TICK_MILLIS, SHARED_WHEEL_SIZE);
+
+        return shared;
+    }
+
+    /**
+     * Create a new timing wheel. Its thread isn't started until a task is scheduled.
+     * @param threadName  Name for the wheel's thread, for debugging
+     * @param tickMillis  Tick length (resolution) in milliseconds; at least 1
+     * @param wheelSize  Number of slots; will be rounded up to a power of 2.
+     *     Delays longer than {@code tickMillis * wheelSize} are supported, but each rotation
+     *     of the wheel will look at those tasks again until they're due.
+     * @throws IllegalArgumentException if {@code tickMillis} or {@code wheelSize} &lt; 1
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(final String threadName, final int tickMillis, final int wheelSize)
+        throws IllegalArgumentException
+    {
+        if ((tickMillis < 1) || (wheelSize < 1))
+            throw new IllegalArgumentException("tickMillis, wheelSize");
+
+        int n = 1;
+        while (n < wheelSize)
+            n <<= 1;
+
+        this.threadName = threadName;
+        this.tickMillis = tickMillis;
+        wheel = new List[n];
+        for (int i = 0; i < n; ++i)
+            wheel[i] = new ArrayList<Timeout>();
+        mask = n - 1;
+    }
+
+    /**
+     * Schedule a task to run once or periodically on the wheel's thread.
+     * @param task  Task to run; should be quick and not block
+     * @param delayMillis  Delay before first run; rounded up to a whole number of ticks, at least 1
+     * @param periodMillis  Period between runs, or 0 to run only once.
+     *     Rounded up to a whole number of ticks. Runs don't "catch up" if the wheel falls behind.
+     * @return a handle to {@link Timeout#cancel()} the task
+     * @throws IllegalArgumentException if {@code task} is null, or {@code delayMillis} or {@code periodMillis} &lt; 0
+     * @throws IllegalStateException if {@link #stop()} has been called
+     */
+    public Timeout schedule(final Runnable task, final long delayMillis, final long periodMillis)
+        throws IllegalArgumentException, IllegalStateException
+    {
+        if ((task == null) || (delayMillis < 0) || (periodMillis < 0))
+            throw new IllegalArgumentException();
+        if (! alive)
+            throw new IllegalStateException("stopped");
+
+        final Timeout t = new Timeout(task, toTicks(delayMillis), (periodMillis > 0) ? toTicks(periodMillis) : 0);
+        activeCount.incrementAndGet();
+        pending.add(t);
+
+        synchronized (this)
+        {
+            if (worker == null)
+            {
+                worker = new Thread(threadName)
+                {
+                    public void run() { runWheel(); }
+                };
+                worker.setDaemon(true);
+                worker.start();
+            }
+        }
+
+        return t;
+    }
+
+    /** Convert a positive delay to ticks, rounding up; always at least 1. */
+    private long toTicks(final long millis)
+    {
+        final long ticks = (millis + tickMillis - 1) / tickMillis;
+        return (ticks > 0) ? ticks : 1;
+    }
+
+    /**
+     * The wheel thread's loop: Sleep until the next tick, then run that tick's due tasks.
+     * If the thread falls behind (a long GC pause, etc), runs the missed ticks without sleeping.
+     */
+    private void runWheel()
+    {
+        final long tickNanos = tickMillis * 1000000L;
+        long nextTickTime = System.nanoTime() + tickNanos;
+        final ArrayList<Timeout> rescheduled = new ArrayList<>();
+
+        while (alive)
+        {
+            final long sleepNanos = nextTickTime - System.nanoTime();
+            if (sleepNanos > 0)
+            {
+                try
+                {
+                    Thread.sleep(sleepNanos / 1000000L, (int) (sleepNanos % 1000000L));
+                }
+                catch (InterruptedException e) {}
+
+                continue;
+            }
+
+            final long startTime = System.nanoTime();
+            ++tick;
+
+            Timeout t;
+            while (null != (t = pending.poll()))
+                place(t, tick + t.delayTicks);
+
+            final List<Timeout> slot = wheel[(int) (tick & mask)];
+            int keep = 0;
+            long nRun = 0;
+            for (int i = 0, n = slot.size(); i < n; ++i)
+            {
+                t = slot.get(i);
+                if (t.cancelled)
+                {
+                    activeCount.decrementAndGet();
+                    continue;
+                }
+                if (t.deadlineTick > tick)
+                {
+                    slot.set(keep++, t);  // due in a later rotation
+                    continue;
+                }
+
+                ++nRun;
+                try
+                {
+                    t.task.run();
+                } catch (Throwable th) {
+                    t.cancelled = true;
+                    System.err.println("TimingWheel " + threadName + ": task threw " + th);
+                    th.printStackTrace();
+                }
+
+                if ((t.periodTicks > 0) && ! t.cancelled)
+                    rescheduled.add(t);
+                else
+                    activeCount.decrementAndGet();
+            }
+            slot.subList(keep, slot.size()).clear();
+
+            if (! rescheduled.isEmpty())
+            {
+                for (final Timeout rt : rescheduled)
+                    place(rt, tick + rt.periodTicks);
+                rescheduled.clear();
+            }
+
+            final long cost = System.nanoTime() - startTime;
+            tickCount = tickCount + 1;
+            totalTickNanos = totalTickNanos + cost;
+            if (cost > maxTickNanos)
+                maxTickNanos = cost;
+            tasksRun = tasksRun + nRun;
+
+            nextTickTime += tickNanos;
+        }
+    }
+
+    /** Place a task into its slot to run at {@code deadline}; called only from {@link #worker}. */
+    private void place(final Timeout t, final long deadline)
+    {
+        t.deadlineTick = deadline;
+        wheel[(int) (deadline & mask)].add(t);
+    }
+
+    /**
+     * Stop the wheel's thread after its current tick. Pending tasks won't run.
+     * Should not be called on the {@link #getShared()} instance.
+     */
+    public void stop()
+    {
+        alive = false;
+        synchronized (this)
+        {
+            if (worker != null)
+                worker.interrupt();
+        }
+    }
+
+    /** @return this wheel's tick length in milliseconds */
+    public int getTickMillis()
+    {
+        return tickMillis;
+    }
+
+    /** @return number of tasks currently scheduled, including some recently cancelled tasks not yet removed */
+    public int getTaskCount()
+    {
+        return activeCount.get();
+    }
+
+    /** @return number of ticks processed since the wheel's thread started */
+    public long getTickCount()
+    {
+        return tickCount;
+    }
+
+    /** @return total time in nanoseconds spent processing ticks, including running their tasks */
+    public long getTotalTickNanos()
+    {
+        return totalTickNanos;
+    }
+
+    /** @return longest time in nanoseconds spent processing a single tick */
+    public long getMaxTickNanos()
+    {
+        return maxTickNanos;
+    }
+
+    /** @return number of task runs since the wheel's thread started */
+    public long getTasksRun()
+    {
+        return tasksRun;
+    }
+
+    /**
+     * A task scheduled on a {@link TimingWheel}; call {@link #cancel()} to stop it.
+     */
+    public static final class Timeout
+    {
+        private final Runnable task;
+
+        /** Ticks until first run, and between runs if periodic (0 if one-shot) */
+        private final long delayTicks, periodTicks;
+
+        /** Tick number when task is next due; used only by the wheel thread */
+        private long deadlineTick;
+
+        private volatile boolean cancelled;
+
+        private Timeout(final Runnable task, final long delayTicks, final long periodTicks)
+        {
+            this.task = task;
+            this.delayTicks = delayTicks;
+            this.periodTicks = periodTicks;
+        }
+
+        /**
+         * Cancel this task. If it's running right now, that run will finish,
+         * but it won't run again. Safe to call from the task itself or any thread, and more than once.
+         */
+        public void cancel()
+        {
+            cancelled = true;
+        }
+
+        /** @return true if {@link #cancel()} was called, or the task threw an exception */
+        public boolean isCancelled()
+        {
+            return cancelled;
+        }
+    }
+
+}
@@ -0,0 +1,333 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Minimal in-memory JDBC driver for testing {@link soc.server.database.SOCDBHelper} without a database.
+ * Has no tables, so the DB looks like schema version {@code SCHEMA_VERSION_ORIGINAL}.
+ * Records the names of games saved by committed {@code INSERT INTO games} batches,
+ * and can be told to fail some operations. Queries return empty results;
+ * other statements do nothing.
+ *<P>
+ * Its state is static, since {@code SOCDBHelper} creates the driver instance from its class name:
+ * Call {@link #reset()} before each test.
+ *
+ * @since 2.7.00
+ */
+public class StubJDBCDriver implements Driver
+{
+    /** URL prefix accepted by this driver */
+    public static final String URL_PREFIX = "jdbc:stub:";
+
+    /** Connections opened so far, and whether each is closed; synchronize on this list */
+    public static final List<StubConnection> conns = new ArrayList<>();
+
+    /** Names of games whose inserts were committed, in order; synchronize on this list */
+    public static final List<String> savedGames = new ArrayList<>();
+
+    /** If true, preparing an {@code INSERT INTO games} statement fails */
+    public static volatile boolean failPrepareSaveGame;
+
+    /** If not null, executing an {@code INSERT INTO games} batch which contains this game name fails */
+    public static volatile String failSaveGameName;
+
+    /** Clear all state and failure flags. */
+    public static void reset()
+    {
+        synchronized (conns)
+        {
+            conns.clear();
+        }
+        synchronized (savedGames)
+        {
+            savedGames.clear();
+        }
+        failPrepareSaveGame = false;
+        failSaveGameName = null;
+    }
+
+    /** Count the connections which are still open. */
+    public static int countOpenConnections()
+    {
+        int n = 0;
+        synchronized (conns)
+        {
+            for (final StubConnection c : conns)
+                if (! c.isClosed)
+                    ++n;
+        }
+
+        return n;
+    }
+
+    public Connection connect(final String url, final Properties info)
+    {
+        if (! acceptsURL(url))
+            return null;
+
+        final StubConnection sc = new StubConnection();
+        synchronized (conns)
+        {
+            conns.add(sc);
+        }
+
+        return sc.conn;
+    }
+
+    public boolean acceptsURL(final String url)
+    {
+        return (url != null) && url.startsWith(URL_PREFIX);
+    }
+
+    public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info)
+    {
+        return new DriverPropertyInfo[0];
+    }
+
+    public int getMajorVersion()
+    {
+        return 1;
+    }
+
+    public int getMinorVersion()
+    {
+        return 0;
+    }
+
+    public boolean jdbcCompliant()
+    {
+        return false;
+    }
+
+    public Logger getParentLogger()
+        throws SQLFeatureNotSupportedException
+    {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * Default return value for a stubbed method: {@code false}, 0, or {@code null},
+     * or an empty result set.
+     */
+    private static Object defaultValue(final Method m)
+    {
+        final Class<?> rt = m.getReturnType();
+        if (rt == ResultSet.class)
+            return proxy(ResultSet.class, new Stub());
+        if (rt == Boolean.TYPE)
+            return Boolean.FALSE;
+        if (rt == Integer.TYPE)
+            return Integer.valueOf(0);
+        if (rt == Long.TYPE)
+            return Long.valueOf(0);
+        if (rt == Short.TYPE)
+            return Short.valueOf((short) 0);
+        if (rt == Byte.TYPE)
+            return Byte.valueOf((byte) 0);
+        if (rt == Float.TYPE)
+            return Float.valueOf(0f);
+        if (rt == Double.TYPE)
+            return Double.valueOf(0d);
+
+        return null;
+    }
+
+    private static <T> T proxy(final Class<T> iface, final InvocationHandler h)
+    {
+        return iface.cast(Proxy.newProxyInstance
+            (StubJDBCDriver.class.getClassLoader(), new Class<?>[]{ iface }, h));
+    }
+
+    /** Handler for an object whose methods all return {@link StubJDBCDriver#defaultValue(Method)}. */
+    private static class Stub implements InvocationHandler
+    {
+        public Object invoke(final Object proxy, final Method m, final Object[] args)
+            throws Throwable
+        {
+            if (m.getName().equals("hashCode"))
+                return System.identityHashCode(proxy);
+            if (m.getName().equals("equals"))
+                return (proxy == args[0]);
+            if (m.getName().equals("toString"))
+                return getClass().getSimpleName();
+
+            return defaultValue(m);
+        }
+    }
+
+    /**
+     * A stub connection: Tracks whether it's closed and its uncommitted game inserts.
+     */
+    public static final class StubConnection extends Stub
+    {
+        /** This connection's JDBC proxy */
+        public final Connection conn;
+
+        /** True if {@link Connection#close()} was called */
+        public volatile boolean isClosed;
+
+        private boolean autoCommit = true;
+
+        /** Game names inserted by executed batches, not yet committed */
+        private final List<String> uncommitted = new ArrayList<>();
+
+        StubConnection()
+        {
+            conn = proxy(Connection.class, this);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method m, final Object[] args)
+            throws Throwable
+        {
+            final String mname = m.getName();
+            if (mname.equals("close"))
+            {
+                isClosed = true;
+                return null;
+            }
+            if (mname.equals("isClosed"))
+                return isClosed;
+            if (mname.equals("isValid"))
+                return ! isClosed;
+
+            if (isClosed && ! mname.equals("hashCode") && ! mname.equals("equals") && ! mname.equals("toString"))
+                throw new SQLException("stub: connection closed");
+
+            if (mname.equals("getAutoCommit"))
+                return autoCommit;
+            if (mname.equals("setAutoCommit"))
+            {
+                autoCommit = (Boolean) args[0];
+                return null;
+            }
+            if (mname.equals("commit"))
+            {
+                synchronized (savedGames)
+                {
+                    savedGames.addAll(uncommitted);
+                }
+                uncommitted.clear();
+                return null;
+            }
+            if (mname.equals("rollback"))
+            {
+                uncommitted.clear();
+                return null;
+            }
+            if (mname.equals("getMetaData"))
+                return proxy(DatabaseMetaData.class, new Stub());
+            if (mname.equals("createStatement"))
+                return proxy(Statement.class, new Stub());
+            if (mname.equals("prepareStatement"))
+            {
+                final String sql = (String) args[0];
+                if (sql.contains("nickname_lc"))
+                    throw new SQLException("stub: no such column: nickname_lc");
+
+                if (sql.startsWith("INSERT INTO games("))
+                {
+                    if (failPrepareSaveGame)
+                        throw new SQLException("stub: failPrepareSaveGame");
+
+                    return proxy(PreparedStatement.class, new SaveGameStatement(this));
+                }
+
+                return proxy(PreparedStatement.class, new Stub());
+            }
+
+            return super.invoke(proxy, m, args);
+        }
+    }
+
+    /**
+     * A stub {@code INSERT INTO games} statement: Batches the game name parameter,
+     * and adds it to its connection's uncommitted inserts when executed.
+     */
+    private static final class SaveGameStatement extends Stub
+    {
+        private final StubConnection sc;
+
+        private String gaName;
+
+        private final List<String> batch = new ArrayList<>();
+
+        SaveGameStatement(final StubConnection sc)
+        {
+            this.sc = sc;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method m, final Object[] args)
+            throws Throwable
+        {
+            final String mname = m.getName();
+            if (mname.equals("setString") && ((Integer) args[0] == 1))
+            {
+                gaName = (String) args[1];
+                return null;
+            }
+            if (mname.equals("addBatch"))
+            {
+                batch.add(gaName);
+                return null;
+            }
+            if (mname.equals("clearBatch"))
+            {
+                batch.clear();
+                return null;
+            }
+            if (mname.equals("executeBatch"))
+            {
+                final int n = batch.size();
+                final String failName = failSaveGameName;
+                final boolean fail = (failName != null) && batch.contains(failName);
+                if (! fail)
+                    sc.uncommitted.addAll(batch);
+                batch.clear();
+                if (fail)
+                    throw new SQLException("stub: failSaveGameName " + failName);
+
+                return new int[n];
+            }
+
+            return super.invoke(proxy, m, args);
+        }
+    }
+
+}
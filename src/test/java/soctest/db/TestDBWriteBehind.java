@@ -0,0 +1,129 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.db;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+import soc.game.SOCGame;
+import soc.server.database.SOCDBHelper;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SOCDBHelper#saveGameScores(SOCGame, int, boolean)}'s write-behind queue,
+ * using {@link StubJDBCDriver} instead of a database.
+ * @since 2.7.00
+ */
+public class TestDBWriteBehind
+{
+    private SOCDBHelper db;
+
+    @Before
+    public void setup()
+        throws Exception
+    {
+        StubJDBCDriver.reset();
+
+        Properties props = new Properties();
+        props.put(SOCDBHelper.PROP_JSETTLERS_DB_URL, StubJDBCDriver.URL_PREFIX + "socdata");
+        props.put(SOCDBHelper.PROP_JSETTLERS_DB_DRIVER, StubJDBCDriver.class.getName());
+        props.put(SOCDBHelper.PROP_JSETTLERS_DB_WRITE_QUEUE_SIZE, "10");
+        db = new SOCDBHelper();
+        db.initialize("u", "p", props);
+        assertTrue(db.isInitialized());
+        assertEquals(SOCDBHelper.SCHEMA_VERSION_ORIGINAL, db.getSchemaVersion());
+        assertEquals("not started", db.getWriteQueueStatsFormatted());
+    }
+
+    /**
+     * Make a game which player 0 has won.
+     * @param gaName  Game name
+     * @return  new game in state {@link SOCGame#OVER}
+     */
+    private static SOCGame makeWonGame(final String gaName)
+    {
+        final SOCGame ga = new SOCGame(gaName);
+        ga.addPlayer("p0", 0);
+        ga.addPlayer("p1", 1);
+        ga.startGame();
+        ga.setCurrentPlayerNumber(0);
+        ga.getPlayer(0).setSpecialVP(10);
+        ga.checkForWinner();
+        assertEquals(SOCGame.OVER, ga.getGameState());
+
+        return ga;
+    }
+
+    /** Queued games are all saved when the DB is shut down, and the write-behind connection is closed. */
+    @Test
+    public void testSavesQueuedGames()
+        throws Exception
+    {
+        for (final String gaName : new String[]{ "g1", "g2", "g3" })
+            assertTrue(db.saveGameScores(makeWonGame(gaName), 60, false));
+
+        db.cleanup(true);
+
+        synchronized (StubJDBCDriver.savedGames)
+        {
+            assertEquals(Arrays.asList("g1", "g2", "g3"), StubJDBCDriver.savedGames);
+        }
+        assertEquals(2, StubJDBCDriver.conns.size());  // main connection and write-behind's own
+        assertEquals(0, StubJDBCDriver.countOpenConnections());
+    }
+
+    /** A game which can't be saved doesn't prevent saving the rest of its batch. */
+    @Test
+    public void testBadGameInBatch()
+        throws Exception
+    {
+        StubJDBCDriver.failSaveGameName = "bad";
+        for (final String gaName : new String[]{ "g1", "bad", "g2" })
+            assertTrue(db.saveGameScores(makeWonGame(gaName), 60, false));
+
+        db.cleanup(true);
+
+        synchronized (StubJDBCDriver.savedGames)
+        {
+            assertEquals(Arrays.asList("g1", "g2"), StubJDBCDriver.savedGames);
+        }
+        assertEquals(0, StubJDBCDriver.countOpenConnections());
+    }
+
+    /** If the write-behind connection's statements can't be prepared, that connection is closed. */
+    @Test
+    public void testPrepareFailureClosesConnection()
+        throws Exception
+    {
+        StubJDBCDriver.failPrepareSaveGame = true;
+        assertTrue(db.saveGameScores(makeWonGame("g1"), 60, false));
+
+        db.cleanup(true);
+
+        assertTrue(StubJDBCDriver.savedGames.isEmpty());
+        assertTrue("write-behind should have tried to connect", StubJDBCDriver.conns.size() > 1);
+        assertEquals(0, StubJDBCDriver.countOpenConnections());
+    }
+
+}
@@ -0,0 +1,309 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import soc.game.SOCBoard;
+import soc.game.SOCCity;
+import soc.game.SOCDevCardConstants;
+import soc.game.SOCGame;
+import soc.game.SOCGameJournal;
+import soc.game.SOCInventory;
+import soc.game.SOCPlayer;
+import soc.game.SOCPlayingPiece;
+import soc.game.SOCResourceConstants;
+import soc.game.SOCResourceSet;
+import soc.game.SOCRoad;
+import soc.game.SOCRoutePiece;
+import soc.game.SOCSettlement;
+import soc.server.SOCServer;
+import soc.server.savegame.SavedGameModel;
+import soctest.server.savegame.TestLoadgame;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SOCGameJournal}: Make various game changes, roll back, compare to game before changes.
+ * @since 2.7.00
+ */
+public class TestGameJournal
+{
+    /** dummy server, to avoid IllegalStateException etc from GameLoaderJSON */
+    private static SOCServer srv;
+
+    @BeforeClass
+    public static void setup()
+        throws Exception
+    {
+        srv = new SOCServer("dummy", 0, null, null);
+    }
+
+    /** Load a savegame artifact and set its game to the state it was saved in, ready to play. */
+    private static SOCGame loadGame(final String fname)
+        throws Exception
+    {
+        final SavedGameModel sgm = TestLoadgame.load(fname, srv);
+        final SOCGame ga = sgm.getGame();
+        ga.setGameState(sgm.gameState);
+
+        return ga;
+    }
+
+    /**
+     * Place pieces, upgrade a city, buy a dev card, move the robber, trade, gain knights, and end turn;
+     * rollback should restore everything to how it was before those changes.
+     */
+    @Test
+    public void testRollbackVariousChanges()
+        throws Exception
+    {
+        final SOCGame ga = loadGame("classic-botturn.game.json");
+        assertEquals(SOCGame.PLAY1, ga.getGameState());
+        final String before = describe(ga);
+
+        final SOCGameJournal j = ga.startJournal();
+        assertSame(j, ga.startJournal());
+        assertSame(j, ga.getJournal());
+        final int mark = j.mark();
+
+        final int cpn = ga.getCurrentPlayerNumber();
+        final SOCPlayer pl = ga.getPlayer(cpn);
+        final SOCBoard board = ga.getBoard();
+        pl.getResources().add(new SOCResourceSet(5, 5, 5, 5, 5, 0));
+
+        // a road, then a settlement if possible, and a city on an existing settlement
+        SOCRoad rd = null;
+        for (int edge = 0; (rd == null) && (edge <= 0xFF); ++edge)
+            if (pl.isPotentialRoad(edge))
+                rd = new SOCRoad(pl, edge, board);
+        assertNotNull(rd);
+        ga.putPiece(rd);
+        final int[] ps = pl.getPotentialSettlements_arr();
+        if ((ps != null) && (ps.length > 0))
+            ga.putPiece(new SOCSettlement(pl, ps[0], board));
+        ga.putPiece(new SOCCity(pl, pl.getSettlements().get(0).getCoordinates(), board));
+
+        assertTrue(ga.couldBuyDevCard(cpn));
+        ga.buyDevCard();
+        ga.getBoard().setRobberHex(board.getLandHexCoords()[0], true);
+        pl.setNumKnights(pl.getNumKnights() + 3);
+        ga.updateLargestArmy();
+        ga.makeBankTrade(new SOCResourceSet(4, 0, 0, 0, 0, 0), new SOCResourceSet(0, 1, 0, 0, 0, 0));
+        ga.endTurn();
+
+        assertNotEquals(before, describe(ga));
+        j.rollback(mark);
+        assertEquals(before, describe(ga));
+        assertEquals(0, j.size());
+
+        // that mark is gone
+        try
+        {
+            j.rollback(mark);
+            fail("should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {}
+
+        ga.stopJournal();
+        assertNull(ga.getJournal());
+    }
+
+    /** Nested marks: Inner rollback, then inner release and outer rollback; temp pieces. */
+    @Test
+    public void testNestedMarks()
+        throws Exception
+    {
+        final SOCGame ga = loadGame("reletest-longest-3p-sea.game.json");
+        final SOCGameJournal j = ga.startJournal();
+        final String before = describe(ga);
+        final int outer = j.mark();
+
+        final SOCPlayer pl = ga.getPlayer(ga.getCurrentPlayerNumber());
+        pl.getInventory().addDevCard(2, SOCInventory.OLD, SOCDevCardConstants.KNIGHT);
+        pl.getResources().add(new SOCResourceSet(1, 0, 0, 0, 0, 0));
+        final String afterOuter = describe(ga);
+
+        int inner = j.mark();
+        placeSomeRoads(ga, pl, true);
+        assertNotEquals(afterOuter, describe(ga));
+        j.rollback(inner);
+        assertEquals(afterOuter, describe(ga));
+
+        inner = j.mark();
+        placeSomeRoads(ga, pl, false);
+        pl.getInventory().removeDevCard(SOCInventory.OLD, SOCDevCardConstants.KNIGHT);
+        j.release(inner);
+        assertNotEquals(afterOuter, describe(ga));
+
+        j.rollback(outer);
+        assertEquals(before, describe(ga));
+        assertEquals(0, j.size());
+    }
+
+    /**
+     * Rolling back temporary pieces also rolls back their changes to the stack used by
+     * {@link SOCGame#undoPutTempPiece(SOCPlayingPiece)}, including a temp piece placed before the mark
+     * and removed after it.
+     */
+    @Test
+    public void testTempPieceRollback()
+        throws Exception
+    {
+        final SOCGame ga = loadGame("classic-botturn.game.json");
+        final SOCPlayer pl = ga.getPlayer(ga.getCurrentPlayerNumber());
+        final SOCBoard board = ga.getBoard();
+        final SOCGameJournal j = ga.startJournal();
+        assertEquals(0, ga.getTempPieceCount());
+
+        SOCRoad rd = null;
+        for (int edge = 0; (rd == null) && (edge <= 0xFF); ++edge)
+            if (pl.isPotentialRoad(edge))
+                rd = new SOCRoad(pl, edge, board);
+        assertNotNull(rd);
+        ga.putTempPiece(rd);
+        assertEquals(1, ga.getTempPieceCount());
+        final String before = describe(ga);
+
+        int mark = j.mark();
+        placeSomeRoads(ga, pl, true);
+        assertTrue(ga.getTempPieceCount() > 1);
+        j.rollback(mark);
+        assertEquals(1, ga.getTempPieceCount());
+        assertEquals(before, describe(ga));
+
+        mark = j.mark();
+        ga.undoPutTempPiece(rd);
+        assertEquals(0, ga.getTempPieceCount());
+        j.rollback(mark);
+        assertEquals(1, ga.getTempPieceCount());
+        assertEquals(before, describe(ga));
+
+        ga.undoPutTempPiece(rd);
+        assertEquals(0, ga.getTempPieceCount());
+    }
+
+    /**
+     * A player's resources with a negative {@link soc.game.SOCResourceConstants#UNKNOWN} amount
+     * can't be packed; mark and rollback should still work.
+     */
+    @Test
+    public void testNegativeUnknown()
+        throws Exception
+    {
+        final SOCGame ga = loadGame("classic-botturn.game.json");
+        final SOCPlayer pl = ga.getPlayer(ga.getCurrentPlayerNumber());
+        final SOCResourceSet rs = pl.getResources();
+        rs.clear();
+        rs.add(new SOCResourceSet(1, 2, 0, 0, 0, 0));
+        rs.subtract(3, SOCResourceConstants.WOOD, false);  // takes "excess" from unknown
+        assertEquals(-3, rs.getAmount(SOCResourceConstants.UNKNOWN));
+        final String before = describe(ga);
+
+        final SOCGameJournal j = ga.startJournal();
+        int mark = j.mark();
+        rs.add(new SOCResourceSet(0, 0, 4, 0, 0, 5));
+        assertNotEquals(before, describe(ga));
+        j.rollback(mark);
+        assertEquals(before, describe(ga));
+        assertEquals(-3, rs.getAmount(SOCResourceConstants.UNKNOWN));
+
+        // packed at mark, not packable at rollback
+        rs.add(3, SOCResourceConstants.UNKNOWN);
+        final String beforePacked = describe(ga);
+        mark = j.mark();
+        rs.subtract(1, SOCResourceConstants.WOOD, false);
+        assertEquals(-1, rs.getAmount(SOCResourceConstants.UNKNOWN));
+        j.rollback(mark);
+        assertEquals(beforePacked, describe(ga));
+        assertEquals(0, j.size());
+    }
+
+    /** Place up to 3 roads for this player at potential road edges; see {@link SOCGame#putTempPiece(SOCPlayingPiece)}. */
+    private static void placeSomeRoads(final SOCGame ga, final SOCPlayer pl, final boolean asTemp)
+    {
+        final SOCBoard board = ga.getBoard();
+        int n = 0;
+        for (int edge = 0; (n < 3) && (edge <= 0xFFFF); ++edge)
+        {
+            if (! pl.isPotentialRoad(edge))
+                continue;
+
+            final SOCRoad rd = new SOCRoad(pl, edge, board);
+            if (asTemp)
+                ga.putTempPiece(rd);
+            else
+                ga.putPiece(rd);
+            ++n;
+        }
+        assertTrue(n > 0);
+    }
+
+    /** Describe the game's fields tracked by {@link SOCGameJournal}, its pieces, and players' potentials. */
+    private static String describe(final SOCGame ga)
+    {
+        final SOCBoard board = ga.getBoard();
+        final StringBuilder sb = new StringBuilder();
+        sb.append("gs=").append(ga.getGameState()).append(" old=").append(ga.getOldGameState())
+          .append(" cpn=").append(ga.getCurrentPlayerNumber())
+          .append(" dice=").append(ga.getCurrentDice()).append(" rounds=").append(ga.getRoundCount())
+          .append(" turns=").append(ga.getTurnCount())
+          .append(" numDevCards=").append(ga.getNumDevCards())
+          .append(" LR=").append(ga.getPlayerWithLongestRoad()).append(" LA=").append(ga.getPlayerWithLargestArmy())
+          .append(" robber=").append(board.getRobberHex()).append('/').append(board.getPreviousRobberHex())
+          .append(" lastAction=").append(ga.getLastAction());
+
+        final List<String> pieces = new ArrayList<>();
+        for (SOCRoutePiece rs : board.getRoadsAndShips())
+            pieces.add(rs.toString());
+        for (SOCPlayingPiece pp : board.getSettlements())
+            pieces.add(pp.toString());
+        for (SOCPlayingPiece pp : board.getCities())
+            pieces.add(pp.toString());
+        sb.append("\npieces=").append(new TreeSet<>(pieces));
+
+        for (int pn = 0; pn < ga.maxPlayers; ++pn)
+        {
+            final SOCPlayer pl = ga.getPlayer(pn);
+            sb.append("\npn ").append(pn).append(": rsrcs=").append(pl.getResources())
+              .append(" LR=").append(pl.getLongestRoadLength()).append(" knights=").append(pl.getNumKnights())
+              .append(" playedDevCard=").append(pl.hasPlayedDevCard())
+              .append(" VP=").append(pl.getTotalVP())
+              .append(" numPieces=").append(pl.getNumPieces(SOCPlayingPiece.ROAD))
+              .append(',').append(pl.getNumPieces(SOCPlayingPiece.SETTLEMENT))
+              .append(',').append(pl.getNumPieces(SOCPlayingPiece.CITY))
+              .append(" potentialSettles=").append(new TreeSet<>(pl.getPotentialSettlements()))
+              .append(" legalSettles=").append(new TreeSet<>(pl.getLegalSettlements()));
+            final SOCInventory inv = pl.getInventory();
+            sb.append(" devCards=");
+            for (int ctype = 0; ctype < SOCDevCardConstants.MAXPLUSONE; ++ctype)
+                sb.append(inv.getAmountByState(SOCInventory.NEW, ctype)).append('/')
+                  .append(inv.getAmountByState(SOCInventory.PLAYABLE, ctype)).append('/')
+                  .append(inv.getAmountByState(SOCInventory.KEPT, ctype)).append(' ');
+        }
+
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.game;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import soc.game.HexClumpChecker;
+import soc.game.SOCBoard;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link HexClumpChecker}.
+ * @since 2.7.00
+ */
+public class TestHexClumpChecker
+{
+    /** Adjacency for a row of {@code n} hexes, each adjacent to the ones before and after it. */
+    private static int[][] row(final int n)
+    {
+        final int[][] adj = new int[n][];
+        for (int i = 0; i < n; ++i)
+        {
+            if (i == 0)
+                adj[i] = new int[]{ 1 };
+            else if (i == n - 1)
+                adj[i] = new int[]{ n - 2 };
+            else
+                adj[i] = new int[]{ i - 1, i + 1 };
+        }
+
+        return adj;
+    }
+
+    /** Finds clumps at the size limit, but not smaller ones or water; clumpSize &lt; 3 never finds any. */
+    @Test
+    public void testFindClump()
+    {
+        final int W = SOCBoard.WATER_HEX, C = SOCBoard.CLAY_HEX, O = SOCBoard.ORE_HEX;
+        final HexClumpChecker hc = new HexClumpChecker(row(7), 3);
+
+        assertFalse(hc.hasClumps(new int[]{ C, C, O, C, C, O, O }));
+        assertFalse(hc.hasClumps(new int[]{ W, W, W, W, C, O, C }));
+        final int i = hc.findClump(new int[]{ O, C, O, C, C, C, O });
+        assertTrue("found at " + i, (i >= 3) && (i <= 5));
+
+        assertFalse(new HexClumpChecker(row(4), 2).hasClumps(new int[]{ C, C, C, C }));
+    }
+
+    /** Repair breaks up clumps by swapping, keeping the same hex types. */
+    @Test
+    public void testRepair()
+    {
+        final int C = SOCBoard.CLAY_HEX, O = SOCBoard.ORE_HEX, S = SOCBoard.SHEEP_HEX, W = SOCBoard.WATER_HEX;
+        final Random rand = new Random(42);
+        final HexClumpChecker hc = new HexClumpChecker(row(9), 3);
+
+        final int[] types = { C, C, C, O, O, O, S, S, W };
+        final int[] sorted = types.clone();
+        Arrays.sort(sorted);
+
+        assertTrue(hc.hasClumps(types));
+        assertTrue(hc.repair(types, rand));
+        assertFalse(hc.hasClumps(types));
+        assertTrue(hc.getSwapCount() > 0);
+
+        final int[] after = types.clone();
+        Arrays.sort(after);
+        assertArrayEquals(sorted, after);
+
+        // no possible layout without clumps: repair gives up
+        assertFalse(hc.repair(new int[]{ C, C, C, C, C, C, C, O, O }, rand));
+    }
+
+}
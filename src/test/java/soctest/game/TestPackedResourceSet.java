@@ -0,0 +1,189 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.game;
+
+import java.util.Random;
+
+import soc.game.PackedResourceSet;
+import soc.game.SOCResourceConstants;
+import soc.game.SOCResourceSet;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PackedResourceSet}, including comparisons against {@link SOCResourceSet}.
+ * @since 2.7.00
+ */
+public class TestPackedResourceSet
+{
+    /** Tests for {@link PackedResourceSet#pack(soc.game.ResourceSet)}, {@link PackedResourceSet#toResourceSet(long)}. */
+    @Test
+    public void packUnpack()
+    {
+        assertEquals(PackedResourceSet.EMPTY, PackedResourceSet.pack(null));
+        assertEquals(PackedResourceSet.EMPTY, PackedResourceSet.pack(new SOCResourceSet()));
+
+        final SOCResourceSet rs = new SOCResourceSet(1, 2, 3, 4, 5, 6);
+        final long p = PackedResourceSet.pack(rs);
+        assertEquals(p, PackedResourceSet.pack(1, 2, 3, 4, 5, 6));
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.UNKNOWN; ++rtype)
+            assertEquals(rtype, PackedResourceSet.getAmount(p, rtype));
+        assertEquals(rs, PackedResourceSet.toResourceSet(p));
+        assertEquals(rs.toString(), PackedResourceSet.toString(p));
+        assertEquals(15, PackedResourceSet.getKnownTotal(p));
+        assertEquals(21, PackedResourceSet.getTotal(p));
+        assertFalse(PackedResourceSet.isEmpty(p));
+        assertTrue(p > 0);
+
+        final long pmax = PackedResourceSet.pack(511, 511, 511, 511, 511, 511);
+        assertTrue(pmax > 0);
+        assertEquals(511, PackedResourceSet.getAmount(pmax, SOCResourceConstants.UNKNOWN));
+    }
+
+    /** {@link PackedResourceSet#pack(int, int, int, int, int, int)} should reject out-of-range amounts. */
+    @Test
+    public void packOutOfRange()
+    {
+        try
+        {
+            PackedResourceSet.pack(0, -1, 0, 0, 0, 0);
+            fail("should reject negative amount");
+        } catch (IllegalArgumentException e) {}
+
+        try
+        {
+            PackedResourceSet.pack(new SOCResourceSet(0, 0, 0, 0, PackedResourceSet.MAX_AMOUNT + 1, 0));
+            fail("should reject amount > MAX_AMOUNT");
+        } catch (IllegalArgumentException e) {}
+    }
+
+    /**
+     * {@link PackedResourceSet#packClamped(soc.game.ResourceSet)} should clip out-of-range amounts,
+     * such as a player's negative {@link SOCResourceConstants#UNKNOWN}, instead of throwing an exception.
+     */
+    @Test
+    public void packClamped()
+    {
+        assertEquals(PackedResourceSet.EMPTY, PackedResourceSet.packClamped(null));
+
+        final SOCResourceSet rs = new SOCResourceSet(1, 2, 0, 0, 0, 0);
+        rs.subtract(3, SOCResourceConstants.SHEEP, false);  // takes "excess" from unknown
+        assertEquals(-3, rs.getAmount(SOCResourceConstants.UNKNOWN));
+        assertEquals(PackedResourceSet.pack(1, 2, 0, 0, 0, 0), PackedResourceSet.packClamped(rs));
+
+        rs.add(PackedResourceSet.MAX_AMOUNT + 10, SOCResourceConstants.WOOD);
+        assertEquals
+            (PackedResourceSet.pack(1, 2, 0, 0, PackedResourceSet.MAX_AMOUNT, 0), PackedResourceSet.packClamped(rs));
+    }
+
+    /** {@code add} methods should clip at {@link PackedResourceSet#MAX_AMOUNT} without changing other types. */
+    @Test
+    public void addOverflow()
+    {
+        final int max = PackedResourceSet.MAX_AMOUNT;
+        final long p = PackedResourceSet.pack(max - 1, max, 0, 5, 0, max);
+        assertEquals(PackedResourceSet.pack(max, max, 0, 5, 0, max),
+            PackedResourceSet.add(p, 3, SOCResourceConstants.CLAY));
+        assertEquals(PackedResourceSet.pack(max - 1, max, 0, 5, 0, max),
+            PackedResourceSet.add(p, 1, SOCResourceConstants.UNKNOWN));
+        assertEquals(PackedResourceSet.pack(max - 1, max, 0, 0, 0, max),
+            PackedResourceSet.add(p, -9, SOCResourceConstants.WHEAT));
+
+        assertEquals(PackedResourceSet.pack(max, max, 1, 10, 2, max),
+            PackedResourceSet.add(p, PackedResourceSet.pack(2, max, 1, 5, 2, 1)));
+        final long pmax = PackedResourceSet.pack(max, max, max, max, max, max);
+        assertEquals(pmax, PackedResourceSet.add(pmax, pmax));
+    }
+
+    /** Tests for single-type {@code contains}, {@code add} and {@code subtract}. */
+    @Test
+    public void singleTypeOps()
+    {
+        long p = PackedResourceSet.EMPTY;
+        assertFalse(PackedResourceSet.contains(p, SOCResourceConstants.WHEAT));
+        p = PackedResourceSet.add(p, 3, SOCResourceConstants.WHEAT);
+        assertTrue(PackedResourceSet.contains(p, SOCResourceConstants.WHEAT));
+        assertFalse(PackedResourceSet.contains(p, SOCResourceConstants.SHEEP));
+        assertEquals(3, PackedResourceSet.getAmount(p, SOCResourceConstants.WHEAT));
+
+        p = PackedResourceSet.subtract(p, 2, SOCResourceConstants.WHEAT);
+        assertEquals(1, PackedResourceSet.getAmount(p, SOCResourceConstants.WHEAT));
+        p = PackedResourceSet.subtract(p, 5, SOCResourceConstants.WHEAT);  // clips at 0
+        assertEquals(PackedResourceSet.EMPTY, p);
+    }
+
+    /**
+     * Compare whole-set {@link PackedResourceSet#contains(long, long)}, {@link PackedResourceSet#add(long, long)},
+     * and {@link PackedResourceSet#subtract(long, long)} against the same {@link SOCResourceSet} methods
+     * for many random sets, including 0 and {@link PackedResourceSet#MAX_AMOUNT} field values.
+     */
+    @Test
+    public void setOpsMatchResourceSet()
+    {
+        final Random rand = new Random(2700);
+
+        for (int i = 0; i < 5000; ++i)
+        {
+            final SOCResourceSet a = randomSet(rand), b = randomSet(rand);
+            final long pa = PackedResourceSet.pack(a), pb = PackedResourceSet.pack(b);
+
+            assertEquals(a + " contains " + b, a.contains(b), PackedResourceSet.contains(pa, pb));
+            assertEquals(b + " contains " + a, b.contains(a), PackedResourceSet.contains(pb, pa));
+            assertTrue(PackedResourceSet.contains(pa, pa));
+
+            SOCResourceSet diff = a.copy();
+            diff.subtract(b);
+            assertEquals(a + " - " + b, diff, PackedResourceSet.toResourceSet(PackedResourceSet.subtract(pa, pb)));
+
+            final SOCResourceSet half = new SOCResourceSet
+                (a.getAmount(1) / 2, a.getAmount(2) / 2, a.getAmount(3) / 2,
+                 a.getAmount(4) / 2, a.getAmount(5) / 2, a.getAmount(6) / 2);
+            SOCResourceSet sum = half.copy();
+            sum.add(half);
+            final long ph = PackedResourceSet.pack(half);
+            assertEquals(sum, PackedResourceSet.toResourceSet(PackedResourceSet.add(ph, ph)));
+        }
+    }
+
+    /** Random set whose amounts are often 0, small, or {@link PackedResourceSet#MAX_AMOUNT}. */
+    private static SOCResourceSet randomSet(final Random rand)
+    {
+        final int[] amts = new int[6];
+        for (int i = 0; i < 6; ++i)
+        {
+            switch (rand.nextInt(4))
+            {
+            case 0:
+                amts[i] = 0;  break;
+            case 1:
+                amts[i] = PackedResourceSet.MAX_AMOUNT - rand.nextInt(2);  break;
+            case 2:
+                amts[i] = rand.nextInt(PackedResourceSet.MAX_AMOUNT + 1);  break;
+            default:
+                amts[i] = rand.nextInt(5);
+            }
+        }
+
+        return new SOCResourceSet(amts[0], amts[1], amts[2], amts[3], amts[4], amts[5]);
+    }
+
+}
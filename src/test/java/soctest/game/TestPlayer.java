@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import soc.game.PackedResourceSet;
 import soc.game.SOCBoard;
 import soc.game.SOCBoardLarge;
 import soc.game.SOCCity;
@@ -232,6 +233,37 @@ public class TestPlayer
         assertEquals("discard should round down", 4, pl.getCountToDiscard());
     }
 
+    /**
+     * {@link SOCPlayer#addRolledResources(long)} has the same results as
+     * {@link SOCPlayer#addRolledResources(SOCResourceSet)}, including gold hex resources on the sea board.
+     * @since 2.7.00
+     */
+    @Test
+    public void testAddRolledResourcesPacked()
+    {
+        final SOCGameOptionSet knownOpts = SOCGameOptionSet.getAllKnownOptions();
+        for (final boolean isSea : new boolean[]{ false, true })
+        {
+            final SOCGameOptionSet opts = (isSea) ? SOCGameOption.parseOptionsToSet("SBL=t", knownOpts) : null;
+            final SOCGame ga = new SOCGame("test", opts, knownOpts);
+            assertEquals(isSea, ga.hasSeaBoard);
+            final SOCPlayer plSet = ga.getPlayer(1), plPacked = ga.getPlayer(2);
+            final SOCResourceSet rolled = new SOCResourceSet(1, 0, 2, 0, 1, (isSea) ? 2 : 0);
+
+            plSet.addRolledResources(rolled.copy());
+            plPacked.addRolledResources(PackedResourceSet.pack(rolled));
+            plSet.addRolledResources(rolled.copy());
+            plPacked.addRolledResources(PackedResourceSet.pack(rolled));
+
+            assertEquals(plSet.getResources(), plPacked.getResources());
+            assertEquals(plSet.getRolledResources(), plPacked.getRolledResources());
+            assertArrayEquals(plSet.getResourceRollStats(), plPacked.getResourceRollStats());
+            assertEquals(plSet.getNeedToPickGoldHexResources(), plPacked.getNeedToPickGoldHexResources());
+            assertEquals((isSea) ? 4 : 0, plPacked.getNeedToPickGoldHexResources());
+            assertEquals(8, plPacked.getResources().getTotal());
+        }
+    }
+
     @Test
     public void testInventoryDevCardsVP()
     {
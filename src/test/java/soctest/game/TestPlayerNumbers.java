@@ -0,0 +1,157 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.game;
+
+import java.util.Arrays;
+import java.util.Vector;
+
+import soc.game.SOCBoardLarge;
+import soc.game.SOCPlayerNumbers;
+import soc.game.SOCResourceConstants;
+import soc.util.IntPair;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SOCPlayerNumbers}: Count-array accessors, their Vector equivalents,
+ * robber hex, gold hexes, and undo.
+ * @since 2.7.00
+ */
+public class TestPlayerNumbers
+{
+    private static final int HEX_A = 0x0703, HEX_B = 0x0705, HEX_GOLD = 0x0907, HEX_NOT_LAND = 0x0B09;
+
+    /** Numbers on a sea board, with land hexes {@link #HEX_A}, {@link #HEX_B}, {@link #HEX_GOLD}. */
+    private static SOCPlayerNumbers newSeaBoardNumbers()
+    {
+        final SOCPlayerNumbers pn = new SOCPlayerNumbers
+            (new SOCBoardLarge(null, 4, SOCBoardLarge.getBoardSize(null)));
+        pn.setLandHexCoordinates(new int[]{HEX_A, HEX_B, HEX_GOLD});
+        assertTrue(pn.hasSeaBoard);
+
+        return pn;
+    }
+
+    /** Add and undo some numbers; check count arrays and Vector getters agree. */
+    @Test
+    public void testAddUndo()
+    {
+        final SOCPlayerNumbers pn = newSeaBoardNumbers();
+        assertFalse(pn.hasNumber(6));
+        assertTrue(pn.hasNoResourcesForHex(HEX_A));
+        assertNull(pn.getNumberResourcePairsForHex(HEX_A));
+
+        pn.addNumberForResource(6, SOCResourceConstants.WHEAT, HEX_A);
+        pn.addNumberForResource(6, SOCResourceConstants.WHEAT, HEX_A);  // city
+        pn.addNumberForResource(9, SOCResourceConstants.ORE, HEX_B);
+        pn.addNumberForResource(3, SOCBoardLarge.WATER_HEX, HEX_NOT_LAND);  // ignored
+
+        assertTrue(pn.hasNumber(6));
+        assertTrue(pn.hasNumber(9));
+        assertFalse(pn.hasNumber(3));
+        assertEquals(2, pn.getResourceCountsForNumber(6)[SOCResourceConstants.WHEAT]);
+        assertEquals(0, pn.getResourceCountsForNumber(6)[SOCResourceConstants.ORE]);
+        assertEquals(2, pn.getNumberCountsForResource(SOCResourceConstants.WHEAT)[6]);
+        assertEquals(1, pn.getNumberCountsForResource(SOCResourceConstants.ORE)[9]);
+        assertEquals
+            (Arrays.asList(SOCResourceConstants.WHEAT, SOCResourceConstants.WHEAT), pn.getResourcesForNumber(6));
+        assertEquals(Arrays.asList(6, 6), pn.getNumbersForResource(SOCResourceConstants.WHEAT));
+        assertFalse(pn.hasNoResourcesForHex(HEX_A));
+        assertTrue(pn.hasNoResourcesForHex(HEX_NOT_LAND));
+
+        Vector<IntPair> pairs = pn.getNumberResourcePairsForHex(HEX_A);
+        assertEquals(2, pairs.size());
+        assertEquals(6, pairs.get(0).getA());
+        assertEquals(SOCResourceConstants.WHEAT, pairs.get(0).getB());
+
+        // copy constructor is a deep copy
+        final SOCPlayerNumbers pnCopy = new SOCPlayerNumbers(pn);
+
+        pn.undoAddNumberForResource(6, SOCResourceConstants.WHEAT, HEX_A);
+        assertEquals(1, pn.getResourceCountsForNumber(6)[SOCResourceConstants.WHEAT]);
+        assertEquals(1, pn.getNumberResourcePairsForHex(HEX_A).size());
+        pn.undoAddNumberForResource(6, SOCResourceConstants.WHEAT, HEX_A);
+        assertFalse(pn.hasNumber(6));
+        assertTrue(pn.hasNoResourcesForHex(HEX_A));
+        assertTrue(pn.getNumbersForResource(SOCResourceConstants.WHEAT).isEmpty());
+
+        assertEquals(2, pnCopy.getResourceCountsForNumber(6)[SOCResourceConstants.WHEAT]);
+        assertEquals(2, pnCopy.getNumberResourcePairsForHex(HEX_A).size());
+
+        pn.clear();
+        assertFalse(pn.hasNumber(9));
+        assertTrue(pn.hasNoResourcesForHex(HEX_B));
+    }
+
+    /** Gold hex gives 1 of each resource type, and undo removes all 5. */
+    @Test
+    public void testGoldHex()
+    {
+        final SOCPlayerNumbers pn = newSeaBoardNumbers();
+        pn.addNumberForResource(8, SOCBoardLarge.GOLD_HEX, HEX_GOLD);
+        pn.addNumberForResource(8, SOCResourceConstants.SHEEP, HEX_B);
+
+        final int[] counts = pn.getResourceCountsForNumber(8);
+        for (int res = SOCResourceConstants.CLAY; res <= SOCResourceConstants.WOOD; ++res)
+        {
+            assertEquals((res == SOCResourceConstants.SHEEP) ? 2 : 1, counts[res]);
+            assertEquals(((res == SOCResourceConstants.SHEEP) ? 2 : 1), pn.getNumberCountsForResource(res)[8]);
+        }
+        assertEquals(6, pn.getResourcesForNumber(8).size());
+        assertEquals(SOCBoardLarge.GOLD_HEX, pn.getNumberResourcePairsForHex(HEX_GOLD).get(0).getB());
+
+        pn.undoAddNumberForResource(8, SOCBoardLarge.GOLD_HEX, HEX_GOLD);
+        assertEquals(Arrays.asList(SOCResourceConstants.SHEEP), pn.getResourcesForNumber(8));
+        assertTrue(pn.hasNoResourcesForHex(HEX_GOLD));
+    }
+
+    /** Robber-hex variants leave out that hex, and hexes which aren't land. */
+    @Test
+    public void testRobberHex()
+    {
+        final SOCPlayerNumbers pn = newSeaBoardNumbers();
+        pn.addNumberForResource(5, SOCResourceConstants.CLAY, HEX_A);
+        pn.addNumberForResource(5, SOCResourceConstants.CLAY, HEX_B);
+        pn.addNumberForResource(5, SOCBoardLarge.GOLD_HEX, HEX_GOLD);
+        pn.addNumberForResource(5, SOCResourceConstants.CLAY, HEX_NOT_LAND);
+
+        final int[] rCounts = new int[SOCResourceConstants.WOOD + 1];
+        pn.getResourceCountsForNumber(5, HEX_A, rCounts);
+        assertEquals(2, rCounts[SOCResourceConstants.CLAY]);  // HEX_B, gold
+        assertEquals(1, rCounts[SOCResourceConstants.WOOD]);  // gold
+        assertEquals(4, pn.getResourceCountsForNumber(5)[SOCResourceConstants.CLAY]);  // not affected
+
+        pn.getResourceCountsForNumber(5, HEX_GOLD, rCounts);
+        assertEquals(2, rCounts[SOCResourceConstants.CLAY]);
+        assertEquals(0, rCounts[SOCResourceConstants.WOOD]);
+        assertEquals
+            (Arrays.asList(SOCResourceConstants.CLAY, SOCResourceConstants.CLAY), pn.getResourcesForNumber(5, HEX_GOLD));
+
+        final int[] nCounts = new int[13];
+        pn.getNumberCountsForResource(SOCResourceConstants.CLAY, HEX_B, nCounts);
+        assertEquals(2, nCounts[5]);
+        assertEquals(Arrays.asList(5, 5), pn.getNumbersForResource(SOCResourceConstants.CLAY, HEX_B));
+        pn.getNumberCountsForResource(SOCResourceConstants.ORE, HEX_GOLD, nCounts);
+        assertEquals(0, nCounts[5]);
+    }
+
+}
@@ -0,0 +1,267 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.game;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import soc.game.SOCBoard;
+import soc.game.SOCBoardLarge;
+import soc.game.SOCGame;
+import soc.game.SOCPlayer;
+import soc.game.SOCPlayingPiece;
+import soc.game.SOCRoad;
+import soc.game.SOCRoutePiece;
+import soc.game.SOCSettlement;
+import soc.game.SOCShip;
+import soc.server.SOCServer;
+import soc.server.savegame.SavedGameModel;
+import soctest.server.savegame.TestLoadgame;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Differential tests for the localized updates to players' potential and legal settlements, roads, and ships
+ * done by {@link SOCPlayer#updatePotentials(SOCPlayingPiece)} and {@link SOCPlayer#undoPutPiece(SOCPlayingPiece, boolean)}
+ * when pieces are placed or removed. Loads savegame test artifacts, including those saved at the end of
+ * the recorder's test games, places and removes random pieces, and compares the results against
+ * a full recompute from the board's pieces, and against the sets from before any placements.
+ * @since 2.7.00
+ */
+public class TestPlayerPotentials
+{
+    /** Savegame artifacts to test; loadable and all in play state, on classic, 6-player, and sea boards */
+    private static final String[] SAVEGAMES =
+        {
+            "all-basic-actions-first-turn.game.json", "all-basic-actions-over.game.json",
+            "classic-botturn.game.json", "classic-over.game.json", "devcard-stats.game.json",
+            "reletest-longest-3p.game.json", "reletest-longest-3p-sea.game.json", "reletest-longest-joinships.game.json",
+            "test6p-sbp.game.json", "testscen-simple-4isl.game.json", "testsea-closed.game.json"
+        };
+
+    /** Number of random placements per savegame */
+    private static final int PLACEMENTS = 40;
+
+    /** dummy server, to avoid IllegalStateException etc from GameLoaderJSON */
+    private static SOCServer srv;
+
+    @BeforeClass
+    public static void setup()
+        throws Exception
+    {
+        srv = new SOCServer("dummy", 0, null, null);
+    }
+
+    /**
+     * For each savegame, place random pieces as temporary pieces, then undo them in reverse order.
+     * After each placement and removal, check each player's legal and potential settlements
+     * against {@link #checkSettlementsFullRecompute(SOCGame, String)}.
+     * After all are removed, each player's potential and legal settlements and potential cities
+     * should be the same as before.
+     */
+    @Test
+    public void testPlaceAndUndoVsFullRecompute()
+        throws Exception
+    {
+        final Random rand = new Random(2700);
+
+        for (final String fname : SAVEGAMES)
+        {
+            final SavedGameModel sgm = TestLoadgame.load(fname, srv);
+            final SOCGame ga = sgm.getGame();
+            final SOCBoard board = ga.getBoard();
+            final int[] nodes = allNodes(board);
+            final int[] edges = allEdges(board);
+
+            checkSettlementsFullRecompute(ga, fname + " as loaded");
+            final String[] before = new String[ga.maxPlayers];
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                before[pn] = potentialsAndLegals(ga.getPlayer(pn), nodes);
+
+            final List<SOCPlayingPiece> placed = new ArrayList<>();
+            for (int i = 0; i < PLACEMENTS; ++i)
+            {
+                final SOCPlayer pl = ga.getPlayer(rand.nextInt(ga.maxPlayers));
+                final SOCPlayingPiece pp = randomPotentialPiece(pl, board, edges, rand);
+                if (pp == null)
+                    continue;
+
+                ga.putTempPiece(pp);
+                placed.add(pp);
+                checkSettlementsFullRecompute(ga, fname + " after placing " + pp);
+            }
+
+            for (int i = placed.size() - 1; i >= 0; --i)
+            {
+                final SOCPlayingPiece pp = placed.get(i);
+                ga.undoPutTempPiece(pp);
+                checkSettlementsFullRecompute(ga, fname + " after removing " + pp);
+            }
+
+            for (int pn = 0; pn < ga.maxPlayers; ++pn)
+                assertEquals
+                    (fname + ": pn " + pn + " after undoing all placements",
+                     before[pn], potentialsAndLegals(ga.getPlayer(pn), nodes));
+        }
+    }
+
+    /**
+     * Check each player's legal and potential settlements against a full recompute, which
+     * scans all pieces on the board: A legal node must have no settlement or city at or adjacent to it,
+     * and a potential settlement is a legal node touching one of the player's roads or ships.
+     * Since some nodes are never legal (scenario land areas, etc), the recompute can't know
+     * all legal nodes; instead it checks that each node near a board piece is correct.
+     */
+    private static void checkSettlementsFullRecompute(final SOCGame ga, final String desc)
+    {
+        final SOCBoard board = ga.getBoard();
+
+        final Set<Integer> occupiedOrAdjacent = new HashSet<>();
+        final List<SOCPlayingPiece> settlesAndCities = new ArrayList<>(board.getSettlements());
+        settlesAndCities.addAll(board.getCities());
+        for (SOCPlayingPiece pp : settlesAndCities)
+        {
+            final int node = pp.getCoordinates();
+            occupiedOrAdjacent.add(node);
+            occupiedOrAdjacent.addAll(board.getAdjacentNodesToNode(node));
+        }
+
+        for (int pn = 0; pn < ga.maxPlayers; ++pn)
+        {
+            final SOCPlayer pl = ga.getPlayer(pn);
+            final Set<Integer> legal = pl.getLegalSettlements(), potential = pl.getPotentialSettlements();
+
+            final Set<Integer> routeNodes = new HashSet<>();
+            for (SOCRoutePiece rs : board.getRoadsAndShips())
+                if (rs.getPlayerNumber() == pn)
+                    for (final int node : board.getAdjacentNodesToEdge_arr(rs.getCoordinates()))
+                        routeNodes.add(node);
+
+            for (final Integer node : occupiedOrAdjacent)
+            {
+                assertFalse(desc + ": pn " + pn + " legal node 0x" + Integer.toHexString(node), legal.contains(node));
+                assertFalse
+                    (desc + ": pn " + pn + " potential node 0x" + Integer.toHexString(node), potential.contains(node));
+            }
+
+            for (final Integer node : routeNodes)
+                if (legal.contains(node))
+                    assertTrue
+                        (desc + ": pn " + pn + " should have potential node 0x" + Integer.toHexString(node),
+                         potential.contains(node));
+
+            for (final Integer node : potential)
+            {
+                assertTrue(desc + ": pn " + pn + " potential not legal: 0x" + Integer.toHexString(node),
+                    legal.contains(node));
+                assertTrue(desc + ": pn " + pn + " potential not at a road/ship: 0x" + Integer.toHexString(node),
+                    routeNodes.contains(node));
+            }
+        }
+    }
+
+    /**
+     * Pick a random potential settlement, road, or ship for this player.
+     * @return a new piece, or {@code null} if player has no potentials or pieces of the type picked
+     */
+    private static SOCPlayingPiece randomPotentialPiece
+        (final SOCPlayer pl, final SOCBoard board, final int[] edges, final Random rand)
+    {
+        if (rand.nextBoolean() && (pl.getNumPieces(SOCPlayingPiece.SETTLEMENT) > 0))
+        {
+            final int[] ps = pl.getPotentialSettlements_arr();
+            if ((ps != null) && (ps.length > 0))
+                return new SOCSettlement(pl, ps[rand.nextInt(ps.length)], board);
+        }
+
+        final boolean ship = (board instanceof SOCBoardLarge) && rand.nextBoolean();
+        if (pl.getNumPieces(ship ? SOCPlayingPiece.SHIP : SOCPlayingPiece.ROAD) == 0)
+            return null;
+
+        final List<Integer> pe = new ArrayList<>();
+        for (final int edge : edges)
+            if (ship ? pl.isPotentialShip(edge) : pl.isPotentialRoad(edge))
+                pe.add(edge);
+        if (pe.isEmpty())
+            return null;
+
+        final int edge = pe.get(rand.nextInt(pe.size()));
+        return (ship) ? new SOCShip(pl, edge, board) : new SOCRoad(pl, edge, board);
+    }
+
+    /** All land nodes on the board, sorted. */
+    private static int[] allNodes(final SOCBoard board)
+    {
+        final TreeSet<Integer> nodes = new TreeSet<>(board.initPlayerLegalSettlements());
+        final int[] arr = new int[nodes.size()];
+        int i = 0;
+        for (final int node : nodes)
+            arr[i++] = node;
+
+        return arr;
+    }
+
+    /**
+     * All edges where roads or ships could be placed on the board, sorted.
+     * For {@link SOCBoardLarge}, that's every coordinate within the board's size.
+     */
+    private static int[] allEdges(final SOCBoard board)
+    {
+        final TreeSet<Integer> edges = new TreeSet<>(board.initPlayerLegalRoads());
+        if (board instanceof SOCBoardLarge)
+            for (int r = 0; r <= board.getBoardHeight(); ++r)
+                for (int c = 0; c <= board.getBoardWidth(); ++c)
+                    edges.add((r << 8) | c);
+        final int[] arr = new int[edges.size()];
+        int i = 0;
+        for (final int edge : edges)
+            arr[i++] = edge;
+
+        return arr;
+    }
+
+    /**
+     * Summarize a player's potential and legal settlements, and potential cities at these nodes, for comparison.
+     * Doesn't include roads or ships, because undoing a road or ship placement sometimes leaves
+     * different (but still valid) legal coastal edges than before the placement.
+     */
+    private static String potentialsAndLegals(final SOCPlayer pl, final int[] nodes)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("legalSettles=").append(new TreeSet<>(pl.getLegalSettlements()));
+        sb.append(" potentialSettles=").append(new TreeSet<>(pl.getPotentialSettlements()));
+
+        final List<Integer> potCities = new ArrayList<>();
+        for (final int node : nodes)
+            if (pl.isPotentialCity(node))
+                potCities.add(node);
+        sb.append(" potentialCities=").append(potCities);
+
+        return sb.toString();
+    }
+
+}
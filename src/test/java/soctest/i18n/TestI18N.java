@@ -1,6 +1,6 @@
 /**
  * Java Settlers - An online multiplayer version of the game Settlers of Catan
- * This file Copyright (C) 2020 Jeremy D Monin <jeremy@nand.net>
+ * This file Copyright (C) 2020,2026 Jeremy D Monin <jeremy@nand.net>
  *
  * This program is free software; you can redistribute it and/or
  * modify it under the terms of the GNU General Public License
@@ -19,9 +19,17 @@
  **/
 package soctest.i18n;
 
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Locale;
+
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import soc.game.SOCDevCardConstants;
+import soc.game.SOCGame;
+import soc.game.SOCResourceConstants;
+import soc.game.SOCResourceSet;
 import soc.util.I18n;
 import soc.util.SOCStringManager;
 
@@ -146,6 +154,84 @@ public class TestI18N
         testDurationToDaysHoursMinutesSeconds_testOne(-1, "unused", "unused");  // any negative should throw exception
     }
 
+    /**
+     * Test that {@link SOCStringManager#get(String, Object...)}, which caches each key's parsed format,
+     * gives the same results as formatting directly, when called repeatedly and for different locales.
+     * @since 2.7.00
+     */
+    @Test
+    public void testServerStringsFormatCache()
+    {
+        final SOCStringManager smEn = SOCStringManager.getFallbackServerManagerForClient(),
+            smDe = SOCStringManager.getServerManagerForClient(new Locale("de"));
+        for (int i = 0; i < 3; ++i)
+        {
+            final String pname = "player" + i;
+            assertEquals(pname + " built a city.", smEn.get("action.built.city", pname));
+            assertEquals(pname + " hat eine Stadt gebaut.", smDe.get("action.built.city", pname));
+            assertEquals
+                (MessageFormat.format(smDe.get("action.built.road"), pname), smDe.get("action.built.road", pname));
+        }
+    }
+
+    /**
+     * Test {@link SOCStringManager#formatSpecial(SOCGame, String, Object...)}'s special parameter types
+     * with their cached {@link SOCStringManager.ParsedFormat}s, formatting each pattern twice.
+     * @since 2.7.00
+     */
+    @Test
+    public void testFormatSpecialParsed()
+    {
+        final SOCStringManager sm = new SOCStringManager(SOCStringManager.PROPS_PATH_SERVER_FOR_CLIENT, Locale.US);
+        assertEquals(0, sm.getFormatCacheSize());
+
+        int nCached = 0;
+        for (int i = 0; i < 2; ++i)
+        {
+            assertEquals("Joe gets 5 sheep.", sm.formatSpecial
+                (null, "{0} gets {1,rsrcs}.", "Joe", 5, SOCResourceConstants.SHEEP));
+            assertEquals("1 clay and an ore", sm.formatSpecial
+                (null, "{0,rsrcs} and {2,rsrcs}", 1, SOCResourceConstants.CLAY, -1, SOCResourceConstants.ORE));
+            assertEquals("Joe gave 1 clay and 2 sheep.", sm.formatSpecial
+                (null, "{1} gave {0,rsrcs}.", new SOCResourceSet(1, 0, 2, 0, 0, 0), "Joe"));
+            assertEquals("Joe gave nothing.", sm.formatSpecial
+                (null, "{1} gave {0,rsrcs}.", new SOCResourceSet(), "Joe"));
+            assertEquals("a, b, and c; 3 wood", sm.formatSpecial
+                (null, "{0,list}; {1,rsrcs}", Arrays.asList("a", "b", "c"), 3, SOCResourceConstants.WOOD));
+            assertEquals("Joe played a Road Building and 2 ore.", sm.formatSpecial
+                (null, "{0} played {1,dcards} and {2,rsrcs}.",
+                 "Joe", SOCDevCardConstants.ROADS, 2, SOCResourceConstants.ORE));
+            assertEquals("no specials 7", sm.formatSpecial(null, "no specials {0}", 7));
+
+            // cache also has the patterns used to localize special parameters
+            if (i == 0)
+            {
+                nCached = sm.getFormatCacheSize();
+                assertTrue(nCached >= 7);
+            } else {
+                assertEquals("second pass re-used cached formats", nCached, sm.getFormatCacheSize());
+            }
+        }
+
+        // key lookups also cache, and use the same formats as getSpecial
+        assertEquals("Joe built a city.", sm.get("action.built.city", "Joe"));
+        ++nCached;
+        assertEquals(nCached, sm.getFormatCacheSize());
+        assertEquals("Joe built a city.", sm.getSpecial(null, "action.built.city", "Joe"));
+        assertEquals(nCached, sm.getFormatCacheSize());
+
+        final SOCStringManager.ParsedFormat pf = SOCStringManager.ParsedFormat.parse("{0} {1,rsrcs} {2,list}");
+        assertTrue(pf.hasSpecials());
+        assertFalse(SOCStringManager.ParsedFormat.parse("{0} {1}").hasSpecials());
+
+        try
+        {
+            sm.formatSpecial(null, "missing brace 0,rsrcs}", 1, SOCResourceConstants.CLAY);
+            fail("should throw IllegalArgumentException");
+        } catch (IllegalArgumentException e) {}
+        assertEquals("unparseable pattern not cached", nCached, sm.getFormatCacheSize());
+    }
+
     public static void main(String[] args)
     {
         org.junit.runner.JUnitCore.main("soctest.i18n.TestI18N");
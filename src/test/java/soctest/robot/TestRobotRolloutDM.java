@@ -0,0 +1,134 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.robot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import soc.game.SOCPlayer;
+import soc.robot.SOCBuildingSpeedEstimateFactory;
+import soc.robot.SOCPossibleCity;
+import soc.robot.SOCPossiblePiece;
+import soc.robot.SOCPossibleSettlement;
+import soc.robot.SOCRobotRolloutDM;
+import soc.robot.SOCRolloutState;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SOCRobotRolloutDM}'s candidate ranking and playout time budget.
+ * @since 2.7.00
+ * @see TestRolloutState
+ */
+public class TestRobotRolloutDM
+{
+    /**
+     * {@link SOCRobotRolloutDM#awaitUntilDeadline(List, long)} returns at the overall deadline,
+     * not a deadline per task, and cancels the tasks still running then.
+     */
+    @Test
+    public void testAwaitUntilDeadline()
+        throws Exception
+    {
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        try
+        {
+            final List<Future<?>> futures = new ArrayList<Future<?>>();
+            futures.add(pool.submit(new Sleeper(0)));
+            for (int i = 0; i < 3; ++i)
+                futures.add(pool.submit(new Sleeper(10000)));
+
+            final long budgetNanos = TimeUnit.MILLISECONDS.toNanos(100), start = System.nanoTime();
+            assertTrue(SOCRobotRolloutDM.awaitUntilDeadline(futures, start + budgetNanos));
+            final long elapsed = System.nanoTime() - start;
+
+            assertTrue("returned too soon: " + elapsed, elapsed >= budgetNanos);
+            assertTrue("returned too late: " + elapsed, elapsed < budgetNanos + TimeUnit.MILLISECONDS.toNanos(50));
+            assertTrue(futures.get(0).isDone());
+            assertFalse(futures.get(0).isCancelled());
+            for (int i = 1; i < futures.size(); ++i)
+                assertTrue("task " + i + " cancelled", futures.get(i).isCancelled());
+
+            // deadline already passed: returns without waiting
+            final List<Future<?>> late = new ArrayList<Future<?>>();
+            late.add(pool.submit(new Sleeper(10000)));
+            assertTrue(SOCRobotRolloutDM.awaitUntilDeadline(late, System.nanoTime()));
+            assertTrue(late.get(0).isCancelled());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * {@link SOCRobotRolloutDM#pickBestByRollout(SOCRolloutState, List, int, int, int, Random)}
+     * prefers a city at a strong site over one at a weak site, whichever is the heuristic pick,
+     * and doesn't change the snapshot it plays out from.
+     */
+    @Test
+    public void testPickBestByRollout()
+    {
+        final SOCPlayer pl = TestRolloutState.makeStrongWeakPlayer();
+        final SOCBuildingSpeedEstimateFactory bsef = new SOCBuildingSpeedEstimateFactory(null);
+        final SOCPossibleCity strongCity = new SOCPossibleCity(pl, pl.getSettlements().get(0).getCoordinates(), bsef),
+            weakCity = new SOCPossibleCity(pl, pl.getSettlements().get(1).getCoordinates(), bsef);
+
+        final SOCRolloutState root = new SOCRolloutState(pl, Collections.<SOCPossibleSettlement>emptyList()),
+            rootCopy = new SOCRolloutState(root);
+        assertSame(strongCity, SOCRobotRolloutDM.pickBestByRollout
+            (root, Arrays.<SOCPossiblePiece>asList(weakCity, strongCity), 30000, 200, 300, new Random(42)));
+        assertSame(strongCity, SOCRobotRolloutDM.pickBestByRollout
+            (root, Arrays.<SOCPossiblePiece>asList(strongCity, weakCity), 30000, 200, 300, new Random(42)));
+        TestRolloutState.assertSameState(rootCopy, root);
+
+        // not enough time to compare
+        assertNull(SOCRobotRolloutDM.pickBestByRollout
+            (root, Arrays.<SOCPossiblePiece>asList(weakCity, strongCity), 0, 200, 300, new Random(42)));
+    }
+
+    /** Task which sleeps, or returns when interrupted. */
+    private static final class Sleeper implements Runnable
+    {
+        private final long ms;
+
+        Sleeper(final long ms)
+        {
+            this.ms = ms;
+        }
+
+        public void run()
+        {
+            try
+            {
+                Thread.sleep(ms);
+            }
+            catch (InterruptedException e) {}
+        }
+    }
+
+}
@@ -0,0 +1,295 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.robot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import soc.game.SOCBoard;
+import soc.game.SOCBoard4p;
+import soc.game.SOCGame;
+import soc.game.SOCPlayer;
+import soc.game.SOCResourceConstants;
+import soc.game.SOCResourceSet;
+import soc.game.SOCSettlement;
+import soc.robot.SOCBuildingSpeedEstimateFactory;
+import soc.robot.SOCPossibleRoad;
+import soc.robot.SOCPossibleSettlement;
+import soc.robot.SOCRolloutState;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SOCRolloutState} playouts, using seeded or scripted random numbers.
+ * @since 2.7.00
+ * @see TestRobotRolloutDM
+ */
+public class TestRolloutState
+{
+    private static final SOCBuildingSpeedEstimateFactory bsef = new SOCBuildingSpeedEstimateFactory(null);
+
+    private static final List<SOCPossibleSettlement> NO_SITES = Collections.emptyList();
+
+    /**
+     * Make a game whose board has 2 settlements for player 0: One at a node with strong dice numbers
+     * (6, 8, 6), one at a node with weak numbers (2, 12, 2); both nodes' hexes are ore, wheat, and sheep.
+     * Other land hexes are 3s, and their types cycle through clay, ore, sheep, wheat, wood.
+     * @return player 0; call {@link SOCPlayer#getSettlements()} for the strong and weak nodes, in that order
+     */
+    static SOCPlayer makeStrongWeakPlayer()
+    {
+        final SOCGame ga = new SOCGame("rollout");
+        ga.addPlayer("p", 0);
+        final SOCPlayer pl = ga.getPlayer(0);
+        final SOCBoard board = ga.getBoard();
+
+        final int[] hl = board.getHexLayout().clone(), nl = board.getNumberLayout().clone();
+        int htype = SOCBoard.CLAY_HEX;
+        for (final int hex : SOCBoard4p.HEXCOORDS_LAND_V1)
+        {
+            final int hnum = board.getHexNumFromCoord(hex);
+            hl[hnum] = htype;
+            nl[hnum] = 3;
+            htype = (htype < SOCBoard.WOOD_HEX) ? htype + 1 : SOCBoard.CLAY_HEX;
+        }
+        board.setHexLayout(hl);
+        board.setNumberLayout(nl);
+
+        // strong node: any node of center hex; weak node: a node with no hexes in common
+        final int strongNode = board.getAdjacentNodesToHex_arr(0x77)[0];
+        final List<Integer> strongHexes = board.getAdjacentHexesToNode(strongNode);
+        assertEquals(3, strongHexes.size());
+        int weakNode = -1;
+        for (final int hex : SOCBoard4p.HEXCOORDS_LAND_V1)
+        {
+            for (final int node : board.getAdjacentNodesToHex_arr(hex))
+            {
+                final List<Integer> hexes = board.getAdjacentHexesToNode(node);
+                if (hexes.size() != 3)
+                    continue;
+                boolean ok = true;
+                for (final int h : hexes)
+                    if (strongHexes.contains(h) || ! board.isHexOnLand(h))
+                        ok = false;
+                if (ok)
+                {
+                    weakNode = node;
+                    break;
+                }
+            }
+            if (weakNode != -1)
+                break;
+        }
+        assertTrue(weakNode != -1);
+
+        final int[] types = { SOCBoard.ORE_HEX, SOCBoard.WHEAT_HEX, SOCBoard.SHEEP_HEX },
+            strongNums = { 6, 8, 6 }, weakNums = { 2, 12, 2 };
+        for (int i = 0; i < 3; ++i)
+        {
+            int hnum = board.getHexNumFromCoord(strongHexes.get(i));
+            hl[hnum] = types[i];
+            nl[hnum] = strongNums[i];
+            hnum = board.getHexNumFromCoord(board.getAdjacentHexesToNode(weakNode).get(i));
+            hl[hnum] = types[i];
+            nl[hnum] = weakNums[i];
+        }
+
+        ga.putPiece(new SOCSettlement(pl, strongNode, board));
+        ga.putPiece(new SOCSettlement(pl, weakNode, board));
+
+        return pl;
+    }
+
+    /** Check that 2 states have the same VP, turns, and resources. */
+    static void assertSameState(final SOCRolloutState expected, final SOCRolloutState actual)
+    {
+        assertEquals(expected.getVP(), actual.getVP());
+        assertEquals(expected.getTurns(), actual.getTurns());
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+            assertEquals(expected.getResourceAmount(rtype), actual.getResourceAmount(rtype));
+    }
+
+    /** Playouts with the same seed have the same result, and don't change the state they were forked from. */
+    @Test
+    public void testPlayoutSeededAndForkIndependence()
+    {
+        final SOCRolloutState root = new SOCRolloutState(makeStrongWeakPlayer(), NO_SITES);
+        assertEquals(2, root.getVP());
+        assertEquals(0, root.getTurns());
+        final SOCRolloutState rootCopy = new SOCRolloutState(root);
+
+        final SOCRolloutState fork1 = new SOCRolloutState(root), fork2 = new SOCRolloutState(root);
+        final int turns1 = fork1.playout(0, -1, 300, new Random(42));
+        assertTrue("should win before turn limit: " + turns1, turns1 < 300);
+        assertEquals(turns1, fork1.getTurns());
+        assertTrue(fork1.getVP() >= 10);
+        assertSameState(rootCopy, fork2);  // playing fork1 didn't change another fork
+        assertEquals(turns1, fork2.playout(0, -1, 300, new Random(42)));
+        assertSameState(fork1, fork2);
+
+        assertSameState(rootCopy, root);
+        assertEquals(2, root.getVP());
+
+        // a playout can continue from where it stopped
+        final SOCRolloutState part = new SOCRolloutState(root);
+        assertEquals(5, part.playout(0, -1, 5, new Random(42)));
+        assertEquals(5, part.getTurns());
+        assertTrue(part.playout(0, -1, 300, new Random(7)) > 5);
+    }
+
+    /** On a 7, a hand of more than 7 resources is halved, rounding down; 7 or fewer aren't discarded. */
+    @Test
+    public void testDiscardOn7()
+    {
+        final SOCPlayer pl = new SOCGame("discard").getPlayer(0);
+
+        pl.getResources().setAmounts(new SOCResourceSet(3, 3, 3, 0, 0, 0));
+        SOCRolloutState st = new SOCRolloutState(pl, NO_SITES);
+        // dice 4 + 3; then discard 4, choosing the first resource in hand each time: 3 clay, 1 ore
+        st.playout(0, -1, 1, new ScriptedRandom(3, 2, 0, 0, 0, 0));
+        assertEquals(1, st.getTurns());
+        assertEquals(0, st.getResourceAmount(SOCResourceConstants.CLAY));
+        assertEquals(2, st.getResourceAmount(SOCResourceConstants.ORE));
+        assertEquals(3, st.getResourceAmount(SOCResourceConstants.SHEEP));
+
+        pl.getResources().setAmounts(new SOCResourceSet(3, 3, 1, 0, 0, 0));
+        st = new SOCRolloutState(pl, NO_SITES);
+        st.playout(0, -1, 1, new ScriptedRandom(3, 2));
+        assertEquals(3, st.getResourceAmount(SOCResourceConstants.CLAY));
+        assertEquals(3, st.getResourceAmount(SOCResourceConstants.ORE));
+        assertEquals(1, st.getResourceAmount(SOCResourceConstants.SHEEP));
+    }
+
+    /**
+     * A settlement goal at a site which needs a road builds the road, then the settlement,
+     * and takes the conflicting site. A city goal upgrades the chosen settlement.
+     */
+    @Test
+    public void testGoals()
+    {
+        final SOCGame ga = new SOCGame("goals");
+        final SOCPlayer pl = ga.getPlayer(0);
+        final SOCPossibleRoad road = new SOCPossibleRoad(pl, 0x45, null);
+        final SOCPossibleSettlement ps1 = new SOCPossibleSettlement
+                (pl, 0x46, new ArrayList<SOCPossibleRoad>(Arrays.asList(road)), bsef),
+            ps2 = new SOCPossibleSettlement(pl, 0x56, null, bsef),
+            ps3 = new SOCPossibleSettlement(pl, 0x89, null, bsef);
+        ps1.addConflict(ps2);
+        ps2.addConflict(ps1);
+
+        pl.getResources().setAmounts(new SOCResourceSet(2, 0, 1, 1, 2, 0));
+        SOCRolloutState st = new SOCRolloutState(pl, Arrays.asList(ps1, ps2, ps3));
+        final int site1 = st.findSite(0x46), site2 = st.findSite(0x56), site3 = st.findSite(0x89);
+        assertTrue((site1 != -1) && (site2 != -1) && (site3 != -1));
+        assertEquals(-1, st.findSite(0x22));
+        assertEquals(0, st.getVP());
+
+        // dice 2: no production
+        st.playout(SOCRolloutState.GOAL_SETTLEMENT, site1, 1, new ScriptedRandom(0, 0));
+        assertEquals(1, st.getVP());
+        assertTrue(st.isSiteTaken(site1));
+        assertTrue("conflicting site", st.isSiteTaken(site2));
+        assertFalse(st.isSiteTaken(site3));
+        for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+            assertEquals("spent all: " + rtype, 0, st.getResourceAmount(rtype));
+
+        // can't afford goal's road: nothing built
+        pl.getResources().setAmounts(new SOCResourceSet(0, 0, 1, 1, 1, 0));
+        st = new SOCRolloutState(pl, Arrays.asList(ps1, ps2, ps3));
+        st.playout(SOCRolloutState.GOAL_SETTLEMENT, site1, 1, new ScriptedRandom(0, 0));
+        assertEquals(0, st.getVP());
+        assertFalse(st.isSiteTaken(site1));
+        assertEquals(1, st.getResourceAmount(SOCResourceConstants.WOOD));
+
+        // city goal at the weak settlement
+        final SOCPlayer swPl = makeStrongWeakPlayer();
+        final int weakNode = swPl.getSettlements().get(1).getCoordinates();
+        swPl.getResources().setAmounts(new SOCResourceSet(0, 3, 0, 2, 0, 0));
+        st = new SOCRolloutState(swPl, NO_SITES);
+        final int weakSite = st.findCitySite(weakNode);
+        assertEquals(1, weakSite);
+        st.playout(SOCRolloutState.GOAL_CITY, weakSite, 1, new ScriptedRandom(0, 1));  // dice 3: no production
+        assertEquals(3, st.getVP());
+        assertEquals(-1, st.findCitySite(weakNode));
+        assertEquals(0, st.findCitySite(swPl.getSettlements().get(0).getCoordinates()));
+    }
+
+    /** Trades use the best port rate for a surplus resource, and only if that makes the goal affordable. */
+    @Test
+    public void testTradeRates()
+    {
+        final SOCPlayer pl = new SOCGame("trades").getPlayer(0);
+        final SOCResourceSet hand = new SOCResourceSet(0, 0, 3, 1, 0, 0);  // dev card needs 1 ore
+        final int[] expectedVP = { 0, 0, 1 };
+        for (int ports = 0; ports <= 2; ++ports)
+        {
+            if (ports == 1)
+                pl.setPortFlag(SOCBoard.MISC_PORT, true);
+            else if (ports == 2)
+                pl.setPortFlag(SOCBoard.SHEEP_PORT, true);
+
+            pl.getResources().setAmounts(hand);
+            final SOCRolloutState st = new SOCRolloutState(pl, NO_SITES);
+            final int sheepRate = (ports == 0) ? 4 : ((ports == 1) ? 3 : 2);
+            assertEquals(sheepRate, st.getTradeRate(SOCResourceConstants.SHEEP));
+            assertEquals((ports == 0) ? 4 : 3, st.getTradeRate(SOCResourceConstants.ORE));
+
+            // dice 2: no production; dev card pick 0: VP card
+            st.playout(SOCRolloutState.GOAL_CARD, -1, 1, new ScriptedRandom(0, 0, 0));
+            assertEquals("ports " + ports, expectedVP[ports], st.getVP());
+            if (expectedVP[ports] == 0)
+            {
+                assertEquals(3, st.getResourceAmount(SOCResourceConstants.SHEEP));
+                assertEquals(1, st.getResourceAmount(SOCResourceConstants.WHEAT));
+            } else {
+                for (int rtype = SOCResourceConstants.CLAY; rtype <= SOCResourceConstants.WOOD; ++rtype)
+                    assertEquals("spent all: " + rtype, 0, st.getResourceAmount(rtype));
+            }
+        }
+    }
+
+    /** Random whose {@link #nextInt(int)} returns a script of values, then 0. */
+    static final class ScriptedRandom extends Random
+    {
+        private static final long serialVersionUID = 2700L;
+
+        private final int[] script;
+        private int i;
+
+        ScriptedRandom(final int... script)
+        {
+            this.script = script;
+        }
+
+        @Override
+        public int nextInt(final int bound)
+        {
+            final int v = (i < script.length) ? script[i++] : 0;
+            assertTrue("scripted " + v + " >= bound " + bound, v < bound);
+            return v;
+        }
+    }
+
+}
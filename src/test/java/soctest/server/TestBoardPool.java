@@ -0,0 +1,125 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.server;
+
+import java.util.Random;
+
+import soc.game.SOCBoard;
+import soc.game.SOCBoardLarge;
+import soc.game.SOCGame;
+import soc.game.SOCGameOption;
+import soc.game.SOCGameOptionSet;
+import soc.game.SOCScenario;
+import soc.server.BoardPool;
+import soc.server.SOCGameHandler;
+import soc.server.SOCGameListAtServer;
+import soctest.game.GameTestUtils;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link BoardPool}.
+ * @since 2.7.00
+ */
+public class TestBoardPool
+{
+    private static SOCGameHandler sgh;
+    private static SOCGameListAtServer gl;
+
+    @BeforeClass
+    public static void setup()
+    {
+        sgh = new SOCGameHandler(null);
+        gl = new SOCGameListAtServer(new Random(), SOCGameOptionSet.getAllKnownOptions());
+    }
+
+    /** Keys ignore options which don't affect the board, and unset options. */
+    @Test
+    public void testMakeKey()
+    {
+        final SOCGameOptionSet knownOpts = SOCGameOptionSet.getAllKnownOptions();
+
+        assertEquals("classic4", BoardPool.makeKey(null, 4, false));
+        assertEquals("classic4", BoardPool.makeKey
+            (SOCGameOption.parseOptionsToSet("PL=3,VP=t12,BC=f4,N7=t7", knownOpts), 4, false));
+        assertEquals("classic6,BC=3", BoardPool.makeKey
+            (SOCGameOption.parseOptionsToSet("PL=6,BC=t3", knownOpts), 6, false));
+        assertEquals("sea4,PL=3,SC=" + SOCScenario.K_SC_4ISL, BoardPool.makeKey
+            (SOCGameOption.parseOptionsToSet("PL=3,SBL=t,SC=" + SOCScenario.K_SC_4ISL, knownOpts), 4, true));
+        assertNotEquals
+            (BoardPool.makeKey(SOCGameOption.parseOptionsToSet("PL=3,SBL=t", knownOpts), 4, true),
+             BoardPool.makeKey(SOCGameOption.parseOptionsToSet("PL=4,SBL=t", knownOpts), 4, true));
+    }
+
+    /**
+     * First game with an option set misses; the pool refills in the background;
+     * the next game with equivalent options gets a laid-out board and starts with it.
+     */
+    @Test(timeout=20000)
+    public void testTakeAndStart()
+        throws InterruptedException
+    {
+        final BoardPool pool = new BoardPool(2);
+
+        final SOCGame ga1 = GameTestUtils.createGame
+            (4, SOCScenario.K_SC_4ISL, "BC=t4", "testBoardPool-1", gl, sgh);
+        assertNull("pool starts empty", pool.take(ga1));
+        gl.deleteGame(ga1.getName());
+
+        while (pool.getReadyCount() < 2)
+            Thread.sleep(20);
+
+        final SOCGame ga2 = GameTestUtils.createGame
+            (4, SOCScenario.K_SC_4ISL, "BC=t4,VP=t14", "testBoardPool-2", gl, sgh);
+        final SOCBoard b = pool.take(ga2);
+        assertNotNull(b);
+        assertTrue(b instanceof SOCBoardLarge);
+        assertTrue("already laid out", ((SOCBoardLarge) b).getLandHexCoordsSet().size() > 0);
+
+        ga2.setPregeneratedBoard(b);
+        ga2.addPlayer("player", 1);
+        ga2.startGame();
+        assertSame(b, ga2.getBoard());
+        assertEquals(SOCGame.START1A, ga2.getGameState());
+        assertFalse(ga2.getPlayer(1).getLegalSettlements().isEmpty());
+        gl.deleteGame(ga2.getName());
+
+        assertTrue(pool.getStatsFormatted(), pool.getStatsFormatted().contains("hits 1, misses 1"));
+    }
+
+    /** A board for different options is rejected. */
+    @Test(expected=IllegalArgumentException.class)
+    public void testSetPregeneratedBoardMismatch()
+    {
+        final SOCGame gaSea = GameTestUtils.createGame(4, SOCScenario.K_SC_4ISL, null, "testBoardPool-sea", gl, sgh);
+        final SOCGame gaClassic = GameTestUtils.createGame(4, null, null, "testBoardPool-classic", gl, sgh);
+        try
+        {
+            gaClassic.setPregeneratedBoard(gaSea.getBoard());
+        } finally {
+            gl.deleteGame(gaSea.getName());
+            gl.deleteGame(gaClassic.getName());
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+
+package soctest.server;
+
+import soc.server.genericServer.ConnectionsByVersion;
+import soc.server.genericServer.StringConnection;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link ConnectionsByVersion}.
+ * @since 2.7.00
+ */
+public class TestConnectionsByVersion
+{
+    /**
+     * Make a server-side connection of this version, with a client-side peer to read what's sent.
+     * @return the client side; its {@link StringConnection#getPeer()} is the server side
+     */
+    private static StringConnection makeConn(final int vers)
+        throws Exception
+    {
+        final StringConnection cli = new StringConnection();
+        final StringConnection srvSide = new StringConnection(cli);
+        cli.setAccepted();
+        srvSide.setAccepted();
+        srvSide.setVersion(vers, true);
+
+        return cli;
+    }
+
+    /** Each connection is sent to once if its version is in range, including after its version changes. */
+    @Test
+    public void testPutToVersAndVersionChange()
+        throws Exception
+    {
+        final ConnectionsByVersion reg = new ConnectionsByVersion();
+        final StringConnection cli1 = makeConn(1118), cli2 = makeConn(2500), cli3 = makeConn(2700);
+        reg.add(cli1.getPeer());
+        reg.add(cli2.getPeer());
+        reg.add(cli3.getPeer());
+        assertEquals(3, reg.size());
+        assertEquals(3, reg.getVersionCount());
+
+        assertEquals(3, reg.putToVers("all", Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(2, reg.putToVers("newer", 2000, Integer.MAX_VALUE));
+        assertEquals(1, reg.putToVers("2500", 2500, 2500));
+        assertEquals(0, reg.putToVers("none", 2800, 2000));
+
+        assertEquals("all", cli1.readNext());
+        assertFalse(cli1.isInputAvailable());
+        assertEquals("all", cli2.readNext());
+        assertEquals("newer", cli2.readNext());
+        assertEquals("2500", cli2.readNext());
+        assertEquals("all", cli3.readNext());
+        assertEquals("newer", cli3.readNext());
+        assertFalse(cli3.isInputAvailable());
+
+        cli1.getPeer().setVersion(2700, true);
+        reg.versionChanged(cli1.getPeer(), 1118);
+        assertEquals(3, reg.size());
+        assertEquals(2, reg.getVersionCount());
+        assertEquals(2, reg.putToVers("2700", 2700, 2700));
+        assertEquals("2700", cli1.readNext());
+        assertFalse(cli1.isInputAvailable());
+
+        assertTrue(reg.remove(cli2.getPeer(), 2500));
+        assertTrue("searches other versions", reg.remove(cli3.getPeer(), 1118));
+        assertFalse(reg.remove(cli3.getPeer(), 2700));
+        assertEquals(1, reg.size());
+        assertEquals(1, reg.putToVers("all", Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertFalse(cli2.isInputAvailable());
+    }
+
+}
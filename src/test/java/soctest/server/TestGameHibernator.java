@@ -0,0 +1,236 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.server;
+
+import java.io.File;
+import java.util.Properties;
+
+import soc.extra.server.RecordingSOCServer;
+import soc.game.SOCGame;
+import soc.game.SOCResourceSet;
+import soc.server.GameHibernator;
+import soc.server.SOCServer;
+import soc.server.genericServer.Connection;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link GameHibernator}.
+ * @since 2.7.00
+ */
+public class TestGameHibernator
+{
+    private static SOCServer srv;
+
+    @BeforeClass
+    public static void setup()
+        throws Exception
+    {
+        srv = new SOCServer("dummy", 0, null, null);
+    }
+
+    /** This folder and all contents are created at start of each test method, deleted at end of it */
+    @Rule
+    public TemporaryFolder testTmpFolder = new TemporaryFolder();
+
+    /**
+     * Create a started game with 2 players, waiting for player 0 to roll.
+     * @param gaName  Game name
+     * @return  new game in state {@link SOCGame#ROLL_OR_CARD}
+     */
+    private static SOCGame makeGame(final String gaName)
+    {
+        final SOCGame ga = new SOCGame(gaName, null, null);
+        ga.addPlayer("p0", 0);
+        ga.addPlayer("third", 3);
+        ga.startGame();
+        ga.setGameState(SOCGame.ROLL_OR_CARD);
+        ga.getPlayer(0).getResources().add(new SOCResourceSet(1, 3, 0, 2, 0, 0));
+        ga.setOwner("p0", "en_US");
+
+        return ga;
+    }
+
+    /** Only started games waiting for a player's action can be hibernated. */
+    @Test
+    public void testCanHibernate()
+    {
+        final SOCGame ga = new SOCGame("new", null, null);
+        assertFalse(GameHibernator.canHibernate(ga));  // NEW
+        ga.addPlayer("p0", 0);
+        ga.startGame();
+        assertFalse(GameHibernator.canHibernate(ga));  // START1A
+
+        assertTrue(GameHibernator.canHibernate(makeGame("ready")));
+
+        final SOCGame gaPrac = new SOCGame("prac", null, null);
+        gaPrac.isPractice = true;
+        gaPrac.addPlayer("p0", 0);
+        gaPrac.startGame();
+        gaPrac.setGameState(SOCGame.ROLL_OR_CARD);
+        assertFalse(GameHibernator.canHibernate(gaPrac));
+    }
+
+    /** Hibernate a game in memory, then wake it. */
+    @Test
+    public void testStoreWakeInMemory()
+        throws Exception
+    {
+        final GameHibernator gh = new GameHibernator(60, null);
+        final SOCGame gaSave = makeGame("mem");
+        final long expiration = gaSave.getExpiration();
+        final int firstPN = gaSave.getCurrentPlayerNumber();
+
+        final GameHibernator.Entry e = gh.store(gaSave, srv);
+        assertNotNull(e);
+        assertTrue(e.getSize() > 0);
+        assertTrue(gh.isHibernated("mem"));
+        assertEquals(1, gh.getCurrentCount());
+        assertEquals(e.getSize(), gh.getCurrentBytes());
+        assertEquals(expiration, e.expiration);
+
+        assertNull(gh.wake("unknown", srv));
+
+        final SOCGame ga = gh.wake("mem", srv);
+        assertNotNull(ga);
+        assertEquals("mem", ga.getName());
+        assertEquals(SOCGame.LOADING, ga.getGameState());
+        assertEquals(firstPN, ga.getCurrentPlayerNumber());
+        assertEquals("p0", ga.getOwner());
+        assertEquals(expiration, ga.getExpiration());
+        assertEquals(6, ga.getPlayer(0).getResources().getTotal());
+
+        assertFalse(gh.isHibernated("mem"));
+        assertEquals(0, gh.getCurrentCount());
+        assertEquals(0, gh.getCurrentBytes());
+        assertEquals(1, gh.getHibernatedCount());
+        assertEquals(1, gh.getWokenCount());
+        assertEquals("idle 60 minutes; now 0 games (0 bytes); hibernated 1, woken 1, failures 0",
+            gh.getStatsFormatted());
+    }
+
+    /** Hibernate a game to a directory; its file is deleted when woken or removed. */
+    @Test
+    public void testStoreWakeOnDisk()
+        throws Exception
+    {
+        final File dir = testTmpFolder.getRoot();
+        final GameHibernator gh = new GameHibernator(30, dir);
+
+        gh.store(makeGame("disk game"), srv);
+        final File[] files = dir.listFiles();
+        assertEquals(1, files.length);
+        assertEquals("disk_20_game" + GameHibernator.FILENAME_EXTENSION, files[0].getName());
+
+        final SOCGame ga = gh.wake("disk game", srv);
+        assertNotNull(ga);
+        assertEquals("disk game", ga.getName());
+        assertEquals(0, dir.listFiles().length);
+
+        gh.store(makeGame("removed"), srv);
+        assertEquals(1, dir.listFiles().length);
+        assertNotNull(gh.remove("removed"));
+        assertEquals(0, dir.listFiles().length);
+        assertEquals(0, gh.getCurrentCount());
+        assertTrue(gh.getStatsFormatted().contains(" bytes on disk"));
+    }
+
+    /** Can't store a game twice. */
+    @Test(expected=IllegalStateException.class)
+    public void testStoreTwice()
+        throws Exception
+    {
+        final GameHibernator gh = new GameHibernator(60, null);
+        gh.store(makeGame("twice"), srv);
+        gh.store(makeGame("twice"), srv);
+    }
+
+    /**
+     * When a game with a robot player wakes but no robots are available to rejoin it,
+     * play resumes with the robot's seat vacant instead of waiting for robots forever.
+     * If it was the robot's turn, that turn is ended.
+     */
+    @Test
+    public void testWakeNoRobotsAvailable()
+        throws Exception
+    {
+        final Properties props = new Properties();
+        props.putAll(RecordingSOCServer.PROPS);
+        props.setProperty(SOCServer.PROP_JSETTLERS_STARTROBOTS, "0");
+        props.setProperty(SOCServer.PROP_JSETTLERS_GAME_HIBERNATE_IDLE__MINUTES, "5");
+        final RecordingSOCServer hsrv = new RecordingSOCServer("testhibport", props);
+        hsrv.setPriority(5);
+        hsrv.start();
+        try { Thread.sleep(500); }
+        catch (InterruptedException e) {}
+
+        final DisplaylessTesterClient tcli = new DisplaylessTesterClient("testhibport", "hibcli", null, null);
+        tcli.init();
+        try
+        {
+            try { Thread.sleep(120); }
+            catch (InterruptedException e) {}
+
+            final Connection tcliConn = hsrv.getConnection("hibcli");
+            assertNotNull(tcliConn);
+            final SOCGame ga = TestRecorder.createJoinNewGame(hsrv, tcli, null).gameAtServer;
+            final String gaName = ga.getName();
+            final int cliPN = ga.maxPlayers - 1;
+
+            // robot player at seat 0, whose turn it is
+            ga.addPlayer("hibbot", 0);
+            ga.getPlayer(0).setRobotFlag(true, true);
+            ga.startGame();
+            ga.setGameState(SOCGame.ROLL_OR_CARD);
+            ga.setCurrentPlayerNumber(0);
+            ga.lastActionTime = System.currentTimeMillis() - 6 * 60 * 1000L;
+
+            assertTrue(hsrv.hibernateGame(ga));
+            assertNull(hsrv.getGameList().getGameData(gaName));
+
+            final SOCGame gaWoken = hsrv.wakeHibernatedGame(gaName, tcliConn);
+            assertNotNull(gaWoken);
+            assertTrue(gaWoken != ga);
+            assertTrue(gaWoken == hsrv.getGameList().getGameData(gaName));
+            assertNull(gaWoken.savedGameModel);
+            assertTrue(gaWoken.isSeatVacant(0));
+            assertFalse(gaWoken.isSeatVacant(cliPN));
+            assertEquals("hibcli", gaWoken.getPlayer(cliPN).getName());
+            assertEquals(cliPN, gaWoken.getCurrentPlayerNumber());
+            assertEquals(SOCGame.ROLL_OR_CARD, gaWoken.getGameState());
+        } finally {
+            tcli.destroy();
+            hsrv.stopServer();
+        }
+    }
+
+    /** Constructor rejects bad parameters. */
+    @Test(expected=IllegalArgumentException.class)
+    public void testBadIdleMinutes()
+    {
+        new GameHibernator(0, null);
+    }
+
+}
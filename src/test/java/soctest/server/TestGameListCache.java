@@ -0,0 +1,135 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+
+package soctest.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import soc.game.SOCGame;
+import soc.game.SOCGameOptionSet;
+import soc.game.SOCScenario;
+import soc.message.SOCGames;
+import soc.message.SOCGamesWithOptions;
+import soc.message.SOCMessage;
+import soc.server.GameListCache;
+import soc.server.SOCGameHandler;
+import soc.server.SOCGameListAtServer;
+import soc.util.Version;
+import soctest.game.GameTestUtils;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link GameListCache}.
+ * @since 2.7.00
+ */
+public class TestGameListCache
+{
+    /**
+     * Cached list matches the list built for each client as before v2.7.00, for current and older clients;
+     * is reused until a game is added or removed; then has that change.
+     */
+    @Test
+    public void testCachedListAndUpdates()
+    {
+        final SOCGameHandler sgh = new SOCGameHandler(null);
+        final SOCGameListAtServer gl = new SOCGameListAtServer(new Random(), SOCGameOptionSet.getAllKnownOptions());
+        final GameListCache cache = gl.getListCache();
+        final int currVers = Version.versionNumber();
+
+        GameTestUtils.createGame(4, null, null, "testGLC-classic", gl, sgh);
+        GameTestUtils.createGame(4, SOCScenario.K_SC_4ISL, null, "testGLC-sea", gl, sgh);
+
+        for (final int cliVers : new int[]{ currVers, 2500, 2000, 1106 })
+            assertEquals
+                ("version " + cliVers, gameListPairs(buildList(gl, cliVers)),
+                 gameListPairs(cache.getGameListCmd(cliVers, gl.getGamesData())));
+        assertEquals(4, cache.getMisses());
+        assertEquals(0, cache.getHits());
+
+        final String cmd = cache.getGameListCmd(currVers, gl.getGamesData());
+        assertSame(cmd, cache.getGameListCmd(currVers, gl.getGamesData()));
+        assertEquals(2, cache.getHits());
+
+        GameTestUtils.createGame(6, null, "VP=t12", "testGLC-added", gl, sgh);
+        final String cmdAdded = cache.getGameListCmd(currVers, gl.getGamesData());
+        assertTrue(cmdAdded, cmdAdded.contains("testGLC-added"));
+        assertEquals(gameListPairs(buildList(gl, currVers)), gameListPairs(cmdAdded));
+        assertEquals(gameListPairs(buildList(gl, 2000)), gameListPairs(cache.getGameListCmd(2000, gl.getGamesData())));
+
+        gl.deleteGame("testGLC-sea");
+        final String cmdRemoved = cache.getGameListCmd(currVers, gl.getGamesData());
+        assertFalse(cmdRemoved, cmdRemoved.contains("testGLC-sea"));
+        assertEquals(gameListPairs(buildList(gl, currVers)), gameListPairs(cmdRemoved));
+
+        assertEquals(4, cache.getMisses());
+        assertEquals(3, cache.getRebuilds());
+        assertTrue(cache.getStatsFormatted(), cache.getStatsFormatted().startsWith("4 versions, hits 2, misses 4"));
+    }
+
+    /**
+     * Build the game list message without the cache,
+     * like {@code SOCGameListAtServer.sendGameList} for a client not yet sent the list.
+     */
+    private static String buildList(final SOCGameListAtServer gl, final int cliVers)
+    {
+        final List<Object> li = new ArrayList<>();
+        for (final SOCGame ga : gl.getGamesData())
+        {
+            final boolean canJoin = (cliVers >= ga.getClientVersionMinRequired());
+            if (canJoin || (cliVers >= 2700))
+            {
+                if (! canJoin)
+                    li.add(Boolean.FALSE);
+                li.add(ga);
+            } else {
+                li.add(SOCGames.MARKER_THIS_GAME_UNJOINABLE + ga.getName());
+            }
+        }
+
+        return (cliVers >= 1107) ? new SOCGamesWithOptions(li, cliVers).toCmd() : new SOCGames(li).toCmd();
+    }
+
+    /** Parse a game list message's games (and options if any), sorted since game order can differ. */
+    private static List<String> gameListPairs(final String cmd)
+    {
+        final SOCMessage msg = SOCMessage.toMsg(cmd);
+        assertNotNull(cmd, msg);
+
+        final List<String> pairs = new ArrayList<>();
+        if (msg instanceof SOCGamesWithOptions)
+        {
+            final List<String> pa = ((SOCGamesWithOptions) msg).getParams();
+            for (int i = 0; i < pa.size(); i += 2)
+                pairs.add(pa.get(i) + " " + pa.get(i + 1));
+        } else {
+            pairs.addAll(((SOCGames) msg).getGames());
+        }
+        Collections.sort(pairs);
+
+        return pairs;
+    }
+
+}
@@ -0,0 +1,132 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import soc.game.SOCGame;
+import soc.game.SOCGameOption;
+import soc.game.SOCGameOptionSet;
+import soc.game.SOCScenario;
+import soc.server.GameMemoryEstimator;
+import soc.server.GameMemoryEstimator.GameEstimate;
+import soc.server.SOCChatRecentBuffer;
+import soc.server.SOCServer;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link GameMemoryEstimator}.
+ * @since 2.7.00
+ */
+public class TestGameMemoryEstimator
+{
+    private static SOCServer srv;
+
+    @BeforeClass
+    public static void setup()
+        throws Exception
+    {
+        srv = new SOCServer("dummy", 0, null, null);
+    }
+
+    /** Sizes of arrays, strings, and simple collections; each object is counted only once. */
+    @Test
+    public void testBasicSizes()
+    {
+        final GameMemoryEstimator est = new GameMemoryEstimator();
+        assertEquals(0, est.estimate(null));
+        assertEquals(56, est.estimate(new int[10]));  // 16 header + 40, aligned
+        assertEquals(24 + 24, est.estimate("abcdefgh"));  // String + 8-char latin-1 array
+
+        final String shared = "shared string";
+        final List<Object> li = new ArrayList<>();
+        li.add(shared);
+        li.add(shared);
+        li.add(new long[2]);
+        final long sz = est.estimate(li);
+        assertEquals(24 + 32 + (24 + 32) + 32, sz);  // list + its array + 1 string + long[2]
+        assertEquals(0, est.estimate(li));
+        assertEquals(0, est.estimate(shared));
+
+        est.reset();
+        assertEquals(sz, est.estimate(li));
+    }
+
+    /** Game estimate is split into parts, and a large-board scenario game has a larger board. */
+    @Test
+    public void testEstimateGame()
+    {
+        final SOCGame ga = new SOCGame("basic", null, null);
+        ga.addPlayer("p0", 0);
+        ga.addPlayer("third", 3);
+        ga.startGame();
+
+        final SOCChatRecentBuffer chat = new SOCChatRecentBuffer();
+        chat.add("p0", "hello");
+        final GameEstimate ge = GameMemoryEstimator.estimateGame(ga, chat, null, null);
+        assertEquals("basic", ge.gameName);
+        assertEquals(GameMemoryEstimator.NO_SCENARIO, ge.scenario);
+        for (final int part : new int[]
+             {GameMemoryEstimator.PART_GAME, GameMemoryEstimator.PART_BOARD,
+              GameMemoryEstimator.PART_PLAYERS, GameMemoryEstimator.PART_CHAT})
+            assertTrue(GameMemoryEstimator.PART_NAMES[part], ge.getPart(part) > 0);
+        assertEquals(0, ge.getPart(GameMemoryEstimator.PART_ROBOTS));
+        assertEquals(0, ge.getPart(GameMemoryEstimator.PART_EVENTLOG));
+
+        long sum = 0;
+        for (int part = 0; part < GameMemoryEstimator.PART_NAMES.length; ++part)
+            sum += ge.getPart(part);
+        assertEquals(sum, ge.getTotal());
+        assertTrue(ge.toString().startsWith("Game basic: " + sum + " (game "));
+
+        // Players' back-references to the game and board shouldn't pull those into their part
+        final GameMemoryEstimator est = new GameMemoryEstimator();
+        est.exclude(ga);
+        est.exclude(ga.getBoard());
+        long plSum = 0;
+        for (int pn = 0; pn < ga.maxPlayers; ++pn)
+            plSum += est.estimate(ga.getPlayer(pn));
+        assertEquals(plSum, ge.getPart(GameMemoryEstimator.PART_PLAYERS));
+        est.reset();
+        est.exclude(ga);
+        assertTrue(est.estimate(ga.getBoard()) >= ge.getPart(GameMemoryEstimator.PART_BOARD));
+
+        final SOCGameOptionSet opts = new SOCGameOptionSet();
+        SOCGameOption opt = srv.knownOpts.getKnownOption("SC", true);
+        opt.setStringValue(SOCScenario.K_SC_FOG);
+        opts.put(opt);
+        assertNull(opts.adjustOptionsToKnown(srv.knownOpts, true, null));
+        final SOCGame gaFog = new SOCGame("fog", opts, srv.knownOpts);
+        gaFog.addPlayer("p0", 0);
+        gaFog.startGame();
+
+        final GameEstimate geFog = GameMemoryEstimator.estimateGame(gaFog, null, null, null);
+        assertEquals(SOCScenario.K_SC_FOG, geFog.scenario);
+        assertEquals(0, geFog.getPart(GameMemoryEstimator.PART_CHAT));
+        assertTrue(geFog.getPart(GameMemoryEstimator.PART_BOARD) > ge.getPart(GameMemoryEstimator.PART_BOARD));
+        assertTrue(geFog.toString().endsWith("; scenario SC_FOG"));
+    }
+
+}
@@ -0,0 +1,163 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.server;
+
+import soc.game.SOCGame;
+import soc.server.SOCGameHandler;
+import soc.server.SOCGameListAtServer;
+import soc.server.SOCGameTimeoutChecker;
+import soc.server.SOCServer;
+import soctest.game.GameTestUtils;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SOCGameTimeoutChecker}'s turn-check scheduling.
+ * Checks deadlines with {@link SOCGameTimeoutChecker#checkDeadlinesNow()} without starting its thread.
+ * Doesn't let a robot's turn expire, since that would start a thread to force-end the turn.
+ * @since 2.7.00
+ */
+public class TestGameTimeoutChecker
+{
+    private static SOCServer srv;
+    private static SOCGameListAtServer gl;
+    private static SOCGameHandler sgh;
+
+    @BeforeClass
+    public static void setup()
+        throws Exception
+    {
+        srv = new SOCServer("dummy", 0, null, null);
+        gl = srv.getGameList();
+        sgh = new SOCGameHandler(srv);
+    }
+
+    /**
+     * Create a started game with a human at seat 0 and a robot at seat 3, waiting for the human to roll.
+     * @param gaName  Game name
+     * @return  new game in state {@link SOCGame#ROLL_OR_CARD}, already added to {@link #gl}
+     */
+    private static SOCGame makeGame(final String gaName)
+    {
+        final SOCGame ga = GameTestUtils.createGame(4, null, null, gaName, gl, sgh);
+        ga.addPlayer("human", 0);
+        ga.addPlayer("robot", 3);
+        ga.getPlayer(3).setRobotFlag(true, true);
+        ga.startGame();
+        ga.setGameState(SOCGame.ROLL_OR_CARD);
+        ga.setCurrentPlayerNumber(0);
+
+        return ga;
+    }
+
+    /** A human player's turn isn't checked, no matter how long it's been since their last action. */
+    @Test
+    public void testHumanTurnNotChecked()
+    {
+        final SOCGame ga = makeGame("human turn");
+        try
+        {
+            final SOCGameTimeoutChecker tc = new SOCGameTimeoutChecker(srv);
+            ga.lastActionTime = System.currentTimeMillis() - 10 * 60 * 1000L;
+            tc.addGame(ga);
+            assertEquals(0, tc.getTurnCheckTime(ga));
+
+            tc.checkTurnSoon(ga);
+            assertTrue(tc.getTurnCheckTime(ga) > 0);
+            tc.checkDeadlinesNow();
+            assertEquals("after check, shouldn't keep checking human's turn", 0, tc.getTurnCheckTime(ga));
+        } finally {
+            gl.deleteGame(ga.getName());
+        }
+    }
+
+    /**
+     * A robot's turn is checked at its deadline, not sooner.
+     * If the robot acted since that was scheduled, the check reschedules to the new deadline.
+     * When the turn changes to a human, checking stops.
+     */
+    @Test
+    public void testRobotTurnDeadline()
+        throws InterruptedException
+    {
+        final SOCGame ga = makeGame("robot turn");
+        try
+        {
+            final SOCGameTimeoutChecker tc = new SOCGameTimeoutChecker(srv);
+            tc.addGame(ga);
+            assertEquals(0, tc.getTurnCheckTime(ga));
+
+            // turn changes to robot
+            final long turnLength = SOCServer.ROBOT_FORCE_ENDTURN_SECONDS * 1000L;
+            ga.setCurrentPlayerNumber(3);
+            ga.lastActionTime = System.currentTimeMillis();
+            tc.ensureTurnCheck(ga);
+            assertEquals(ga.lastActionTime + turnLength, tc.getTurnCheckTime(ga));
+            tc.checkDeadlinesNow();
+            assertEquals("not checked before deadline", ga.lastActionTime + turnLength, tc.getTurnCheckTime(ga));
+
+            // an earlier deadline replaces the scheduled one, a later one doesn't
+            ga.lastActionTime -= turnLength - 20;
+            tc.ensureTurnCheck(ga);
+            final long deadline = ga.lastActionTime + turnLength;
+            assertEquals(deadline, tc.getTurnCheckTime(ga));
+            ga.lastActionTime = System.currentTimeMillis();  // robot acts
+            tc.ensureTurnCheck(ga);
+            assertEquals(deadline, tc.getTurnCheckTime(ga));
+
+            // at deadline, check sees robot's newer action and reschedules
+            Thread.sleep(Math.max(1, deadline - System.currentTimeMillis()) + 30);
+            tc.checkDeadlinesNow();
+            assertEquals(ga.lastActionTime + turnLength, tc.getTurnCheckTime(ga));
+
+            // turn changes to human; game's turn is checked soon but not after that
+            ga.setCurrentPlayerNumber(0);
+            tc.ensureTurnCheck(ga);
+            tc.checkTurnSoon(ga);
+            tc.checkDeadlinesNow();
+            assertEquals(0, tc.getTurnCheckTime(ga));
+        } finally {
+            gl.deleteGame(ga.getName());
+        }
+    }
+
+    /** Deprecated server methods which checked all games still work. */
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testDeprecatedCheckAllGames()
+    {
+        final SOCGame ga = makeGame("deprecated");
+        try
+        {
+            final long now = System.currentTimeMillis();
+            ga.lastActionTime = now - 10 * 60 * 1000L;
+            srv.checkForExpiredTurns(now);
+            srv.checkForExpiredGames(now);
+            assertTrue(ga == gl.getGameData("deprecated"));
+            assertEquals(0, ga.getCurrentPlayerNumber());
+        } finally {
+            gl.deleteGame(ga.getName());
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.server;
+
+import soc.message.SOCAcceptOffer;
+import soc.message.SOCChannelTextMsg;
+import soc.message.SOCClearOffer;
+import soc.message.SOCGameOptionGetInfos;
+import soc.message.SOCGameTextMsg;
+import soc.message.SOCLeaveGame;
+import soc.message.SOCRejectOffer;
+import soc.server.InboundRateLimiter;
+import soc.server.SOCClientData;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link InboundRateLimiter}.
+ * @since 2.7.00
+ */
+public class TestInboundRateLimiter
+{
+    private static final long SEC = 1000000000L;
+
+    /** Message types map to the expected categories. */
+    @Test
+    public void testGetCategory()
+    {
+        assertEquals(InboundRateLimiter.CAT_CHAT,
+            InboundRateLimiter.getCategory(new SOCGameTextMsg("ga", "p", "hi")));
+        assertEquals(InboundRateLimiter.CAT_CHAT,
+            InboundRateLimiter.getCategory(new SOCChannelTextMsg("ch", "p", "hi")));
+        assertEquals(InboundRateLimiter.CAT_TRADE,
+            InboundRateLimiter.getCategory(new SOCClearOffer("ga", 1)));
+        assertEquals(InboundRateLimiter.CAT_INFO,
+            InboundRateLimiter.getCategory(new SOCGameOptionGetInfos(null, false, false)));
+        assertEquals(InboundRateLimiter.CAT_OTHER,
+            InboundRateLimiter.getCategory(new SOCLeaveGame("p", "-", "ga")));
+
+        // responding to an offer is a game action, not limited by default
+        assertEquals(InboundRateLimiter.CAT_OTHER,
+            InboundRateLimiter.getCategory(new SOCAcceptOffer("ga", 1, 2)));
+        assertEquals(InboundRateLimiter.CAT_OTHER,
+            InboundRateLimiter.getCategory(new SOCRejectOffer("ga", 1)));
+    }
+
+    /** A full bucket allows its burst, then drops until tokens refill at the category's rate. */
+    @Test
+    public void testBurstAndRefill()
+    {
+        final InboundRateLimiter irl = new InboundRateLimiter
+            (new int[]{2, 5, 5, 50}, new int[]{3, 20, 50, 200}, 0);
+        final SOCClientData scd = new SOCClientData();
+        final long t0 = 1000 * SEC;
+
+        for (int i = 0; i < 3; ++i)
+            assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_CHAT, scd, t0));
+        assertEquals(InboundRateLimiter.DROP, irl.check(InboundRateLimiter.CAT_CHAT, scd, t0));
+        assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_TRADE, scd, t0));  // separate bucket
+
+        // 2 per second: half a second refills 1 token
+        assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_CHAT, scd, t0 + SEC / 2));
+        assertEquals(InboundRateLimiter.DROP, irl.check(InboundRateLimiter.CAT_CHAT, scd, t0 + SEC / 2));
+
+        // long wait refills only up to the burst size
+        final long t1 = t0 + 60 * SEC;
+        for (int i = 0; i < 3; ++i)
+            assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_CHAT, scd, t1));
+        assertEquals(InboundRateLimiter.DROP, irl.check(InboundRateLimiter.CAT_CHAT, scd, t1));
+
+        assertEquals(3, irl.getDropped(InboundRateLimiter.CAT_CHAT));
+        assertEquals(0, irl.getDropped(InboundRateLimiter.CAT_TRADE));
+        assertEquals(1, irl.getThrottledClients());
+        assertEquals(0, irl.getDisconnectedClients());
+    }
+
+    /** Robots and categories with rate 0 aren't limited. */
+    @Test
+    public void testUnlimited()
+    {
+        final InboundRateLimiter irl = new InboundRateLimiter
+            (new int[]{1, 1, 1, 0}, new int[]{1, 1, 1, 0}, 0);
+        final SOCClientData scd = new SOCClientData(), bot = new SOCClientData();
+        bot.isRobot = true;
+
+        for (int i = 0; i < 1000; ++i)
+        {
+            assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_OTHER, scd, 0));
+            assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_CHAT, bot, 0));
+        }
+        assertEquals(0, irl.getThrottledClients());
+    }
+
+    /** With default budgets, "other" messages such as game actions aren't limited, but chat is. */
+    @Test
+    public void testDefaultsOtherUnlimited()
+    {
+        final InboundRateLimiter irl = new InboundRateLimiter
+            (InboundRateLimiter.DEFAULT_RATES, InboundRateLimiter.DEFAULT_BURSTS,
+             InboundRateLimiter.DEFAULT_DISCONNECT_AFTER);
+        final SOCClientData scd = new SOCClientData();
+
+        for (int i = 0; i < 1000; ++i)
+            assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_OTHER, scd, 0));
+        assertEquals(0, irl.getThrottledClients());
+
+        for (int i = 0; i < InboundRateLimiter.DEFAULT_BURSTS[InboundRateLimiter.CAT_CHAT]; ++i)
+            assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_CHAT, scd, 0));
+        assertEquals(InboundRateLimiter.DROP, irl.check(InboundRateLimiter.CAT_CHAT, scd, 0));
+    }
+
+    /** After {@code disconnectAfter} drops, check returns DISCONNECT once. */
+    @Test
+    public void testDisconnect()
+    {
+        final InboundRateLimiter irl = new InboundRateLimiter
+            (new int[]{1, 1, 1, 1}, new int[]{1, 1, 1, 1}, 3);
+        final SOCClientData scd = new SOCClientData();
+
+        assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_INFO, scd, 0));
+        assertEquals(InboundRateLimiter.DROP, irl.check(InboundRateLimiter.CAT_INFO, scd, 0));
+        assertEquals(InboundRateLimiter.DROP, irl.check(InboundRateLimiter.CAT_INFO, scd, 0));
+        assertEquals(InboundRateLimiter.DISCONNECT, irl.check(InboundRateLimiter.CAT_INFO, scd, 0));
+        assertEquals(1, irl.getDisconnectedClients());
+        assertEquals(1, irl.getThrottledClients());
+        assertEquals("dropped chat 0, trade 0, info 3, other 0; clients throttled 1, disconnected 1",
+            irl.getStatsFormatted());
+    }
+
+    /**
+     * Drops are counted per category, and the count resets once that category's bucket refills,
+     * so a client who's only throttled now and then isn't disconnected.
+     */
+    @Test
+    public void testDropCountResets()
+    {
+        final InboundRateLimiter irl = new InboundRateLimiter
+            (new int[]{1, 1, 1, 1}, new int[]{2, 2, 2, 2}, 3);
+        final SOCClientData scd = new SOCClientData();
+        final int cat = InboundRateLimiter.CAT_CHAT;
+
+        long t = 0;
+        for (int round = 0; round < 10; ++round, t += 10 * SEC)
+        {
+            assertEquals(InboundRateLimiter.ALLOW, irl.check(cat, scd, t));
+            assertEquals(InboundRateLimiter.ALLOW, irl.check(cat, scd, t));
+            assertEquals(InboundRateLimiter.DROP, irl.check(cat, scd, t));
+            assertEquals(InboundRateLimiter.DROP, irl.check(cat, scd, t));
+        }
+        assertEquals(20, irl.getDropped(cat));
+        assertEquals(1, irl.getThrottledClients());
+        assertEquals(0, irl.getDisconnectedClients());
+
+        // drops in other categories don't add to this one's count
+        assertEquals(InboundRateLimiter.ALLOW, irl.check(cat, scd, t));
+        assertEquals(InboundRateLimiter.ALLOW, irl.check(cat, scd, t));
+        assertEquals(InboundRateLimiter.DROP, irl.check(cat, scd, t));
+        for (int i = 0; i < 2; ++i)
+            assertEquals(InboundRateLimiter.ALLOW, irl.check(InboundRateLimiter.CAT_INFO, scd, t));
+        assertEquals(InboundRateLimiter.DROP, irl.check(InboundRateLimiter.CAT_INFO, scd, t));
+        assertEquals(InboundRateLimiter.DROP, irl.check(cat, scd, t));
+
+        // tokens refill partly but not to full: drops keep counting
+        t += SEC;
+        assertEquals(InboundRateLimiter.ALLOW, irl.check(cat, scd, t));
+        assertEquals(InboundRateLimiter.DISCONNECT, irl.check(cat, scd, t));
+        assertEquals(1, irl.getDisconnectedClients());
+    }
+
+    /** Constructor rejects bad budgets. */
+    @Test(expected=IllegalArgumentException.class)
+    public void testBadBurst()
+    {
+        new InboundRateLimiter(new int[]{1, 1, 1, 1}, new int[]{1, 0, 1, 1}, 0);
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+
+package soctest.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import soc.server.InfoResponseCache;
+import soc.util.SOCStringManager;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link InfoResponseCache}.
+ * @since 2.7.00
+ */
+public class TestInfoResponseCache
+{
+    /** Cached replies are found by key and can't be changed; a reply built across {@code clear()} isn't cached. */
+    @Test
+    public void testGetPutClear()
+    {
+        final InfoResponseCache cache = new InfoResponseCache();
+        assertNull(cache.get("k1"));
+
+        final List<String> msgs = new ArrayList<>(Arrays.asList("1081|-"));
+        final Map<String, String> scens = new HashMap<>();
+        scens.put("SC_FOG", "I");
+        cache.put("k1", cache.getGeneration(), System.nanoTime(), new InfoResponseCache.Response(msgs, scens, true));
+        msgs.add("changed after put");
+        scens.clear();
+
+        final InfoResponseCache.Response r = cache.get("k1");
+        assertNotNull(r);
+        assertEquals(Arrays.asList("1081|-"), r.messages);
+        assertEquals("I", r.scenariosInfoSent.get("SC_FOG"));
+        assertEquals(Boolean.TRUE, r.localeHasScenStrings);
+        try
+        {
+            r.messages.add("x");
+            fail("messages should be unmodifiable");
+        } catch (UnsupportedOperationException e) {}
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        final long gen = cache.getGeneration();
+        cache.clear();
+        assertNull(cache.get("k1"));
+        cache.put("k2", gen, System.nanoTime(), new InfoResponseCache.Response(msgs, null, null));
+        assertEquals("stale reply not cached", 0, cache.size());
+        cache.put("k2", cache.getGeneration(), System.nanoTime(), new InfoResponseCache.Response(msgs, null, null));
+        assertEquals(1, cache.size());
+        assertTrue(cache.getStatsFormatted(), cache.getStatsFormatted().startsWith("1 replies, hits 1, misses 2, cleared 1"));
+    }
+
+    /** Cache keys use the string bundle's locale, so clients in regional variants share replies. */
+    @Test
+    public void testBundleLocaleForKeys()
+    {
+        final Locale deBundle = SOCStringManager.getServerManagerForClient(new Locale("de")).getBundleLocale();
+        assertEquals("de", deBundle.toString());
+        assertEquals(deBundle, SOCStringManager.getServerManagerForClient(new Locale("de", "AT")).getBundleLocale());
+        assertNotEquals
+            (deBundle, SOCStringManager.getServerManagerForClient(new Locale("es")).getBundleLocale());
+    }
+
+}
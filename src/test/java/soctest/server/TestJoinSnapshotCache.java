@@ -0,0 +1,223 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import soc.game.SOCGame;
+import soc.message.SOCGameTextMsg;
+import soc.message.SOCJoinGame;
+import soc.message.SOCSetTurn;
+import soc.server.JoinSnapshotCache;
+import soc.server.SOCClientData;
+import soc.server.SOCGameHandler;
+import soc.server.SOCGameListAtServer;
+import soc.server.SOCServer;
+import soc.server.genericServer.StringConnection;
+import soctest.game.GameTestUtils;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link JoinSnapshotCache}.
+ * @since 2.7.00
+ */
+public class TestJoinSnapshotCache
+{
+    private static SOCServer srv;
+    private static SOCGameListAtServer gl;
+    private static SOCGameHandler sgh;
+
+    @BeforeClass
+    public static void setup()
+        throws Exception
+    {
+        srv = new SOCServer("dummy", 0, null, null);
+        gl = srv.getGameList();
+        sgh = new SOCGameHandler(srv);
+    }
+
+    private static JoinSnapshotCache.Snapshot snap(final String... msgs)
+    {
+        return new JoinSnapshotCache.Snapshot(Arrays.asList(msgs), false);
+    }
+
+    /** Miss, build, then hit; other keys and games are separate. */
+    @Test
+    public void testGetPut()
+    {
+        final JoinSnapshotCache jc = new JoinSnapshotCache();
+        final SOCGame ga = new SOCGame("jsc-ga"), gb = new SOCGame("jsc-gb");
+
+        assertNull(jc.get(ga, "2700|en_US|0"));
+        final long gen = jc.getGeneration(ga);
+        final JoinSnapshotCache.Snapshot s = snap("a", "b");
+        jc.put(ga, "2700|en_US|0", gen, System.nanoTime(), s);
+
+        assertSame(s, jc.get(ga, "2700|en_US|0"));
+        assertNull(jc.get(ga, "2700|es|0"));
+        assertNull(jc.get(gb, "2700|en_US|0"));
+        assertEquals(1, jc.getHits());
+        assertEquals(3, jc.getMisses());
+        assertEquals(1, jc.size());
+        assertEquals(1, jc.getGameCount());
+    }
+
+    /** Invalidation drops snapshots, and a snapshot built during a change isn't cached. */
+    @Test
+    public void testInvalidate()
+    {
+        final JoinSnapshotCache jc = new JoinSnapshotCache();
+        final SOCGame ga = new SOCGame("jsc-inv");
+
+        long gen = jc.getGeneration(ga);
+        jc.put(ga, "k", gen, System.nanoTime(), snap("a"));
+        assertNotNull(jc.get(ga, "k"));
+
+        // text and new members don't change the snapshot
+        jc.invalidate("jsc-inv", new SOCGameTextMsg("jsc-inv", "p", "hi"));
+        jc.invalidate("jsc-inv", new SOCJoinGame("p", "", "-", "jsc-inv"));
+        assertNotNull(jc.get(ga, "k"));
+
+        jc.invalidate("jsc-inv", new SOCSetTurn("jsc-inv", 2));
+        assertNull(jc.get(ga, "k"));
+        assertEquals(0, jc.size());
+
+        // stale generation: game changed while building
+        gen = jc.getGeneration(ga);
+        jc.invalidate("jsc-inv");
+        jc.put(ga, "k", gen, System.nanoTime(), snap("stale"));
+        assertNull(jc.get(ga, "k"));
+
+        jc.invalidate("no-such-game");  // shouldn't throw
+    }
+
+    /** A reset game (new object, same name) doesn't see the old game's snapshots; removal drops the game. */
+    @Test
+    public void testResetAndRemove()
+    {
+        final JoinSnapshotCache jc = new JoinSnapshotCache();
+        final SOCGame ga = new SOCGame("jsc-reset");
+        jc.put(ga, "k", jc.getGeneration(ga), System.nanoTime(), snap("a"));
+
+        final SOCGame ga2 = new SOCGame("jsc-reset");
+        assertNull(jc.get(ga2, "k"));
+        final long gen = jc.getGeneration(ga2);
+        jc.put(ga, "k", gen, System.nanoTime(), snap("old"));  // old game object: ignored
+        assertNull(jc.get(ga2, "k"));
+        jc.put(ga2, "k", gen, System.nanoTime(), snap("new"));
+        assertEquals(Arrays.asList("new"), jc.get(ga2, "k").messages);
+
+        jc.gameRemoved("jsc-reset");
+        assertEquals(0, jc.getGameCount());
+        assertEquals(0, jc.size());
+        assertNull(jc.get(ga2, "k"));
+    }
+
+    /**
+     * {@link SOCGameHandler#joinGame(SOCGame, soc.server.genericServer.Connection, boolean, boolean, boolean)}
+     * sends the same messages from a cached snapshot as when building it. After the game changes
+     * and the server announces that to the game, the next join doesn't use the stale snapshot.
+     */
+    @Test
+    public void testJoinGameFromCache()
+        throws Exception
+    {
+        final SOCGame ga = GameTestUtils.createGame(4, null, null, "jsc-join", gl, sgh);
+        try
+        {
+            ga.addPlayer("p0", 0);
+            ga.addPlayer("p2", 2);
+            ga.startGame();
+            ga.setGameState(SOCGame.ROLL_OR_CARD);
+            ga.setCurrentPlayerNumber(0);
+            final JoinSnapshotCache jc = gl.getJoinSnapshots();
+
+            final long hits0 = jc.getHits();
+            final List<String> cold = joinAsObserver(ga);
+            assertEquals(hits0, jc.getHits());
+            final List<String> cached = joinAsObserver(ga);
+            assertEquals(hits0 + 1, jc.getHits());
+            assertEquals(cold, cached);
+
+            // change game, announce it: next join is built again and shows the change
+            ga.setCurrentPlayerNumber(2);
+            srv.messageToGame("jsc-join", true, new SOCSetTurn("jsc-join", 2));
+            final List<String> changed = joinAsObserver(ga);
+            assertEquals(hits0 + 1, jc.getHits());
+            assertNotEquals(cached, changed);
+
+            assertEquals(changed, joinAsObserver(ga));
+            assertEquals(hits0 + 2, jc.getHits());
+        } finally {
+            gl.deleteGame("jsc-join");
+        }
+    }
+
+    /**
+     * Call {@link SOCGameHandler#joinGame(SOCGame, soc.server.genericServer.Connection, boolean, boolean, boolean)}
+     * for a new observer client connection.
+     * @return  Messages sent to the client
+     */
+    private static List<String> joinAsObserver(final SOCGame ga)
+        throws Exception
+    {
+        final StringConnection cli = new StringConnection();
+        final StringConnection srvSide = new StringConnection(cli);
+        cli.setAccepted();
+        srvSide.setAccepted();
+        srvSide.setData("observer");
+        srvSide.setAppData(new SOCClientData());
+        srvSide.setVersion(2700, true);
+
+        sgh.joinGame(ga, srvSide, false, false, false);
+
+        final List<String> sent = new ArrayList<>();
+        while (cli.isInputAvailable())
+            sent.add(cli.readNext());
+        assertFalse(sent.isEmpty());
+
+        return sent;
+    }
+
+    /** Each game keeps at most {@link JoinSnapshotCache#MAX_SNAPSHOTS_PER_GAME}, dropping least recently used. */
+    @Test
+    public void testLimit()
+    {
+        final JoinSnapshotCache jc = new JoinSnapshotCache();
+        final SOCGame ga = new SOCGame("jsc-lim");
+        final long gen = jc.getGeneration(ga);
+        for (int i = 0; i < JoinSnapshotCache.MAX_SNAPSHOTS_PER_GAME; ++i)
+            jc.put(ga, "k" + i, gen, System.nanoTime(), snap("m" + i));
+        assertNotNull(jc.get(ga, "k0"));  // now most recently used
+
+        jc.put(ga, "extra", gen, System.nanoTime(), snap("x"));
+        assertEquals(JoinSnapshotCache.MAX_SNAPSHOTS_PER_GAME, jc.size());
+        assertNotNull(jc.get(ga, "k0"));
+        assertNull(jc.get(ga, "k1"));
+        assertNotNull(jc.get(ga, "extra"));
+    }
+
+}
@@ -0,0 +1,148 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.server;
+
+import java.util.Arrays;
+import java.util.List;
+
+import soc.message.SOCGameServerText;
+import soc.message.SOCMessage;
+import soc.message.SOCPlayerElement;
+import soc.message.SOCPlayerElement.PEType;
+import soc.message.SOCPlayerElements;
+import soc.server.genericServer.Connection;
+import soc.server.genericServer.OutputBatcher;
+import soc.server.genericServer.Server;
+import soc.server.genericServer.StringConnection;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link OutputBatcher}.
+ * @since 2.7.00
+ */
+public class TestOutputBatcher
+{
+    private static String pe(final int pn, final int ac, final PEType et, final int amt, final boolean isNews)
+    {
+        return new SOCPlayerElement("ga", pn, ac, et, amt, isNews).toCmd();
+    }
+
+    /** Runs of GAIN or LOSE elements are merged; SET, news, and other messages are kept in order. */
+    @Test
+    public void testCoalesce()
+    {
+        final String txt = new SOCGameServerText("ga", "traded").toCmd();
+        final List<String> noMerge = Arrays.asList
+            (pe(1, SOCPlayerElement.GAIN, PEType.CLAY, 1, false), txt,
+             pe(1, SOCPlayerElement.GAIN, PEType.ORE, 1, true),
+             pe(1, SOCPlayerElement.SET, PEType.ORE, 0, false), pe(1, SOCPlayerElement.SET, PEType.WOOD, 0, false));
+        assertSame(noMerge, OutputBatcher.coalesce(noMerge));
+
+        final List<String> cmds = Arrays.asList
+            (pe(2, SOCPlayerElement.LOSE, PEType.SHEEP, 2, false), pe(2, SOCPlayerElement.LOSE, PEType.WHEAT, 1, false),
+             pe(2, SOCPlayerElement.GAIN, PEType.ORE, 1, false), pe(3, SOCPlayerElement.GAIN, PEType.ORE, 1, false),
+             txt,
+             pe(3, SOCPlayerElement.GAIN, PEType.CLAY, 1, false), pe(3, SOCPlayerElement.GAIN, PEType.WOOD, 1, false),
+             pe(3, SOCPlayerElement.GAIN, PEType.RESOURCE_COUNT, 2, false));
+        final List<String> merged = OutputBatcher.coalesce(cmds);
+        assertEquals(Arrays.asList
+            (new SOCPlayerElements("ga", 2, SOCPlayerElement.LOSE,
+                 new PEType[]{PEType.SHEEP, PEType.WHEAT}, new int[]{2, 1}).toCmd(),
+             cmds.get(2), cmds.get(3), txt,
+             new SOCPlayerElements("ga", 3, SOCPlayerElement.GAIN,
+                 new PEType[]{PEType.CLAY, PEType.WOOD, PEType.RESOURCE_COUNT}, new int[]{1, 1, 2}).toCmd()),
+            merged);
+
+        // merged message parses back to the same elements
+        final SOCPlayerElements pes = (SOCPlayerElements) SOCMessage.toMsg(merged.get(0));
+        assertEquals(2, pes.getPlayerNumber());
+        assertArrayEquals(new int[]{2, 1}, pes.getAmounts());
+    }
+
+    /** Output to new-enough clients is held until {@link OutputBatcher#end()}; older clients get it immediately. */
+    @Test
+    public void testBatchByVersion()
+        throws Exception
+    {
+        final Server srv = new Server("testOutputBatcher", new Server.InboundMessageDispatcher()
+            {
+                public void dispatch(SOCMessage mes, Connection con) {}
+            }, null) {};
+        final OutputBatcher ob = new OutputBatcher(2700);
+        srv.setOutputBatcher(ob);
+
+        final StringConnection cliOld = makeConn(srv, 2500), cliNew = makeConn(srv, 2700);
+        final String gain1 = pe(1, SOCPlayerElement.GAIN, PEType.CLAY, 1, false),
+            gain2 = pe(1, SOCPlayerElement.GAIN, PEType.WOOD, 1, false);
+
+        ob.begin();
+        for (final StringConnection cli : new StringConnection[]{cliOld, cliNew})
+        {
+            cli.getPeer().put(gain1);
+            cli.getPeer().put(gain2);
+        }
+        assertEquals(gain1, cliOld.readNext());
+        assertEquals(gain2, cliOld.readNext());
+        assertFalse(cliNew.isInputAvailable());
+
+        // another thread's output to a connection already holding a batch, stays in order
+        final Thread th = new Thread()
+        {
+            public void run() { cliNew.getPeer().put("other"); }
+        };
+        th.start();
+        th.join();
+        assertFalse(cliNew.isInputAvailable());
+
+        ob.end();
+        assertEquals(new SOCPlayerElements("ga", 1, SOCPlayerElement.GAIN,
+            new PEType[]{PEType.CLAY, PEType.WOOD}, new int[]{1, 1}).toCmd(), cliNew.readNext());
+        assertEquals("other", cliNew.readNext());
+        assertFalse(cliNew.isInputAvailable());
+        assertEquals(1, ob.getBatchCount());
+        assertEquals(3, ob.getMessagesHeld());
+        assertEquals(2, ob.getMessagesSent());
+
+        // not batching now
+        cliNew.getPeer().put("after");
+        assertEquals("after", cliNew.readNext());
+    }
+
+    /**
+     * Make a server-side connection of this version, with a client-side peer to read what's sent.
+     * @return the client side; its {@link StringConnection#getPeer()} is the server side
+     */
+    private static StringConnection makeConn(final Server srv, final int vers)
+        throws Exception
+    {
+        final StringConnection cli = new StringConnection();
+        final StringConnection srvSide = new StringConnection(cli);
+        cli.setAccepted();
+        srvSide.setAccepted();
+        srvSide.setServer(srv);
+        srvSide.setVersion(vers, true);
+
+        return cli;
+    }
+
+}
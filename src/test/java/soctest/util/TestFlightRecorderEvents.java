@@ -0,0 +1,96 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.util;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.List;
+
+import soc.util.FlightRecorderEvents;
+
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FlightRecorderEvents}.
+ * Like that class, uses {@code jdk.jfr} only by reflection, so this test compiles on any Java 8 JDK;
+ * the recording part is skipped if the JVM running the test doesn't have JFR.
+ * @since 2.7.00
+ */
+public class TestFlightRecorderEvents
+{
+    /** When disabled, begin methods return null; when enabled and recording, events are committed with their fields. */
+    @Test
+    public void testDisabledAndRecorded()
+        throws Exception
+    {
+        assertFalse(FlightRecorderEvents.isEnabled());
+        assertNull(FlightRecorderEvents.beginMakeBoard());
+
+        Class<?> recClass = null;
+        try
+        {
+            recClass = Class.forName("jdk.jfr.Recording");
+        } catch (ClassNotFoundException e) {}
+        Assume.assumeNotNull(recClass);
+
+        final File f = File.createTempFile("jsettlers-test", ".jfr");
+        try
+        {
+            assertTrue(FlightRecorderEvents.setEnabled(true));
+
+            // new Recording(), enable("soc.MakeBoard"), start(), ..., stop(), dump(path), close()
+            final Object rec = recClass.getConstructor().newInstance();
+            try
+            {
+                recClass.getMethod("enable", String.class).invoke(rec, "soc.MakeBoard");
+                recClass.getMethod("start").invoke(rec);
+                final Object ev = FlightRecorderEvents.beginMakeBoard();
+                assertNotNull(ev);
+                FlightRecorderEvents.endMakeBoard(ev, "testgame", "SOCBoard4p");
+                recClass.getMethod("stop").invoke(rec);
+                recClass.getMethod("dump", Path.class).invoke(rec, f.toPath());
+            } finally {
+                recClass.getMethod("close").invoke(rec);
+            }
+
+            // RecordingFile.readAllEvents(path): List<RecordedEvent>
+            final List<?> events = (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile")
+                .getMethod("readAllEvents", Path.class).invoke(null, f.toPath());
+            assertEquals(1, events.size());
+            final Object re = events.get(0);
+            final Class<?> reClass = Class.forName("jdk.jfr.consumer.RecordedEvent");
+            final Object etype = reClass.getMethod("getEventType").invoke(re);
+            assertEquals("soc.MakeBoard", Class.forName("jdk.jfr.EventType").getMethod("getName").invoke(etype));
+            final Method getString = reClass.getMethod("getString", String.class);
+            assertEquals("testgame", getString.invoke(re, "game"));
+            assertEquals("SOCBoard4p", getString.invoke(re, "boardClass"));
+        } finally {
+            FlightRecorderEvents.setEnabled(false);
+            f.delete();
+        }
+
+        assertNull(FlightRecorderEvents.beginMakeBoard());
+    }
+
+}
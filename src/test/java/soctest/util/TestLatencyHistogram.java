@@ -0,0 +1,63 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+
+package soctest.util;
+
+import soc.util.LatencyHistogram;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link LatencyHistogram}.
+ * @since 2.7.00
+ */
+public class TestLatencyHistogram
+{
+    /** Bucket placement, counts, max, and percentile bounds. */
+    @Test
+    public void testRecordAndPercentiles()
+    {
+        final LatencyHistogram h = new LatencyHistogram();
+        assertEquals("n=0", h.toStringMillis());
+        assertEquals(0, h.getPercentileMicros(50));
+
+        h.record(-5);  // recorded as 0
+        h.record(500);  // 0 us
+        assertEquals(2, h.getBucketCount(0));
+
+        for (int i = 0; i < 8; ++i)
+            h.record(3000 * 1000L);  // 3 ms: bucket for 2048 to 4096 us
+        assertEquals(8, h.getBucketCount(12));
+        assertEquals(10, h.getCount());
+        assertEquals(3000 * 1000L, h.getMaxNanos());
+        assertEquals(8 * 3000 * 1000L + 500, h.getTotalNanos());
+
+        assertEquals(1, h.getPercentileMicros(10));
+        assertEquals(4096, h.getPercentileMicros(50));
+        assertEquals(4096, h.getPercentileMicros(100));
+        assertEquals("n=10, avg 2.4 ms, p50 <= 5, p90 <= 5, p99 <= 5, max 3.0 ms", h.toStringMillis());
+
+        h.record(Long.MAX_VALUE);
+        assertEquals(1, h.getBucketCount(LatencyHistogram.NUM_BUCKETS - 1));
+    }
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.util;
+
+import soc.util.LatencyHistogram;
+import soc.util.MetricsRegistry;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link MetricsRegistry} and its formats.
+ * @since 2.7.00
+ */
+public class TestMetricsRegistry
+{
+    /** Prometheus text has HELP and TYPE once per family, then each labeled sample. */
+    @Test
+    public void testPrometheusText()
+    {
+        final MetricsRegistry reg = new MetricsRegistry();
+        reg.register(new MetricsRegistry.Source()
+        {
+            public void addMetrics(MetricsRegistry.Snapshot s)
+            {
+                s.counter("t_total", "A counter", 42);
+                s.gauge("t_games", "Games", "type", "sea", 3);
+                s.gauge("t_games", "Games", "type", "clas\"sic", 1.5);
+            }
+        });
+
+        final String txt = reg.collect().toPrometheusText();
+        assertEquals
+            ("# HELP t_total A counter\n# TYPE t_total counter\nt_total 42\n"
+             + "# HELP t_games Games\n# TYPE t_games gauge\nt_games{type=\"sea\"} 3\n"
+             + "t_games{type=\"clas\\\"sic\"} 1.5\n", txt);
+    }
+
+    /** Latency summary has quantiles, count and sum; JSON line has all samples; a throwing source is skipped. */
+    @Test
+    public void testLatencyJSONAndThrowingSource()
+    {
+        final LatencyHistogram h = new LatencyHistogram();
+        h.record(3000000L);  // 3 ms: bucket upper bound 4096 micros
+
+        final MetricsRegistry reg = new MetricsRegistry();
+        reg.register(new MetricsRegistry.Source()
+        {
+            public void addMetrics(MetricsRegistry.Snapshot s)
+            {
+                throw new IllegalStateException("expected by test");
+            }
+        });
+        reg.register(new MetricsRegistry.Source()
+        {
+            public void addMetrics(MetricsRegistry.Snapshot s)
+            {
+                s.latency("t_seconds", "Latency", "handler", "X", h);
+            }
+        });
+
+        final MetricsRegistry.Snapshot snap = reg.collect();
+        final String txt = snap.toPrometheusText();
+        assertTrue(txt, txt.contains("# TYPE t_seconds summary\n"));
+        assertTrue(txt, txt.contains("t_seconds{handler=\"X\",quantile=\"0.99\"} 0.004096\n"));
+        assertTrue(txt, txt.contains("t_seconds_count{handler=\"X\"} 1\n"));
+        assertTrue(txt, txt.contains("t_seconds_sum{handler=\"X\"} 0.003\n"));
+
+        final String json = snap.toJSONLine();
+        assertTrue(json, json.startsWith("{\"time\":" + snap.timestamp + ",\"metrics\":{"));
+        assertTrue(json, json.contains("\"t_seconds_count{handler=\\\"X\\\"}\":1"));
+        assertTrue(json, json.endsWith("}}"));
+        assertFalse(json, json.contains("\n"));
+    }
+
+    /** JSON has no NaN or infinity, so those are null there; Prometheus text has its own spellings. */
+    @Test
+    public void testNonFiniteValues()
+    {
+        final MetricsRegistry reg = new MetricsRegistry();
+        reg.register(new MetricsRegistry.Source()
+        {
+            public void addMetrics(MetricsRegistry.Snapshot s)
+            {
+                s.gauge("t_nan", "NaN", Double.NaN);
+                s.gauge("t_inf", "Inf", "sign", "pos", Double.POSITIVE_INFINITY);
+                s.gauge("t_inf", "Inf", "sign", "neg", Double.NEGATIVE_INFINITY);
+                s.gauge("t_ok", "OK", 2);
+            }
+        });
+
+        final MetricsRegistry.Snapshot snap = reg.collect();
+        assertEquals
+            ("{\"time\":" + snap.timestamp + ",\"metrics\":{\"t_nan\":null,"
+             + "\"t_inf{sign=\\\"pos\\\"}\":null,\"t_inf{sign=\\\"neg\\\"}\":null,\"t_ok\":2}}",
+             snap.toJSONLine());
+
+        final String txt = snap.toPrometheusText();
+        assertTrue(txt, txt.contains("t_nan NaN\n"));
+        assertTrue(txt, txt.contains("t_inf{sign=\"pos\"} +Inf\n"));
+        assertTrue(txt, txt.contains("t_inf{sign=\"neg\"} -Inf\n"));
+    }
+
+}
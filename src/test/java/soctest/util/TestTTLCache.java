@@ -0,0 +1,75 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+
+package soctest.util;
+
+import soc.util.TTLCache;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link TTLCache}.
+ * @since 2.7.00
+ */
+public class TestTTLCache
+{
+    /** Hits, misses, cached nulls, remove, and LRU eviction when full. */
+    @Test
+    public void testGetPutEvict()
+    {
+        final TTLCache<String, String> c = new TTLCache<>(2, 60 * 1000);
+        assertNull(c.get("a"));
+        c.put("a", "A");
+        c.put("none", null);
+        assertEquals("A", c.get("a").value);
+        final TTLCache.Entry<String> e = c.get("none");
+        assertNotNull(e);
+        assertNull(e.value);
+        assertEquals(2, c.getHitCount());
+        assertEquals(1, c.getMissCount());
+
+        c.get("a");  // now "none" is least recently used
+        c.put("b", "B");
+        assertEquals(2, c.size());
+        assertNull(c.get("none"));
+        assertEquals("B", c.get("b").value);
+
+        c.remove("b");
+        assertNull(c.get("b"));
+        assertEquals(1, c.size());
+        assertEquals("1 entries, 4 hits, 3 misses (57% hits)", c.toStatsString());
+    }
+
+    /** Entries expire after their TTL. */
+    @Test(timeout=5000)
+    public void testExpiry()
+        throws InterruptedException
+    {
+        final TTLCache<Integer, String> c = new TTLCache<>(10, 30);
+        c.put(1, "x");
+        assertEquals("x", c.get(1).value);
+        Thread.sleep(60);
+        assertNull(c.get(1));
+        assertEquals(0, c.size());
+    }
+
+}
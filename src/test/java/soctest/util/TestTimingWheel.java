@@ -0,0 +1,104 @@
+/**
+ * Java Settlers - An online multiplayer version of the game Settlers of Catan
+ * This file Copyright (C) 2026 Jeremy D Monin <jeremy@nand.net>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * The maintainer of this program can be reached at jsettlers@nand.net
+ **/
+
+package soctest.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import soc.util.TimingWheel;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * A few tests for {@link TimingWheel}.
+ * @since 2.7.00
+ */
+public class TestTimingWheel
+{
+    /** One-shot tasks run once, including one delayed longer than a wheel rotation; cancelled tasks don't run. */
+    @Test(timeout=10000)
+    public void testOneShotAndCancel()
+        throws InterruptedException
+    {
+        final TimingWheel tw = new TimingWheel("test-oneshot", 5, 8);  // 40ms per rotation
+        try
+        {
+            final CountDownLatch done = new CountDownLatch(2);
+            final AtomicInteger cancelledRuns = new AtomicInteger();
+            final long start = System.nanoTime();
+
+            tw.schedule(new Runnable() { public void run() { done.countDown(); } }, 10, 0);
+            tw.schedule(new Runnable() { public void run() { done.countDown(); } }, 120, 0);
+            tw.schedule(new Runnable() { public void run() { cancelledRuns.incrementAndGet(); } }, 50, 0).cancel();
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue("waited long enough", (System.nanoTime() - start) >= 120 * 1000000L);
+            Thread.sleep(100);
+            assertEquals(0, cancelledRuns.get());
+            assertEquals(0, tw.getTaskCount());
+            assertEquals(2, tw.getTasksRun());
+            assertTrue(tw.getTickCount() > 0);
+            assertTrue(tw.getMaxTickNanos() <= tw.getTotalTickNanos());
+        } finally {
+            tw.stop();
+        }
+    }
+
+    /** A periodic task repeats until cancelled; a task which throws is cancelled. */
+    @Test(timeout=10000)
+    public void testPeriodic()
+        throws InterruptedException
+    {
+        final TimingWheel tw = new TimingWheel("test-periodic", 5, 4);
+        try
+        {
+            final CountDownLatch fiveRuns = new CountDownLatch(5);
+            final AtomicInteger throwRuns = new AtomicInteger();
+            final TimingWheel.Timeout t = tw.schedule
+                (new Runnable() { public void run() { fiveRuns.countDown(); } }, 0, 25);
+            final TimingWheel.Timeout tt = tw.schedule(new Runnable()
+                {
+                    public void run()
+                    {
+                        throwRuns.incrementAndGet();
+                        throw new IllegalStateException("expected by test");
+                    }
+                }, 5, 5);
+
+            assertTrue(fiveRuns.await(5, TimeUnit.SECONDS));
+            assertEquals(1, throwRuns.get());
+            assertTrue(tt.isCancelled());
+            assertFalse(t.isCancelled());
+
+            t.cancel();
+            Thread.sleep(50);
+            final long nRun = tw.getTasksRun();
+            Thread.sleep(60);
+            assertEquals(nRun, tw.getTasksRun());
+            assertEquals(0, tw.getTaskCount());
+        } finally {
+            tw.stop();
+        }
+    }
+
+}